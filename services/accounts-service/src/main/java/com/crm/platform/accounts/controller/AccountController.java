@@ -1,5 +1,6 @@
 package com.crm.platform.accounts.controller;
 
+import com.crm.platform.accounts.dto.AccountGraphResponse;
 import com.crm.platform.accounts.dto.AccountRequest;
 import com.crm.platform.accounts.dto.AccountResponse;
 import com.crm.platform.accounts.dto.AccountSearchRequest;
@@ -208,6 +209,47 @@ public class AccountController {
         return ResponseEntity.ok(ApiResponse.success(relationships));
     }
 
+    // Relationship graph endpoints
+    @GetMapping("/{id}/relationship-graph")
+    public ResponseEntity<ApiResponse<AccountGraphResponse>> getRelationshipNeighbourhood(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "2") int depth,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+        
+        logger.debug("GET /api/v1/accounts/{}/relationship-graph for tenant: {}", id, tenantId);
+        
+        AccountGraphResponse graph = accountService.getRelationshipNeighbourhood(id, depth, limit, tenantId);
+        
+        return ResponseEntity.ok(ApiResponse.success(graph));
+    }
+
+    @GetMapping("/{id}/relationship-graph/path/{targetId}")
+    public ResponseEntity<ApiResponse<AccountGraphResponse>> getRelationshipPath(
+            @PathVariable UUID id,
+            @PathVariable UUID targetId,
+            @RequestParam(defaultValue = "4") int maxDepth,
+            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+        
+        logger.debug("GET /api/v1/accounts/{}/relationship-graph/path/{} for tenant: {}", id, targetId, tenantId);
+        
+        AccountGraphResponse path = accountService.getRelationshipPath(id, targetId, maxDepth, tenantId);
+        
+        return ResponseEntity.ok(ApiResponse.success(path));
+    }
+
+    @GetMapping("/{id}/relationship-graph/degree")
+    public ResponseEntity<ApiResponse<AccountGraphResponse>> getRelationshipDegree(
+            @PathVariable UUID id,
+            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+        
+        logger.debug("GET /api/v1/accounts/{}/relationship-graph/degree for tenant: {}", id, tenantId);
+        
+        AccountGraphResponse degree = accountService.getRelationshipDegree(id, tenantId);
+        
+        return ResponseEntity.ok(ApiResponse.success(degree));
+    }
+
     // Deduplication endpoints
     @PostMapping("/{primaryId}/merge/{secondaryId}")
     public ResponseEntity<ApiResponse<AccountResponse>> mergeAccounts(
@@ -0,0 +1,90 @@
+package com.crm.platform.accounts.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class AccountGraphResponse {
+
+    private UUID startId;
+    private List<AccountGraphNode> accounts;
+    private List<UUID> path;
+    private Integer degree;
+    private Boolean truncated;
+
+    // Constructors
+    public AccountGraphResponse() {}
+
+    public AccountGraphResponse(UUID startId) {
+        this.startId = startId;
+    }
+
+    // Getters and Setters
+    public UUID getStartId() {
+        return startId;
+    }
+
+    public void setStartId(UUID startId) {
+        this.startId = startId;
+    }
+
+    public List<AccountGraphNode> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<AccountGraphNode> accounts) {
+        this.accounts = accounts;
+    }
+
+    public List<UUID> getPath() {
+        return path;
+    }
+
+    public void setPath(List<UUID> path) {
+        this.path = path;
+    }
+
+    public Integer getDegree() {
+        return degree;
+    }
+
+    public void setDegree(Integer degree) {
+        this.degree = degree;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    // Account reached from the start, with its distance in hops
+    public static class AccountGraphNode {
+        private UUID id;
+        private Integer depth;
+
+        public AccountGraphNode() {}
+
+        public AccountGraphNode(UUID id, Integer depth) {
+            this.id = id;
+            this.depth = depth;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public void setId(UUID id) {
+            this.id = id;
+        }
+
+        public Integer getDepth() {
+            return depth;
+        }
+
+        public void setDepth(Integer depth) {
+            this.depth = depth;
+        }
+    }
+}
@@ -122,6 +122,11 @@ public interface AccountRelationshipRepository extends JpaRepository<AccountRela
            "AND ar.isActive = true AND ar.strength IS NOT NULL")
     Double getAverageRelationshipStrength(@Param("tenantId") UUID tenantId);
     
+    // Graph loading: [fromAccountId, toAccountId] of every active relationship
+    @Query("SELECT ar.fromAccount.id, ar.toAccount.id FROM AccountRelationship ar WHERE ar.tenantId = :tenantId " +
+           "AND ar.isActive = true")
+    List<Object[]> findActiveRelationshipEdges(@Param("tenantId") UUID tenantId);
+    
     // Bulk operations
     @Query("SELECT ar FROM AccountRelationship ar WHERE ar.tenantId = :tenantId AND ar.id IN :ids")
     List<AccountRelationship> findByTenantIdAndIdIn(@Param("tenantId") UUID tenantId, @Param("ids") List<UUID> ids);
@@ -35,6 +35,8 @@ public interface AccountRepository extends JpaRepository<Account, UUID>, JpaSpec
     
     boolean existsByTenantIdAndAccountNumber(UUID tenantId, String accountNumber);
     
+    boolean existsByIdAndTenantId(UUID id, UUID tenantId);
+    
     // Type and status queries
     List<Account> findByTenantIdAndAccountType(UUID tenantId, AccountType accountType);
     
@@ -97,6 +99,10 @@ public interface AccountRepository extends JpaRepository<Account, UUID>, JpaSpec
     @Query("SELECT a.industry, COUNT(a) FROM Account a WHERE a.tenantId = :tenantId AND a.industry IS NOT NULL GROUP BY a.industry ORDER BY COUNT(a) DESC")
     List<Object[]> countByTenantIdGroupByIndustry(@Param("tenantId") UUID tenantId);
     
+    // Graph loading: [accountId, parentAccountId] of every account with a parent
+    @Query("SELECT a.id, a.parentAccount.id FROM Account a WHERE a.tenantId = :tenantId AND a.parentAccount IS NOT NULL")
+    List<Object[]> findParentAccountEdges(@Param("tenantId") UUID tenantId);
+    
     // Hierarchy analytics
     @Query("SELECT a.hierarchyLevel, COUNT(a) FROM Account a WHERE a.tenantId = :tenantId GROUP BY a.hierarchyLevel ORDER BY a.hierarchyLevel")
     List<Object[]> countByTenantIdGroupByHierarchyLevel(@Param("tenantId") UUID tenantId);
@@ -0,0 +1,145 @@
+package com.crm.platform.accounts.service;
+
+import com.crm.platform.accounts.repository.AccountRelationshipRepository;
+import com.crm.platform.accounts.repository.AccountRepository;
+import com.crm.platform.common.graph.RelationshipGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory graphs of account relationships and parent accounts, one per tenant, so traversals
+ * and path searches across accounts run without a query per hop.
+ *
+ * A tenant's graph is loaded on first use and changed by this instance's own writes once they
+ * commit. Writes made on other instances are picked up when the graph is reloaded after max-age.
+ */
+@Service
+public class AccountRelationshipGraphService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountRelationshipGraphService.class);
+
+    static final int ACCOUNT = 0;
+
+    private final AccountRepository accountRepository;
+    private final AccountRelationshipRepository relationshipRepository;
+    private final int maxDepth;
+    private final int maxNodes;
+    private final Duration maxAge;
+    private final Map<UUID, TenantGraph> graphs = new ConcurrentHashMap<>();
+
+    public AccountRelationshipGraphService(AccountRepository accountRepository,
+                                           AccountRelationshipRepository relationshipRepository,
+                                           @Value("${app.accounts.relationship-graph.max-depth:6}") int maxDepth,
+                                           @Value("${app.accounts.relationship-graph.max-nodes:10000}") int maxNodes,
+                                           @Value("${app.accounts.relationship-graph.max-age:PT15M}") Duration maxAge) {
+        this.accountRepository = accountRepository;
+        this.relationshipRepository = relationshipRepository;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * The tenant's graph, loaded on first use and again once it is older than max-age.
+     */
+    @Transactional(readOnly = true)
+    public RelationshipGraph graphOf(UUID tenantId) {
+        TenantGraph tenantGraph = graphs.get(tenantId);
+        if (tenantGraph == null || tenantGraph.loadedAt.plus(maxAge).isBefore(Instant.now())) {
+            tenantGraph = load(tenantId);
+            graphs.put(tenantId, tenantGraph);
+        }
+        return tenantGraph.graph;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    public void relationshipCreated(UUID tenantId, UUID fromAccountId, UUID toAccountId) {
+        afterCommit(tenantId, graph -> graph.addRelationship(fromAccountId, ACCOUNT, toAccountId, ACCOUNT));
+    }
+
+    public void parentChanged(UUID tenantId, UUID accountId, UUID oldParentId, UUID newParentId) {
+        afterCommit(tenantId, graph -> {
+            if (oldParentId != null) {
+                graph.removeRelationship(accountId, oldParentId);
+            }
+            if (newParentId != null) {
+                graph.addRelationship(accountId, ACCOUNT, newParentId, ACCOUNT);
+            }
+        });
+    }
+
+    public void accountDeleted(UUID tenantId, UUID accountId) {
+        afterCommit(tenantId, graph -> graph.removeNode(accountId));
+    }
+
+    /**
+     * Drops the tenant's graph after a change too broad to apply edge by edge, such as a merge.
+     */
+    public void invalidate(UUID tenantId) {
+        afterCommit(tenantId, graph -> graphs.remove(tenantId));
+    }
+
+    private void afterCommit(UUID tenantId, Consumer<RelationshipGraph> change) {
+        Runnable apply = () -> {
+            TenantGraph tenantGraph = graphs.get(tenantId);
+            if (tenantGraph != null) {
+                change.accept(tenantGraph.graph);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private TenantGraph load(UUID tenantId) {
+        long start = System.currentTimeMillis();
+        RelationshipGraph graph = new RelationshipGraph();
+        for (Object[] edge : relationshipRepository.findActiveRelationshipEdges(tenantId)) {
+            graph.addRelationship((UUID) edge[0], ACCOUNT, (UUID) edge[1], ACCOUNT);
+        }
+        for (Object[] edge : accountRepository.findParentAccountEdges(tenantId)) {
+            graph.addRelationship((UUID) edge[0], ACCOUNT, (UUID) edge[1], ACCOUNT);
+        }
+        graph.trimToSize();
+
+        logger.info("Loaded account relationship graph of tenant {}: {} accounts, {} relationships, ~{} KB in {} ms",
+                   tenantId, graph.nodeCount(), graph.relationshipCount(), graph.estimatedBytes() / 1024,
+                   System.currentTimeMillis() - start);
+        return new TenantGraph(graph);
+    }
+
+    private static final class TenantGraph {
+        private final RelationshipGraph graph;
+        private final Instant loadedAt = Instant.now();
+
+        private TenantGraph(RelationshipGraph graph) {
+            this.graph = graph;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.crm.platform.accounts.service;
 
+import com.crm.platform.accounts.dto.AccountGraphResponse;
 import com.crm.platform.accounts.dto.AccountRequest;
 import com.crm.platform.accounts.dto.AccountResponse;
 import com.crm.platform.accounts.dto.AccountSearchRequest;
@@ -10,6 +11,7 @@ import com.crm.platform.accounts.repository.AccountRepository;
 import com.crm.platform.accounts.repository.AccountRelationshipRepository;
 import com.crm.platform.accounts.specification.AccountSpecification;
 import com.crm.platform.accounts.exception.AccountBusinessException;
+import com.crm.platform.common.graph.RelationshipGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,18 +40,21 @@ public class AccountService {
     private final AccountValidationService validationService;
     private final AccountHierarchyService hierarchyService;
     private final AccountDeduplicationService deduplicationService;
+    private final AccountRelationshipGraphService graphService;
 
     @Autowired
     public AccountService(AccountRepository accountRepository,
                          AccountRelationshipRepository relationshipRepository,
                          AccountValidationService validationService,
                          AccountHierarchyService hierarchyService,
-                         AccountDeduplicationService deduplicationService) {
+                         AccountDeduplicationService deduplicationService,
+                         AccountRelationshipGraphService graphService) {
         this.accountRepository = accountRepository;
         this.relationshipRepository = relationshipRepository;
         this.validationService = validationService;
         this.hierarchyService = hierarchyService;
         this.deduplicationService = deduplicationService;
+        this.graphService = graphService;
     }
 
     @Transactional(readOnly = true)
@@ -102,6 +107,9 @@ public class AccountService {
         }
         
         Account savedAccount = accountRepository.save(account);
+        if (request.getParentAccountId() != null) {
+            graphService.parentChanged(tenantId, savedAccount.getId(), null, request.getParentAccountId());
+        }
         
         logger.info("Created account with ID: {} for tenant: {}", savedAccount.getId(), tenantId);
         
@@ -124,17 +132,25 @@ public class AccountService {
         }
         
         // Handle hierarchy changes
-        if (request.getParentAccountId() != null && 
-            !request.getParentAccountId().equals(account.getParentAccount() != null ? account.getParentAccount().getId() : null)) {
-            hierarchyService.changeParentAccount(account, request.getParentAccountId(), tenantId);
-        } else if (request.getParentAccountId() == null && account.getParentAccount() != null) {
+        UUID oldParentId = account.getParentAccount() != null ? account.getParentAccount().getId() : null;
+        UUID newParentId = request.getParentAccountId();
+        boolean parentChanged = false;
+        if (newParentId != null && !newParentId.equals(oldParentId)) {
+            hierarchyService.changeParentAccount(account, newParentId, tenantId);
+            parentChanged = true;
+        } else if (newParentId == null && oldParentId != null) {
             hierarchyService.removeFromHierarchy(account);
+            parentChanged = true;
         }
         
         mapRequestToEntity(request, account);
         account.setUpdatedBy(userId);
         
         Account savedAccount = accountRepository.save(account);
+        // Only a parent the hierarchy actually moved away from or to is reported to the graph
+        if (parentChanged) {
+            graphService.parentChanged(tenantId, accountId, oldParentId, newParentId);
+        }
         
         logger.info("Updated account with ID: {} for tenant: {}", accountId, tenantId);
         
@@ -161,6 +177,7 @@ public class AccountService {
         relationshipRepository.deleteAllRelationshipsByAccountId(tenantId, accountId);
         
         accountRepository.delete(account);
+        graphService.accountDeleted(tenantId, accountId);
         
         logger.info("Deleted account with ID: {} for tenant: {}", accountId, tenantId);
     }
@@ -195,7 +212,9 @@ public class AccountService {
         Account secondaryAccount = accountRepository.findByIdAndTenantId(secondaryAccountId, tenantId)
             .orElseThrow(() -> new AccountBusinessException("ACCOUNT_NOT_FOUND", "Secondary account not found"));
         
-        return deduplicationService.mergeAccounts(primaryAccount, secondaryAccount, userId);
+        AccountResponse merged = deduplicationService.mergeAccounts(primaryAccount, secondaryAccount, userId);
+        graphService.invalidate(tenantId);
+        return merged;
     }
 
     @Transactional(readOnly = true)
@@ -234,6 +253,7 @@ public class AccountService {
         relationship.setDescription(description);
         
         relationshipRepository.save(relationship);
+        graphService.relationshipCreated(tenantId, fromAccountId, toAccountId);
         
         logger.info("Created relationship: {} -> {} ({}) for tenant: {}", 
                    fromAccountId, toAccountId, relationshipType, tenantId);
@@ -246,6 +266,46 @@ public class AccountService {
         return relationshipRepository.findActiveRelationshipsByAccountId(tenantId, accountId);
     }
 
+    // Relationship graph queries, answered from the tenant's in-memory graph
+    @Transactional(readOnly = true)
+    public AccountGraphResponse getRelationshipNeighbourhood(UUID accountId, int depth, int limit, UUID tenantId) {
+        logger.debug("Traversing relationships of account: {} to depth {} for tenant: {}", accountId, depth, tenantId);
+        
+        requireAccount(accountId, tenantId);
+        int maxNodes = Math.min(limit, graphService.getMaxNodes());
+        List<RelationshipGraph.Hop> hops = graphService.graphOf(tenantId)
+            .neighbourhood(accountId, Math.min(depth, graphService.getMaxDepth()), maxNodes);
+        
+        AccountGraphResponse response = new AccountGraphResponse(accountId);
+        response.setAccounts(hops.stream()
+            .map(hop -> new AccountGraphResponse.AccountGraphNode(hop.getId(), hop.getDepth()))
+            .collect(Collectors.toList()));
+        response.setTruncated(hops.size() == maxNodes);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public AccountGraphResponse getRelationshipPath(UUID fromAccountId, UUID toAccountId, int maxDepth, UUID tenantId) {
+        logger.debug("Finding relationship path: {} -> {} for tenant: {}", fromAccountId, toAccountId, tenantId);
+        
+        requireAccount(fromAccountId, tenantId);
+        requireAccount(toAccountId, tenantId);
+        
+        AccountGraphResponse response = new AccountGraphResponse(fromAccountId);
+        response.setPath(graphService.graphOf(tenantId)
+            .shortestPath(fromAccountId, toAccountId, Math.min(maxDepth, graphService.getMaxDepth())));
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public AccountGraphResponse getRelationshipDegree(UUID accountId, UUID tenantId) {
+        requireAccount(accountId, tenantId);
+        
+        AccountGraphResponse response = new AccountGraphResponse(accountId);
+        response.setDegree(graphService.graphOf(tenantId).degree(accountId));
+        return response;
+    }
+
     // Bulk operations
     public List<AccountResponse> createAccountsBulk(List<AccountRequest> requests, UUID tenantId, UUID userId) {
         logger.debug("Creating {} accounts in bulk for tenant: {}", requests.size(), tenantId);
@@ -269,6 +329,12 @@ public class AccountService {
     }
 
     // Helper methods
+    private void requireAccount(UUID accountId, UUID tenantId) {
+        if (!accountRepository.existsByIdAndTenantId(accountId, tenantId)) {
+            throw new AccountBusinessException("ACCOUNT_NOT_FOUND", "Account not found");
+        }
+    }
+
     private Pageable createPageable(AccountSearchRequest searchRequest) {
         int page = searchRequest.getPage() != null ? searchRequest.getPage() : 0;
         int size = searchRequest.getSize() != null ? searchRequest.getSize() : 20;
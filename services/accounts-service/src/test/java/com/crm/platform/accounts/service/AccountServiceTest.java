@@ -1,5 +1,6 @@
 package com.crm.platform.accounts.service;
 
+import com.crm.platform.accounts.dto.AccountGraphResponse;
 import com.crm.platform.accounts.dto.AccountRequest;
 import com.crm.platform.accounts.dto.AccountResponse;
 import com.crm.platform.accounts.dto.AccountSearchRequest;
@@ -9,6 +10,7 @@ import com.crm.platform.accounts.entity.AccountType;
 import com.crm.platform.accounts.repository.AccountRepository;
 import com.crm.platform.accounts.repository.AccountRelationshipRepository;
 import com.crm.platform.common.exception.CrmBusinessException;
+import com.crm.platform.common.graph.RelationshipGraph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,6 +51,9 @@ class AccountServiceTest {
     @Mock
     private AccountDeduplicationService deduplicationService;
 
+    @Mock
+    private AccountRelationshipGraphService graphService;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -215,6 +220,68 @@ class AccountServiceTest {
         verify(accountRepository, never()).save(any(Account.class));
     }
 
+    @Test
+    void updateAccount_WithoutParent_DoesNotReportParentChange() {
+        // Given an account without a parent, updated without one
+        when(accountRepository.findByIdAndTenantId(accountId, tenantId))
+            .thenReturn(Optional.of(testAccount));
+        when(deduplicationService.findPotentialDuplicates(testRequest, tenantId, accountId))
+            .thenReturn(Arrays.asList());
+        when(accountRepository.save(any(Account.class))).thenReturn(testAccount);
+
+        // When
+        accountService.updateAccount(accountId, testRequest, tenantId, userId);
+
+        // Then
+        verifyNoInteractions(hierarchyService);
+        verify(graphService, never()).parentChanged(any(), any(), any(), any());
+    }
+
+    @Test
+    void updateAccount_NewParent_ReportsParentChange() {
+        // Given
+        UUID oldParentId = UUID.randomUUID();
+        UUID newParentId = UUID.randomUUID();
+        Account oldParent = new Account("Old Parent", tenantId, userId, userId);
+        oldParent.setId(oldParentId);
+        testAccount.setParentAccount(oldParent);
+        testRequest.setParentAccountId(newParentId);
+        when(accountRepository.findByIdAndTenantId(accountId, tenantId))
+            .thenReturn(Optional.of(testAccount));
+        when(deduplicationService.findPotentialDuplicates(testRequest, tenantId, accountId))
+            .thenReturn(Arrays.asList());
+        when(accountRepository.save(any(Account.class))).thenReturn(testAccount);
+
+        // When
+        accountService.updateAccount(accountId, testRequest, tenantId, userId);
+
+        // Then
+        verify(hierarchyService).changeParentAccount(testAccount, newParentId, tenantId);
+        verify(graphService).parentChanged(tenantId, accountId, oldParentId, newParentId);
+    }
+
+    @Test
+    void updateAccount_SameParent_DoesNotReportParentChange() {
+        // Given
+        UUID parentId = UUID.randomUUID();
+        Account parent = new Account("Parent", tenantId, userId, userId);
+        parent.setId(parentId);
+        testAccount.setParentAccount(parent);
+        testRequest.setParentAccountId(parentId);
+        when(accountRepository.findByIdAndTenantId(accountId, tenantId))
+            .thenReturn(Optional.of(testAccount));
+        when(deduplicationService.findPotentialDuplicates(testRequest, tenantId, accountId))
+            .thenReturn(Arrays.asList());
+        when(accountRepository.save(any(Account.class))).thenReturn(testAccount);
+
+        // When
+        accountService.updateAccount(accountId, testRequest, tenantId, userId);
+
+        // Then
+        verifyNoInteractions(hierarchyService);
+        verify(graphService, never()).parentChanged(any(), any(), any(), any());
+    }
+
     @Test
     void deleteAccount_Success() {
         // Given
@@ -229,6 +296,27 @@ class AccountServiceTest {
         verify(accountRepository).findByIdAndTenantId(accountId, tenantId);
         verify(relationshipRepository).deleteAllRelationshipsByAccountId(tenantId, accountId);
         verify(accountRepository).delete(testAccount);
+        verify(graphService).accountDeleted(tenantId, accountId);
+    }
+
+    @Test
+    void getRelationshipPath_UsesTenantGraph() {
+        // Given
+        UUID partnerId = UUID.randomUUID();
+        UUID parentId = UUID.randomUUID();
+        RelationshipGraph graph = new RelationshipGraph();
+        graph.addRelationship(accountId, AccountRelationshipGraphService.ACCOUNT, parentId, AccountRelationshipGraphService.ACCOUNT);
+        graph.addRelationship(parentId, AccountRelationshipGraphService.ACCOUNT, partnerId, AccountRelationshipGraphService.ACCOUNT);
+        when(accountRepository.existsByIdAndTenantId(any(UUID.class), eq(tenantId))).thenReturn(true);
+        when(graphService.graphOf(tenantId)).thenReturn(graph);
+        when(graphService.getMaxDepth()).thenReturn(6);
+
+        // When
+        AccountGraphResponse result = accountService.getRelationshipPath(accountId, partnerId, 4, tenantId);
+
+        // Then
+        assertEquals(List.of(accountId, parentId, partnerId), result.getPath());
+        verify(relationshipRepository, never()).findActiveRelationshipsByAccountId(any(), any());
     }
 
     @Test
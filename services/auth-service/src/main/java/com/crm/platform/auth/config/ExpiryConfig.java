@@ -0,0 +1,52 @@
+package com.crm.platform.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the chunked expiry engine used by the cleanup jobs
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.expiry")
+public class ExpiryConfig {
+
+    private boolean enabled = true;
+    private int chunkSize = 5000;
+    private int maxChunksPerRun = 2000;
+    private Duration targetChunkLatency = Duration.ofMillis(250);
+    private Duration minPause = Duration.ofMillis(10);
+    private Duration maxPause = Duration.ofSeconds(5);
+    private Duration leaseTtl = Duration.ofMinutes(10);
+    private boolean dropPartitions = true;
+    private boolean detachConcurrently = true;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getMaxChunksPerRun() { return maxChunksPerRun; }
+    public void setMaxChunksPerRun(int maxChunksPerRun) { this.maxChunksPerRun = maxChunksPerRun; }
+
+    public Duration getTargetChunkLatency() { return targetChunkLatency; }
+    public void setTargetChunkLatency(Duration targetChunkLatency) { this.targetChunkLatency = targetChunkLatency; }
+
+    public Duration getMinPause() { return minPause; }
+    public void setMinPause(Duration minPause) { this.minPause = minPause; }
+
+    public Duration getMaxPause() { return maxPause; }
+    public void setMaxPause(Duration maxPause) { this.maxPause = maxPause; }
+
+    public Duration getLeaseTtl() { return leaseTtl; }
+    public void setLeaseTtl(Duration leaseTtl) { this.leaseTtl = leaseTtl; }
+
+    public boolean isDropPartitions() { return dropPartitions; }
+    public void setDropPartitions(boolean dropPartitions) { this.dropPartitions = dropPartitions; }
+
+    public boolean isDetachConcurrently() { return detachConcurrently; }
+    public void setDetachConcurrently(boolean detachConcurrently) { this.detachConcurrently = detachConcurrently; }
+}
@@ -0,0 +1,48 @@
+package com.crm.platform.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for the concurrent login pipeline and its dedicated executor
+ */
+@Configuration
+@ConfigurationProperties(prefix = "auth.login")
+public class LoginPipelineConfig {
+
+    private int corePoolSize = 16;
+    private int maxPoolSize = 64;
+    private int queueCapacity = 256;
+    private Duration stageTimeout = Duration.ofSeconds(5);
+
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        // Run on the request thread rather than failing the login when the pool is saturated
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Getters and Setters
+    public int getCorePoolSize() { return corePoolSize; }
+    public void setCorePoolSize(int corePoolSize) { this.corePoolSize = corePoolSize; }
+
+    public int getMaxPoolSize() { return maxPoolSize; }
+    public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Duration getStageTimeout() { return stageTimeout; }
+    public void setStageTimeout(Duration stageTimeout) { this.stageTimeout = stageTimeout; }
+}
@@ -1,5 +1,6 @@
 package com.crm.platform.auth.controller;
 
+import com.crm.platform.auth.dto.BatchTokenIntrospectionRequest;
 import com.crm.platform.auth.dto.TokenIntrospectionResponse;
 import com.crm.platform.auth.service.TokenManagementService;
 import com.crm.platform.auth.service.RateLimitingService;
@@ -12,12 +13,14 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -64,6 +67,38 @@ public class TokenController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @PostMapping("/introspect/batch")
+    @Operation(summary = "Batch Token Introspection",
+               description = "Introspect many tokens in one request; results are returned in request order")
+    @Timed(value = "auth.token.introspect.batch", description = "Batch token introspection operation")
+    @Monitored("token-introspect-batch")
+    @SecurityLog(operation = "token-introspect-batch", type = SecurityLog.SecurityType.AUTHORIZATION, riskLevel = SecurityLog.RiskLevel.LOW)
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Token introspection completed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or batch too large"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    public ResponseEntity<ApiResponse<List<TokenIntrospectionResponse>>> introspectTokens(
+            @Valid @RequestBody BatchTokenIntrospectionRequest batchRequest,
+            HttpServletRequest request) {
+
+        if (batchRequest.getTokens().size() > tokenManagementService.getIntrospectBatchMax()) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("BATCH_TOO_LARGE",
+                    "At most " + tokenManagementService.getIntrospectBatchMax() + " tokens can be introspected per request"));
+        }
+
+        // Rate limiting, weighted by batch size
+        String clientIp = getClientIpAddress(request);
+        if (!rateLimitingService.isTokenIntrospectionAllowed(clientIp, batchRequest.getTokens().size())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error("RATE_LIMIT_EXCEEDED", "Too many introspection requests"));
+        }
+
+        List<TokenIntrospectionResponse> responses = tokenManagementService.introspectTokens(batchRequest.getTokens());
+        return ResponseEntity.ok(ApiResponse.success(responses));
+    }
+
     // ==================== Token Revocation ====================
 
     @PostMapping("/revoke")
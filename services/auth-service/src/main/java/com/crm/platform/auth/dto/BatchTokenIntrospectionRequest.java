@@ -0,0 +1,21 @@
+package com.crm.platform.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchTokenIntrospectionRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+
+    public BatchTokenIntrospectionRequest() {}
+
+    public BatchTokenIntrospectionRequest(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    // Getters and Setters
+    public List<String> getTokens() { return tokens; }
+    public void setTokens(List<String> tokens) { this.tokens = tokens; }
+}
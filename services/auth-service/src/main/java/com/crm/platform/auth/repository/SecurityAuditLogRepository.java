@@ -12,12 +12,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * security_audit_log is range-partitioned by month on timestamp, so every query carries a time
+ * predicate and the planner only scans the partitions that overlap it.
+ */
 @Repository
 public interface SecurityAuditLogRepository extends JpaRepository<SecurityAuditLog, UUID> {
 
-    Page<SecurityAuditLog> findByUserIdOrderByTimestampDesc(UUID userId, Pageable pageable);
+    Page<SecurityAuditLog> findByUserIdAndTimestampBetweenOrderByTimestampDesc(UUID userId,
+                                                                             LocalDateTime start,
+                                                                             LocalDateTime end,
+                                                                             Pageable pageable);
 
-    Page<SecurityAuditLog> findByTenantIdOrderByTimestampDesc(UUID tenantId, Pageable pageable);
+    Page<SecurityAuditLog> findByTenantIdAndTimestampBetweenOrderByTimestampDesc(UUID tenantId,
+                                                                               LocalDateTime start,
+                                                                               LocalDateTime end,
+                                                                               Pageable pageable);
+
+    Page<SecurityAuditLog> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime start,
+                                                                     LocalDateTime end,
+                                                                     Pageable pageable);
 
     List<SecurityAuditLog> findByEventTypeAndTimestampBetween(String eventType, 
                                                              LocalDateTime start, 
@@ -71,6 +85,22 @@ public interface SecurityAuditLogRepository extends JpaRepository<SecurityAuditL
                                            @Param("end") LocalDateTime end,
                                            @Param("tenantId") UUID tenantId);
 
+    @Query("SELECT COUNT(a) FROM SecurityAuditLog a WHERE a.eventType = :eventType " +
+           "AND a.timestamp BETWEEN :start AND :end " +
+           "AND (:tenantId IS NULL OR a.tenantId = :tenantId)")
+    long countByEventTypeAndTimestampBetweenAndTenantId(@Param("eventType") String eventType,
+                                                       @Param("start") LocalDateTime start,
+                                                       @Param("end") LocalDateTime end,
+                                                       @Param("tenantId") UUID tenantId);
+
+    @Query("SELECT COUNT(DISTINCT a.userId) FROM SecurityAuditLog a WHERE a.eventType = :eventType " +
+           "AND a.timestamp BETWEEN :start AND :end " +
+           "AND (:tenantId IS NULL OR a.tenantId = :tenantId)")
+    long countDistinctUsersByEventTypeAndTimestampBetweenAndTenantId(@Param("eventType") String eventType,
+                                                                    @Param("start") LocalDateTime start,
+                                                                    @Param("end") LocalDateTime end,
+                                                                    @Param("tenantId") UUID tenantId);
+
     @Query("SELECT a FROM SecurityAuditLog a WHERE a.eventType IN :eventTypes " +
            "AND a.timestamp BETWEEN :start AND :end " +
            "AND (:tenantId IS NULL OR a.tenantId = :tenantId) " +
@@ -81,8 +111,6 @@ public interface SecurityAuditLogRepository extends JpaRepository<SecurityAuditL
                                                                          @Param("tenantId") UUID tenantId,
                                                                          Pageable pageable);
 
-    void deleteByTimestampBefore(LocalDateTime before);
-
     // Tenant-specific queries
 
     Page<SecurityAuditLog> findByTenantIdAndEventTypeAndTimestampBetween(UUID tenantId, String eventType, 
@@ -92,14 +120,13 @@ public interface SecurityAuditLogRepository extends JpaRepository<SecurityAuditL
     Page<SecurityAuditLog> findByTenantIdAndTimestampBetween(UUID tenantId, LocalDateTime start, 
                                                            LocalDateTime end, Pageable pageable);
 
-    Page<SecurityAuditLog> findByTenantIdAndEventType(UUID tenantId, String eventType, Pageable pageable);
-
-    Page<SecurityAuditLog> findByTenantIdAndUserIdOrderByTimestampDesc(UUID tenantId, UUID userId, Pageable pageable);
+    Page<SecurityAuditLog> findByTenantIdAndUserIdAndTimestampBetweenOrderByTimestampDesc(UUID tenantId, UUID userId,
+                                                                                        LocalDateTime start,
+                                                                                        LocalDateTime end,
+                                                                                        Pageable pageable);
 
     List<SecurityAuditLog> findByTenantIdAndTimestampBetween(UUID tenantId, LocalDateTime start, LocalDateTime end);
 
     List<SecurityAuditLog> findByTenantIdAndEventTypeInAndTimestampBetween(UUID tenantId, List<String> eventTypes,
                                                                           LocalDateTime start, LocalDateTime end);
-
-    List<SecurityAuditLog> findByTenantIdAndTimestampBefore(UUID tenantId, LocalDateTime before);
 }
\ No newline at end of file
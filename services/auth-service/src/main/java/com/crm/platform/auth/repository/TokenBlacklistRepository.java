@@ -8,7 +8,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -19,6 +21,12 @@ public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist,
      */
     boolean existsByJti(String jti);
 
+    /**
+     * Return the subset of the given JTIs that are blacklisted, in one query
+     */
+    @Query("SELECT tb.jti FROM TokenBlacklist tb WHERE tb.jti IN :jtis")
+    Set<String> findBlacklistedJtis(@Param("jtis") Collection<String> jtis);
+
     /**
      * Find blacklisted token by JTI
      */
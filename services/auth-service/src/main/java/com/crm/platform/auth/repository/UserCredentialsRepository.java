@@ -8,6 +8,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +28,8 @@ public interface UserCredentialsRepository extends JpaRepository<UserCredentials
 
     Optional<UserCredentials> findByUserId(UUID userId);
 
+    List<UserCredentials> findByUserIdIn(Collection<UUID> userIds);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
@@ -30,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 @Service
 @Transactional
@@ -48,6 +49,7 @@ public class AuthenticationService {
     private final DeviceTrustService deviceTrustService;
     private final EmailVerificationService emailVerificationService;
     private final PasswordService passwordService;
+    private final LoginPipeline loginPipeline;
 
     @Value("${auth.max-failed-attempts:5}")
     private int maxFailedAttempts;
@@ -72,7 +74,8 @@ public class AuthenticationService {
                                MfaService mfaService,
                                DeviceTrustService deviceTrustService,
                                EmailVerificationService emailVerificationService,
-                               PasswordService passwordService) {
+                               PasswordService passwordService,
+                               LoginPipeline loginPipeline) {
         this.userCredentialsRepository = userCredentialsRepository;
         this.sessionRepository = sessionRepository;
         this.passwordEncoder = passwordEncoder;
@@ -84,14 +87,26 @@ public class AuthenticationService {
         this.deviceTrustService = deviceTrustService;
         this.emailVerificationService = emailVerificationService;
         this.passwordService = passwordService;
+        this.loginPipeline = loginPipeline;
     }
 
+    /**
+     * Password login. Independent stages run concurrently on the login executor: the device trust
+     * is evaluated while BCrypt verifies the password, and the user profile is fetched while tokens
+     * are issued and the session created. The profile is only requested from the user service once
+     * the password is verified, so failed attempts never reach it. Forked stages are cancelled as
+     * soon as the attempt fails, and every stage is timed and traced.
+     */
     public LoginResponse authenticate(LoginRequest request, HttpServletRequest httpRequest) {
+        return loginPipeline.login("password", () -> doAuthenticate(request, httpRequest));
+    }
+
+    private LoginResponse doAuthenticate(LoginRequest request, HttpServletRequest httpRequest) {
         String clientIp = getClientIpAddress(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
 
-        // Check rate limiting
-        if (!rateLimitingService.isAllowed(clientIp, "login")) {
+        // Check rate limiting before touching the database
+        if (!loginPipeline.stage("rate-limit", () -> rateLimitingService.isAllowed(clientIp, "login"))) {
             auditService.logSecurityEvent(null, null, SecurityAuditLog.EVENT_BRUTE_FORCE_ATTEMPT,
                 "Rate limit exceeded for IP: " + clientIp, SecurityAuditLog.AuditEventStatus.FAILURE,
                 clientIp, userAgent, null);
@@ -99,8 +114,9 @@ public class AuthenticationService {
         }
 
         // Find user credentials
-        Optional<UserCredentials> credentialsOpt = userCredentialsRepository.findByUsernameOrEmail(
-            request.getUsernameOrEmail(), request.getUsernameOrEmail());
+        Optional<UserCredentials> credentialsOpt = loginPipeline.stage("credentials-lookup",
+            () -> userCredentialsRepository.findByUsernameOrEmail(
+                request.getUsernameOrEmail(), request.getUsernameOrEmail()));
 
         if (credentialsOpt.isEmpty()) {
             auditService.logSecurityEvent(null, null, SecurityAuditLog.EVENT_LOGIN_FAILURE,
@@ -119,49 +135,65 @@ public class AuthenticationService {
             throw new AccountLockedException("Account is temporarily locked due to multiple failed login attempts");
         }
 
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), credentials.getPasswordHash())) {
-            handleFailedLogin(credentials, clientIp, userAgent);
-            throw new InvalidCredentialsException("Invalid username or password");
-        }
+        boolean mfaEnabled = Boolean.TRUE.equals(credentials.getMfaEnabled());
 
-        // Reset failed attempts on successful password verification
-        if (credentials.getFailedLoginAttempts() > 0) {
-            userCredentialsRepository.updateFailedLoginAttempts(credentials.getId(), 0);
-        }
+        try (LoginPipeline.Scope scope = loginPipeline.open()) {
+            // Start the stages that do not depend on the password check
+            Future<Boolean> deviceTrusted = null;
+            if (mfaEnabled) {
+                String deviceFingerprint = deviceTrustService.getDeviceFingerprint(httpRequest);
+                deviceTrusted = scope.fork("device-trust",
+                    () -> deviceTrustService.isDeviceTrusted(credentials, deviceFingerprint));
+            }
 
-        // Check if MFA is required
-        if (Boolean.TRUE.equals(credentials.getMfaEnabled())) {
-            // Check if device is trusted (MFA bypass)
-            boolean isDeviceTrusted = deviceTrustService.isDeviceTrusted(credentials.getUserId(), httpRequest);
-            
-            if (!isDeviceTrusted) {
-                // MFA is required - generate MFA token and return challenge
-                String mfaToken = generateMfaToken(credentials.getUserId(), credentials.getTenantId());
-                
-                // Log MFA challenge
-                auditService.logSecurityEvent(credentials.getUserId(), credentials.getTenantId(), 
-                    "MFA_CHALLENGE_ISSUED", "MFA challenge issued after successful password verification",
-                    SecurityAuditLog.AuditEventStatus.SUCCESS, clientIp, userAgent, null);
-
-                // Return MFA challenge response
-                LoginResponse mfaResponse = new LoginResponse();
-                mfaResponse.setMfaRequired(true);
-                mfaResponse.setMfaToken(mfaToken);
-                mfaResponse.setMfaMethod(credentials.getMfaMethod().name());
-                mfaResponse.setMessage("Multi-factor authentication required");
+            // Verify password
+            boolean passwordMatches = loginPipeline.stage("password-verify",
+                () -> passwordEncoder.matches(request.getPassword(), credentials.getPasswordHash()));
+            if (!passwordMatches) {
+                handleFailedLogin(credentials, clientIp, userAgent);
+                throw new InvalidCredentialsException("Invalid username or password");
+            }
+
+            // Reset failed attempts on successful password verification
+            if (credentials.getFailedLoginAttempts() > 0) {
+                userCredentialsRepository.updateFailedLoginAttempts(credentials.getId(), 0);
+            }
+
+            // Check if MFA is required
+            if (mfaEnabled) {
+                // Check if device is trusted (MFA bypass)
+                boolean isDeviceTrusted = scope.join(deviceTrusted);
                 
-                return mfaResponse;
-            } else {
-                // Device is trusted - log bypass
-                auditService.logSecurityEvent(credentials.getUserId(), credentials.getTenantId(), 
-                    "MFA_BYPASSED_TRUSTED_DEVICE", "MFA bypassed due to trusted device",
-                    SecurityAuditLog.AuditEventStatus.SUCCESS, clientIp, userAgent, null);
+                if (!isDeviceTrusted) {
+                    // MFA is required - generate MFA token and return challenge
+                    String mfaToken = loginPipeline.stage("mfa-challenge",
+                        () -> generateMfaToken(credentials.getUserId(), credentials.getTenantId()));
+                    
+                    // Log MFA challenge
+                    auditService.logSecurityEvent(credentials.getUserId(), credentials.getTenantId(), 
+                        "MFA_CHALLENGE_ISSUED", "MFA challenge issued after successful password verification",
+                        SecurityAuditLog.AuditEventStatus.SUCCESS, clientIp, userAgent, null);
+
+                    // Return MFA challenge response
+                    LoginResponse mfaResponse = new LoginResponse();
+                    mfaResponse.setMfaRequired(true);
+                    mfaResponse.setMfaToken(mfaToken);
+                    mfaResponse.setMfaMethod(credentials.getMfaMethod().name());
+                    mfaResponse.setMessage("Multi-factor authentication required");
+                    
+                    return mfaResponse;
+                } else {
+                    // Device is trusted - log bypass
+                    auditService.logSecurityEvent(credentials.getUserId(), credentials.getTenantId(), 
+                        "MFA_BYPASSED_TRUSTED_DEVICE", "MFA bypassed due to trusted device",
+                        SecurityAuditLog.AuditEventStatus.SUCCESS, clientIp, userAgent, null);
+                }
             }
-        }
 
-        // Complete login (either no MFA required or trusted device)
-        return completeLogin(credentials, httpRequest);
+            // Complete login (either no MFA required or trusted device)
+            return completeLogin(credentials, httpRequest, scope,
+                                 scope.fork("user-profile", () -> fetchUserProfile(credentials)));
+        }
     }
 
     public LoginResponse refreshToken(RefreshTokenRequest request, HttpServletRequest httpRequest) {
@@ -517,28 +549,27 @@ public class AuthenticationService {
     // Private helper methods
 
     private LoginResponse completeLogin(UserCredentials credentials, HttpServletRequest httpRequest) {
+        try (LoginPipeline.Scope scope = loginPipeline.open()) {
+            return completeLogin(credentials, httpRequest, scope,
+                                 scope.fork("user-profile", () -> fetchUserProfile(credentials)));
+        }
+    }
+
+    /**
+     * Issue tokens and create the session while the user profile is still being fetched
+     */
+    private LoginResponse completeLogin(UserCredentials credentials, HttpServletRequest httpRequest,
+                                        LoginPipeline.Scope scope, Future<UserInfo> userProfileFuture) {
         String clientIp = getClientIpAddress(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
 
-        // Fetch user profile information from User Service
-        UserInfo userProfile = userServiceClient.getUserById(credentials.getUserId());
-        if (userProfile == null) {
-            logger.warn("User profile not found for user ID: {}", credentials.getUserId());
-            // Create minimal user info from credentials
-            userProfile = new UserInfo(
-                credentials.getUserId(),
-                credentials.getEmail(),
-                null, null, null, null, null, null,
-                java.util.Set.of(),
-                credentials.getTenantId()
-            );
-        }
-
         // Generate tokens
         String tokenId = UUID.randomUUID().toString();
-        String accessToken = jwtTokenProvider.createAccessToken(credentials.getUserId(), credentials.getTenantId(), 
-            List.of(), List.of()); // Empty roles and permissions for now
-        String refreshToken = jwtTokenProvider.createRefreshToken(credentials.getUserId(), credentials.getTenantId());
+        String accessToken = loginPipeline.stage("access-token",
+            () -> jwtTokenProvider.createAccessToken(credentials.getUserId(), credentials.getTenantId(),
+                List.of(), List.of())); // Empty roles and permissions for now
+        String refreshToken = loginPipeline.stage("refresh-token",
+            () -> jwtTokenProvider.createRefreshToken(credentials.getUserId(), credentials.getTenantId()));
 
         // Create session
         LocalDateTime now = LocalDateTime.now();
@@ -550,20 +581,43 @@ public class AuthenticationService {
         session.setIpAddress(clientIp);
         session.setUserAgent(userAgent);
         session.setTenantId(credentials.getTenantId());
-        sessionRepository.save(session);
+        loginPipeline.stage("session-create", () -> {
+            sessionRepository.save(session);
 
-        // Update last login time
-        userCredentialsRepository.updateLastLoginTime(credentials.getId(), now);
+            // Update last login time
+            userCredentialsRepository.updateLastLoginTime(credentials.getId(), now);
+        });
 
         // Log successful login
         auditService.logSecurityEvent(credentials.getUserId(), credentials.getTenantId(), 
             SecurityAuditLog.EVENT_LOGIN_SUCCESS, "User logged in successfully",
             SecurityAuditLog.AuditEventStatus.SUCCESS, clientIp, userAgent, tokenId);
 
+        UserInfo userProfile = scope.join(userProfileFuture);
+
         return new LoginResponse(accessToken, refreshToken, accessTokenValiditySeconds,
                                refreshTokenValiditySeconds, userProfile);
     }
 
+    /**
+     * Fetch user profile information from User Service, falling back to the credentials
+     */
+    private UserInfo fetchUserProfile(UserCredentials credentials) {
+        UserInfo userProfile = userServiceClient.getUserById(credentials.getUserId());
+        if (userProfile == null) {
+            logger.warn("User profile not found for user ID: {}", credentials.getUserId());
+            // Create minimal user info from credentials
+            userProfile = new UserInfo(
+                credentials.getUserId(),
+                credentials.getEmail(),
+                null, null, null, null, null, null,
+                java.util.Set.of(),
+                credentials.getTenantId()
+            );
+        }
+        return userProfile;
+    }
+
     private String generateMfaToken(UUID userId, UUID tenantId) {
         // Generate a temporary MFA token (valid for a short time)
         // In a real implementation, this would be a JWT token with short expiry
@@ -0,0 +1,321 @@
+package com.crm.platform.auth.service;
+
+import com.crm.platform.auth.config.ExpiryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expiry engine shared by the scheduled cleanup services.
+ *
+ * Rows are removed in bounded chunks ordered by the policy's timestamp column, each chunk in its own
+ * short transaction, with a pause between chunks that grows with the observed statement latency.
+ * Jobs run under a cluster-wide lease so only one node works on a table at a time, and time-partitioned
+ * tables have whole partitions detached and dropped once they fall entirely behind the cutoff.
+ */
+@Service
+public class ChunkedExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedExpiryService.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("^[a-z_][a-z0-9_]*$");
+    private static final Pattern PARTITION_UPPER_BOUND = Pattern.compile("TO \\('([0-9]{4}-[0-9]{2}-[0-9]{2})(?: ([0-9]{2}:[0-9]{2}:[0-9]{2}))?[^']*'\\)");
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private static final String PARTITIONS_QUERY =
+        "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+        "FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON p.oid = i.inhparent " +
+        "WHERE p.relname = :table " +
+        "ORDER BY c.relname";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final DistributedLeaseService leaseService;
+    private final ExpiryConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<DistributedLeaseService.Lease> currentLease = new ThreadLocal<>();
+
+    private volatile Boolean postgres;
+
+    @Autowired
+    public ChunkedExpiryService(NamedParameterJdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                DistributedLeaseService leaseService,
+                                ExpiryConfig config,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseService = leaseService;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a maintenance job under the named cluster-wide lease.
+     * Returns false without running the job when another node currently holds the lease.
+     * Jobs that purge a table are named after it, so that no two of them work on the same table at once.
+     */
+    public boolean runExclusive(String jobName, Runnable job) {
+        if (currentLease.get() != null) {
+            // Already running under a lease on this thread (e.g. a daily job calling an hourly one)
+            job.run();
+            return true;
+        }
+
+        Optional<DistributedLeaseService.Lease> lease = leaseService.tryAcquire("expiry:" + jobName, config.getLeaseTtl());
+        if (lease.isEmpty()) {
+            logger.debug("Skipping {}: lease is held by another node", jobName);
+            return false;
+        }
+
+        currentLease.set(lease.get());
+        try {
+            job.run();
+            return true;
+        } finally {
+            currentLease.remove();
+            lease.get().release();
+        }
+    }
+
+    /**
+     * Remove every row matched by the policy whose timestamp is older than the cutoff.
+     * Runs outside any caller transaction so that each chunk commits on its own.
+     *
+     * @return number of rows deleted by chunked statements (rows in dropped partitions are not counted)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long purge(ExpiryPolicy policy, LocalDateTime cutoff) {
+        return purge(policy, cutoff, Map.of());
+    }
+
+    /**
+     * Same as {@link #purge(ExpiryPolicy, LocalDateTime)} with extra named parameters referenced by the policy predicate
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long purge(ExpiryPolicy policy, LocalDateTime cutoff, Map<String, ?> parameters) {
+        if (!config.isEnabled()) {
+            logger.debug("Expiry engine disabled, skipping {}", policy.getName());
+            return 0;
+        }
+
+        if (policy.isPartitioned() && config.isDropPartitions() && isPostgres()) {
+            int dropped = dropExpiredPartitions(policy, cutoff);
+            if (dropped > 0) {
+                Counter.builder("auth.expiry.partitions.dropped")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry)
+                    .increment(dropped);
+            }
+        }
+
+        long deleted = deleteInChunks(policy, cutoff, parameters);
+        if (deleted > 0) {
+            Counter.builder("auth.expiry.rows.deleted")
+                .tag("policy", policy.getName())
+                .register(meterRegistry)
+                .increment(deleted);
+            logger.info("Expired {} rows from {} ({})", deleted, policy.getTable(), policy.getName());
+        }
+        return deleted;
+    }
+
+    /**
+     * Create missing monthly partitions for a partitioned policy, from the current month through monthsAhead.
+     * No-op on databases other than PostgreSQL.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int ensureMonthlyPartitions(ExpiryPolicy policy, int monthsAhead) {
+        if (!policy.isPartitioned() || !isPostgres()) {
+            return 0;
+        }
+
+        Integer created = jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions(:table, :monthsAhead)",
+            new MapSqlParameterSource().addValue("table", policy.getTable()).addValue("monthsAhead", monthsAhead),
+            Integer.class);
+        if (created != null && created > 0) {
+            logger.info("Created {} monthly partitions for {}", created, policy.getTable());
+        }
+        return created != null ? created : 0;
+    }
+
+    private long deleteInChunks(ExpiryPolicy policy, LocalDateTime cutoff, Map<String, ?> parameters) {
+        String sql = policy.chunkDeleteSql();
+        MapSqlParameterSource params = new MapSqlParameterSource(parameters)
+            .addValue("cutoff", cutoff)
+            .addValue("limit", config.getChunkSize());
+
+        long targetMillis = Math.max(1, config.getTargetChunkLatency().toMillis());
+        double latencyMillis = targetMillis;
+        long total = 0;
+
+        for (int chunk = 0; chunk < config.getMaxChunksPerRun(); chunk++) {
+            long start = System.nanoTime();
+            Integer deleted = chunkTransaction.execute(status -> jdbcTemplate.update(sql, params));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < config.getChunkSize()) {
+                return total;
+            }
+
+            DistributedLeaseService.Lease lease = currentLease.get();
+            if (lease != null && !lease.renew()) {
+                logger.warn("Lost lease {} while expiring {}, stopping after {} rows", lease.getKey(), policy.getName(), total);
+                return total;
+            }
+
+            latencyMillis = (1 - LATENCY_SMOOTHING) * latencyMillis + LATENCY_SMOOTHING * elapsedMillis;
+            long pause = adaptivePause(latencyMillis, targetMillis,
+                                       config.getMinPause().toMillis(), config.getMaxPause().toMillis());
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+
+        logger.info("Reached chunk limit while expiring {}, {} rows removed; remainder left for next run", policy.getName(), total);
+        return total;
+    }
+
+    private int dropExpiredPartitions(ExpiryPolicy policy, LocalDateTime cutoff) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(PARTITIONS_QUERY, Map.of("table", policy.getTable()));
+
+        // DETACH ... CONCURRENTLY is not allowed while the parent has a default partition
+        boolean concurrently = config.isDetachConcurrently() &&
+            partitions.stream().noneMatch(partition -> "DEFAULT".equals(partition.get("bound")));
+
+        int dropped = 0;
+        for (Map<String, Object> partition : partitions) {
+            String name = (String) partition.get("name");
+            LocalDateTime upperBound = partitionUpperBound((String) partition.get("bound"));
+            if (name == null || upperBound == null || upperBound.isAfter(cutoff) || !IDENTIFIER.matcher(name).matches()) {
+                continue;
+            }
+
+            try {
+                jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE " + policy.getTable() + " DETACH PARTITION " + name +
+                                                       (concurrently ? " CONCURRENTLY" : ""));
+                jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + name);
+                dropped++;
+                logger.info("Dropped expired partition {} of {} (upper bound {})", name, policy.getTable(), upperBound);
+            } catch (Exception e) {
+                logger.error("Failed to drop partition {} of {}", name, policy.getTable(), e);
+            }
+        }
+        return dropped;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    /**
+     * Pause between chunks: proportional to the square of the smoothed latency relative to the target,
+     * so a healthy database is barely throttled while a slow one gets progressively more breathing room.
+     */
+    static long adaptivePause(double latencyMillis, long targetMillis, long minPauseMillis, long maxPauseMillis) {
+        long pause = (long) (latencyMillis * latencyMillis / Math.max(1, targetMillis));
+        return Math.max(minPauseMillis, Math.min(maxPauseMillis, pause));
+    }
+
+    /**
+     * Parse the exclusive upper bound of a range partition from its pg_get_expr() text
+     */
+    static LocalDateTime partitionUpperBound(String bound) {
+        if (bound == null) {
+            return null;
+        }
+        Matcher matcher = PARTITION_UPPER_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            return null;
+        }
+        LocalDate date = LocalDate.parse(matcher.group(1));
+        return matcher.group(2) != null ? LocalDateTime.parse(matcher.group(1) + "T" + matcher.group(2)) : date.atStartOfDay();
+    }
+
+    /**
+     * Describes which rows of a table expire, keyed on an indexed timestamp column
+     */
+    public static class ExpiryPolicy {
+        private final String name;
+        private final String table;
+        private final String timestampColumn;
+        private final String predicate;
+        private final boolean partitioned;
+
+        private ExpiryPolicy(String name, String table, String timestampColumn, String predicate, boolean partitioned) {
+            if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(timestampColumn).matches()) {
+                throw new IllegalArgumentException("Invalid table or column name for expiry policy " + name);
+            }
+            this.name = name;
+            this.table = table;
+            this.timestampColumn = timestampColumn;
+            this.predicate = predicate;
+            this.partitioned = partitioned;
+        }
+
+        /**
+         * Rows of {@code table} whose {@code timestampColumn} is older than the cutoff
+         */
+        public static ExpiryPolicy of(String name, String table, String timestampColumn) {
+            return new ExpiryPolicy(name, table, timestampColumn, null, false);
+        }
+
+        /**
+         * Restrict the policy with an additional SQL predicate; {@code :cutoff} may be referenced
+         */
+        public ExpiryPolicy where(String predicate) {
+            return new ExpiryPolicy(name, table, timestampColumn, predicate, partitioned);
+        }
+
+        /**
+         * Mark the table as range-partitioned on the timestamp column so whole partitions can be dropped
+         */
+        public ExpiryPolicy partitioned() {
+            return new ExpiryPolicy(name, table, timestampColumn, predicate, true);
+        }
+
+        String chunkDeleteSql() {
+            return "DELETE FROM " + table + " WHERE id IN (" +
+                   "SELECT id FROM " + table + " WHERE " + timestampColumn + " < :cutoff" +
+                   (predicate != null ? " AND (" + predicate + ")" : "") +
+                   " ORDER BY " + timestampColumn + " LIMIT :limit)";
+        }
+
+        public String getName() { return name; }
+        public String getTable() { return table; }
+        public String getTimestampColumn() { return timestampColumn; }
+        public String getPredicate() { return predicate; }
+        public boolean isPartitioned() { return partitioned; }
+    }
+}
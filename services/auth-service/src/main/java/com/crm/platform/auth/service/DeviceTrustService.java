@@ -115,11 +115,27 @@ public class DeviceTrustService {
             UserCredentials credentials = userCredentialsRepository.findByUserId(userId)
                 .orElse(null);
 
-            if (credentials == null || !Boolean.TRUE.equals(credentials.getMfaEnabled())) {
+            if (credentials == null) {
+                return false;
+            }
+
+            return isDeviceTrusted(credentials, getDeviceFingerprint(httpRequest));
+
+        } catch (Exception e) {
+            logger.error("Error checking device trust for user: {}", userId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Check if a device is trusted using already loaded credentials
+     */
+    public boolean isDeviceTrusted(UserCredentials credentials, String deviceFingerprint) {
+        try {
+            if (!Boolean.TRUE.equals(credentials.getMfaEnabled())) {
                 return false;
             }
 
-            String currentDeviceFingerprint = generateDeviceFingerprint(httpRequest, null);
             List<Map<String, Object>> trustedDevices = parseTrustedDevices(credentials.getTrustedDevices());
 
             // Check if current device matches any trusted device and is not expired
@@ -129,7 +145,7 @@ public class DeviceTrustService {
                     String fingerprint = (String) device.get("fingerprint");
                     String expiresAtStr = (String) device.get("expiresAt");
                     
-                    if (!currentDeviceFingerprint.equals(fingerprint)) {
+                    if (!deviceFingerprint.equals(fingerprint)) {
                         return false;
                     }
                     
@@ -143,11 +159,18 @@ public class DeviceTrustService {
                 });
 
         } catch (Exception e) {
-            logger.error("Error checking device trust for user: {}", userId, e);
+            logger.error("Error checking device trust for user: {}", credentials.getUserId(), e);
             return false;
         }
     }
 
+    /**
+     * Fingerprint of the device making the request, as stored for trusted devices
+     */
+    public String getDeviceFingerprint(HttpServletRequest httpRequest) {
+        return generateDeviceFingerprint(httpRequest, null);
+    }
+
     /**
      * Get list of trusted devices for a user
      */
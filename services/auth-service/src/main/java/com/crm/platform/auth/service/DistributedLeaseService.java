@@ -0,0 +1,101 @@
+package com.crm.platform.auth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cluster-wide leases backed by Redis so that scheduled maintenance runs on one node at a time
+ */
+@Service
+public class DistributedLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedLeaseService.class);
+
+    private static final String LEASE_KEY_PREFIX = "lease:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+        Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId;
+
+    @Autowired
+    public DistributedLeaseService(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = ProcessHandle.current().pid() + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Try to acquire the named lease. Returns empty when another node holds it or Redis is unavailable.
+     */
+    public Optional<Lease> tryAcquire(String name, Duration ttl) {
+        String key = LEASE_KEY_PREFIX + name;
+        String owner = nodeId + ":" + UUID.randomUUID();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, owner, ttl);
+            if (Boolean.TRUE.equals(acquired)) {
+                return Optional.of(new Lease(key, owner, ttl));
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to acquire lease {}: {}", name, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Handle to a held lease
+     */
+    public class Lease {
+        private final String key;
+        private final String owner;
+        private final Duration ttl;
+
+        private Lease(String key, String owner, Duration ttl) {
+            this.key = key;
+            this.owner = owner;
+            this.ttl = ttl;
+        }
+
+        /**
+         * Extend the lease by its full TTL. Returns false if the lease has been lost.
+         */
+        public boolean renew() {
+            try {
+                Long result = redisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(key),
+                                                    owner, String.valueOf(ttl.toMillis()));
+                return result != null && result > 0;
+            } catch (Exception e) {
+                logger.warn("Unable to renew lease {}: {}", key, e.getMessage());
+                return false;
+            }
+        }
+
+        /**
+         * Release the lease if it is still owned by this holder
+         */
+        public void release() {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), owner);
+            } catch (Exception e) {
+                logger.warn("Unable to release lease {}: {}", key, e.getMessage());
+            }
+        }
+
+        public String getKey() { return key; }
+    }
+}
@@ -15,10 +15,13 @@ public class EmailVerificationCleanupService {
     private static final Logger logger = LoggerFactory.getLogger(EmailVerificationCleanupService.class);
 
     private final EmailVerificationService emailVerificationService;
+    private final ChunkedExpiryService chunkedExpiryService;
 
     @Autowired
-    public EmailVerificationCleanupService(EmailVerificationService emailVerificationService) {
+    public EmailVerificationCleanupService(EmailVerificationService emailVerificationService,
+                                         ChunkedExpiryService chunkedExpiryService) {
         this.emailVerificationService = emailVerificationService;
+        this.chunkedExpiryService = chunkedExpiryService;
     }
 
     /**
@@ -29,7 +32,7 @@ public class EmailVerificationCleanupService {
     public void cleanupExpiredTokens() {
         try {
             logger.debug("Starting cleanup of expired email verification tokens");
-            emailVerificationService.cleanupExpiredTokens();
+            chunkedExpiryService.runExclusive("email-verification-tokens", emailVerificationService::cleanupExpiredTokens);
             logger.debug("Completed cleanup of expired email verification tokens");
         } catch (Exception e) {
             logger.error("Error during email verification token cleanup", e);
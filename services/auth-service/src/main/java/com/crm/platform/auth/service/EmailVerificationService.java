@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -32,11 +33,17 @@ public class EmailVerificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailVerificationService.class);
 
+    private static final ChunkedExpiryService.ExpiryPolicy EXPIRED_TOKENS =
+        ChunkedExpiryService.ExpiryPolicy.of("email-verification-expired", "email_verification_tokens", "expires_at");
+    private static final ChunkedExpiryService.ExpiryPolicy OLD_TOKENS =
+        ChunkedExpiryService.ExpiryPolicy.of("email-verification-old", "email_verification_tokens", "created_at");
+
     private final EmailVerificationTokenRepository emailVerificationTokenRepository;
     private final UserCredentialsRepository userCredentialsRepository;
     private final SecurityAuditService securityAuditService;
     private final RateLimitingService rateLimitingService;
     private final EmailService emailService;
+    private final ChunkedExpiryService chunkedExpiryService;
     private final SecureRandom secureRandom;
 
     // Configuration properties
@@ -63,12 +70,14 @@ public class EmailVerificationService {
                                   UserCredentialsRepository userCredentialsRepository,
                                   SecurityAuditService securityAuditService,
                                   RateLimitingService rateLimitingService,
-                                  EmailService emailService) {
+                                  EmailService emailService,
+                                  ChunkedExpiryService chunkedExpiryService) {
         this.emailVerificationTokenRepository = emailVerificationTokenRepository;
         this.userCredentialsRepository = userCredentialsRepository;
         this.securityAuditService = securityAuditService;
         this.rateLimitingService = rateLimitingService;
         this.emailService = emailService;
+        this.chunkedExpiryService = chunkedExpiryService;
         this.secureRandom = new SecureRandom();
     }
 
@@ -342,16 +351,16 @@ public class EmailVerificationService {
     /**
      * Clean up expired and old verification tokens
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupExpiredTokens() {
         try {
             logger.debug("Starting cleanup of expired email verification tokens");
             
             LocalDateTime now = LocalDateTime.now();
-            emailVerificationTokenRepository.deleteExpiredTokens(now);
+            chunkedExpiryService.purge(EXPIRED_TOKENS, now);
             
             LocalDateTime cutoffDate = now.minusDays(cleanupDays);
-            emailVerificationTokenRepository.deleteTokensOlderThan(cutoffDate);
+            chunkedExpiryService.purge(OLD_TOKENS, cutoffDate);
             
             logger.debug("Completed cleanup of expired email verification tokens");
         } catch (Exception e) {
@@ -0,0 +1,139 @@
+package com.crm.platform.auth.service;
+
+import com.crm.platform.auth.config.LoginPipelineConfig;
+import com.crm.platform.auth.exception.AuthenticationException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the stages of a login attempt, concurrently where they are independent. Every stage is
+ * recorded as an auth.login.stage observation, which yields a timer tagged with the stage name
+ * and a child span of the login span when tracing is enabled.
+ */
+@Component
+public class LoginPipeline {
+
+    static final String LOGIN_OBSERVATION = "auth.login";
+    static final String STAGE_OBSERVATION = "auth.login.stage";
+
+    private final ObservationRegistry observationRegistry;
+    private final AsyncTaskExecutor executor;
+    private final LoginPipelineConfig config;
+
+    @Autowired
+    public LoginPipeline(ObservationRegistry observationRegistry,
+                         @Qualifier("loginExecutor") AsyncTaskExecutor executor,
+                         LoginPipelineConfig config) {
+        this.observationRegistry = observationRegistry;
+        this.executor = executor;
+        this.config = config;
+    }
+
+    /**
+     * Run a whole login flow as one observation; stages started inside it become its children
+     */
+    public <T> T login(String flow, Supplier<T> body) {
+        return Observation.createNotStarted(LOGIN_OBSERVATION, observationRegistry)
+            .contextualName("login " + flow)
+            .lowCardinalityKeyValue("flow", flow)
+            .observe(body);
+    }
+
+    /**
+     * Run a stage on the calling thread
+     */
+    public <T> T stage(String stage, Supplier<T> step) {
+        return observation(stage, observationRegistry.getCurrentObservation()).observe(step);
+    }
+
+    /**
+     * Run a stage on the calling thread
+     */
+    public void stage(String stage, Runnable step) {
+        observation(stage, observationRegistry.getCurrentObservation()).observe(step);
+    }
+
+    /**
+     * Open a scope for stages forked onto the login executor. Closing the scope cancels every fork
+     * that has not completed, so a failed or short-circuited login abandons its speculative work.
+     */
+    public Scope open() {
+        return new Scope(observationRegistry.getCurrentObservation());
+    }
+
+    private Observation observation(String stage, Observation parent) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+            .contextualName("login " + stage)
+            .lowCardinalityKeyValue("stage", stage)
+            .parentObservation(parent);
+    }
+
+    /**
+     * Structured group of forked login stages
+     */
+    public class Scope implements AutoCloseable {
+        private final Observation parent;
+        private final List<Future<?>> forks = new ArrayList<>();
+
+        private Scope(Observation parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Start a stage on the login executor
+         */
+        public <T> Future<T> fork(String stage, Supplier<T> step) {
+            Future<T> future = executor.submit(() -> observation(stage, parent).observe(step));
+            forks.add(future);
+            return future;
+        }
+
+        /**
+         * Wait for a forked stage, rethrowing its failure as if it had run on the calling thread
+         */
+        public <T> T join(Future<T> future) {
+            try {
+                return future.get(config.getStageTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new AuthenticationException("Login failed", cause);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new AuthenticationException("Login timed out. Please try again.", e);
+            } catch (CancellationException e) {
+                throw new AuthenticationException("Login was cancelled", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AuthenticationException("Login was interrupted", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Future<?> fork : forks) {
+                if (!fork.isDone()) {
+                    fork.cancel(true);
+                }
+            }
+        }
+    }
+}
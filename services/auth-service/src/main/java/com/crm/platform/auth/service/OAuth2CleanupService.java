@@ -1,30 +1,36 @@
 package com.crm.platform.auth.service;
 
-import com.crm.platform.auth.repository.OAuth2AccessTokenRepository;
-import com.crm.platform.auth.repository.OAuth2AuthorizationCodeRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
 /**
- * Service for cleaning up expired OAuth2 tokens and authorization codes
+ * Service for cleaning up expired OAuth2 tokens and authorization codes.
+ * Deletes run in chunks through {@link ChunkedExpiryService} under a cluster-wide lease per job.
  */
 @Service
-@Transactional
 public class OAuth2CleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(OAuth2CleanupService.class);
 
-    @Autowired
-    private OAuth2AccessTokenRepository accessTokenRepository;
+    private static final ChunkedExpiryService.ExpiryPolicy EXPIRED_AUTHORIZATION_CODES =
+        ChunkedExpiryService.ExpiryPolicy.of("oauth2-codes-expired", "oauth2_authorization_codes", "expires_at");
+    private static final ChunkedExpiryService.ExpiryPolicy USED_AUTHORIZATION_CODES =
+        ChunkedExpiryService.ExpiryPolicy.of("oauth2-codes-used", "oauth2_authorization_codes", "used_at")
+            .where("used = true");
+    private static final ChunkedExpiryService.ExpiryPolicy EXPIRED_ACCESS_TOKENS =
+        ChunkedExpiryService.ExpiryPolicy.of("oauth2-tokens-expired", "oauth2_access_tokens", "expires_at")
+            .where("refresh_expires_at IS NULL OR refresh_expires_at < :cutoff");
+    private static final ChunkedExpiryService.ExpiryPolicy REVOKED_ACCESS_TOKENS =
+        ChunkedExpiryService.ExpiryPolicy.of("oauth2-tokens-revoked", "oauth2_access_tokens", "revoked_at")
+            .where("revoked = true");
 
     @Autowired
-    private OAuth2AuthorizationCodeRepository authCodeRepository;
+    private ChunkedExpiryService chunkedExpiryService;
 
     /**
      * Clean up expired authorization codes every hour
@@ -33,11 +39,13 @@ public class OAuth2CleanupService {
     public void cleanupExpiredAuthorizationCodes() {
         try {
             LocalDateTime now = LocalDateTime.now();
-            int deletedCodes = authCodeRepository.deleteExpiredCodes(now);
-            
-            if (deletedCodes > 0) {
-                logger.info("Cleaned up {} expired authorization codes", deletedCodes);
-            }
+            chunkedExpiryService.runExclusive(EXPIRED_AUTHORIZATION_CODES.getTable(), () -> {
+                long deletedCodes = chunkedExpiryService.purge(EXPIRED_AUTHORIZATION_CODES, now);
+                
+                if (deletedCodes > 0) {
+                    logger.info("Cleaned up {} expired authorization codes", deletedCodes);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error cleaning up expired authorization codes", e);
         }
@@ -50,11 +58,13 @@ public class OAuth2CleanupService {
     public void cleanupUsedAuthorizationCodes() {
         try {
             LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
-            int deletedCodes = authCodeRepository.deleteUsedCodesOlderThan(cutoff);
-            
-            if (deletedCodes > 0) {
-                logger.info("Cleaned up {} used authorization codes older than 24 hours", deletedCodes);
-            }
+            chunkedExpiryService.runExclusive(USED_AUTHORIZATION_CODES.getTable(), () -> {
+                long deletedCodes = chunkedExpiryService.purge(USED_AUTHORIZATION_CODES, cutoff);
+                
+                if (deletedCodes > 0) {
+                    logger.info("Cleaned up {} used authorization codes older than 24 hours", deletedCodes);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error cleaning up used authorization codes", e);
         }
@@ -67,11 +77,13 @@ public class OAuth2CleanupService {
     public void cleanupExpiredAccessTokens() {
         try {
             LocalDateTime now = LocalDateTime.now();
-            int deletedTokens = accessTokenRepository.deleteExpiredTokens(now);
-            
-            if (deletedTokens > 0) {
-                logger.info("Cleaned up {} expired access tokens", deletedTokens);
-            }
+            chunkedExpiryService.runExclusive(EXPIRED_ACCESS_TOKENS.getTable(), () -> {
+                long deletedTokens = chunkedExpiryService.purge(EXPIRED_ACCESS_TOKENS, now);
+                
+                if (deletedTokens > 0) {
+                    logger.info("Cleaned up {} expired access tokens", deletedTokens);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error cleaning up expired access tokens", e);
         }
@@ -84,11 +96,13 @@ public class OAuth2CleanupService {
     public void cleanupRevokedTokens() {
         try {
             LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
-            int deletedTokens = accessTokenRepository.deleteRevokedTokensOlderThan(cutoff);
-            
-            if (deletedTokens > 0) {
-                logger.info("Cleaned up {} revoked tokens older than 30 days", deletedTokens);
-            }
+            chunkedExpiryService.runExclusive(REVOKED_ACCESS_TOKENS.getTable(), () -> {
+                long deletedTokens = chunkedExpiryService.purge(REVOKED_ACCESS_TOKENS, cutoff);
+                
+                if (deletedTokens > 0) {
+                    logger.info("Cleaned up {} revoked tokens older than 30 days", deletedTokens);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error cleaning up revoked tokens", e);
         }
@@ -107,4 +121,4 @@ public class OAuth2CleanupService {
         
         logger.info("Manual OAuth2 cleanup completed");
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,30 @@
 package com.crm.platform.auth.service;
 
-import com.crm.platform.auth.repository.PasswordHistoryRepository;
-import com.crm.platform.auth.repository.PasswordResetTokenRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
 /**
- * Service for cleaning up password-related data
+ * Service for cleaning up password-related data in chunks, one node at a time
  */
 @Service
-@Transactional
 public class PasswordCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(PasswordCleanupService.class);
 
-    private final PasswordHistoryRepository passwordHistoryRepository;
-    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private static final ChunkedExpiryService.ExpiryPolicy EXPIRED_RESET_TOKENS =
+        ChunkedExpiryService.ExpiryPolicy.of("password-reset-expired", "password_reset_tokens", "expires_at");
+    private static final ChunkedExpiryService.ExpiryPolicy OLD_RESET_TOKENS =
+        ChunkedExpiryService.ExpiryPolicy.of("password-reset-old", "password_reset_tokens", "created_at");
+    private static final ChunkedExpiryService.ExpiryPolicy OLD_PASSWORD_HISTORY =
+        ChunkedExpiryService.ExpiryPolicy.of("password-history", "password_history", "created_at");
+
+    private final ChunkedExpiryService chunkedExpiryService;
 
     @Value("${app.security.password.history-retention-days:365}")
     private int passwordHistoryRetentionDays;
@@ -31,10 +33,8 @@ public class PasswordCleanupService {
     private int resetTokenCleanupDays;
 
     @Autowired
-    public PasswordCleanupService(PasswordHistoryRepository passwordHistoryRepository,
-                                PasswordResetTokenRepository passwordResetTokenRepository) {
-        this.passwordHistoryRepository = passwordHistoryRepository;
-        this.passwordResetTokenRepository = passwordResetTokenRepository;
+    public PasswordCleanupService(ChunkedExpiryService chunkedExpiryService) {
+        this.chunkedExpiryService = chunkedExpiryService;
     }
 
     /**
@@ -47,7 +47,8 @@ public class PasswordCleanupService {
             logger.debug("Starting cleanup of expired password reset tokens");
             
             LocalDateTime now = LocalDateTime.now();
-            passwordResetTokenRepository.deleteExpiredTokens(now);
+            chunkedExpiryService.runExclusive(EXPIRED_RESET_TOKENS.getTable(),
+                () -> chunkedExpiryService.purge(EXPIRED_RESET_TOKENS, now));
             
             logger.debug("Completed cleanup of expired password reset tokens");
         } catch (Exception e) {
@@ -65,7 +66,8 @@ public class PasswordCleanupService {
             logger.info("Starting cleanup of old password reset tokens");
             
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(resetTokenCleanupDays);
-            passwordResetTokenRepository.deleteTokensOlderThan(cutoffDate);
+            chunkedExpiryService.runExclusive(OLD_RESET_TOKENS.getTable(),
+                () -> chunkedExpiryService.purge(OLD_RESET_TOKENS, cutoffDate));
             
             logger.info("Completed cleanup of old password reset tokens");
         } catch (Exception e) {
@@ -83,7 +85,8 @@ public class PasswordCleanupService {
             logger.info("Starting cleanup of old password history");
             
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(passwordHistoryRetentionDays);
-            passwordHistoryRepository.deletePasswordHistoryOlderThan(cutoffDate);
+            chunkedExpiryService.runExclusive(OLD_PASSWORD_HISTORY.getTable(),
+                () -> chunkedExpiryService.purge(OLD_PASSWORD_HISTORY, cutoffDate));
             
             logger.info("Completed cleanup of old password history");
         } catch (Exception e) {
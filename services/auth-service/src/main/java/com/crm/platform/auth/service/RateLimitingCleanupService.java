@@ -7,7 +7,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
- * Service for scheduled cleanup and monitoring of rate limiting components
+ * Service for scheduled cleanup and monitoring of rate limiting components.
+ * Buckets and temporary blocks are node-local, so these jobs run on every node rather than under a lease.
  */
 @Service
 public class RateLimitingCleanupService {
@@ -55,6 +55,11 @@ public class RateLimitingService {
     
     @Value("${rate-limit.introspect.per-minute:30}")
     private int INTROSPECT_REQUESTS_PER_MINUTE;
+    
+    // Batch introspection verifies every token, so it is limited per token rather than per request;
+    // keep this at or above auth.token.introspect-batch-max
+    @Value("${rate-limit.introspect.batch-tokens-per-minute:1000}")
+    private int INTROSPECT_BATCH_TOKENS_PER_MINUTE;
 
     // DDoS protection settings
     @Value("${rate-limit.ddos.requests-per-second:100}")
@@ -83,6 +88,13 @@ public class RateLimitingService {
     }
 
     public boolean isAllowed(String identifier, String operation, String ipAddress) {
+        return isAllowed(identifier, operation, ipAddress, 1);
+    }
+
+    /**
+     * Consume the given number of permits from the operation bucket
+     */
+    public boolean isAllowed(String identifier, String operation, String ipAddress, long permits) {
         // Check IP blocking first
         if (ipAddress != null && isIPBlocked(ipAddress)) {
             logger.warn("Request blocked from IP: {} for operation: {}", ipAddress, operation);
@@ -95,7 +107,7 @@ public class RateLimitingService {
 
         String key = operation + ":" + identifier;
         Bucket bucket = bucketCache.computeIfAbsent(key, k -> createBucket(operation));
-        boolean allowed = bucket.tryConsume(1);
+        boolean allowed = bucket.tryConsume(permits);
 
         if (!allowed) {
             logger.warn("Rate limit exceeded for identifier: {} operation: {}", identifier, operation);
@@ -139,6 +151,10 @@ public class RateLimitingService {
                 return Bucket.builder()
                     .addLimit(Bandwidth.classic(INTROSPECT_REQUESTS_PER_MINUTE, Refill.intervally(INTROSPECT_REQUESTS_PER_MINUTE, Duration.ofMinutes(1))))
                     .build();
+            case "token_introspect_batch":
+                return Bucket.builder()
+                    .addLimit(Bandwidth.classic(INTROSPECT_BATCH_TOKENS_PER_MINUTE, Refill.intervally(INTROSPECT_BATCH_TOKENS_PER_MINUTE, Duration.ofMinutes(1))))
+                    .build();
             case "ddos_protection":
                 return Bucket.builder()
                     .addLimit(Bandwidth.classic(DDOS_REQUESTS_PER_SECOND, Refill.intervally(DDOS_REQUESTS_PER_SECOND, Duration.ofSeconds(1))))
@@ -200,6 +216,23 @@ public class RateLimitingService {
         return isAllowed(identifier, "token_introspect");
     }
 
+    /**
+     * Check rate limit for a batch introspection request, one permit per token
+     */
+    public boolean isTokenIntrospectionAllowed(String identifier, int batchSize) {
+        return isAllowed(identifier, "token_introspect_batch", null,
+            introspectionBatchWeight(batchSize, INTROSPECT_BATCH_TOKENS_PER_MINUTE));
+    }
+
+    /**
+     * One permit per token. A batch larger than the bucket is charged the whole bucket, so that
+     * a misconfigured limit below the batch maximum slows such batches down instead of refusing
+     * them forever.
+     */
+    static long introspectionBatchWeight(int batchSize, int capacity) {
+        return Math.min(Math.max(batchSize, 1), Math.max(capacity, 1));
+    }
+
     /**
      * Get remaining tokens for a specific operation
      */
@@ -233,6 +266,7 @@ public class RateLimitingService {
             case "refresh_token": return REFRESH_TOKEN_REQUESTS_PER_MINUTE;
             case "revoke_token": return REVOKE_TOKEN_REQUESTS_PER_MINUTE;
             case "token_introspect": return INTROSPECT_REQUESTS_PER_MINUTE;
+            case "token_introspect_batch": return INTROSPECT_BATCH_TOKENS_PER_MINUTE;
             case "ddos_protection": return DDOS_REQUESTS_PER_SECOND;
             case "password_reset": return 3;
             case "email_verification": return 5;
@@ -7,7 +7,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
- * Service for scheduled cleanup and management of security alerts
+ * Service for scheduled cleanup and management of security alerts.
+ * Alerts live in shared Redis, so every job runs under a cluster-wide lease.
  */
 @Service
 public class SecurityAlertCleanupService {
@@ -16,12 +17,15 @@ public class SecurityAlertCleanupService {
 
     private final SecurityAlertService securityAlertService;
     private final SecurityAuditService auditService;
+    private final ChunkedExpiryService chunkedExpiryService;
 
     @Autowired
     public SecurityAlertCleanupService(SecurityAlertService securityAlertService,
-                                     SecurityAuditService auditService) {
+                                     SecurityAuditService auditService,
+                                     ChunkedExpiryService chunkedExpiryService) {
         this.securityAlertService = securityAlertService;
         this.auditService = auditService;
+        this.chunkedExpiryService = chunkedExpiryService;
     }
 
     /**
@@ -32,7 +36,7 @@ public class SecurityAlertCleanupService {
         try {
             logger.debug("Starting auto-resolve of old security alerts");
             
-            securityAlertService.autoResolveOldAlerts();
+            chunkedExpiryService.runExclusive("security-alerts-auto-resolve", securityAlertService::autoResolveOldAlerts);
             
             logger.debug("Completed auto-resolve of old security alerts");
             
@@ -49,7 +53,10 @@ public class SecurityAlertCleanupService {
         try {
             logger.info("Starting cleanup of expired security alerts");
             
-            securityAlertService.cleanupExpiredAlerts();
+            boolean ran = chunkedExpiryService.runExclusive("security-alerts-cleanup", securityAlertService::cleanupExpiredAlerts);
+            if (!ran) {
+                return;
+            }
             
             logger.info("Completed cleanup of expired security alerts");
             
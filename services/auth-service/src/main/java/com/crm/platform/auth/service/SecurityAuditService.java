@@ -26,8 +26,13 @@ public class SecurityAuditService {
 
     private static final Logger logger = LoggerFactory.getLogger(SecurityAuditService.class);
 
+    private static final ChunkedExpiryService.ExpiryPolicy AUDIT_LOG_RETENTION =
+        ChunkedExpiryService.ExpiryPolicy.of("security-audit-retention", "security_audit_log", "timestamp")
+            .partitioned();
+
     private final SecurityAuditLogRepository auditLogRepository;
     private final UserSessionRepository sessionRepository;
+    private final ChunkedExpiryService chunkedExpiryService;
 
     @Value("${security.monitoring.enabled:true}")
     private boolean monitoringEnabled;
@@ -38,11 +43,22 @@ public class SecurityAuditService {
     @Value("${security.monitoring.alert-window-hours:1}")
     private int alertWindowHours;
 
+    @Value("${security.audit.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${security.audit.partitions-ahead-months:3}")
+    private int partitionsAheadMonths;
+
+    @Value("${security.audit.default-lookback-days:30}")
+    private int defaultLookbackDays;
+
     @Autowired
     public SecurityAuditService(SecurityAuditLogRepository auditLogRepository,
-                               UserSessionRepository sessionRepository) {
+                               UserSessionRepository sessionRepository,
+                               ChunkedExpiryService chunkedExpiryService) {
         this.auditLogRepository = auditLogRepository;
         this.sessionRepository = sessionRepository;
+        this.chunkedExpiryService = chunkedExpiryService;
     }
 
     @Async
@@ -322,29 +338,43 @@ public class SecurityAuditService {
     }
 
     /**
-     * Get security audit logs with filtering and pagination
+     * Get security audit logs with filtering and pagination. The time window defaults to the
+     * last security.audit.default-lookback-days so that only recent partitions are scanned.
      */
     public Page<SecurityAuditLog> getAuditLogs(UUID userId, UUID tenantId, String eventType, 
                                              LocalDateTime startTime, LocalDateTime endTime, 
                                              Pageable pageable) {
-        if (userId != null) {
-            return auditLogRepository.findByUserIdOrderByTimestampDesc(userId, pageable);
+        LocalDateTime end = endTime != null ? endTime : LocalDateTime.now();
+        LocalDateTime start = startTime != null ? startTime : end.minusDays(defaultLookbackDays);
+
+        if (userId != null && tenantId != null) {
+            return auditLogRepository.findByTenantIdAndUserIdAndTimestampBetweenOrderByTimestampDesc(
+                tenantId, userId, start, end, pageable);
+        } else if (userId != null) {
+            return auditLogRepository.findByUserIdAndTimestampBetweenOrderByTimestampDesc(userId, start, end, pageable);
+        } else if (eventType != null) {
+            return auditLogRepository.findByEventTypesAndTimestampBetweenAndTenantId(
+                List.of(eventType), start, end, tenantId, pageable);
         } else if (tenantId != null) {
-            return auditLogRepository.findByTenantIdOrderByTimestampDesc(tenantId, pageable);
+            return auditLogRepository.findByTenantIdAndTimestampBetweenOrderByTimestampDesc(tenantId, start, end, pageable);
         } else {
             // Return all logs with pagination (admin only)
-            return auditLogRepository.findAll(pageable);
+            return auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(start, end, pageable);
         }
     }
 
     /**
-     * Clean up old audit logs based on retention policy
+     * Clean up old audit logs based on retention policy. Expired months are dropped as whole
+     * partitions and upcoming months are created ahead of time.
      */
     @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
     public void cleanupOldAuditLogs() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(90); // 90-day retention
-            auditLogRepository.deleteByTimestampBefore(cutoffDate);
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
+            chunkedExpiryService.runExclusive("security-audit-retention", () -> {
+                chunkedExpiryService.ensureMonthlyPartitions(AUDIT_LOG_RETENTION, partitionsAheadMonths);
+                chunkedExpiryService.purge(AUDIT_LOG_RETENTION, cutoffDate);
+            });
             logger.info("Cleaned up audit logs older than {}", cutoffDate);
         } catch (Exception e) {
             logger.error("Error cleaning up old audit logs", e);
@@ -354,10 +384,7 @@ public class SecurityAuditService {
     // Private helper methods
 
     private long countEventsByTypeAndPeriod(String eventType, LocalDateTime start, LocalDateTime end, UUID tenantId) {
-        return auditLogRepository.findByEventTypeAndTimestampBetween(eventType, start, end)
-                .stream()
-                .filter(log -> tenantId == null || Objects.equals(log.getTenantId(), tenantId))
-                .count();
+        return auditLogRepository.countByEventTypeAndTimestampBetweenAndTenantId(eventType, start, end, tenantId);
     }
 
     private long countSuspiciousActivities(LocalDateTime start, LocalDateTime end, UUID tenantId) {
@@ -372,13 +399,8 @@ public class SecurityAuditService {
     }
 
     private long countUniqueUsers(LocalDateTime start, LocalDateTime end, UUID tenantId) {
-        return auditLogRepository.findByEventTypeAndTimestampBetween("LOGIN_SUCCESS", start, end)
-                .stream()
-                .filter(log -> tenantId == null || Objects.equals(log.getTenantId(), tenantId))
-                .map(SecurityAuditLog::getUserId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .count();
+        return auditLogRepository.countDistinctUsersByEventTypeAndTimestampBetweenAndTenantId(
+            "LOGIN_SUCCESS", start, end, tenantId);
     }
 
     private long countUniqueIpAddresses(LocalDateTime start, LocalDateTime end, UUID tenantId) {
@@ -441,12 +463,7 @@ public class SecurityAuditService {
     }
 
     private long countAllEvents(LocalDateTime start, LocalDateTime end, UUID tenantId) {
-        // This would need a custom query for better performance
-        return auditLogRepository.findAll()
-                .stream()
-                .filter(log -> log.getTimestamp().isAfter(start) && log.getTimestamp().isBefore(end))
-                .filter(log -> tenantId == null || Objects.equals(log.getTenantId(), tenantId))
-                .count();
+        return auditLogRepository.countByTimestampBetweenAndTenantId(start, end, tenantId);
     }
 
     private long countAuthenticationEvents(LocalDateTime start, LocalDateTime end, UUID tenantId) {
@@ -5,13 +5,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Scheduled service for session cleanup and monitoring
+ * Scheduled service for session cleanup and monitoring, run on one node at a time under a cluster-wide lease
  */
 @Service
-@Transactional
 public class SessionCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionCleanupService.class);
@@ -19,6 +17,9 @@ public class SessionCleanupService {
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private ChunkedExpiryService chunkedExpiryService;
+
     /**
      * Clean up expired sessions every hour
      */
@@ -26,7 +27,7 @@ public class SessionCleanupService {
     public void cleanupExpiredSessions() {
         try {
             logger.info("Starting expired sessions cleanup");
-            sessionService.cleanupExpiredSessions();
+            chunkedExpiryService.runExclusive("user_sessions", sessionService::cleanupExpiredSessions);
             logger.info("Completed expired sessions cleanup");
         } catch (Exception e) {
             logger.error("Error during expired sessions cleanup", e);
@@ -40,7 +41,7 @@ public class SessionCleanupService {
     public void monitorSuspiciousActivity() {
         try {
             logger.debug("Starting suspicious activity monitoring");
-            sessionService.monitorSuspiciousActivity();
+            chunkedExpiryService.runExclusive("session-monitoring", sessionService::monitorSuspiciousActivity);
             logger.debug("Completed suspicious activity monitoring");
         } catch (Exception e) {
             logger.error("Error during suspicious activity monitoring", e);
@@ -55,11 +56,9 @@ public class SessionCleanupService {
         try {
             logger.info("Starting daily session maintenance");
             
-            // Clean up expired sessions
-            sessionService.cleanupExpiredSessions();
-            
-            // Monitor suspicious activity
-            sessionService.monitorSuspiciousActivity();
+            // Same leases as the hourly jobs, so the two never work on the table at once
+            chunkedExpiryService.runExclusive("user_sessions", sessionService::cleanupExpiredSessions);
+            chunkedExpiryService.runExclusive("session-monitoring", sessionService::monitorSuspiciousActivity);
             
             logger.info("Completed daily session maintenance");
         } catch (Exception e) {
@@ -42,6 +42,10 @@ public class SessionService {
     private static final int MAX_SESSIONS_PER_USER = 10;
     private static final int SUSPICIOUS_LOGIN_THRESHOLD = 5;
 
+    private static final ChunkedExpiryService.ExpiryPolicy EXPIRED_SESSIONS =
+        ChunkedExpiryService.ExpiryPolicy.of("expired-sessions", "user_sessions", "created_at")
+            .where("status = 'EXPIRED'");
+
     // User agent patterns for device detection
     private static final Pattern MOBILE_PATTERN = Pattern.compile(
         "(?i).*(mobile|android|iphone|ipad|phone|blackberry|opera mini).*"
@@ -68,6 +72,9 @@ public class SessionService {
     @Autowired
     private DeviceTrustService deviceTrustService;
 
+    @Autowired
+    private ChunkedExpiryService chunkedExpiryService;
+
     @Value("${auth.session.default-expiry-hours:24}")
     private int defaultSessionExpiryHours;
 
@@ -354,7 +361,7 @@ public class SessionService {
             
             // Delete old expired sessions (older than 30 days)
             LocalDateTime cutoff = now.minusDays(30);
-            sessionRepository.deleteByStatusAndCreatedAtBefore(UserSession.SessionStatus.EXPIRED, cutoff);
+            chunkedExpiryService.purge(EXPIRED_SESSIONS, cutoff);
 
             logger.debug("Expired sessions cleanup completed");
 
@@ -5,6 +5,7 @@ import com.crm.platform.auth.repository.SecurityAuditLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,17 +24,27 @@ public class TenantAuditService {
 
     private static final Logger logger = LoggerFactory.getLogger(TenantAuditService.class);
 
+    private static final ChunkedExpiryService.ExpiryPolicy TENANT_AUDIT_RETENTION =
+        ChunkedExpiryService.ExpiryPolicy.of("tenant-audit-retention", "security_audit_log", "timestamp")
+            .where("tenant_id = :tenantId");
+
     private final SecurityAuditLogRepository auditLogRepository;
     private final TenantContextService tenantContextService;
     private final TenantValidationService tenantValidationService;
+    private final ChunkedExpiryService chunkedExpiryService;
+
+    @Value("${security.audit.default-lookback-days:30}")
+    private int defaultLookbackDays;
 
     @Autowired
     public TenantAuditService(SecurityAuditLogRepository auditLogRepository,
                             TenantContextService tenantContextService,
-                            TenantValidationService tenantValidationService) {
+                            TenantValidationService tenantValidationService,
+                            ChunkedExpiryService chunkedExpiryService) {
         this.auditLogRepository = auditLogRepository;
         this.tenantContextService = tenantContextService;
         this.tenantValidationService = tenantValidationService;
+        this.chunkedExpiryService = chunkedExpiryService;
     }
 
     /**
@@ -43,7 +54,9 @@ public class TenantAuditService {
         UUID tenantId = tenantContextService.requireTenantContext();
         tenantContextService.requireValidatedTenant();
         
-        return auditLogRepository.findByTenantIdOrderByTimestampDesc(tenantId, pageable);
+        LocalDateTime end = LocalDateTime.now();
+        return auditLogRepository.findByTenantIdAndTimestampBetweenOrderByTimestampDesc(
+            tenantId, end.minusDays(defaultLookbackDays), end, pageable);
     }
 
     /**
@@ -59,16 +72,16 @@ public class TenantAuditService {
         // Apply tenant isolation
         tenantValidationService.enforceTenantIsolation(tenantId);
         
-        if (eventType != null && startTime != null && endTime != null) {
+        // Always bound the time range so that only the matching partitions are scanned
+        LocalDateTime end = endTime != null ? endTime : LocalDateTime.now();
+        LocalDateTime start = startTime != null ? startTime : end.minusDays(defaultLookbackDays);
+
+        if (eventType != null) {
             return auditLogRepository.findByTenantIdAndEventTypeAndTimestampBetween(
-                tenantId, eventType, startTime, endTime, pageable);
-        } else if (startTime != null && endTime != null) {
-            return auditLogRepository.findByTenantIdAndTimestampBetween(
-                tenantId, startTime, endTime, pageable);
-        } else if (eventType != null) {
-            return auditLogRepository.findByTenantIdAndEventType(tenantId, eventType, pageable);
+                tenantId, eventType, start, end, pageable);
         } else {
-            return auditLogRepository.findByTenantIdOrderByTimestampDesc(tenantId, pageable);
+            return auditLogRepository.findByTenantIdAndTimestampBetweenOrderByTimestampDesc(
+                tenantId, start, end, pageable);
         }
     }
 
@@ -82,7 +95,9 @@ public class TenantAuditService {
         // Ensure user belongs to current tenant (this would require user service integration)
         validateUserBelongsToTenant(userId, tenantId);
         
-        return auditLogRepository.findByTenantIdAndUserIdOrderByTimestampDesc(tenantId, userId, pageable);
+        LocalDateTime end = LocalDateTime.now();
+        return auditLogRepository.findByTenantIdAndUserIdAndTimestampBetweenOrderByTimestampDesc(
+            tenantId, userId, end.minusDays(defaultLookbackDays), end, pageable);
     }
 
     /**
@@ -200,11 +215,11 @@ public class TenantAuditService {
             throw new TenantContextService.TenantContextException("Invalid tenant access for cleanup");
         }
         
-        List<SecurityAuditLog> oldLogs = auditLogRepository.findByTenantIdAndTimestampBefore(tenantId, cutoffDate);
-        int deletedCount = oldLogs.size();
+        // Partitions hold every tenant, so a single tenant's rows are deleted in bounded chunks
+        int deletedCount = (int) chunkedExpiryService.purge(TENANT_AUDIT_RETENTION, cutoffDate,
+                                                            Map.of("tenantId", tenantId));
         
         if (deletedCount > 0) {
-            auditLogRepository.deleteAll(oldLogs);
             logger.info("Deleted {} old audit logs for tenant: {}", deletedCount, tenantId);
             
             // Log the cleanup activity
@@ -5,13 +5,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Scheduled service for automatic cleanup of expired tokens and blacklisted entries
+ * Scheduled service for automatic cleanup of expired tokens and blacklisted entries.
+ * Each purge runs under the cluster-wide lease of its table and deletes in chunks through
+ * {@link ChunkedExpiryService}.
  */
 @Service
-@Transactional
 public class TokenCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenCleanupService.class);
@@ -22,6 +22,9 @@ public class TokenCleanupService {
     @Autowired
     private OAuth2CleanupService oauth2CleanupService;
 
+    @Autowired
+    private ChunkedExpiryService chunkedExpiryService;
+
     /**
      * Clean up expired blacklisted tokens every 6 hours
      */
@@ -29,7 +32,7 @@ public class TokenCleanupService {
     public void cleanupExpiredBlacklistedTokens() {
         try {
             logger.info("Starting cleanup of expired blacklisted tokens");
-            tokenManagementService.cleanupExpiredBlacklistedTokens();
+            chunkedExpiryService.runExclusive("token_blacklist", tokenManagementService::cleanupExpiredBlacklistedTokens);
             logger.info("Completed cleanup of expired blacklisted tokens");
         } catch (Exception e) {
             logger.error("Error during blacklisted token cleanup", e);
@@ -43,6 +46,7 @@ public class TokenCleanupService {
     public void cleanupOAuth2Tokens() {
         try {
             logger.info("Starting OAuth2 token and code cleanup");
+            // Each OAuth2 purge takes the lease of its own table
             oauth2CleanupService.performManualCleanup();
             logger.info("Completed OAuth2 token and code cleanup");
         } catch (Exception e) {
@@ -58,10 +62,8 @@ public class TokenCleanupService {
         try {
             logger.info("Starting daily comprehensive token cleanup");
             
-            // Clean up blacklisted tokens
-            tokenManagementService.cleanupExpiredBlacklistedTokens();
-            
-            // Clean up OAuth2 tokens and codes
+            // Same leases as the periodic jobs, so the two never work on a table at once
+            chunkedExpiryService.runExclusive("token_blacklist", tokenManagementService::cleanupExpiredBlacklistedTokens);
             oauth2CleanupService.performManualCleanup();
             
             logger.info("Completed daily comprehensive token cleanup");
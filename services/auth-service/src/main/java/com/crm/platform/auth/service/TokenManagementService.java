@@ -9,6 +9,7 @@ import com.crm.platform.auth.exception.OAuth2Exception;
 import com.crm.platform.auth.repository.TokenBlacklistRepository;
 import com.crm.platform.auth.repository.UserCredentialsRepository;
 import com.crm.platform.auth.repository.UserSessionRepository;
+import com.crm.platform.security.jwt.InvalidJwtTokenException;
 import com.crm.platform.security.jwt.JwtTokenProvider;
 import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
@@ -16,12 +17,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Enhanced token management service providing JWT token generation, 
@@ -33,6 +38,9 @@ public class TokenManagementService {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenManagementService.class);
 
+    private static final ChunkedExpiryService.ExpiryPolicy EXPIRED_BLACKLIST_ENTRIES =
+        ChunkedExpiryService.ExpiryPolicy.of("token-blacklist", "token_blacklist", "expires_at");
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
@@ -51,6 +59,9 @@ public class TokenManagementService {
     @Autowired
     private RateLimitingService rateLimitingService;
 
+    @Autowired
+    private ChunkedExpiryService chunkedExpiryService;
+
     @Value("${auth.token.refresh-rotation:true}")
     private boolean enableRefreshTokenRotation;
 
@@ -60,6 +71,12 @@ public class TokenManagementService {
     @Value("${auth.token.blacklist-cleanup-hours:24}")
     private int blacklistCleanupHours;
 
+    @Value("${auth.token.introspect-batch-max:500}")
+    private int introspectBatchMax;
+
+    // Below this size, signature checks are cheaper on the calling thread than fanned out
+    private static final int PARALLEL_VERIFY_THRESHOLD = 32;
+
     /**
      * Generate JWT access token with proper claims
      */
@@ -272,58 +289,162 @@ public class TokenManagementService {
      */
     public TokenIntrospectionResponse introspectToken(String token) {
         try {
-            TokenIntrospectionResponse response = new TokenIntrospectionResponse();
-
             // Basic validation
             if (!jwtTokenProvider.validateToken(token)) {
-                response.setActive(false);
-                return response;
+                return inactive(null);
             }
 
             // Check blacklist
             String jti = jwtTokenProvider.getJtiFromToken(token);
             if (tokenBlacklistRepository.existsByJti(jti)) {
-                response.setActive(false);
-                response.setError("Token has been revoked");
-                return response;
+                return inactive("Token has been revoked");
             }
 
             // Extract token information
             Claims claims = jwtTokenProvider.parseToken(token);
             UUID userId = UUID.fromString(claims.getSubject());
-            UUID tenantId = UUID.fromString(claims.get("tenant_id", String.class));
+            return buildIntrospectionResponse(claims, userCredentialsRepository.findByUserId(userId).orElse(null));
 
-            // Build response
-            response.setActive(true);
-            response.setClientId("internal"); // For internal tokens
-            response.setUserId(userId);
-            response.setTenantId(tenantId);
-            response.setTokenType(claims.get("type", String.class));
-            response.setScope(claims.get("scope", String.class));
-            response.setIssuer(claims.getIssuer());
-            response.setAudience(claims.getAudience());
-            response.setIssuedAt(claims.getIssuedAt().toInstant());
-            response.setExpiresAt(claims.getExpiration().toInstant());
-            response.setNotBefore(claims.getNotBefore() != null ? claims.getNotBefore().toInstant() : null);
-
-            // Add user information if available
-            userCredentialsRepository.findByUserId(userId).ifPresent(credentials -> {
-                response.setUsername(credentials.getUsername());
-                response.setEmail(credentials.getEmail());
-                response.setEmailVerified(credentials.getEmailVerified());
-            });
+        } catch (Exception e) {
+            logger.error("Error during token introspection", e);
+            return inactive("Internal server error");
+        }
+    }
 
-            return response;
+    /**
+     * Introspect a batch of tokens. Signatures are verified in parallel, revocation is resolved for
+     * all JTIs with one set-membership query and user details with one lookup. Results are returned
+     * in the same order as the given tokens.
+     */
+    @Transactional(readOnly = true)
+    public List<TokenIntrospectionResponse> introspectTokens(List<String> tokens) {
+        if (tokens.size() > introspectBatchMax) {
+            throw new IllegalArgumentException(
+                "At most " + introspectBatchMax + " tokens can be introspected per request");
+        }
+
+        try {
+            Stream<String> stream = tokens.size() >= PARALLEL_VERIFY_THRESHOLD
+                ? tokens.parallelStream() : tokens.stream();
+            List<Claims> claimsList = stream.map(this::parseVerifiedClaims).toList();
+
+            // Subjects are parsed per token, so one malformed token is reported inactive on its own
+            List<UUID> subjects = new ArrayList<>(claimsList.size());
+            Set<String> jtis = new HashSet<>();
+            Set<UUID> userIds = new HashSet<>();
+            for (Claims claims : claimsList) {
+                UUID subject = claims != null ? parseSubject(claims) : null;
+                subjects.add(subject);
+                if (subject != null) {
+                    if (claims.getId() != null) {
+                        jtis.add(claims.getId());
+                    }
+                    userIds.add(subject);
+                }
+            }
+
+            Set<String> revoked = jtis.isEmpty()
+                ? Set.of() : tokenBlacklistRepository.findBlacklistedJtis(jtis);
+            Map<UUID, UserCredentials> credentialsByUser = userIds.isEmpty()
+                ? Map.of()
+                : userCredentialsRepository.findByUserIdIn(userIds).stream()
+                    .collect(Collectors.toMap(UserCredentials::getUserId, Function.identity(), (a, b) -> a));
+
+            List<TokenIntrospectionResponse> responses = new ArrayList<>(claimsList.size());
+            for (int i = 0; i < claimsList.size(); i++) {
+                Claims claims = claimsList.get(i);
+                UUID subject = subjects.get(i);
+                if (claims == null) {
+                    responses.add(inactive(null));
+                } else if (subject == null) {
+                    responses.add(inactive("Invalid token subject"));
+                } else if (claims.getId() != null && revoked.contains(claims.getId())) {
+                    responses.add(inactive("Token has been revoked"));
+                } else {
+                    responses.add(introspectionResponse(claims, credentialsByUser.get(subject)));
+                }
+            }
+            return responses;
 
         } catch (Exception e) {
-            logger.error("Error during token introspection", e);
-            TokenIntrospectionResponse response = new TokenIntrospectionResponse();
-            response.setActive(false);
-            response.setError("Internal server error");
-            return response;
+            logger.error("Error during batch token introspection", e);
+            List<TokenIntrospectionResponse> responses = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                responses.add(inactive("Internal server error"));
+            }
+            return responses;
         }
     }
 
+    /**
+     * Maximum number of tokens accepted by {@link #introspectTokens(List)}
+     */
+    public int getIntrospectBatchMax() {
+        return introspectBatchMax;
+    }
+
+    private UUID parseSubject(Claims claims) {
+        try {
+            return claims.getSubject() != null ? UUID.fromString(claims.getSubject()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private TokenIntrospectionResponse introspectionResponse(Claims claims, UserCredentials credentials) {
+        try {
+            return buildIntrospectionResponse(claims, credentials);
+        } catch (RuntimeException e) {
+            logger.warn("Token {} has invalid claims: {}", claims.getId(), e.getMessage());
+            return inactive("Invalid token claims");
+        }
+    }
+
+    /**
+     * Verify the signature and expiry of a token, returning null when it is not valid
+     */
+    private Claims parseVerifiedClaims(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            return jwtTokenProvider.parseToken(token);
+        } catch (InvalidJwtTokenException e) {
+            return null;
+        }
+    }
+
+    private TokenIntrospectionResponse buildIntrospectionResponse(Claims claims, UserCredentials credentials) {
+        TokenIntrospectionResponse response = new TokenIntrospectionResponse();
+        response.setActive(true);
+        response.setClientId("internal"); // For internal tokens
+        response.setUserId(UUID.fromString(claims.getSubject()));
+        response.setTenantId(UUID.fromString(claims.get("tenant_id", String.class)));
+        response.setTokenType(claims.get("type", String.class));
+        response.setScope(claims.get("scope", String.class));
+        response.setIssuer(claims.getIssuer());
+        response.setAudience(claims.getAudience());
+        response.setIssuedAt(claims.getIssuedAt().toInstant());
+        response.setExpiresAt(claims.getExpiration().toInstant());
+        response.setNotBefore(claims.getNotBefore() != null ? claims.getNotBefore().toInstant() : null);
+
+        // Add user information if available
+        if (credentials != null) {
+            response.setUsername(credentials.getUsername());
+            response.setEmail(credentials.getEmail());
+            response.setEmailVerified(credentials.getEmailVerified());
+        }
+
+        return response;
+    }
+
+    private TokenIntrospectionResponse inactive(String error) {
+        TokenIntrospectionResponse response = new TokenIntrospectionResponse();
+        response.setActive(false);
+        response.setError(error);
+        return response;
+    }
+
     /**
      * Get token statistics for monitoring
      */
@@ -353,10 +474,11 @@ public class TokenManagementService {
     /**
      * Cleanup expired blacklisted tokens
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupExpiredBlacklistedTokens() {
         try {
             LocalDateTime now = LocalDateTime.now();
-            int deletedCount = tokenBlacklistRepository.deleteExpiredTokens(now);
+            long deletedCount = chunkedExpiryService.purge(EXPIRED_BLACKLIST_ENTRIES, now);
             
             if (deletedCount > 0) {
                 logger.info("Cleaned up {} expired blacklisted tokens", deletedCount);
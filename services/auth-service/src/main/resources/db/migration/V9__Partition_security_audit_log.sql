@@ -0,0 +1,200 @@
+-- =====================================================
+-- AUTH SERVICE - MONTHLY RANGE PARTITIONING FOR SECURITY AUDIT LOG
+-- =====================================================
+-- security_audit_log is converted to a native range-partitioned table on
+-- "timestamp" with one partition per month. Retention drops whole
+-- partitions instead of deleting rows, and queries that carry a time
+-- predicate only touch the partitions they need.
+
+-- =====================================================
+-- 1. PARTITION MANAGEMENT FUNCTIONS
+-- =====================================================
+
+-- Create the monthly partition of parent_table that contains month_start.
+-- Rows of that month which already landed in the default partition would
+-- make the CREATE fail, so they are moved over in the same transaction:
+-- the default partition is detached, the month created, its rows moved
+-- and the default partition attached again.
+CREATE OR REPLACE FUNCTION create_monthly_partition(
+    parent_table TEXT,
+    month_start DATE
+) RETURNS TEXT AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', month_start)::DATE;
+    partition_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := parent_table || '_p' || to_char(partition_start, 'YYYY_MM');
+    default_name TEXT := parent_table || '_default';
+    key_column TEXT;
+    has_default_rows BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(default_name) IS NOT NULL THEN
+        SELECT a.attname INTO key_column
+        FROM pg_partitioned_table pt
+        JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+        WHERE pt.partrelid = parent_table::regclass;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+                       default_name, key_column, partition_start, key_column, partition_end)
+        INTO has_default_rows;
+    END IF;
+
+    IF has_default_rows THEN
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, default_name);
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, parent_table, partition_start, partition_end
+    );
+
+    IF has_default_rows THEN
+        EXECUTE format('INSERT INTO %I SELECT * FROM %I WHERE %I >= %L AND %I < %L',
+                       partition_name, default_name, key_column, partition_start, key_column, partition_end);
+        EXECUTE format('DELETE FROM %I WHERE %I >= %L AND %I < %L',
+                       default_name, key_column, partition_start, key_column, partition_end);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', parent_table, default_name);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Make sure partitions exist from the current month through months_ahead months in the future
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(
+    parent_table TEXT,
+    months_ahead INTEGER DEFAULT 3
+) RETURNS INTEGER AS $$
+DECLARE
+    month_offset INTEGER;
+    created INTEGER := 0;
+    partition_name TEXT;
+BEGIN
+    -- Serialize concurrent callers (several replicas run the same maintenance job)
+    PERFORM pg_advisory_xact_lock(hashtext('partitions:' || parent_table));
+
+    FOR month_offset IN 0..months_ahead LOOP
+        partition_name := parent_table || '_p' ||
+            to_char(date_trunc('month', CURRENT_DATE) + make_interval(months => month_offset), 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            PERFORM create_monthly_partition(parent_table,
+                (date_trunc('month', CURRENT_DATE) + make_interval(months => month_offset))::DATE);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =====================================================
+-- 2. CONVERT security_audit_log TO A PARTITIONED TABLE
+-- =====================================================
+
+DROP VIEW IF EXISTS security_audit_summary;
+
+ALTER TABLE security_audit_log RENAME TO security_audit_log_unpartitioned;
+ALTER TABLE security_audit_log_unpartitioned DROP CONSTRAINT IF EXISTS security_audit_log_pkey;
+ALTER TABLE security_audit_log_unpartitioned DROP CONSTRAINT IF EXISTS valid_audit_status;
+
+DROP INDEX IF EXISTS idx_audit_log_user_id;
+DROP INDEX IF EXISTS idx_audit_log_tenant_id;
+DROP INDEX IF EXISTS idx_audit_log_event_type;
+DROP INDEX IF EXISTS idx_audit_log_timestamp;
+DROP INDEX IF EXISTS idx_audit_log_ip_address;
+DROP INDEX IF EXISTS idx_audit_log_status;
+DROP INDEX IF EXISTS idx_audit_log_session_id;
+DROP INDEX IF EXISTS idx_audit_log_user_event_time;
+DROP INDEX IF EXISTS idx_audit_log_ip_event_time;
+DROP INDEX IF EXISTS idx_audit_log_tenant_time;
+DROP INDEX IF EXISTS idx_security_audit_tenant_event_time;
+DROP INDEX IF EXISTS idx_security_audit_user_event_time;
+
+CREATE TABLE security_audit_log (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID,
+    tenant_id UUID,
+    event_type VARCHAR(50) NOT NULL,
+    event_description VARCHAR(500) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    session_id VARCHAR(255),
+    additional_data TEXT,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- The partition key must be part of the primary key
+    CONSTRAINT security_audit_log_pkey PRIMARY KEY (id, timestamp),
+    CONSTRAINT valid_audit_status CHECK (status IN ('SUCCESS', 'FAILURE', 'WARNING'))
+) PARTITION BY RANGE (timestamp);
+
+-- Indexes on the parent are created on every partition. Every index leads
+-- with its filter column and ends with timestamp so that time-bounded
+-- queries resolve with a range scan inside each pruned partition.
+CREATE INDEX idx_audit_log_timestamp ON security_audit_log(timestamp);
+CREATE INDEX idx_audit_log_tenant_time ON security_audit_log(tenant_id, timestamp);
+CREATE INDEX idx_audit_log_user_time ON security_audit_log(user_id, timestamp);
+CREATE INDEX idx_audit_log_session_id ON security_audit_log(session_id);
+CREATE INDEX idx_audit_log_user_event_time ON security_audit_log(user_id, event_type, timestamp);
+CREATE INDEX idx_audit_log_ip_event_time ON security_audit_log(ip_address, event_type, timestamp);
+CREATE INDEX idx_audit_log_event_time ON security_audit_log(event_type, timestamp);
+CREATE INDEX idx_security_audit_tenant_event_time ON security_audit_log(tenant_id, event_type, timestamp);
+
+-- Catch-all partition so that an insert never fails if maintenance falls behind
+CREATE TABLE security_audit_log_default PARTITION OF security_audit_log DEFAULT;
+
+-- Monthly partitions covering existing history plus three months ahead
+DO $$
+DECLARE
+    month_cursor DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(timestamp), CURRENT_DATE))::DATE
+    INTO month_cursor
+    FROM security_audit_log_unpartitioned;
+
+    WHILE month_cursor < date_trunc('month', CURRENT_DATE) LOOP
+        PERFORM create_monthly_partition('security_audit_log', month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    PERFORM ensure_monthly_partitions('security_audit_log', 3);
+END $$;
+
+INSERT INTO security_audit_log (
+    id, user_id, tenant_id, event_type, event_description, status,
+    ip_address, user_agent, session_id, additional_data, timestamp
+)
+SELECT id, user_id, tenant_id, event_type, event_description, status,
+       ip_address, user_agent, session_id, additional_data, timestamp
+FROM security_audit_log_unpartitioned;
+
+DROP TABLE security_audit_log_unpartitioned;
+
+-- =====================================================
+-- 3. RESTORE SECURITY, GRANTS AND VIEWS
+-- =====================================================
+
+ALTER TABLE security_audit_log ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY tenant_isolation_security_audit_log ON security_audit_log
+    USING (tenant_id = get_current_tenant_id());
+
+GRANT SELECT, INSERT, UPDATE, DELETE ON security_audit_log TO auth_app_role;
+
+CREATE OR REPLACE VIEW security_audit_summary AS
+SELECT
+    tenant_id,
+    event_type,
+    status,
+    DATE(timestamp) as audit_date,
+    COUNT(*) as event_count,
+    COUNT(DISTINCT user_id) as unique_users,
+    COUNT(DISTINCT ip_address) as unique_ips
+FROM security_audit_log
+WHERE timestamp >= CURRENT_DATE - INTERVAL '30 days'
+GROUP BY tenant_id, event_type, status, DATE(timestamp)
+ORDER BY audit_date DESC, event_count DESC;
+
+COMMENT ON TABLE security_audit_log IS 'Security audit events, range-partitioned by month on timestamp';
+COMMENT ON FUNCTION ensure_monthly_partitions(TEXT, INTEGER) IS 'Creates missing monthly partitions from the current month through months_ahead';
@@ -0,0 +1,56 @@
+package com.crm.platform.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedExpiryServiceTest {
+
+    @Test
+    void testChunkDeleteSql_OrdersByTimestampAndBoundsChunk() {
+        ChunkedExpiryService.ExpiryPolicy policy = ChunkedExpiryService.ExpiryPolicy
+            .of("expired-sessions", "user_sessions", "created_at")
+            .where("status = 'EXPIRED'");
+
+        assertEquals("DELETE FROM user_sessions WHERE id IN (SELECT id FROM user_sessions " +
+                     "WHERE created_at < :cutoff AND (status = 'EXPIRED') ORDER BY created_at LIMIT :limit)",
+                     policy.chunkDeleteSql());
+        assertFalse(policy.isPartitioned());
+        assertTrue(policy.partitioned().isPartitioned());
+    }
+
+    @Test
+    void testPolicy_RejectsInvalidIdentifiers() {
+        assertThrows(IllegalArgumentException.class,
+            () -> ChunkedExpiryService.ExpiryPolicy.of("bad", "users; DROP TABLE users", "created_at"));
+        assertThrows(IllegalArgumentException.class,
+            () -> ChunkedExpiryService.ExpiryPolicy.of("bad", "users", "created_at DESC"));
+    }
+
+    @Test
+    void testAdaptivePause_ScalesWithLatency() {
+        // Fast database: clamp to the minimum pause
+        assertEquals(10, ChunkedExpiryService.adaptivePause(20, 250, 10, 5000));
+        // At target latency the pause equals the target
+        assertEquals(250, ChunkedExpiryService.adaptivePause(250, 250, 10, 5000));
+        // Twice the target latency backs off four times as much
+        assertEquals(1000, ChunkedExpiryService.adaptivePause(500, 250, 10, 5000));
+        // Very slow database: clamp to the maximum pause
+        assertEquals(5000, ChunkedExpiryService.adaptivePause(10000, 250, 10, 5000));
+    }
+
+    @Test
+    void testPartitionUpperBound() {
+        assertEquals(LocalDateTime.of(2026, 2, 1, 0, 0),
+            ChunkedExpiryService.partitionUpperBound("FOR VALUES FROM ('2026-01-01 00:00:00') TO ('2026-02-01 00:00:00')"));
+        assertEquals(LocalDateTime.of(2026, 2, 1, 0, 0),
+            ChunkedExpiryService.partitionUpperBound("FOR VALUES FROM ('2026-01-01') TO ('2026-02-01')"));
+        assertEquals(LocalDateTime.of(2026, 2, 1, 0, 0),
+            ChunkedExpiryService.partitionUpperBound("FOR VALUES FROM ('2026-01-01 00:00:00+00') TO ('2026-02-01 00:00:00+00')"));
+        assertNull(ChunkedExpiryService.partitionUpperBound("DEFAULT"));
+        assertNull(ChunkedExpiryService.partitionUpperBound("FOR VALUES FROM ('2026-01-01') TO (MAXVALUE)"));
+        assertNull(ChunkedExpiryService.partitionUpperBound(null));
+    }
+}
@@ -0,0 +1,95 @@
+package com.crm.platform.auth.service;
+
+import com.crm.platform.auth.config.LoginPipelineConfig;
+import com.crm.platform.auth.exception.AuthenticationException;
+import com.crm.platform.auth.exception.InvalidCredentialsException;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginPipelineTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private LoginPipeline loginPipeline;
+
+    @BeforeEach
+    void setUp() {
+        LoginPipelineConfig config = new LoginPipelineConfig();
+        config.setStageTimeout(Duration.ofMillis(200));
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        loginPipeline = new LoginPipeline(ObservationRegistry.create(), executor, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testFork_ReturnsResult() {
+        try (LoginPipeline.Scope scope = loginPipeline.open()) {
+            Future<String> profile = scope.fork("user-profile", () -> "profile");
+            assertEquals("profile", scope.join(profile));
+        }
+    }
+
+    @Test
+    void testJoin_RethrowsStageFailure() {
+        try (LoginPipeline.Scope scope = loginPipeline.open()) {
+            Future<Object> failing = scope.fork("device-trust", () -> {
+                throw new InvalidCredentialsException("Invalid username or password");
+            });
+            assertThrows(InvalidCredentialsException.class, () -> scope.join(failing));
+        }
+    }
+
+    @Test
+    void testJoin_TimesOut() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (LoginPipeline.Scope scope = loginPipeline.open()) {
+            Future<Boolean> slow = scope.fork("user-profile", () -> awaitQuietly(release));
+            assertThrows(AuthenticationException.class, () -> scope.join(slow));
+            assertTrue(slow.isCancelled());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testClose_CancelsUnfinishedForks() {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> pending;
+        try (LoginPipeline.Scope scope = loginPipeline.open()) {
+            pending = scope.fork("user-profile", () -> awaitQuietly(release));
+        }
+        assertTrue(pending.isCancelled());
+        release.countDown();
+    }
+
+    @Test
+    void testStage_RunsOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        assertTrue(loginPipeline.stage("rate-limit", () -> Thread.currentThread() == caller));
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, java.util.concurrent.TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.crm.platform.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingServiceTest {
+
+    @Test
+    void testIntrospectionBatchWeight_OnePermitPerToken() {
+        assertEquals(1, RateLimitingService.introspectionBatchWeight(1, 1000));
+        assertEquals(2, RateLimitingService.introspectionBatchWeight(2, 1000));
+        assertEquals(50, RateLimitingService.introspectionBatchWeight(50, 1000));
+        assertEquals(500, RateLimitingService.introspectionBatchWeight(500, 1000));
+    }
+
+    @Test
+    void testIntrospectionBatchWeight_EmptyBatchCostsOnePermit() {
+        assertEquals(1, RateLimitingService.introspectionBatchWeight(0, 1000));
+    }
+
+    @Test
+    void testIntrospectionBatchWeight_CappedAtBucketCapacity() {
+        assertEquals(1000, RateLimitingService.introspectionBatchWeight(1000, 1000));
+        assertEquals(100, RateLimitingService.introspectionBatchWeight(500, 100));
+        assertEquals(1, RateLimitingService.introspectionBatchWeight(500, 0));
+    }
+}
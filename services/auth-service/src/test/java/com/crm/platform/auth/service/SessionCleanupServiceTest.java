@@ -0,0 +1,37 @@
+package com.crm.platform.auth.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionCleanupServiceTest {
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private ChunkedExpiryService chunkedExpiryService;
+
+    @InjectMocks
+    private SessionCleanupService sessionCleanupService;
+
+    @Test
+    void testHourlyAndDailyPurgesShareTheTableLease() {
+        sessionCleanupService.cleanupExpiredSessions();
+        sessionCleanupService.performDailyMaintenance();
+
+        ArgumentCaptor<String> leases = ArgumentCaptor.forClass(String.class);
+        verify(chunkedExpiryService, times(3)).runExclusive(leases.capture(), any(Runnable.class));
+        assertEquals(List.of("user_sessions", "user_sessions", "session-monitoring"), leases.getAllValues());
+    }
+}
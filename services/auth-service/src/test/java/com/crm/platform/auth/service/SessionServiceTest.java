@@ -41,6 +41,9 @@ class SessionServiceTest {
     @Mock
     private DeviceTrustService deviceTrustService;
 
+    @Mock
+    private ChunkedExpiryService chunkedExpiryService;
+
     @Mock
     private HttpServletRequest httpServletRequest;
 
@@ -418,8 +421,9 @@ class SessionServiceTest {
 
         // Assert
         verify(sessionRepository).expireOldSessions(any(LocalDateTime.class));
-        verify(sessionRepository).deleteByStatusAndCreatedAtBefore(
-            eq(UserSession.SessionStatus.EXPIRED), any(LocalDateTime.class));
+        verify(chunkedExpiryService).purge(
+            argThat(policy -> "user_sessions".equals(policy.getTable()) && "status = 'EXPIRED'".equals(policy.getPredicate())),
+            any(LocalDateTime.class));
     }
 
     @Test
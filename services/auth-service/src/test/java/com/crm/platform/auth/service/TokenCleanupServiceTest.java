@@ -0,0 +1,49 @@
+package com.crm.platform.auth.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenCleanupServiceTest {
+
+    @Mock
+    private TokenManagementService tokenManagementService;
+
+    @Mock
+    private OAuth2CleanupService oauth2CleanupService;
+
+    @Mock
+    private ChunkedExpiryService chunkedExpiryService;
+
+    @InjectMocks
+    private TokenCleanupService tokenCleanupService;
+
+    @Test
+    void testBlacklistPurgesShareTheTableLease() {
+        tokenCleanupService.cleanupExpiredBlacklistedTokens();
+        tokenCleanupService.performDailyCleanup();
+
+        ArgumentCaptor<String> leases = ArgumentCaptor.forClass(String.class);
+        verify(chunkedExpiryService, times(2)).runExclusive(leases.capture(), any(Runnable.class));
+        assertEquals(List.of("token_blacklist", "token_blacklist"), leases.getAllValues());
+    }
+
+    @Test
+    void testOAuth2CleanupIsNotWrappedInAnOuterLease() {
+        tokenCleanupService.cleanupOAuth2Tokens();
+
+        // An outer lease would make the per-table leases taken inside OAuth2CleanupService reentrant no-ops
+        verify(oauth2CleanupService).performManualCleanup();
+        verifyNoInteractions(chunkedExpiryService);
+    }
+}
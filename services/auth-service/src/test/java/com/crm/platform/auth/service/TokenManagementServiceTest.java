@@ -46,6 +46,9 @@ class TokenManagementServiceTest {
     @Mock
     private RateLimitingService rateLimitingService;
 
+    @Mock
+    private ChunkedExpiryService chunkedExpiryService;
+
     @InjectMocks
     private TokenManagementService tokenManagementService;
 
@@ -271,6 +274,96 @@ class TokenManagementServiceTest {
         assertEquals("Token has been revoked", response.getError());
     }
 
+    @Test
+    void testIntrospectTokens_ResolvesBatchPositionally() {
+        // Arrange
+        ReflectionTestUtils.setField(tokenManagementService, "introspectBatchMax", 500);
+        Claims activeClaims = tokenClaims("jti-active");
+        Claims revokedClaims = tokenClaims("jti-revoked");
+
+        when(jwtTokenProvider.parseToken("active-token")).thenReturn(activeClaims);
+        when(jwtTokenProvider.parseToken("revoked-token")).thenReturn(revokedClaims);
+        when(jwtTokenProvider.parseToken("forged-token"))
+            .thenThrow(new com.crm.platform.security.jwt.InvalidJwtTokenException("Invalid JWT token"));
+        when(tokenBlacklistRepository.findBlacklistedJtis(Set.of("jti-active", "jti-revoked")))
+            .thenReturn(Set.of("jti-revoked"));
+        when(userCredentialsRepository.findByUserIdIn(Set.of(testUserId))).thenReturn(List.of(testCredentials));
+
+        // Act
+        List<TokenIntrospectionResponse> responses = tokenManagementService.introspectTokens(
+            List.of("revoked-token", "forged-token", "active-token"));
+
+        // Assert
+        assertEquals(3, responses.size());
+        assertFalse(responses.get(0).isActive());
+        assertEquals("Token has been revoked", responses.get(0).getError());
+        assertFalse(responses.get(1).isActive());
+        assertTrue(responses.get(2).isActive());
+        assertEquals("testuser", responses.get(2).getUsername());
+        verify(tokenBlacklistRepository, never()).existsByJti(anyString());
+    }
+
+    @Test
+    void testIntrospectTokens_TokensWithoutJti() {
+        // Arrange
+        ReflectionTestUtils.setField(tokenManagementService, "introspectBatchMax", 500);
+        when(jwtTokenProvider.parseToken("token-without-jti")).thenReturn(tokenClaims(null));
+        when(userCredentialsRepository.findByUserIdIn(Set.of(testUserId))).thenReturn(List.of(testCredentials));
+
+        // Act
+        List<TokenIntrospectionResponse> responses = tokenManagementService.introspectTokens(
+            List.of("token-without-jti"));
+
+        // Assert
+        assertEquals(1, responses.size());
+        assertTrue(responses.get(0).isActive());
+        verify(tokenBlacklistRepository, never()).findBlacklistedJtis(anyCollection());
+    }
+
+    @Test
+    void testIntrospectTokens_MalformedSubjectOnlyAffectsItsToken() {
+        // Arrange
+        ReflectionTestUtils.setField(tokenManagementService, "introspectBatchMax", 500);
+        Claims malformedClaims = tokenClaims("jti-malformed");
+        malformedClaims.setSubject("not-a-uuid");
+
+        when(jwtTokenProvider.parseToken("malformed-token")).thenReturn(malformedClaims);
+        when(jwtTokenProvider.parseToken("active-token")).thenReturn(tokenClaims("jti-active"));
+        when(tokenBlacklistRepository.findBlacklistedJtis(Set.of("jti-active"))).thenReturn(Set.of());
+        when(userCredentialsRepository.findByUserIdIn(Set.of(testUserId))).thenReturn(List.of(testCredentials));
+
+        // Act
+        List<TokenIntrospectionResponse> responses = tokenManagementService.introspectTokens(
+            List.of("malformed-token", "active-token"));
+
+        // Assert
+        assertEquals(2, responses.size());
+        assertFalse(responses.get(0).isActive());
+        assertEquals("Invalid token subject", responses.get(0).getError());
+        assertTrue(responses.get(1).isActive());
+        assertEquals("testuser", responses.get(1).getUsername());
+    }
+
+    @Test
+    void testIntrospectTokens_RejectsOversizedBatch() {
+        ReflectionTestUtils.setField(tokenManagementService, "introspectBatchMax", 2);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> tokenManagementService.introspectTokens(List.of("a", "b", "c")));
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    private Claims tokenClaims(String jti) {
+        Claims claims = new DefaultClaims();
+        claims.setId(jti);
+        claims.setSubject(testUserId.toString());
+        claims.put("tenant_id", testTenantId.toString());
+        claims.put("type", "access");
+        claims.setIssuedAt(new Date());
+        claims.setExpiration(new Date(System.currentTimeMillis() + 3600000));
+        return claims;
+    }
+
     @Test
     void testRotateRefreshToken_Success() {
         // Arrange
@@ -355,12 +448,14 @@ class TokenManagementServiceTest {
     @Test
     void testCleanupExpiredBlacklistedTokens() {
         // Arrange
-        when(tokenBlacklistRepository.deleteExpiredTokens(any(LocalDateTime.class))).thenReturn(5);
+        when(chunkedExpiryService.purge(any(ChunkedExpiryService.ExpiryPolicy.class), any(LocalDateTime.class))).thenReturn(5L);
 
         // Act
         tokenManagementService.cleanupExpiredBlacklistedTokens();
 
         // Assert
-        verify(tokenBlacklistRepository).deleteExpiredTokens(any(LocalDateTime.class));
+        verify(chunkedExpiryService).purge(
+            argThat(policy -> "token_blacklist".equals(policy.getTable())), any(LocalDateTime.class));
+        verify(tokenBlacklistRepository, never()).deleteExpiredTokens(any(LocalDateTime.class));
     }
 }
\ No newline at end of file
@@ -1,15 +1,19 @@
 package com.crm.platform.contacts;
 
+import com.crm.platform.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableCaching
 @EnableKafka
+@EnableScheduling
+@EnableOutbox
 public class ContactsServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,174 @@
+package com.crm.platform.contacts.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Changes to the daily analytics buckets. A contact counts in one bucket per dimension, all dated
+ * the day it was created, so a change takes its old values out of their buckets and adds its new
+ * values to theirs.
+ */
+public class AnalyticsDeltas {
+
+    public static final String TOTAL = "TOTAL";
+    public static final String STATUS = "STATUS";
+    public static final String SOURCE = "SOURCE";
+    public static final String OWNER = "OWNER";
+
+    private final Map<Bucket, long[]> deltas = new TreeMap<>();
+
+    public void add(Fact fact) {
+        apply(fact, 1);
+    }
+
+    public void remove(Fact fact) {
+        apply(fact, -1);
+    }
+
+    /**
+     * The buckets that change, in key order so concurrent writers lock bucket rows in the same order
+     */
+    public List<Change> changes() {
+        List<Change> changes = new ArrayList<>(deltas.size());
+        for (Map.Entry<Bucket, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            if (delta[0] != 0 || delta[1] != 0) {
+                changes.add(new Change(entry.getKey(), delta[0], delta[1]));
+            }
+        }
+        return changes;
+    }
+
+    private void apply(Fact fact, int sign) {
+        bump(new Bucket(TOTAL, fact.createdDate, ""), fact, sign);
+        bump(new Bucket(STATUS, fact.createdDate, fact.status), fact, sign);
+        bump(new Bucket(SOURCE, fact.createdDate, fact.source), fact, sign);
+        bump(new Bucket(OWNER, fact.createdDate, fact.ownerId), fact, sign);
+    }
+
+    private void bump(Bucket bucket, Fact fact, int sign) {
+        long[] delta = deltas.computeIfAbsent(bucket, b -> new long[2]);
+        delta[0] += sign;
+        delta[1] += (long) sign * fact.leadScore;
+    }
+
+    /**
+     * The values a contact is counted with. Missing values are counted under an empty value.
+     */
+    public static final class Fact {
+        private final LocalDate createdDate;
+        private final String status;
+        private final String source;
+        private final String ownerId;
+        private final int leadScore;
+
+        public Fact(LocalDate createdDate, String status, String source, String ownerId, Integer leadScore) {
+            this.createdDate = createdDate;
+            this.status = status != null ? status : "";
+            this.source = source != null ? source : "";
+            this.ownerId = ownerId != null ? ownerId : "";
+            this.leadScore = leadScore != null ? leadScore : 0;
+        }
+
+        public LocalDate getCreatedDate() {
+            return createdDate;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getOwnerId() {
+            return ownerId;
+        }
+
+        public int getLeadScore() {
+            return leadScore;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Fact)) return false;
+            Fact fact = (Fact) o;
+            return leadScore == fact.leadScore && createdDate.equals(fact.createdDate) && status.equals(fact.status)
+                && source.equals(fact.source) && ownerId.equals(fact.ownerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(createdDate, status, source, ownerId, leadScore);
+        }
+    }
+
+    private static final class Bucket implements Comparable<Bucket> {
+        private final String dimension;
+        private final LocalDate date;
+        private final String value;
+
+        private Bucket(String dimension, LocalDate date, String value) {
+            this.dimension = dimension;
+            this.date = date;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Bucket other) {
+            int order = dimension.compareTo(other.dimension);
+            if (order == 0) {
+                order = date.compareTo(other.date);
+            }
+            return order != 0 ? order : value.compareTo(other.value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Bucket && compareTo((Bucket) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, date, value);
+        }
+    }
+
+    public static final class Change {
+        private final Bucket bucket;
+        private final long contacts;
+        private final long leadScoreSum;
+
+        private Change(Bucket bucket, long contacts, long leadScoreSum) {
+            this.bucket = bucket;
+            this.contacts = contacts;
+            this.leadScoreSum = leadScoreSum;
+        }
+
+        public String getDimension() {
+            return bucket.dimension;
+        }
+
+        public LocalDate getDate() {
+            return bucket.date;
+        }
+
+        public String getValue() {
+            return bucket.value;
+        }
+
+        public long getContacts() {
+            return contacts;
+        }
+
+        public long getLeadScoreSum() {
+            return leadScoreSum;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.crm.platform.contacts.analytics;
+
+import com.crm.platform.contacts.dto.ContactAnalyticsResponse;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Builds the analytics response from bucket sums. Contacts are counted as they are now, by the day
+ * they were created; contacts created before the range make up the starting total.
+ */
+public final class AnalyticsReport {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private AnalyticsReport() {
+    }
+
+    /**
+     * @param contactsBefore  contacts created before the start date
+     * @param leadScoreBefore their lead score sum
+     * @param totals          contact count and lead score sum of each day in the range that has contacts
+     * @param byDimension     contacts created in the range per dimension and value
+     */
+    public static ContactAnalyticsResponse build(LocalDate start, LocalDate end, String groupBy,
+                                                 long contactsBefore, long leadScoreBefore,
+                                                 SortedMap<LocalDate, long[]> totals,
+                                                 Map<String, Map<String, Long>> byDimension) {
+        String period = groupBy != null ? groupBy.toLowerCase(Locale.ROOT) : "day";
+        if (!period.equals("day") && !period.equals("week") && !period.equals("month")) {
+            throw new ContactBusinessException("INVALID_GROUP_BY", "Group by must be day, week or month: " + groupBy);
+        }
+
+        List<ContactAnalyticsResponse.TimeSeriesDataPoint> series = new ArrayList<>();
+        long running = contactsBefore;
+        long newContacts = 0;
+        long leadScoreSum = 0;
+        LocalDate from = start;
+        while (!from.isAfter(end)) {
+            LocalDate next = nextPeriod(from, period);
+            long periodContacts = 0;
+            long periodScore = 0;
+            for (long[] day : totals.subMap(from, next).values()) {
+                periodContacts += day[0];
+                periodScore += day[1];
+            }
+            running += periodContacts;
+            newContacts += periodContacts;
+            leadScoreSum += periodScore;
+
+            ContactAnalyticsResponse.TimeSeriesDataPoint point =
+                new ContactAnalyticsResponse.TimeSeriesDataPoint(from, periodContacts, running);
+            point.setAverageLeadScore(periodContacts > 0 ? round((double) periodScore / periodContacts) : null);
+            series.add(point);
+            from = next;
+        }
+
+        ContactAnalyticsResponse response = new ContactAnalyticsResponse();
+        long total = contactsBefore + newContacts;
+        response.setTotalContacts(total);
+        response.setNewContactsThisPeriod(newContacts);
+        response.setGrowthRate(contactsBefore > 0 ? round(newContacts * 100.0 / contactsBefore) : null);
+        response.setAverageLeadScore(total > 0 ? round((double) (leadScoreBefore + leadScoreSum) / total) : null);
+        response.setContactsByStatus(ranked(byDimension.get(AnalyticsDeltas.STATUS)));
+        response.setContactsBySource(ranked(byDimension.get(AnalyticsDeltas.SOURCE)));
+        response.setContactsByOwner(ranked(byDimension.get(AnalyticsDeltas.OWNER)));
+        response.setTimeSeriesData(series);
+        return response;
+    }
+
+    private static LocalDate nextPeriod(LocalDate date, String period) {
+        switch (period) {
+            case "week":
+                return date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case "month":
+                return date.with(TemporalAdjusters.firstDayOfNextMonth());
+            default:
+                return date.plusDays(1);
+        }
+    }
+
+    private static Map<String, Long> ranked(Map<String, Long> counts) {
+        Map<String, Long> ranked = new LinkedHashMap<>();
+        if (counts == null) {
+            return ranked;
+        }
+        counts.entrySet().stream()
+            .filter(entry -> entry.getValue() != 0)
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> ranked.merge(entry.getKey().isEmpty() ? UNKNOWN : entry.getKey(), entry.getValue(), Long::sum));
+        return ranked;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
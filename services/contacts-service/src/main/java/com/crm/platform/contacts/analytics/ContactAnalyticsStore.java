@@ -0,0 +1,416 @@
+package com.crm.platform.contacts.analytics;
+
+import com.crm.platform.contacts.dto.ContactAnalyticsResponse;
+import com.crm.platform.contacts.dto.ContactAnalyticsStatusResponse;
+import com.crm.platform.contacts.entity.Contact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pre-aggregated contact analytics: per tenant, the number of contacts and their lead score sum by
+ * creation day, overall and by status, lead source and owner.
+ *
+ * Buckets are updated in the transaction that writes the contacts, so they commit or roll back
+ * with them and can be checked exactly against the contacts table. Writers take a shared per-tenant
+ * lock and rebuilds an exclusive one, so a rebuild never interleaves with a write of the same tenant.
+ * The backfill of existing tenants and the check of all tenants run on one instance at a time, and
+ * the backfill records its progress so that it resumes after a restart and ends for good.
+ */
+@Component
+public class ContactAnalyticsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactAnalyticsStore.class);
+
+    // First key of the advisory locks, the second is the tenant
+    private static final int LOCK_NAMESPACE = 0x43414e41;
+
+    // The values a contact is counted with, selected from contacts c
+    private static final String CONTACT_VALUES =
+        "CAST(c.created_at AS DATE), COALESCE(c.contact_status, ''), COALESCE(c.lead_source, ''), " +
+        "COALESCE(CAST(c.owner_id AS TEXT), ''), COALESCE(c.lead_score, 0)";
+
+    // One row per dimension for each contact values row f
+    private static final String DIMENSIONS =
+        "CROSS JOIN LATERAL (VALUES ('TOTAL', ''), ('STATUS', f.contact_status), ('SOURCE', f.lead_source), " +
+        "('OWNER', f.owner_id)) AS d(dimension, value)";
+
+    private static final String FACTS_SQL =
+        "SELECT contact_id, created_date, contact_status, lead_source, owner_id, lead_score FROM contact_analytics_facts " +
+        "WHERE tenant_id = ? AND contact_id = ANY(CAST(? AS UUID[])) ORDER BY contact_id FOR UPDATE";
+
+    private static final String CONTACTS_SQL =
+        "SELECT c.id, " + CONTACT_VALUES + " FROM contacts c WHERE c.tenant_id = ? AND c.id = ANY(CAST(? AS UUID[]))";
+
+    private static final String UPSERT_FACT_SQL =
+        "INSERT INTO contact_analytics_facts (contact_id, tenant_id, created_date, contact_status, lead_source, owner_id, lead_score) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (contact_id) DO UPDATE SET created_date = EXCLUDED.created_date, " +
+        "contact_status = EXCLUDED.contact_status, lead_source = EXCLUDED.lead_source, owner_id = EXCLUDED.owner_id, " +
+        "lead_score = EXCLUDED.lead_score";
+
+    private static final String APPLY_SQL =
+        "INSERT INTO contact_analytics_daily AS b (tenant_id, dimension, bucket_date, dimension_value, stripe, contact_count, lead_score_sum) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (tenant_id, dimension, bucket_date, dimension_value, stripe) " +
+        "DO UPDATE SET contact_count = b.contact_count + EXCLUDED.contact_count, lead_score_sum = b.lead_score_sum + EXCLUDED.lead_score_sum";
+
+    private static final String REBUILD_FACTS_SQL =
+        "INSERT INTO contact_analytics_facts (contact_id, tenant_id, created_date, contact_status, lead_source, owner_id, lead_score) " +
+        "SELECT c.id, c.tenant_id, " + CONTACT_VALUES + " FROM contacts c WHERE c.tenant_id = ?";
+
+    private static final String REBUILD_BUCKETS_SQL =
+        "INSERT INTO contact_analytics_daily (tenant_id, dimension, bucket_date, dimension_value, contact_count, lead_score_sum) " +
+        "SELECT f.tenant_id, d.dimension, f.created_date, d.value, COUNT(*), SUM(f.lead_score) " +
+        "FROM contact_analytics_facts f " + DIMENSIONS + " WHERE f.tenant_id = ? " +
+        "GROUP BY f.tenant_id, d.dimension, f.created_date, d.value";
+
+    // Buckets that differ from a count over the contacts table, in one snapshot
+    private static final String CHECK_SQL =
+        "WITH expected AS (" +
+        "  SELECT d.dimension, f.created_date AS bucket_date, d.value, COUNT(*) AS contact_count, SUM(f.lead_score) AS lead_score_sum " +
+        "  FROM (SELECT " + CONTACT_VALUES + " FROM contacts c WHERE c.tenant_id = ?) " +
+        "    AS f(created_date, contact_status, lead_source, owner_id, lead_score) " + DIMENSIONS +
+        "  GROUP BY d.dimension, f.created_date, d.value), " +
+        "actual AS (" +
+        "  SELECT dimension, bucket_date, dimension_value AS value, SUM(contact_count) AS contact_count, " +
+        "  SUM(lead_score_sum) AS lead_score_sum FROM contact_analytics_daily WHERE tenant_id = ? " +
+        "  GROUP BY dimension, bucket_date, dimension_value HAVING SUM(contact_count) <> 0 OR SUM(lead_score_sum) <> 0) " +
+        "SELECT COUNT(*) FROM expected e FULL JOIN actual a " +
+        "ON a.dimension = e.dimension AND a.bucket_date = e.bucket_date AND a.value = e.value " +
+        "WHERE e.contact_count IS DISTINCT FROM a.contact_count OR e.lead_score_sum IS DISTINCT FROM a.lead_score_sum";
+
+    // Postgres has no MIN(uuid); the subquery keeps one row, NULL past the last tenant
+    private static final String NEXT_TENANT_SQL =
+        "SELECT (SELECT tenant_id FROM contacts WHERE tenant_id > ? ORDER BY tenant_id LIMIT 1)";
+
+    // Session lock of the backfill and the check of all tenants, apart from the two-key tenant locks
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('contact_analytics_maintenance'))";
+
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('contact_analytics_maintenance'))";
+
+    private static final String BACKFILL_STATE_SQL =
+        "SELECT last_tenant_id, completed_at FROM contact_analytics_backfill";
+
+    private static final String SAVE_BACKFILL_SQL =
+        "INSERT INTO contact_analytics_backfill (id, last_tenant_id, completed_at) " +
+        "VALUES (TRUE, ?, CASE WHEN CAST(? AS BOOLEAN) THEN NOW() END) " +
+        "ON CONFLICT (id) DO UPDATE SET last_tenant_id = EXCLUDED.last_tenant_id, completed_at = EXCLUDED.completed_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int stripes;
+    private final boolean repair;
+
+    // Set once the stored state says the backfill is done, to stop reading it every run
+    private volatile boolean backfillComplete;
+
+    public ContactAnalyticsStore(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${contacts.analytics.stripes:8}") int stripes,
+                                 @Value("${contacts.analytics.repair:true}") boolean repair) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = stripes;
+        this.repair = repair;
+    }
+
+    /**
+     * Count contacts with their current values and stop counting removed ones. Runs in the
+     * caller's transaction, which must be the one writing the contacts.
+     */
+    public void record(UUID tenantId, Collection<Contact> contacts, Collection<UUID> removedIds) {
+        Map<UUID, AnalyticsDeltas.Fact> current = new HashMap<>();
+        for (Contact contact : contacts) {
+            current.put(contact.getId(), new AnalyticsDeltas.Fact(
+                contact.getCreatedAt().toLocalDate(),
+                contact.getContactStatus() != null ? contact.getContactStatus().name() : null,
+                contact.getLeadSource(),
+                contact.getOwnerId() != null ? contact.getOwnerId().toString() : null,
+                contact.getLeadScore()));
+        }
+        Set<UUID> ids = new LinkedHashSet<>(current.keySet());
+        ids.addAll(removedIds);
+        apply(tenantId, ids, current);
+    }
+
+    /**
+     * Re-read contacts written with SQL and count them with their stored values; ids that are gone
+     * stop being counted
+     */
+    public void refresh(UUID tenantId, Collection<UUID> contactIds) {
+        if (contactIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, AnalyticsDeltas.Fact> current = new HashMap<>();
+        select(CONTACTS_SQL, tenantId, contactIds, current);
+        apply(tenantId, contactIds, current);
+    }
+
+    public ContactAnalyticsResponse report(UUID tenantId, LocalDate start, LocalDate end, String groupBy) {
+        long[] before = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(contact_count), 0), COALESCE(SUM(lead_score_sum), 0) FROM contact_analytics_daily " +
+            "WHERE tenant_id = ? AND dimension = 'TOTAL' AND bucket_date < ?",
+            (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)}, tenantId, Date.valueOf(start));
+
+        SortedMap<LocalDate, long[]> totals = new TreeMap<>();
+        jdbcTemplate.query(
+            "SELECT bucket_date, SUM(contact_count), SUM(lead_score_sum) FROM contact_analytics_daily " +
+            "WHERE tenant_id = ? AND dimension = 'TOTAL' AND bucket_date BETWEEN ? AND ? GROUP BY bucket_date",
+            rs -> {
+                totals.put(rs.getDate(1).toLocalDate(), new long[] {rs.getLong(2), rs.getLong(3)});
+            }, tenantId, Date.valueOf(start), Date.valueOf(end));
+
+        Map<String, Map<String, Long>> byDimension = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT dimension, dimension_value, SUM(contact_count) FROM contact_analytics_daily " +
+            "WHERE tenant_id = ? AND dimension IN ('STATUS', 'SOURCE', 'OWNER') AND bucket_date BETWEEN ? AND ? " +
+            "GROUP BY dimension, dimension_value",
+            rs -> {
+                byDimension.computeIfAbsent(rs.getString(1), d -> new HashMap<>()).put(rs.getString(2), rs.getLong(3));
+            }, tenantId, Date.valueOf(start), Date.valueOf(end));
+
+        return AnalyticsReport.build(start, end, groupBy, before[0], before[1], totals, byDimension);
+    }
+
+    /**
+     * Recount a tenant's buckets from its contacts, in one transaction
+     */
+    public ContactAnalyticsStatusResponse rebuild(UUID tenantId) {
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> { }, LOCK_NAMESPACE, tenantId.hashCode());
+            jdbcTemplate.update("DELETE FROM contact_analytics_daily WHERE tenant_id = ?", tenantId);
+            jdbcTemplate.update("DELETE FROM contact_analytics_facts WHERE tenant_id = ?", tenantId);
+            jdbcTemplate.update(REBUILD_FACTS_SQL, tenantId);
+            jdbcTemplate.update(REBUILD_BUCKETS_SQL, tenantId);
+            jdbcTemplate.update(
+                "INSERT INTO contact_analytics_state (tenant_id, rebuilt_at) VALUES (?, NOW()) " +
+                "ON CONFLICT (tenant_id) DO UPDATE SET rebuilt_at = NOW()", tenantId);
+        });
+        logger.info("Rebuilt contact analytics for tenant: {} in {} ms", tenantId, System.currentTimeMillis() - started);
+        return getState(tenantId);
+    }
+
+    /**
+     * Compare a tenant's buckets with a count over its contacts and record the number of buckets
+     * that differ
+     */
+    public ContactAnalyticsStatusResponse check(UUID tenantId) {
+        Integer mismatched = jdbcTemplate.queryForObject(CHECK_SQL, Integer.class, tenantId, tenantId);
+        jdbcTemplate.update(
+            "INSERT INTO contact_analytics_state (tenant_id, checked_at, mismatched_buckets) VALUES (?, NOW(), ?) " +
+            "ON CONFLICT (tenant_id) DO UPDATE SET checked_at = NOW(), mismatched_buckets = EXCLUDED.mismatched_buckets",
+            tenantId, mismatched);
+        if (mismatched != null && mismatched > 0) {
+            logger.warn("Contact analytics for tenant: {} differ from its contacts in {} buckets", tenantId, mismatched);
+        }
+        return getState(tenantId);
+    }
+
+    public ContactAnalyticsStatusResponse getState(UUID tenantId) {
+        ContactAnalyticsStatusResponse response = new ContactAnalyticsStatusResponse();
+        jdbcTemplate.query(
+            "SELECT rebuilt_at, checked_at, mismatched_buckets FROM contact_analytics_state WHERE tenant_id = ?",
+            rs -> {
+                Timestamp rebuiltAt = rs.getTimestamp(1);
+                Timestamp checkedAt = rs.getTimestamp(2);
+                Integer mismatched = (Integer) rs.getObject(3);
+                response.setRebuiltAt(rebuiltAt != null ? rebuiltAt.toInstant() : null);
+                response.setCheckedAt(checkedAt != null ? checkedAt.toInstant() : null);
+                response.setMismatchedBuckets(mismatched);
+                response.setConsistent(mismatched != null ? mismatched == 0 : null);
+            }, tenantId);
+        return response;
+    }
+
+    /**
+     * Build the buckets of tenants that have never been rebuilt, one tenant per run. Contacts
+     * written since the buckets were introduced are counted as they are written, so tenants are
+     * walked once and the walk is not repeated once it has reached the last of them.
+     */
+    @Scheduled(fixedDelayString = "${contacts.analytics.backfill-interval-ms:10000}")
+    public void backfill() {
+        if (backfillComplete) {
+            return;
+        }
+        try {
+            withMaintenanceLock(() -> {
+                Object[] saved = jdbcTemplate.query(BACKFILL_STATE_SQL, rs -> rs.next()
+                    ? new Object[] {rs.getObject(1, UUID.class), rs.getTimestamp(2)} : null);
+                if (saved != null && saved[1] != null) {
+                    backfillComplete = true;
+                    return;
+                }
+                UUID cursor = saved != null ? (UUID) saved[0] : new UUID(0L, 0L);
+                UUID tenantId = jdbcTemplate.queryForObject(NEXT_TENANT_SQL, UUID.class, cursor);
+                if (tenantId == null) {
+                    jdbcTemplate.update(SAVE_BACKFILL_SQL, cursor, true);
+                    backfillComplete = true;
+                    logger.info("Contact analytics backfill is complete");
+                    return;
+                }
+                ContactAnalyticsStatusResponse state = getState(tenantId);
+                if (state.getRebuiltAt() == null) {
+                    rebuild(tenantId);
+                }
+                jdbcTemplate.update(SAVE_BACKFILL_SQL, tenantId, false);
+            });
+        } catch (Exception e) {
+            logger.error("Error backfilling contact analytics", e);
+        }
+    }
+
+    /**
+     * Check every tenant's buckets and rebuild those that differ, when repair is enabled. Instances
+     * share the schedule; the first to take the lock does the check.
+     */
+    @Scheduled(cron = "${contacts.analytics.check-cron:0 30 3 * * *}")
+    public void checkAll() {
+        boolean ran = withMaintenanceLock(() -> {
+            UUID tenantId = new UUID(0L, 0L);
+            int checked = 0;
+            int repaired = 0;
+            while ((tenantId = jdbcTemplate.queryForObject(NEXT_TENANT_SQL, UUID.class, tenantId)) != null) {
+                try {
+                    ContactAnalyticsStatusResponse state = check(tenantId);
+                    checked++;
+                    if (repair && Boolean.FALSE.equals(state.getConsistent())) {
+                        rebuild(tenantId);
+                        check(tenantId);
+                        repaired++;
+                    }
+                } catch (Exception e) {
+                    logger.error("Error checking contact analytics for tenant: {}", tenantId, e);
+                }
+            }
+            logger.info("Checked contact analytics of {} tenants, rebuilt {}", checked, repaired);
+        });
+        if (!ran) {
+            logger.debug("Contact analytics are being checked or backfilled by another instance");
+        }
+    }
+
+    /**
+     * Run the work holding the maintenance lock, on the connection that took it; false when
+     * another session holds it
+     */
+    private boolean withMaintenanceLock(Runnable work) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!queryBoolean(con, LOCK_SQL)) {
+                return false;
+            }
+            try {
+                work.run();
+            } finally {
+                queryBoolean(con, UNLOCK_SQL);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean queryBoolean(Connection con, String sql) throws SQLException {
+        try (Statement statement = con.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void apply(UUID tenantId, Collection<UUID> ids, Map<UUID, AnalyticsDeltas.Fact> current) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?, ?)", rs -> { }, LOCK_NAMESPACE, tenantId.hashCode());
+
+        Map<UUID, AnalyticsDeltas.Fact> counted = new HashMap<>();
+        select(FACTS_SQL, tenantId, ids, counted);
+
+        AnalyticsDeltas deltas = new AnalyticsDeltas();
+        List<Object[]> upserts = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        for (UUID id : ids) {
+            AnalyticsDeltas.Fact before = counted.get(id);
+            AnalyticsDeltas.Fact after = current.get(id);
+            if (before != null && before.equals(after)) {
+                continue;
+            }
+            if (before != null) {
+                deltas.remove(before);
+            }
+            if (after != null) {
+                deltas.add(after);
+                upserts.add(new Object[] {id, tenantId, Date.valueOf(after.getCreatedDate()), after.getStatus(),
+                                          after.getSource(), after.getOwnerId(), after.getLeadScore()});
+            } else if (before != null) {
+                removed.add(id);
+            }
+        }
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_FACT_SQL, upserts);
+        }
+        if (!removed.isEmpty()) {
+            jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+                try (PreparedStatement ps = con.prepareStatement(
+                        "DELETE FROM contact_analytics_facts WHERE contact_id = ANY(CAST(? AS UUID[]))")) {
+                    ps.setArray(1, con.createArrayOf("uuid", removed.toArray()));
+                    return ps.executeUpdate();
+                }
+            });
+        }
+
+        List<AnalyticsDeltas.Change> changes = deltas.changes();
+        if (!changes.isEmpty()) {
+            int stripe = ThreadLocalRandom.current().nextInt(stripes);
+            jdbcTemplate.batchUpdate(APPLY_SQL, changes, changes.size(), (ps, change) -> {
+                ps.setObject(1, tenantId);
+                ps.setString(2, change.getDimension());
+                ps.setDate(3, Date.valueOf(change.getDate()));
+                ps.setString(4, change.getValue());
+                ps.setInt(5, stripe);
+                ps.setLong(6, change.getContacts());
+                ps.setLong(7, change.getLeadScoreSum());
+            });
+        }
+    }
+
+    private void select(String sql, UUID tenantId, Collection<UUID> ids, Map<UUID, AnalyticsDeltas.Fact> facts) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                ps.setObject(1, tenantId);
+                ps.setArray(2, con.createArrayOf("uuid", ids.toArray()));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        facts.put(rs.getObject(1, UUID.class), new AnalyticsDeltas.Fact(
+                            rs.getDate(2).toLocalDate(), rs.getString(3), rs.getString(4), rs.getString(5), rs.getInt(6)));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -1,11 +1,12 @@
 package com.crm.platform.contacts.controller;
 
 import com.crm.platform.contacts.dto.*;
-import com.crm.platform.contacts.entity.Contact;
+import com.crm.platform.contacts.entity.ContactStatus;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.crm.platform.contacts.exporter.ExportDownload;
 import com.crm.platform.contacts.service.ContactService;
 import com.crm.platform.common.annotation.ApiVersion;
-import com.crm.platform.common.controller.BaseController;
-import com.crm.platform.common.dto.*;
+import com.crm.platform.common.dto.PaginationMeta;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,25 +15,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
-import javax.validation.constraints.Max;
-import javax.validation.constraints.Min;
-import java.util.ArrayList;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/contacts")
 @ApiVersion("1")
 @Tag(name = "Contacts", description = "Contact management operations with advanced features")
 @Validated
-public class ContactController extends BaseController<ContactResponse, UUID> {
+public class ContactController {
 
     private final ContactService contactService;
 
@@ -40,50 +44,6 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
         this.contactService = contactService;
     }
 
-    // Implement BaseController abstract methods
-    @Override
-    protected ContactResponse findById(UUID id) {
-        return contactService.getContact(id);
-    }
-
-    @Override
-    protected Page<ContactResponse> findAll(PageRequest pageRequest) {
-        return contactService.findAllWithAdvancedFiltering(pageRequest);
-    }
-
-    @Override
-    protected ContactResponse create(ContactResponse entity) {
-        // This would need to be adapted based on your service layer
-        throw new UnsupportedOperationException("Use createContact with proper request object");
-    }
-
-    @Override
-    protected ContactResponse update(UUID id, ContactResponse entity) {
-        // This would need to be adapted based on your service layer
-        throw new UnsupportedOperationException("Use updateContact with proper request object");
-    }
-
-    @Override
-    protected void delete(UUID id) {
-        contactService.deleteContact(id, getCurrentUserId());
-    }
-
-    @Override
-    protected BulkOperationResponse<ContactResponse> bulkOperation(BulkOperationRequest<ContactResponse> request) {
-        return contactService.performBulkOperation(request, getCurrentUserId());
-    }
-
-    @Override
-    protected Page<ContactResponse> search(String query, List<String> fields, PageRequest pageRequest) {
-        return contactService.searchContacts(query, fields, pageRequest);
-    }
-
-    private UUID getCurrentUserId() {
-        // This would typically be extracted from security context
-        // For now, return a placeholder
-        return UUID.randomUUID();
-    }
-
     @PostMapping
     @Operation(summary = "Create new contact", 
                description = "Create a new contact with comprehensive validation and duplicate detection")
@@ -98,12 +58,9 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
             @Valid @RequestBody ContactRequest request,
             
             @Parameter(description = "User ID", required = true)
-            @RequestHeader("X-User-ID") UUID userId,
-            
-            @Parameter(description = "Skip duplicate detection")
-            @RequestParam(defaultValue = "false") Boolean skipDuplicateCheck) {
+            @RequestHeader("X-User-ID") UUID userId) {
         
-        ContactResponse contact = contactService.createContact(request, userId, skipDuplicateCheck);
+        ContactResponse contact = contactService.createContact(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED)
             .body(com.crm.platform.common.dto.ApiResponse.success(contact));
     }
@@ -117,35 +74,29 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
     })
     public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactResponse>> getContact(
             @Parameter(description = "Contact ID", required = true)
-            @PathVariable UUID id,
-            
-            @Parameter(description = "Include related entities (account, activities, deals)")
-            @RequestParam(required = false) List<String> include,
-            
-            @Parameter(description = "Specific fields to return")
-            @RequestParam(required = false) List<String> fields) {
+            @PathVariable UUID id) {
         
-        ContactResponse contact = contactService.getContact(id, include, fields);
+        ContactResponse contact = contactService.getContact(id);
         return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(contact));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<ContactResponse>> updateContact(
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactResponse>> updateContact(
             @PathVariable UUID id,
             @Valid @RequestBody ContactRequest request,
             @RequestHeader("X-User-ID") UUID userId) {
         
         ContactResponse contact = contactService.updateContact(id, request, userId);
-        return ResponseEntity.ok(ApiResponse.success(contact));
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(contact));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deleteContact(
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<Void>> deleteContact(
             @PathVariable UUID id,
             @RequestHeader("X-User-ID") UUID userId) {
         
         contactService.deleteContact(id, userId);
-        return ResponseEntity.ok(ApiResponse.success(null));
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(null));
     }
 
     @GetMapping
@@ -162,14 +113,14 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
             @Parameter(description = "Page size", example = "20")
             @RequestParam(defaultValue = "20") @Min(1) @Max(1000) Integer limit,
             
-            @Parameter(description = "Sort criteria", example = "lastName:asc,createdAt:desc")
-            @RequestParam(required = false) List<String> sort,
+            @Parameter(description = "Sort criterion", example = "lastName:asc")
+            @RequestParam(required = false) String sort,
             
             @Parameter(description = "Filter by company")
             @RequestParam(required = false) String company,
             
             @Parameter(description = "Filter by status")
-            @RequestParam(required = false) String status,
+            @RequestParam(required = false) ContactStatus status,
             
             @Parameter(description = "Filter by tags")
             @RequestParam(required = false) List<String> tags,
@@ -179,86 +130,30 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
             @RequestParam(required = false) Integer maxLeadScore,
             
             @Parameter(description = "Filter by creation date range")
-            @RequestParam(required = false) String createdAfter,
-            @RequestParam(required = false) String createdBefore,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
             
             @Parameter(description = "Search term")
-            @RequestParam(required = false) String search,
-            
-            @Parameter(description = "Fields to search in")
-            @RequestParam(required = false) List<String> searchFields,
-            
-            @Parameter(description = "Include related entities")
-            @RequestParam(required = false) List<String> include,
-            
-            @Parameter(description = "Specific fields to return")
-            @RequestParam(required = false) List<String> fields) {
-        
-        // Build advanced page request
-        PageRequest pageRequest = new PageRequest();
-        pageRequest.setPage(page);
-        pageRequest.setLimit(limit);
-        pageRequest.setSearch(search);
-        pageRequest.setSearchFields(searchFields);
-        pageRequest.setFields(fields);
-        pageRequest.setInclude(include);
-        
-        if (sort != null && !sort.isEmpty()) {
-            pageRequest.setSort(SortCriteria.of(sort.toArray(new String[0])));
-        }
-        
-        // Build filters
-        List<FilterCriteria> filters = buildFilters(company, status, tags, minLeadScore, maxLeadScore, createdAfter, createdBefore);
-        pageRequest.setFilters(filters);
-        
-        Page<ContactResponse> result = contactService.findAllWithAdvancedFiltering(pageRequest);
-        
-        com.crm.platform.common.dto.ApiResponse<List<ContactResponse>> response = 
-                com.crm.platform.common.dto.ApiResponse.success(result.getContent());
-        
-        // Set pagination metadata
-        com.crm.platform.common.dto.ApiResponse.PaginationMeta pagination = 
-                new com.crm.platform.common.dto.ApiResponse.PaginationMeta();
-        pagination.setPage(page);
-        pagination.setLimit(limit);
-        pagination.setTotal(result.getTotalElements());
-        pagination.setTotalPages(result.getTotalPages());
-        pagination.setHasNext(result.hasNext());
-        pagination.setHasPrev(result.hasPrevious());
-        
-        response.getMeta().setPagination(pagination);
-        
-        return ResponseEntity.ok(response);
-    }
-    
-    private List<FilterCriteria> buildFilters(String company, String status, List<String> tags, 
-                                            Integer minLeadScore, Integer maxLeadScore, 
-                                            String createdAfter, String createdBefore) {
-        List<FilterCriteria> filters = new ArrayList<>();
-        
-        if (company != null) {
-            filters.add(FilterCriteria.like("company", company));
-        }
-        if (status != null) {
-            filters.add(FilterCriteria.equals("status", status));
-        }
-        if (tags != null && !tags.isEmpty()) {
-            filters.add(FilterCriteria.in("tags", tags.stream().map(Object.class::cast).toList()));
+            @RequestParam(required = false) String search) {
+        
+        ContactSearchRequest searchRequest = new ContactSearchRequest();
+        searchRequest.setPage(page - 1);
+        searchRequest.setSize(limit);
+        if (sort != null && !sort.isBlank()) {
+            String[] criterion = sort.split(":", 2);
+            searchRequest.setSortBy(criterion[0]);
+            searchRequest.setSortDirection(criterion.length > 1 ? criterion[1].toUpperCase() : "ASC");
         }
-        if (minLeadScore != null) {
-            filters.add(new FilterCriteria("leadScore", FilterCriteria.FilterOperator.GREATER_THAN_OR_EQUAL, minLeadScore));
-        }
-        if (maxLeadScore != null) {
-            filters.add(new FilterCriteria("leadScore", FilterCriteria.FilterOperator.LESS_THAN_OR_EQUAL, maxLeadScore));
-        }
-        if (createdAfter != null) {
-            filters.add(new FilterCriteria("createdAt", FilterCriteria.FilterOperator.GREATER_THAN_OR_EQUAL, createdAfter));
-        }
-        if (createdBefore != null) {
-            filters.add(new FilterCriteria("createdAt", FilterCriteria.FilterOperator.LESS_THAN_OR_EQUAL, createdBefore));
-        }
-        
-        return filters;
+        searchRequest.setQuery(search);
+        searchRequest.setCompany(company);
+        searchRequest.setContactStatus(status);
+        searchRequest.setTags(tags);
+        searchRequest.setMinLeadScore(minLeadScore);
+        searchRequest.setMaxLeadScore(maxLeadScore);
+        searchRequest.setCreatedAfter(createdAfter);
+        searchRequest.setCreatedBefore(createdBefore);
+        
+        return ResponseEntity.ok(paged(contactService.searchContacts(searchRequest), page, limit));
     }
 
     @PostMapping("/search")
@@ -269,59 +164,47 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
             @ApiResponse(responseCode = "400", description = "Invalid search criteria")
     })
     public ResponseEntity<com.crm.platform.common.dto.ApiResponse<List<ContactResponse>>> searchContacts(
-            @Parameter(description = "Advanced search request", required = true)
-            @Valid @RequestBody PageRequest searchRequest) {
-        
-        Page<ContactResponse> result = contactService.searchContactsAdvanced(searchRequest);
+            @Parameter(description = "Search criteria, with a 0-based page", required = true)
+            @Valid @RequestBody ContactSearchRequest searchRequest) {
         
+        Page<ContactResponse> result = contactService.searchContacts(searchRequest);
+        return ResponseEntity.ok(paged(result, searchRequest.getPage() + 1, searchRequest.getSize()));
+    }
+    
+    // The page's contacts with 1-based pagination metadata
+    private com.crm.platform.common.dto.ApiResponse<List<ContactResponse>> paged(Page<ContactResponse> result,
+                                                                                int page, int limit) {
         com.crm.platform.common.dto.ApiResponse<List<ContactResponse>> response = 
                 com.crm.platform.common.dto.ApiResponse.success(result.getContent());
-        
-        // Set pagination metadata
-        com.crm.platform.common.dto.ApiResponse.PaginationMeta pagination = 
-                new com.crm.platform.common.dto.ApiResponse.PaginationMeta();
-        pagination.setPage(searchRequest.getPage());
-        pagination.setLimit(searchRequest.getLimit());
-        pagination.setTotal(result.getTotalElements());
-        pagination.setTotalPages(result.getTotalPages());
-        pagination.setHasNext(result.hasNext());
-        pagination.setHasPrev(result.hasPrevious());
-        
-        response.getMeta().setPagination(pagination);
-        
-        return ResponseEntity.ok(response);
+        response.getMeta().setPagination(new PaginationMeta(page, limit, result.getTotalElements()));
+        return response;
     }
 
     @PostMapping("/bulk")
-    @Operation(summary = "Bulk contact operations", 
-               description = "Perform bulk create, update, or delete operations with progress tracking")
+    @Operation(summary = "Bulk create contacts", 
+               description = "Create many contacts at once, skipping or updating duplicates as requested")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Bulk operation completed"),
-            @ApiResponse(responseCode = "202", description = "Bulk operation accepted (async)"),
             @ApiResponse(responseCode = "400", description = "Invalid bulk request")
     })
-    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<BulkOperationResponse<ContactResponse>>> bulkContactOperation(
-            @Parameter(description = "Bulk operation request", required = true)
-            @Valid @RequestBody BulkOperationRequest<ContactRequest> request,
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<BulkContactResponse>> bulkCreateContacts(
+            @Parameter(description = "Contacts to create", required = true)
+            @Valid @RequestBody BulkContactRequest request,
             
             @Parameter(description = "User ID", required = true)
             @RequestHeader("X-User-ID") UUID userId) {
         
-        BulkOperationResponse<ContactResponse> response = contactService.performBulkContactOperation(request, userId);
-        
-        HttpStatus status = request.getAsync() ? HttpStatus.ACCEPTED : HttpStatus.OK;
-        
-        return ResponseEntity.status(status)
-                .body(com.crm.platform.common.dto.ApiResponse.success(response));
+        BulkContactResponse response = contactService.bulkCreateContacts(request, userId);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(response));
     }
 
     @DeleteMapping("/bulk")
-    public ResponseEntity<ApiResponse<Void>> bulkDeleteContacts(
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<Void>> bulkDeleteContacts(
             @RequestBody List<UUID> contactIds,
             @RequestHeader("X-User-ID") UUID userId) {
         
         contactService.bulkDeleteContacts(contactIds, userId);
-        return ResponseEntity.ok(ApiResponse.success(null));
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(null));
     }
 
     @GetMapping("/{id}/duplicates")
@@ -333,15 +216,9 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
     })
     public ResponseEntity<com.crm.platform.common.dto.ApiResponse<List<ContactResponse>>> findDuplicateContacts(
             @Parameter(description = "Contact ID", required = true)
-            @PathVariable UUID id,
-            
-            @Parameter(description = "Matching threshold (0.0-1.0)")
-            @RequestParam(defaultValue = "0.8") Double threshold,
-            
-            @Parameter(description = "Fields to match on")
-            @RequestParam(required = false) List<String> matchFields) {
+            @PathVariable UUID id) {
         
-        List<ContactResponse> duplicates = contactService.findDuplicateContacts(id, threshold, matchFields);
+        List<ContactResponse> duplicates = contactService.findDuplicateContacts(id);
         return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(duplicates));
     }
 
@@ -368,13 +245,43 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
     }
 
     @PostMapping("/{id}/relationships")
-    public ResponseEntity<ApiResponse<Void>> createContactRelationship(
+    @Operation(summary = "Create contact relationship", 
+               description = "Relate a contact to another contact of the same tenant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Relationship created"),
+            @ApiResponse(responseCode = "404", description = "Contact not found"),
+            @ApiResponse(responseCode = "409", description = "Contacts are already related")
+    })
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactRelationshipResponse>> createContactRelationship(
+            @Parameter(description = "Contact ID", required = true)
             @PathVariable UUID id,
-            @RequestBody ContactRelationshipRequest request,
+            
+            @Parameter(description = "Relationship data", required = true)
+            @Valid @RequestBody ContactRelationshipRequest request,
+            
+            @Parameter(description = "User ID", required = true)
             @RequestHeader("X-User-ID") UUID userId) {
         
-        // This would be implemented in a ContactRelationshipService
-        return ResponseEntity.ok(ApiResponse.success(null));
+        ContactRelationshipResponse relationship = contactService.createContactRelationship(id, request, userId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(com.crm.platform.common.dto.ApiResponse.success(relationship));
+    }
+
+    @DeleteMapping("/{id}/relationships/{relationshipId}")
+    @Operation(summary = "Delete contact relationship", 
+               description = "Remove a relationship of a contact")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<Void>> deleteContactRelationship(
+            @Parameter(description = "Contact ID", required = true)
+            @PathVariable UUID id,
+            
+            @Parameter(description = "Relationship ID", required = true)
+            @PathVariable UUID relationshipId,
+            
+            @Parameter(description = "User ID", required = true)
+            @RequestHeader("X-User-ID") UUID userId) {
+        
+        contactService.deleteContactRelationship(id, relationshipId, userId);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(null));
     }
 
     @GetMapping("/{id}/relationships")
@@ -388,13 +295,75 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
         return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(relationships));
     }
     
+    @GetMapping("/{id}/relationship-graph")
+    @Operation(summary = "Relationship neighbourhood", 
+               description = "Contacts and accounts within the given number of relationship hops, nearest first")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<RelationshipGraphResponse>> getRelationshipNeighbourhood(
+            @Parameter(description = "Contact ID", required = true)
+            @PathVariable UUID id,
+            
+            @Parameter(description = "Maximum hops from the contact", example = "2")
+            @RequestParam(defaultValue = "2") @Min(1) @Max(6) Integer depth,
+            
+            @Parameter(description = "Maximum nodes returned", example = "100")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(10000) Integer limit) {
+        
+        RelationshipGraphResponse graph = contactService.getRelationshipNeighbourhood(id, depth, limit);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(graph));
+    }
+    
+    @GetMapping("/{id}/relationship-graph/path/{targetId}")
+    @Operation(summary = "Relationship path", 
+               description = "Shortest chain of relationships between two contacts; empty when none is within maxDepth hops")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<RelationshipGraphResponse>> getRelationshipPath(
+            @Parameter(description = "Contact ID", required = true)
+            @PathVariable UUID id,
+            
+            @Parameter(description = "Target contact ID", required = true)
+            @PathVariable UUID targetId,
+            
+            @Parameter(description = "Maximum hops between the contacts", example = "4")
+            @RequestParam(defaultValue = "4") @Min(1) @Max(6) Integer maxDepth) {
+        
+        RelationshipGraphResponse path = contactService.getRelationshipPath(id, targetId, maxDepth);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(path));
+    }
+    
+    @GetMapping("/{id}/relationship-graph/degree")
+    @Operation(summary = "Relationship degree", 
+               description = "Number of contacts and accounts directly related to a contact")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<RelationshipGraphResponse>> getRelationshipDegree(
+            @Parameter(description = "Contact ID", required = true)
+            @PathVariable UUID id) {
+        
+        RelationshipGraphResponse degree = contactService.getRelationshipDegree(id);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(degree));
+    }
+    
+    @GetMapping("/accounts/{accountId}/relationship-graph")
+    @Operation(summary = "Account relationship neighbourhood", 
+               description = "Contacts of an account and the contacts related to them, nearest first")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<RelationshipGraphResponse>> getAccountRelationshipContacts(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            
+            @Parameter(description = "Maximum hops from the account", example = "2")
+            @RequestParam(defaultValue = "2") @Min(1) @Max(6) Integer depth,
+            
+            @Parameter(description = "Maximum nodes returned", example = "100")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(10000) Integer limit) {
+        
+        RelationshipGraphResponse graph = contactService.getAccountRelationshipContacts(accountId, depth, limit);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(graph));
+    }
+    
     // Additional advanced endpoints
     
     @GetMapping("/export")
     @Operation(summary = "Export contacts", 
                description = "Export contacts to CSV or Excel format")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Export initiated"),
+            @ApiResponse(responseCode = "202", description = "Export initiated"),
             @ApiResponse(responseCode = "400", description = "Invalid export parameters")
     })
     public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactExportResponse>> exportContacts(
@@ -411,9 +380,110 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
             @RequestHeader("X-User-ID") UUID userId) {
         
         ContactExportResponse exportResponse = contactService.initiateExport(format, fields, filters, userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(com.crm.platform.common.dto.ApiResponse.success(exportResponse));
+    }
+    
+    @GetMapping("/export/{exportId}")
+    @Operation(summary = "Export status", 
+               description = "Get the progress of a contact export and its download link once completed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Export not found")
+    })
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactExportResponse>> getExportStatus(
+            @Parameter(description = "Export ID", required = true)
+            @PathVariable UUID exportId) {
+        
+        ContactExportResponse exportResponse = contactService.getExportStatus(exportId);
         return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(exportResponse));
     }
     
+    @GetMapping("/export/{exportId}/download")
+    @Operation(summary = "Download export", 
+               description = "Stream a completed export file; supports a single byte range for resuming downloads")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export file"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the export file"),
+            @ApiResponse(responseCode = "404", description = "Export not found"),
+            @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+    })
+    public ResponseEntity<StreamingResponseBody> downloadExport(
+            @Parameter(description = "Export ID", required = true)
+            @PathVariable UUID exportId,
+            
+            @Parameter(description = "Byte range, e.g. bytes=1048576-")
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        
+        ExportDownload download = contactService.openExportDownload(exportId);
+        long[] bounds;
+        try {
+            bounds = download.resolveRange(range);
+        } catch (ContactBusinessException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + download.getLength())
+                    .build();
+        }
+        
+        long start = bounds != null ? bounds[0] : 0;
+        long end = bounds != null ? bounds[1] : download.getLength() - 1;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(bounds != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, download.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(download.getFileName()).build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentLength(end - start + 1);
+        if (bounds != null) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + download.getLength());
+        }
+        return response.body(out -> download.transfer(out, start, end));
+    }
+    
+    @PostMapping("/duplicates/scan")
+    @Operation(summary = "Scan for duplicates", 
+               description = "Start a background scan that clusters all duplicate contacts of the tenant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Scan started"),
+            @ApiResponse(responseCode = "409", description = "A scan is already running")
+    })
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<DuplicateScanResponse>> startDuplicateScan(
+            @Parameter(description = "User ID", required = true)
+            @RequestHeader("X-User-ID") UUID userId) {
+        
+        DuplicateScanResponse scan = contactService.startDuplicateScan(userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(com.crm.platform.common.dto.ApiResponse.success(scan));
+    }
+    
+    @GetMapping("/duplicates/scan/{scanId}")
+    @Operation(summary = "Duplicate scan status", 
+               description = "Get the progress and outcome of a duplicate scan")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Scan status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Scan not found")
+    })
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<DuplicateScanResponse>> getDuplicateScan(
+            @Parameter(description = "Scan ID", required = true)
+            @PathVariable UUID scanId) {
+        
+        DuplicateScanResponse scan = contactService.getDuplicateScan(scanId);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(scan));
+    }
+    
+    @GetMapping("/duplicates/clusters")
+    @Operation(summary = "Duplicate clusters", 
+               description = "List duplicate clusters awaiting review; merge a cluster into its master contact with the merge endpoint")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<List<DuplicateClusterResponse>>> getDuplicateClusters(
+            @Parameter(description = "Page number (1-based)", example = "1")
+            @RequestParam(defaultValue = "1") @Min(1) Integer page,
+            
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) Integer limit) {
+        
+        List<DuplicateClusterResponse> clusters = contactService.getDuplicateClusters(page, limit);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(clusters));
+    }
+    
     @PostMapping("/import")
     @Operation(summary = "Import contacts", 
                description = "Import contacts from CSV or Excel file")
@@ -433,23 +503,58 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
                 .body(com.crm.platform.common.dto.ApiResponse.success(importResponse));
     }
     
+    @GetMapping("/import/{importId}")
+    @Operation(summary = "Import status", 
+               description = "Get the progress and outcome of a contact import")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Import not found")
+    })
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactImportResponse>> getImportStatus(
+            @Parameter(description = "Import ID", required = true)
+            @PathVariable UUID importId) {
+        
+        ContactImportResponse importResponse = contactService.getImportStatus(importId);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(importResponse));
+    }
+    
     @GetMapping("/analytics")
     @Operation(summary = "Contact analytics", 
                description = "Get contact analytics and insights")
     public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactAnalyticsResponse>> getContactAnalytics(
-            @Parameter(description = "Date range start")
+            @Parameter(description = "Date range start (yyyy-MM-dd), 29 days before the end by default")
             @RequestParam(required = false) String startDate,
             
-            @Parameter(description = "Date range end")
+            @Parameter(description = "Date range end (yyyy-MM-dd), today by default")
             @RequestParam(required = false) String endDate,
             
-            @Parameter(description = "Group by field")
+            @Parameter(description = "Time series period: day, week or month")
             @RequestParam(required = false) String groupBy) {
         
         ContactAnalyticsResponse analytics = contactService.getContactAnalytics(startDate, endDate, groupBy);
         return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(analytics));
     }
     
+    @PostMapping("/analytics/rebuild")
+    @Operation(summary = "Rebuild contact analytics", 
+               description = "Recount the tenant's pre-aggregated analytics from its contacts")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactAnalyticsStatusResponse>> rebuildContactAnalytics(
+            @Parameter(description = "User ID", required = true)
+            @RequestHeader("X-User-ID") UUID userId) {
+        
+        ContactAnalyticsStatusResponse status = contactService.rebuildContactAnalytics(userId);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(status));
+    }
+    
+    @PostMapping("/analytics/check")
+    @Operation(summary = "Check contact analytics", 
+               description = "Compare the tenant's pre-aggregated analytics with its contacts")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactAnalyticsStatusResponse>> checkContactAnalytics() {
+        
+        ContactAnalyticsStatusResponse status = contactService.checkContactAnalytics();
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(status));
+    }
+    
     @PostMapping("/{id}/enrich")
     @Operation(summary = "Enrich contact", 
                description = "Enrich contact data from external sources")
@@ -472,69 +577,45 @@ public class ContactController extends BaseController<ContactResponse, UUID> {
         return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(enrichedContact));
     }
     
-    // Async endpoint example
+    @PostMapping("/enrich")
+    @Operation(summary = "Enrich contacts in bulk", 
+               description = "Enrich every contact matching the filters in the background; each company domain is looked up once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Enrichment started"),
+            @ApiResponse(responseCode = "400", description = "Unknown enrichment provider"),
+            @ApiResponse(responseCode = "503", description = "No enrichment provider configured")
+    })
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactEnrichmentResponse>> enrichContacts(
+            @Parameter(description = "Contacts to enrich and providers to ask", required = true)
+            @Valid @RequestBody ContactEnrichmentRequest request,
+            
+            @Parameter(description = "User ID", required = true)
+            @RequestHeader("X-User-ID") UUID userId) {
+        
+        ContactEnrichmentResponse enrichment = contactService.initiateEnrichment(request, userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(com.crm.platform.common.dto.ApiResponse.success(enrichment));
+    }
+    
+    @GetMapping("/enrich/{enrichmentId}")
+    @Operation(summary = "Get enrichment status", 
+               description = "Check the progress of a bulk enrichment")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<ContactEnrichmentResponse>> getEnrichmentStatus(
+            @Parameter(description = "Enrichment ID", required = true)
+            @PathVariable UUID enrichmentId) {
+        
+        ContactEnrichmentResponse enrichment = contactService.getEnrichmentStatus(enrichmentId);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(enrichment));
+    }
+    
     @GetMapping("/{id}/activities")
     @Operation(summary = "Get contact activities", 
-               description = "Retrieve activities associated with a contact")
-    public CompletableFuture<ResponseEntity<com.crm.platform.common.dto.ApiResponse<List<ContactActivityResponse>>>> getContactActivities(
+               description = "Retrieve the latest activities of a contact, newest first")
+    public ResponseEntity<com.crm.platform.common.dto.ApiResponse<List<ContactActivityResponse>>> getContactActivities(
             @Parameter(description = "Contact ID", required = true)
-            @PathVariable UUID id,
-            
-            @Parameter(description = "Activity types to include")
-            @RequestParam(required = false) List<String> types,
-            
-            @Parameter(description = "Page number")
-            @RequestParam(defaultValue = "1") Integer page,
-            
-            @Parameter(description = "Page size")
-            @RequestParam(defaultValue = "20") Integer limit) {
+            @PathVariable UUID id) {
         
-        return contactService.getContactActivitiesAsync(id, types, page, limit)
-                .thenApply(activities -> ResponseEntity.ok(
-                        com.crm.platform.common.dto.ApiResponse.success(activities)));
+        List<ContactActivityResponse> activities = contactService.getRecentActivities(id);
+        return ResponseEntity.ok(com.crm.platform.common.dto.ApiResponse.success(activities));
     }
 }
-
-// Additional DTOs for relationships
-class ContactRelationshipRequest {
-    private UUID relatedContactId;
-    private String relationshipType;
-    private String description;
-    private Boolean isPrimary;
-
-    // Getters and setters
-    public UUID getRelatedContactId() { return relatedContactId; }
-    public void setRelatedContactId(UUID relatedContactId) { this.relatedContactId = relatedContactId; }
-    public String getRelationshipType() { return relationshipType; }
-    public void setRelationshipType(String relationshipType) { this.relationshipType = relationshipType; }
-    public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
-    public Boolean getIsPrimary() { return isPrimary; }
-    public void setIsPrimary(Boolean isPrimary) { this.isPrimary = isPrimary; }
-}
-
-class ContactRelationshipResponse {
-    private UUID id;
-    private UUID contactId;
-    private UUID relatedContactId;
-    private String relationshipType;
-    private String description;
-    private Boolean isPrimary;
-    private ContactResponse relatedContact;
-
-    // Getters and setters
-    public UUID getId() { return id; }
-    public void setId(UUID id) { this.id = id; }
-    public UUID getContactId() { return contactId; }
-    public void setContactId(UUID contactId) { this.contactId = contactId; }
-    public UUID getRelatedContactId() { return relatedContactId; }
-    public void setRelatedContactId(UUID relatedContactId) { this.relatedContactId = relatedContactId; }
-    public String getRelationshipType() { return relationshipType; }
-    public void setRelationshipType(String relationshipType) { this.relationshipType = relationshipType; }
-    public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
-    public Boolean getIsPrimary() { return isPrimary; }
-    public void setIsPrimary(Boolean isPrimary) { this.isPrimary = isPrimary; }
-    public ContactResponse getRelatedContact() { return relatedContact; }
-    public void setRelatedContact(ContactResponse relatedContact) { this.relatedContact = relatedContact; }
-}
\ No newline at end of file
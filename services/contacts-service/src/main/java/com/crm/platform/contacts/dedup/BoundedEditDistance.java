@@ -0,0 +1,95 @@
+package com.crm.platform.contacts.dedup;
+
+/**
+ * Case-insensitive Levenshtein distance with an upper bound.
+ *
+ * Only the diagonal band of width 2 * max + 1 is computed, two rows at a time, and the
+ * computation stops as soon as every cell of a row exceeds the bound. The rows are per-thread
+ * buffers, so scoring a candidate allocates nothing.
+ */
+public final class BoundedEditDistance {
+
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    private BoundedEditDistance() {
+    }
+
+    /**
+     * @return the distance between a and b if it is at most max, otherwise max + 1
+     */
+    public static int distance(CharSequence a, CharSequence b, int max) {
+        if (max < 0) {
+            return 0;
+        }
+        int m = a.length();
+        int n = b.length();
+        int over = max + 1;
+        if (Math.abs(m - n) > max) {
+            return over;
+        }
+        if (m == 0 || n == 0) {
+            return Math.max(m, n);
+        }
+
+        int[][] rows = ROWS.get();
+        if (rows[0].length < n + 1) {
+            rows[0] = new int[Math.max(n + 1, rows[0].length * 2)];
+            rows[1] = new int[rows[0].length];
+        }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j <= max ? j : over;
+        }
+
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(n, i + max);
+            current[0] = i <= max ? i : over;
+            if (from > 1) {
+                current[from - 1] = over;
+            }
+            int rowMin = from == 1 ? current[0] : over;
+            char ca = Character.toLowerCase(a.charAt(i - 1));
+            for (int j = from; j <= to; j++) {
+                int cost = ca == Character.toLowerCase(b.charAt(j - 1)) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                if (value > over) {
+                    value = over;
+                }
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (to < n) {
+                // The next row reads one cell past this row's band
+                current[to + 1] = over;
+            }
+            if (rowMin > max) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[n], over);
+    }
+
+    /**
+     * Similarity as 1 - distance / longer length, as long as it is at least minSimilarity;
+     * otherwise 0, without computing the full distance
+     */
+    public static double similarity(CharSequence a, CharSequence b, double minSimilarity) {
+        int maxLength = Math.max(a.length(), b.length());
+        if (maxLength == 0) {
+            return 1.0;
+        }
+        int max = minSimilarity <= 0 ? maxLength : (int) Math.floor(maxLength * (1 - minSimilarity) + 1e-9);
+        if (max < 0) {
+            return 0.0;
+        }
+        int distance = distance(a, b, Math.min(max, maxLength));
+        return distance > max ? 0.0 : (maxLength - distance) / (double) maxLength;
+    }
+}
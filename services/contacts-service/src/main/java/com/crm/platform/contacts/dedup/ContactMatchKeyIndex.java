@@ -0,0 +1,268 @@
+package com.crm.platform.contacts.dedup;
+
+import com.crm.platform.contacts.entity.Contact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The contact_match_keys table: the blocking keys of every contact, so duplicate candidates are
+ * found with an index lookup per key instead of a scan of the tenant's contacts.
+ *
+ * Keys are written in the transaction that writes the contact. Contacts written before the
+ * index existed, or by a path that does not maintain it, are picked up by a background walk over
+ * each tenant's contacts. The walk keeps a watermark per tenant in contact_match_key_backfill, so
+ * it resumes where it stopped after a restart, runs on one instance at a time under an advisory
+ * lock, and starts over for a tenant once backfill-rewalk-after has passed since it finished.
+ */
+@Component
+public class ContactMatchKeyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactMatchKeyIndex.class);
+
+    private static final String INSERT_KEYS_SQL =
+        "INSERT INTO contact_match_keys (tenant_id, match_key, contact_id) " +
+        "SELECT ?, k, c FROM unnest(CAST(? AS TEXT[]), CAST(? AS UUID[])) AS t(k, c) ON CONFLICT DO NOTHING";
+
+    private static final String CANDIDATES_SQL =
+        "SELECT contact_id FROM contact_match_keys WHERE tenant_id = ? AND match_key = ANY(CAST(? AS TEXT[])) " +
+        "GROUP BY contact_id ORDER BY COUNT(*) DESC LIMIT ?";
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('contact_match_key_backfill'))";
+
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('contact_match_key_backfill'))";
+
+    // Each tenant once, skipping through the tenant index, with its watermark if a walk is due
+    private static final String DUE_TENANTS_SQL =
+        "WITH RECURSIVE tenants AS (" +
+        "  (SELECT tenant_id FROM contacts ORDER BY tenant_id LIMIT 1) " +
+        "  UNION ALL " +
+        "  SELECT (SELECT c.tenant_id FROM contacts c WHERE c.tenant_id > t.tenant_id ORDER BY c.tenant_id LIMIT 1) " +
+        "  FROM tenants t WHERE t.tenant_id IS NOT NULL) " +
+        "SELECT t.tenant_id, b.last_id FROM tenants t " +
+        "LEFT JOIN contact_match_key_backfill b ON b.tenant_id = t.tenant_id " +
+        "WHERE t.tenant_id IS NOT NULL " +
+        "AND (b.completed_at IS NULL OR b.completed_at < NOW() - make_interval(secs => ?))";
+
+    private static final String UNINDEXED_SQL =
+        "SELECT c.id, c.first_name, c.last_name, c.email, c.phone, c.mobile FROM contacts c " +
+        "WHERE c.tenant_id = ? AND c.id > ? AND NOT EXISTS (SELECT 1 FROM contact_match_keys k WHERE k.contact_id = c.id) " +
+        "ORDER BY c.id LIMIT ?";
+
+    // A finished walk starts over from the first id when it is next due
+    private static final String WATERMARK_SQL =
+        "INSERT INTO contact_match_key_backfill (tenant_id, last_id, completed_at) " +
+        "VALUES (?, ?, CASE WHEN CAST(? AS BOOLEAN) THEN NOW() END) " +
+        "ON CONFLICT (tenant_id) DO UPDATE SET last_id = EXCLUDED.last_id, completed_at = EXCLUDED.completed_at, " +
+        "updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String defaultCountryCode;
+    private final int maxCandidates;
+    private final int backfillBatchSize;
+    private final Duration backfillRewalkAfter;
+
+    public ContactMatchKeyIndex(JdbcTemplate jdbcTemplate,
+                                @Value("${contacts.deduplication.default-country-code:1}") String defaultCountryCode,
+                                @Value("${contacts.deduplication.max-candidates:200}") int maxCandidates,
+                                @Value("${contacts.deduplication.backfill-batch-size:1000}") int backfillBatchSize,
+                                @Value("${contacts.deduplication.backfill-rewalk-after:P1D}") Duration backfillRewalkAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultCountryCode = defaultCountryCode;
+        this.maxCandidates = maxCandidates;
+        this.backfillBatchSize = backfillBatchSize;
+        this.backfillRewalkAfter = backfillRewalkAfter;
+    }
+
+    public Set<String> keysOf(String firstName, String lastName, String email, String phone, String mobile) {
+        return MatchKeys.of(firstName, lastName, email, phone, mobile, defaultCountryCode);
+    }
+
+    public String normalizePhone(String phone) {
+        return MatchKeys.normalizePhone(phone, defaultCountryCode);
+    }
+
+    /**
+     * Ids of the contacts sharing at least one key, those sharing the most keys first
+     */
+    public List<UUID> findCandidates(UUID tenantId, Set<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<UUID>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(CANDIDATES_SQL)) {
+                ps.setObject(1, tenantId);
+                ps.setArray(2, con.createArrayOf("text", keys.toArray()));
+                ps.setInt(3, maxCandidates);
+                List<UUID> ids = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getObject(1, UUID.class));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Replace the keys of the given contacts with keys from their current values
+     */
+    public void index(UUID tenantId, Collection<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>(contacts.size());
+        List<String> keys = new ArrayList<>(contacts.size() * 8);
+        List<UUID> owners = new ArrayList<>(contacts.size() * 8);
+        for (Contact contact : contacts) {
+            ids.add(contact.getId());
+            for (String key : keysOf(contact.getFirstName(), contact.getLastName(), contact.getEmail(),
+                                     contact.getPhone(), contact.getMobile())) {
+                keys.add(key);
+                owners.add(contact.getId());
+            }
+        }
+        remove(ids);
+        insertKeys(tenantId, keys, owners);
+    }
+
+    /**
+     * Re-read contacts written with SQL and replace their keys
+     */
+    public void reindex(UUID tenantId, Collection<UUID> contactIds) {
+        if (contactIds.isEmpty()) {
+            return;
+        }
+        List<Contact> contacts = jdbcTemplate.execute((ConnectionCallback<List<Contact>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, first_name, last_name, email, phone, mobile FROM contacts " +
+                    "WHERE tenant_id = ? AND id = ANY(CAST(? AS UUID[]))")) {
+                ps.setObject(1, tenantId);
+                ps.setArray(2, con.createArrayOf("uuid", contactIds.toArray()));
+                List<Contact> rows = new ArrayList<>(contactIds.size());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Contact contact = new Contact();
+                        contact.setId(rs.getObject(1, UUID.class));
+                        contact.setFirstName(rs.getString(2));
+                        contact.setLastName(rs.getString(3));
+                        contact.setEmail(rs.getString(4));
+                        contact.setPhone(rs.getString(5));
+                        contact.setMobile(rs.getString(6));
+                        rows.add(contact);
+                    }
+                }
+                return rows;
+            }
+        });
+        index(tenantId, contacts);
+    }
+
+    public void remove(Collection<UUID> contactIds) {
+        if (contactIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "DELETE FROM contact_match_keys WHERE contact_id = ANY(CAST(? AS UUID[]))")) {
+                ps.setArray(1, con.createArrayOf("uuid", contactIds.toArray()));
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Index contacts that have no keys yet: one page of each tenant whose walk is due per run, on
+     * the instance that holds the backfill lock
+     */
+    @Scheduled(fixedDelayString = "${contacts.deduplication.backfill-interval-ms:10000}")
+    public void backfill() {
+        try {
+            // Session lock on this connection; the walk's own statements are short and autocommit
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                if (!queryBoolean(con, LOCK_SQL)) {
+                    return null;
+                }
+                try {
+                    List<Object[]> due = jdbcTemplate.query(DUE_TENANTS_SQL, (rs, rowNum) ->
+                        new Object[] {rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)},
+                        backfillRewalkAfter.getSeconds());
+                    for (Object[] tenant : due) {
+                        backfillTenant((UUID) tenant[0], tenant[1] != null ? (UUID) tenant[1] : FIRST_ID);
+                    }
+                } finally {
+                    queryBoolean(con, UNLOCK_SQL);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Error indexing contact match keys", e);
+        }
+    }
+
+    /**
+     * Index the tenant's next page of unindexed contacts after the watermark, then move it
+     */
+    private void backfillTenant(UUID tenantId, UUID afterId) {
+        List<String> keys = new ArrayList<>();
+        List<UUID> owners = new ArrayList<>();
+        UUID[] last = {null};
+        int[] rows = {0};
+        jdbcTemplate.query(UNINDEXED_SQL, rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            for (String key : keysOf(rs.getString(2), rs.getString(3), rs.getString(4),
+                                     rs.getString(5), rs.getString(6))) {
+                keys.add(key);
+                owners.add(id);
+            }
+            last[0] = id;
+            rows[0]++;
+        }, tenantId, afterId, backfillBatchSize);
+
+        insertKeys(tenantId, keys, owners);
+        boolean finished = rows[0] < backfillBatchSize;
+        jdbcTemplate.update(WATERMARK_SQL, tenantId, finished ? FIRST_ID : last[0], finished);
+        if (finished && rows[0] > 0) {
+            logger.info("Contact match key index of tenant {} is complete", tenantId);
+        }
+    }
+
+    private static boolean queryBoolean(Connection con, String sql) throws SQLException {
+        try (Statement statement = con.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void insertKeys(UUID tenantId, List<String> keys, List<UUID> owners) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_KEYS_SQL)) {
+                ps.setObject(1, tenantId);
+                ps.setArray(2, con.createArrayOf("text", keys.toArray()));
+                ps.setArray(3, con.createArrayOf("uuid", owners.toArray()));
+                return ps.executeUpdate();
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.crm.platform.contacts.dedup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Similarity of two contacts: the average over the fields both have of first and last name
+ * similarity (1 - edit distance / longer length, ignoring case), equal email ignoring case and
+ * a shared phone number, where either contact's phone or mobile may match either of the other's.
+ * Phones are compared as given, so callers pass them normalized.
+ */
+public final class ContactSimilarity {
+
+    private static final double EPSILON = 1e-9;
+
+    private ContactSimilarity() {
+    }
+
+    /**
+     * Whether the similarity reaches the threshold. Exact fields are scored first, so each name
+     * comparison only has to find out whether it is similar enough to keep the average above the
+     * threshold and can stop early otherwise.
+     */
+    public static boolean isSimilar(double threshold,
+                                    String firstName1, String lastName1, String email1, String phone1, String mobile1,
+                                    String firstName2, String lastName2, String email2, String phone2, String mobile2) {
+        boolean compareFirst = firstName1 != null && firstName2 != null;
+        boolean compareLast = lastName1 != null && lastName2 != null;
+        double score = 0.0;
+        int factors = 0;
+
+        if (email1 != null && email2 != null) {
+            score += email1.equalsIgnoreCase(email2) ? 1.0 : 0.0;
+            factors++;
+        }
+        if (hasNumber(phone1, mobile1) && hasNumber(phone2, mobile2)) {
+            score += sharesNumber(phone1, mobile1, phone2, mobile2) ? 1.0 : 0.0;
+            factors++;
+        }
+
+        factors += (compareFirst ? 1 : 0) + (compareLast ? 1 : 0);
+        if (factors == 0) {
+            return false;
+        }
+        double required = threshold * factors - EPSILON;
+
+        if (compareFirst) {
+            double needed = required - score - (compareLast ? 1.0 : 0.0);
+            score += BoundedEditDistance.similarity(firstName1, firstName2, needed);
+            if (score + (compareLast ? 1.0 : 0.0) < required) {
+                return false;
+            }
+        }
+        if (compareLast) {
+            score += BoundedEditDistance.similarity(lastName1, lastName2, required - score);
+        }
+        return score >= required;
+    }
+
+    /**
+     * The similarity as a percentage, and the fields that match on their own
+     */
+    public static Match score(String firstName1, String lastName1, String email1, String phone1, String mobile1,
+                              String firstName2, String lastName2, String email2, String phone2, String mobile2) {
+        List<String> fields = new ArrayList<>(4);
+        double score = 0.0;
+        int factors = 0;
+        if (firstName1 != null && firstName2 != null) {
+            score += field(fields, "firstName", BoundedEditDistance.similarity(firstName1, firstName2, 0));
+            factors++;
+        }
+        if (lastName1 != null && lastName2 != null) {
+            score += field(fields, "lastName", BoundedEditDistance.similarity(lastName1, lastName2, 0));
+            factors++;
+        }
+        if (email1 != null && email2 != null) {
+            score += field(fields, "email", email1.equalsIgnoreCase(email2) ? 1.0 : 0.0);
+            factors++;
+        }
+        if (hasNumber(phone1, mobile1) && hasNumber(phone2, mobile2)) {
+            score += field(fields, "phone", sharesNumber(phone1, mobile1, phone2, mobile2) ? 1.0 : 0.0);
+            factors++;
+        }
+        return new Match(factors > 0 ? Math.round(score * 10000.0 / factors) / 100.0 : 0.0, fields);
+    }
+
+    private static boolean hasNumber(String phone, String mobile) {
+        return phone != null || mobile != null;
+    }
+
+    private static boolean sharesNumber(String phone1, String mobile1, String phone2, String mobile2) {
+        return phone1 != null && (phone1.equals(phone2) || phone1.equals(mobile2))
+            || mobile1 != null && (mobile1.equals(phone2) || mobile1.equals(mobile2));
+    }
+
+    private static double field(List<String> fields, String name, double similarity) {
+        if (similarity >= 1.0) {
+            fields.add(name);
+        }
+        return similarity;
+    }
+
+    public static class Match {
+        private final double percentage;
+        private final List<String> matchingFields;
+
+        private Match(double percentage, List<String> matchingFields) {
+            this.percentage = percentage;
+            this.matchingFields = matchingFields;
+        }
+
+        public double getPercentage() {
+            return percentage;
+        }
+
+        public List<String> getMatchingFields() {
+            return matchingFields;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.crm.platform.contacts.dedup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Groups a tenant's contacts into duplicate clusters without comparing every pair.
+ *
+ * Each contact gets a MinHash signature over the trigrams of its name, cut into bands of
+ * rows; contacts whose band values agree land in the same bucket for that band, which makes
+ * contacts with similar names likely to share at least one bucket. Normalized email, phone and
+ * mobile are extra exact-value bands. Buckets are found by sorting each band's values, and only
+ * contacts sharing a bucket are compared with the regular similarity threshold. Signing and
+ * comparing run as fork-join tasks.
+ * Matches are joined with union-find, so a pair already in one cluster is never compared.
+ *
+ * Contacts are held in flat arrays. A contact takes about 280 bytes once added, most of it the
+ * ids and field strings, and about 110 more while clustering with 20 bands, so a million contacts
+ * need roughly 400 MB.
+ * Instances are not thread-safe; add is called from one thread.
+ */
+public class DuplicateClusterer {
+
+    /** Contact indexes share a long with the bucket value */
+    public static final int MAX_CONTACTS = 1 << 24;
+
+    private static final long INDEX_MASK = MAX_CONTACTS - 1;
+    private static final int PAIR_BUFFER = 1 << 20;
+    private static final int VERIFY_SLICE = 4096;
+    private static final int SIGN_SLICE = 8192;
+
+    private final double threshold;
+    private final int bands;
+    private final int rows;
+    private final int maxBucketSize;
+    private final ForkJoinPool pool;
+    private final long[] seeds;
+
+    private int size;
+    private long[] idHigh = new long[1024];
+    private long[] idLow = new long[1024];
+    private long[] createdAt = new long[1024];
+    private String[] firstNames = new String[1024];
+    private String[] lastNames = new String[1024];
+    private String[] emails = new String[1024];
+    private String[] phones = new String[1024];
+    private String[] mobiles = new String[1024];
+    private int[] bandValues;
+    private int[] parent;
+
+    private long candidatePairs;
+    private long matchedPairs;
+
+    /**
+     * @param bands         signature bands; more bands find less similar names
+     * @param rows          signature rows per band; more rows make buckets stricter
+     * @param maxBucketSize buckets larger than this, such as very common names, only compare
+     *                      each contact with its next maxBucketSize neighbours
+     */
+    public DuplicateClusterer(double threshold, int bands, int rows, int maxBucketSize, ForkJoinPool pool) {
+        this.threshold = threshold;
+        this.bands = bands;
+        this.rows = rows;
+        this.maxBucketSize = maxBucketSize;
+        this.pool = pool;
+        this.seeds = new long[bands * rows * 2];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) {
+            seed = mix(seed + i);
+            // Multipliers must be odd for multiply-shift hashing
+            seeds[i] = i % 2 == 0 ? seed | 1 : seed;
+        }
+    }
+
+    /**
+     * Add a contact. Phones must be normalized, as with MatchKeys.normalizePhone.
+     */
+    public void add(UUID id, long createdAtMillis, String firstName, String lastName,
+                    String email, String phone, String mobile) {
+        if (size == MAX_CONTACTS) {
+            throw new IllegalStateException("Cannot cluster more than " + MAX_CONTACTS + " contacts at once");
+        }
+        if (size == idHigh.length) {
+            grow();
+        }
+        int index = size++;
+        idHigh[index] = id.getMostSignificantBits();
+        idLow[index] = id.getLeastSignificantBits();
+        createdAt[index] = createdAtMillis;
+        firstNames[index] = firstName;
+        lastNames[index] = lastName;
+        emails[index] = MatchKeys.normalizeEmail(email);
+        phones[index] = phone;
+        mobiles[index] = mobile;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getCandidatePairs() {
+        return candidatePairs;
+    }
+
+    public long getMatchedPairs() {
+        return matchedPairs;
+    }
+
+    /**
+     * Run the bucketing and comparisons and return the clusters of two or more contacts. Each
+     * cluster lists its oldest contact first.
+     */
+    public List<int[]> cluster() {
+        bandValues = new int[size * bands];
+        pool.invoke(new SignTask(0, size));
+
+        parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        long[] bucketed = new long[size * 2];
+        PairBuffer pairs = new PairBuffer();
+        for (int band = 0; band < bands; band++) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                bucketed[count++] = entry(bandValues[i * bands + band], i);
+            }
+            comparePairs(bucketed, count, pairs);
+        }
+        for (int field = 0; field < 2; field++) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (field == 0) {
+                    count = addExact(bucketed, count, emails[i], i);
+                } else {
+                    count = addExact(bucketed, count, phones[i], i);
+                    count = addExact(bucketed, count, mobiles[i], i);
+                }
+            }
+            comparePairs(bucketed, count, pairs);
+        }
+        verify(pairs);
+        return collectClusters();
+    }
+
+    public UUID idOf(int index) {
+        return new UUID(idHigh[index], idLow[index]);
+    }
+
+    public ContactSimilarity.Match score(int a, int b) {
+        return ContactSimilarity.score(firstNames[a], lastNames[a], emails[a], phones[a], mobiles[a],
+                                       firstNames[b], lastNames[b], emails[b], phones[b], mobiles[b]);
+    }
+
+    private void sign(int index, int[] minimums) {
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        String padded = " " + MatchKeys.letters(firstNames[index]) + " " + MatchKeys.letters(lastNames[index]) + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long shingle = mix(padded.charAt(i) | (long) padded.charAt(i + 1) << 16 | (long) padded.charAt(i + 2) << 32);
+            for (int h = 0; h < minimums.length; h++) {
+                int value = (int) ((shingle * seeds[2 * h] + seeds[2 * h + 1]) >>> 33);
+                if (value < minimums[h]) {
+                    minimums[h] = value;
+                }
+            }
+        }
+        int offset = index * bands;
+        for (int band = 0; band < bands; band++) {
+            long hash = band;
+            for (int row = 0; row < rows; row++) {
+                hash = mix(hash * 31 + minimums[band * rows + row]);
+            }
+            bandValues[offset + band] = (int) hash;
+        }
+    }
+
+    private int addExact(long[] bucketed, int count, String value, int index) {
+        if (value != null) {
+            bucketed[count++] = entry(value.hashCode(), index);
+        }
+        return count;
+    }
+
+    private static long entry(int bucket, int index) {
+        return (long) bucket << 24 | index;
+    }
+
+    /**
+     * Sort one band's entries so each bucket is a run, and queue the pairs within each run
+     */
+    private void comparePairs(long[] bucketed, int count, PairBuffer pairs) {
+        Arrays.parallelSort(bucketed, 0, count);
+        int start = 0;
+        while (start < count) {
+            long bucket = bucketed[start] >> 24;
+            int end = start + 1;
+            while (end < count && bucketed[end] >> 24 == bucket) {
+                end++;
+            }
+            for (int i = start; i < end; i++) {
+                int a = (int) (bucketed[i] & INDEX_MASK);
+                int last = Math.min(end, i + 1 + maxBucketSize);
+                for (int j = i + 1; j < last; j++) {
+                    int b = (int) (bucketed[j] & INDEX_MASK);
+                    if (a != b && find(a) != find(b)) {
+                        pairs.add(a, b);
+                        if (pairs.size == PAIR_BUFFER) {
+                            verify(pairs);
+                        }
+                    }
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Compare the queued pairs in parallel, then join the matches
+     */
+    private void verify(PairBuffer pairs) {
+        if (pairs.size == 0) {
+            return;
+        }
+        candidatePairs += pairs.size;
+        long[] matches = pool.invoke(new VerifyTask(pairs.values, 0, pairs.size));
+        for (long match : matches) {
+            int a = (int) (match >>> 32);
+            int b = (int) match;
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA != rootB) {
+                parent[rootB] = rootA;
+            }
+        }
+        matchedPairs += matches.length;
+        pairs.size = 0;
+    }
+
+    private boolean matches(int a, int b) {
+        return ContactSimilarity.isSimilar(threshold,
+            firstNames[a], lastNames[a], emails[a], phones[a], mobiles[a],
+            firstNames[b], lastNames[b], emails[b], phones[b], mobiles[b]);
+    }
+
+    private int find(int index) {
+        int root = index;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[index] != root) {
+            int next = parent[index];
+            parent[index] = root;
+            index = next;
+        }
+        return root;
+    }
+
+    private List<int[]> collectClusters() {
+        int[] counts = new int[size];
+        for (int i = 0; i < size; i++) {
+            counts[find(i)]++;
+        }
+        int[] clusterOf = new int[size];
+        List<int[]> clusters = new ArrayList<>();
+        int[] filled = new int[size];
+        Arrays.fill(clusterOf, -1);
+        for (int i = 0; i < size; i++) {
+            int root = parent[i];
+            if (counts[root] < 2) {
+                continue;
+            }
+            if (clusterOf[root] < 0) {
+                clusterOf[root] = clusters.size();
+                clusters.add(new int[counts[root]]);
+            }
+            int[] members = clusters.get(clusterOf[root]);
+            members[filled[root]++] = i;
+        }
+        for (int[] members : clusters) {
+            int oldest = 0;
+            for (int i = 1; i < members.length; i++) {
+                if (createdAt[members[i]] < createdAt[members[oldest]]) {
+                    oldest = i;
+                }
+            }
+            int swap = members[0];
+            members[0] = members[oldest];
+            members[oldest] = swap;
+        }
+        return clusters;
+    }
+
+    private void grow() {
+        int capacity = Math.min(idHigh.length * 2, MAX_CONTACTS);
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        phones = Arrays.copyOf(phones, capacity);
+        mobiles = Arrays.copyOf(mobiles, capacity);
+    }
+
+    private static long mix(long value) {
+        // SplitMix64 finalizer
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static class PairBuffer {
+        private final long[] values = new long[PAIR_BUFFER];
+        private int size;
+
+        private void add(int a, int b) {
+            values[size++] = (long) a << 32 | b;
+        }
+    }
+
+    private class SignTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        private SignTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SIGN_SLICE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SignTask(from, middle), new SignTask(middle, to));
+                return;
+            }
+            int[] minimums = new int[bands * rows];
+            for (int i = from; i < to; i++) {
+                sign(i, minimums);
+            }
+        }
+    }
+
+    private class VerifyTask extends RecursiveTask<long[]> {
+        private final long[] pairs;
+        private final int from;
+        private final int to;
+
+        private VerifyTask(long[] pairs, int from, int to) {
+            this.pairs = pairs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > VERIFY_SLICE) {
+                int middle = (from + to) >>> 1;
+                VerifyTask left = new VerifyTask(pairs, from, middle);
+                left.fork();
+                long[] right = new VerifyTask(pairs, middle, to).compute();
+                long[] leftMatches = left.join();
+                long[] all = Arrays.copyOf(leftMatches, leftMatches.length + right.length);
+                System.arraycopy(right, 0, all, leftMatches.length, right.length);
+                return all;
+            }
+            long[] matched = new long[16];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int a = (int) (pairs[i] >>> 32);
+                int b = (int) pairs[i];
+                if (matches(a, b)) {
+                    if (count == matched.length) {
+                        matched = Arrays.copyOf(matched, count * 2);
+                    }
+                    matched[count++] = pairs[i];
+                }
+            }
+            return Arrays.copyOf(matched, count);
+        }
+    }
+}
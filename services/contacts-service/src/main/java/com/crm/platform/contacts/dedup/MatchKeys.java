@@ -0,0 +1,149 @@
+package com.crm.platform.contacts.dedup;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Blocking keys for duplicate detection.
+ *
+ * Two contacts can only be duplicates if they share at least one key, so candidates are found
+ * by key lookups rather than by scoring the tenant's contacts. Keys are prefixed by kind:
+ * e: normalized email, p: phone or mobile in E.164 form, n: phonetic codes of last and first
+ * name, g: a trigram of the last name with the first initial, which survives most typos that
+ * change the phonetic code.
+ */
+public final class MatchKeys {
+
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private MatchKeys() {
+    }
+
+    public static Set<String> of(String firstName, String lastName, String email,
+                                 String phone, String mobile, String defaultCountryCode) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalizedEmail = normalizeEmail(email);
+        if (normalizedEmail != null) {
+            keys.add("e:" + normalizedEmail);
+        }
+        String normalizedPhone = normalizePhone(phone, defaultCountryCode);
+        if (normalizedPhone != null) {
+            keys.add("p:" + normalizedPhone);
+        }
+        String normalizedMobile = normalizePhone(mobile, defaultCountryCode);
+        if (normalizedMobile != null) {
+            keys.add("p:" + normalizedMobile);
+        }
+
+        String last = letters(lastName);
+        String first = letters(firstName);
+        if (!last.isEmpty() && !first.isEmpty()) {
+            keys.add("n:" + soundex(last) + soundex(first));
+            char initial = first.charAt(0);
+            if (last.length() <= 3) {
+                keys.add("g:" + last + ":" + initial);
+            } else {
+                for (int i = 0; i + 3 <= last.length(); i++) {
+                    keys.add("g:" + last.substring(i, i + 3) + ":" + initial);
+                }
+            }
+        }
+        return keys;
+    }
+
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String trimmed = email.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * E.164 form of a phone number: +, country code and subscriber digits. Numbers written
+     * with + or 00 are international; others are national, with a leading trunk 0 dropped and
+     * the default country code added. Returns null for numbers with too few digits to match on.
+     */
+    public static String normalizePhone(String phone, String defaultCountryCode) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length() + 4);
+        boolean international = false;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '+' && digits.length() == 0) {
+                international = true;
+            } else if (Character.isLetter(c)) {
+                // Extensions such as "x12" or "ext. 12" are not part of the number
+                break;
+            }
+        }
+        if (!international && digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            digits.delete(0, 2);
+            international = true;
+        }
+        if (!international) {
+            if (digits.length() > 0 && digits.charAt(0) == '0') {
+                digits.deleteCharAt(0);
+            }
+            digits.insert(0, defaultCountryCode);
+        }
+        if (digits.length() < 7) {
+            return null;
+        }
+        return digits.insert(0, '+').toString();
+    }
+
+    /**
+     * American Soundex code: first letter and three digits
+     */
+    public static String soundex(String letters) {
+        char[] code = {Character.toUpperCase(letters.charAt(0)), '0', '0', '0'};
+        char previous = SOUNDEX_CODES.charAt(Character.toLowerCase(letters.charAt(0)) - 'a');
+        int length = 1;
+        for (int i = 1; i < letters.length() && length < 4; i++) {
+            char c = letters.charAt(i);
+            char digit = SOUNDEX_CODES.charAt(c - 'a');
+            if (c == 'h' || c == 'w') {
+                // H and W do not separate letters with the same code
+                continue;
+            }
+            if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            previous = digit;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Lower-case ASCII letters of a name, with accents removed
+     */
+    static String letters(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = name;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0x7F) {
+                folded = Normalizer.normalize(name, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        StringBuilder letters = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            } else if (c >= 'A' && c <= 'Z') {
+                letters.append((char) (c + ('a' - 'A')));
+            }
+        }
+        return letters.toString();
+    }
+}
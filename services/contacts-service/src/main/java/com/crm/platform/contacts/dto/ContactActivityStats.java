@@ -0,0 +1,79 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Activity figures computed for a contact from its activity history
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactActivityStats {
+    
+    @JsonProperty("totalActivities")
+    private Integer totalActivities;
+    
+    @JsonProperty("lastActivityDate")
+    private Instant lastActivityDate;
+    
+    @JsonProperty("nextActivityDate")
+    private Instant nextActivityDate;
+    
+    @JsonProperty("daysSinceLastContact")
+    private Integer daysSinceLastContact;
+    
+    @JsonProperty("engagementScore")
+    private Double engagementScore;
+    
+    // Constructors
+    public ContactActivityStats() {}
+    
+    public static ContactActivityStats empty() {
+        ContactActivityStats stats = new ContactActivityStats();
+        stats.setTotalActivities(0);
+        stats.setEngagementScore(0.0);
+        return stats;
+    }
+    
+    // Getters and setters
+    public Integer getTotalActivities() {
+        return totalActivities;
+    }
+    
+    public void setTotalActivities(Integer totalActivities) {
+        this.totalActivities = totalActivities;
+    }
+    
+    public Instant getLastActivityDate() {
+        return lastActivityDate;
+    }
+    
+    public void setLastActivityDate(Instant lastActivityDate) {
+        this.lastActivityDate = lastActivityDate;
+    }
+    
+    public Instant getNextActivityDate() {
+        return nextActivityDate;
+    }
+    
+    public void setNextActivityDate(Instant nextActivityDate) {
+        this.nextActivityDate = nextActivityDate;
+    }
+    
+    public Integer getDaysSinceLastContact() {
+        return daysSinceLastContact;
+    }
+    
+    public void setDaysSinceLastContact(Integer daysSinceLastContact) {
+        this.daysSinceLastContact = daysSinceLastContact;
+    }
+    
+    public Double getEngagementScore() {
+        return engagementScore;
+    }
+    
+    public void setEngagementScore(Double engagementScore) {
+        this.engagementScore = engagementScore;
+    }
+}
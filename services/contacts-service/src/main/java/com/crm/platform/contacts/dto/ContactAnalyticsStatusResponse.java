@@ -0,0 +1,58 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for the state of a tenant's pre-aggregated contact analytics
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactAnalyticsStatusResponse {
+    
+    @JsonProperty("rebuiltAt")
+    private Instant rebuiltAt;
+    
+    @JsonProperty("checkedAt")
+    private Instant checkedAt;
+    
+    @JsonProperty("mismatchedBuckets")
+    private Integer mismatchedBuckets;
+    
+    @JsonProperty("consistent")
+    private Boolean consistent;
+    
+    // Getters and setters
+    public Instant getRebuiltAt() {
+        return rebuiltAt;
+    }
+    
+    public void setRebuiltAt(Instant rebuiltAt) {
+        this.rebuiltAt = rebuiltAt;
+    }
+    
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+    
+    public void setCheckedAt(Instant checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+    
+    public Integer getMismatchedBuckets() {
+        return mismatchedBuckets;
+    }
+    
+    public void setMismatchedBuckets(Integer mismatchedBuckets) {
+        this.mismatchedBuckets = mismatchedBuckets;
+    }
+    
+    public Boolean getConsistent() {
+        return consistent;
+    }
+    
+    public void setConsistent(Boolean consistent) {
+        this.consistent = consistent;
+    }
+}
@@ -0,0 +1,32 @@
+package com.crm.platform.contacts.dto;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+/**
+ * Request to enrich every contact matching the filters
+ */
+public class ContactEnrichmentRequest {
+
+    @Valid
+    private ContactSearchRequest filters;
+
+    private List<String> providers;
+
+    // Getters and setters
+    public ContactSearchRequest getFilters() {
+        return filters;
+    }
+
+    public void setFilters(ContactSearchRequest filters) {
+        this.filters = filters;
+    }
+
+    public List<String> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(List<String> providers) {
+        this.providers = providers;
+    }
+}
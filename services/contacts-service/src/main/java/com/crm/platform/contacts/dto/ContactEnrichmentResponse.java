@@ -0,0 +1,155 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for bulk contact enrichment
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactEnrichmentResponse {
+    
+    @JsonProperty("enrichmentId")
+    private UUID enrichmentId;
+    
+    @JsonProperty("status")
+    private EnrichmentStatus status;
+    
+    @JsonProperty("providers")
+    private List<String> providers;
+    
+    @JsonProperty("totalRecords")
+    private Long totalRecords;
+    
+    @JsonProperty("processedRecords")
+    private Long processedRecords;
+    
+    @JsonProperty("enrichedRecords")
+    private Long enrichedRecords;
+    
+    @JsonProperty("skippedRecords")
+    private Long skippedRecords;
+    
+    @JsonProperty("failedLookups")
+    private Long failedLookups;
+    
+    @JsonProperty("progress")
+    private Double progress;
+    
+    @JsonProperty("startedAt")
+    private Instant startedAt;
+    
+    @JsonProperty("completedAt")
+    private Instant completedAt;
+    
+    @JsonProperty("errorMessage")
+    private String errorMessage;
+    
+    public enum EnrichmentStatus {
+        PENDING,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+    
+    // Getters and setters
+    public UUID getEnrichmentId() {
+        return enrichmentId;
+    }
+    
+    public void setEnrichmentId(UUID enrichmentId) {
+        this.enrichmentId = enrichmentId;
+    }
+    
+    public EnrichmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(EnrichmentStatus status) {
+        this.status = status;
+    }
+    
+    public List<String> getProviders() {
+        return providers;
+    }
+    
+    public void setProviders(List<String> providers) {
+        this.providers = providers;
+    }
+    
+    public Long getTotalRecords() {
+        return totalRecords;
+    }
+    
+    public void setTotalRecords(Long totalRecords) {
+        this.totalRecords = totalRecords;
+    }
+    
+    public Long getProcessedRecords() {
+        return processedRecords;
+    }
+    
+    public void setProcessedRecords(Long processedRecords) {
+        this.processedRecords = processedRecords;
+    }
+    
+    public Long getEnrichedRecords() {
+        return enrichedRecords;
+    }
+    
+    public void setEnrichedRecords(Long enrichedRecords) {
+        this.enrichedRecords = enrichedRecords;
+    }
+    
+    public Long getSkippedRecords() {
+        return skippedRecords;
+    }
+    
+    public void setSkippedRecords(Long skippedRecords) {
+        this.skippedRecords = skippedRecords;
+    }
+    
+    public Long getFailedLookups() {
+        return failedLookups;
+    }
+    
+    public void setFailedLookups(Long failedLookups) {
+        this.failedLookups = failedLookups;
+    }
+    
+    public Double getProgress() {
+        return progress;
+    }
+    
+    public void setProgress(Double progress) {
+        this.progress = progress;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
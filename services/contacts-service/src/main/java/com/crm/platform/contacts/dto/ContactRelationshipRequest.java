@@ -0,0 +1,53 @@
+package com.crm.platform.contacts.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.UUID;
+
+public class ContactRelationshipRequest {
+
+    @NotNull
+    private UUID relatedContactId;
+
+    @NotBlank
+    private String relationshipType;
+
+    @Size(max = 500)
+    private String description;
+
+    private Boolean isPrimary;
+
+    // Getters and setters
+    public UUID getRelatedContactId() {
+        return relatedContactId;
+    }
+
+    public void setRelatedContactId(UUID relatedContactId) {
+        this.relatedContactId = relatedContactId;
+    }
+
+    public String getRelationshipType() {
+        return relationshipType;
+    }
+
+    public void setRelationshipType(String relationshipType) {
+        this.relationshipType = relationshipType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Boolean getIsPrimary() {
+        return isPrimary;
+    }
+
+    public void setIsPrimary(Boolean isPrimary) {
+        this.isPrimary = isPrimary;
+    }
+}
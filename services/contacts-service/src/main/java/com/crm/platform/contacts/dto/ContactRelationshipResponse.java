@@ -0,0 +1,114 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for a relationship between two contacts
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactRelationshipResponse {
+    
+    @JsonProperty("id")
+    private UUID id;
+    
+    @JsonProperty("contactId")
+    private UUID contactId;
+    
+    @JsonProperty("relatedContactId")
+    private UUID relatedContactId;
+    
+    @JsonProperty("relationshipType")
+    private String relationshipType;
+    
+    @JsonProperty("description")
+    private String description;
+    
+    @JsonProperty("isPrimary")
+    private Boolean isPrimary;
+    
+    @JsonProperty("relatedContact")
+    private ContactResponse relatedContact;
+    
+    @JsonProperty("createdAt")
+    private LocalDateTime createdAt;
+    
+    @JsonProperty("updatedAt")
+    private LocalDateTime updatedAt;
+    
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public UUID getContactId() {
+        return contactId;
+    }
+    
+    public void setContactId(UUID contactId) {
+        this.contactId = contactId;
+    }
+    
+    public UUID getRelatedContactId() {
+        return relatedContactId;
+    }
+    
+    public void setRelatedContactId(UUID relatedContactId) {
+        this.relatedContactId = relatedContactId;
+    }
+    
+    public String getRelationshipType() {
+        return relationshipType;
+    }
+    
+    public void setRelationshipType(String relationshipType) {
+        this.relationshipType = relationshipType;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public Boolean getIsPrimary() {
+        return isPrimary;
+    }
+    
+    public void setIsPrimary(Boolean isPrimary) {
+        this.isPrimary = isPrimary;
+    }
+    
+    public ContactResponse getRelatedContact() {
+        return relatedContact;
+    }
+    
+    public void setRelatedContact(ContactResponse relatedContact) {
+        this.relatedContact = relatedContact;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,89 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a cluster of duplicate contacts awaiting review. The master contact is the
+ * one the duplicates would be merged into.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DuplicateClusterResponse {
+    
+    @JsonProperty("masterContactId")
+    private UUID masterContactId;
+    
+    @JsonProperty("duplicates")
+    private List<DuplicateMember> duplicates = new ArrayList<>();
+    
+    public DuplicateClusterResponse() {}
+    
+    public DuplicateClusterResponse(UUID masterContactId) {
+        this.masterContactId = masterContactId;
+    }
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class DuplicateMember {
+        @JsonProperty("contactId")
+        private UUID contactId;
+        
+        @JsonProperty("similarityScore")
+        private Double similarityScore;
+        
+        @JsonProperty("matchingFields")
+        private List<String> matchingFields;
+        
+        public DuplicateMember() {}
+        
+        public DuplicateMember(UUID contactId, Double similarityScore, List<String> matchingFields) {
+            this.contactId = contactId;
+            this.similarityScore = similarityScore;
+            this.matchingFields = matchingFields;
+        }
+        
+        public UUID getContactId() {
+            return contactId;
+        }
+        
+        public void setContactId(UUID contactId) {
+            this.contactId = contactId;
+        }
+        
+        public Double getSimilarityScore() {
+            return similarityScore;
+        }
+        
+        public void setSimilarityScore(Double similarityScore) {
+            this.similarityScore = similarityScore;
+        }
+        
+        public List<String> getMatchingFields() {
+            return matchingFields;
+        }
+        
+        public void setMatchingFields(List<String> matchingFields) {
+            this.matchingFields = matchingFields;
+        }
+    }
+    
+    // Getters and setters
+    public UUID getMasterContactId() {
+        return masterContactId;
+    }
+    
+    public void setMasterContactId(UUID masterContactId) {
+        this.masterContactId = masterContactId;
+    }
+    
+    public List<DuplicateMember> getDuplicates() {
+        return duplicates;
+    }
+    
+    public void setDuplicates(List<DuplicateMember> duplicates) {
+        this.duplicates = duplicates;
+    }
+}
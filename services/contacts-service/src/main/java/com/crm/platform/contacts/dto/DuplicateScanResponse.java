@@ -0,0 +1,120 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Response DTO for tenant-wide duplicate scans
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DuplicateScanResponse {
+    
+    @JsonProperty("scanId")
+    private UUID scanId;
+    
+    @JsonProperty("status")
+    private ScanStatus status;
+    
+    @JsonProperty("contactsScanned")
+    private Long contactsScanned;
+    
+    @JsonProperty("candidatePairs")
+    private Long candidatePairs;
+    
+    @JsonProperty("duplicatePairs")
+    private Long duplicatePairs;
+    
+    @JsonProperty("clusters")
+    private Integer clusters;
+    
+    @JsonProperty("startedAt")
+    private Instant startedAt;
+    
+    @JsonProperty("completedAt")
+    private Instant completedAt;
+    
+    @JsonProperty("errorMessage")
+    private String errorMessage;
+    
+    public enum ScanStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+    
+    // Getters and setters
+    public UUID getScanId() {
+        return scanId;
+    }
+    
+    public void setScanId(UUID scanId) {
+        this.scanId = scanId;
+    }
+    
+    public ScanStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ScanStatus status) {
+        this.status = status;
+    }
+    
+    public Long getContactsScanned() {
+        return contactsScanned;
+    }
+    
+    public void setContactsScanned(Long contactsScanned) {
+        this.contactsScanned = contactsScanned;
+    }
+    
+    public Long getCandidatePairs() {
+        return candidatePairs;
+    }
+    
+    public void setCandidatePairs(Long candidatePairs) {
+        this.candidatePairs = candidatePairs;
+    }
+    
+    public Long getDuplicatePairs() {
+        return duplicatePairs;
+    }
+    
+    public void setDuplicatePairs(Long duplicatePairs) {
+        this.duplicatePairs = duplicatePairs;
+    }
+    
+    public Integer getClusters() {
+        return clusters;
+    }
+    
+    public void setClusters(Integer clusters) {
+        this.clusters = clusters;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,124 @@
+package com.crm.platform.contacts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a traversal of the in-memory relationship graph
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RelationshipGraphResponse {
+
+    @JsonProperty("startId")
+    private UUID startId;
+
+    @JsonProperty("nodes")
+    private List<Node> nodes;
+
+    @JsonProperty("path")
+    private List<UUID> path;
+
+    @JsonProperty("degree")
+    private Integer degree;
+
+    @JsonProperty("truncated")
+    private Boolean truncated;
+
+    // Constructors
+    public RelationshipGraphResponse() {}
+
+    public RelationshipGraphResponse(UUID startId) {
+        this.startId = startId;
+    }
+
+    // Getters and setters
+    public UUID getStartId() {
+        return startId;
+    }
+
+    public void setStartId(UUID startId) {
+        this.startId = startId;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public List<UUID> getPath() {
+        return path;
+    }
+
+    public void setPath(List<UUID> path) {
+        this.path = path;
+    }
+
+    public Integer getDegree() {
+        return degree;
+    }
+
+    public void setDegree(Integer degree) {
+        this.degree = degree;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    /**
+     * A contact or account reached from the start, with its distance in hops
+     */
+    public static class Node {
+
+        @JsonProperty("id")
+        private UUID id;
+
+        @JsonProperty("type")
+        private String type;
+
+        @JsonProperty("depth")
+        private Integer depth;
+
+        public Node() {}
+
+        public Node(UUID id, String type, Integer depth) {
+            this.id = id;
+            this.type = type;
+            this.depth = depth;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public void setId(UUID id) {
+            this.id = id;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public Integer getDepth() {
+            return depth;
+        }
+
+        public void setDepth(Integer depth) {
+            this.depth = depth;
+        }
+    }
+}
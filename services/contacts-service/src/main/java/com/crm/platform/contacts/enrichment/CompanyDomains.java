@@ -0,0 +1,41 @@
+package com.crm.platform.contacts.enrichment;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Company domain of a contact, taken from the email address. Addresses at personal mail providers
+ * say nothing about the company, so they have none.
+ */
+public final class CompanyDomains {
+
+    private static final Set<String> PERSONAL_MAIL_DOMAINS = Set.of(
+        "gmail.com", "googlemail.com", "yahoo.com", "yahoo.co.uk", "ymail.com", "hotmail.com", "hotmail.co.uk",
+        "outlook.com", "live.com", "msn.com", "aol.com", "icloud.com", "me.com", "mac.com", "gmx.com", "gmx.de",
+        "gmx.net", "web.de", "mail.com", "proton.me", "protonmail.com", "zoho.com", "yandex.com", "yandex.ru",
+        "mail.ru", "qq.com", "163.com", "126.com", "fastmail.com", "hey.com");
+
+    private CompanyDomains() {
+    }
+
+    /**
+     * Lower-cased domain of a company address, or null for personal and malformed addresses
+     */
+    public static String fromEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        if (at <= 0 || at == email.length() - 1) {
+            return null;
+        }
+        String domain = email.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+        if (domain.endsWith(".")) {
+            domain = domain.substring(0, domain.length() - 1);
+        }
+        if (domain.indexOf('.') <= 0 || PERSONAL_MAIL_DOMAINS.contains(domain)) {
+            return null;
+        }
+        return domain;
+    }
+}
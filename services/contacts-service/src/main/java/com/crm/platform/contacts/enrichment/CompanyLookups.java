@@ -0,0 +1,173 @@
+package com.crm.platform.contacts.enrichment;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Company lookups shared by all enrichment on this instance.
+ *
+ * Results are cached per provider and domain for the TTL, unknown domains for the shorter negative
+ * TTL, so enriching many contacts at one company costs a single provider call. Concurrent requests
+ * for a domain that is being looked up wait for that lookup instead of starting another. Each
+ * provider has its own pool of getMaxConcurrency() threads; lookups beyond that queue up. A lookup
+ * fails with a TimeoutException once it has run for the lookup timeout; time spent in the queue
+ * does not count, so a slow provider delays queued lookups without failing them.
+ */
+@Component
+public class CompanyLookups {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyLookups.class);
+
+    private final Map<String, ProviderQueue> providers = new LinkedHashMap<>();
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final int maxEntries;
+    private final Duration lookupTimeout;
+    private final LongSupplier clock;
+
+    @Autowired
+    public CompanyLookups(ObjectProvider<EnrichmentProvider> providers,
+                          @Value("${contacts.enrichment.cache-ttl:P7D}") Duration ttl,
+                          @Value("${contacts.enrichment.negative-cache-ttl:P1D}") Duration negativeTtl,
+                          @Value("${contacts.enrichment.cache-max-entries:100000}") int maxEntries,
+                          @Value("${contacts.enrichment.lookup-timeout:PT30S}") Duration lookupTimeout) {
+        this(providers.orderedStream().collect(Collectors.toList()), ttl, negativeTtl, maxEntries, lookupTimeout,
+             System::currentTimeMillis);
+    }
+
+    CompanyLookups(List<EnrichmentProvider> providers, Duration ttl, Duration negativeTtl, int maxEntries,
+                   Duration lookupTimeout, LongSupplier clock) {
+        for (EnrichmentProvider provider : providers) {
+            this.providers.put(provider.getName(), new ProviderQueue(provider));
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.maxEntries = maxEntries;
+        this.lookupTimeout = lookupTimeout;
+        this.clock = clock;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        providers.values().forEach(queue -> queue.executor.shutdownNow());
+    }
+
+    public List<String> getProviderNames() {
+        return new ArrayList<>(providers.keySet());
+    }
+
+    public boolean hasProvider(String name) {
+        return providers.containsKey(name);
+    }
+
+    /**
+     * The provider's profile of the company behind a domain, completing with null when the
+     * provider does not know it.
+     */
+    public CompletableFuture<CompanyProfile> lookup(String providerName, String domain) {
+        ProviderQueue queue = providers.get(providerName);
+        if (queue == null) {
+            throw new IllegalArgumentException("Unknown enrichment provider: " + providerName);
+        }
+        String key = providerName + '|' + domain;
+        long now = clock.getAsLong();
+        CacheEntry entry = cache.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            return entry.result;
+        }
+
+        CacheEntry created = new CacheEntry();
+        CacheEntry current = cache.compute(key, (k, existing) ->
+            existing != null && !existing.isExpired(now) ? existing : created);
+        if (current != created) {
+            return current.result;
+        }
+        if (cache.size() > maxEntries) {
+            evict(now);
+        }
+
+        // Failures, timeouts included, are not cached
+        created.result.whenComplete((profile, failure) -> {
+            if (failure != null) {
+                cache.remove(key, created);
+            }
+        });
+        try {
+            queue.executor.execute(() -> {
+                created.result.orTimeout(lookupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                try {
+                    CompanyProfile profile = queue.provider.lookupCompany(domain);
+                    created.expiresAt = clock.getAsLong() + (profile != null ? ttlMillis : negativeTtlMillis);
+                    created.result.complete(profile);
+                } catch (Exception e) {
+                    logger.warn("Company lookup of {} at {} failed: {}", domain, providerName, e.toString());
+                    created.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            created.result.completeExceptionally(e);
+        }
+        return created.result;
+    }
+
+    int cachedEntries() {
+        return cache.size();
+    }
+
+    /**
+     * Drop expired results, then completed ones in no particular order until a tenth of the room is free
+     */
+    private void evict(long now) {
+        cache.values().removeIf(entry -> entry.isExpired(now));
+        int target = maxEntries - maxEntries / 10;
+        Iterator<CacheEntry> entries = cache.values().iterator();
+        while (cache.size() > target && entries.hasNext()) {
+            if (entries.next().result.isDone()) {
+                entries.remove();
+            }
+        }
+    }
+
+    private static final class ProviderQueue {
+        private final EnrichmentProvider provider;
+        private final ExecutorService executor;
+
+        private ProviderQueue(EnrichmentProvider provider) {
+            this.provider = provider;
+            this.executor = Executors.newFixedThreadPool(Math.max(1, provider.getMaxConcurrency()));
+        }
+    }
+
+    private static final class CacheEntry {
+        private final CompletableFuture<CompanyProfile> result = new CompletableFuture<>();
+        // Lookups in flight never expire
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            // A failed entry counts as expired until its removal, which runs after callers waiting
+            // on it may already have been woken
+            return expiresAt <= now || result.isCompletedExceptionally();
+        }
+    }
+}
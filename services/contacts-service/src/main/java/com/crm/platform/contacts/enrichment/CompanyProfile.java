@@ -0,0 +1,122 @@
+package com.crm.platform.contacts.enrichment;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * What a provider knows about the company behind an email domain
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompanyProfile {
+
+    private String domain;
+    private String name;
+    private String industry;
+    private Integer employeeCount;
+    private String country;
+    private String city;
+    private String website;
+    private String linkedinUrl;
+    private String description;
+
+    public CompanyProfile() {}
+
+    public CompanyProfile(String domain, String name) {
+        this.domain = domain;
+        this.name = name;
+    }
+
+    /**
+     * This profile with its missing fields taken from another provider's profile
+     */
+    public CompanyProfile mergedWith(CompanyProfile other) {
+        if (other == null) {
+            return this;
+        }
+        CompanyProfile merged = new CompanyProfile();
+        merged.domain = domain != null ? domain : other.domain;
+        merged.name = name != null ? name : other.name;
+        merged.industry = industry != null ? industry : other.industry;
+        merged.employeeCount = employeeCount != null ? employeeCount : other.employeeCount;
+        merged.country = country != null ? country : other.country;
+        merged.city = city != null ? city : other.city;
+        merged.website = website != null ? website : other.website;
+        merged.linkedinUrl = linkedinUrl != null ? linkedinUrl : other.linkedinUrl;
+        merged.description = description != null ? description : other.description;
+        return merged;
+    }
+
+    // Getters and setters
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getIndustry() {
+        return industry;
+    }
+
+    public void setIndustry(String industry) {
+        this.industry = industry;
+    }
+
+    public Integer getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(Integer employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getWebsite() {
+        return website;
+    }
+
+    public void setWebsite(String website) {
+        this.website = website;
+    }
+
+    public String getLinkedinUrl() {
+        return linkedinUrl;
+    }
+
+    public void setLinkedinUrl(String linkedinUrl) {
+        this.linkedinUrl = linkedinUrl;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,26 @@
+package com.crm.platform.contacts.enrichment;
+
+/**
+ * A source of company data. Every bean implementing this is available to enrichment under its name,
+ * so providers are added, or replaced by a stub in tests, by declaring a bean.
+ */
+public interface EnrichmentProvider {
+
+    /**
+     * Name used to pick the provider in enrichment requests
+     */
+    String getName();
+
+    /**
+     * Lookups this provider may have in flight at once, for its rate limits
+     */
+    default int getMaxConcurrency() {
+        return 4;
+    }
+
+    /**
+     * The company behind a domain, or null when the provider does not know it. Failures are
+     * thrown and not cached, so the domain is looked up again next time.
+     */
+    CompanyProfile lookupCompany(String domain) throws Exception;
+}
@@ -0,0 +1,88 @@
+package com.crm.platform.contacts.enrichment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Company lookups against an HTTP API that answers GET requests for a domain with a JSON object in
+ * the shape of CompanyProfile, and 404 for domains it does not know.
+ */
+@Component
+@ConditionalOnProperty(prefix = "contacts.enrichment.http", name = "enabled", havingValue = "true")
+public class HttpEnrichmentProvider implements EnrichmentProvider {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String name;
+    private final String urlTemplate;
+    private final String apiKeyHeader;
+    private final String apiKey;
+    private final int maxConcurrency;
+    private final Duration timeout;
+
+    public HttpEnrichmentProvider(ObjectMapper objectMapper,
+                                  @Value("${contacts.enrichment.http.name:company-api}") String name,
+                                  @Value("${contacts.enrichment.http.url}") String urlTemplate,
+                                  @Value("${contacts.enrichment.http.api-key-header:Authorization}") String apiKeyHeader,
+                                  @Value("${contacts.enrichment.http.api-key:}") String apiKey,
+                                  @Value("${contacts.enrichment.http.max-concurrency:4}") int maxConcurrency,
+                                  @Value("${contacts.enrichment.http.timeout:PT10S}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(timeout)
+            .build();
+        this.name = name;
+        this.urlTemplate = urlTemplate;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKey = apiKey;
+        this.maxConcurrency = maxConcurrency;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public CompanyProfile lookupCompany(String domain) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+            .uri(URI.create(urlTemplate.replace("{domain}", URLEncoder.encode(domain, StandardCharsets.UTF_8))))
+            .header("Accept", "application/json")
+            .timeout(timeout)
+            .GET();
+        if (!apiKey.isEmpty()) {
+            request.header(apiKeyHeader, apiKey);
+        }
+
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException(name + " answered " + response.statusCode() + " for " + domain);
+        }
+        CompanyProfile profile = objectMapper.readValue(response.body(), CompanyProfile.class);
+        if (profile.getDomain() == null) {
+            profile.setDomain(domain);
+        }
+        return profile;
+    }
+}
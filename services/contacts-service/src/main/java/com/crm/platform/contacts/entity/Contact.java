@@ -2,6 +2,8 @@ package com.crm.platform.contacts.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -71,9 +73,11 @@ public class Contact {
     @Column(name = "department", length = 100)
     private String department;
 
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "mailing_address", columnDefinition = "jsonb")
     private Map<String, Object> mailingAddress;
 
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "social_profiles", columnDefinition = "jsonb")
     private Map<String, Object> socialProfiles;
 
@@ -109,12 +113,14 @@ public class Contact {
     @Column(name = "language", length = 10)
     private String language = "en-US";
 
+    @JdbcTypeCode(SqlTypes.ARRAY)
     @Column(name = "tags", columnDefinition = "text[]")
     private List<String> tags = new ArrayList<>();
 
     @Column(name = "notes", columnDefinition = "text")
     private String notes;
 
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "custom_fields", columnDefinition = "jsonb")
     private Map<String, Object> customFields;
 
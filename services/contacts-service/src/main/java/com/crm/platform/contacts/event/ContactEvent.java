@@ -17,6 +17,8 @@ public class ContactEvent {
     private Contact contactData;
     private Contact previousContactData;
     private List<UUID> mergedContactIds;
+    private UUID relatedContactId;
+    private List<UUID> contactIds;
 
     public UUID getEventId() {
         return eventId;
@@ -89,4 +91,20 @@ public class ContactEvent {
     public void setMergedContactIds(List<UUID> mergedContactIds) {
         this.mergedContactIds = mergedContactIds;
     }
-}
\ No newline at end of file
+
+    public UUID getRelatedContactId() {
+        return relatedContactId;
+    }
+
+    public void setRelatedContactId(UUID relatedContactId) {
+        this.relatedContactId = relatedContactId;
+    }
+
+    public List<UUID> getContactIds() {
+        return contactIds;
+    }
+
+    public void setContactIds(List<UUID> contactIds) {
+        this.contactIds = contactIds;
+    }
+}
@@ -0,0 +1,67 @@
+package com.crm.platform.contacts.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * RFC 4180 CSV rows. Fields holding the delimiter, a quote or a line break are quoted. Values
+ * that a spreadsheet would evaluate as a formula, including those behind a leading tab or carriage
+ * return, are prefixed with a quote. Only signed values made up entirely of digits, spaces,
+ * parentheses, dots and dashes, such as phone numbers, are left as they are.
+ */
+public class CsvExportWriter implements ExportRowWriter {
+
+    private static final Pattern SIGNED_NUMBER = Pattern.compile("[+-][\\d(][\\d\\s().-]*");
+
+    private final Writer out;
+
+    public CsvExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(List<String> labels) throws IOException {
+        writeRow(labels.toArray());
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i] instanceof Number ? values[i].toString() : neutralize(values[i].toString()));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String neutralize(String value) {
+        if (!value.isEmpty()) {
+            char first = value.charAt(0);
+            boolean signed = (first == '+' || first == '-') && !SIGNED_NUMBER.matcher(value).matches();
+            if (first == '=' || first == '@' || first == '\t' || first == '\r' || signed) {
+                return "'" + value;
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,121 @@
+package com.crm.platform.contacts.exporter;
+
+import com.crm.platform.contacts.exception.ContactBusinessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A finished export as the ordered files that make up its content. Byte ranges are served across
+ * file boundaries, so an interrupted download resumes with a Range request.
+ */
+public class ExportDownload {
+
+    private final String fileName;
+    private final String contentType;
+    private final List<Path> files;
+    private final long[] sizes;
+    private final long length;
+
+    public ExportDownload(String fileName, String contentType, List<Path> files, long[] sizes) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.files = files;
+        this.sizes = sizes;
+        long total = 0;
+        for (long size : sizes) {
+            total += size;
+        }
+        this.length = total;
+    }
+
+    /**
+     * Resolve a single-range Range header to inclusive start and end offsets. Returns null when
+     * there is no header, or when its last byte is before its first, which RFC 9110 makes an
+     * invalid range to be ignored; throws INVALID_RANGE when the range cannot be satisfied.
+     */
+    public long[] resolveRange(String rangeHeader) {
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return null;
+        }
+        String spec = rangeHeader.trim();
+        if (!spec.startsWith("bytes=") || spec.indexOf(',') >= 0) {
+            throw new ContactBusinessException("INVALID_RANGE", "Only single byte ranges are supported");
+        }
+        spec = spec.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                if (dash == spec.length() - 1) {
+                    end = length - 1;
+                } else {
+                    end = Long.parseLong(spec.substring(dash + 1));
+                    if (end < start) {
+                        return null;
+                    }
+                    end = Math.min(end, length - 1);
+                }
+            }
+            if (start > end || start >= length) {
+                throw new ContactBusinessException("INVALID_RANGE", "Range not satisfiable");
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new ContactBusinessException("INVALID_RANGE", "Malformed range: " + rangeHeader);
+        }
+    }
+
+    /**
+     * Copy bytes start to end, inclusive, of the export to the output
+     */
+    public void transfer(OutputStream out, long start, long end) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long offset = 0;
+        for (int i = 0; i < files.size() && offset <= end; i++) {
+            long fileStart = offset;
+            long fileEnd = offset + sizes[i] - 1;
+            offset += sizes[i];
+            if (fileEnd < start) {
+                continue;
+            }
+            long from = Math.max(start, fileStart) - fileStart;
+            long count = Math.min(end, fileEnd) - fileStart - from + 1;
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                while (count > 0) {
+                    long sent = channel.transferTo(from, count, target);
+                    if (sent <= 0) {
+                        throw new IOException("Export file " + files.get(i).getFileName() + " is shorter than recorded");
+                    }
+                    from += sent;
+                    count -= sent;
+                }
+            }
+        }
+        out.flush();
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,14 @@
+package com.crm.platform.contacts.exporter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes export rows to one chunk of the output. Values are strings, numbers or null.
+ */
+public interface ExportRowWriter {
+
+    void writeHeader(List<String> labels) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+}
@@ -0,0 +1,91 @@
+package com.crm.platform.contacts.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Assembles row chunks written by XlsxSheetWriter into a workbook, streaming each chunk file into
+ * the zip in turn. A worksheet holds at most 1,048,576 rows, so the caller groups the chunks into
+ * sheets; every sheet starts with the header row.
+ */
+public class XlsxPackager {
+
+    public static final int MAX_SHEET_ROWS = 1_048_576;
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private XlsxPackager() {}
+
+    public static void write(Path target, List<List<Path>> sheets, List<String> labels) throws IOException {
+        int sheetCount = Math.max(1, sheets.size());
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(target))) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+
+            StringBuilder contentTypes = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ")
+                .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+            StringBuilder workbook = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+            StringBuilder workbookRels = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+            for (int i = 1; i <= sheetCount; i++) {
+                contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                    .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+                workbook.append("<sheet name=\"Contacts").append(i > 1 ? " " + i : "").append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+                workbookRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+            }
+            contentTypes.append("</Types>");
+            workbook.append("</sheets></workbook>");
+            workbookRels.append("</Relationships>");
+
+            writeEntry(zip, out, "[Content_Types].xml", contentTypes.toString());
+            writeEntry(zip, out, "_rels/.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\"><Relationship Id=\"rId1\" Type=\"" + REL_NS +
+                "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+            writeEntry(zip, out, "xl/workbook.xml", workbook.toString());
+            writeEntry(zip, out, "xl/_rels/workbook.xml.rels", workbookRels.toString());
+
+            for (int i = 0; i < sheetCount; i++) {
+                zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + (i + 1) + ".xml"));
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+                out.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+                new XlsxSheetWriter(out).writeHeader(labels);
+                out.flush();
+                if (i < sheets.size()) {
+                    for (Path chunk : sheets.get(i)) {
+                        Files.copy(chunk, zip);
+                    }
+                }
+                out.write("</sheetData></worksheet>");
+                out.flush();
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, Writer out, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,68 @@
+package com.crm.platform.contacts.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * SpreadsheetML row fragments for one chunk of a worksheet. Text is written as inline strings so
+ * chunks need no shared string table and can be joined in any number into a sheet; rows carry no
+ * row numbers, which lets the packager distribute chunks over sheets freely.
+ */
+public class XlsxSheetWriter implements ExportRowWriter {
+
+    private final Writer out;
+
+    public XlsxSheetWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(List<String> labels) throws IOException {
+        writeRow(labels.toArray());
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        out.write("<row>");
+        for (Object value : values) {
+            if (value == null) {
+                out.write("<c/>");
+            } else if (value instanceof Number) {
+                out.write("<c><v>");
+                out.write(value.toString());
+                out.write("</v></c>");
+            } else {
+                out.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(value.toString());
+                out.write("</t></is></c>");
+            }
+        }
+        out.write("</row>");
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    out.write("&lt;");
+                    break;
+                case '>':
+                    out.write("&gt;");
+                    break;
+                case '&':
+                    out.write("&amp;");
+                    break;
+                case '"':
+                    out.write("&quot;");
+                    break;
+                default:
+                    // Control characters other than tab and line breaks are not allowed in XML
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+            }
+        }
+    }
+}
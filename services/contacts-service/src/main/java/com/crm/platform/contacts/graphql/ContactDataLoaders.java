@@ -0,0 +1,69 @@
+package com.crm.platform.contacts.graphql;
+
+import com.crm.platform.common.graphql.DataLoaderRegistrar;
+import com.crm.platform.common.graphql.GraphQLController;
+import com.crm.platform.common.util.TenantContext;
+import com.crm.platform.contacts.dto.ContactActivityResponse;
+import com.crm.platform.contacts.dto.ContactActivityStats;
+import com.crm.platform.contacts.dto.ContactRelationshipResponse;
+import com.crm.platform.contacts.dto.ContactResponse;
+import com.crm.platform.contacts.service.ContactActivityService;
+import com.crm.platform.contacts.service.ContactService;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Batch loaders for the nested fields of Contact, keyed by contact id. Each loader resolves every
+ * contact of a request level with one query, so a page of contacts costs the same number of
+ * queries whatever its size. Loaders are registered per request and cache only for that request.
+ */
+@Component
+public class ContactDataLoaders implements DataLoaderRegistrar {
+
+    public static final String CONTACT_LOADER = "contactLoader";
+    public static final String RELATIONSHIPS_LOADER = "contactRelationshipsLoader";
+    public static final String ACTIVITIES_LOADER = "contactActivitiesLoader";
+    public static final String ACTIVITY_STATS_LOADER = "contactActivityStatsLoader";
+
+    private final ContactService contactService;
+    private final ContactActivityService activityService;
+
+    public ContactDataLoaders(ContactService contactService, ContactActivityService activityService) {
+        this.contactService = contactService;
+        this.activityService = activityService;
+    }
+
+    @Override
+    public void registerDataLoaders(DataLoaderRegistry registry, GraphQLController.GraphQLContext context) {
+        // Batches can be dispatched off the request thread, so the tenant is taken from it now
+        UUID tenantId = TenantContext.getTenantId();
+
+        registry.register(CONTACT_LOADER, DataLoaderFactory.<UUID, ContactResponse>newMappedDataLoader(
+            contactIds -> CompletableFuture.completedFuture(withTenant(tenantId, () -> contactService.getContactsById(contactIds)))));
+
+        registry.register(RELATIONSHIPS_LOADER, DataLoaderFactory.<UUID, List<ContactRelationshipResponse>>newMappedDataLoader(
+            contactIds -> CompletableFuture.completedFuture(withTenant(tenantId, () -> contactService.getContactRelationships(contactIds)))));
+
+        registry.register(ACTIVITIES_LOADER, DataLoaderFactory.<UUID, List<ContactActivityResponse>>newMappedDataLoader(
+            contactIds -> CompletableFuture.completedFuture(activityService.getRecentActivities(tenantId, contactIds))));
+
+        registry.register(ACTIVITY_STATS_LOADER, DataLoaderFactory.<UUID, ContactActivityStats>newMappedDataLoader(
+            contactIds -> CompletableFuture.completedFuture(activityService.getActivityStats(tenantId, contactIds))));
+    }
+
+    private static <T> T withTenant(UUID tenantId, Supplier<T> load) {
+        UUID previous = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenantId);
+        try {
+            return load.get();
+        } finally {
+            TenantContext.setTenantId(previous);
+        }
+    }
+}
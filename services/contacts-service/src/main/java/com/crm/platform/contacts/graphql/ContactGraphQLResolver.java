@@ -1,19 +1,22 @@
 package com.crm.platform.contacts.graphql;
 
-import com.crm.platform.common.dto.*;
+import com.crm.platform.common.dto.ErrorDetail;
 import com.crm.platform.common.graphql.GraphQLResolver;
 import com.crm.platform.contacts.dto.*;
+import com.crm.platform.contacts.entity.ContactStatus;
 import com.crm.platform.contacts.service.ContactService;
 import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.idl.RuntimeWiring;
 import org.dataloader.DataLoader;
-import org.dataloader.DataLoaderRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -24,12 +27,10 @@ import java.util.concurrent.CompletableFuture;
 public class ContactGraphQLResolver implements GraphQLResolver {
     
     private final ContactService contactService;
-    private final DataLoaderRegistry dataLoaderRegistry;
     
     @Autowired
-    public ContactGraphQLResolver(ContactService contactService, DataLoaderRegistry dataLoaderRegistry) {
+    public ContactGraphQLResolver(ContactService contactService) {
         this.contactService = contactService;
-        this.dataLoaderRegistry = dataLoaderRegistry;
     }
     
     @Override
@@ -52,9 +53,7 @@ public class ContactGraphQLResolver implements GraphQLResolver {
                 .dataFetcher("createContact", createContact())
                 .dataFetcher("updateContact", updateContact())
                 .dataFetcher("deleteContact", deleteContact())
-                .dataFetcher("bulkContactOperation", bulkContactOperation())
                 .dataFetcher("createContactRelationship", createContactRelationship())
-                .dataFetcher("updateContactRelationship", updateContactRelationship())
                 .dataFetcher("deleteContactRelationship", deleteContactRelationship())
                 .dataFetcher("mergeContacts", mergeContacts())
                 .dataFetcher("enrichContact", enrichContact())
@@ -72,24 +71,22 @@ public class ContactGraphQLResolver implements GraphQLResolver {
             
             // Field resolvers for Contact type
             .type("Contact", typeWiring -> typeWiring
-                .dataFetcher("account", getContactAccount())
-                .dataFetcher("owner", getContactOwner())
                 .dataFetcher("relationships", getContactRelationshipsField())
                 .dataFetcher("activities", getContactActivitiesField())
-                .dataFetcher("deals", getContactDeals())
-                .dataFetcher("opportunities", getContactOpportunities())
                 .dataFetcher("fullName", getContactFullName())
                 .dataFetcher("isActive", getContactIsActive())
                 .dataFetcher("lastActivityDate", getContactLastActivityDate())
                 .dataFetcher("nextActivityDate", getContactNextActivityDate())
                 .dataFetcher("totalActivities", getContactTotalActivities())
-                .dataFetcher("openDeals", getContactOpenDeals())
-                .dataFetcher("closedDeals", getContactClosedDeals())
-                .dataFetcher("totalDealValue", getContactTotalDealValue())
                 .dataFetcher("daysSinceLastContact", getContactDaysSinceLastContact())
                 .dataFetcher("engagementScore", getContactEngagementScore())
             )
             
+            // Field resolvers for ContactRelationship type
+            .type("ContactRelationship", typeWiring -> typeWiring
+                .dataFetcher("relatedContact", getRelationshipRelatedContact())
+            )
+            
             // Connection resolvers
             .type("ContactConnection", typeWiring -> typeWiring
                 .dataFetcher("aggregations", getContactAggregations())
@@ -100,31 +97,29 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     private DataFetcher<ContactResponse> getContactById() {
         return environment -> {
             UUID id = UUID.fromString(environment.getArgument("id"));
-            List<String> include = environment.getArgument("include");
-            List<String> fields = environment.getArgument("fields");
-            return contactService.getContact(id, include, fields);
+            return contactService.getContact(id);
         };
     }
     
     private DataFetcher<ContactResponse> getContactByEmail() {
         return environment -> {
             String email = environment.getArgument("email");
-            return contactService.getContactByEmail(email);
+            return contactService.getContactByEmail(email).orElse(null);
         };
     }
     
     private DataFetcher<ContactConnection> getContacts() {
         return environment -> {
-            PageRequest pageRequest = buildPageRequest(environment);
-            Page<ContactResponse> page = contactService.findAllWithAdvancedFiltering(pageRequest);
+            ContactSearchRequest searchRequest = buildSearchRequest(environment);
+            Page<ContactResponse> page = contactService.searchContacts(searchRequest);
             return buildContactConnection(page);
         };
     }
     
     private DataFetcher<ContactConnection> searchContacts() {
         return environment -> {
-            PageRequest searchInput = environment.getArgument("input");
-            Page<ContactResponse> page = contactService.searchContactsAdvanced(searchInput);
+            ContactSearchRequest searchInput = environment.getArgument("input");
+            Page<ContactResponse> page = contactService.searchContacts(searchInput);
             return buildContactConnection(page);
         };
     }
@@ -139,9 +134,7 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     private DataFetcher<List<ContactResponse>> findDuplicateContacts() {
         return environment -> {
             UUID contactId = UUID.fromString(environment.getArgument("contactId"));
-            Double threshold = environment.getArgument("threshold");
-            List<String> matchFields = environment.getArgument("matchFields");
-            return contactService.findDuplicateContacts(contactId, threshold, matchFields);
+            return contactService.findDuplicateContacts(contactId);
         };
     }
     
@@ -157,16 +150,8 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     private DataFetcher<ContactActivityConnection> getContactActivities() {
         return environment -> {
             UUID contactId = UUID.fromString(environment.getArgument("contactId"));
-            List<String> types = environment.getArgument("types");
-            PageRequest pageRequest = buildPageRequest(environment);
-            
-            CompletableFuture<List<ContactActivityResponse>> activitiesFuture = 
-                contactService.getContactActivitiesAsync(contactId, types, pageRequest.getPage(), pageRequest.getLimit());
-            
-            return activitiesFuture.thenApply(activities -> {
-                // Build connection from activities
-                return buildContactActivityConnection(activities, pageRequest);
-            }).join();
+            List<ContactActivityResponse> activities = contactService.getRecentActivities(contactId);
+            return buildContactActivityConnection(activities);
         };
     }
     
@@ -177,7 +162,7 @@ public class ContactGraphQLResolver implements GraphQLResolver {
             UUID userId = getCurrentUserId();
             
             try {
-                ContactResponse contact = contactService.createContact(input, userId, false);
+                ContactResponse contact = contactService.createContact(input, userId);
                 return new ContactMutationResult(true, contact, null, null);
             } catch (Exception e) {
                 return new ContactMutationResult(false, null, List.of(createGraphQLError(e)), null);
@@ -214,36 +199,14 @@ public class ContactGraphQLResolver implements GraphQLResolver {
         };
     }
     
-    private DataFetcher<BulkOperationResponse<ContactResponse>> bulkContactOperation() {
-        return environment -> {
-            BulkOperationRequest<ContactRequest> input = environment.getArgument("input");
-            UUID userId = getCurrentUserId();
-            return contactService.performBulkContactOperation(input, userId);
-        };
-    }
-    
     private DataFetcher<ContactRelationshipMutationResult> createContactRelationship() {
         return environment -> {
+            UUID contactId = UUID.fromString(environment.getArgument("contactId"));
             ContactRelationshipRequest input = environment.getArgument("input");
             UUID userId = getCurrentUserId();
             
             try {
-                ContactRelationshipResponse relationship = contactService.createContactRelationship(input, userId);
-                return new ContactRelationshipMutationResult(true, relationship, null);
-            } catch (Exception e) {
-                return new ContactRelationshipMutationResult(false, null, List.of(createGraphQLError(e)));
-            }
-        };
-    }
-    
-    private DataFetcher<ContactRelationshipMutationResult> updateContactRelationship() {
-        return environment -> {
-            UUID id = UUID.fromString(environment.getArgument("id"));
-            ContactRelationshipRequest input = environment.getArgument("input");
-            UUID userId = getCurrentUserId();
-            
-            try {
-                ContactRelationshipResponse relationship = contactService.updateContactRelationship(id, input, userId);
+                ContactRelationshipResponse relationship = contactService.createContactRelationship(contactId, input, userId);
                 return new ContactRelationshipMutationResult(true, relationship, null);
             } catch (Exception e) {
                 return new ContactRelationshipMutationResult(false, null, List.of(createGraphQLError(e)));
@@ -253,11 +216,12 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     
     private DataFetcher<ContactRelationshipMutationResult> deleteContactRelationship() {
         return environment -> {
+            UUID contactId = UUID.fromString(environment.getArgument("contactId"));
             UUID id = UUID.fromString(environment.getArgument("id"));
             UUID userId = getCurrentUserId();
             
             try {
-                contactService.deleteContactRelationship(id, userId);
+                contactService.deleteContactRelationship(contactId, id, userId);
                 return new ContactRelationshipMutationResult(true, null, null);
             } catch (Exception e) {
                 return new ContactRelationshipMutationResult(false, null, List.of(createGraphQLError(e)));
@@ -267,11 +231,12 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     
     private DataFetcher<ContactMutationResult> mergeContacts() {
         return environment -> {
+            UUID primaryContactId = UUID.fromString(environment.getArgument("primaryContactId"));
             ContactMergeRequest input = environment.getArgument("input");
             UUID userId = getCurrentUserId();
             
             try {
-                ContactResponse contact = contactService.mergeContacts(input.getPrimaryContactId(), input, userId);
+                ContactResponse contact = contactService.mergeContacts(primaryContactId, input, userId);
                 return new ContactMutationResult(true, contact, null, null);
             } catch (Exception e) {
                 return new ContactMutationResult(false, null, List.of(createGraphQLError(e)), null);
@@ -337,55 +302,22 @@ public class ContactGraphQLResolver implements GraphQLResolver {
         };
     }
     
-    // Field resolvers for Contact type
-    private DataFetcher<Object> getContactAccount() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            if (contact.getAccountId() == null) {
-                return null;
-            }
-            
-            // Use DataLoader for efficient batching
-            DataLoader<UUID, Object> accountLoader = dataLoaderRegistry.getDataLoader("accountLoader");
-            return accountLoader.load(contact.getAccountId());
-        };
-    }
-    
-    private DataFetcher<Object> getContactOwner() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            DataLoader<UUID, Object> userLoader = dataLoaderRegistry.getDataLoader("userLoader");
-            return userLoader.load(contact.getOwnerId());
-        };
-    }
-    
-    private DataFetcher<List<ContactRelationshipResponse>> getContactRelationshipsField() {
+    // Field resolvers for Contact type, batched per request level through DataLoaders
+    private DataFetcher<CompletableFuture<List<ContactRelationshipResponse>>> getContactRelationshipsField() {
         return environment -> {
             ContactResponse contact = environment.getSource();
-            return contactService.getContactRelationships(contact.getId());
+            DataLoader<UUID, List<ContactRelationshipResponse>> loader =
+                environment.getDataLoader(ContactDataLoaders.RELATIONSHIPS_LOADER);
+            return loader.load(contact.getId());
         };
     }
     
     private DataFetcher<CompletableFuture<List<ContactActivityResponse>>> getContactActivitiesField() {
         return environment -> {
             ContactResponse contact = environment.getSource();
-            return contactService.getContactActivitiesAsync(contact.getId(), null, 1, 20);
-        };
-    }
-    
-    private DataFetcher<Object> getContactDeals() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            DataLoader<UUID, List<Object>> contactDealsLoader = dataLoaderRegistry.getDataLoader("contactDealsLoader");
-            return contactDealsLoader.load(contact.getId());
-        };
-    }
-    
-    private DataFetcher<Object> getContactOpportunities() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            DataLoader<UUID, List<Object>> contactOpportunitiesLoader = dataLoaderRegistry.getDataLoader("contactOpportunitiesLoader");
-            return contactOpportunitiesLoader.load(contact.getId());
+            DataLoader<UUID, List<ContactActivityResponse>> loader =
+                environment.getDataLoader(ContactDataLoaders.ACTIVITIES_LOADER);
+            return loader.load(contact.getId());
         };
     }
     
@@ -399,64 +331,36 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     private DataFetcher<Boolean> getContactIsActive() {
         return environment -> {
             ContactResponse contact = environment.getSource();
-            return "ACTIVE".equals(contact.getStatus());
-        };
-    }
-    
-    private DataFetcher<Object> getContactLastActivityDate() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            // This would be computed from activities
-            return contactService.getLastActivityDate(contact.getId());
-        };
-    }
-    
-    private DataFetcher<Object> getContactNextActivityDate() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.getNextActivityDate(contact.getId());
+            return contact.getContactStatus() == ContactStatus.ACTIVE;
         };
     }
     
-    private DataFetcher<Integer> getContactTotalActivities() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.getTotalActivitiesCount(contact.getId());
-        };
+    private DataFetcher<CompletableFuture<Instant>> getContactLastActivityDate() {
+        return environment -> loadActivityStats(environment).thenApply(ContactActivityStats::getLastActivityDate);
     }
     
-    private DataFetcher<Integer> getContactOpenDeals() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.getOpenDealsCount(contact.getId());
-        };
+    private DataFetcher<CompletableFuture<Instant>> getContactNextActivityDate() {
+        return environment -> loadActivityStats(environment).thenApply(ContactActivityStats::getNextActivityDate);
     }
     
-    private DataFetcher<Integer> getContactClosedDeals() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.getClosedDealsCount(contact.getId());
-        };
+    private DataFetcher<CompletableFuture<Integer>> getContactTotalActivities() {
+        return environment -> loadActivityStats(environment).thenApply(ContactActivityStats::getTotalActivities);
     }
     
-    private DataFetcher<Object> getContactTotalDealValue() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.getTotalDealValue(contact.getId());
-        };
+    private DataFetcher<CompletableFuture<Integer>> getContactDaysSinceLastContact() {
+        return environment -> loadActivityStats(environment).thenApply(ContactActivityStats::getDaysSinceLastContact);
     }
     
-    private DataFetcher<Integer> getContactDaysSinceLastContact() {
-        return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.getDaysSinceLastContact(contact.getId());
-        };
+    private DataFetcher<CompletableFuture<Double>> getContactEngagementScore() {
+        return environment -> loadActivityStats(environment).thenApply(ContactActivityStats::getEngagementScore);
     }
     
-    private DataFetcher<Double> getContactEngagementScore() {
+    // Field resolvers for ContactRelationship type
+    private DataFetcher<CompletableFuture<ContactResponse>> getRelationshipRelatedContact() {
         return environment -> {
-            ContactResponse contact = environment.getSource();
-            return contactService.calculateEngagementScore(contact.getId());
+            ContactRelationshipResponse relationship = environment.getSource();
+            DataLoader<UUID, ContactResponse> loader = environment.getDataLoader(ContactDataLoaders.CONTACT_LOADER);
+            return loader.load(relationship.getRelatedContactId());
         };
     }
     
@@ -468,40 +372,30 @@ public class ContactGraphQLResolver implements GraphQLResolver {
     }
     
     // Helper methods
-    private PageRequest buildPageRequest(graphql.schema.DataFetchingEnvironment environment) {
-        PageRequest pageRequest = new PageRequest();
+    private CompletableFuture<ContactActivityStats> loadActivityStats(DataFetchingEnvironment environment) {
+        ContactResponse contact = environment.getSource();
+        DataLoader<UUID, ContactActivityStats> loader = environment.getDataLoader(ContactDataLoaders.ACTIVITY_STATS_LOADER);
+        return loader.load(contact.getId());
+    }
+    
+    private ContactSearchRequest buildSearchRequest(DataFetchingEnvironment environment) {
+        ContactSearchRequest searchRequest = new ContactSearchRequest();
         
         // Extract pagination parameters
-        Object pageInput = environment.getArgument("page");
+        Map<String, Object> pageInput = environment.getArgument("page");
         if (pageInput != null) {
-            // Map pageInput to PageRequest
-            // This would involve proper mapping from GraphQL input to PageRequest
-        }
-        
-        // Extract sort parameters
-        List<Object> sortInput = environment.getArgument("sort");
-        if (sortInput != null) {
-            // Map sortInput to SortCriteria
-        }
-        
-        // Extract filter parameters
-        List<Object> filtersInput = environment.getArgument("filters");
-        if (filtersInput != null) {
-            // Map filtersInput to FilterCriteria
+            // PageInput pages are 1-based
+            searchRequest.setPage(((Integer) pageInput.getOrDefault("page", 1)) - 1);
+            searchRequest.setSize((Integer) pageInput.getOrDefault("limit", 20));
         }
         
         // Extract search parameters
         String search = environment.getArgument("search");
         if (search != null) {
-            pageRequest.setSearch(search);
-        }
-        
-        List<String> searchFields = environment.getArgument("searchFields");
-        if (searchFields != null) {
-            pageRequest.setSearchFields(searchFields);
+            searchRequest.setQuery(search);
         }
         
-        return pageRequest;
+        return searchRequest;
     }
     
     private ContactConnection buildContactConnection(Page<ContactResponse> page) {
@@ -510,7 +404,7 @@ public class ContactGraphQLResolver implements GraphQLResolver {
         return new ContactConnection(); // Placeholder
     }
     
-    private ContactActivityConnection buildContactActivityConnection(List<ContactActivityResponse> activities, PageRequest pageRequest) {
+    private ContactActivityConnection buildContactActivityConnection(List<ContactActivityResponse> activities) {
         // Build GraphQL connection from activity list
         return new ContactActivityConnection(); // Placeholder
     }
@@ -0,0 +1,134 @@
+package com.crm.platform.contacts.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: quoted fields may contain the delimiter, doubled quotes and line
+ * breaks; records end at LF or CRLF. Only the current record is held in memory.
+ */
+public class CsvRowReader implements ImportRowReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CountingInputStream input;
+    private final Reader reader;
+    private final char delimiter;
+    private final long totalBytes;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> record = new ArrayList<>();
+    private int position;
+    private int limit;
+    private long rowNumber;
+    private boolean started;
+
+    public CsvRowReader(InputStream input, Charset charset, char delimiter, long totalBytes) {
+        this.input = new CountingInputStream(input);
+        this.reader = new InputStreamReader(this.input, charset);
+        this.delimiter = delimiter;
+        this.totalBytes = totalBytes;
+    }
+
+    @Override
+    public String[] next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c < 0) {
+            return null;
+        }
+
+        record.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted field in row " + (rowNumber + 1));
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n') {
+                endField(wasQuoted);
+                break;
+            } else if (c == '\r') {
+                int following = read();
+                if (following != '\n' && following >= 0) {
+                    position--;
+                }
+                endField(wasQuoted);
+                break;
+            } else if (c == delimiter) {
+                endField(wasQuoted);
+                wasQuoted = false;
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+
+        rowNumber++;
+        return record.toArray(new String[0]);
+    }
+
+    private void endField(boolean wasQuoted) {
+        record.add(field.length() == 0 && !wasQuoted ? null : field.toString());
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public long bytesRead() {
+        return input.getCount();
+    }
+
+    @Override
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,189 @@
+package com.crm.platform.contacts.importer;
+
+import com.crm.platform.contacts.exception.ContactBusinessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Downloads import files, only from the configured hosts and never from private addresses.
+ *
+ * A URL's host must be on the allowlist; an entry written as *.example.com also admits the
+ * subdomains of example.com. Every address the host resolves to must be public: loopback,
+ * link-local, site-local, unique-local, wildcard and multicast addresses are refused, so an
+ * import cannot be pointed at the instance's own network or at cloud metadata endpoints.
+ * Redirects are followed here rather than by the HTTP client, so that every hop passes the
+ * same checks. An empty allowlist refuses every URL.
+ *
+ * The client resolves the host again when it connects, so the address check narrows rather than
+ * closes the window for a host whose DNS answer changes in between; the allowlist is what keeps
+ * out hosts that are not trusted.
+ */
+public class ImportFileSource {
+
+    /**
+     * Resolves a host to its addresses; replaced in tests.
+     */
+    interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    private static final Set<Integer> REDIRECTS = Set.of(301, 302, 303, 307, 308);
+
+    private final HttpClient httpClient;
+    private final Set<String> allowedHosts;
+    private final List<String> allowedSuffixes;
+    private final int maxRedirects;
+    private final Resolver resolver;
+
+    /**
+     * The client must not follow redirects itself.
+     */
+    public ImportFileSource(HttpClient httpClient, Collection<String> allowedHosts, int maxRedirects) {
+        this(httpClient, allowedHosts, maxRedirects, InetAddress::getAllByName);
+    }
+
+    ImportFileSource(HttpClient httpClient, Collection<String> allowedHosts, int maxRedirects, Resolver resolver) {
+        this.httpClient = httpClient;
+        Set<String> hosts = allowedHosts.stream()
+            .map(host -> host.trim().toLowerCase(Locale.ROOT))
+            .filter(host -> !host.isEmpty())
+            .collect(Collectors.toSet());
+        this.allowedHosts = hosts.stream().filter(host -> !host.startsWith("*.")).collect(Collectors.toSet());
+        this.allowedSuffixes = hosts.stream().filter(host -> host.startsWith("*.")).map(host -> host.substring(1)).toList();
+        this.maxRedirects = maxRedirects;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Parse the URL and check that it may be downloaded.
+     */
+    public URI check(String fileUrl) {
+        URI uri;
+        try {
+            uri = URI.create(fileUrl.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ContactBusinessException("INVALID_FILE_URL", "Invalid import file URL");
+        }
+        check(uri);
+        return uri;
+    }
+
+    /**
+     * Open the file, following at most maxRedirects redirects. The caller closes the body.
+     */
+    public HttpResponse<InputStream> open(String fileUrl) throws IOException, InterruptedException {
+        URI uri = check(fileUrl);
+        for (int redirects = 0; ; redirects++) {
+            HttpResponse<InputStream> response =
+                httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+            int status = response.statusCode();
+            if (status == 200) {
+                return response;
+            }
+            response.body().close();
+            if (!REDIRECTS.contains(status)) {
+                throw new IOException("Import file could not be downloaded: HTTP " + status);
+            }
+            if (redirects == maxRedirects) {
+                throw new IOException("Import file could not be downloaded: more than " + maxRedirects + " redirects");
+            }
+            String location = response.headers().firstValue("Location")
+                .orElseThrow(() -> new IOException("Import file could not be downloaded: HTTP " + status + " without a location"));
+            try {
+                uri = uri.resolve(location.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Import file could not be downloaded: invalid redirect location");
+            }
+            check(uri);
+        }
+    }
+
+    private void check(URI uri) {
+        String scheme = uri.getScheme();
+        if (!"https".equalsIgnoreCase(scheme) && !"http".equalsIgnoreCase(scheme)) {
+            throw new ContactBusinessException("INVALID_FILE_URL", "Import files must be given as an http(s) URL");
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            throw new ContactBusinessException("INVALID_FILE_URL", "Invalid import file URL");
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        if (!isAllowed(host)) {
+            throw new ContactBusinessException("FILE_HOST_NOT_ALLOWED", "Import files cannot be downloaded from " + host);
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = resolver.resolve(host);
+        } catch (UnknownHostException e) {
+            throw new ContactBusinessException("INVALID_FILE_URL", "Import file host cannot be resolved: " + host);
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new ContactBusinessException("FILE_HOST_NOT_ALLOWED",
+                    "Import files cannot be downloaded from private address of " + host);
+            }
+        }
+    }
+
+    private boolean isAllowed(String host) {
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        if (allowedHosts.contains(host)) {
+            return true;
+        }
+        for (String suffix : allowedSuffixes) {
+            if (host.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+            || address.isAnyLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // Unique local fc00::/7, and IPv4-mapped addresses judged as the IPv4 address
+            if ((bytes[0] & 0xfe) == 0xfc) {
+                return false;
+            }
+            if (isIpv4Mapped(bytes)) {
+                try {
+                    byte[] ipv4 = new byte[] {bytes[12], bytes[13], bytes[14], bytes[15]};
+                    return isPublic(InetAddress.getByAddress(ipv4));
+                } catch (UnknownHostException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // Shared address space 100.64.0.0/10 and "this network" 0.0.0.0/8
+        return !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64) && bytes[0] != 0;
+    }
+
+    private static boolean isIpv4Mapped(byte[] bytes) {
+        for (int i = 0; i < 10; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return bytes[10] == (byte) 0xff && bytes[11] == (byte) 0xff;
+    }
+}
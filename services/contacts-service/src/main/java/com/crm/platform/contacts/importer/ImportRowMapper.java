@@ -0,0 +1,263 @@
+package com.crm.platform.contacts.importer;
+
+import com.crm.platform.contacts.dto.ContactRequest;
+import com.crm.platform.contacts.entity.ContactMethod;
+import com.crm.platform.contacts.entity.ContactStatus;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maps the cells of an import row onto a contact request.
+ *
+ * The column layout is resolved once per import: each column gets the contact field it feeds,
+ * so mapping a row is a single pass over its cells. Fields are named as in ContactRequest;
+ * mailingAddress.*, socialProfiles.* and customFields.* address keys inside the JSON fields.
+ * Without an explicit field mapping, header names are matched to field names ignoring case,
+ * spaces and underscores, and columns that match no field are ignored.
+ *
+ * Instances are immutable and shared by the import workers.
+ */
+public class ImportRowMapper {
+
+    public static final Set<String> FIELDS = Set.of(
+        "accountId", "firstName", "lastName", "email", "phone", "mobile", "title", "department",
+        "leadSource", "contactStatus", "leadScore", "doNotCall", "doNotEmail", "emailOptOut",
+        "preferredContactMethod", "timezone", "language", "tags", "notes", "ownerId");
+
+    private static final List<String> MAP_FIELDS = List.of("mailingAddress.", "socialProfiles.", "customFields.");
+
+    private static final Map<String, String> FIELDS_BY_KEY = new HashMap<>();
+
+    static {
+        for (String field : FIELDS) {
+            FIELDS_BY_KEY.put(key(field), field);
+        }
+    }
+
+    private final String[] targets;
+    private final Map<String, Object> defaultValues;
+
+    /**
+     * @param header       header row, or null when the file has none
+     * @param fieldMapping source column (header name, or 0-based index) to contact field
+     */
+    public ImportRowMapper(String[] header, Map<String, String> fieldMapping, Map<String, Object> defaultValues) {
+        Map<Integer, String> columns = new HashMap<>();
+        if (fieldMapping == null || fieldMapping.isEmpty()) {
+            if (header == null) {
+                throw new ContactBusinessException("INVALID_FIELD_MAPPING",
+                    "A field mapping is required for files without a header row");
+            }
+            for (int i = 0; i < header.length; i++) {
+                String field = header[i] != null ? resolveField(header[i].trim()) : null;
+                if (field != null) {
+                    columns.put(i, field);
+                }
+            }
+        } else {
+            for (Map.Entry<String, String> mapping : fieldMapping.entrySet()) {
+                String field = mapping.getValue() != null ? resolveField(mapping.getValue().trim()) : null;
+                if (field == null) {
+                    throw new ContactBusinessException("INVALID_FIELD_MAPPING",
+                        "Unknown contact field: " + mapping.getValue());
+                }
+                columns.put(columnOf(mapping.getKey(), header), field);
+            }
+        }
+        if (!columns.containsValue("firstName") && !hasDefault(defaultValues, "firstName")
+                || !columns.containsValue("lastName") && !hasDefault(defaultValues, "lastName")) {
+            throw new ContactBusinessException("INVALID_FIELD_MAPPING", "First and last name must be mapped");
+        }
+
+        int width = columns.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        this.targets = new String[width];
+        columns.forEach((column, field) -> targets[column] = field);
+
+        this.defaultValues = new LinkedHashMap<>();
+        if (defaultValues != null) {
+            for (Map.Entry<String, Object> value : defaultValues.entrySet()) {
+                String field = resolveField(value.getKey());
+                if (field == null) {
+                    throw new ContactBusinessException("INVALID_FIELD_MAPPING",
+                        "Unknown contact field in default values: " + value.getKey());
+                }
+                this.defaultValues.put(field, value.getValue());
+            }
+        }
+    }
+
+    /**
+     * Map one row. Returns null for a blank row; throws ContactBusinessException with the
+     * offending field and value in its details when a cell cannot be converted.
+     */
+    public ContactRequest map(String[] row) {
+        boolean blank = true;
+        for (String cell : row) {
+            if (cell != null && !cell.isBlank()) {
+                blank = false;
+                break;
+            }
+        }
+        if (blank) {
+            return null;
+        }
+
+        ContactRequest request = new ContactRequest();
+        for (Map.Entry<String, Object> value : defaultValues.entrySet()) {
+            Object defaultValue = value.getValue();
+            if (defaultValue instanceof Collection && "tags".equals(value.getKey())) {
+                List<String> tags = new ArrayList<>();
+                ((Collection<?>) defaultValue).forEach(tag -> tags.add(String.valueOf(tag)));
+                request.setTags(tags);
+            } else if (defaultValue != null) {
+                apply(request, value.getKey(), String.valueOf(defaultValue));
+            }
+        }
+
+        int width = Math.min(row.length, targets.length);
+        for (int i = 0; i < width; i++) {
+            if (targets[i] != null && row[i] != null) {
+                String cell = row[i].trim();
+                if (!cell.isEmpty()) {
+                    apply(request, targets[i], cell);
+                }
+            }
+        }
+        return request;
+    }
+
+    private static void apply(ContactRequest request, String field, String value) {
+        try {
+            switch (field) {
+                case "accountId" -> request.setAccountId(UUID.fromString(value));
+                case "firstName" -> request.setFirstName(value);
+                case "lastName" -> request.setLastName(value);
+                case "email" -> request.setEmail(value);
+                case "phone" -> request.setPhone(value);
+                case "mobile" -> request.setMobile(value);
+                case "title" -> request.setTitle(value);
+                case "department" -> request.setDepartment(value);
+                case "leadSource" -> request.setLeadSource(value);
+                case "contactStatus" -> request.setContactStatus(ContactStatus.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "leadScore" -> request.setLeadScore(parseInteger(value));
+                case "doNotCall" -> request.setDoNotCall(parseBoolean(value));
+                case "doNotEmail" -> request.setDoNotEmail(parseBoolean(value));
+                case "emailOptOut" -> request.setEmailOptOut(parseBoolean(value));
+                case "preferredContactMethod" ->
+                    request.setPreferredContactMethod(ContactMethod.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "timezone" -> request.setTimezone(value);
+                case "language" -> request.setLanguage(value);
+                case "tags" -> request.setTags(parseTags(value));
+                case "notes" -> request.setNotes(value);
+                case "ownerId" -> request.setOwnerId(UUID.fromString(value));
+                default -> applyMapField(request, field, value);
+            }
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> details = new HashMap<>();
+            details.put("field", field);
+            details.put("value", value);
+            throw new ContactBusinessException("INVALID_FIELD_VALUE", "Invalid value for " + field, details);
+        }
+    }
+
+    private static void applyMapField(ContactRequest request, String field, String value) {
+        int dot = field.indexOf('.');
+        String key = field.substring(dot + 1);
+        switch (field.substring(0, dot)) {
+            case "mailingAddress" -> {
+                if (request.getMailingAddress() == null) {
+                    request.setMailingAddress(new LinkedHashMap<>());
+                }
+                request.getMailingAddress().put(key, value);
+            }
+            case "socialProfiles" -> {
+                if (request.getSocialProfiles() == null) {
+                    request.setSocialProfiles(new LinkedHashMap<>());
+                }
+                request.getSocialProfiles().put(key, value);
+            }
+            default -> {
+                if (request.getCustomFields() == null) {
+                    request.setCustomFields(new LinkedHashMap<>());
+                }
+                request.getCustomFields().put(key, value);
+            }
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        double number = Double.parseDouble(value);
+        if (number != Math.rint(number)) {
+            throw new IllegalArgumentException("Not a whole number: " + value);
+        }
+        return (int) number;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1":
+                return true;
+            case "false", "no", "n", "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Not a boolean: " + value);
+        }
+    }
+
+    private static List<String> parseTags(String value) {
+        List<String> tags = new ArrayList<>();
+        for (String tag : value.split("[;,|]")) {
+            String trimmed = tag.trim();
+            if (!trimmed.isEmpty()) {
+                tags.add(trimmed);
+            }
+        }
+        return tags;
+    }
+
+    private static String resolveField(String name) {
+        for (String prefix : MAP_FIELDS) {
+            if (name.startsWith(prefix) && name.length() > prefix.length()) {
+                return name;
+            }
+        }
+        return FIELDS_BY_KEY.get(key(name));
+    }
+
+    private static int columnOf(String source, String[] header) {
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != null && header[i].trim().equalsIgnoreCase(source.trim())) {
+                    return i;
+                }
+            }
+        }
+        try {
+            int column = Integer.parseInt(source.trim());
+            if (column >= 0) {
+                return column;
+            }
+        } catch (NumberFormatException e) {
+            // Not a column index either
+        }
+        throw new ContactBusinessException("INVALID_FIELD_MAPPING", "Column not found in file: " + source);
+    }
+
+    private static boolean hasDefault(Map<String, Object> defaultValues, String field) {
+        return defaultValues != null && defaultValues.keySet().stream()
+            .anyMatch(key -> field.equals(resolveField(key)) && defaultValues.get(key) != null);
+    }
+
+    private static String key(String name) {
+        return name.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+}
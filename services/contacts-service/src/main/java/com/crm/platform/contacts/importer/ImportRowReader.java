@@ -0,0 +1,31 @@
+package com.crm.platform.contacts.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streaming source of import rows. Rows are read one at a time and never buffered as a whole,
+ * so memory use does not depend on the size of the file.
+ */
+public interface ImportRowReader extends Closeable {
+
+    /**
+     * Next row of cell values, or null at the end of the file. Empty cells are null.
+     */
+    String[] next() throws IOException;
+
+    /**
+     * Number of the row last returned, counting from 1 at the first row of the file
+     */
+    long rowNumber();
+
+    /**
+     * Bytes of the source consumed so far
+     */
+    long bytesRead();
+
+    /**
+     * Total bytes of the source, or -1 if unknown
+     */
+    long totalBytes();
+}
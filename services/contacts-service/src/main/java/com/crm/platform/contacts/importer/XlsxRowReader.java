@@ -0,0 +1,319 @@
+package com.crm.platform.contacts.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streaming reader for the first worksheet of an XLSX workbook.
+ *
+ * The sheet XML is pulled element by element with StAX, one row at a time. Spreadsheet writers
+ * put every distinct text value into the shared string table, which for a large contact file is
+ * about as big as the sheet itself; the table is therefore spilled to temporary files and
+ * memory-mapped rather than loaded onto the heap.
+ */
+public class XlsxRowReader implements ImportRowReader {
+
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String DEFAULT_SHEET = "xl/worksheets/sheet1.xml";
+    private static final String DEFAULT_SHARED_STRINGS = "xl/sharedStrings.xml";
+
+    private final ZipFile zip;
+    private final XMLInputFactory xmlFactory;
+    private SharedStrings sharedStrings;
+    private CountingInputStream sheetInput;
+    private XMLStreamReader sheet;
+    private long totalBytes;
+    private long rowNumber;
+    private final List<String> cells = new ArrayList<>();
+
+    public XlsxRowReader(Path file) throws IOException {
+        this.zip = new ZipFile(file.toFile());
+        this.xmlFactory = XMLInputFactory.newInstance();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            Map<String, String> parts = readWorkbookParts();
+            this.sharedStrings = SharedStrings.load(zip, parts.getOrDefault("sharedStrings", DEFAULT_SHARED_STRINGS), xmlFactory);
+            ZipEntry sheetEntry = zip.getEntry(parts.getOrDefault("sheet", DEFAULT_SHEET));
+            if (sheetEntry == null) {
+                throw new IOException("Workbook has no worksheet");
+            }
+            this.totalBytes = sheetEntry.getSize();
+            this.sheetInput = new CountingInputStream(zip.getInputStream(sheetEntry));
+            this.sheet = xmlFactory.createXMLStreamReader(sheetInput);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Invalid XLSX file", e);
+        }
+    }
+
+    @Override
+    public String[] next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String ref = sheet.getAttributeValue(null, "r");
+                    rowNumber = ref != null ? Long.parseLong(ref) : rowNumber + 1;
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Invalid worksheet near row " + rowNumber, e);
+        }
+    }
+
+    private String[] readRow() throws XMLStreamException, IOException {
+        cells.clear();
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                String ref = sheet.getAttributeValue(null, "r");
+                String type = sheet.getAttributeValue(null, "t");
+                int column = ref != null ? columnIndex(ref) : cells.size();
+                String value = readCell(type);
+                while (cells.size() < column) {
+                    cells.add(null);
+                }
+                if (column < cells.size()) {
+                    cells.set(column, value);
+                } else {
+                    cells.add(value);
+                }
+            }
+        }
+        return cells.toArray(new String[0]);
+    }
+
+    private String readCell(String type) throws XMLStreamException, IOException {
+        String value = null;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            if ("v".equals(sheet.getLocalName())) {
+                value = sheet.getElementText();
+            } else if ("is".equals(sheet.getLocalName())) {
+                value = readText(sheet, "is");
+            }
+        }
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if ("s".equals(type)) {
+            return sharedStrings.get(Integer.parseInt(value.trim()));
+        }
+        if ("b".equals(type)) {
+            return "1".equals(value) ? "true" : "false";
+        }
+        return value;
+    }
+
+    /**
+     * Concatenate the text runs of a string item, leaving out phonetic hints
+     */
+    private static String readText(XMLStreamReader xml, String element) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int phonetic = 0;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("rPh".equals(xml.getLocalName())) {
+                    phonetic++;
+                } else if ("t".equals(xml.getLocalName()) && phonetic == 0) {
+                    text.append(xml.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("rPh".equals(xml.getLocalName())) {
+                    phonetic--;
+                } else if (element.equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static int columnIndex(String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * Locate the first worksheet and the shared string table through the workbook relationships
+     */
+    private Map<String, String> readWorkbookParts() throws IOException, XMLStreamException {
+        Map<String, String> parts = new HashMap<>();
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        ZipEntry relationships = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (workbook == null || relationships == null) {
+            return parts;
+        }
+
+        String firstSheetId = null;
+        try (InputStream in = zip.getInputStream(workbook)) {
+            XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+            while (xml.hasNext() && firstSheetId == null) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(xml.getLocalName())) {
+                    firstSheetId = xml.getAttributeValue(RELATIONSHIPS_NS, "id");
+                }
+            }
+            xml.close();
+        }
+
+        try (InputStream in = zip.getInputStream(relationships)) {
+            XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())) {
+                    String id = xml.getAttributeValue(null, "Id");
+                    String type = xml.getAttributeValue(null, "Type");
+                    String target = xml.getAttributeValue(null, "Target");
+                    if (target == null) {
+                        continue;
+                    }
+                    String path = target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                    if (id != null && id.equals(firstSheetId)) {
+                        parts.put("sheet", path);
+                    } else if (type != null && type.endsWith("/sharedStrings")) {
+                        parts.put("sharedStrings", path);
+                    }
+                }
+            }
+            xml.close();
+        }
+        return parts;
+    }
+
+    @Override
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public long bytesRead() {
+        return sheetInput != null ? sheetInput.getCount() : 0;
+    }
+
+    @Override
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (sheet != null) {
+                sheet.close();
+            }
+        } catch (XMLStreamException e) {
+            // The zip file below releases the underlying stream
+        } finally {
+            sharedStrings = null;
+            zip.close();
+        }
+    }
+
+    /**
+     * Shared string table kept in memory-mapped temporary files: the UTF-8 bytes of all strings
+     * back to back, and an index of their start offsets. The files are unlinked once mapped.
+     */
+    private static class SharedStrings {
+
+        private final MappedByteBuffer data;
+        private final MappedByteBuffer offsets;
+        private final int count;
+
+        private SharedStrings(MappedByteBuffer data, MappedByteBuffer offsets, int count) {
+            this.data = data;
+            this.offsets = offsets;
+            this.count = count;
+        }
+
+        static SharedStrings load(ZipFile zip, String path, XMLInputFactory xmlFactory) throws IOException, XMLStreamException {
+            ZipEntry entry = zip.getEntry(path);
+            if (entry == null) {
+                return new SharedStrings(null, null, 0);
+            }
+
+            Path dataFile = Files.createTempFile("contact-import-sst", ".dat");
+            Path offsetFile = Files.createTempFile("contact-import-sst", ".idx");
+            try {
+                int count = 0;
+                long size = 0;
+                try (InputStream in = zip.getInputStream(entry);
+                     OutputStream dataOut = new BufferedOutputStream(Files.newOutputStream(dataFile));
+                     DataOutputStream offsetOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(offsetFile)))) {
+                    XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+                    while (xml.hasNext()) {
+                        if (xml.next() == XMLStreamConstants.START_ELEMENT && "si".equals(xml.getLocalName())) {
+                            byte[] bytes = readText(xml, "si").getBytes(StandardCharsets.UTF_8);
+                            offsetOut.writeLong(size);
+                            dataOut.write(bytes);
+                            size += bytes.length;
+                            count++;
+                        }
+                    }
+                    offsetOut.writeLong(size);
+                    xml.close();
+                }
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Shared string table exceeds 2 GB");
+                }
+
+                try (FileChannel dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ);
+                     FileChannel offsetChannel = FileChannel.open(offsetFile, StandardOpenOption.READ)) {
+                    return new SharedStrings(dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, size),
+                                             offsetChannel.map(FileChannel.MapMode.READ_ONLY, 0, (count + 1L) * Long.BYTES),
+                                             count);
+                }
+            } finally {
+                Files.deleteIfExists(dataFile);
+                Files.deleteIfExists(offsetFile);
+            }
+        }
+
+        String get(int index) throws IOException {
+            if (index < 0 || index >= count) {
+                throw new IOException("Shared string " + index + " does not exist");
+            }
+            int start = (int) offsets.getLong(index * Long.BYTES);
+            int end = (int) offsets.getLong((index + 1) * Long.BYTES);
+            byte[] bytes = new byte[end - start];
+            data.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
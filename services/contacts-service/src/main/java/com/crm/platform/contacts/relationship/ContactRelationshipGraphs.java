@@ -0,0 +1,236 @@
+package com.crm.platform.contacts.relationship;
+
+import com.crm.platform.common.graph.RelationshipGraph;
+import com.crm.platform.contacts.event.ContactEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory relationship graphs, one per tenant: contacts related to each other and contacts
+ * belonging to accounts, so multi-hop questions are answered without a query per hop.
+ *
+ * A tenant's graph is loaded from the database the first time it is needed, then kept up to date
+ * from the contact events every instance receives. Requests for a graph being loaded wait for that
+ * load, and events received meanwhile are applied once it is done. Events are sent once their
+ * transaction commits, but a graph loaded meanwhile may already hold the change or miss an earlier
+ * one, so a graph is also dropped after max-age and reloaded on next use; idle graphs are dropped
+ * to free their memory (see RelationshipGraph for the footprint).
+ */
+@Component
+public class ContactRelationshipGraphs {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactRelationshipGraphs.class);
+
+    public static final int CONTACT = 0;
+    public static final int ACCOUNT = 1;
+
+    private static final String RELATIONSHIPS_SQL =
+        "SELECT contact_id, related_contact_id FROM contact_relationships WHERE tenant_id = ?";
+
+    private static final String ACCOUNTS_SQL =
+        "SELECT id, account_id FROM contacts WHERE tenant_id = ? AND account_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxDepth;
+    private final int maxNodes;
+    private final Duration maxAge;
+    private final Duration idleTimeout;
+    private final int fetchSize;
+    private final Map<UUID, TenantGraph> graphs = new ConcurrentHashMap<>();
+
+    public ContactRelationshipGraphs(JdbcTemplate jdbcTemplate,
+                                     @Value("${contacts.relationship-graph.max-depth:6}") int maxDepth,
+                                     @Value("${contacts.relationship-graph.max-nodes:10000}") int maxNodes,
+                                     @Value("${contacts.relationship-graph.max-age:PT15M}") Duration maxAge,
+                                     @Value("${contacts.relationship-graph.idle-timeout:PT30M}") Duration idleTimeout,
+                                     @Value("${contacts.relationship-graph.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxAge = maxAge;
+        this.idleTimeout = idleTimeout;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * The tenant's graph, loaded on first use.
+     */
+    public RelationshipGraph graphOf(UUID tenantId) {
+        // Loaded outside the map so that other tenants' graphs are not held up meanwhile
+        TenantGraph created = new TenantGraph();
+        TenantGraph tenantGraph = graphs.putIfAbsent(tenantId, created);
+        if (tenantGraph == null) {
+            tenantGraph = created;
+            load(tenantId, created);
+        }
+        tenantGraph.lastUsed = Instant.now();
+        try {
+            return tenantGraph.graph.join();
+        } catch (CompletionException e) {
+            // Another request's load failed
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Apply contact and relationship changes to graphs that are loaded. Every instance consumes
+     * the events under a group of its own, so each keeps its graphs current.
+     */
+    @KafkaListener(topics = "contact-events", groupId = "contacts-relationship-graph-${random.uuid}")
+    public void onContactEvent(ContactEvent event) {
+        TenantGraph tenantGraph = event.getTenantId() != null ? graphs.get(event.getTenantId()) : null;
+        if (tenantGraph == null) {
+            return;
+        }
+        synchronized (tenantGraph) {
+            if (!tenantGraph.graph.isDone()) {
+                tenantGraph.pendingEvents.add(event);
+                return;
+            }
+        }
+        RelationshipGraph graph = tenantGraph.graph.getNow(null);
+        if (graph != null) {
+            apply(tenantGraph, graph, event);
+        }
+    }
+
+    private void apply(TenantGraph tenantGraph, RelationshipGraph graph, ContactEvent event) {
+        switch (event.getEventType()) {
+            case "CONTACT_CREATED":
+            case "CONTACT_UPDATED":
+                moveToAccount(graph, event);
+                break;
+            case "CONTACT_MERGED":
+                // The duplicates' relationships were moved to the primary in SQL; reload rather than
+                // repeat that here
+                graphs.remove(event.getTenantId(), tenantGraph);
+                break;
+            case "CONTACT_DELETED":
+                graph.removeNode(event.getContactId());
+                break;
+            case "CONTACTS_DELETED":
+                if (event.getContactIds() != null) {
+                    event.getContactIds().forEach(graph::removeNode);
+                }
+                break;
+            case "CONTACT_RELATIONSHIP_CREATED":
+                graph.addRelationship(event.getContactId(), CONTACT, event.getRelatedContactId(), CONTACT);
+                break;
+            case "CONTACT_RELATIONSHIP_DELETED":
+                graph.removeRelationship(event.getContactId(), event.getRelatedContactId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${contacts.relationship-graph.eviction-interval-ms:60000}")
+    public void evict() {
+        Instant now = Instant.now();
+        graphs.entrySet().removeIf(entry -> {
+            TenantGraph tenantGraph = entry.getValue();
+            if (!tenantGraph.graph.isDone()) {
+                return false;
+            }
+            boolean expired = tenantGraph.loadedAt.plus(maxAge).isBefore(now)
+                || tenantGraph.lastUsed.plus(idleTimeout).isBefore(now);
+            if (expired) {
+                logger.debug("Dropping relationship graph of tenant {}", entry.getKey());
+            }
+            return expired;
+        });
+    }
+
+    private void moveToAccount(RelationshipGraph graph, ContactEvent event) {
+        if (event.getContactData() == null) {
+            return;
+        }
+        UUID contactId = event.getContactId();
+        UUID accountId = event.getContactData().getAccountId();
+        graph.removeRelationships(contactId, ACCOUNT);
+        if (accountId != null) {
+            graph.addRelationship(contactId, CONTACT, accountId, ACCOUNT);
+        }
+    }
+
+    /**
+     * Load the tenant's graph into its placeholder, then apply the events received during the load.
+     * A failed load is removed so that the next use tries again.
+     */
+    private void load(UUID tenantId, TenantGraph tenantGraph) {
+        try {
+            RelationshipGraph graph = read(tenantId);
+            synchronized (tenantGraph) {
+                for (ContactEvent event : tenantGraph.pendingEvents) {
+                    apply(tenantGraph, graph, event);
+                }
+                tenantGraph.pendingEvents.clear();
+                tenantGraph.loadedAt = Instant.now();
+                tenantGraph.graph.complete(graph);
+            }
+        } catch (RuntimeException e) {
+            graphs.remove(tenantId, tenantGraph);
+            tenantGraph.graph.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private RelationshipGraph read(UUID tenantId) {
+        long start = System.currentTimeMillis();
+        RelationshipGraph graph = new RelationshipGraph();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RELATIONSHIPS_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, tenantId);
+            return ps;
+        }, rs -> {
+            graph.addRelationship(rs.getObject(1, UUID.class), CONTACT, rs.getObject(2, UUID.class), CONTACT);
+        });
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ACCOUNTS_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, tenantId);
+            return ps;
+        }, rs -> {
+            graph.addRelationship(rs.getObject(1, UUID.class), CONTACT, rs.getObject(2, UUID.class), ACCOUNT);
+        });
+        graph.trimToSize();
+
+        logger.info("Loaded relationship graph of tenant {}: {} nodes, {} relationships, ~{} KB in {} ms",
+                   tenantId, graph.nodeCount(), graph.relationshipCount(), graph.estimatedBytes() / 1024,
+                   System.currentTimeMillis() - start);
+        return graph;
+    }
+
+    private static final class TenantGraph {
+        private final CompletableFuture<RelationshipGraph> graph = new CompletableFuture<>();
+        // Guarded by this TenantGraph until the graph is complete
+        private final List<ContactEvent> pendingEvents = new ArrayList<>();
+        private volatile Instant loadedAt = Instant.now();
+        private volatile Instant lastUsed = loadedAt;
+    }
+}
@@ -7,14 +7,20 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ContactRelationshipRepository extends JpaRepository<ContactRelationship, UUID> {
 
+    Optional<ContactRelationship> findByTenantIdAndIdAndContactId(UUID tenantId, UUID id, UUID contactId);
+    
     List<ContactRelationship> findByTenantIdAndContactId(UUID tenantId, UUID contactId);
     
+    List<ContactRelationship> findByTenantIdAndContactIdIn(UUID tenantId, Collection<UUID> contactIds);
+    
     List<ContactRelationship> findByTenantIdAndRelatedContactId(UUID tenantId, UUID relatedContactId);
     
     List<ContactRelationship> findByTenantIdAndContactIdAndRelationshipType(
@@ -32,6 +32,8 @@ public interface ContactRepository extends JpaRepository<Contact, UUID>, JpaSpec
     
     boolean existsByTenantIdAndEmail(UUID tenantId, String email);
     
+    boolean existsByTenantIdAndId(UUID tenantId, UUID id);
+    
     // Name-based queries
     List<Contact> findByTenantIdAndFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase(
         UUID tenantId, String firstName, String lastName);
@@ -53,11 +55,12 @@ public interface ContactRepository extends JpaRepository<Contact, UUID>, JpaSpec
     List<Contact> findByTenantIdAndUpdatedAtAfter(UUID tenantId, LocalDateTime after);
     
     // Tag-based queries
-    @Query("SELECT c FROM Contact c WHERE c.tenantId = :tenantId AND :tag = ANY(c.tags)")
+    @Query(value = "SELECT * FROM contacts WHERE tenant_id = :tenantId AND :tag = ANY(tags)", nativeQuery = true)
     List<Contact> findByTenantIdAndTag(@Param("tenantId") UUID tenantId, @Param("tag") String tag);
     
-    @Query("SELECT c FROM Contact c WHERE c.tenantId = :tenantId AND c.tags && CAST(:tags AS text[])")
-    List<Contact> findByTenantIdAndTagsIn(@Param("tenantId") UUID tenantId, @Param("tags") List<String> tags);
+    @Query(value = "SELECT * FROM contacts WHERE tenant_id = :tenantId AND tags && CAST(:tags AS text[])",
+           nativeQuery = true)
+    List<Contact> findByTenantIdAndTagsIn(@Param("tenantId") UUID tenantId, @Param("tags") String[] tags);
     
     // Full-text search queries
     @Query("SELECT c FROM Contact c WHERE c.tenantId = :tenantId AND " +
@@ -101,6 +104,4 @@ public interface ContactRepository extends JpaRepository<Contact, UUID>, JpaSpec
     // Bulk operations
     @Query("SELECT c FROM Contact c WHERE c.tenantId = :tenantId AND c.id IN :ids")
     List<Contact> findByTenantIdAndIdIn(@Param("tenantId") UUID tenantId, @Param("ids") List<UUID> ids);
-    
-    void deleteByTenantIdAndIdIn(UUID tenantId, List<UUID> ids);
 }
\ No newline at end of file
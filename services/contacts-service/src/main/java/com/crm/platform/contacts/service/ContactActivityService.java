@@ -0,0 +1,150 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.dto.ContactActivityResponse;
+import com.crm.platform.contacts.dto.ContactActivityStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Activities of many contacts at once. Each method runs a single query for all the contacts it
+ * is given, so the GraphQL batch loaders resolve a page of contacts with a fixed number of queries.
+ */
+@Service
+public class ContactActivityService {
+
+    // Weighted completed activities of the last ENGAGEMENT_DAYS, ENGAGEMENT_POINT each, capped at 100
+    private static final int ENGAGEMENT_DAYS = 90;
+    private static final double ENGAGEMENT_POINT = 5.0;
+
+    private static final String RECENT_SQL =
+        "SELECT id, contact_id, activity_type, subject, description, status, priority, outcome, duration_minutes, " +
+        "activity_date, follow_up_date, owner_id, created_at, updated_at FROM (" +
+        "  SELECT a.*, ROW_NUMBER() OVER (PARTITION BY a.contact_id ORDER BY a.activity_date DESC, a.id) AS position " +
+        "  FROM contact_activities a WHERE a.tenant_id = ? AND a.contact_id = ANY(CAST(? AS UUID[]))) recent " +
+        "WHERE position <= ? ORDER BY contact_id, position";
+
+    private static final String STATS_SQL =
+        "SELECT contact_id, COUNT(*), " +
+        "MAX(activity_date) FILTER (WHERE activity_date <= NOW()), " +
+        "MIN(activity_date) FILTER (WHERE activity_date > NOW() AND status IN ('PLANNED', 'IN_PROGRESS')), " +
+        "MAX(activity_date) FILTER (WHERE status = 'COMPLETED' AND activity_type IN ('CALL', 'EMAIL', 'MEETING', 'SMS', 'SOCIAL')), " +
+        "COALESCE(SUM(CASE activity_type WHEN 'MEETING' THEN 3 WHEN 'CALL' THEN 2 ELSE 1 END) " +
+        "  FILTER (WHERE status = 'COMPLETED' AND activity_date > NOW() - CAST(? AS INTERVAL)), 0) " +
+        "FROM contact_activities WHERE tenant_id = ? AND contact_id = ANY(CAST(? AS UUID[])) GROUP BY contact_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int recentActivities;
+
+    public ContactActivityService(JdbcTemplate jdbcTemplate,
+                                  @Value("${contacts.activities.recent-limit:20}") int recentActivities) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recentActivities = recentActivities;
+    }
+
+    /**
+     * Latest activities of each contact, newest first. Contacts without activities map to an empty list.
+     */
+    public Map<UUID, List<ContactActivityResponse>> getRecentActivities(UUID tenantId, Collection<UUID> contactIds) {
+        Map<UUID, List<ContactActivityResponse>> activities = new HashMap<>();
+        for (UUID contactId : contactIds) {
+            activities.put(contactId, new ArrayList<>());
+        }
+        if (contactIds.isEmpty()) {
+            return activities;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(RECENT_SQL)) {
+                ps.setObject(1, tenantId);
+                ps.setArray(2, con.createArrayOf("uuid", contactIds.toArray()));
+                ps.setInt(3, recentActivities);
+                try (ResultSet rs = ps.executeQuery()) {
+                    Instant now = Instant.now();
+                    while (rs.next()) {
+                        ContactActivityResponse activity = mapActivity(rs, now);
+                        activities.get(activity.getContactId()).add(activity);
+                    }
+                }
+            }
+            return null;
+        });
+        return activities;
+    }
+
+    /**
+     * Activity figures of each contact. Contacts without activities map to empty figures.
+     */
+    public Map<UUID, ContactActivityStats> getActivityStats(UUID tenantId, Collection<UUID> contactIds) {
+        Map<UUID, ContactActivityStats> stats = new HashMap<>();
+        for (UUID contactId : contactIds) {
+            stats.put(contactId, ContactActivityStats.empty());
+        }
+        if (contactIds.isEmpty()) {
+            return stats;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(STATS_SQL)) {
+                ps.setString(1, ENGAGEMENT_DAYS + " days");
+                ps.setObject(2, tenantId);
+                ps.setArray(3, con.createArrayOf("uuid", contactIds.toArray()));
+                try (ResultSet rs = ps.executeQuery()) {
+                    Instant now = Instant.now();
+                    while (rs.next()) {
+                        ContactActivityStats contactStats = new ContactActivityStats();
+                        contactStats.setTotalActivities(rs.getInt(2));
+                        contactStats.setLastActivityDate(toInstant(rs.getTimestamp(3)));
+                        contactStats.setNextActivityDate(toInstant(rs.getTimestamp(4)));
+                        Instant lastContact = toInstant(rs.getTimestamp(5));
+                        if (lastContact != null) {
+                            contactStats.setDaysSinceLastContact((int) Math.max(0, ChronoUnit.DAYS.between(lastContact, now)));
+                        }
+                        contactStats.setEngagementScore(Math.min(100.0, rs.getLong(6) * ENGAGEMENT_POINT));
+                        stats.put(rs.getObject(1, UUID.class), contactStats);
+                    }
+                }
+            }
+            return null;
+        });
+        return stats;
+    }
+
+    private ContactActivityResponse mapActivity(ResultSet rs, Instant now) throws SQLException {
+        ContactActivityResponse activity = new ContactActivityResponse(
+            rs.getObject("id", UUID.class), rs.getObject("contact_id", UUID.class),
+            rs.getString("activity_type"), rs.getString("subject"));
+        String status = rs.getString("status");
+        Instant activityDate = toInstant(rs.getTimestamp("activity_date"));
+        activity.setDescription(rs.getString("description"));
+        activity.setStatus(status);
+        activity.setPriority(rs.getString("priority"));
+        activity.setOutcome(rs.getString("outcome"));
+        activity.setDuration((Integer) rs.getObject("duration_minutes"));
+        activity.setScheduledAt(activityDate);
+        activity.setCompletedAt("COMPLETED".equals(status) ? activityDate : null);
+        activity.setDueAt(toInstant(rs.getTimestamp("follow_up_date")));
+        activity.setOwnerId(rs.getObject("owner_id", UUID.class));
+        activity.setCreatedAt(toInstant(rs.getTimestamp("created_at")));
+        activity.setUpdatedAt(toInstant(rs.getTimestamp("updated_at")));
+        activity.setIsOverdue(("PLANNED".equals(status) || "IN_PROGRESS".equals(status)) && activityDate.isBefore(now));
+        activity.setReminderSet(false);
+        return activity;
+    }
+
+    private Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
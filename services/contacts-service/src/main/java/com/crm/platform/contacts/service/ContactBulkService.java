@@ -0,0 +1,219 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.analytics.ContactAnalyticsStore;
+import com.crm.platform.contacts.entity.Contact;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.crm.platform.contacts.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes and merges of many contacts, written with one statement per table for a chunk of ids
+ * rather than an entity at a time. Each chunk is its own transaction and is complete on its own:
+ * an operation that stops half way has deleted, or merged into the primary, whole chunks only.
+ * Each chunk publishes one event for all of its contacts.
+ */
+@Service
+public class ContactBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactBulkService.class);
+
+    private static final String COUNT_SQL =
+        "SELECT COUNT(*) FROM contacts WHERE tenant_id = ? AND id = ANY(CAST(? AS UUID[]))";
+
+    private static final String DELETE_SQL =
+        "DELETE FROM contacts WHERE tenant_id = ? AND id = ANY(CAST(? AS UUID[])) RETURNING id";
+
+    // Relationships among the merged contacts would relate the primary to itself
+    private static final String DELETE_INNER_RELATIONSHIPS_SQL =
+        "DELETE FROM contact_relationships WHERE tenant_id = ? " +
+        "AND contact_id = ANY(CAST(? AS UUID[])) AND related_contact_id = ANY(CAST(? AS UUID[]))";
+
+    // One relationship per related contact and type is moved, unless the primary has it already;
+    // the rest go with the duplicates
+    private static final String MOVE_RELATIONSHIPS_FROM_SQL =
+        "UPDATE contact_relationships SET contact_id = ?, updated_by = ?, updated_at = NOW() " +
+        "WHERE id IN (SELECT DISTINCT ON (d.related_contact_id, d.relationship_type) d.id " +
+        "FROM contact_relationships d WHERE d.tenant_id = ? AND d.contact_id = ANY(CAST(? AS UUID[])) " +
+        "AND NOT EXISTS (SELECT 1 FROM contact_relationships p WHERE p.tenant_id = d.tenant_id " +
+        "AND p.contact_id = ? AND p.related_contact_id = d.related_contact_id " +
+        "AND p.relationship_type = d.relationship_type) " +
+        "ORDER BY d.related_contact_id, d.relationship_type, d.is_primary DESC, d.created_at)";
+
+    private static final String MOVE_RELATIONSHIPS_TO_SQL =
+        "UPDATE contact_relationships SET related_contact_id = ?, updated_by = ?, updated_at = NOW() " +
+        "WHERE id IN (SELECT DISTINCT ON (d.contact_id, d.relationship_type) d.id " +
+        "FROM contact_relationships d WHERE d.tenant_id = ? AND d.related_contact_id = ANY(CAST(? AS UUID[])) " +
+        "AND NOT EXISTS (SELECT 1 FROM contact_relationships p WHERE p.tenant_id = d.tenant_id " +
+        "AND p.related_contact_id = ? AND p.contact_id = d.contact_id " +
+        "AND p.relationship_type = d.relationship_type) " +
+        "ORDER BY d.contact_id, d.relationship_type, d.is_primary DESC, d.created_at)";
+
+    private static final String MOVE_ACTIVITIES_SQL =
+        "UPDATE contact_activities SET contact_id = ?, updated_by = ?, updated_at = NOW() " +
+        "WHERE tenant_id = ? AND contact_id = ANY(CAST(? AS UUID[]))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContactRepository contactRepository;
+    private final ContactDeduplicationService deduplicationService;
+    private final ContactAnalyticsStore analyticsStore;
+    private final ContactEventService eventService;
+    private final int chunkSize;
+
+    public ContactBulkService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ContactRepository contactRepository,
+                              ContactDeduplicationService deduplicationService,
+                              ContactAnalyticsStore analyticsStore,
+                              ContactEventService eventService,
+                              @Value("${contacts.bulk.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contactRepository = contactRepository;
+        this.deduplicationService = deduplicationService;
+        this.analyticsStore = analyticsStore;
+        this.eventService = eventService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Delete the contacts, all of which must exist. Their relationships and activities go with
+     * them through the foreign keys.
+     */
+    public int deleteContacts(UUID tenantId, Collection<UUID> contactIds, UUID userId) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(contactIds));
+        requireAll(tenantId, ids, "Some contacts not found");
+
+        int deleted = 0;
+        for (List<UUID> chunk : chunks(ids)) {
+            List<UUID> removed = transactionTemplate.execute(status -> {
+                List<UUID> deletedIds = jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(DELETE_SQL);
+                    ps.setObject(1, tenantId);
+                    ps.setArray(2, con.createArrayOf("uuid", chunk.toArray()));
+                    return ps;
+                }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+                deduplicationService.removeFromIndex(deletedIds);
+                analyticsStore.record(tenantId, List.of(), deletedIds);
+                // Contacts deleted meanwhile by someone else are not announced twice
+                if (!deletedIds.isEmpty()) {
+                    eventService.publishContactsDeleted(tenantId, deletedIds, userId);
+                }
+                return deletedIds;
+            });
+            deleted += removed.size();
+        }
+        return deleted;
+    }
+
+    /**
+     * Merge the duplicates into the primary a chunk at a time: fill in the primary from the chunk,
+     * move the chunk's relationships and activities to it unless asked not to, and delete the chunk.
+     */
+    public Contact mergeContacts(UUID tenantId, UUID primaryContactId, Collection<UUID> duplicateContactIds,
+                                 boolean moveRelationships, boolean moveActivities, UUID userId) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(duplicateContactIds));
+        if (ids.isEmpty()) {
+            throw new ContactBusinessException("INVALID_MERGE", "At least one duplicate contact ID is required");
+        }
+        if (ids.contains(primaryContactId)) {
+            throw new ContactBusinessException("INVALID_MERGE", "A contact cannot be merged into itself");
+        }
+        if (!contactRepository.existsByTenantIdAndId(tenantId, primaryContactId)) {
+            throw new ContactBusinessException("CONTACT_NOT_FOUND", "Primary contact not found");
+        }
+        requireAll(tenantId, ids, "Some duplicate contacts not found");
+
+        Contact merged = null;
+        for (List<UUID> chunk : chunks(ids)) {
+            merged = transactionTemplate.execute(status ->
+                mergeChunk(tenantId, primaryContactId, chunk, moveRelationships, moveActivities, userId));
+        }
+        logger.info("Merged {} contacts into {}", ids.size(), primaryContactId);
+        return merged;
+    }
+
+    private Contact mergeChunk(UUID tenantId, UUID primaryContactId, List<UUID> chunk,
+                               boolean moveRelationships, boolean moveActivities, UUID userId) {
+        Contact primary = contactRepository.findByTenantIdAndId(tenantId, primaryContactId)
+            .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Primary contact not found"));
+        List<Contact> duplicates = contactRepository.findByTenantIdAndIdIn(tenantId, chunk);
+        if (duplicates.size() != chunk.size()) {
+            throw new ContactBusinessException("CONTACTS_NOT_FOUND", "Some duplicate contacts not found");
+        }
+
+        // Written first, which also holds merges into the same primary back until this one commits
+        primary = contactRepository.saveAndFlush(deduplicationService.mergeContacts(primary, duplicates, userId));
+
+        if (moveRelationships) {
+            List<UUID> mergedIds = new ArrayList<>(chunk.size() + 1);
+            mergedIds.add(primaryContactId);
+            mergedIds.addAll(chunk);
+            update(DELETE_INNER_RELATIONSHIPS_SQL, tenantId, mergedIds, mergedIds);
+            update(MOVE_RELATIONSHIPS_FROM_SQL, primaryContactId, userId, tenantId, chunk, primaryContactId);
+            update(MOVE_RELATIONSHIPS_TO_SQL, primaryContactId, userId, tenantId, chunk, primaryContactId);
+        }
+        if (moveActivities) {
+            update(MOVE_ACTIVITIES_SQL, primaryContactId, userId, tenantId, chunk);
+        }
+        update("DELETE FROM contacts WHERE tenant_id = ? AND id = ANY(CAST(? AS UUID[]))", tenantId, chunk);
+
+        deduplicationService.indexContacts(tenantId, List.of(primary));
+        deduplicationService.removeFromIndex(chunk);
+        analyticsStore.record(tenantId, List.of(primary), chunk);
+        eventService.publishContactMerged(primary, duplicates);
+        return primary;
+    }
+
+    private void requireAll(UUID tenantId, List<UUID> ids, String message) {
+        long found = 0;
+        for (List<UUID> chunk : chunks(ids)) {
+            long count = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(COUNT_SQL);
+                ps.setObject(1, tenantId);
+                ps.setArray(2, con.createArrayOf("uuid", chunk.toArray()));
+                return ps;
+            }, rs -> rs.next() ? rs.getLong(1) : 0L);
+            found += count;
+        }
+        if (found != ids.size()) {
+            throw new ContactBusinessException("CONTACTS_NOT_FOUND", message);
+        }
+    }
+
+    // Id lists are bound as uuid arrays, everything else as it is
+    private int update(String sql, Object... params) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] instanceof Collection) {
+                    ps.setArray(i + 1, con.createArrayOf("uuid", ((Collection<?>) params[i]).toArray()));
+                } else {
+                    ps.setObject(i + 1, params[i]);
+                }
+            }
+            return ps;
+        });
+    }
+
+    private List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+}
@@ -1,6 +1,8 @@
 package com.crm.platform.contacts.service;
 
 import com.crm.platform.contacts.dto.ContactRequest;
+import com.crm.platform.contacts.dedup.ContactMatchKeyIndex;
+import com.crm.platform.contacts.dedup.ContactSimilarity;
 import com.crm.platform.contacts.entity.Contact;
 import com.crm.platform.contacts.repository.ContactRepository;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,10 +11,15 @@ import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Duplicate detection. Candidates come from the blocking-key index (see MatchKeys), so a check
+ * costs a few index lookups and at most max-candidates comparisons however large the tenant is.
+ */
 @Service
 public class ContactDeduplicationService {
 
     private final ContactRepository contactRepository;
+    private final ContactMatchKeyIndex matchKeyIndex;
     
     @Value("${contacts.deduplication.enabled:true}")
     private boolean deduplicationEnabled;
@@ -20,8 +27,9 @@ public class ContactDeduplicationService {
     @Value("${contacts.deduplication.match-threshold:0.8}")
     private double matchThreshold;
 
-    public ContactDeduplicationService(ContactRepository contactRepository) {
+    public ContactDeduplicationService(ContactRepository contactRepository, ContactMatchKeyIndex matchKeyIndex) {
         this.contactRepository = contactRepository;
+        this.matchKeyIndex = matchKeyIndex;
     }
 
     public boolean isDuplicateContact(ContactRequest request, UUID tenantId) {
@@ -47,65 +55,40 @@ public class ContactDeduplicationService {
             }
         }
 
-        // Check name-based duplicates
-        List<Contact> nameMatches = contactRepository
-            .findPotentialDuplicatesByName(tenantId, request.getFirstName(), request.getLastName());
-        
-        if (excludeContactId != null) {
-            nameMatches = nameMatches.stream()
-                .filter(contact -> !contact.getId().equals(excludeContactId))
-                .collect(Collectors.toList());
-        }
-
-        if (!nameMatches.isEmpty()) {
-            // Apply fuzzy matching logic
-            return nameMatches.stream()
-                .anyMatch(contact -> calculateSimilarity(request, contact) >= matchThreshold);
-        }
-
-        // Check contact information duplicates
-        if (request.getPhone() != null || request.getEmail() != null) {
-            List<Contact> contactMatches = contactRepository
-                .findPotentialDuplicatesByContact(tenantId, request.getEmail(), 
-                                                 request.getPhone(), request.getPhone());
-            
-            if (excludeContactId != null) {
-                contactMatches = contactMatches.stream()
-                    .filter(contact -> !contact.getId().equals(excludeContactId))
-                    .collect(Collectors.toList());
+        String phone = matchKeyIndex.normalizePhone(request.getPhone());
+        String mobile = matchKeyIndex.normalizePhone(request.getMobile());
+        for (Contact candidate : findCandidates(tenantId, excludeContactId, request.getFirstName(), request.getLastName(),
+                                                request.getEmail(), request.getPhone(), request.getMobile())) {
+            // Shared contact information is a duplicate whatever the names say
+            if (sharesPhone(phone, mobile, candidate)
+                    || request.getEmail() != null && request.getEmail().equalsIgnoreCase(candidate.getEmail())) {
+                return true;
+            }
+            if (isSimilar(request.getFirstName(), request.getLastName(), request.getEmail(), request.getPhone(),
+                          request.getMobile(), candidate)) {
+                return true;
             }
-
-            return !contactMatches.isEmpty();
         }
-
         return false;
     }
 
     public List<Contact> findDuplicates(Contact contact, UUID tenantId) {
-        List<Contact> duplicates = contactRepository
-            .findPotentialDuplicatesByName(tenantId, contact.getFirstName(), contact.getLastName());
-        
-        // Remove the contact itself from results
-        duplicates = duplicates.stream()
-            .filter(c -> !c.getId().equals(contact.getId()))
+        return findCandidates(tenantId, contact.getId(), contact.getFirstName(), contact.getLastName(),
+                              contact.getEmail(), contact.getPhone(), contact.getMobile()).stream()
+            .filter(candidate -> isSimilar(contact.getFirstName(), contact.getLastName(),
+                                           contact.getEmail(), contact.getPhone(), contact.getMobile(), candidate))
             .collect(Collectors.toList());
+    }
 
-        // Add contact-based duplicates
-        if (contact.getEmail() != null || contact.getPhone() != null || contact.getMobile() != null) {
-            List<Contact> contactDuplicates = contactRepository
-                .findPotentialDuplicatesByContact(tenantId, contact.getEmail(), 
-                                                 contact.getPhone(), contact.getMobile());
-            
-            contactDuplicates.stream()
-                .filter(c -> !c.getId().equals(contact.getId()))
-                .filter(c -> duplicates.stream().noneMatch(d -> d.getId().equals(c.getId())))
-                .forEach(duplicates::add);
-        }
+    /**
+     * Keep the blocking keys of written contacts current; called in the transaction that writes them
+     */
+    public void indexContacts(UUID tenantId, Collection<Contact> contacts) {
+        matchKeyIndex.index(tenantId, contacts);
+    }
 
-        // Filter by similarity threshold
-        return duplicates.stream()
-            .filter(duplicate -> calculateSimilarity(contact, duplicate) >= matchThreshold)
-            .collect(Collectors.toList());
+    public void removeFromIndex(Collection<UUID> contactIds) {
+        matchKeyIndex.remove(contactIds);
     }
 
     public Contact mergeContacts(Contact primary, List<Contact> duplicates, UUID userId) {
@@ -117,7 +100,7 @@ public class ContactDeduplicationService {
                 duplicate.getTags().forEach(tag -> {
                     if (primary.getTags() == null || !primary.getTags().contains(tag)) {
                         if (primary.getTags() == null) {
-                            primary.setTags(List.of(tag));
+                            primary.setTags(new ArrayList<>(List.of(tag)));
                         } else {
                             primary.getTags().add(tag);
                         }
@@ -184,103 +167,30 @@ public class ContactDeduplicationService {
         return primary;
     }
 
-    private double calculateSimilarity(ContactRequest request, Contact contact) {
-        double score = 0.0;
-        int factors = 0;
-
-        // Name similarity
-        if (request.getFirstName() != null && contact.getFirstName() != null) {
-            score += stringSimilarity(request.getFirstName().toLowerCase(), 
-                                    contact.getFirstName().toLowerCase());
-            factors++;
-        }
-        
-        if (request.getLastName() != null && contact.getLastName() != null) {
-            score += stringSimilarity(request.getLastName().toLowerCase(), 
-                                    contact.getLastName().toLowerCase());
-            factors++;
-        }
-
-        // Email similarity
-        if (request.getEmail() != null && contact.getEmail() != null) {
-            score += request.getEmail().equalsIgnoreCase(contact.getEmail()) ? 1.0 : 0.0;
-            factors++;
-        }
-
-        // Phone similarity
-        if (request.getPhone() != null && contact.getPhone() != null) {
-            score += normalizePhone(request.getPhone()).equals(normalizePhone(contact.getPhone())) ? 1.0 : 0.0;
-            factors++;
-        }
-
-        return factors > 0 ? score / factors : 0.0;
-    }
-
-    private double calculateSimilarity(Contact contact1, Contact contact2) {
-        double score = 0.0;
-        int factors = 0;
-
-        // Name similarity
-        if (contact1.getFirstName() != null && contact2.getFirstName() != null) {
-            score += stringSimilarity(contact1.getFirstName().toLowerCase(), 
-                                    contact2.getFirstName().toLowerCase());
-            factors++;
-        }
-        
-        if (contact1.getLastName() != null && contact2.getLastName() != null) {
-            score += stringSimilarity(contact1.getLastName().toLowerCase(), 
-                                    contact2.getLastName().toLowerCase());
-            factors++;
-        }
-
-        // Email similarity
-        if (contact1.getEmail() != null && contact2.getEmail() != null) {
-            score += contact1.getEmail().equalsIgnoreCase(contact2.getEmail()) ? 1.0 : 0.0;
-            factors++;
-        }
-
-        // Phone similarity
-        if (contact1.getPhone() != null && contact2.getPhone() != null) {
-            score += normalizePhone(contact1.getPhone()).equals(normalizePhone(contact2.getPhone())) ? 1.0 : 0.0;
-            factors++;
+    private List<Contact> findCandidates(UUID tenantId, UUID excludeContactId, String firstName, String lastName,
+                                         String email, String phone, String mobile) {
+        List<UUID> ids = matchKeyIndex.findCandidates(tenantId, matchKeyIndex.keysOf(firstName, lastName, email, phone, mobile));
+        if (excludeContactId != null) {
+            ids = ids.stream().filter(id -> !id.equals(excludeContactId)).collect(Collectors.toList());
         }
-
-        return factors > 0 ? score / factors : 0.0;
-    }
-
-    private double stringSimilarity(String s1, String s2) {
-        if (s1.equals(s2)) return 1.0;
-        
-        // Simple Levenshtein distance-based similarity
-        int maxLen = Math.max(s1.length(), s2.length());
-        if (maxLen == 0) return 1.0;
-        
-        return (maxLen - levenshteinDistance(s1, s2)) / (double) maxLen;
+        return ids.isEmpty() ? List.of() : contactRepository.findByTenantIdAndIdIn(tenantId, ids);
     }
 
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-        
-        for (int i = 0; i <= s1.length(); i++) {
-            for (int j = 0; j <= s2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(
-                        dp[i - 1][j - 1] + (s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1),
-                        Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1)
-                    );
-                }
-            }
+    private boolean sharesPhone(String phone, String mobile, Contact candidate) {
+        if (phone == null && mobile == null) {
+            return false;
         }
-        
-        return dp[s1.length()][s2.length()];
+        String candidatePhone = matchKeyIndex.normalizePhone(candidate.getPhone());
+        String candidateMobile = matchKeyIndex.normalizePhone(candidate.getMobile());
+        return phone != null && (phone.equals(candidatePhone) || phone.equals(candidateMobile))
+            || mobile != null && (mobile.equals(candidatePhone) || mobile.equals(candidateMobile));
     }
 
-    private String normalizePhone(String phone) {
-        if (phone == null) return "";
-        return phone.replaceAll("[^0-9]", "");
+    private boolean isSimilar(String firstName, String lastName, String email, String phone, String mobile,
+                              Contact candidate) {
+        return ContactSimilarity.isSimilar(matchThreshold,
+            firstName, lastName, email, matchKeyIndex.normalizePhone(phone), matchKeyIndex.normalizePhone(mobile),
+            candidate.getFirstName(), candidate.getLastName(), candidate.getEmail(),
+            matchKeyIndex.normalizePhone(candidate.getPhone()), matchKeyIndex.normalizePhone(candidate.getMobile()));
     }
 }
\ No newline at end of file
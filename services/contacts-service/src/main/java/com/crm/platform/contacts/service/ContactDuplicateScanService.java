@@ -0,0 +1,280 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.dedup.ContactMatchKeyIndex;
+import com.crm.platform.contacts.dedup.ContactSimilarity;
+import com.crm.platform.contacts.dedup.DuplicateClusterer;
+import com.crm.platform.contacts.dto.DuplicateClusterResponse;
+import com.crm.platform.contacts.dto.DuplicateScanResponse;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tenant-wide duplicate scan.
+ *
+ * The tenant's contacts are read once in keyset pages into a DuplicateClusterer, which finds
+ * the clusters with MinHash buckets instead of comparing every pair. Each cluster is stored in
+ * contact_duplicates as rows from its oldest contact to each other member, replacing the
+ * tenant's pending rows, so clusters are reviewed and merged with the existing merge endpoint.
+ * Scans run one at a time per instance, and one at a time per tenant across instances. The scan's
+ * heartbeat is advanced throughout, including while clustering and writing.
+ */
+@Service
+public class ContactDuplicateScanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactDuplicateScanService.class);
+
+    private static final String PAGE_SQL =
+        "SELECT id, first_name, last_name, email, phone, mobile, created_at FROM contacts " +
+        "WHERE tenant_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String INSERT_DUPLICATE_SQL =
+        "INSERT INTO contact_duplicates (tenant_id, master_contact_id, duplicate_contact_id, similarity_score, matching_fields) " +
+        "SELECT CAST(? AS UUID), CAST(? AS UUID), CAST(? AS UUID), CAST(? AS DECIMAL(5,2)), CAST(? AS TEXT[]) " +
+        "WHERE NOT EXISTS (SELECT 1 FROM contact_duplicates d WHERE d.tenant_id = ? " +
+        "AND d.master_contact_id = ? AND d.duplicate_contact_id = ?) " +
+        "AND (SELECT COUNT(*) FROM contacts c WHERE c.id IN (?, ?)) = 2 " +
+        "ON CONFLICT (tenant_id, master_contact_id, duplicate_contact_id) DO NOTHING";
+
+    private static final String STATUS_SQL =
+        "SELECT status, contacts_scanned, candidate_pairs, duplicate_pairs, clusters, started_at, completed_at, error_message " +
+        "FROM contact_duplicate_scans WHERE id = ? AND tenant_id = ?";
+
+    private static final String CLUSTERS_SQL =
+        "SELECT d.master_contact_id, d.duplicate_contact_id, d.similarity_score, d.matching_fields " +
+        "FROM contact_duplicates d JOIN (" +
+        "  SELECT master_contact_id, MAX(similarity_score) AS best FROM contact_duplicates " +
+        "  WHERE tenant_id = ? AND status = 'PENDING' GROUP BY master_contact_id " +
+        "  ORDER BY best DESC, master_contact_id LIMIT ? OFFSET ?) m ON m.master_contact_id = d.master_contact_id " +
+        "WHERE d.tenant_id = ? AND d.status = 'PENDING' " +
+        "ORDER BY m.best DESC, d.master_contact_id, d.similarity_score DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContactMatchKeyIndex matchKeyIndex;
+    private final ExecutorService scanExecutor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor();
+    private final ForkJoinPool comparePool;
+    private final double matchThreshold;
+    private final int bands;
+    private final int rows;
+    private final int maxBucketSize;
+    private final int pageSize;
+    private final int maxContacts;
+    private final Duration staleAfter;
+
+    public ContactDuplicateScanService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       ContactMatchKeyIndex matchKeyIndex,
+                                       @Value("${contacts.deduplication.match-threshold:0.8}") double matchThreshold,
+                                       @Value("${contacts.deduplication.scan.bands:20}") int bands,
+                                       @Value("${contacts.deduplication.scan.rows:5}") int rows,
+                                       @Value("${contacts.deduplication.scan.max-bucket-size:100}") int maxBucketSize,
+                                       @Value("${contacts.deduplication.scan.page-size:10000}") int pageSize,
+                                       @Value("${contacts.deduplication.scan.max-contacts:2000000}") int maxContacts,
+                                       @Value("${contacts.deduplication.scan.parallelism:0}") int parallelism,
+                                       @Value("${contacts.deduplication.scan.stale-after:PT30M}") Duration staleAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.matchKeyIndex = matchKeyIndex;
+        this.comparePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.matchThreshold = matchThreshold;
+        this.bands = bands;
+        this.rows = rows;
+        this.maxBucketSize = maxBucketSize;
+        this.pageSize = pageSize;
+        this.maxContacts = Math.min(maxContacts, DuplicateClusterer.MAX_CONTACTS);
+        this.staleAfter = staleAfter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanExecutor.shutdownNow();
+        heartbeats.shutdownNow();
+        comparePool.shutdownNow();
+    }
+
+    public DuplicateScanResponse startScan(UUID tenantId, UUID userId) {
+        // A scan whose instance died stops blocking new scans once its heartbeat is stale
+        jdbcTemplate.update(
+            "UPDATE contact_duplicate_scans SET status = 'FAILED', error_message = 'Scan was abandoned', completed_at = NOW() " +
+            "WHERE tenant_id = ? AND status = 'RUNNING' AND heartbeat_at < NOW() - make_interval(secs => ?)",
+            tenantId, staleAfter.getSeconds());
+
+        UUID scanId = UUID.randomUUID();
+        try {
+            jdbcTemplate.update("INSERT INTO contact_duplicate_scans (id, tenant_id, requested_by) VALUES (?, ?, ?)",
+                                scanId, tenantId, userId);
+        } catch (DuplicateKeyException e) {
+            // Only one RUNNING scan per tenant fits the partial unique index
+            throw new ContactBusinessException("SCAN_IN_PROGRESS", "A duplicate scan is already running for this tenant");
+        }
+        scanExecutor.execute(() -> run(scanId, tenantId));
+        logger.info("Duplicate scan {} queued for tenant: {}", scanId, tenantId);
+        return getScan(scanId, tenantId);
+    }
+
+    public DuplicateScanResponse getScan(UUID scanId, UUID tenantId) {
+        List<DuplicateScanResponse> scans = jdbcTemplate.query(STATUS_SQL, (rs, rowNum) -> {
+            DuplicateScanResponse response = new DuplicateScanResponse();
+            response.setScanId(scanId);
+            response.setStatus(DuplicateScanResponse.ScanStatus.valueOf(rs.getString(1)));
+            response.setContactsScanned(rs.getLong(2));
+            response.setCandidatePairs((Long) rs.getObject(3));
+            response.setDuplicatePairs((Long) rs.getObject(4));
+            response.setClusters((Integer) rs.getObject(5));
+            response.setStartedAt(rs.getTimestamp(6).toInstant());
+            Timestamp completedAt = rs.getTimestamp(7);
+            response.setCompletedAt(completedAt != null ? completedAt.toInstant() : null);
+            response.setErrorMessage(rs.getString(8));
+            return response;
+        }, scanId, tenantId);
+        if (scans.isEmpty()) {
+            throw new ContactBusinessException("SCAN_NOT_FOUND", "Duplicate scan not found");
+        }
+        return scans.get(0);
+    }
+
+    /**
+     * Pending clusters, those with the closest matches first
+     */
+    public List<DuplicateClusterResponse> getClusters(UUID tenantId, int page, int size) {
+        Map<UUID, DuplicateClusterResponse> clusters = new LinkedHashMap<>();
+        jdbcTemplate.query(CLUSTERS_SQL, rs -> {
+            UUID master = rs.getObject(1, UUID.class);
+            clusters.computeIfAbsent(master, DuplicateClusterResponse::new).getDuplicates().add(
+                new DuplicateClusterResponse.DuplicateMember(rs.getObject(2, UUID.class),
+                    rs.getDouble(3), List.of((String[]) rs.getArray(4).getArray())));
+        }, tenantId, size, (long) (page - 1) * size, tenantId);
+        return new ArrayList<>(clusters.values());
+    }
+
+    private void run(UUID scanId, UUID tenantId) {
+        long startedAt = System.currentTimeMillis();
+        // Clustering and writing take no pages, so the heartbeat is kept from a timer instead
+        long interval = Math.max(1, staleAfter.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                jdbcTemplate.update(
+                    "UPDATE contact_duplicate_scans SET heartbeat_at = NOW() WHERE id = ? AND status = 'RUNNING'", scanId);
+            } catch (Exception e) {
+                logger.warn("Could not advance heartbeat of duplicate scan {}: {}", scanId, e.toString());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        try {
+            DuplicateClusterer clusterer = new DuplicateClusterer(matchThreshold, bands, rows, maxBucketSize, comparePool);
+            UUID[] lastId = {new UUID(0L, 0L)};
+            int read;
+            do {
+                int before = clusterer.size();
+                jdbcTemplate.query(PAGE_SQL, rs -> {
+                    UUID id = rs.getObject(1, UUID.class);
+                    Timestamp createdAt = rs.getTimestamp(7);
+                    clusterer.add(id, createdAt != null ? createdAt.getTime() : Long.MAX_VALUE,
+                                  rs.getString(2), rs.getString(3), rs.getString(4),
+                                  matchKeyIndex.normalizePhone(rs.getString(5)), matchKeyIndex.normalizePhone(rs.getString(6)));
+                    lastId[0] = id;
+                }, tenantId, lastId[0], pageSize);
+                read = clusterer.size() - before;
+                if (clusterer.size() > maxContacts) {
+                    throw new IllegalStateException("Tenant has more than " + maxContacts + " contacts to scan at once");
+                }
+                jdbcTemplate.update(
+                    "UPDATE contact_duplicate_scans SET contacts_scanned = ?, heartbeat_at = NOW() WHERE id = ?",
+                    clusterer.size(), scanId);
+            } while (read == pageSize);
+
+            List<int[]> clusters = clusterer.cluster();
+            logger.info("Duplicate scan {} clustered {} contacts in {} ms: {} candidate pairs, {} clusters",
+                        scanId, clusterer.size(), System.currentTimeMillis() - startedAt,
+                        clusterer.getCandidatePairs(), clusters.size());
+
+            long written = transactionTemplate.execute(status -> writeClusters(tenantId, clusterer, clusters));
+            jdbcTemplate.update(
+                "UPDATE contact_duplicate_scans SET status = 'COMPLETED', candidate_pairs = ?, duplicate_pairs = ?, " +
+                "clusters = ?, completed_at = NOW(), heartbeat_at = NOW() WHERE id = ?",
+                clusterer.getCandidatePairs(), written, clusters.size(), scanId);
+            logger.info("Duplicate scan {} completed in {} ms", scanId, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            logger.error("Duplicate scan {} failed", scanId, e);
+            String message = e instanceof ContactBusinessException || e instanceof IllegalStateException
+                ? e.getMessage() : "Scan failed: " + e.getClass().getSimpleName();
+            jdbcTemplate.update(
+                "UPDATE contact_duplicate_scans SET status = 'FAILED', error_message = ?, completed_at = NOW() WHERE id = ?",
+                message, scanId);
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    /**
+     * Replace the tenant's pending duplicate rows with the scan's clusters. Pairs already reviewed
+     * in either direction are left as they are.
+     */
+    private long writeClusters(UUID tenantId, DuplicateClusterer clusterer, List<int[]> clusters) {
+        jdbcTemplate.update("DELETE FROM contact_duplicates WHERE tenant_id = ? AND status = 'PENDING'", tenantId);
+
+        List<Object[]> batch = new ArrayList<>(1000);
+        long written = 0;
+        for (int[] members : clusters) {
+            UUID master = clusterer.idOf(members[0]);
+            for (int i = 1; i < members.length; i++) {
+                UUID duplicate = clusterer.idOf(members[i]);
+                ContactSimilarity.Match match = clusterer.score(members[0], members[i]);
+                batch.add(new Object[] {master, duplicate, match.getPercentage(), match.getMatchingFields().toArray(new String[0])});
+                if (batch.size() == 1000) {
+                    written += insertDuplicates(tenantId, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += insertDuplicates(tenantId, batch);
+        }
+        return written;
+    }
+
+    private long insertDuplicates(UUID tenantId, List<Object[]> batch) {
+        long inserted = 0;
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_DUPLICATE_SQL, batch, batch.size(), (ps, row) -> {
+            ps.setObject(1, tenantId);
+            ps.setObject(2, row[0]);
+            ps.setObject(3, row[1]);
+            ps.setDouble(4, (Double) row[2]);
+            ps.setArray(5, ps.getConnection().createArrayOf("text", (String[]) row[3]));
+            // The same pair reviewed the other way round
+            ps.setObject(6, tenantId);
+            ps.setObject(7, row[1]);
+            ps.setObject(8, row[0]);
+            ps.setObject(9, row[0]);
+            ps.setObject(10, row[1]);
+        });
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                inserted += Math.max(count, 0);
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,509 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.dto.ContactEnrichmentRequest;
+import com.crm.platform.contacts.dto.ContactEnrichmentResponse;
+import com.crm.platform.contacts.enrichment.CompanyDomains;
+import com.crm.platform.contacts.enrichment.CompanyLookups;
+import com.crm.platform.contacts.enrichment.CompanyProfile;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.crm.platform.contacts.specification.ContactFilterSql;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Company enrichment of contacts.
+ *
+ * Contacts are enriched by the company behind their email domain, looked up at the configured
+ * providers through CompanyLookups, which caches each domain and bounds the calls in flight per
+ * provider. The merged profile is stored under the "enrichment" key of the contact's custom fields.
+ *
+ * Bulk enrichment is a job like an export: it walks the contacts matching the filters in id order,
+ * one keyset page at a time, looks up the page's distinct domains together and writes each domain's
+ * profile to all of its contacts with one statement. A page is committed with the id it ended at, so
+ * an interrupted enrichment resumes with the next page on any instance once its lease expires.
+ * Domains a provider did not answer are looked up again; if some still have no answer after the
+ * configured attempts the enrichment fails before its checkpoint passes their contacts.
+ */
+@Service
+public class ContactEnrichmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactEnrichmentService.class);
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private static final String CLAIM_SQL =
+        "UPDATE contact_enrichments SET lease_owner = ?, lease_expires_at = NOW() + make_interval(secs => ?), " +
+        "status = 'PROCESSING', updated_at = NOW() WHERE id = ? AND status IN ('PENDING', 'PROCESSING') " +
+        "AND (lease_expires_at IS NULL OR lease_expires_at < NOW()) " +
+        "RETURNING tenant_id, user_id, providers, CAST(filters AS TEXT), total_records, last_id";
+
+    private static final String ABANDONED_SQL =
+        "SELECT id FROM contact_enrichments WHERE status IN ('PENDING', 'PROCESSING') " +
+        "AND (lease_expires_at IS NULL OR lease_expires_at < NOW()) ORDER BY started_at LIMIT 1";
+
+    private static final String CHECKPOINT_SQL =
+        "UPDATE contact_enrichments SET last_id = ?, processed_records = processed_records + ?, " +
+        "enriched_records = enriched_records + ?, skipped_records = skipped_records + ?, " +
+        "failed_lookups = failed_lookups + ?, lease_expires_at = NOW() + make_interval(secs => ?), " +
+        "updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String RENEW_SQL =
+        "UPDATE contact_enrichments SET lease_expires_at = NOW() + make_interval(secs => ?), updated_at = NOW() " +
+        "WHERE id = ? AND lease_owner = ?";
+
+    private static final String COMPLETE_SQL =
+        "UPDATE contact_enrichments SET status = 'COMPLETED', completed_at = NOW(), lease_owner = NULL, " +
+        "lease_expires_at = NULL, updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String FAIL_SQL =
+        "UPDATE contact_enrichments SET status = 'FAILED', error_message = ?, completed_at = NOW(), lease_owner = NULL, " +
+        "lease_expires_at = NULL, updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String STATUS_SQL =
+        "SELECT status, providers, total_records, processed_records, enriched_records, skipped_records, failed_lookups, " +
+        "started_at, completed_at, error_message FROM contact_enrichments WHERE id = ? AND tenant_id = ?";
+
+    private static final String ENRICH_SQL =
+        "UPDATE contacts SET custom_fields = COALESCE(custom_fields, CAST('{}' AS JSONB)) || " +
+        "jsonb_build_object('enrichment', CAST(? AS JSONB)), updated_by = ?, updated_at = NOW() " +
+        "WHERE tenant_id = ? AND id = ANY(CAST(? AS UUID[]))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CompanyLookups companyLookups;
+    private final ExecutorService enrichmentExecutor;
+    private final Semaphore enrichmentSlots;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final int pageSize;
+    private final int lookupAttempts;
+    private final Duration lease;
+
+    public ContactEnrichmentService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    CompanyLookups companyLookups,
+                                    @Value("${contacts.enrichment.page-size:500}") int pageSize,
+                                    @Value("${contacts.enrichment.max-concurrent:2}") int maxConcurrent,
+                                    @Value("${contacts.enrichment.lookup-attempts:3}") int lookupAttempts,
+                                    @Value("${contacts.enrichment.lease:PT5M}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.companyLookups = companyLookups;
+        this.enrichmentExecutor = Executors.newFixedThreadPool(maxConcurrent);
+        this.enrichmentSlots = new Semaphore(maxConcurrent);
+        this.pageSize = pageSize;
+        this.lookupAttempts = lookupAttempts;
+        this.lease = lease;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running enrichments stop here and are resumed by another instance once their lease expires
+        enrichmentExecutor.shutdownNow();
+    }
+
+    /**
+     * The requested providers, or all of them when none are named
+     */
+    public List<String> resolveProviders(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            List<String> all = companyLookups.getProviderNames();
+            if (all.isEmpty()) {
+                throw new ContactBusinessException("ENRICHMENT_UNAVAILABLE", "No enrichment provider is configured");
+            }
+            return all;
+        }
+        for (String provider : requested) {
+            if (!companyLookups.hasProvider(provider)) {
+                throw new ContactBusinessException("INVALID_ENRICHMENT_PROVIDER", "Unknown enrichment provider: " + provider);
+            }
+        }
+        return requested;
+    }
+
+    /**
+     * Enrichment of one contact's email address, or null when it has no company domain or no
+     * provider knows the company
+     */
+    public Map<String, Object> lookupEnrichment(String email, List<String> providers) {
+        String domain = CompanyDomains.fromEmail(email);
+        if (domain == null) {
+            return null;
+        }
+        DomainLookups lookups = lookupDomains(List.of(domain), providers, () -> { });
+        if (!lookups.unanswered.isEmpty()) {
+            throw new ContactBusinessException("ENRICHMENT_UNAVAILABLE", "Enrichment providers did not answer for " + domain);
+        }
+        return lookups.enrichments.get(domain);
+    }
+
+    /**
+     * Register a bulk enrichment and start it on this instance if it has a free slot; otherwise the
+     * next instance with a free slot picks it up.
+     */
+    public ContactEnrichmentResponse startEnrichment(ContactEnrichmentRequest request, UUID tenantId, UUID userId) {
+        List<String> providers = resolveProviders(request.getProviders());
+        String filtersJson = request.getFilters() != null ? toJson(request.getFilters()) : null;
+
+        UUID enrichmentId = UUID.randomUUID();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO contact_enrichments (id, tenant_id, user_id, status, providers, filters) " +
+                "VALUES (?, ?, ?, 'PENDING', ?, CAST(? AS JSONB))");
+            ps.setObject(1, enrichmentId);
+            ps.setObject(2, tenantId);
+            ps.setObject(3, userId);
+            ps.setArray(4, con.createArrayOf("text", providers.toArray()));
+            ps.setString(5, filtersJson);
+            return ps;
+        });
+        logger.info("Contact enrichment {} registered for tenant: {}, providers: {}", enrichmentId, tenantId, providers);
+
+        if (enrichmentSlots.tryAcquire()) {
+            if (!claimAndRun(enrichmentId)) {
+                enrichmentSlots.release();
+            }
+        }
+        return getEnrichmentStatus(enrichmentId, tenantId);
+    }
+
+    public ContactEnrichmentResponse getEnrichmentStatus(UUID enrichmentId, UUID tenantId) {
+        List<ContactEnrichmentResponse> responses = jdbcTemplate.query(STATUS_SQL, (rs, rowNum) -> {
+            ContactEnrichmentResponse response = new ContactEnrichmentResponse();
+            response.setEnrichmentId(enrichmentId);
+            response.setStatus(ContactEnrichmentResponse.EnrichmentStatus.valueOf(rs.getString(1)));
+            response.setProviders(List.of((String[]) rs.getArray(2).getArray()));
+            long total = rs.getLong(3);
+            boolean totalKnown = !rs.wasNull();
+            long processed = rs.getLong(4);
+            response.setTotalRecords(totalKnown ? total : null);
+            response.setProcessedRecords(processed);
+            response.setEnrichedRecords(rs.getLong(5));
+            response.setSkippedRecords(rs.getLong(6));
+            response.setFailedLookups(rs.getLong(7));
+            response.setStartedAt(rs.getTimestamp(8).toInstant());
+            Timestamp completedAt = rs.getTimestamp(9);
+            response.setCompletedAt(completedAt != null ? completedAt.toInstant() : null);
+            response.setErrorMessage(rs.getString(10));
+
+            if (response.getStatus() == ContactEnrichmentResponse.EnrichmentStatus.COMPLETED) {
+                response.setProgress(100.0);
+            } else if (totalKnown && total > 0) {
+                response.setProgress(Math.min(100.0, Math.round(processed * 1000.0 / total) / 10.0));
+            } else {
+                response.setProgress(0.0);
+            }
+            return response;
+        }, enrichmentId, tenantId);
+
+        if (responses.isEmpty()) {
+            throw new ContactBusinessException("ENRICHMENT_NOT_FOUND", "Enrichment not found");
+        }
+        return responses.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${contacts.enrichment.resume-interval-ms:30000}")
+    public void resumeAbandonedEnrichments() {
+        try {
+            while (enrichmentSlots.tryAcquire()) {
+                // Another instance may claim the same enrichment first; the claim then matches nothing
+                List<UUID> ids = jdbcTemplate.queryForList(ABANDONED_SQL, UUID.class);
+                if (ids.isEmpty() || !claimAndRun(ids.get(0))) {
+                    enrichmentSlots.release();
+                    break;
+                }
+                logger.info("Resuming contact enrichment {}", ids.get(0));
+            }
+        } catch (Exception e) {
+            logger.error("Error resuming contact enrichments", e);
+        }
+    }
+
+    /**
+     * Take the lease on an enrichment and hand it to the enrichment pool. The caller holds a slot,
+     * which the run releases when it ends.
+     */
+    private boolean claimAndRun(UUID enrichmentId) {
+        List<EnrichmentJob> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            EnrichmentJob job = new EnrichmentJob(enrichmentId, rs.getObject(1, UUID.class), rs.getObject(2, UUID.class),
+                List.of((String[]) rs.getArray(3).getArray()), rs.getString(4));
+            long total = rs.getLong(5);
+            job.totalRecords = rs.wasNull() ? null : total;
+            job.lastId = rs.getObject(6, UUID.class);
+            return job;
+        }, instanceId, lease.getSeconds(), enrichmentId);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        EnrichmentJob job = claimed.get(0);
+        enrichmentExecutor.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                enrichmentSlots.release();
+            }
+        });
+        return true;
+    }
+
+    private void run(EnrichmentJob job) {
+        try {
+            ContactFilterSql filter = ContactFilterSql.of(job.tenantId,
+                job.filters != null ? ContactFilterSql.parse(job.filters, objectMapper) : null, objectMapper);
+            if (job.totalRecords == null) {
+                long total = jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT COUNT(*) FROM contacts c WHERE " + filter.getWhere());
+                    filter.bind(con, ps, 1);
+                    return ps;
+                }, rs -> rs.next() ? rs.getLong(1) : 0L);
+                jdbcTemplate.update("UPDATE contact_enrichments SET total_records = ? WHERE id = ?", total, job.enrichmentId);
+            }
+
+            String pageSql = "SELECT c.id, c.email FROM contacts c WHERE " + filter.getWhere() +
+                             " AND c.id > ? ORDER BY c.id LIMIT ?";
+            while (true) {
+                Map<String, List<UUID>> contactsByDomain = new HashMap<>();
+                PageResult page = new PageResult();
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(pageSql);
+                    int index = filter.bind(con, ps, 1);
+                    ps.setObject(index++, job.lastId != null ? job.lastId : FIRST_ID);
+                    ps.setInt(index, pageSize);
+                    return ps;
+                }, rs -> {
+                    UUID contactId = rs.getObject(1, UUID.class);
+                    String domain = CompanyDomains.fromEmail(rs.getString(2));
+                    if (domain != null) {
+                        contactsByDomain.computeIfAbsent(domain, d -> new ArrayList<>()).add(contactId);
+                    } else {
+                        page.skipped++;
+                    }
+                    page.lastId = contactId;
+                    page.rows++;
+                });
+                if (page.rows == 0) {
+                    break;
+                }
+
+                DomainLookups lookups = lookupDomains(contactsByDomain.keySet(), job.providers, () -> renewLease(job));
+                if (!lookups.unanswered.isEmpty()) {
+                    // Failing here leaves the checkpoint before the contacts of these domains
+                    jdbcTemplate.update("UPDATE contact_enrichments SET failed_lookups = failed_lookups + ? WHERE id = ?",
+                                        lookups.failed, job.enrichmentId);
+                    throw new ContactBusinessException("ENRICHMENT_UNAVAILABLE", "Enrichment providers did not answer for " +
+                        lookups.unanswered.size() + " domains after " + lookupAttempts + " attempts");
+                }
+                page.failedLookups = lookups.failed;
+                commitPage(job, contactsByDomain, lookups.enrichments, page);
+                if (page.rows < pageSize) {
+                    break;
+                }
+            }
+
+            if (jdbcTemplate.update(COMPLETE_SQL, job.enrichmentId, instanceId) == 0) {
+                throw new LeaseLostException("lease on enrichment " + job.enrichmentId + " was taken over");
+            }
+            logger.info("Contact enrichment {} completed", job.enrichmentId);
+        } catch (LeaseLostException e) {
+            logger.warn("Contact enrichment {} stopped: {}", job.enrichmentId, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Contact enrichment {} failed", job.enrichmentId, e);
+            String message = e instanceof ContactBusinessException
+                ? e.getMessage() : "Enrichment failed: " + e.getClass().getSimpleName();
+            jdbcTemplate.update(FAIL_SQL, message, job.enrichmentId, instanceId);
+        }
+    }
+
+    /**
+     * Write each known domain's enrichment to its contacts and advance the checkpoint, together
+     */
+    private void commitPage(EnrichmentJob job, Map<String, List<UUID>> contactsByDomain,
+                            Map<String, Map<String, Object>> enrichments, PageResult page) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Map.Entry<String, List<UUID>> domain : contactsByDomain.entrySet()) {
+                Map<String, Object> enrichment = enrichments.get(domain.getKey());
+                if (enrichment == null) {
+                    page.skipped += domain.getValue().size();
+                    continue;
+                }
+                String json = toJson(enrichment);
+                page.enriched += jdbcTemplate.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(ENRICH_SQL);
+                    ps.setString(1, json);
+                    ps.setObject(2, job.userId);
+                    ps.setObject(3, job.tenantId);
+                    ps.setArray(4, con.createArrayOf("uuid", domain.getValue().toArray()));
+                    return ps;
+                });
+            }
+            int updated = jdbcTemplate.update(CHECKPOINT_SQL, page.lastId, page.rows, page.enriched, page.skipped,
+                                              page.failedLookups, lease.getSeconds(), job.enrichmentId, instanceId);
+            if (updated == 0) {
+                throw new LeaseLostException("lease on enrichment " + job.enrichmentId + " was taken over");
+            }
+        });
+        job.lastId = page.lastId;
+    }
+
+    private void renewLease(EnrichmentJob job) {
+        if (jdbcTemplate.update(RENEW_SQL, lease.getSeconds(), job.enrichmentId, instanceId) == 0) {
+            throw new LeaseLostException("lease on enrichment " + job.enrichmentId + " was taken over");
+        }
+    }
+
+    /**
+     * Look up the domains, again for those a provider did not answer, up to the configured attempts.
+     * Answers are cached, so a new attempt only asks the providers that failed. Domains still missing
+     * an answer afterwards are left unanswered rather than treated as unknown.
+     */
+    private DomainLookups lookupDomains(Collection<String> domains, List<String> providers, Runnable whileWaiting) {
+        DomainLookups lookups = new DomainLookups();
+        Collection<String> remaining = domains;
+        for (int attempt = 0; attempt < lookupAttempts && !remaining.isEmpty(); attempt++) {
+            remaining = lookupOnce(remaining, providers, whileWaiting, lookups);
+        }
+        lookups.unanswered.addAll(remaining);
+        return lookups;
+    }
+
+    /**
+     * Look up all domains at all providers at once, then collect the merged profile of each domain
+     * every provider answered for and some provider knows. The first provider named wins where
+     * profiles disagree. Each lookup times out on its own in CompanyLookups, so waiting has no
+     * deadline here; whileWaiting runs at intervals until the lookups are done.
+     *
+     * @return the domains some provider did not answer for
+     */
+    private List<String> lookupOnce(Collection<String> domains, List<String> providers, Runnable whileWaiting,
+                                    DomainLookups lookups) {
+        Map<String, List<CompletableFuture<CompanyProfile>>> pending = new LinkedHashMap<>();
+        for (String domain : domains) {
+            List<CompletableFuture<CompanyProfile>> results = new ArrayList<>(providers.size());
+            for (String provider : providers) {
+                results.add(companyLookups.lookup(provider, domain));
+            }
+            pending.put(domain, results);
+        }
+
+        List<String> unanswered = new ArrayList<>();
+        for (Map.Entry<String, List<CompletableFuture<CompanyProfile>>> domain : pending.entrySet()) {
+            CompanyProfile merged = null;
+            List<String> sources = new ArrayList<>();
+            boolean answered = true;
+            for (int i = 0; i < providers.size(); i++) {
+                CompanyProfile profile;
+                try {
+                    profile = await(domain.getValue().get(i), whileWaiting);
+                } catch (ExecutionException e) {
+                    lookups.failed++;
+                    answered = false;
+                    continue;
+                }
+                if (profile != null) {
+                    merged = merged == null ? profile : merged.mergedWith(profile);
+                    sources.add(providers.get(i));
+                }
+            }
+            if (!answered) {
+                unanswered.add(domain.getKey());
+            } else if (merged != null) {
+                Map<String, Object> enrichment = new LinkedHashMap<>();
+                enrichment.put("company", objectMapper.convertValue(merged, Map.class));
+                enrichment.put("providers", sources);
+                enrichment.put("enrichedAt", Instant.now().toString());
+                lookups.enrichments.put(domain.getKey(), enrichment);
+            }
+        }
+        return unanswered;
+    }
+
+    private CompanyProfile await(CompletableFuture<CompanyProfile> lookup, Runnable whileWaiting) throws ExecutionException {
+        long interval = Math.max(1, lease.toMillis() / 3);
+        while (true) {
+            try {
+                return lookup.get(interval, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                whileWaiting.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for company lookups", e);
+            }
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new ContactBusinessException("INVALID_FILTERS", "Value cannot be serialized", e);
+        }
+    }
+
+    private static class EnrichmentJob {
+        private final UUID enrichmentId;
+        private final UUID tenantId;
+        private final UUID userId;
+        private final List<String> providers;
+        private final String filters;
+        private Long totalRecords;
+        private UUID lastId;
+
+        private EnrichmentJob(UUID enrichmentId, UUID tenantId, UUID userId, List<String> providers, String filters) {
+            this.enrichmentId = enrichmentId;
+            this.tenantId = tenantId;
+            this.userId = userId;
+            this.providers = providers;
+            this.filters = filters;
+        }
+    }
+
+    private static class PageResult {
+        private int rows;
+        private int enriched;
+        private int skipped;
+        private int failedLookups;
+        private UUID lastId;
+    }
+
+    private static class DomainLookups {
+        private final Map<String, Map<String, Object>> enrichments = new HashMap<>();
+        private final List<String> unanswered = new ArrayList<>();
+        private int failed;
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+        private LeaseLostException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,57 +1,65 @@
 package com.crm.platform.contacts.service;
 
 import com.crm.platform.contacts.entity.Contact;
+import com.crm.platform.contacts.entity.ContactRelationship;
 import com.crm.platform.contacts.event.ContactEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import com.crm.platform.common.outbox.OutboxPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+/**
+ * Contact events go through the outbox: they are written in the caller's transaction and sent
+ * once it commits.
+ */
 @Service
 public class ContactEventService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContactEventService.class);
     private static final String CONTACT_EVENTS_TOPIC = "contact-events";
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxPublisher outboxPublisher;
 
-    public ContactEventService(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public ContactEventService(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishContactCreated(Contact contact) {
-        ContactEvent event = new ContactEvent();
-        event.setEventId(UUID.randomUUID());
-        event.setEventType("CONTACT_CREATED");
-        event.setContactId(contact.getId());
-        event.setTenantId(contact.getTenantId());
-        event.setUserId(contact.getCreatedBy());
-        event.setTimestamp(LocalDateTime.now());
-        event.setContactData(contact);
-
-        publishEvent(event);
+        publishEvent(createdEvent(contact));
         logger.info("Published CONTACT_CREATED event for contact: {}", contact.getId());
     }
 
     public void publishContactUpdated(Contact oldContact, Contact newContact) {
-        ContactEvent event = new ContactEvent();
-        event.setEventId(UUID.randomUUID());
-        event.setEventType("CONTACT_UPDATED");
-        event.setContactId(newContact.getId());
-        event.setTenantId(newContact.getTenantId());
-        event.setUserId(newContact.getUpdatedBy());
-        event.setTimestamp(LocalDateTime.now());
-        event.setContactData(newContact);
-        event.setPreviousContactData(oldContact);
-
-        publishEvent(event);
+        publishEvent(updatedEvent(oldContact, newContact));
         logger.info("Published CONTACT_UPDATED event for contact: {}", newContact.getId());
     }
 
+    /**
+     * An event per contact, written with one statement
+     */
+    public void publishContactsCreated(List<Contact> contacts) {
+        publishEvents(contacts.stream().map(this::createdEvent).collect(Collectors.toList()));
+        logger.info("Published CONTACT_CREATED events for {} contacts", contacts.size());
+    }
+
+    /**
+     * The previous and updated contacts pair up by position
+     */
+    public void publishContactsUpdated(List<Contact> oldContacts, List<Contact> newContacts) {
+        List<ContactEvent> events = new ArrayList<>(newContacts.size());
+        for (int i = 0; i < newContacts.size(); i++) {
+            events.add(updatedEvent(oldContacts.get(i), newContacts.get(i)));
+        }
+        publishEvents(events);
+        logger.info("Published CONTACT_UPDATED events for {} contacts", newContacts.size());
+    }
+
     public void publishContactDeleted(Contact contact) {
         ContactEvent event = new ContactEvent();
         event.setEventId(UUID.randomUUID());
@@ -82,11 +90,77 @@ public class ContactEventService {
                    mergedContact.getId(), duplicateContacts.size());
     }
 
+    public void publishContactsDeleted(UUID tenantId, List<UUID> contactIds, UUID userId) {
+        ContactEvent event = new ContactEvent();
+        event.setEventId(UUID.randomUUID());
+        event.setEventType("CONTACTS_DELETED");
+        event.setContactIds(contactIds);
+        event.setTenantId(tenantId);
+        event.setUserId(userId);
+        event.setTimestamp(LocalDateTime.now());
+
+        publishEvent(event);
+        logger.info("Published CONTACTS_DELETED event for {} contacts", contactIds.size());
+    }
+
+    public void publishRelationshipCreated(ContactRelationship relationship) {
+        publishRelationshipEvent("CONTACT_RELATIONSHIP_CREATED", relationship, relationship.getCreatedBy());
+    }
+
+    public void publishRelationshipDeleted(ContactRelationship relationship, UUID userId) {
+        publishRelationshipEvent("CONTACT_RELATIONSHIP_DELETED", relationship, userId);
+    }
+
+    private void publishRelationshipEvent(String eventType, ContactRelationship relationship, UUID userId) {
+        ContactEvent event = new ContactEvent();
+        event.setEventId(UUID.randomUUID());
+        event.setEventType(eventType);
+        event.setContactId(relationship.getContact().getId());
+        event.setRelatedContactId(relationship.getRelatedContact().getId());
+        event.setTenantId(relationship.getTenantId());
+        event.setUserId(userId);
+        event.setTimestamp(LocalDateTime.now());
+
+        publishEvent(event);
+        logger.info("Published {} event for contacts: {} -> {}", eventType, event.getContactId(), event.getRelatedContactId());
+    }
+
+    private ContactEvent createdEvent(Contact contact) {
+        ContactEvent event = new ContactEvent();
+        event.setEventId(UUID.randomUUID());
+        event.setEventType("CONTACT_CREATED");
+        event.setContactId(contact.getId());
+        event.setTenantId(contact.getTenantId());
+        event.setUserId(contact.getCreatedBy());
+        event.setTimestamp(LocalDateTime.now());
+        event.setContactData(contact);
+        return event;
+    }
+
+    private ContactEvent updatedEvent(Contact oldContact, Contact newContact) {
+        ContactEvent event = new ContactEvent();
+        event.setEventId(UUID.randomUUID());
+        event.setEventType("CONTACT_UPDATED");
+        event.setContactId(newContact.getId());
+        event.setTenantId(newContact.getTenantId());
+        event.setUserId(newContact.getUpdatedBy());
+        event.setTimestamp(LocalDateTime.now());
+        event.setContactData(newContact);
+        event.setPreviousContactData(oldContact);
+        return event;
+    }
+
     private void publishEvent(ContactEvent event) {
-        try {
-            kafkaTemplate.send(CONTACT_EVENTS_TOPIC, event.getContactId().toString(), event);
-        } catch (Exception e) {
-            logger.error("Failed to publish contact event: {}", event.getEventType(), e);
-        }
+        outboxPublisher.publish(CONTACT_EVENTS_TOPIC, keyOf(event), event);
+    }
+
+    private void publishEvents(List<ContactEvent> events) {
+        outboxPublisher.publishAll(CONTACT_EVENTS_TOPIC, events, this::keyOf);
+    }
+
+    // Events about many contacts are keyed by their tenant
+    private String keyOf(ContactEvent event) {
+        UUID key = event.getContactId() != null ? event.getContactId() : event.getTenantId();
+        return key.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,596 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.dto.ContactExportResponse;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.crm.platform.contacts.exporter.CsvExportWriter;
+import com.crm.platform.contacts.exporter.ExportDownload;
+import com.crm.platform.contacts.exporter.ExportRowWriter;
+import com.crm.platform.contacts.exporter.XlsxPackager;
+import com.crm.platform.contacts.exporter.XlsxSheetWriter;
+import com.crm.platform.contacts.specification.ContactFilterSql;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Chunked contact export.
+ *
+ * A run walks the tenant's contacts in id order with keyset pages of chunk-size rows, selecting
+ * only the requested fields, and streams each page straight into its own chunk file. A chunk is
+ * committed together with the id it ended at, so memory is bounded by one page, no transaction
+ * stays open across the export, and an interrupted export resumes with the next chunk on any
+ * instance once its lease expires. CSV downloads concatenate the chunks; XLSX chunks are row
+ * fragments packaged into a workbook at the end. The storage path must be shared by all
+ * instances that serve downloads.
+ */
+@Service
+public class ContactExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExportService.class);
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final String CUSTOM_FIELD_PREFIX = "customFields.";
+
+    private static final Map<String, String> FIELD_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        FIELD_COLUMNS.put("id", "CAST(c.id AS TEXT)");
+        FIELD_COLUMNS.put("firstName", "c.first_name");
+        FIELD_COLUMNS.put("lastName", "c.last_name");
+        FIELD_COLUMNS.put("email", "c.email");
+        FIELD_COLUMNS.put("phone", "c.phone");
+        FIELD_COLUMNS.put("mobile", "c.mobile");
+        FIELD_COLUMNS.put("title", "c.title");
+        FIELD_COLUMNS.put("department", "c.department");
+        FIELD_COLUMNS.put("accountId", "CAST(c.account_id AS TEXT)");
+        FIELD_COLUMNS.put("leadSource", "c.lead_source");
+        FIELD_COLUMNS.put("contactStatus", "c.contact_status");
+        FIELD_COLUMNS.put("leadScore", "c.lead_score");
+        FIELD_COLUMNS.put("doNotCall", "CAST(c.do_not_call AS TEXT)");
+        FIELD_COLUMNS.put("doNotEmail", "CAST(c.do_not_email AS TEXT)");
+        FIELD_COLUMNS.put("emailOptOut", "CAST(c.email_opt_out AS TEXT)");
+        FIELD_COLUMNS.put("preferredContactMethod", "c.preferred_contact_method");
+        FIELD_COLUMNS.put("timezone", "c.timezone");
+        FIELD_COLUMNS.put("language", "c.language");
+        FIELD_COLUMNS.put("tags", "array_to_string(c.tags, ';')");
+        FIELD_COLUMNS.put("notes", "c.notes");
+        FIELD_COLUMNS.put("ownerId", "CAST(c.owner_id AS TEXT)");
+        FIELD_COLUMNS.put("mailingAddress", "CAST(c.mailing_address AS TEXT)");
+        FIELD_COLUMNS.put("socialProfiles", "CAST(c.social_profiles AS TEXT)");
+        FIELD_COLUMNS.put("customFields", "CAST(c.custom_fields AS TEXT)");
+        FIELD_COLUMNS.put("createdAt", "CAST(c.created_at AS TEXT)");
+        FIELD_COLUMNS.put("updatedAt", "CAST(c.updated_at AS TEXT)");
+    }
+
+    private static final List<String> DEFAULT_FIELDS = List.of(
+        "id", "firstName", "lastName", "email", "phone", "mobile", "title", "department", "accountId",
+        "leadSource", "contactStatus", "leadScore", "tags", "ownerId", "createdAt", "updatedAt");
+
+    private static final String CLAIM_SQL =
+        "UPDATE contact_exports SET lease_owner = ?, lease_expires_at = NOW() + make_interval(secs => ?), " +
+        "status = 'PROCESSING', updated_at = NOW() WHERE id = ? AND status IN ('PENDING', 'PROCESSING') " +
+        "AND (lease_expires_at IS NULL OR lease_expires_at < NOW()) " +
+        "RETURNING tenant_id, format, fields, CAST(filters AS TEXT), file_name, total_records, last_id";
+
+    private static final String ABANDONED_SQL =
+        "SELECT id FROM contact_exports WHERE status IN ('PENDING', 'PROCESSING') " +
+        "AND (lease_expires_at IS NULL OR lease_expires_at < NOW()) ORDER BY started_at LIMIT 1";
+
+    private static final String CHECKPOINT_SQL =
+        "UPDATE contact_exports SET last_id = ?, processed_records = processed_records + ?, " +
+        "lease_expires_at = NOW() + make_interval(secs => ?), updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String COMPLETE_SQL =
+        "UPDATE contact_exports SET status = 'COMPLETED', file_size = ?, completed_at = NOW(), " +
+        "expires_at = NOW() + make_interval(secs => ?), lease_owner = NULL, lease_expires_at = NULL, updated_at = NOW() " +
+        "WHERE id = ? AND lease_owner = ?";
+
+    private static final String FAIL_SQL =
+        "UPDATE contact_exports SET status = 'FAILED', error_message = ?, completed_at = NOW(), " +
+        "expires_at = NOW() + make_interval(secs => ?), lease_owner = NULL, lease_expires_at = NULL, updated_at = NOW() " +
+        "WHERE id = ? AND lease_owner = ?";
+
+    private static final String STATUS_SQL =
+        "SELECT status, format, total_records, processed_records, started_at, completed_at, expires_at, error_message " +
+        "FROM contact_exports WHERE id = ? AND tenant_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService exportExecutor;
+    private final Semaphore exportSlots;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Path storagePath;
+    private final int chunkSize;
+    private final long maxRecords;
+    private final Duration lease;
+    private final Duration retention;
+
+    public ContactExportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${contacts.export.storage-path:${java.io.tmpdir}/contact-exports}") String storagePath,
+                                @Value("${contacts.export.chunk-size:5000}") int chunkSize,
+                                @Value("${contacts.export.max-records:10000000}") long maxRecords,
+                                @Value("${contacts.export.max-concurrent:2}") int maxConcurrent,
+                                @Value("${contacts.export.lease:PT2M}") Duration lease,
+                                @Value("${contacts.export.retention:P1D}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.exportExecutor = Executors.newFixedThreadPool(maxConcurrent);
+        this.exportSlots = new Semaphore(maxConcurrent);
+        this.storagePath = Paths.get(storagePath);
+        this.chunkSize = chunkSize;
+        this.maxRecords = maxRecords;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running exports stop here and are resumed by another instance once their lease expires
+        exportExecutor.shutdownNow();
+    }
+
+    /**
+     * Register an export and start it on this instance if it has a free slot; otherwise the next
+     * instance with a free slot picks it up.
+     *
+     * @param filters JSON object with the criteria of ContactSearchRequest, or null for all contacts
+     */
+    public ContactExportResponse startExport(String format, List<String> fields, String filters, UUID tenantId, UUID userId) {
+        String normalizedFormat = normalizeFormat(format);
+        List<String> exportFields = fields == null || fields.isEmpty() ? DEFAULT_FIELDS : fields;
+        for (String field : exportFields) {
+            if (!FIELD_COLUMNS.containsKey(field)
+                    && !(field.startsWith(CUSTOM_FIELD_PREFIX) && field.length() > CUSTOM_FIELD_PREFIX.length())) {
+                throw new ContactBusinessException("INVALID_EXPORT_FIELD", "Unknown export field: " + field);
+            }
+        }
+        String filtersJson = filters == null || filters.isBlank() ? null : filters;
+        if (filtersJson != null) {
+            ContactFilterSql.parse(filtersJson, objectMapper);
+        }
+
+        UUID exportId = UUID.randomUUID();
+        String fileName = "contacts-" + exportId + "." + normalizedFormat;
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO contact_exports (id, tenant_id, user_id, status, format, fields, filters, file_name) " +
+                "VALUES (?, ?, ?, 'PENDING', ?, ?, CAST(? AS JSONB), ?)");
+            ps.setObject(1, exportId);
+            ps.setObject(2, tenantId);
+            ps.setObject(3, userId);
+            ps.setString(4, normalizedFormat);
+            ps.setArray(5, con.createArrayOf("text", exportFields.toArray()));
+            ps.setString(6, filtersJson);
+            ps.setString(7, fileName);
+            return ps;
+        });
+        logger.info("Contact export {} registered for tenant: {}, format: {}", exportId, tenantId, normalizedFormat);
+
+        if (exportSlots.tryAcquire()) {
+            if (!claimAndRun(exportId)) {
+                exportSlots.release();
+            }
+        }
+        return getExportStatus(exportId, tenantId);
+    }
+
+    public ContactExportResponse getExportStatus(UUID exportId, UUID tenantId) {
+        List<ContactExportResponse> responses = jdbcTemplate.query(STATUS_SQL, (rs, rowNum) -> {
+            ContactExportResponse response = new ContactExportResponse(rs.getString(2));
+            response.setExportId(exportId);
+            response.setStatus(ContactExportResponse.ExportStatus.valueOf(rs.getString(1)));
+            long total = rs.getLong(3);
+            boolean totalKnown = !rs.wasNull();
+            long processed = rs.getLong(4);
+            response.setTotalRecords(totalKnown ? (int) total : null);
+            response.setProcessedRecords((int) processed);
+            response.setStartedAt(rs.getTimestamp(5).toInstant());
+            Timestamp completedAt = rs.getTimestamp(6);
+            Timestamp expiresAt = rs.getTimestamp(7);
+            response.setCompletedAt(completedAt != null ? completedAt.toInstant() : null);
+            response.setExpiresAt(expiresAt != null ? expiresAt.toInstant() : null);
+            response.setErrorMessage(rs.getString(8));
+
+            if (response.getStatus() == ContactExportResponse.ExportStatus.COMPLETED) {
+                response.setProgress(100.0);
+                response.setDownloadUrl("/api/v1/contacts/export/" + exportId + "/download");
+            } else if (totalKnown && total > 0) {
+                response.setProgress(Math.min(100.0, Math.round(processed * 1000.0 / total) / 10.0));
+            } else {
+                response.setProgress(0.0);
+            }
+            return response;
+        }, exportId, tenantId);
+
+        if (responses.isEmpty()) {
+            throw new ContactBusinessException("EXPORT_NOT_FOUND", "Export not found");
+        }
+        return responses.get(0);
+    }
+
+    /**
+     * Files of a completed export, for streaming to the client
+     */
+    public ExportDownload openDownload(UUID exportId, UUID tenantId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT status, format, file_name, expires_at FROM contact_exports WHERE id = ? AND tenant_id = ?",
+            exportId, tenantId);
+        if (rows.isEmpty()) {
+            throw new ContactBusinessException("EXPORT_NOT_FOUND", "Export not found");
+        }
+        Map<String, Object> export = rows.get(0);
+        Timestamp expiresAt = (Timestamp) export.get("expires_at");
+        if ("EXPIRED".equals(export.get("status")) || expiresAt != null && expiresAt.toInstant().isBefore(Instant.now())) {
+            throw new ContactBusinessException("EXPORT_EXPIRED", "Export has expired");
+        }
+        if (!"COMPLETED".equals(export.get("status"))) {
+            throw new ContactBusinessException("EXPORT_NOT_READY", "Export is not completed yet");
+        }
+
+        String fileName = (String) export.get("file_name");
+        Path directory = storagePath.resolve(exportId.toString());
+        try {
+            if ("xlsx".equals(export.get("format"))) {
+                Path workbook = directory.resolve(fileName);
+                return new ExportDownload(fileName,
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                    List.of(workbook), new long[] {Files.size(workbook)});
+            }
+            List<Integer> chunks = jdbcTemplate.queryForList(
+                "SELECT chunk_number FROM contact_export_chunks WHERE export_id = ? ORDER BY chunk_number",
+                Integer.class, exportId);
+            List<Path> files = new ArrayList<>(chunks.size());
+            long[] sizes = new long[chunks.size()];
+            for (int i = 0; i < chunks.size(); i++) {
+                files.add(chunkPath(directory, chunks.get(i), "csv"));
+                sizes[i] = Files.size(files.get(i));
+            }
+            return new ExportDownload(fileName, "text/csv; charset=UTF-8", files, sizes);
+        } catch (IOException e) {
+            throw new ContactBusinessException("EXPORT_FILE_MISSING", "Export file is no longer available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${contacts.export.resume-interval-ms:30000}")
+    public void resumeAbandonedExports() {
+        try {
+            while (exportSlots.tryAcquire()) {
+                // Another instance may claim the same export first; the claim then matches nothing
+                List<UUID> ids = jdbcTemplate.queryForList(ABANDONED_SQL, UUID.class);
+                if (ids.isEmpty() || !claimAndRun(ids.get(0))) {
+                    exportSlots.release();
+                    break;
+                }
+                logger.info("Resuming contact export {}", ids.get(0));
+            }
+        } catch (Exception e) {
+            logger.error("Error resuming contact exports", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 * * * ?") // Run hourly at minute 30
+    public void removeExpiredExports() {
+        try {
+            List<UUID> expired = jdbcTemplate.queryForList(
+                "UPDATE contact_exports SET status = 'EXPIRED', updated_at = NOW() " +
+                "WHERE status IN ('COMPLETED', 'FAILED') AND expires_at < NOW() RETURNING id", UUID.class);
+            for (UUID exportId : expired) {
+                deleteDirectory(storagePath.resolve(exportId.toString()));
+            }
+            if (!expired.isEmpty()) {
+                logger.info("Removed {} expired contact exports", expired.size());
+            }
+        } catch (Exception e) {
+            logger.error("Error removing expired contact exports", e);
+        }
+    }
+
+    /**
+     * Take the lease on an export and hand it to the export pool. The caller holds an export slot,
+     * which the run releases when it ends.
+     */
+    private boolean claimAndRun(UUID exportId) {
+        List<ExportJob> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            ExportJob job = new ExportJob(exportId, rs.getObject(1, UUID.class), rs.getString(2),
+                List.of((String[]) rs.getArray(3).getArray()), rs.getString(4), rs.getString(5));
+            long total = rs.getLong(6);
+            job.totalRecords = rs.wasNull() ? null : total;
+            job.lastId = rs.getObject(7, UUID.class);
+            return job;
+        }, instanceId, lease.getSeconds(), exportId);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        ExportJob job = claimed.get(0);
+        exportExecutor.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                exportSlots.release();
+            }
+        });
+        return true;
+    }
+
+    private void run(ExportJob job) {
+        try {
+            ExportQuery query = buildQuery(job);
+            if (job.totalRecords == null) {
+                long total = jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(query.countSql);
+                    query.filter.bind(con, ps, 1);
+                    return ps;
+                }, rs -> rs.next() ? rs.getLong(1) : 0L);
+                if (total > maxRecords) {
+                    throw new ContactBusinessException("EXPORT_TOO_LARGE",
+                        "Export of " + total + " contacts exceeds the limit of " + maxRecords);
+                }
+                jdbcTemplate.update("UPDATE contact_exports SET total_records = ? WHERE id = ?", total, job.exportId);
+            }
+
+            Path directory = storagePath.resolve(job.exportId.toString());
+            Files.createDirectories(directory);
+            boolean csv = "csv".equals(job.format);
+            Integer lastChunk = jdbcTemplate.queryForObject(
+                "SELECT MAX(chunk_number) FROM contact_export_chunks WHERE export_id = ?", Integer.class, job.exportId);
+            int chunkNumber = lastChunk != null ? lastChunk + 1 : 1;
+            if (lastChunk != null) {
+                logger.info("Contact export {} resuming at chunk {}", job.exportId, chunkNumber);
+            }
+
+            while (true) {
+                Path chunk = chunkPath(directory, chunkNumber, csv ? "csv" : "xml");
+                ChunkResult result = writeChunk(job, query, chunk, csv && chunkNumber == 1);
+                if (result.rows == 0 && chunkNumber > 1) {
+                    Files.deleteIfExists(chunk);
+                    break;
+                }
+                commitChunk(job, chunkNumber, result, Files.size(chunk));
+                chunkNumber++;
+                if (result.rows < chunkSize) {
+                    break;
+                }
+            }
+
+            long fileSize = csv ? sumChunkSizes(job.exportId) : packageWorkbook(job, directory);
+            int updated = jdbcTemplate.update(COMPLETE_SQL, fileSize, retention.getSeconds(), job.exportId, instanceId);
+            if (updated == 0) {
+                throw new IllegalStateException("Lease on export " + job.exportId + " was lost");
+            }
+            if (!csv) {
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        if (file.getFileName().toString().endsWith(".xml")) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+            }
+            logger.info("Contact export {} completed: {} bytes", job.exportId, fileSize);
+        } catch (LeaseLostException e) {
+            logger.warn("Contact export {} stopped: {}", job.exportId, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Contact export {} failed", job.exportId, e);
+            String message = e instanceof ContactBusinessException
+                ? e.getMessage() : "Export failed: " + e.getClass().getSimpleName();
+            jdbcTemplate.update(FAIL_SQL, message, retention.getSeconds(), job.exportId, instanceId);
+        }
+    }
+
+    /**
+     * Stream the next keyset page into a chunk file, one row at a time
+     */
+    private ChunkResult writeChunk(ExportJob job, ExportQuery query, Path chunk, boolean header) throws IOException {
+        ChunkResult result = new ChunkResult();
+        int width = job.fields.size();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(chunk), StandardCharsets.UTF_8), 64 * 1024)) {
+            ExportRowWriter writer = "csv".equals(job.format) ? new CsvExportWriter(out) : new XlsxSheetWriter(out);
+            if (header) {
+                writer.writeHeader(job.fields);
+            }
+            Object[] values = new Object[width];
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(query.pageSql);
+                int index = 1;
+                for (String key : query.selectParams) {
+                    ps.setString(index++, key);
+                }
+                index = query.filter.bind(con, ps, index);
+                ps.setObject(index++, job.lastId != null ? job.lastId : FIRST_ID);
+                ps.setInt(index, chunkSize);
+                return ps;
+            }, rs -> {
+                for (int i = 0; i < width; i++) {
+                    values[i] = rs.getObject(i + 2);
+                }
+                try {
+                    writer.writeRow(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                result.lastId = rs.getObject(1, UUID.class);
+                result.rows++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return result;
+    }
+
+    private void commitChunk(ExportJob job, int chunkNumber, ChunkResult result, long byteSize) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(
+                "INSERT INTO contact_export_chunks (export_id, chunk_number, row_count, byte_size, last_id) " +
+                "VALUES (?, ?, ?, ?, ?)", job.exportId, chunkNumber, result.rows, byteSize, result.lastId);
+            int updated = jdbcTemplate.update(CHECKPOINT_SQL, result.lastId != null ? result.lastId : job.lastId,
+                                              result.rows, lease.getSeconds(), job.exportId, instanceId);
+            if (updated == 0) {
+                throw new LeaseLostException("lease on export " + job.exportId + " was taken over");
+            }
+        });
+        if (result.lastId != null) {
+            job.lastId = result.lastId;
+        }
+    }
+
+    /**
+     * Join the row chunks into a workbook, starting a new sheet before the worksheet row limit
+     */
+    private long packageWorkbook(ExportJob job, Path directory) throws IOException {
+        List<List<Path>> sheets = new ArrayList<>();
+        List<Path> sheet = new ArrayList<>();
+        long sheetRows = 0;
+        for (Map<String, Object> chunk : jdbcTemplate.queryForList(
+                "SELECT chunk_number, row_count FROM contact_export_chunks WHERE export_id = ? ORDER BY chunk_number",
+                job.exportId)) {
+            int rows = ((Number) chunk.get("row_count")).intValue();
+            if (sheetRows + rows > XlsxPackager.MAX_SHEET_ROWS - 1 && !sheet.isEmpty()) {
+                sheets.add(sheet);
+                sheet = new ArrayList<>();
+                sheetRows = 0;
+            }
+            sheet.add(chunkPath(directory, ((Number) chunk.get("chunk_number")).intValue(), "xml"));
+            sheetRows += rows;
+        }
+        if (!sheet.isEmpty()) {
+            sheets.add(sheet);
+        }
+
+        Path workbook = directory.resolve(job.fileName);
+        XlsxPackager.write(workbook, sheets, job.fields);
+        return Files.size(workbook);
+    }
+
+    private long sumChunkSizes(UUID exportId) {
+        Long size = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(byte_size), 0) FROM contact_export_chunks WHERE export_id = ?", Long.class, exportId);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * Project the requested fields and translate the filters into SQL
+     */
+    private ExportQuery buildQuery(ExportJob job) {
+        ExportQuery query = new ExportQuery();
+        StringBuilder select = new StringBuilder("c.id");
+        for (String field : job.fields) {
+            select.append(", ");
+            if (field.startsWith(CUSTOM_FIELD_PREFIX)) {
+                select.append("c.custom_fields ->> ?");
+                query.selectParams.add(field.substring(CUSTOM_FIELD_PREFIX.length()));
+            } else {
+                select.append(FIELD_COLUMNS.get(field));
+            }
+        }
+
+        query.filter = ContactFilterSql.of(job.tenantId,
+            job.filters != null ? ContactFilterSql.parse(job.filters, objectMapper) : null, objectMapper);
+        String where = query.filter.getWhere();
+
+        query.countSql = "SELECT COUNT(*) FROM contacts c WHERE " + where;
+        query.pageSql = "SELECT " + select + " FROM contacts c WHERE " + where + " AND c.id > ? ORDER BY c.id LIMIT ?";
+        return query;
+    }
+
+    private static String normalizeFormat(String format) {
+        String normalized = format == null ? "csv" : format.trim().toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "csv":
+                return "csv";
+            case "xlsx":
+            case "excel":
+                return "xlsx";
+            default:
+                throw new ContactBusinessException("UNSUPPORTED_FORMAT", "Unsupported export format: " + format);
+        }
+    }
+
+    private static Path chunkPath(Path directory, int chunkNumber, String extension) {
+        return directory.resolve(String.format("chunk-%06d.%s", chunkNumber, extension));
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static class ExportJob {
+        private final UUID exportId;
+        private final UUID tenantId;
+        private final String format;
+        private final List<String> fields;
+        private final String filters;
+        private final String fileName;
+        private Long totalRecords;
+        private UUID lastId;
+
+        private ExportJob(UUID exportId, UUID tenantId, String format, List<String> fields, String filters, String fileName) {
+            this.exportId = exportId;
+            this.tenantId = tenantId;
+            this.format = format;
+            this.fields = fields;
+            this.filters = filters;
+            this.fileName = fileName;
+        }
+    }
+
+    private static class ExportQuery {
+        private final List<String> selectParams = new ArrayList<>();
+        private ContactFilterSql filter;
+        private String countSql;
+        private String pageSql;
+    }
+
+    private static class ChunkResult {
+        private int rows;
+        private UUID lastId;
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+        private LeaseLostException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,1038 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.dto.ContactImportRequest;
+import com.crm.platform.contacts.dto.ContactImportResponse;
+import com.crm.platform.contacts.dto.ContactRequest;
+import com.crm.platform.contacts.analytics.ContactAnalyticsStore;
+import com.crm.platform.contacts.dedup.ContactMatchKeyIndex;
+import com.crm.platform.contacts.entity.Contact;
+import com.crm.platform.contacts.entity.ContactMethod;
+import com.crm.platform.contacts.entity.ContactStatus;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.crm.platform.contacts.importer.CsvRowReader;
+import com.crm.platform.contacts.importer.ImportFileSource;
+import com.crm.platform.contacts.importer.ImportRowMapper;
+import com.crm.platform.contacts.importer.ImportRowReader;
+import com.crm.platform.contacts.importer.XlsxRowReader;
+import com.crm.platform.contacts.repository.ContactRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Streaming contact import.
+ *
+ * The file is read row by row on a coordinator thread and cut into batches of batchSize rows.
+ * Batches are mapped, validated, checked for duplicates and written by a shared pool of workers;
+ * a per-import limit on batches in flight blocks the reader when the workers fall behind, so
+ * heap use is bounded by a few batches whatever the size of the file. Each batch runs its
+ * duplicate lookup as one query and its writes as one multi-row INSERT (and one UPDATE when
+ * existing contacts are updated), and records itself in contact_import_batches in the same
+ * transaction. An interrupted import re-reads the file and skips the recorded batches; imports
+ * whose lease has expired are picked up by any instance.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+
+    private static final Set<String> MATCH_FIELDS = Set.of("email", "phone", "mobile", "name");
+    private static final int STATUS_ERROR_LIMIT = 100;
+
+    private static final String CONTACT_COLUMNS =
+        "first_name, last_name, email, phone, mobile, title, department, account_id, lead_source, contact_status, " +
+        "lead_score, do_not_call, do_not_email, email_opt_out, preferred_contact_method, timezone, language, notes, " +
+        "owner_id, mailing_address, social_profiles, custom_fields, tags";
+
+    private static final String UNNEST_ROWS =
+        "unnest(CAST(? AS UUID[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), " +
+        "CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS UUID[]), CAST(? AS TEXT[]), " +
+        "CAST(? AS TEXT[]), CAST(? AS INTEGER[]), CAST(? AS BOOLEAN[]), CAST(? AS BOOLEAN[]), CAST(? AS BOOLEAN[]), " +
+        "CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS UUID[]), " +
+        "CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[])) AS v(id, " + CONTACT_COLUMNS + ")";
+
+    private static final String INSERT_CONTACTS_SQL =
+        "INSERT INTO contacts (id, tenant_id, " + CONTACT_COLUMNS + ", created_by, updated_by) " +
+        "SELECT v.id, ?, v.first_name, v.last_name, v.email, v.phone, v.mobile, v.title, v.department, v.account_id, " +
+        "v.lead_source, v.contact_status, v.lead_score, v.do_not_call, v.do_not_email, v.email_opt_out, " +
+        "v.preferred_contact_method, v.timezone, v.language, v.notes, v.owner_id, CAST(v.mailing_address AS JSONB), " +
+        "COALESCE(CAST(v.social_profiles AS JSONB), CAST('{}' AS JSONB)), " +
+        "COALESCE(CAST(v.custom_fields AS JSONB), CAST('{}' AS JSONB)), " +
+        "ARRAY(SELECT jsonb_array_elements_text(CAST(v.tags AS JSONB))), ?, ? " +
+        "FROM " + UNNEST_ROWS + " " +
+        "ON CONFLICT (tenant_id, email) WHERE email IS NOT NULL DO NOTHING " +
+        "RETURNING id";
+
+    private static final String UPDATE_CONTACTS_SQL =
+        "UPDATE contacts c SET first_name = COALESCE(v.first_name, c.first_name), " +
+        "last_name = COALESCE(v.last_name, c.last_name), email = COALESCE(v.email, c.email), " +
+        "phone = COALESCE(v.phone, c.phone), mobile = COALESCE(v.mobile, c.mobile), " +
+        "title = COALESCE(v.title, c.title), department = COALESCE(v.department, c.department), " +
+        "account_id = COALESCE(v.account_id, c.account_id), lead_source = COALESCE(v.lead_source, c.lead_source), " +
+        "contact_status = COALESCE(v.contact_status, c.contact_status), lead_score = COALESCE(v.lead_score, c.lead_score), " +
+        "do_not_call = COALESCE(v.do_not_call, c.do_not_call), do_not_email = COALESCE(v.do_not_email, c.do_not_email), " +
+        "email_opt_out = COALESCE(v.email_opt_out, c.email_opt_out), " +
+        "preferred_contact_method = COALESCE(v.preferred_contact_method, c.preferred_contact_method), " +
+        "timezone = COALESCE(v.timezone, c.timezone), language = COALESCE(v.language, c.language), " +
+        "notes = COALESCE(v.notes, c.notes), owner_id = COALESCE(v.owner_id, c.owner_id), " +
+        "mailing_address = COALESCE(CAST(v.mailing_address AS JSONB), c.mailing_address), " +
+        "social_profiles = COALESCE(CAST(v.social_profiles AS JSONB), c.social_profiles), " +
+        "custom_fields = COALESCE(CAST(v.custom_fields AS JSONB), c.custom_fields), " +
+        "tags = CASE WHEN v.tags IS NULL THEN c.tags ELSE ARRAY(SELECT jsonb_array_elements_text(CAST(v.tags AS JSONB))) END, " +
+        "updated_by = ?, updated_at = NOW() " +
+        "FROM " + UNNEST_ROWS + " " +
+        "WHERE c.id = v.id AND c.tenant_id = ? " +
+        "RETURNING c.id";
+
+    private static final String CLAIM_SQL =
+        "UPDATE contact_imports SET lease_owner = ?, lease_expires_at = NOW() + make_interval(secs => ?), " +
+        "updated_at = NOW() WHERE id = ? AND status IN ('PENDING', 'VALIDATING', 'PROCESSING') " +
+        "AND (lease_expires_at IS NULL OR lease_expires_at < NOW()) " +
+        "RETURNING tenant_id, user_id, options, batch_size";
+
+    private static final String ABANDONED_SQL =
+        "SELECT id FROM contact_imports WHERE status IN ('PENDING', 'VALIDATING', 'PROCESSING') " +
+        "AND (lease_expires_at IS NULL OR lease_expires_at < NOW()) ORDER BY started_at LIMIT 1";
+
+    private static final String HEARTBEAT_SQL =
+        "UPDATE contact_imports SET bytes_read = ?, lease_expires_at = NOW() + make_interval(secs => ?), " +
+        "updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String RECORD_BATCH_SQL =
+        "INSERT INTO contact_import_batches (import_id, batch_number, processed_records, created_records, " +
+        "updated_records, skipped_records, duplicate_records, failed_records) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String RECORD_ERROR_SQL =
+        "INSERT INTO contact_import_errors (import_id, row_number, field, value, error_code, error_message) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String COMPLETE_SQL =
+        "UPDATE contact_imports i SET status = CASE WHEN EXISTS (SELECT 1 FROM contact_import_batches b " +
+        "WHERE b.import_id = i.id AND b.failed_records > 0) THEN 'PARTIALLY_COMPLETED' ELSE 'COMPLETED' END, " +
+        "total_records = ?, bytes_read = ?, completed_at = NOW(), lease_owner = NULL, lease_expires_at = NULL, " +
+        "updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String FAIL_SQL =
+        "UPDATE contact_imports SET status = 'FAILED', error_message = ?, completed_at = NOW(), lease_owner = NULL, " +
+        "lease_expires_at = NULL, updated_at = NOW() WHERE id = ? AND lease_owner = ?";
+
+    private static final String STATUS_SQL =
+        "SELECT i.status, i.file_name, i.total_records, i.bytes_read, i.content_length, i.error_message, " +
+        "i.started_at, i.completed_at, COALESCE(SUM(b.processed_records), 0), COALESCE(SUM(b.created_records), 0), " +
+        "COALESCE(SUM(b.updated_records), 0), COALESCE(SUM(b.skipped_records), 0), " +
+        "COALESCE(SUM(b.duplicate_records), 0), COALESCE(SUM(b.failed_records), 0) " +
+        "FROM contact_imports i LEFT JOIN contact_import_batches b ON b.import_id = i.id " +
+        "WHERE i.id = ? AND i.tenant_id = ? GROUP BY i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ContactValidationService validationService;
+    private final ContactEventService eventService;
+    private final ContactRepository contactRepository;
+    private final ContactMatchKeyIndex matchKeyIndex;
+    private final ContactAnalyticsStore analyticsStore;
+    private final ImportFileSource fileSource;
+    private final ExecutorService importExecutor;
+    private final ExecutorService workerExecutor;
+    private final Semaphore importSlots;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final int maxBatchSize;
+    private final Set<String> supportedFormats;
+    private final int batchesInFlight;
+    private final int maxErrors;
+    private final Duration lease;
+    private final Duration heartbeat;
+
+    public ContactImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                ContactValidationService validationService,
+                                ContactEventService eventService,
+                                ContactRepository contactRepository,
+                                ContactMatchKeyIndex matchKeyIndex,
+                                ContactAnalyticsStore analyticsStore,
+                                @Value("${contacts.import.max-batch-size:1000}") int maxBatchSize,
+                                @Value("${contacts.import.supported-formats:csv,xlsx}") String supportedFormats,
+                                @Value("${contacts.import.max-concurrent:2}") int maxConcurrent,
+                                @Value("${contacts.import.workers:4}") int workers,
+                                @Value("${contacts.import.max-errors:1000}") int maxErrors,
+                                @Value("${contacts.import.lease:PT2M}") Duration lease,
+                                @Value("${contacts.import.heartbeat:PT10S}") Duration heartbeat,
+                                @Value("${contacts.import.allowed-hosts:}") String allowedHosts,
+                                @Value("${contacts.import.max-redirects:3}") int maxRedirects) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validationService = validationService;
+        this.eventService = eventService;
+        this.contactRepository = contactRepository;
+        this.matchKeyIndex = matchKeyIndex;
+        this.analyticsStore = analyticsStore;
+        // Redirects are followed by the file source, which checks every hop
+        this.fileSource = new ImportFileSource(HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build(), Arrays.asList(allowedHosts.split(",")), maxRedirects);
+        this.importExecutor = Executors.newFixedThreadPool(maxConcurrent);
+        this.workerExecutor = Executors.newFixedThreadPool(workers);
+        this.importSlots = new Semaphore(maxConcurrent);
+        this.maxBatchSize = maxBatchSize;
+        this.supportedFormats = new HashSet<>(Arrays.asList(supportedFormats.toLowerCase(Locale.ROOT).split("\\s*,\\s*")));
+        this.batchesInFlight = workers * 2;
+        this.maxErrors = maxErrors;
+        this.lease = lease;
+        this.heartbeat = heartbeat;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running imports stop here and are resumed by another instance once their lease expires
+        importExecutor.shutdownNow();
+        workerExecutor.shutdownNow();
+    }
+
+    /**
+     * Register an import and start it on this instance if it has a free slot; otherwise the next
+     * instance with a free slot picks it up.
+     */
+    public ContactImportResponse startImport(ContactImportRequest request, UUID tenantId, UUID userId) {
+        String format = request.getFormat().trim().toLowerCase(Locale.ROOT);
+        if (!supportedFormats.contains(format)) {
+            throw new ContactBusinessException("UNSUPPORTED_FORMAT", "Unsupported import format: " + request.getFormat());
+        }
+        URI fileUri = fileSource.check(request.getFileUrl());
+        parseDelimiter(request.getDelimiter());
+        if (request.getEncoding() != null && !Charset.isSupported(request.getEncoding())) {
+            throw new ContactBusinessException("INVALID_ENCODING", "Unsupported encoding: " + request.getEncoding());
+        }
+        if (request.getDuplicateMatchFields() != null) {
+            for (String field : request.getDuplicateMatchFields()) {
+                if (!MATCH_FIELDS.contains(field)) {
+                    throw new ContactBusinessException("INVALID_DUPLICATE_MATCH_FIELD",
+                        "Duplicates can be matched on " + MATCH_FIELDS + ", not " + field);
+                }
+            }
+        }
+        int batchSize = Math.max(1, Math.min(request.getBatchSize() != null ? request.getBatchSize() : 100, maxBatchSize));
+
+        UUID importId = UUID.randomUUID();
+        String fileName = request.getFileName() != null ? request.getFileName()
+            : fileUri.getPath() != null ? fileUri.getPath().substring(fileUri.getPath().lastIndexOf('/') + 1) : null;
+        jdbcTemplate.update(
+            "INSERT INTO contact_imports (id, tenant_id, user_id, status, file_name, file_url, format, options, batch_size) " +
+            "VALUES (?, ?, ?, 'PENDING', ?, ?, ?, CAST(? AS JSONB), ?)",
+            importId, tenantId, userId, fileName, request.getFileUrl(), format, toJson(request), batchSize);
+        logger.info("Contact import {} registered for tenant: {}, file: {}", importId, tenantId, fileName);
+
+        if (importSlots.tryAcquire()) {
+            if (!claimAndRun(importId)) {
+                importSlots.release();
+            }
+        }
+        return getImportStatus(importId, tenantId);
+    }
+
+    public ContactImportResponse getImportStatus(UUID importId, UUID tenantId) {
+        List<ContactImportResponse> responses = jdbcTemplate.query(STATUS_SQL, (rs, rowNum) -> {
+            ContactImportResponse response = new ContactImportResponse();
+            response.setImportId(importId);
+            response.setStatus(ContactImportResponse.ImportStatus.valueOf(rs.getString(1)));
+            response.setFileName(rs.getString(2));
+            long totalRecords = rs.getLong(3);
+            response.setTotalRecords(rs.wasNull() ? null : (int) totalRecords);
+            long bytesRead = rs.getLong(4);
+            long contentLength = rs.getLong(5);
+            Timestamp startedAt = rs.getTimestamp(7);
+            Timestamp completedAt = rs.getTimestamp(8);
+            response.setStartedAt(startedAt.toInstant());
+            response.setCompletedAt(completedAt != null ? completedAt.toInstant() : null);
+
+            int processed = rs.getInt(9);
+            int created = rs.getInt(10);
+            int updated = rs.getInt(11);
+            int skipped = rs.getInt(12);
+            int duplicates = rs.getInt(13);
+            int failed = rs.getInt(14);
+            response.setProcessedRecords(processed);
+            response.setSuccessfulRecords(processed - skipped - duplicates - failed);
+            response.setSkippedRecords(skipped);
+            response.setDuplicateRecords(duplicates);
+            response.setFailedRecords(failed);
+
+            ContactImportResponse.ImportResultSummary summary = new ContactImportResponse.ImportResultSummary();
+            summary.setCreatedContacts(created);
+            summary.setUpdatedContacts(updated);
+            summary.setMergedContacts(0);
+            summary.setInvalidRecords(failed);
+            response.setResultSummary(summary);
+
+            if (completedAt != null) {
+                response.setProgress(100.0);
+                response.setEstimatedTimeRemaining(0L);
+            } else if (contentLength > 0 && bytesRead > 0) {
+                double fraction = Math.min(1.0, (double) bytesRead / contentLength);
+                response.setProgress(Math.round(fraction * 1000) / 10.0);
+                long elapsed = Duration.between(startedAt.toInstant(), Instant.now()).getSeconds();
+                response.setEstimatedTimeRemaining((long) (elapsed * (1 - fraction) / fraction));
+            } else {
+                response.setProgress(0.0);
+            }
+
+            String errorMessage = rs.getString(6);
+            if (errorMessage != null) {
+                response.setErrors(new ArrayList<>(List.of(
+                    new ContactImportResponse.ImportError(null, null, "IMPORT_FAILED", errorMessage))));
+            }
+            return response;
+        }, importId, tenantId);
+
+        if (responses.isEmpty()) {
+            throw new ContactBusinessException("IMPORT_NOT_FOUND", "Import not found");
+        }
+        ContactImportResponse response = responses.get(0);
+
+        List<ContactImportResponse.ImportError> errors = jdbcTemplate.query(
+            "SELECT row_number, field, value, error_code, error_message FROM contact_import_errors " +
+            "WHERE import_id = ? ORDER BY row_number LIMIT " + STATUS_ERROR_LIMIT,
+            (rs, rowNum) -> {
+                ContactImportResponse.ImportError error = new ContactImportResponse.ImportError(
+                    (int) rs.getLong(1), rs.getString(2), rs.getString(4), rs.getString(5));
+                error.setValue(rs.getString(3));
+                return error;
+            }, importId);
+        if (response.getErrors() != null) {
+            errors.addAll(0, response.getErrors());
+        }
+        response.setErrors(errors);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${contacts.import.resume-interval-ms:30000}")
+    public void resumeAbandonedImports() {
+        try {
+            while (importSlots.tryAcquire()) {
+                // Another instance may claim the same import first; the claim then matches nothing
+                List<UUID> ids = jdbcTemplate.queryForList(ABANDONED_SQL, UUID.class);
+                if (ids.isEmpty() || !claimAndRun(ids.get(0))) {
+                    importSlots.release();
+                    break;
+                }
+                logger.info("Resuming contact import {}", ids.get(0));
+            }
+        } catch (Exception e) {
+            logger.error("Error resuming contact imports", e);
+        }
+    }
+
+    /**
+     * Take the lease on an import and hand it to the import pool. The caller holds an import slot,
+     * which the run releases when it ends.
+     */
+    private boolean claimAndRun(UUID importId) {
+        // The stored batch size, not the current limit: checkpoints are batch numbers
+        List<ImportJob> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new ImportJob(importId,
+            rs.getObject(1, UUID.class), rs.getObject(2, UUID.class),
+            fromJson(rs.getString(3)), rs.getInt(4)), instanceId, lease.getSeconds(), importId);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        ImportJob job = claimed.get(0);
+        importExecutor.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                importSlots.release();
+            }
+        });
+        return true;
+    }
+
+    private void run(ImportJob job) {
+        Path tempFile = null;
+        try {
+            Set<Integer> completedBatches = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT batch_number FROM contact_import_batches WHERE import_id = ?", Integer.class, job.importId));
+            job.errorsRecorded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM contact_import_errors WHERE import_id = ?", Integer.class, job.importId);
+
+            ContactImportRequest request = job.request;
+            ImportRowReader reader;
+            HttpResponse<InputStream> download = fileSource.open(request.getFileUrl());
+            long contentLength = download.headers().firstValueAsLong("Content-Length").orElse(-1L);
+            if ("xlsx".equalsIgnoreCase(request.getFormat())) {
+                // The zip directory sits at the end of the file, so the workbook needs random access
+                tempFile = Files.createTempFile("contact-import", ".xlsx");
+                try (InputStream body = download.body()) {
+                    Files.copy(body, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                reader = new XlsxRowReader(tempFile);
+            } else {
+                Charset charset = Charset.forName(request.getEncoding() != null ? request.getEncoding() : "UTF-8");
+                reader = new CsvRowReader(download.body(), charset, parseDelimiter(request.getDelimiter()), contentLength);
+            }
+
+            try (ImportRowReader rows = reader) {
+                heartbeat(job, rows);
+                String[] header = Boolean.FALSE.equals(request.getSkipHeaderRow()) ? null : rows.next();
+                job.mapper = new ImportRowMapper(header, request.getFieldMapping(), request.getDefaultValues());
+                jdbcTemplate.update(
+                    "UPDATE contact_imports SET status = ?, content_length = ?, updated_at = NOW() WHERE id = ? AND lease_owner = ?",
+                    Boolean.TRUE.equals(request.getValidateOnly()) ? "VALIDATING" : "PROCESSING",
+                    rows.totalBytes() >= 0 ? rows.totalBytes() : null, job.importId, instanceId);
+                if (!completedBatches.isEmpty()) {
+                    logger.info("Contact import {} resuming with {} batches already done", job.importId, completedBatches.size());
+                }
+
+                long totalRecords = stream(job, rows, completedBatches);
+                int updated = jdbcTemplate.update(COMPLETE_SQL, totalRecords, rows.bytesRead(), job.importId, instanceId);
+                if (updated == 0) {
+                    throw new IllegalStateException("Lease on import " + job.importId + " was lost");
+                }
+                logger.info("Contact import {} completed: {} records", job.importId, totalRecords);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Contact import {} interrupted; it resumes once its lease expires", job.importId);
+        } catch (LeaseLostException e) {
+            logger.warn("Contact import {} stopped: {}", job.importId, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Contact import {} failed", job.importId, e);
+            String message = e instanceof ContactBusinessException || e instanceof IOException
+                ? e.getMessage() : "Import failed: " + e.getClass().getSimpleName();
+            jdbcTemplate.update(FAIL_SQL, message, job.importId, instanceId);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    logger.warn("Could not delete import file {}", tempFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the file and dispatch its batches, holding at most batchesInFlight of them at a time.
+     * Returns the number of data rows in the file.
+     */
+    private long stream(ImportJob job, ImportRowReader rows, Set<Integer> completedBatches) throws Exception {
+        Semaphore inFlight = new Semaphore(batchesInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long nextHeartbeat = System.nanoTime() + heartbeat.toNanos();
+        long totalRecords = 0;
+        int batchNumber = 0;
+        int batchRows = 0;
+        List<SourceRow> batch = new ArrayList<>(job.batchSize);
+
+        String[] cells;
+        while ((cells = rows.next()) != null) {
+            totalRecords++;
+            if (!completedBatches.contains(batchNumber)) {
+                batch.add(new SourceRow(rows.rowNumber(), cells));
+            }
+            if (++batchRows == job.batchSize) {
+                nextHeartbeat = dispatch(job, batchNumber, batch, inFlight, failure, rows, nextHeartbeat);
+                batch = new ArrayList<>(job.batchSize);
+                batchNumber++;
+                batchRows = 0;
+            }
+        }
+        if (batchRows > 0) {
+            dispatch(job, batchNumber, batch, inFlight, failure, rows, nextHeartbeat);
+        }
+
+        while (!inFlight.tryAcquire(batchesInFlight, heartbeat.toMillis(), TimeUnit.MILLISECONDS)) {
+            heartbeat(job, rows);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Batch write failed", failure.get());
+        }
+        return totalRecords;
+    }
+
+    private long dispatch(ImportJob job, int batchNumber, List<SourceRow> batch, Semaphore inFlight,
+                          AtomicReference<Throwable> failure, ImportRowReader rows, long nextHeartbeat) throws Exception {
+        if (failure.get() != null) {
+            throw new IllegalStateException("Batch write failed", failure.get());
+        }
+        if (System.nanoTime() >= nextHeartbeat) {
+            heartbeat(job, rows);
+            nextHeartbeat = System.nanoTime() + heartbeat.toNanos();
+        }
+        if (batch.isEmpty()) {
+            return nextHeartbeat;
+        }
+
+        while (!inFlight.tryAcquire(heartbeat.toMillis(), TimeUnit.MILLISECONDS)) {
+            heartbeat(job, rows);
+            nextHeartbeat = System.nanoTime() + heartbeat.toNanos();
+        }
+        workerExecutor.execute(() -> {
+            try {
+                processBatch(job, batchNumber, batch);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+        return nextHeartbeat;
+    }
+
+    private void heartbeat(ImportJob job, ImportRowReader rows) {
+        int updated = jdbcTemplate.update(HEARTBEAT_SQL, rows.bytesRead(), lease.getSeconds(), job.importId, instanceId);
+        if (updated == 0) {
+            throw new LeaseLostException("lease on import " + job.importId + " was taken over");
+        }
+    }
+
+    /**
+     * Map, validate, de-duplicate and write one batch, and record it, in one transaction. A batch
+     * whose writes fail is recorded with all its rows failed, so the rest of the file still loads.
+     */
+    private void processBatch(ImportJob job, int batchNumber, List<SourceRow> rows) {
+        BatchOutcome outcome = new BatchOutcome(rows.size());
+        List<PreparedRow> valid = new ArrayList<>(rows.size());
+        for (SourceRow row : rows) {
+            try {
+                ContactRequest request = job.mapper.map(row.cells);
+                if (request == null) {
+                    outcome.skipped++;
+                    continue;
+                }
+                validationService.validateContactRequest(request, job.tenantId);
+                valid.add(new PreparedRow(row.rowNumber, request));
+            } catch (ContactBusinessException e) {
+                Map<String, Object> details = e.getDetails();
+                outcome.fail(row.rowNumber, details != null ? (String) details.get("field") : null,
+                             details != null ? (String) details.get("value") : null, e.getErrorCode(), e.getMessage());
+            }
+        }
+
+        int invalid = outcome.failed;
+        List<RowError> invalidErrors = new ArrayList<>(outcome.errors);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeBatch(job, batchNumber, valid, outcome);
+                eventService.publishContactsCreated(outcome.createdContacts);
+                eventService.publishContactsUpdated(outcome.previousContacts, outcome.updatedContacts);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Contact import {} batch {} failed", job.importId, batchNumber, e);
+            BatchOutcome failed = new BatchOutcome(rows.size());
+            failed.skipped = outcome.skipped;
+            failed.failed = invalid;
+            failed.errors.addAll(invalidErrors);
+            for (PreparedRow row : valid) {
+                failed.fail(row.rowNumber, null, null, "BATCH_FAILED", "Batch could not be written");
+            }
+            transactionTemplate.executeWithoutResult(status -> recordBatch(job, batchNumber, failed));
+        }
+    }
+
+    private void writeBatch(ImportJob job, int batchNumber, List<PreparedRow> valid, BatchOutcome outcome) {
+        ContactImportRequest request = job.request;
+        boolean validateOnly = Boolean.TRUE.equals(request.getValidateOnly());
+        Map<PreparedRow, UUID> existing = findExisting(job, valid);
+
+        List<PreparedRow> inserts = new ArrayList<>();
+        List<PreparedRow> updates = new ArrayList<>();
+        Set<UUID> updatedIds = new HashSet<>();
+        for (PreparedRow row : valid) {
+            UUID existingId = existing.get(row);
+            if (existingId == null) {
+                row.contactId = UUID.randomUUID();
+                inserts.add(row);
+            } else if (Boolean.TRUE.equals(request.getUpdateExisting()) && updatedIds.add(existingId)) {
+                row.contactId = existingId;
+                updates.add(row);
+            } else {
+                rejectDuplicate(request, row, outcome);
+            }
+        }
+
+        if (!validateOnly && !inserts.isEmpty()) {
+            Set<UUID> inserted = new HashSet<>(jdbcTemplate.execute((ConnectionCallback<List<UUID>>) con -> {
+                Object[] params = new Object[27];
+                params[0] = job.tenantId;
+                params[1] = job.userId;
+                params[2] = job.userId;
+                bindRows(con, inserts, true, job.userId, params, 3);
+                return jdbcTemplate.queryForList(INSERT_CONTACTS_SQL, UUID.class, params);
+            }));
+            for (PreparedRow row : inserts) {
+                if (inserted.contains(row.contactId)) {
+                    outcome.created++;
+                    outcome.createdContacts.add(toContact(row, job));
+                } else {
+                    // The email was taken by an earlier row of this file or a concurrent write
+                    rejectDuplicate(request, row, outcome);
+                }
+            }
+        }
+
+        if (!validateOnly && !updates.isEmpty()) {
+            // The stored contacts before the update, for the events
+            Map<UUID, Contact> previous = new HashMap<>();
+            for (Contact stored : contactRepository.findByTenantIdAndIdIn(job.tenantId, new ArrayList<>(updatedIds))) {
+                Contact copy = new Contact();
+                BeanUtils.copyProperties(stored, copy);
+                previous.put(copy.getId(), copy);
+            }
+            Set<UUID> changed = new HashSet<>(jdbcTemplate.execute((ConnectionCallback<List<UUID>>) con -> {
+                Object[] params = new Object[26];
+                params[0] = job.userId;
+                bindRows(con, updates, false, job.userId, params, 1);
+                params[25] = job.tenantId;
+                return jdbcTemplate.queryForList(UPDATE_CONTACTS_SQL, UUID.class, params);
+            }));
+            for (PreparedRow row : updates) {
+                if (changed.contains(row.contactId)) {
+                    Contact before = previous.get(row.contactId);
+                    outcome.updated++;
+                    outcome.previousContacts.add(before);
+                    outcome.updatedContacts.add(updatedContact(before, row, job));
+                } else {
+                    rejectDuplicate(request, row, outcome);
+                }
+            }
+        }
+
+        // Updates keep stored values for empty cells, so their keys are taken from the stored rows
+        matchKeyIndex.index(job.tenantId, outcome.createdContacts);
+        List<UUID> changedIds = new ArrayList<>(outcome.updatedContacts.size());
+        for (Contact contact : outcome.updatedContacts) {
+            changedIds.add(contact.getId());
+        }
+        matchKeyIndex.reindex(job.tenantId, changedIds);
+        List<UUID> writtenIds = new ArrayList<>(changedIds);
+        for (Contact contact : outcome.createdContacts) {
+            writtenIds.add(contact.getId());
+        }
+        analyticsStore.refresh(job.tenantId, writtenIds);
+
+        recordBatch(job, batchNumber, outcome);
+    }
+
+    private void rejectDuplicate(ContactImportRequest request, PreparedRow row, BatchOutcome outcome) {
+        if (Boolean.TRUE.equals(request.getSkipDuplicates())) {
+            outcome.duplicates++;
+        } else {
+            outcome.fail(row.rowNumber, null, null, "DUPLICATE_CONTACT", "Contact already exists");
+        }
+    }
+
+    private void recordBatch(ImportJob job, int batchNumber, BatchOutcome outcome) {
+        // The primary key makes each batch count once, even if two instances race on a lease
+        jdbcTemplate.update(RECORD_BATCH_SQL, job.importId, batchNumber, outcome.processed, outcome.created,
+                            outcome.updated, outcome.skipped, outcome.duplicates, outcome.failed);
+
+        int allowed = job.reserveErrors(outcome.errors.size(), maxErrors);
+        if (allowed > 0) {
+            jdbcTemplate.batchUpdate(RECORD_ERROR_SQL, outcome.errors.subList(0, allowed), allowed, (ps, error) -> {
+                ps.setObject(1, job.importId);
+                ps.setLong(2, error.rowNumber);
+                ps.setString(3, error.field);
+                ps.setString(4, error.value);
+                ps.setString(5, error.errorCode);
+                ps.setString(6, error.message);
+            });
+        }
+    }
+
+    /**
+     * Look up the existing contacts matching a batch on the import's match fields, in one query
+     */
+    private Map<PreparedRow, UUID> findExisting(ImportJob job, List<PreparedRow> rows) {
+        Map<PreparedRow, UUID> existing = new HashMap<>();
+        if (rows.isEmpty()) {
+            return existing;
+        }
+        List<String> matchFields = job.request.getDuplicateMatchFields() != null && !job.request.getDuplicateMatchFields().isEmpty()
+            ? job.request.getDuplicateMatchFields() : List.of("email");
+
+        Set<String> emails = new LinkedHashSet<>();
+        Set<String> phones = new LinkedHashSet<>();
+        List<String> firstNames = new ArrayList<>();
+        List<String> lastNames = new ArrayList<>();
+        for (PreparedRow row : rows) {
+            ContactRequest contact = row.request;
+            if (contact.getEmail() != null) {
+                emails.add(contact.getEmail());
+            }
+            if (contact.getPhone() != null) {
+                phones.add(contact.getPhone());
+            }
+            if (contact.getMobile() != null) {
+                phones.add(contact.getMobile());
+            }
+            firstNames.add(contact.getFirstName());
+            lastNames.add(contact.getLastName());
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        params.add(job.tenantId);
+        if (matchFields.contains("email")) {
+            conditions.add("email = ANY(CAST(? AS TEXT[]))");
+            params.add(emails.toArray(new String[0]));
+        }
+        if (matchFields.contains("phone")) {
+            conditions.add("phone = ANY(CAST(? AS TEXT[]))");
+            params.add(phones.toArray(new String[0]));
+        }
+        if (matchFields.contains("mobile")) {
+            conditions.add("mobile = ANY(CAST(? AS TEXT[]))");
+            params.add(phones.toArray(new String[0]));
+        }
+        if (matchFields.contains("name")) {
+            conditions.add("(last_name, first_name) IN (SELECT l, f FROM unnest(CAST(? AS TEXT[]), CAST(? AS TEXT[])) AS n(l, f))");
+            params.add(lastNames.toArray(new String[0]));
+            params.add(firstNames.toArray(new String[0]));
+        }
+        String sql = "SELECT id, email, phone, mobile, first_name, last_name FROM contacts WHERE tenant_id = ? AND (" +
+            String.join(" OR ", conditions) + ")";
+
+        Map<String, UUID> byEmail = new HashMap<>();
+        Map<String, UUID> byPhone = new HashMap<>();
+        Map<String, UUID> byMobile = new HashMap<>();
+        Map<String, UUID> byName = new HashMap<>();
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            Object[] bound = new Object[params.size()];
+            for (int i = 0; i < bound.length; i++) {
+                Object param = params.get(i);
+                bound[i] = param instanceof String[] ? con.createArrayOf("text", (String[]) param) : param;
+            }
+            jdbcTemplate.query(sql, rs -> {
+                UUID id = rs.getObject(1, UUID.class);
+                putIfPresent(byEmail, rs.getString(2), id);
+                putIfPresent(byPhone, rs.getString(3), id);
+                putIfPresent(byMobile, rs.getString(4), id);
+                byName.putIfAbsent(rs.getString(6) + '\u0000' + rs.getString(5), id);
+            }, bound);
+            return null;
+        });
+
+        for (PreparedRow row : rows) {
+            ContactRequest contact = row.request;
+            UUID match = null;
+            for (String field : matchFields) {
+                switch (field) {
+                    case "email" -> match = contact.getEmail() != null ? byEmail.get(contact.getEmail()) : null;
+                    case "phone" -> match = contact.getPhone() != null ? byPhone.get(contact.getPhone()) : null;
+                    case "mobile" -> match = contact.getMobile() != null ? byMobile.get(contact.getMobile()) : null;
+                    default -> match = byName.get(contact.getLastName() + '\u0000' + contact.getFirstName());
+                }
+                if (match != null) {
+                    existing.put(row, match);
+                    break;
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static void putIfPresent(Map<String, UUID> index, String key, UUID id) {
+        if (key != null) {
+            index.putIfAbsent(key, id);
+        }
+    }
+
+    /**
+     * Bind the rows as one array per contact column, in the order of UNNEST_ROWS. For inserts the
+     * defaults of a new contact are filled in; for updates missing values stay null and keep the
+     * stored value.
+     */
+    private void bindRows(java.sql.Connection con, List<PreparedRow> rows, boolean insert, UUID userId,
+                          Object[] params, int offset) throws java.sql.SQLException {
+        int n = rows.size();
+        UUID[] ids = new UUID[n];
+        String[][] text = new String[17][n];
+        UUID[] accountIds = new UUID[n];
+        UUID[] ownerIds = new UUID[n];
+        Integer[] leadScores = new Integer[n];
+        Boolean[] doNotCall = new Boolean[n];
+        Boolean[] doNotEmail = new Boolean[n];
+        Boolean[] emailOptOut = new Boolean[n];
+
+        for (int i = 0; i < n; i++) {
+            PreparedRow row = rows.get(i);
+            ContactRequest c = row.request;
+            ids[i] = row.contactId;
+            text[0][i] = c.getFirstName();
+            text[1][i] = c.getLastName();
+            text[2][i] = c.getEmail();
+            text[3][i] = c.getPhone();
+            text[4][i] = c.getMobile();
+            text[5][i] = c.getTitle();
+            text[6][i] = c.getDepartment();
+            text[7][i] = c.getLeadSource();
+            text[8][i] = c.getContactStatus() != null ? c.getContactStatus().name() : insert ? ContactStatus.ACTIVE.name() : null;
+            text[9][i] = c.getPreferredContactMethod() != null ? c.getPreferredContactMethod().name()
+                : insert ? ContactMethod.EMAIL.name() : null;
+            text[10][i] = c.getTimezone();
+            text[11][i] = c.getLanguage() != null ? c.getLanguage() : insert ? "en-US" : null;
+            text[12][i] = c.getNotes();
+            text[13][i] = c.getMailingAddress() != null ? toJson(c.getMailingAddress()) : null;
+            text[14][i] = c.getSocialProfiles() != null ? toJson(c.getSocialProfiles()) : null;
+            text[15][i] = c.getCustomFields() != null ? toJson(c.getCustomFields()) : null;
+            text[16][i] = c.getTags() != null ? toJson(c.getTags()) : insert ? "[]" : null;
+            accountIds[i] = c.getAccountId();
+            ownerIds[i] = c.getOwnerId() != null ? c.getOwnerId() : insert ? userId : null;
+            leadScores[i] = c.getLeadScore() != null ? c.getLeadScore() : insert ? Integer.valueOf(0) : null;
+            doNotCall[i] = c.getDoNotCall() != null ? c.getDoNotCall() : insert ? Boolean.FALSE : null;
+            doNotEmail[i] = c.getDoNotEmail() != null ? c.getDoNotEmail() : insert ? Boolean.FALSE : null;
+            emailOptOut[i] = c.getEmailOptOut() != null ? c.getEmailOptOut() : insert ? Boolean.FALSE : null;
+        }
+
+        Array[] columns = {
+            con.createArrayOf("uuid", ids),
+            con.createArrayOf("text", text[0]), con.createArrayOf("text", text[1]), con.createArrayOf("text", text[2]),
+            con.createArrayOf("text", text[3]), con.createArrayOf("text", text[4]), con.createArrayOf("text", text[5]),
+            con.createArrayOf("text", text[6]), con.createArrayOf("uuid", accountIds), con.createArrayOf("text", text[7]),
+            con.createArrayOf("text", text[8]), con.createArrayOf("integer", leadScores),
+            con.createArrayOf("boolean", doNotCall), con.createArrayOf("boolean", doNotEmail),
+            con.createArrayOf("boolean", emailOptOut), con.createArrayOf("text", text[9]),
+            con.createArrayOf("text", text[10]), con.createArrayOf("text", text[11]), con.createArrayOf("text", text[12]),
+            con.createArrayOf("uuid", ownerIds), con.createArrayOf("text", text[13]), con.createArrayOf("text", text[14]),
+            con.createArrayOf("text", text[15]), con.createArrayOf("text", text[16])
+        };
+        System.arraycopy(columns, 0, params, offset, columns.length);
+    }
+
+    private Contact toContact(PreparedRow row, ImportJob job) {
+        ContactRequest request = row.request;
+        Contact contact = new Contact();
+        contact.setId(row.contactId);
+        contact.setTenantId(job.tenantId);
+        contact.setAccountId(request.getAccountId());
+        contact.setFirstName(request.getFirstName());
+        contact.setLastName(request.getLastName());
+        contact.setEmail(request.getEmail());
+        contact.setPhone(request.getPhone());
+        contact.setMobile(request.getMobile());
+        contact.setTitle(request.getTitle());
+        contact.setDepartment(request.getDepartment());
+        contact.setMailingAddress(request.getMailingAddress());
+        contact.setSocialProfiles(request.getSocialProfiles());
+        contact.setLeadSource(request.getLeadSource());
+        contact.setContactStatus(request.getContactStatus());
+        contact.setLeadScore(request.getLeadScore());
+        contact.setPreferredContactMethod(request.getPreferredContactMethod());
+        contact.setTimezone(request.getTimezone());
+        contact.setLanguage(request.getLanguage());
+        contact.setTags(request.getTags());
+        contact.setNotes(request.getNotes());
+        contact.setCustomFields(request.getCustomFields());
+        contact.setOwnerId(request.getOwnerId() != null ? request.getOwnerId() : job.userId);
+        contact.setCreatedBy(job.userId);
+        contact.setUpdatedBy(job.userId);
+        return contact;
+    }
+
+    /**
+     * The contact as UPDATE_CONTACTS_SQL leaves it: the row's values, and the stored ones where the
+     * row's cells are empty
+     */
+    private Contact updatedContact(Contact stored, PreparedRow row, ImportJob job) {
+        ContactRequest request = row.request;
+        Contact contact = new Contact();
+        BeanUtils.copyProperties(stored, contact);
+        overlay(request.getFirstName(), contact::setFirstName);
+        overlay(request.getLastName(), contact::setLastName);
+        overlay(request.getEmail(), contact::setEmail);
+        overlay(request.getPhone(), contact::setPhone);
+        overlay(request.getMobile(), contact::setMobile);
+        overlay(request.getTitle(), contact::setTitle);
+        overlay(request.getDepartment(), contact::setDepartment);
+        overlay(request.getAccountId(), contact::setAccountId);
+        overlay(request.getLeadSource(), contact::setLeadSource);
+        overlay(request.getContactStatus(), contact::setContactStatus);
+        overlay(request.getLeadScore(), contact::setLeadScore);
+        overlay(request.getDoNotCall(), contact::setDoNotCall);
+        overlay(request.getDoNotEmail(), contact::setDoNotEmail);
+        overlay(request.getEmailOptOut(), contact::setEmailOptOut);
+        overlay(request.getPreferredContactMethod(), contact::setPreferredContactMethod);
+        overlay(request.getTimezone(), contact::setTimezone);
+        overlay(request.getLanguage(), contact::setLanguage);
+        overlay(request.getNotes(), contact::setNotes);
+        overlay(request.getOwnerId(), contact::setOwnerId);
+        overlay(request.getMailingAddress(), contact::setMailingAddress);
+        overlay(request.getSocialProfiles(), contact::setSocialProfiles);
+        overlay(request.getCustomFields(), contact::setCustomFields);
+        overlay(request.getTags(), contact::setTags);
+        contact.setUpdatedBy(job.userId);
+        contact.setUpdatedAt(LocalDateTime.now());
+        return contact;
+    }
+
+    private static <T> void overlay(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static char parseDelimiter(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            return ',';
+        }
+        if ("\\t".equals(delimiter) || "tab".equalsIgnoreCase(delimiter)) {
+            return '\t';
+        }
+        if (delimiter.length() != 1 || delimiter.charAt(0) == '"') {
+            throw new ContactBusinessException("INVALID_DELIMITER", "Delimiter must be a single character");
+        }
+        return delimiter.charAt(0);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new ContactBusinessException("INVALID_IMPORT_VALUE", "Value cannot be serialized", e);
+        }
+    }
+
+    private ContactImportRequest fromJson(String options) {
+        try {
+            return objectMapper.readValue(options, ContactImportRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored import options cannot be read", e);
+        }
+    }
+
+    private static class ImportJob {
+        private final UUID importId;
+        private final UUID tenantId;
+        private final UUID userId;
+        private final ContactImportRequest request;
+        private final int batchSize;
+        private volatile ImportRowMapper mapper;
+        private int errorsRecorded;
+
+        private ImportJob(UUID importId, UUID tenantId, UUID userId, ContactImportRequest request, int batchSize) {
+            this.importId = importId;
+            this.tenantId = tenantId;
+            this.userId = userId;
+            this.request = request;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Reserve room for errors under the cap and return how many may be recorded
+         */
+        private synchronized int reserveErrors(int count, int maxErrors) {
+            int allowed = Math.max(0, Math.min(count, maxErrors - errorsRecorded));
+            errorsRecorded += allowed;
+            return allowed;
+        }
+    }
+
+    private static class SourceRow {
+        private final long rowNumber;
+        private final String[] cells;
+
+        private SourceRow(long rowNumber, String[] cells) {
+            this.rowNumber = rowNumber;
+            this.cells = cells;
+        }
+    }
+
+    private static class PreparedRow {
+        private final long rowNumber;
+        private final ContactRequest request;
+        private UUID contactId;
+
+        private PreparedRow(long rowNumber, ContactRequest request) {
+            this.rowNumber = rowNumber;
+            this.request = request;
+        }
+    }
+
+    private static class RowError {
+        private final long rowNumber;
+        private final String field;
+        private final String value;
+        private final String errorCode;
+        private final String message;
+
+        private RowError(long rowNumber, String field, String value, String errorCode, String message) {
+            this.rowNumber = rowNumber;
+            this.field = field;
+            this.value = value;
+            this.errorCode = errorCode;
+            this.message = message;
+        }
+    }
+
+    private static class BatchOutcome {
+        private final int processed;
+        private int created;
+        private int updated;
+        private int skipped;
+        private int duplicates;
+        private int failed;
+        private final List<RowError> errors = new ArrayList<>();
+        private final List<Contact> createdContacts = new ArrayList<>();
+        private final List<Contact> updatedContacts = new ArrayList<>();
+        // The stored contact before the update, at the same position as in updatedContacts
+        private final List<Contact> previousContacts = new ArrayList<>();
+
+        private BatchOutcome(int processed) {
+            this.processed = processed;
+        }
+
+        private void fail(long rowNumber, String field, String value, String errorCode, String message) {
+            failed++;
+            errors.add(new RowError(rowNumber, field, value, errorCode, message));
+        }
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+        private LeaseLostException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.crm.platform.contacts.service;
 
+import com.crm.platform.contacts.analytics.ContactAnalyticsStore;
 import com.crm.platform.contacts.dto.*;
 import com.crm.platform.contacts.entity.Contact;
+import com.crm.platform.contacts.entity.ContactRelationship;
 import com.crm.platform.contacts.entity.ContactStatus;
+import com.crm.platform.contacts.entity.RelationshipType;
 import com.crm.platform.contacts.event.ContactEvent;
 import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.crm.platform.contacts.exporter.ExportDownload;
+import com.crm.platform.contacts.relationship.ContactRelationshipGraphs;
+import com.crm.platform.contacts.repository.ContactRelationshipRepository;
 import com.crm.platform.contacts.repository.ContactRepository;
 import com.crm.platform.contacts.specification.ContactSpecification;
+import com.crm.platform.common.graph.RelationshipGraph;
 import com.crm.platform.common.util.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,9 +27,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -33,21 +45,51 @@ public class ContactService {
     private static final Logger logger = LoggerFactory.getLogger(ContactService.class);
 
     private final ContactRepository contactRepository;
+    private final ContactRelationshipRepository relationshipRepository;
     private final ContactDeduplicationService deduplicationService;
+    private final ContactBulkService bulkService;
+    private final ContactDuplicateScanService duplicateScanService;
+    private final ContactAnalyticsStore analyticsStore;
+    private final ContactRelationshipGraphs relationshipGraphs;
     private final ContactValidationService validationService;
+    private final ContactActivityService activityService;
     private final ContactEventService eventService;
+    private final ContactImportService importService;
+    private final ContactExportService exportService;
+    private final ContactEnrichmentService enrichmentService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     public ContactService(ContactRepository contactRepository,
+                         ContactRelationshipRepository relationshipRepository,
                          ContactDeduplicationService deduplicationService,
+                         ContactBulkService bulkService,
+                         ContactDuplicateScanService duplicateScanService,
+                         ContactAnalyticsStore analyticsStore,
+                         ContactRelationshipGraphs relationshipGraphs,
                          ContactValidationService validationService,
+                         ContactActivityService activityService,
                          ContactEventService eventService,
-                         KafkaTemplate<String, Object> kafkaTemplate) {
+                         ContactImportService importService,
+                         ContactExportService exportService,
+                         ContactEnrichmentService enrichmentService,
+                         KafkaTemplate<String, Object> kafkaTemplate,
+                         PlatformTransactionManager transactionManager) {
         this.contactRepository = contactRepository;
+        this.relationshipRepository = relationshipRepository;
         this.deduplicationService = deduplicationService;
+        this.bulkService = bulkService;
+        this.duplicateScanService = duplicateScanService;
+        this.analyticsStore = analyticsStore;
+        this.relationshipGraphs = relationshipGraphs;
         this.validationService = validationService;
+        this.activityService = activityService;
         this.eventService = eventService;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.enrichmentService = enrichmentService;
         this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
@@ -66,6 +108,8 @@ public class ContactService {
         // Create contact entity
         Contact contact = mapToEntity(request, tenantId, userId);
         contact = contactRepository.save(contact);
+        deduplicationService.indexContacts(tenantId, List.of(contact));
+        analyticsStore.record(tenantId, List.of(contact), List.of());
 
         // Publish event
         eventService.publishContactCreated(contact);
@@ -84,6 +128,12 @@ public class ContactService {
         return mapToResponse(contact);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<ContactResponse> getContactByEmail(String email) {
+        UUID tenantId = TenantContext.getTenantId();
+        return contactRepository.findByTenantIdAndEmail(tenantId, email).map(this::mapToResponse);
+    }
+
     @Transactional
     @CacheEvict(value = "contacts", key = "#tenantId + '_' + #contactId")
     public ContactResponse updateContact(UUID contactId, ContactRequest request, UUID userId) {
@@ -107,7 +157,10 @@ public class ContactService {
 
         // Update contact
         updateContactFromRequest(existingContact, request, userId);
-        Contact updatedContact = contactRepository.save(existingContact);
+        // Flushed so that the response and the event carry the new updatedAt
+        Contact updatedContact = contactRepository.saveAndFlush(existingContact);
+        deduplicationService.indexContacts(tenantId, List.of(updatedContact));
+        analyticsStore.record(tenantId, List.of(updatedContact), List.of());
 
         // Publish event
         eventService.publishContactUpdated(oldContact, updatedContact);
@@ -126,6 +179,8 @@ public class ContactService {
             .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found"));
 
         contactRepository.delete(contact);
+        deduplicationService.removeFromIndex(List.of(contactId));
+        analyticsStore.record(tenantId, List.of(), List.of(contactId));
 
         // Publish event
         eventService.publishContactDeleted(contact);
@@ -168,6 +223,152 @@ public class ContactService {
         return contacts.map(this::mapToResponse);
     }
 
+    /**
+     * Contacts by id in one query. Ids of contacts that do not exist are left out of the map.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, ContactResponse> getContactsById(Collection<UUID> contactIds) {
+        UUID tenantId = TenantContext.getTenantId();
+        if (contactIds.isEmpty()) {
+            return Map.of();
+        }
+        return contactRepository.findByTenantIdAndIdIn(tenantId, new ArrayList<>(contactIds)).stream()
+            .collect(Collectors.toMap(Contact::getId, this::mapToResponse));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContactActivityResponse> getRecentActivities(UUID contactId) {
+        UUID tenantId = TenantContext.getTenantId();
+        if (!contactRepository.existsByTenantIdAndId(tenantId, contactId)) {
+            throw new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found");
+        }
+        return activityService.getRecentActivities(tenantId, List.of(contactId)).get(contactId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContactRelationshipResponse> getContactRelationships(UUID contactId) {
+        return getContactRelationships(List.of(contactId)).get(contactId);
+    }
+
+    /**
+     * Relationships of many contacts in one query. Contacts without relationships map to an empty list.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<ContactRelationshipResponse>> getContactRelationships(Collection<UUID> contactIds) {
+        UUID tenantId = TenantContext.getTenantId();
+        Map<UUID, List<ContactRelationshipResponse>> relationships = new HashMap<>();
+        for (UUID contactId : contactIds) {
+            relationships.put(contactId, new ArrayList<>());
+        }
+        if (contactIds.isEmpty()) {
+            return relationships;
+        }
+        for (ContactRelationship relationship : relationshipRepository.findByTenantIdAndContactIdIn(tenantId, contactIds)) {
+            ContactRelationshipResponse response = mapToRelationshipResponse(relationship);
+            relationships.get(response.getContactId()).add(response);
+        }
+        return relationships;
+    }
+
+    @Transactional
+    public ContactRelationshipResponse createContactRelationship(UUID contactId, ContactRelationshipRequest request,
+                                                                 UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        UUID relatedContactId = request.getRelatedContactId();
+        logger.info("Relating contact: {} to contact: {} for tenant: {}", contactId, relatedContactId, tenantId);
+
+        if (contactId.equals(relatedContactId)) {
+            throw new ContactBusinessException("INVALID_RELATIONSHIP", "A contact cannot be related to itself");
+        }
+        RelationshipType relationshipType;
+        try {
+            relationshipType = RelationshipType.valueOf(request.getRelationshipType().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ContactBusinessException("INVALID_RELATIONSHIP_TYPE",
+                "Unknown relationship type: " + request.getRelationshipType());
+        }
+
+        Contact contact = contactRepository.findByTenantIdAndId(tenantId, contactId)
+            .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found"));
+        Contact relatedContact = contactRepository.findByTenantIdAndId(tenantId, relatedContactId)
+            .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Related contact not found"));
+        if (relationshipRepository.existsByTenantIdAndContactIdAndRelatedContactId(tenantId, contactId, relatedContactId)) {
+            throw new ContactBusinessException("RELATIONSHIP_EXISTS", "Contacts are already related");
+        }
+
+        ContactRelationship relationship = new ContactRelationship();
+        relationship.setTenantId(tenantId);
+        relationship.setContact(contact);
+        relationship.setRelatedContact(relatedContact);
+        relationship.setRelationshipType(relationshipType);
+        relationship.setDescription(request.getDescription());
+        relationship.setIsPrimary(Boolean.TRUE.equals(request.getIsPrimary()));
+        relationship.setCreatedBy(userId);
+        relationship.setUpdatedBy(userId);
+        relationship = relationshipRepository.save(relationship);
+
+        eventService.publishRelationshipCreated(relationship);
+        return mapToRelationshipResponse(relationship);
+    }
+
+    @Transactional
+    public void deleteContactRelationship(UUID contactId, UUID relationshipId, UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Deleting relationship: {} of contact: {} for tenant: {}", relationshipId, contactId, tenantId);
+
+        ContactRelationship relationship = relationshipRepository
+            .findByTenantIdAndIdAndContactId(tenantId, relationshipId, contactId)
+            .orElseThrow(() -> new ContactBusinessException("RELATIONSHIP_NOT_FOUND", "Relationship not found"));
+        relationshipRepository.delete(relationship);
+
+        eventService.publishRelationshipDeleted(relationship, userId);
+    }
+
+    /**
+     * Contacts and accounts within the given number of hops of a contact, nearest first,
+     * answered from the tenant's in-memory relationship graph.
+     */
+    @Transactional(readOnly = true)
+    public RelationshipGraphResponse getRelationshipNeighbourhood(UUID contactId, int depth, int limit) {
+        UUID tenantId = TenantContext.getTenantId();
+        requireContact(tenantId, contactId);
+        return neighbourhood(tenantId, contactId, depth, limit);
+    }
+
+    /**
+     * Contacts related to an account's contacts, found by walking out from the account.
+     */
+    @Transactional(readOnly = true)
+    public RelationshipGraphResponse getAccountRelationshipContacts(UUID accountId, int depth, int limit) {
+        UUID tenantId = TenantContext.getTenantId();
+        return neighbourhood(tenantId, accountId, depth, limit);
+    }
+
+    /**
+     * Shortest chain of relationships between two contacts, empty when none is within maxDepth hops.
+     */
+    @Transactional(readOnly = true)
+    public RelationshipGraphResponse getRelationshipPath(UUID contactId, UUID targetContactId, int maxDepth) {
+        UUID tenantId = TenantContext.getTenantId();
+        requireContact(tenantId, contactId);
+        requireContact(tenantId, targetContactId);
+
+        RelationshipGraphResponse response = new RelationshipGraphResponse(contactId);
+        response.setPath(relationshipGraphs.graphOf(tenantId)
+            .shortestPath(contactId, targetContactId, Math.min(maxDepth, relationshipGraphs.getMaxDepth())));
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public RelationshipGraphResponse getRelationshipDegree(UUID contactId) {
+        UUID tenantId = TenantContext.getTenantId();
+        requireContact(tenantId, contactId);
+
+        RelationshipGraphResponse response = new RelationshipGraphResponse(contactId);
+        response.setDegree(relationshipGraphs.graphOf(tenantId).degree(contactId));
+        return response;
+    }
+
     @Transactional
     public BulkContactResponse bulkCreateContacts(BulkContactRequest bulkRequest, UUID userId) {
         UUID tenantId = TenantContext.getTenantId();
@@ -211,6 +412,8 @@ public class ContactService {
                     // Create contact
                     Contact contact = mapToEntity(contactRequest, tenantId, userId);
                     contact = contactRepository.save(contact);
+                    deduplicationService.indexContacts(tenantId, List.of(contact));
+                    analyticsStore.record(tenantId, List.of(contact), List.of());
                     
                     // Publish event
                     eventService.publishContactCreated(contact);
@@ -240,62 +443,181 @@ public class ContactService {
         return response;
     }
 
-    @Transactional
+    // Deleted a chunk per transaction, see ContactBulkService
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void bulkDeleteContacts(List<UUID> contactIds, UUID userId) {
         UUID tenantId = TenantContext.getTenantId();
         logger.info("Bulk deleting contacts for tenant: {}, count: {}", tenantId, contactIds.size());
 
-        List<Contact> contacts = contactRepository.findByTenantIdAndIdIn(tenantId, contactIds);
-        
-        if (contacts.size() != contactIds.size()) {
-            throw new ContactBusinessException("CONTACTS_NOT_FOUND", "Some contacts not found");
-        }
-
-        contactRepository.deleteByTenantIdAndIdIn(tenantId, contactIds);
+        int deleted = bulkService.deleteContacts(tenantId, contactIds, userId);
 
-        // Publish events
-        contacts.forEach(eventService::publishContactDeleted);
-
-        logger.info("Bulk delete completed for {} contacts", contacts.size());
+        logger.info("Bulk delete completed for {} contacts", deleted);
     }
 
     @Transactional(readOnly = true)
-    public List<Contact> findDuplicateContacts(UUID contactId) {
+    public List<ContactResponse> findDuplicateContacts(UUID contactId) {
         UUID tenantId = TenantContext.getTenantId();
         Contact contact = contactRepository.findByTenantIdAndId(tenantId, contactId)
             .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found"));
         
-        return deduplicationService.findDuplicates(contact, tenantId);
+        return deduplicationService.findDuplicates(contact, tenantId).stream()
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
     }
 
-    @Transactional
-    public ContactResponse mergeContacts(UUID primaryContactId, List<UUID> duplicateContactIds, UUID userId) {
+    // The scan runs in the background and reads the tenant's contacts itself
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DuplicateScanResponse startDuplicateScan(UUID userId) {
         UUID tenantId = TenantContext.getTenantId();
-        logger.info("Merging contacts - primary: {}, duplicates: {}", primaryContactId, duplicateContactIds);
+        logger.info("Starting duplicate scan for tenant: {}, user: {}", tenantId, userId);
 
-        Contact primaryContact = contactRepository.findByTenantIdAndId(tenantId, primaryContactId)
-            .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Primary contact not found"));
+        return duplicateScanService.startScan(tenantId, userId);
+    }
 
-        List<Contact> duplicateContacts = contactRepository.findByTenantIdAndIdIn(tenantId, duplicateContactIds);
-        
-        if (duplicateContacts.size() != duplicateContactIds.size()) {
-            throw new ContactBusinessException("CONTACTS_NOT_FOUND", "Some duplicate contacts not found");
-        }
+    @Transactional(readOnly = true)
+    public DuplicateScanResponse getDuplicateScan(UUID scanId) {
+        UUID tenantId = TenantContext.getTenantId();
+        return duplicateScanService.getScan(scanId, tenantId);
+    }
 
-        // Merge logic
-        Contact mergedContact = deduplicationService.mergeContacts(primaryContact, duplicateContacts, userId);
-        mergedContact = contactRepository.save(mergedContact);
+    @Transactional(readOnly = true)
+    public List<DuplicateClusterResponse> getDuplicateClusters(int page, int size) {
+        UUID tenantId = TenantContext.getTenantId();
+        return duplicateScanService.getClusters(tenantId, page, size);
+    }
 
-        // Delete duplicates
-        contactRepository.deleteAll(duplicateContacts);
+    // Merged a chunk of duplicates per transaction, see ContactBulkService
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContactResponse mergeContacts(UUID primaryContactId, ContactMergeRequest mergeRequest, UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Merging contacts - primary: {}, duplicates: {}", primaryContactId,
+                   mergeRequest.getDuplicateContactIds().size());
 
-        // Publish events
-        eventService.publishContactMerged(mergedContact, duplicateContacts);
+        Contact mergedContact = bulkService.mergeContacts(tenantId, primaryContactId,
+            mergeRequest.getDuplicateContactIds(),
+            !Boolean.FALSE.equals(mergeRequest.getPreserveRelationships()),
+            !Boolean.FALSE.equals(mergeRequest.getPreserveActivities()), userId);
 
         logger.info("Contact merge completed - result: {}", mergedContact.getId());
         return mapToResponse(mergedContact);
     }
 
+    @Transactional(readOnly = true)
+    public ContactAnalyticsResponse getContactAnalytics(String startDate, String endDate, String groupBy) {
+        UUID tenantId = TenantContext.getTenantId();
+        LocalDate end = endDate != null ? parseDate(endDate) : LocalDate.now();
+        LocalDate start = startDate != null ? parseDate(startDate) : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new ContactBusinessException("INVALID_DATE_RANGE", "Start date must not be after end date");
+        }
+
+        return analyticsStore.report(tenantId, start, end, groupBy);
+    }
+
+    // Rebuilds run in their own transaction, holding the tenant's analytics lock
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContactAnalyticsStatusResponse rebuildContactAnalytics(UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Rebuilding contact analytics for tenant: {}, user: {}", tenantId, userId);
+
+        return analyticsStore.rebuild(tenantId);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContactAnalyticsStatusResponse checkContactAnalytics() {
+        UUID tenantId = TenantContext.getTenantId();
+        return analyticsStore.check(tenantId);
+    }
+
+    // The import registers itself and runs in the background; it must be committed before it starts
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContactImportResponse initiateImport(ContactImportRequest importRequest, UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Initiating contact import for tenant: {}, user: {}, file: {}",
+                   tenantId, userId, importRequest.getFileName());
+
+        return importService.startImport(importRequest, tenantId, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactImportResponse getImportStatus(UUID importId) {
+        UUID tenantId = TenantContext.getTenantId();
+        return importService.getImportStatus(importId, tenantId);
+    }
+
+    // Like imports, the export row must be committed before the background run claims it
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContactExportResponse initiateExport(String format, List<String> fields, String filters, UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Initiating contact export for tenant: {}, user: {}, format: {}", tenantId, userId, format);
+
+        return exportService.startExport(format, fields, filters, tenantId, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactExportResponse getExportStatus(UUID exportId) {
+        UUID tenantId = TenantContext.getTenantId();
+        return exportService.getExportStatus(exportId, tenantId);
+    }
+
+    @Transactional(readOnly = true)
+    public ExportDownload openExportDownload(UUID exportId) {
+        UUID tenantId = TenantContext.getTenantId();
+        return exportService.openDownload(exportId, tenantId);
+    }
+
+    /**
+     * Enrich one contact with the company behind its email domain, through the shared lookup cache.
+     * The provider lookups run outside any transaction; only writing the result takes one, on the
+     * contact as it is then.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(value = "contacts", key = "#tenantId + '_' + #contactId")
+    public ContactResponse enrichContact(UUID contactId, List<String> sources, UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Enriching contact: {} for tenant: {}", contactId, tenantId);
+
+        Contact contact = contactRepository.findByTenantIdAndId(tenantId, contactId)
+            .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found"));
+        List<String> providers = enrichmentService.resolveProviders(sources);
+        Map<String, Object> enrichment = enrichmentService.lookupEnrichment(contact.getEmail(), providers);
+        if (enrichment == null) {
+            logger.info("No company data found for contact: {}", contactId);
+            return mapToResponse(contact);
+        }
+
+        return transactionTemplate.execute(status -> {
+            Contact current = contactRepository.findByTenantIdAndId(tenantId, contactId)
+                .orElseThrow(() -> new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found"));
+            Contact oldContact = new Contact();
+            BeanUtils.copyProperties(current, oldContact);
+            Map<String, Object> customFields = current.getCustomFields() != null
+                ? new HashMap<>(current.getCustomFields()) : new HashMap<>();
+            customFields.put("enrichment", enrichment);
+            current.setCustomFields(customFields);
+            current.setUpdatedBy(userId);
+            Contact enrichedContact = contactRepository.save(current);
+
+            eventService.publishContactUpdated(oldContact, enrichedContact);
+            return mapToResponse(enrichedContact);
+        });
+    }
+
+    // Like exports, the enrichment row must be committed before the background run claims it
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContactEnrichmentResponse initiateEnrichment(ContactEnrichmentRequest request, UUID userId) {
+        UUID tenantId = TenantContext.getTenantId();
+        logger.info("Initiating contact enrichment for tenant: {}, user: {}", tenantId, userId);
+
+        return enrichmentService.startEnrichment(request, tenantId, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactEnrichmentResponse getEnrichmentStatus(UUID enrichmentId) {
+        UUID tenantId = TenantContext.getTenantId();
+        return enrichmentService.getEnrichmentStatus(enrichmentId, tenantId);
+    }
+
     private Contact mapToEntity(ContactRequest request, UUID tenantId, UUID userId) {
         Contact contact = new Contact();
         contact.setTenantId(tenantId);
@@ -363,10 +685,54 @@ public class ContactService {
         if (existingContact.isPresent()) {
             updateContactFromRequest(existingContact.get(), request, userId);
             contactRepository.save(existingContact.get());
+            deduplicationService.indexContacts(tenantId, List.of(existingContact.get()));
+            analyticsStore.record(tenantId, List.of(existingContact.get()), List.of());
             eventService.publishContactUpdated(existingContact.get(), existingContact.get());
         }
     }
 
+    private LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ContactBusinessException("INVALID_DATE", "Dates must be given as yyyy-MM-dd: " + date);
+        }
+    }
+
+    private void requireContact(UUID tenantId, UUID contactId) {
+        if (!contactRepository.existsByTenantIdAndId(tenantId, contactId)) {
+            throw new ContactBusinessException("CONTACT_NOT_FOUND", "Contact not found");
+        }
+    }
+
+    private RelationshipGraphResponse neighbourhood(UUID tenantId, UUID startId, int depth, int limit) {
+        int maxNodes = Math.min(limit, relationshipGraphs.getMaxNodes());
+        List<RelationshipGraph.Hop> hops = relationshipGraphs.graphOf(tenantId)
+            .neighbourhood(startId, Math.min(depth, relationshipGraphs.getMaxDepth()), maxNodes);
+
+        RelationshipGraphResponse response = new RelationshipGraphResponse(startId);
+        response.setNodes(hops.stream()
+            .map(hop -> new RelationshipGraphResponse.Node(hop.getId(),
+                hop.getType() == ContactRelationshipGraphs.ACCOUNT ? "ACCOUNT" : "CONTACT", hop.getDepth()))
+            .collect(Collectors.toList()));
+        response.setTruncated(hops.size() == maxNodes);
+        return response;
+    }
+
+    private ContactRelationshipResponse mapToRelationshipResponse(ContactRelationship relationship) {
+        ContactRelationshipResponse response = new ContactRelationshipResponse();
+        response.setId(relationship.getId());
+        // Ids of the lazy contacts are read without loading them
+        response.setContactId(relationship.getContact().getId());
+        response.setRelatedContactId(relationship.getRelatedContact().getId());
+        response.setRelationshipType(relationship.getRelationshipType().name());
+        response.setDescription(relationship.getDescription());
+        response.setIsPrimary(relationship.getIsPrimary());
+        response.setCreatedAt(relationship.getCreatedAt());
+        response.setUpdatedAt(relationship.getUpdatedAt());
+        return response;
+    }
+
     private ContactResponse mapToResponse(Contact contact) {
         ContactResponse response = new ContactResponse();
         BeanUtils.copyProperties(contact, response);
@@ -0,0 +1,123 @@
+package com.crm.platform.contacts.specification;
+
+import com.crm.platform.contacts.dto.ContactSearchRequest;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The criteria of ContactSearchRequest as a SQL condition over contacts aliased c, mirroring
+ * ContactSpecification, for JDBC walks over a tenant's contacts such as exports and bulk enrichment.
+ */
+public final class ContactFilterSql {
+
+    private final StringBuilder where = new StringBuilder("c.tenant_id = ?");
+    private final List<Object> params = new ArrayList<>();
+
+    private ContactFilterSql() {
+    }
+
+    /**
+     * @param filters criteria to match, or null for all of the tenant's contacts
+     */
+    public static ContactFilterSql of(UUID tenantId, ContactSearchRequest filters, ObjectMapper objectMapper) {
+        ContactFilterSql sql = new ContactFilterSql();
+        sql.params.add(tenantId);
+        if (filters == null) {
+            return sql;
+        }
+        if (filters.getQuery() != null && !filters.getQuery().isEmpty()) {
+            sql.where.append(" AND (LOWER(c.first_name) LIKE ? OR LOWER(c.last_name) LIKE ? OR LOWER(c.email) LIKE ? " +
+                             "OR LOWER(c.title) LIKE ? OR LOWER(c.department) LIKE ?)");
+            String pattern = "%" + filters.getQuery().toLowerCase() + "%";
+            for (int i = 0; i < 5; i++) {
+                sql.params.add(pattern);
+            }
+        }
+        sql.addLike("LOWER(c.first_name)", filters.getFirstName(), true);
+        sql.addLike("LOWER(c.last_name)", filters.getLastName(), true);
+        sql.addLike("LOWER(c.email)", filters.getEmail(), true);
+        sql.addLike("c.phone", filters.getPhone(), false);
+        sql.addLike("LOWER(c.title)", filters.getTitle(), true);
+        sql.addLike("LOWER(c.department)", filters.getDepartment(), true);
+        sql.addCondition("c.contact_status = ?",
+                         filters.getContactStatus() != null ? filters.getContactStatus().name() : null);
+        sql.addCondition("c.lead_score >= ?", filters.getMinLeadScore());
+        sql.addCondition("c.lead_score <= ?", filters.getMaxLeadScore());
+        sql.addCondition("c.lead_source = ?",
+                         filters.getLeadSource() != null && !filters.getLeadSource().isEmpty() ? filters.getLeadSource() : null);
+        sql.addCondition("c.owner_id = ?", filters.getOwnerId());
+        sql.addCondition("c.account_id = ?", filters.getAccountId());
+        sql.addCondition("c.created_at >= ?", timestamp(filters.getCreatedAfter()));
+        sql.addCondition("c.created_at <= ?", timestamp(filters.getCreatedBefore()));
+        sql.addCondition("c.updated_at >= ?", timestamp(filters.getUpdatedAfter()));
+        sql.addCondition("c.updated_at <= ?", timestamp(filters.getUpdatedBefore()));
+        if (filters.getTags() != null && !filters.getTags().isEmpty()) {
+            sql.addCondition("c.tags @> CAST(? AS TEXT[])", filters.getTags().toArray(new String[0]));
+        }
+        if (filters.getCustomFields() != null && !filters.getCustomFields().isEmpty()) {
+            try {
+                sql.addCondition("c.custom_fields @> CAST(? AS JSONB)", objectMapper.writeValueAsString(filters.getCustomFields()));
+            } catch (JsonProcessingException e) {
+                throw new ContactBusinessException("INVALID_FILTERS", "Filters cannot be serialized", e);
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Parse filters given as a JSON object of ContactSearchRequest criteria
+     */
+    public static ContactSearchRequest parse(String filters, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readValue(filters, ContactSearchRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new ContactBusinessException("INVALID_FILTERS", "Filters must be a JSON object of search criteria");
+        }
+    }
+
+    public String getWhere() {
+        return where.toString();
+    }
+
+    /**
+     * Bind the condition's parameters starting at index, returning the next free index
+     */
+    public int bind(Connection con, PreparedStatement ps, int index) throws SQLException {
+        for (Object param : params) {
+            if (param instanceof String[]) {
+                ps.setArray(index++, con.createArrayOf("text", (String[]) param));
+            } else {
+                ps.setObject(index++, param);
+            }
+        }
+        return index;
+    }
+
+    private void addLike(String column, String value, boolean lower) {
+        if (value != null && !value.isEmpty()) {
+            where.append(" AND ").append(column).append(" LIKE ?");
+            params.add("%" + (lower ? value.toLowerCase() : value) + "%");
+        }
+    }
+
+    private void addCondition(String condition, Object value) {
+        if (value != null) {
+            where.append(" AND ").append(condition);
+            params.add(value);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,39 @@
+-- =====================================================
+-- CONTACTS SERVICE - EVENT OUTBOX
+-- =====================================================
+-- Events are written here in the transaction of the change they describe and
+-- sent to Kafka by the outbox relay, which deletes them once the broker has
+-- them. Rows are sent in id order; a row that fails is retried with backoff
+-- and moved to event_outbox_dead_letter after too many attempts.
+
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    retry_at TIMESTAMP WITH TIME ZONE,
+    last_error TEXT
+);
+
+-- Finds the earlier failed row of a key, which the later rows of that key wait for
+CREATE INDEX idx_event_outbox_retry ON event_outbox(topic, message_key, id) WHERE retry_at IS NOT NULL;
+
+CREATE TABLE event_outbox_dead_letter (
+    id BIGINT PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL,
+    last_error TEXT,
+    dead_lettered_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp()
+);
+
+COMMENT ON TABLE event_outbox IS 'Events waiting to be sent to Kafka by the outbox relay';
+COMMENT ON COLUMN event_outbox.payload_type IS 'Class of the event, sent as the JSON type header where consumers use it';
+COMMENT ON COLUMN event_outbox.retry_at IS 'Earliest time a failed row is sent again; later rows of its key wait until then';
+COMMENT ON TABLE event_outbox_dead_letter IS 'Events the relay gave up on after crm.outbox.max-attempts failures, kept for inspection and replay';
@@ -0,0 +1,68 @@
+-- =====================================================
+-- CONTACTS SERVICE - CONTACT IMPORTS
+-- =====================================================
+-- An import streams its file in fixed-size batches of rows. Each batch is
+-- written together with its contact_import_batches row in one transaction,
+-- so counters never drift from the data and an import that stops half way
+-- resumes by re-reading the file and skipping the batches already recorded.
+-- The lease keeps two instances off the same import; a lease left by a
+-- crashed instance expires and the import is picked up again.
+
+CREATE TABLE contact_imports (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    status VARCHAR(30) NOT NULL DEFAULT 'PENDING',
+    file_name VARCHAR(255),
+    file_url TEXT NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    options JSONB NOT NULL,
+    batch_size INTEGER NOT NULL,
+    total_records BIGINT,
+    bytes_read BIGINT NOT NULL DEFAULT 0,
+    content_length BIGINT,
+    error_message TEXT,
+    lease_owner VARCHAR(64),
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT valid_import_status CHECK (status IN ('PENDING', 'VALIDATING', 'PROCESSING', 'COMPLETED',
+                                                     'FAILED', 'CANCELLED', 'PARTIALLY_COMPLETED'))
+);
+
+CREATE TABLE contact_import_batches (
+    import_id UUID NOT NULL REFERENCES contact_imports(id) ON DELETE CASCADE,
+    batch_number INTEGER NOT NULL,
+    processed_records INTEGER NOT NULL DEFAULT 0,
+    created_records INTEGER NOT NULL DEFAULT 0,
+    updated_records INTEGER NOT NULL DEFAULT 0,
+    skipped_records INTEGER NOT NULL DEFAULT 0,
+    duplicate_records INTEGER NOT NULL DEFAULT 0,
+    failed_records INTEGER NOT NULL DEFAULT 0,
+    completed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT pk_contact_import_batches PRIMARY KEY (import_id, batch_number)
+);
+
+CREATE TABLE contact_import_errors (
+    id BIGSERIAL PRIMARY KEY,
+    import_id UUID NOT NULL REFERENCES contact_imports(id) ON DELETE CASCADE,
+    row_number BIGINT NOT NULL,
+    field VARCHAR(100),
+    value TEXT,
+    error_code VARCHAR(50) NOT NULL,
+    error_message TEXT
+);
+
+CREATE INDEX idx_contact_imports_tenant ON contact_imports(tenant_id, started_at DESC);
+CREATE INDEX idx_contact_imports_resumable ON contact_imports(lease_expires_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX idx_contact_import_errors_import ON contact_import_errors(import_id, row_number);
+
+COMMENT ON TABLE contact_imports IS 'Streaming contact imports with lease-based ownership for resuming interrupted runs';
+COMMENT ON COLUMN contact_imports.options IS 'Import request as submitted, replayed when the import resumes';
+COMMENT ON COLUMN contact_imports.bytes_read IS 'Bytes of the source consumed so far, for progress reporting';
+COMMENT ON TABLE contact_import_batches IS 'Committed batches of an import with their outcome counts';
+COMMENT ON TABLE contact_import_errors IS 'Sample of rejected rows per import, capped by contacts.import.max-errors';
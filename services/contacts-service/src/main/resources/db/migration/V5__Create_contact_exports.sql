@@ -0,0 +1,56 @@
+-- =====================================================
+-- CONTACTS SERVICE - CONTACT EXPORTS
+-- =====================================================
+-- An export walks the tenant's contacts in id order, one keyset page per
+-- chunk file. Each chunk is committed with the id it ended at, so an
+-- export that stops half way resumes with the next chunk. Finished exports
+-- are served from their chunk files with byte-range support until they
+-- expire.
+
+CREATE TABLE contact_exports (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    format VARCHAR(10) NOT NULL,
+    fields TEXT[] NOT NULL,
+    filters JSONB,
+    file_name VARCHAR(255) NOT NULL,
+    total_records BIGINT,
+    processed_records BIGINT NOT NULL DEFAULT 0,
+    last_id UUID,
+    file_size BIGINT,
+    error_message TEXT,
+    lease_owner VARCHAR(64),
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP WITH TIME ZONE,
+    expires_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT valid_export_status CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED', 'EXPIRED'))
+);
+
+CREATE TABLE contact_export_chunks (
+    export_id UUID NOT NULL REFERENCES contact_exports(id) ON DELETE CASCADE,
+    chunk_number INTEGER NOT NULL,
+    row_count INTEGER NOT NULL,
+    byte_size BIGINT NOT NULL,
+    last_id UUID,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT pk_contact_export_chunks PRIMARY KEY (export_id, chunk_number)
+);
+
+CREATE INDEX idx_contact_exports_tenant ON contact_exports(tenant_id, started_at DESC);
+CREATE INDEX idx_contact_exports_resumable ON contact_exports(lease_expires_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX idx_contact_exports_expiry ON contact_exports(expires_at)
+    WHERE status IN ('COMPLETED', 'FAILED');
+
+-- Keyset walks over a tenant's contacts in id order
+CREATE INDEX idx_contacts_tenant_id_id ON contacts(tenant_id, id);
+
+COMMENT ON TABLE contact_exports IS 'Chunked contact exports with lease-based ownership for resuming interrupted runs';
+COMMENT ON COLUMN contact_exports.last_id IS 'Id of the last contact written to a committed chunk; NULL before the first chunk';
+COMMENT ON TABLE contact_export_chunks IS 'Committed chunk files of an export, concatenated in order for download';
@@ -0,0 +1,32 @@
+-- =====================================================
+-- CONTACTS SERVICE - DUPLICATE DETECTION BLOCKING KEYS
+-- =====================================================
+-- Every contact is indexed under a handful of blocking keys (normalized
+-- email, E.164 phones, phonetic name code, last name trigrams). Duplicate
+-- candidates are the contacts sharing a key with the contact being checked,
+-- found with index lookups instead of scanning the tenant's contacts.
+
+CREATE TABLE contact_match_keys (
+    tenant_id UUID NOT NULL,
+    match_key VARCHAR(300) NOT NULL,
+    contact_id UUID NOT NULL,
+
+    CONSTRAINT pk_contact_match_keys PRIMARY KEY (tenant_id, match_key, contact_id)
+);
+
+CREATE INDEX idx_contact_match_keys_contact ON contact_match_keys(contact_id);
+
+COMMENT ON TABLE contact_match_keys IS 'Blocking keys of contacts for duplicate candidate lookup';
+COMMENT ON COLUMN contact_match_keys.match_key IS 'Kind-prefixed key: e: email, p: E.164 phone, n: Soundex of last and first name, g: last name trigram and first initial';
+
+-- Where the background indexing of contacts written without keys stands per
+-- tenant, so that it resumes after a restart instead of starting over
+CREATE TABLE contact_match_key_backfill (
+    tenant_id UUID PRIMARY KEY,
+    last_id UUID NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON COLUMN contact_match_key_backfill.last_id IS 'Last contact id walked; the zero UUID once a walk completes';
+COMMENT ON COLUMN contact_match_key_backfill.completed_at IS 'When the last full walk finished, NULL while one is in progress';
@@ -0,0 +1,31 @@
+-- =====================================================
+-- CONTACTS SERVICE - TENANT-WIDE DUPLICATE SCANS
+-- =====================================================
+-- A scan reads all of a tenant's contacts once, clusters the duplicates and
+-- replaces the tenant's pending rows in contact_duplicates with one row per
+-- cluster member, pointing at the cluster's oldest contact. Reviewed rows
+-- (confirmed or rejected) are kept.
+
+CREATE TABLE contact_duplicate_scans (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    requested_by UUID NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    contacts_scanned BIGINT NOT NULL DEFAULT 0,
+    candidate_pairs BIGINT,
+    duplicate_pairs BIGINT,
+    clusters INTEGER,
+    error_message TEXT,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    heartbeat_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP WITH TIME ZONE,
+
+    CONSTRAINT valid_duplicate_scan_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_contact_duplicate_scans_tenant ON contact_duplicate_scans(tenant_id, started_at DESC);
+-- One running scan per tenant; a second start fails on this index
+CREATE UNIQUE INDEX idx_contact_duplicate_scans_running ON contact_duplicate_scans(tenant_id) WHERE status = 'RUNNING';
+
+COMMENT ON TABLE contact_duplicate_scans IS 'Runs of the tenant-wide duplicate clustering job';
+COMMENT ON COLUMN contact_duplicate_scans.heartbeat_at IS 'Advanced while the scan runs; a running scan without a recent heartbeat was abandoned';
@@ -0,0 +1,39 @@
+-- =====================================================
+-- CONTACTS SERVICE - BULK CONTACT ENRICHMENT
+-- =====================================================
+-- A bulk enrichment walks the matching contacts in id order, one keyset page
+-- at a time. The company domains of a page are looked up through the
+-- instance's shared lookup cache and written to the contacts of each domain
+-- with one statement. Each page is committed with the id it ended at, so an
+-- enrichment that stops half way resumes with the next page.
+
+CREATE TABLE contact_enrichments (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    providers TEXT[] NOT NULL,
+    filters JSONB,
+    total_records BIGINT,
+    processed_records BIGINT NOT NULL DEFAULT 0,
+    enriched_records BIGINT NOT NULL DEFAULT 0,
+    skipped_records BIGINT NOT NULL DEFAULT 0,
+    failed_lookups BIGINT NOT NULL DEFAULT 0,
+    last_id UUID,
+    error_message TEXT,
+    lease_owner VARCHAR(64),
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT valid_enrichment_status CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_contact_enrichments_tenant ON contact_enrichments(tenant_id, started_at DESC);
+CREATE INDEX idx_contact_enrichments_resumable ON contact_enrichments(lease_expires_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+COMMENT ON TABLE contact_enrichments IS 'Bulk contact enrichments with lease-based ownership for resuming interrupted runs';
+COMMENT ON COLUMN contact_enrichments.skipped_records IS 'Contacts without a company email domain, or whose company no provider knows';
+COMMENT ON COLUMN contact_enrichments.failed_lookups IS 'Domain lookups that failed; their contacts are left as they were';
@@ -0,0 +1,97 @@
+package com.crm.platform.contacts.analytics;
+
+import com.crm.platform.contacts.dto.ContactAnalyticsResponse;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AnalyticsBucketsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 14);
+
+    @Test
+    void shouldMoveChangedContactBetweenBuckets() {
+        // Given
+        AnalyticsDeltas deltas = new AnalyticsDeltas();
+        AnalyticsDeltas.Fact before = new AnalyticsDeltas.Fact(DAY, "ACTIVE", "web", "owner-1", 40);
+        AnalyticsDeltas.Fact after = new AnalyticsDeltas.Fact(DAY, "INACTIVE", "web", "owner-1", 55);
+
+        // When
+        deltas.remove(before);
+        deltas.add(after);
+
+        // Then
+        assertThat(deltas.changes())
+            .extracting(AnalyticsDeltas.Change::getDimension, AnalyticsDeltas.Change::getValue,
+                        AnalyticsDeltas.Change::getContacts, AnalyticsDeltas.Change::getLeadScoreSum)
+            .containsExactly(
+                tuple("OWNER", "owner-1", 0L, 15L),
+                tuple("SOURCE", "web", 0L, 15L),
+                tuple("STATUS", "ACTIVE", -1L, -40L),
+                tuple("STATUS", "INACTIVE", 1L, 55L),
+                tuple("TOTAL", "", 0L, 15L));
+    }
+
+    @Test
+    void shouldLeaveBucketsOfUnchangedContactAlone() {
+        // Given
+        AnalyticsDeltas deltas = new AnalyticsDeltas();
+        AnalyticsDeltas.Fact fact = new AnalyticsDeltas.Fact(DAY, null, null, "owner-1", null);
+
+        // When
+        deltas.remove(fact);
+        deltas.add(new AnalyticsDeltas.Fact(DAY, "", "", "owner-1", 0));
+
+        // Then
+        assertThat(deltas.changes()).isEmpty();
+    }
+
+    @Test
+    void shouldRollDaysUpIntoWeeksWithRunningTotals() {
+        // Given
+        TreeMap<LocalDate, long[]> totals = new TreeMap<>();
+        totals.put(LocalDate.of(2024, 3, 1), new long[] {2, 100});
+        totals.put(LocalDate.of(2024, 3, 5), new long[] {3, 60});
+        totals.put(LocalDate.of(2024, 3, 11), new long[] {1, 10});
+        Map<String, Map<String, Long>> byDimension = Map.of(
+            AnalyticsDeltas.STATUS, Map.of("ACTIVE", 5L, "INACTIVE", 1L),
+            AnalyticsDeltas.SOURCE, Map.of("", 4L, "web", 2L, "fair", 0L));
+
+        // When
+        ContactAnalyticsResponse response = AnalyticsReport.build(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 12),
+                                                                  "week", 10, 500, totals, byDimension);
+
+        // Then
+        assertThat(response.getTotalContacts()).isEqualTo(16L);
+        assertThat(response.getNewContactsThisPeriod()).isEqualTo(6L);
+        assertThat(response.getGrowthRate()).isEqualTo(60.0);
+        assertThat(response.getAverageLeadScore()).isEqualTo(41.88);
+        assertThat(response.getContactsBySource()).containsExactly(Map.entry("UNKNOWN", 4L), Map.entry("web", 2L));
+        assertThat(response.getContactsByStatus()).containsExactly(Map.entry("ACTIVE", 5L), Map.entry("INACTIVE", 1L));
+
+        List<ContactAnalyticsResponse.TimeSeriesDataPoint> series = response.getTimeSeriesData();
+        assertThat(series)
+            .extracting(ContactAnalyticsResponse.TimeSeriesDataPoint::getDate,
+                        ContactAnalyticsResponse.TimeSeriesDataPoint::getNewContacts,
+                        ContactAnalyticsResponse.TimeSeriesDataPoint::getTotalContacts)
+            .containsExactly(
+                tuple(LocalDate.of(2024, 3, 1), 2L, 12L),
+                tuple(LocalDate.of(2024, 3, 4), 3L, 15L),
+                tuple(LocalDate.of(2024, 3, 11), 1L, 16L));
+        assertThat(series.get(1).getAverageLeadScore()).isEqualTo(20.0);
+    }
+
+    @Test
+    void shouldRejectUnknownGrouping() {
+        assertThatThrownBy(() -> AnalyticsReport.build(DAY, DAY, "quarter", 0, 0, new TreeMap<>(), Map.of()))
+            .isInstanceOf(ContactBusinessException.class);
+    }
+}
@@ -24,7 +24,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @TestPropertySource(properties = {
         "spring.datasource.url=jdbc:h2:mem:testdb",
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "crm.outbox.enabled=false"
 })
 @DisplayName("Contact API Integration Tests")
 class ContactApiIntegrationTest extends ApiTestBase {
@@ -0,0 +1,85 @@
+package com.crm.platform.contacts.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateClustererTest {
+
+    @Test
+    void shouldClusterSimilarContacts() {
+        // Given
+        DuplicateClusterer clusterer = new DuplicateClusterer(0.8, 20, 4, 100, ForkJoinPool.commonPool());
+        UUID jonathan = add(clusterer, 3, "Jonathan", "Smithson", "jon@example.com", null);
+        UUID typo = add(clusterer, 1, "Jonathon", "Smithson", null, null);
+        UUID sameEmail = add(clusterer, 2, "jonathan", "smithson", "JON@example.com", null);
+        UUID maria = add(clusterer, 4, "Maria", "Garcia", null, "+34911234567");
+        UUID mariaPhone = add(clusterer, 5, "María", "Garcia", null, "+34911234567");
+        add(clusterer, 6, "Peter", "Jones", "peter@example.com", null);
+        add(clusterer, 7, "Anna", "Smithson", null, null);
+
+        // When
+        List<List<UUID>> clusters = new ArrayList<>();
+        for (int[] members : clusterer.cluster()) {
+            List<UUID> ids = new ArrayList<>();
+            for (int member : members) {
+                ids.add(clusterer.idOf(member));
+            }
+            clusters.add(ids);
+        }
+
+        // Then - the oldest contact leads each cluster
+        assertThat(clusters).hasSize(2);
+        assertThat(clusters).anySatisfy(cluster -> {
+            assertThat(cluster.get(0)).isEqualTo(typo);
+            assertThat(cluster).containsExactlyInAnyOrder(jonathan, typo, sameEmail);
+        });
+        assertThat(clusters).anySatisfy(cluster -> assertThat(cluster).containsExactly(maria, mariaPhone));
+    }
+
+    @Test
+    void shouldScoreMatchesAsPercentage() {
+        DuplicateClusterer clusterer = new DuplicateClusterer(0.8, 20, 4, 100, ForkJoinPool.commonPool());
+        add(clusterer, 1, "Ann", "Lee", "ann@example.com", null);
+        add(clusterer, 2, "Anne", "Lee", "ann@example.com", null);
+
+        ContactSimilarity.Match match = clusterer.score(0, 1);
+
+        assertThat(match.getPercentage()).isEqualTo(91.67);
+        assertThat(match.getMatchingFields()).containsExactly("lastName", "email");
+    }
+
+    @Test
+    void shouldMatchAPhoneWithAMobile() {
+        // Given the same number as one contact's phone and the other's mobile
+        DuplicateClusterer clusterer = new DuplicateClusterer(0.8, 20, 4, 100, ForkJoinPool.commonPool());
+        UUID chris = add(clusterer, 1, "Chris", "Wong", null, "+85221234567", null);
+        UUID christopher = add(clusterer, 2, "Christopher", "Wong", null, null, "+85221234567");
+
+        // When
+        List<int[]> clusters = clusterer.cluster();
+
+        // Then - the shared number outweighs the shortened first name
+        assertThat(clusters).hasSize(1);
+        assertThat(clusterer.idOf(clusters.get(0)[0])).isEqualTo(chris);
+        assertThat(clusterer.idOf(clusters.get(0)[1])).isEqualTo(christopher);
+        assertThat(clusterer.score(0, 1).getMatchingFields()).containsExactly("lastName", "phone");
+    }
+
+    private UUID add(DuplicateClusterer clusterer, long createdAt, String firstName, String lastName,
+                     String email, String phone) {
+        return add(clusterer, createdAt, firstName, lastName, email, phone, null);
+    }
+
+    private UUID add(DuplicateClusterer clusterer, long createdAt, String firstName, String lastName,
+                     String email, String phone, String mobile) {
+        UUID id = UUID.randomUUID();
+        clusterer.add(id, createdAt, firstName, lastName, email, phone, mobile);
+        return id;
+    }
+}
@@ -0,0 +1,108 @@
+package com.crm.platform.contacts.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchKeysTest {
+
+    @Test
+    void shouldNormalizePhonesToE164() {
+        assertThat(MatchKeys.normalizePhone("+49 (30) 1234-567", "1")).isEqualTo("+49301234567");
+        assertThat(MatchKeys.normalizePhone("0049 30 1234567", "1")).isEqualTo("+49301234567");
+        assertThat(MatchKeys.normalizePhone("030 1234567", "49")).isEqualTo("+49301234567");
+        assertThat(MatchKeys.normalizePhone("(555) 123-4567 ext. 12", "1")).isEqualTo("+15551234567");
+        assertThat(MatchKeys.normalizePhone("12", "1")).isNull();
+    }
+
+    @Test
+    void shouldEncodeNamesPhonetically() {
+        assertThat(MatchKeys.soundex("robert")).isEqualTo("R163");
+        assertThat(MatchKeys.soundex("rupert")).isEqualTo("R163");
+        assertThat(MatchKeys.soundex("ashcraft")).isEqualTo("A261");
+        assertThat(MatchKeys.soundex("tymczak")).isEqualTo("T522");
+        assertThat(MatchKeys.soundex("pfister")).isEqualTo("P236");
+    }
+
+    @Test
+    void shouldShareKeysForTypos() {
+        // Given
+        Set<String> original = MatchKeys.of("Jürgen", "Schmidt", " J.Schmidt@Example.com", null, "+49 171 555 0101", "49");
+        Set<String> typo = MatchKeys.of("jurgen", "Schmitt", null, "0171 5550101", null, "49");
+
+        // Then
+        assertThat(original).contains("e:j.schmidt@example.com", "p:+491715550101", "n:S530J625", "g:sch:j");
+        assertThat(typo).contains("p:+491715550101", "n:S530J625", "g:sch:j");
+    }
+
+    @Test
+    void shouldMatchFullEditDistanceWithinBound() {
+        Random random = new Random(42);
+        for (int run = 0; run < 10_000; run++) {
+            String a = randomWord(random);
+            String b = random.nextBoolean() ? mutate(random, a) : randomWord(random);
+            int max = random.nextInt(6);
+            int expected = levenshtein(a.toLowerCase(), b.toLowerCase());
+
+            int bounded = BoundedEditDistance.distance(a, b, max);
+
+            assertThat(bounded).as("%s / %s within %d", a, b, max).isEqualTo(Math.min(expected, max + 1));
+        }
+    }
+
+    @Test
+    void shouldStopSimilarityBelowTheRequiredMinimum() {
+        assertThat(BoundedEditDistance.similarity("Johnson", "jonson", 0.8)).isEqualTo(6 / 7.0);
+        assertThat(BoundedEditDistance.similarity("Johnson", "Smith", 0.5)).isZero();
+        assertThat(BoundedEditDistance.similarity("", "", 1.0)).isEqualTo(1.0);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    private static String mutate(Random random, String word) {
+        StringBuilder mutated = new StringBuilder(word);
+        for (int edits = random.nextInt(4); edits > 0; edits--) {
+            int position = mutated.length() == 0 ? 0 : random.nextInt(mutated.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    mutated.insert(position, 'x');
+                    break;
+                case 1:
+                    if (mutated.length() > 0) {
+                        mutated.deleteCharAt(position);
+                    }
+                    break;
+                default:
+                    if (mutated.length() > 0) {
+                        mutated.setCharAt(position, 'y');
+                    }
+            }
+        }
+        return mutated.toString();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    dp[i][j] = i + j;
+                } else {
+                    dp[i][j] = Math.min(dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                                        Math.min(dp[i - 1][j], dp[i][j - 1]) + 1);
+                }
+            }
+        }
+        return dp[a.length()][b.length()];
+    }
+}
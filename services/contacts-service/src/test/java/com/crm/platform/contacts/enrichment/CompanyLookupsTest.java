@@ -0,0 +1,157 @@
+package com.crm.platform.contacts.enrichment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompanyLookupsTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final StubEnrichmentProvider stub = new StubEnrichmentProvider("stub")
+        .withCompany("acme.com", "Acme")
+        .withCompany("globex.com", "Globex");
+    private CompanyLookups lookups;
+
+    @AfterEach
+    void tearDown() {
+        if (lookups != null) {
+            lookups.shutdown();
+        }
+    }
+
+    @Test
+    void shouldLookUpEachDomainOnceForManyContacts() {
+        // Given
+        lookups = lookups(1000);
+        stub.hold();
+        List<CompletableFuture<CompanyProfile>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            results.add(lookups.lookup("stub", "acme.com"));
+        }
+        stub.release();
+
+        // Then
+        assertThat(results).allSatisfy(result -> assertThat(result.join().getName()).isEqualTo("Acme"));
+        assertThat(lookups.lookup("stub", "acme.com").join().getName()).isEqualTo("Acme");
+        assertThat(stub.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBoundLookupsInFlightPerProvider() {
+        // Given
+        lookups = lookups(1000);
+        stub.hold();
+        List<CompletableFuture<CompanyProfile>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            results.add(lookups.lookup("stub", "company" + i + ".com"));
+        }
+        stub.release();
+        results.forEach(CompletableFuture::join);
+
+        // Then
+        assertThat(stub.calls()).isEqualTo(20);
+        assertThat(stub.maxInFlight()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldExpireResultsAfterTheirTtl() {
+        // Given
+        lookups = lookups(1000);
+        assertThat(lookups.lookup("stub", "acme.com").join()).isNotNull();
+        assertThat(lookups.lookup("stub", "unknown.com").join()).isNull();
+
+        // When
+        now.addAndGet(Duration.ofHours(2).toMillis());
+        lookups.lookup("stub", "acme.com").join();
+        lookups.lookup("stub", "unknown.com").join();
+
+        // Then the unknown domain's shorter TTL has run out, the known one's has not
+        assertThat(stub.calls()).isEqualTo(3);
+
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        lookups.lookup("stub", "acme.com").join();
+        assertThat(stub.calls()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotCacheFailures() {
+        // Given
+        lookups = lookups(1000);
+        stub.failing(true);
+        assertThatThrownBy(() -> lookups.lookup("stub", "acme.com").join()).hasRootCauseMessage("provider down");
+
+        // When
+        stub.failing(false);
+
+        // Then
+        assertThat(lookups.lookup("stub", "acme.com").join().getName()).isEqualTo("Acme");
+        assertThat(stub.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTimeOutLookupsFromWhenTheyStart() {
+        // Given both provider threads busy and a third lookup queued behind them
+        lookups = lookups(1000, Duration.ofMillis(200));
+        stub.hold();
+        CompletableFuture<CompanyProfile> first = lookups.lookup("stub", "acme.com");
+        CompletableFuture<CompanyProfile> second = lookups.lookup("stub", "initech.com");
+        CompletableFuture<CompanyProfile> queued = lookups.lookup("stub", "globex.com");
+
+        // When the running lookups outlast the timeout
+        assertThatThrownBy(first::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(queued).isNotDone();
+        stub.release();
+
+        // Then the queued lookup gets its full time once it starts, and the timeouts are not cached
+        assertThat(queued.join().getName()).isEqualTo("Globex");
+        assertThat(lookups.lookup("stub", "acme.com").join().getName()).isEqualTo("Acme");
+        assertThat(stub.calls()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() {
+        // Given
+        lookups = lookups(100);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            lookups.lookup("stub", "company" + i + ".com").join();
+        }
+
+        // Then
+        assertThat(lookups.cachedEntries()).isLessThanOrEqualTo(101);
+    }
+
+    @Test
+    void shouldTakeCompanyDomainsFromEmailAddresses() {
+        assertThat(CompanyDomains.fromEmail("Jane.Doe@Acme.COM")).isEqualTo("acme.com");
+        assertThat(CompanyDomains.fromEmail("jane@mail.acme.com.")).isEqualTo("mail.acme.com");
+        assertThat(CompanyDomains.fromEmail("jane@gmail.com")).isNull();
+        assertThat(CompanyDomains.fromEmail("jane@localhost")).isNull();
+        assertThat(CompanyDomains.fromEmail("@acme.com")).isNull();
+        assertThat(CompanyDomains.fromEmail(null)).isNull();
+    }
+
+    private CompanyLookups lookups(int maxEntries) {
+        return lookups(maxEntries, Duration.ofSeconds(30));
+    }
+
+    private CompanyLookups lookups(int maxEntries, Duration lookupTimeout) {
+        return new CompanyLookups(List.of(stub), Duration.ofDays(1), Duration.ofHours(1), maxEntries, lookupTimeout,
+                                  now::get);
+    }
+}
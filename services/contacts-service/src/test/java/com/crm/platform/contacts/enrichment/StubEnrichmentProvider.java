@@ -0,0 +1,78 @@
+package com.crm.platform.contacts.enrichment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provider answering from a fixed map of companies, counting its calls
+ */
+class StubEnrichmentProvider implements EnrichmentProvider {
+
+    private final String name;
+    private final Map<String, CompanyProfile> companies = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile boolean failing;
+
+    StubEnrichmentProvider(String name) {
+        this.name = name;
+    }
+
+    StubEnrichmentProvider withCompany(String domain, String companyName) {
+        companies.put(domain, new CompanyProfile(domain, companyName));
+        return this;
+    }
+
+    /**
+     * Hold every lookup until release() is called
+     */
+    void hold() {
+        release = new CountDownLatch(1);
+    }
+
+    void release() {
+        release.countDown();
+    }
+
+    void failing(boolean failing) {
+        this.failing = failing;
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return 2;
+    }
+
+    @Override
+    public CompanyProfile lookupCompany(String domain) throws Exception {
+        calls.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            release.await(5, TimeUnit.SECONDS);
+            if (failing) {
+                throw new IllegalStateException("provider down");
+            }
+            return companies.get(domain);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.crm.platform.contacts.exporter;
+
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldQuoteAndNeutralizeCsvFields() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+        CsvExportWriter writer = new CsvExportWriter(out);
+
+        // When
+        writer.writeHeader(List.of("name", "phone", "notes"));
+        writer.writeRow(new Object[] {"Smith, \"Jr.\"", "+49 30 1234", "=HYPERLINK(\"x\")"});
+        writer.writeRow(new Object[] {null, -5, "@cmd"});
+        writer.writeRow(new Object[] {"\t=1+2", "-", "\r=cmd"});
+        writer.writeRow(new Object[] {"-1+1|cmd", "+1 (555) 123-4567", "+1+HYPERLINK(\"http://x\")"});
+        writer.writeRow(new Object[] {"-2+3+cmd|' /C calc'!A0", "-12.5", "+"});
+
+        // Then
+        assertThat(out.toString()).isEqualTo(
+            "name,phone,notes\r\n" +
+            "\"Smith, \"\"Jr.\"\"\",+49 30 1234,\"'=HYPERLINK(\"\"x\"\")\"\r\n" +
+            ",-5,'@cmd\r\n" +
+            "'\t=1+2,'-,\"'\r=cmd\"\r\n" +
+            "'-1+1|cmd,+1 (555) 123-4567,\"'+1+HYPERLINK(\"\"http://x\"\")\"\r\n" +
+            "'-2+3+cmd|' /C calc'!A0,-12.5,'+\r\n");
+    }
+
+    @Test
+    void shouldEscapeXlsxCells() throws IOException {
+        StringWriter out = new StringWriter();
+        new XlsxSheetWriter(out).writeRow(new Object[] {"a<b & c\u0001", 42, null});
+
+        assertThat(out.toString())
+            .contains("a&lt;b &amp; c</t>")
+            .contains("<v>42</v>")
+            .contains("<c/>");
+    }
+
+    @Test
+    void shouldServeRangesAcrossChunkFiles() throws IOException {
+        // Given
+        ExportDownload download = download("abc", "defg", "hi");
+
+        // When
+        long[] range = download.resolveRange("bytes=2-6");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        download.transfer(out, range[0], range[1]);
+
+        // Then
+        assertThat(download.getLength()).isEqualTo(9);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("cdefg");
+        assertThat(download.resolveRange(null)).isNull();
+        assertThat(download.resolveRange("bytes=-4")).containsExactly(5, 8);
+        assertThat(download.resolveRange("bytes=7-")).containsExactly(7, 8);
+        assertThat(download.resolveRange("bytes=3-100")).containsExactly(3, 8);
+        // An inverted range is invalid and ignored, so the whole export is served
+        assertThat(download.resolveRange("bytes=6-2")).isNull();
+    }
+
+    @Test
+    void shouldRejectUnsatisfiableRanges() throws IOException {
+        ExportDownload download = download("abc");
+
+        assertThatThrownBy(() -> download.resolveRange("bytes=3-"))
+            .isInstanceOf(ContactBusinessException.class);
+        assertThatThrownBy(() -> download.resolveRange("bytes=0-1,2-2"))
+            .isInstanceOf(ContactBusinessException.class);
+        assertThatThrownBy(() -> download.resolveRange("items=0-1"))
+            .isInstanceOf(ContactBusinessException.class);
+    }
+
+    private ExportDownload download(String... chunks) throws IOException {
+        List<Path> files = new ArrayList<>();
+        long[] sizes = new long[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            Path file = directory.resolve("chunk-" + i + ".csv");
+            Files.writeString(file, chunks[i]);
+            files.add(file);
+            sizes[i] = chunks[i].length();
+        }
+        return new ExportDownload("contacts.csv", "text/csv", files, sizes);
+    }
+}
@@ -0,0 +1,171 @@
+package com.crm.platform.contacts.graphql;
+
+import com.crm.platform.common.graphql.GraphQLController;
+import com.crm.platform.common.graphql.GraphQLScalars;
+import com.crm.platform.common.util.TenantContext;
+import com.crm.platform.contacts.dto.ContactActivityResponse;
+import com.crm.platform.contacts.dto.ContactActivityStats;
+import com.crm.platform.contacts.dto.ContactRelationshipResponse;
+import com.crm.platform.contacts.dto.ContactResponse;
+import com.crm.platform.contacts.service.ContactActivityService;
+import com.crm.platform.contacts.service.ContactService;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ContactDataLoadersTest {
+
+    // The Contact fields under test, with a page of contacts served by the test itself
+    private static final String SCHEMA =
+        "scalar UUID\n" +
+        "type Query { contactsPage(size: Int!): [Contact!]! }\n" +
+        "type Contact { id: UUID! relationships: [ContactRelationship!]! activities: [ContactActivity!]! " +
+        "totalActivities: Int! engagementScore: Float }\n" +
+        "type ContactRelationship { relatedContact: Contact }\n" +
+        "type ContactActivity { id: UUID! }\n";
+
+    private static final String QUERY =
+        "query($size: Int!) { contactsPage(size: $size) { id relationships { relatedContact { id } } " +
+        "activities { id } totalActivities engagementScore } }";
+
+    private final UUID tenantId = UUID.randomUUID();
+    private ContactService contactService;
+    private ContactActivityService activityService;
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+        contactService = mock(ContactService.class);
+        activityService = mock(ContactActivityService.class);
+
+        // Each contact has one relationship to a contact of its own and one activity
+        when(contactService.getContactsById(anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, ContactResponse> contacts = new LinkedHashMap<>();
+            for (UUID id : invocation.<Collection<UUID>>getArgument(0)) {
+                contacts.put(id, contact(id));
+            }
+            return contacts;
+        });
+        when(contactService.getContactRelationships(anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, List<ContactRelationshipResponse>> relationships = new LinkedHashMap<>();
+            for (UUID id : invocation.<Collection<UUID>>getArgument(0)) {
+                ContactRelationshipResponse relationship = new ContactRelationshipResponse();
+                relationship.setContactId(id);
+                relationship.setRelatedContactId(UUID.randomUUID());
+                relationships.put(id, List.of(relationship));
+            }
+            return relationships;
+        });
+        when(activityService.getRecentActivities(eq(tenantId), anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, List<ContactActivityResponse>> activities = new LinkedHashMap<>();
+            for (UUID id : invocation.<Collection<UUID>>getArgument(1)) {
+                activities.put(id, List.of(new ContactActivityResponse(UUID.randomUUID(), id, "CALL", "Intro call")));
+            }
+            return activities;
+        });
+        when(activityService.getActivityStats(eq(tenantId), anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, ContactActivityStats> stats = new LinkedHashMap<>();
+            for (UUID id : invocation.<Collection<UUID>>getArgument(1)) {
+                ContactActivityStats contactStats = new ContactActivityStats();
+                contactStats.setTotalActivities(1);
+                contactStats.setEngagementScore(0.5);
+                stats.put(id, contactStats);
+            }
+            return stats;
+        });
+
+        RuntimeWiring.Builder wiring = RuntimeWiring.newRuntimeWiring();
+        new ContactGraphQLResolver(contactService).configureRuntimeWiring(wiring);
+        wiring.type("Query", typeWiring -> typeWiring.dataFetcher("contactsPage", environment -> {
+            List<ContactResponse> page = new ArrayList<>();
+            for (int i = 0; i < environment.<Integer>getArgument("size"); i++) {
+                page.add(contact(UUID.randomUUID()));
+            }
+            return page;
+        }));
+        wiring.scalar(GraphQLScalars.UUID);
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring.build());
+        graphQL = GraphQL.newGraphQL(schema).instrumentation(new DataLoaderDispatcherInstrumentation()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void shouldLoadEachFieldWithOneBatchForASmallPage() {
+        assertOneBatchPerLoader(3);
+    }
+
+    @Test
+    void shouldLoadEachFieldWithOneBatchForALargePage() {
+        assertOneBatchPerLoader(200);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertOneBatchPerLoader(int pageSize) {
+        // Given a request with its own loaders
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        new ContactDataLoaders(contactService, activityService)
+            .registerDataLoaders(registry, new GraphQLController.GraphQLContext());
+
+        // When
+        ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+            .query(QUERY)
+            .variables(Map.of("size", pageSize))
+            .dataLoaderRegistry(registry)
+            .build());
+
+        // Then every contact is resolved in full
+        assertThat(result.getErrors()).isEmpty();
+        List<Map<String, Object>> contacts = (List<Map<String, Object>>) ((Map<String, Object>) result.getData()).get("contactsPage");
+        assertThat(contacts).hasSize(pageSize).allSatisfy(contact -> {
+            assertThat((List<Map<String, Object>>) contact.get("relationships")).singleElement()
+                .satisfies(relationship -> assertThat(relationship.get("relatedContact")).isNotNull());
+            assertThat((List<?>) contact.get("activities")).hasSize(1);
+            assertThat(contact.get("totalActivities")).isEqualTo(1);
+            assertThat(contact.get("engagementScore")).isEqualTo(0.5);
+        });
+
+        // and each loader ran one batch holding the whole page, however large it is
+        verify(contactService, times(1)).getContactRelationships(argThat((Collection<UUID> ids) -> ids.size() == pageSize));
+        verify(contactService, times(1)).getContactsById(argThat((Collection<UUID> ids) -> ids.size() == pageSize));
+        verify(activityService, times(1)).getRecentActivities(eq(tenantId), argThat((Collection<UUID> ids) -> ids.size() == pageSize));
+        verify(activityService, times(1)).getActivityStats(eq(tenantId), argThat((Collection<UUID> ids) -> ids.size() == pageSize));
+        verifyNoMoreInteractions(contactService, activityService);
+    }
+
+    private static ContactResponse contact(UUID id) {
+        ContactResponse contact = new ContactResponse();
+        contact.setId(id);
+        return contact;
+    }
+}
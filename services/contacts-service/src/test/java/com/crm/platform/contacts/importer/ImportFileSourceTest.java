@@ -0,0 +1,134 @@
+package com.crm.platform.contacts.importer;
+
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportFileSourceTest {
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+
+    @Test
+    void shouldRefuseHostsOffTheAllowlist() {
+        ImportFileSource source = source("files.example.com", "*.storage.example.net");
+
+        assertThat(source.check("https://files.example.com/contacts.csv").getHost()).isEqualTo("files.example.com");
+        assertThat(source.check("https://eu.storage.example.net/contacts.csv")).isNotNull();
+        assertThatThrownBy(() -> source.check("https://example.com/contacts.csv"))
+            .isInstanceOf(ContactBusinessException.class)
+            .hasMessageContaining("example.com");
+        assertThatThrownBy(() -> source.check("https://evilstorage.example.net/contacts.csv"))
+            .isInstanceOf(ContactBusinessException.class);
+        assertThatThrownBy(() -> source.check("file:///etc/passwd"))
+            .isInstanceOf(ContactBusinessException.class);
+    }
+
+    @Test
+    void shouldRefuseEveryUrlWithoutAnAllowlist() {
+        ImportFileSource source = new ImportFileSource(httpClient, List.of(""), 3, host -> new InetAddress[] {publicAddress()});
+
+        assertThatThrownBy(() -> source.check("https://files.example.com/contacts.csv"))
+            .isInstanceOf(ContactBusinessException.class);
+    }
+
+    @Test
+    void shouldRefuseAllowedHostsResolvingToPrivateAddresses() {
+        for (String address : List.of("127.0.0.1", "169.254.169.254", "10.1.2.3", "192.168.0.10", "172.16.5.4",
+                                      "100.64.0.1", "0.0.0.0", "::1", "fd00::1", "fe80::1")) {
+            ImportFileSource source = new ImportFileSource(httpClient, List.of("files.example.com"), 3,
+                host -> new InetAddress[] {publicAddress(), InetAddress.getByName(address)});
+
+            assertThatThrownBy(() -> source.check("https://files.example.com/contacts.csv"))
+                .as(address)
+                .isInstanceOf(ContactBusinessException.class)
+                .hasMessageContaining("private address");
+        }
+    }
+
+    @Test
+    void shouldCheckEveryRedirectHop() throws Exception {
+        // Given
+        ImportFileSource source = new ImportFileSource(httpClient, List.of("files.example.com", "metadata.example.com"), 3,
+            host -> host.startsWith("metadata") ? new InetAddress[] {InetAddress.getByName("169.254.169.254")}
+                : new InetAddress[] {publicAddress()});
+        HttpResponse<InputStream> redirect = response(302, "http://metadata.example.com/latest/meta-data/");
+        doReturn(redirect).when(httpClient).send(any(HttpRequest.class), any());
+
+        // When / Then
+        assertThatThrownBy(() -> source.open("https://files.example.com/contacts.csv"))
+            .isInstanceOf(ContactBusinessException.class)
+            .hasMessageContaining("private address");
+        verify(httpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void shouldFollowAllowedRedirects() throws Exception {
+        // Given
+        ImportFileSource source = source("files.example.com");
+        HttpResponse<InputStream> redirect = response(307, "/exports/contacts.csv");
+        HttpResponse<InputStream> file = response(200, null);
+        doReturn(redirect).when(httpClient)
+            .send(argThat(request -> request != null && request.uri().getPath().equals("/contacts.csv")), any());
+        doReturn(file).when(httpClient)
+            .send(argThat(request -> request != null && request.uri().getPath().equals("/exports/contacts.csv")), any());
+
+        // When
+        HttpResponse<InputStream> opened = source.open("https://files.example.com/contacts.csv");
+
+        // Then
+        assertThat(opened).isSameAs(file);
+    }
+
+    @Test
+    void shouldStopAfterMaxRedirects() throws Exception {
+        ImportFileSource source = source("files.example.com");
+        HttpResponse<InputStream> redirect = response(301, "https://files.example.com/contacts.csv");
+        doReturn(redirect).when(httpClient).send(any(HttpRequest.class), any());
+
+        assertThatThrownBy(() -> source.open("https://files.example.com/contacts.csv"))
+            .hasMessageContaining("more than 3 redirects");
+        verify(httpClient, times(4)).send(any(HttpRequest.class), any());
+    }
+
+    private ImportFileSource source(String... allowedHosts) {
+        return new ImportFileSource(httpClient, List.of(allowedHosts), 3, host -> new InetAddress[] {publicAddress()});
+    }
+
+    private static InetAddress publicAddress() {
+        try {
+            return InetAddress.getByName("93.184.216.34");
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<InputStream> response(int status, String location) {
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(response.headers()).thenReturn(HttpHeaders.of(
+            location != null ? Map.of("Location", List.of(location)) : Map.of(), (name, value) -> true));
+        return response;
+    }
+}
@@ -0,0 +1,158 @@
+package com.crm.platform.contacts.importer;
+
+import com.crm.platform.contacts.dto.ContactRequest;
+import com.crm.platform.contacts.entity.ContactStatus;
+import com.crm.platform.contacts.exception.ContactBusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRowReaderTest {
+
+    @Test
+    void shouldReadQuotedCsvFields() throws IOException {
+        // Given
+        String csv = "\uFEFFfirst_name,last_name,email\r\n" +
+                     "\"Smith, Jr.\",\"O\"\"Neil\",ann@example.com\r\n" +
+                     "\"Two\nLines\",,bob@example.com\n";
+
+        // When
+        try (CsvRowReader reader = reader(csv, ',')) {
+            // Then
+            assertThat(reader.next()).containsExactly("first_name", "last_name", "email");
+            assertThat(reader.next()).containsExactly("Smith, Jr.", "O\"Neil", "ann@example.com");
+            assertThat(reader.next()).containsExactly("Two\nLines", null, "bob@example.com");
+            assertThat(reader.rowNumber()).isEqualTo(3);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void shouldReadCustomDelimiter() throws IOException {
+        try (CsvRowReader reader = reader("a;\"b;c\";\n", ';')) {
+            assertThat(reader.next()).containsExactly("a", "b;c", null);
+        }
+    }
+
+    @Test
+    void shouldReadInlineAndSharedStringsFromXlsx(@TempDir Path dir) throws IOException {
+        // Given a workbook whose sheet mixes shared, rich-text, inline, numeric and boolean cells
+        Path file = workbook(dir,
+            "<sst count=\"3\" uniqueCount=\"3\">" +
+            "<si><t>first_name</t></si>" +
+            "<si><t>email</t></si>" +
+            "<si><r><t>Ann</t></r><r><t>-Marie</t></r><rPh sb=\"0\" eb=\"3\"><t>アン</t></rPh></si>" +
+            "</sst>",
+            "<worksheet><sheetData>" +
+            "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>" +
+            "<c r=\"C1\" t=\"inlineStr\"><is><t>lead_score</t></is></c></row>" +
+            "<row r=\"3\"><c r=\"A3\" t=\"s\"><v>2</v></c>" +
+            "<c r=\"C3\"><v>42</v></c><c r=\"D3\" t=\"b\"><v>1</v></c></row>" +
+            "</sheetData></worksheet>");
+        List<Path> spilledBefore = spilledSharedStrings();
+
+        // When
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            // Then
+            assertThat(reader.next()).containsExactly("first_name", "email", "lead_score");
+            assertThat(reader.next()).containsExactly("Ann-Marie", null, "42", "true");
+            assertThat(reader.rowNumber()).isEqualTo(3);
+            assertThat(reader.next()).isNull();
+            assertThat(reader.bytesRead()).isPositive();
+
+            // The shared string table stays mapped, but its temporary files are already gone
+            assertThat(spilledSharedStrings()).isEqualTo(spilledBefore);
+        }
+    }
+
+    @Test
+    void shouldMapRowsByHeaderName() {
+        // Given
+        String[] header = {"First Name", "Last Name", "Status", "City", "Ignored"};
+        ImportRowMapper mapper = new ImportRowMapper(header,
+            Map.of("City", "mailingAddress.city"), Map.of("firstName", "Unknown", "Last Name", "Doe"));
+
+        // When
+        ContactRequest request = mapper.map(new String[] {null, " Smith ", "inactive", "Berlin", "x"});
+
+        // Then - only the explicitly mapped column is used, defaults fill the rest
+        assertThat(request.getFirstName()).isEqualTo("Unknown");
+        assertThat(request.getLastName()).isEqualTo("Doe");
+        assertThat(request.getContactStatus()).isNull();
+        assertThat(request.getMailingAddress()).containsEntry("city", "Berlin");
+    }
+
+    @Test
+    void shouldMatchHeaderNamesWithoutMapping() {
+        ImportRowMapper mapper = new ImportRowMapper(
+            new String[] {"first_name", "LAST NAME", "contact status", "tags"}, null, null);
+
+        ContactRequest request = mapper.map(new String[] {"Ann", "Lee", "inactive", "vip; partner"});
+
+        assertThat(request.getFirstName()).isEqualTo("Ann");
+        assertThat(request.getContactStatus()).isEqualTo(ContactStatus.INACTIVE);
+        assertThat(request.getTags()).containsExactly("vip", "partner");
+        assertThat(mapper.map(new String[] {"", null, " "})).isNull();
+    }
+
+    @Test
+    void shouldRejectInvalidCellValues() {
+        ImportRowMapper mapper = new ImportRowMapper(
+            new String[] {"firstName", "lastName", "leadScore"}, null, null);
+
+        assertThatThrownBy(() -> mapper.map(new String[] {"Ann", "Lee", "high"}))
+            .isInstanceOf(ContactBusinessException.class)
+            .hasMessageContaining("leadScore");
+    }
+
+    private static Path workbook(Path dir, String sharedStrings, String sheet) throws IOException {
+        String mainNs = " xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"";
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("xl/workbook.xml",
+            "<workbook" + mainNs + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+            "<sheets><sheet name=\"Contacts\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+        parts.put("xl/_rels/workbook.xml.rels",
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+            "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\"" +
+            " Target=\"worksheets/contacts.xml\"/>" +
+            "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\"" +
+            " Target=\"strings.xml\"/></Relationships>");
+        parts.put("xl/strings.xml", sharedStrings.replaceFirst("<sst", "<sst" + mainNs));
+        parts.put("xl/worksheets/contacts.xml", sheet.replaceFirst("<worksheet", "<worksheet" + mainNs));
+
+        Path file = dir.resolve("contacts.xlsx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (Map.Entry<String, String> part : parts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(part.getKey()));
+                zip.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static List<Path> spilledSharedStrings() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(path -> path.getFileName().toString().startsWith("contact-import-sst")).sorted().toList();
+        }
+    }
+
+    private CsvRowReader reader(String csv, char delimiter) {
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        return new CsvRowReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8, delimiter, bytes.length);
+    }
+}
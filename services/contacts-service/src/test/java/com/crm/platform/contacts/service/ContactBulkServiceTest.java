@@ -0,0 +1,266 @@
+package com.crm.platform.contacts.service;
+
+import com.crm.platform.contacts.analytics.ContactAnalyticsStore;
+import com.crm.platform.contacts.entity.Contact;
+import com.crm.platform.contacts.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the bulk statements against Postgres, since what they delete and move depends on its
+ * semantics (DISTINCT ON, RETURNING, uuid arrays, cascading foreign keys).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ContactBulkServiceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    // The columns the bulk statements touch, with the constraints and cascades of the migrations
+    private static final String SCHEMA =
+        "CREATE TABLE contacts (id UUID PRIMARY KEY, tenant_id UUID NOT NULL);" +
+        "CREATE TABLE contact_relationships (" +
+        "  id UUID PRIMARY KEY DEFAULT gen_random_uuid(), tenant_id UUID NOT NULL," +
+        "  contact_id UUID NOT NULL REFERENCES contacts(id) ON DELETE CASCADE," +
+        "  related_contact_id UUID NOT NULL REFERENCES contacts(id) ON DELETE CASCADE," +
+        "  relationship_type VARCHAR(50) NOT NULL, is_primary BOOLEAN DEFAULT FALSE," +
+        "  created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(), updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()," +
+        "  updated_by UUID," +
+        "  CONSTRAINT no_self_relationship CHECK (contact_id != related_contact_id)," +
+        "  CONSTRAINT unique_relationship UNIQUE (tenant_id, contact_id, related_contact_id, relationship_type));" +
+        "CREATE TABLE contact_activities (" +
+        "  id UUID PRIMARY KEY DEFAULT gen_random_uuid(), tenant_id UUID NOT NULL," +
+        "  contact_id UUID NOT NULL REFERENCES contacts(id) ON DELETE CASCADE," +
+        "  updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(), updated_by UUID)";
+
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private ContactRepository contactRepository;
+    private ContactDeduplicationService deduplicationService;
+    private ContactAnalyticsStore analyticsStore;
+    private ContactEventService eventService;
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute(SCHEMA);
+    }
+
+    @BeforeEach
+    void setUp() {
+        contactRepository = mock(ContactRepository.class);
+        deduplicationService = mock(ContactDeduplicationService.class);
+        analyticsStore = mock(ContactAnalyticsStore.class);
+        eventService = mock(ContactEventService.class);
+
+        // Merges see the contacts in the table; filling in the primary is not under test
+        when(contactRepository.existsByTenantIdAndId(eq(tenantId), any())).thenReturn(true);
+        when(contactRepository.findByTenantIdAndId(eq(tenantId), any()))
+            .thenAnswer(invocation -> Optional.of(contact(invocation.getArgument(1))));
+        when(contactRepository.findByTenantIdAndIdIn(eq(tenantId), anyList())).thenAnswer(invocation -> {
+            List<Contact> contacts = new ArrayList<>();
+            for (UUID id : invocation.<List<UUID>>getArgument(1)) {
+                contacts.add(contact(id));
+            }
+            return contacts;
+        });
+        when(contactRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(deduplicationService.mergeContacts(any(), anyList(), eq(userId)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void shouldDeleteAndAnnounceEachChunkOnItsOwn() {
+        // Given
+        List<UUID> ids = contacts(5);
+
+        // When
+        int deleted = service(2).deleteContacts(tenantId, ids, userId);
+
+        // Then
+        assertThat(deleted).isEqualTo(5);
+        assertThat(remaining(ids)).isZero();
+        assertThat(announcedDeletes()).containsExactly(
+            Set.copyOf(ids.subList(0, 2)), Set.copyOf(ids.subList(2, 4)), Set.of(ids.get(4)));
+        verify(analyticsStore, times(3)).record(eq(tenantId), eq(List.of()), anyList());
+    }
+
+    @Test
+    void shouldNotAnnounceContactsDeletedMeanwhile() {
+        // Given contacts that someone else deletes once the first chunk is done
+        List<UUID> ids = contacts(5);
+        doAnswer(invocation -> {
+            jdbcTemplate.update("DELETE FROM contacts WHERE id IN (?, ?)", ids.get(2), ids.get(4));
+            return null;
+        }).doNothing().when(eventService).publishContactsDeleted(eq(tenantId), anyList(), eq(userId));
+
+        // When
+        int deleted = service(2).deleteContacts(tenantId, ids, userId);
+
+        // Then - a chunk announces only what it deleted, and an emptied chunk nothing
+        assertThat(deleted).isEqualTo(3);
+        assertThat(announcedDeletes()).containsExactly(Set.copyOf(ids.subList(0, 2)), Set.of(ids.get(3)));
+    }
+
+    @Test
+    void shouldMoveRelationshipsToThePrimary() {
+        // Given
+        List<UUID> ids = contacts(5);
+        UUID primary = ids.get(0);
+        UUID first = ids.get(1);
+        UUID second = ids.get(2);
+        UUID customer = ids.get(3);
+        UUID partner = ids.get(4);
+        // Among the merged contacts, which would relate the primary to itself
+        relate(first, primary, "COLLEAGUE", false);
+        relate(first, second, "FRIEND", false);
+        // One the primary has already
+        relate(first, customer, "COLLEAGUE", false);
+        UUID kept = relate(primary, customer, "COLLEAGUE", false);
+        // The same one on both duplicates, of which the primary relationship wins
+        relate(first, partner, "PARTNER", false);
+        UUID moved = relate(second, partner, "PARTNER", true);
+        // One towards a duplicate
+        UUID referral = relate(customer, second, "REFERRAL", false);
+
+        // When
+        service(2).mergeContacts(tenantId, primary, List.of(first, second), true, true, userId);
+
+        // Then
+        assertThat(jdbcTemplate.query(
+            "SELECT id, contact_id, related_contact_id, relationship_type FROM contact_relationships WHERE tenant_id = ?",
+            (rs, rowNum) -> tuple(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class),
+                                  rs.getObject(3, UUID.class), rs.getString(4)), tenantId))
+            .containsExactlyInAnyOrder(
+                tuple(kept, primary, customer, "COLLEAGUE"),
+                tuple(moved, primary, partner, "PARTNER"),
+                tuple(referral, customer, primary, "REFERRAL"));
+        assertThat(remaining(List.of(first, second))).isZero();
+        verify(eventService).publishContactMerged(any(), anyList());
+    }
+
+    @Test
+    void shouldMoveActivitiesToThePrimaryWhenAsked() {
+        // Given
+        List<UUID> ids = contacts(3);
+        UUID activity = activity(ids.get(1));
+        activity(ids.get(2));
+
+        // When
+        service(1).mergeContacts(tenantId, ids.get(0), ids.subList(1, 3), false, true, userId);
+
+        // Then - both chunks moved theirs
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT contact_id FROM contact_activities WHERE tenant_id = ?", UUID.class, tenantId))
+            .containsExactly(ids.get(0), ids.get(0));
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT updated_by FROM contact_activities WHERE id = ?", UUID.class, activity)).isEqualTo(userId);
+    }
+
+    @Test
+    void shouldDropActivitiesWithTheDuplicatesOtherwise() {
+        // Given
+        List<UUID> ids = contacts(2);
+        activity(ids.get(0));
+        activity(ids.get(1));
+
+        // When
+        service(1).mergeContacts(tenantId, ids.get(0), ids.subList(1, 2), false, false, userId);
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT contact_id FROM contact_activities WHERE tenant_id = ?", UUID.class, tenantId))
+            .containsExactly(ids.get(0));
+    }
+
+    // The ids of each contacts deleted event, in the order they were published
+    @SuppressWarnings("unchecked")
+    private List<Set<UUID>> announcedDeletes() {
+        ArgumentCaptor<List<UUID>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(eventService, atLeastOnce()).publishContactsDeleted(eq(tenantId), deleted.capture(), eq(userId));
+        verifyNoMoreInteractions(eventService);
+        List<Set<UUID>> events = new ArrayList<>();
+        for (List<UUID> ids : deleted.getAllValues()) {
+            events.add(Set.copyOf(ids));
+        }
+        return events;
+    }
+
+    private ContactBulkService service(int chunkSize) {
+        return new ContactBulkService(jdbcTemplate, transactionManager, contactRepository, deduplicationService,
+                                      analyticsStore, eventService, chunkSize);
+    }
+
+    private List<UUID> contacts(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO contacts (id, tenant_id) VALUES (?, ?)", id, tenantId);
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private UUID relate(UUID contactId, UUID relatedContactId, String type, boolean primary) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO contact_relationships (id, tenant_id, contact_id, related_contact_id, relationship_type, is_primary) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", id, tenantId, contactId, relatedContactId, type, primary);
+        return id;
+    }
+
+    private UUID activity(UUID contactId) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO contact_activities (id, tenant_id, contact_id) VALUES (?, ?, ?)",
+                            id, tenantId, contactId);
+        return id;
+    }
+
+    private int remaining(List<UUID> ids) {
+        int count = 0;
+        for (UUID id : ids) {
+            count += jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE id = ?", Integer.class, id);
+        }
+        return count;
+    }
+
+    private Contact contact(UUID id) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setTenantId(tenantId);
+        return contact;
+    }
+}
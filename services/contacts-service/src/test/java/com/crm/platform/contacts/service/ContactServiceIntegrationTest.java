@@ -10,23 +10,39 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
-@TestPropertySource(properties = {
-    "spring.datasource.url=jdbc:h2:mem:testdb",
-    "spring.jpa.hibernate.ddl-auto=create-drop",
-    "spring.flyway.enabled=false",
+/**
+ * Runs against Postgres with the Flyway migrations, as the schema relies on jsonb, arrays and
+ * Postgres-only SQL. Events are written to the outbox; nothing relays them without Kafka.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
     "eureka.client.enabled=false"
 })
+@Testcontainers(disabledWithoutDocker = true)
 @Transactional
 class ContactServiceIntegrationTest {
 
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
     @Autowired
     private ContactService contactService;
 
@@ -42,7 +58,7 @@ class ContactServiceIntegrationTest {
         userId = UUID.randomUUID();
         
         // Set tenant context for the test
-        TenantContext.setCurrentTenantId(tenantId);
+        TenantContext.setTenantId(tenantId);
     }
 
     @Test
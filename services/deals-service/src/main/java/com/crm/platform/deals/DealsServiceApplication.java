@@ -1,5 +1,6 @@
 package com.crm.platform.deals;
 
+import com.crm.platform.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
@@ -8,6 +9,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 @SpringBootApplication
 @EnableEurekaClient
 @EnableKafka
+@EnableOutbox
 public class DealsServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,44 @@
+package com.crm.platform.deals.event;
+
+import com.crm.platform.deals.repository.DealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves deals from merged contacts to the contact they were merged into. contacts-service
+ * publishes one CONTACT_MERGED event per chunk of merged contacts; the update is idempotent, so
+ * a redelivered event does no harm.
+ */
+@Component
+public class ContactMergeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactMergeListener.class);
+
+    private final DealRepository dealRepository;
+
+    public ContactMergeListener(DealRepository dealRepository) {
+        this.dealRepository = dealRepository;
+    }
+
+    // The records carry the contacts-service event type, so only the fields read here are bound
+    @KafkaListener(topics = "contact-events", properties = {
+        "spring.json.use.type.headers=false",
+        "spring.json.value.default.type=com.crm.platform.deals.event.ContactMergedEvent"
+    })
+    @Transactional
+    public void onContactEvent(ContactMergedEvent event) {
+        if (!"CONTACT_MERGED".equals(event.getEventType()) || event.getTenantId() == null
+            || event.getContactId() == null || event.getMergedContactIds() == null
+            || event.getMergedContactIds().isEmpty()) {
+            return;
+        }
+        int moved = dealRepository.reassignContact(event.getTenantId(), event.getMergedContactIds(), event.getContactId());
+        if (moved > 0) {
+            logger.info("Moved {} deals of {} merged contacts to contact {} for tenant: {}",
+                       moved, event.getMergedContactIds().size(), event.getContactId(), event.getTenantId());
+        }
+    }
+}
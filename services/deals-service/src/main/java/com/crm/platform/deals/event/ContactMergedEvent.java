@@ -0,0 +1,35 @@
+package com.crm.platform.deals.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The part of a contacts-service event on the contact-events topic that deals-service reads:
+ * for CONTACT_MERGED, contactId is the surviving contact and mergedContactIds the contacts merged
+ * into it and deleted.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ContactMergedEvent {
+
+    private String eventType;
+    private UUID tenantId;
+    private UUID contactId;
+    private List<UUID> mergedContactIds;
+
+    public ContactMergedEvent() {}
+
+    // Getters and Setters
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+
+    public UUID getContactId() { return contactId; }
+    public void setContactId(UUID contactId) { this.contactId = contactId; }
+
+    public List<UUID> getMergedContactIds() { return mergedContactIds; }
+    public void setMergedContactIds(List<UUID> mergedContactIds) { this.mergedContactIds = mergedContactIds; }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -134,6 +135,13 @@ public interface DealRepository extends JpaRepository<Deal, UUID>, JpaSpecificat
                        @Param("updatedBy") UUID updatedBy, 
                        @Param("tenantId") UUID tenantId);
     
+    @Modifying
+    @Query("UPDATE Deal d SET d.contactId = :contactId, d.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE d.tenantId = :tenantId AND d.contactId IN :mergedContactIds")
+    int reassignContact(@Param("tenantId") UUID tenantId,
+                        @Param("mergedContactIds") List<UUID> mergedContactIds,
+                        @Param("contactId") UUID contactId);
+    
     // Delete operations
     void deleteByIdAndTenantId(UUID id, UUID tenantId);
     
@@ -1,17 +1,19 @@
 package com.crm.platform.deals.service;
 
+import com.crm.platform.common.outbox.OutboxPublisher;
 import com.crm.platform.deals.entity.Deal;
 import com.crm.platform.deals.event.DealEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class DealEventService {
@@ -20,11 +22,11 @@ public class DealEventService {
     
     private static final String DEAL_EVENTS_TOPIC = "deal-events";
     
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxPublisher outboxPublisher;
 
     @Autowired
-    public DealEventService(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public DealEventService(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishDealCreated(Deal deal) {
@@ -33,6 +35,15 @@ public class DealEventService {
         logger.info("Published DEAL_CREATED event for deal: {}", deal.getId());
     }
 
+    // One batched write to the outbox for all of the deals
+    public void publishDealsCreated(List<Deal> deals) {
+        List<DealEvent> events = deals.stream()
+            .map(deal -> createDealEvent(deal, "DEAL_CREATED"))
+            .collect(Collectors.toList());
+        outboxPublisher.publishAll(DEAL_EVENTS_TOPIC, events, event -> event.getDealId().toString());
+        logger.info("Published DEAL_CREATED events for {} deals", deals.size());
+    }
+
     public void publishDealUpdated(Deal deal) {
         DealEvent event = createDealEvent(deal, "DEAL_UPDATED");
         publishEvent(event);
@@ -104,15 +115,8 @@ public class DealEventService {
         return event;
     }
 
+    // Written in the caller's transaction and sent once it commits
     private void publishEvent(DealEvent event) {
-        try {
-            kafkaTemplate.send(DEAL_EVENTS_TOPIC, event.getDealId().toString(), event)
-                .addCallback(
-                    result -> logger.debug("Event published successfully: {}", event.getEventType()),
-                    failure -> logger.error("Failed to publish event: {}", event.getEventType(), failure)
-                );
-        } catch (Exception e) {
-            logger.error("Error publishing deal event: {}", event.getEventType(), e);
-        }
+        outboxPublisher.publish(DEAL_EVENTS_TOPIC, event.getDealId().toString(), event);
     }
 }
\ No newline at end of file
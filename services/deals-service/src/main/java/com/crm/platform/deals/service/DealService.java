@@ -243,8 +243,8 @@ public class DealService {
         // Create stage history entries and publish events
         for (Deal deal : deals) {
             createStageHistoryEntry(deal, null, deal.getStageId(), userId, "Deal created");
-            dealEventService.publishDealCreated(deal);
         }
+        dealEventService.publishDealsCreated(deals);
 
         logger.info("Bulk created {} deals successfully", deals.size());
         return deals.stream().map(this::mapEntityToResponse).collect(Collectors.toList());
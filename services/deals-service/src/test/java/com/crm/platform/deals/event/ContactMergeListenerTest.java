@@ -0,0 +1,99 @@
+package com.crm.platform.deals.event;
+
+import com.crm.platform.deals.repository.DealRepository;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactMergeListenerTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @InjectMocks
+    private ContactMergeListener listener;
+
+    private UUID tenantId;
+    private UUID primaryContactId;
+    private List<UUID> mergedContactIds;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        primaryContactId = UUID.randomUUID();
+        mergedContactIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    @Test
+    void onContactEvent_Merged_MovesDealsToPrimaryContact() {
+        // Given
+        ContactMergedEvent event = event("CONTACT_MERGED", mergedContactIds);
+        when(dealRepository.reassignContact(tenantId, mergedContactIds, primaryContactId)).thenReturn(3);
+
+        // When
+        listener.onContactEvent(event);
+
+        // Then
+        verify(dealRepository).reassignContact(tenantId, mergedContactIds, primaryContactId);
+    }
+
+    @Test
+    void onContactEvent_OtherEvents_AreIgnored() {
+        // When
+        listener.onContactEvent(event("CONTACT_UPDATED", null));
+        listener.onContactEvent(event("CONTACT_MERGED", List.of()));
+
+        // Then
+        verify(dealRepository, never()).reassignContact(any(), any(), any());
+    }
+
+    @Test
+    void contactServiceRecord_BindsToMergedEvent() {
+        // Given a record as the contacts-service outbox relay sends it, with its own type header
+        String json = "{\"eventId\":\"" + UUID.randomUUID() + "\",\"eventType\":\"CONTACT_MERGED\"," +
+            "\"contactId\":\"" + primaryContactId + "\",\"tenantId\":\"" + tenantId + "\"," +
+            "\"mergedContactIds\":[\"" + mergedContactIds.get(0) + "\",\"" + mergedContactIds.get(1) + "\"]," +
+            "\"contactData\":{\"firstName\":\"Ann\"},\"timestamp\":\"2024-01-01T10:00:00\"}";
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("__TypeId__", "com.crm.platform.contacts.event.ContactEvent".getBytes(StandardCharsets.UTF_8));
+        JsonDeserializer<Object> deserializer = new JsonDeserializer<>();
+        deserializer.configure(Map.of(
+            "spring.json.trusted.packages", "com.crm.platform.deals.event",
+            "spring.json.use.type.headers", "false",
+            "spring.json.value.default.type", ContactMergedEvent.class.getName()), false);
+
+        // When
+        Object value = deserializer.deserialize("contact-events", headers, json.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        ContactMergedEvent event = assertInstanceOf(ContactMergedEvent.class, value);
+        assertEquals("CONTACT_MERGED", event.getEventType());
+        assertEquals(tenantId, event.getTenantId());
+        assertEquals(primaryContactId, event.getContactId());
+        assertEquals(mergedContactIds, event.getMergedContactIds());
+    }
+
+    private ContactMergedEvent event(String eventType, List<UUID> merged) {
+        ContactMergedEvent event = new ContactMergedEvent();
+        event.setEventType(eventType);
+        event.setTenantId(tenantId);
+        event.setContactId(primaryContactId);
+        event.setMergedContactIds(merged);
+        return event;
+    }
+}
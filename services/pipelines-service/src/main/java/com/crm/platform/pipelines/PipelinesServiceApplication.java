@@ -1,5 +1,6 @@
 package com.crm.platform.pipelines;
 
+import com.crm.platform.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 // import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
@@ -12,6 +13,7 @@ import org.springframework.cache.annotation.EnableCaching;
 @EnableJpaAuditing
 @EnableKafka
 @EnableCaching
+@EnableOutbox
 public class PipelinesServiceApplication {
 
     public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.crm.platform.users.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -9,52 +10,91 @@ import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Cache configuration for the users service
+ * Cache configuration for the users service. Sizing and expiry are configured per cache under
+ * app.cache (see {@link CachePolicyConfig}), and hit, miss and eviction statistics of the local
+ * caches are exported through Micrometer.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final String CACHE_MANAGER_NAME = "cacheManager";
+
+    private static final List<String> CACHE_NAMES = List.of(
+        "users", "roles", "permissions", "teams", "profiles", "userRoles"
+    );
+
     /**
      * Caffeine cache manager - high performance local cache
      */
-    @Bean
+    @Bean(name = CACHE_MANAGER_NAME)
     @Primary
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine", matchIfMissing = true)
-    public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-            "users", "roles", "permissions", "teams", "profiles", "userRoles"
-        );
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(Duration.ofMinutes(5))
-            .expireAfterAccess(Duration.ofMinutes(2))
-            .recordStats());
+    public CacheManager caffeineCacheManager(CachePolicyConfig policies, MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Caches created on demand use the defaults
+        cacheManager.setCaffeine(policies.getDefaults().toCaffeine());
+        for (String name : cacheNames(policies)) {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = policies.policyFor(name).toCaffeine().build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name, "cache.manager", CACHE_MANAGER_NAME);
+            cacheManager.registerCustomCache(name, cache);
+        }
         return cacheManager;
     }
 
     /**
-     * Redis cache manager - used when Redis is available
+     * Layered cache manager - local Caffeine caches in front of Redis, kept coherent across
+     * replicas through pub/sub invalidation
      */
-    @Bean
+    @Bean(name = CACHE_MANAGER_NAME)
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
-    public CacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory) {
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(
-                    org.springframework.data.redis.cache.RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(java.time.Duration.ofMinutes(30))
-                        .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                            .fromSerializer(new org.springframework.data.redis.serializer.StringRedisSerializer()))
-                        .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                            .fromSerializer(new org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer()))
-                )
+    public LayeredCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory,
+                                                 StringRedisTemplate stringRedisTemplate,
+                                                 CachePolicyConfig policies,
+                                                 MeterRegistry meterRegistry) {
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        for (String name : cacheNames(policies)) {
+            perCache.put(name, redisCacheConfiguration(policies.policyFor(name)));
+        }
+
+        RedisCacheManager remote = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(redisCacheConfiguration(policies.getDefaults()))
+                .withInitialCacheConfigurations(perCache)
                 .build();
+        remote.initializeCaches();
+
+        return new LayeredCacheManager(cacheNames(policies), remote, stringRedisTemplate, policies,
+                                       meterRegistry, CACHE_MANAGER_NAME);
+    }
+
+    /**
+     * Delivers invalidations published by other replicas to the layered cache manager
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            LayeredCacheManager cacheManager,
+                                                                            CachePolicyConfig policies) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(policies.getInvalidationChannel()));
+        return container;
     }
 
     /**
@@ -63,12 +103,23 @@ public class CacheConfig {
     @Bean
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "simple")
     public CacheManager simpleCacheManager() {
-        return new ConcurrentMapCacheManager(
-            "users",
-            "roles", 
-            "permissions",
-            "teams",
-            "profiles"
-        );
+        return new ConcurrentMapCacheManager(CACHE_NAMES.toArray(new String[0]));
+    }
+
+    private static List<String> cacheNames(CachePolicyConfig policies) {
+        List<String> names = new ArrayList<>(CACHE_NAMES);
+        policies.getCaches().keySet().stream()
+            .filter(name -> !names.contains(name))
+            .forEach(names::add);
+        return names;
+    }
+
+    private static RedisCacheConfiguration redisCacheConfiguration(CachePolicyConfig.Policy policy) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+            .serializeKeysWith(RedisSerializationContext.SerializationPair
+                .fromSerializer(new StringRedisSerializer()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair
+                .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+        return policy.getRedisTtl() != null ? configuration.entryTtl(policy.getRedisTtl()) : configuration;
     }
-}
\ No newline at end of file
+}
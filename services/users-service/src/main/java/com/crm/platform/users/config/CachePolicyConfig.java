@@ -0,0 +1,97 @@
+package com.crm.platform.users.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache sizing and expiry. Each cache listed under app.cache.caches overrides the defaults
+ * field by field; caches that are not listed use the defaults.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyConfig {
+
+    private Policy defaults = new Policy(1000L, Duration.ofMinutes(5), Duration.ofMinutes(2), Duration.ofMinutes(30));
+    private Map<String, Policy> caches = new LinkedHashMap<>();
+    private String invalidationChannel = "users-service:cache-invalidation";
+
+    /**
+     * Effective policy of a cache: its own settings, falling back to the defaults
+     */
+    public Policy policyFor(String cacheName) {
+        Policy override = caches.get(cacheName);
+        if (override == null) {
+            return defaults;
+        }
+        return new Policy(
+            override.maximumSize != null ? override.maximumSize : defaults.maximumSize,
+            override.expireAfterWrite != null ? override.expireAfterWrite : defaults.expireAfterWrite,
+            override.expireAfterAccess != null ? override.expireAfterAccess : defaults.expireAfterAccess,
+            override.redisTtl != null ? override.redisTtl : defaults.redisTtl);
+    }
+
+    /**
+     * Sizing and expiry of one cache. The first three settings apply to the local Caffeine tier,
+     * redisTtl to the Redis tier.
+     */
+    public static class Policy {
+        private Long maximumSize;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private Duration redisTtl;
+
+        public Policy() {}
+
+        public Policy(Long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess, Duration redisTtl) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+            this.expireAfterAccess = expireAfterAccess;
+            this.redisTtl = redisTtl;
+        }
+
+        /**
+         * Caffeine builder for the local tier, with statistics recording enabled for metrics
+         */
+        public Caffeine<Object, Object> toCaffeine() {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+            if (maximumSize != null) {
+                builder.maximumSize(maximumSize);
+            }
+            if (expireAfterWrite != null) {
+                builder.expireAfterWrite(expireAfterWrite);
+            }
+            if (expireAfterAccess != null) {
+                builder.expireAfterAccess(expireAfterAccess);
+            }
+            return builder;
+        }
+
+        // Getters and Setters
+        public Long getMaximumSize() { return maximumSize; }
+        public void setMaximumSize(Long maximumSize) { this.maximumSize = maximumSize; }
+
+        public Duration getExpireAfterWrite() { return expireAfterWrite; }
+        public void setExpireAfterWrite(Duration expireAfterWrite) { this.expireAfterWrite = expireAfterWrite; }
+
+        public Duration getExpireAfterAccess() { return expireAfterAccess; }
+        public void setExpireAfterAccess(Duration expireAfterAccess) { this.expireAfterAccess = expireAfterAccess; }
+
+        public Duration getRedisTtl() { return redisTtl; }
+        public void setRedisTtl(Duration redisTtl) { this.redisTtl = redisTtl; }
+    }
+
+    // Getters and Setters
+    public Policy getDefaults() { return defaults; }
+    public void setDefaults(Policy defaults) { this.defaults = defaults; }
+
+    public Map<String, Policy> getCaches() { return caches; }
+    public void setCaches(Map<String, Policy> caches) { this.caches = caches; }
+
+    public String getInvalidationChannel() { return invalidationChannel; }
+    public void setInvalidationChannel(String invalidationChannel) { this.invalidationChannel = invalidationChannel; }
+}
@@ -0,0 +1,231 @@
+package com.crm.platform.users.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Two-tier cache manager: a Caffeine cache local to each replica (L1) in front of a shared Redis
+ * cache (L2). Reads fall through L1 to L2 and fill L1 on the way back. Writes and evictions go to
+ * both tiers and are published on a Redis channel, on which every other replica drops its L1 copy
+ * of the key. A replica that misses a message serves its L1 copy until the L1 expiry at most.
+ */
+public class LayeredCacheManager extends AbstractCacheManager implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayeredCacheManager.class);
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final Collection<String> initialCacheNames;
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final CachePolicyConfig policies;
+    private final MeterRegistry meterRegistry;
+    private final String managerName;
+
+    // Identifies this replica's own messages, which it ignores
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public LayeredCacheManager(Collection<String> initialCacheNames, CacheManager remoteCacheManager,
+                               StringRedisTemplate redisTemplate, CachePolicyConfig policies,
+                               MeterRegistry meterRegistry, String managerName) {
+        this.initialCacheNames = initialCacheNames;
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.policies = policies;
+        this.meterRegistry = meterRegistry;
+        this.managerName = managerName;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : initialCacheNames) {
+            caches.add(createCache(name));
+        }
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    private LayeredCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = policies.policyFor(name).toCaffeine().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "cache.manager", managerName, "tier", "l1");
+        return new LayeredCache(name, local, remoteCacheManager.getCache(name));
+    }
+
+    /**
+     * Apply an invalidation published by another replica
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        Cache cache = lookupCache(parts[1]);
+        if (!(cache instanceof LayeredCache layeredCache)) {
+            return;
+        }
+        if (CLEAR.equals(parts[2])) {
+            layeredCache.local.invalidateAll();
+        } else if (EVICT.equals(parts[2]) && parts.length == 4) {
+            layeredCache.local.invalidate(parts[3]);
+        }
+    }
+
+    private void publish(String cacheName, String operation, String key) {
+        String body = nodeId + "|" + cacheName + "|" + operation + (key != null ? "|" + key : "");
+        try {
+            redisTemplate.convertAndSend(policies.getInvalidationChannel(), body);
+        } catch (Exception e) {
+            logger.warn("Failed to publish invalidation for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * One cache with both tiers. L1 is keyed by the string form of the key, which is also the form
+     * carried by invalidation messages.
+     */
+    class LayeredCache extends AbstractValueAdaptingCache {
+
+        private final String name;
+        private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+        private final Cache remote;
+        private final Counter remoteHits;
+        private final Counter remoteMisses;
+
+        LayeredCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote) {
+            super(true);
+            this.name = name;
+            this.local = local;
+            this.remote = remote;
+            this.remoteHits = Counter.builder("cache.l2.gets")
+                .tags("cache", name, "cache.manager", managerName, "result", "hit")
+                .register(meterRegistry);
+            this.remoteMisses = Counter.builder("cache.l2.gets")
+                .tags("cache", name, "cache.manager", managerName, "result", "miss")
+                .register(meterRegistry);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return local;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            String localKey = String.valueOf(key);
+            Object stored = local.getIfPresent(localKey);
+            if (stored != null) {
+                return stored;
+            }
+
+            ValueWrapper remoteValue = remoteGet(key);
+            if (remoteValue == null) {
+                return null;
+            }
+            stored = toStoreValue(remoteValue.get());
+            local.put(localKey, stored);
+            return stored;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            // Caffeine runs at most one loader per key on this replica
+            Object stored = local.get(String.valueOf(key), localKey -> {
+                ValueWrapper remoteValue = remoteGet(key);
+                if (remoteValue != null) {
+                    return toStoreValue(remoteValue.get());
+                }
+                T value;
+                try {
+                    value = valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+                remotePut(key, value);
+                return toStoreValue(value);
+            });
+            return (T) fromStoreValue(stored);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            remotePut(key, value);
+            local.put(String.valueOf(key), toStoreValue(value));
+            publish(name, EVICT, String.valueOf(key));
+        }
+
+        @Override
+        public void evict(Object key) {
+            try {
+                remote.evict(key);
+            } catch (Exception e) {
+                logger.warn("Failed to evict key from Redis cache {}: {}", name, e.getMessage());
+            }
+            local.invalidate(String.valueOf(key));
+            publish(name, EVICT, String.valueOf(key));
+        }
+
+        @Override
+        public void clear() {
+            try {
+                remote.clear();
+            } catch (Exception e) {
+                logger.warn("Failed to clear Redis cache {}: {}", name, e.getMessage());
+            }
+            local.invalidateAll();
+            publish(name, CLEAR, null);
+        }
+
+        /**
+         * An unreachable Redis degrades the cache to its local tier rather than failing the call
+         */
+        private ValueWrapper remoteGet(Object key) {
+            try {
+                ValueWrapper value = remote.get(key);
+                (value != null ? remoteHits : remoteMisses).increment();
+                return value;
+            } catch (Exception e) {
+                logger.warn("Failed to read Redis cache {}: {}", name, e.getMessage());
+                return null;
+            }
+        }
+
+        private void remotePut(Object key, Object value) {
+            try {
+                remote.put(key, value);
+            } catch (Exception e) {
+                logger.warn("Failed to write Redis cache {}: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -253,6 +253,18 @@ public class RoleController {
         return ResponseEntity.ok(ApiResponse.success(hierarchy));
     }
 
+    @PutMapping("/{id}/parent")
+    @Operation(summary = "Move Role", description = "Move role and its descendants under a new parent, or to the top level")
+    public ResponseEntity<ApiResponse<Role>> moveRole(
+            @PathVariable UUID id,
+            @RequestParam(required = false) UUID parentRoleId,
+            @RequestHeader(value = "X-User-ID", required = false) UUID updatedBy,
+            HttpServletRequest request) {
+
+        Role role = roleService.moveRole(id, parentRoleId, updatedBy, request);
+        return ResponseEntity.ok(ApiResponse.success(role));
+    }
+
     @GetMapping("/{id}/children")
     @Operation(summary = "Get Child Roles", description = "Get child roles")
     public ResponseEntity<ApiResponse<List<Role>>> getChildRoles(@PathVariable UUID id) {
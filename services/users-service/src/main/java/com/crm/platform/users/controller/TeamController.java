@@ -240,6 +240,33 @@ public class TeamController {
         return ResponseEntity.ok(ApiResponse.success(descendants));
     }
 
+    @PutMapping("/{id}/parent")
+    @Operation(summary = "Move Team", description = "Move team and its descendants under a new parent, or to the top level")
+    public ResponseEntity<ApiResponse<Team>> moveTeam(
+            @PathVariable UUID id,
+            @RequestParam(required = false) UUID parentTeamId,
+            @RequestHeader(value = "X-User-ID", required = false) UUID updatedBy,
+            HttpServletRequest request) {
+        Team team = teamService.moveTeam(id, parentTeamId, updatedBy, request);
+        return ResponseEntity.ok(ApiResponse.success(team));
+    }
+
+    @GetMapping("/{id}/subtree/members")
+    @Operation(summary = "Get Subtree Members", description = "Get active members of the team and all descendant teams")
+    public ResponseEntity<ApiResponse<Page<TeamMember>>> getSubtreeMembers(
+            @PathVariable UUID id,
+            Pageable pageable) {
+        Page<TeamMember> members = teamService.getSubtreeMembers(id, pageable);
+        return ResponseEntity.ok(ApiResponse.success(members));
+    }
+
+    @GetMapping("/{id}/subtree/member-ids")
+    @Operation(summary = "Get Subtree Member IDs", description = "Get distinct user IDs of active members of the team and all descendant teams")
+    public ResponseEntity<ApiResponse<List<UUID>>> getSubtreeMemberUserIds(@PathVariable UUID id) {
+        List<UUID> userIds = teamService.getSubtreeMemberUserIds(id);
+        return ResponseEntity.ok(ApiResponse.success(userIds));
+    }
+
     // ==================== User Team Queries ====================
 
     @GetMapping("/user/{userId}")
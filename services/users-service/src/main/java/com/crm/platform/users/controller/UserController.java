@@ -1,7 +1,10 @@
 package com.crm.platform.users.controller;
 
 import com.crm.platform.users.dto.*;
+import com.crm.platform.users.entity.BulkUserOperation;
 import com.crm.platform.users.entity.User;
+import com.crm.platform.users.service.BulkUserOperationService;
+import com.crm.platform.users.service.ProfileService;
 import com.crm.platform.users.service.UserService;
 import com.crm.platform.users.service.UserAuditService;
 import com.crm.platform.common.dto.ApiResponse;
@@ -34,11 +37,17 @@ public class UserController {
 
     private final UserService userService;
     private final UserAuditService userAuditService;
+    private final BulkUserOperationService bulkUserOperationService;
+    private final ProfileService profileService;
 
     @Autowired
-    public UserController(UserService userService, UserAuditService userAuditService) {
+    public UserController(UserService userService, UserAuditService userAuditService,
+                          BulkUserOperationService bulkUserOperationService,
+                          ProfileService profileService) {
         this.userService = userService;
         this.userAuditService = userAuditService;
+        this.bulkUserOperationService = bulkUserOperationService;
+        this.profileService = profileService;
     }
 
     @PostMapping
@@ -92,6 +101,16 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
+    @GetMapping("/tenant/{tenantId}/typeahead")
+    @Operation(summary = "User Type-ahead", description = "Active users whose name or email matches the query, best matches first")
+    public ResponseEntity<ApiResponse<List<UserDirectoryEntry>>> typeaheadUsers(
+            @PathVariable UUID tenantId,
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<UserDirectoryEntry> users = userService.typeaheadUsers(tenantId, query, limit);
+        return ResponseEntity.ok(ApiResponse.success(users));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<UserResponse>> updateUser(
             @PathVariable UUID id,
@@ -218,46 +237,70 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(statistics));
     }
 
+    @GetMapping("/tenant/{tenantId}/statistics/trends")
+    @Operation(summary = "Get User Trends", description = "Get new and active users per day over the last days")
+    public ResponseEntity<ApiResponse<List<UserStatisticsResponse.DailyStats>>> getUserTrends(
+            @PathVariable UUID tenantId,
+            @RequestParam(defaultValue = "30") int days) {
+        List<UserStatisticsResponse.DailyStats> trends = userService.getUserTrends(tenantId, days);
+        return ResponseEntity.ok(ApiResponse.success(trends));
+    }
+
     // ==================== Bulk Operations ====================
 
     @PostMapping("/bulk-operations")
-    @Operation(summary = "Bulk User Operations", description = "Perform bulk operations on multiple users")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> bulkUserOperations(
+    @Operation(summary = "Bulk User Operations",
+               description = "Perform a bulk operation on a list of users or on every user of a tenant matching a filter. " +
+                             "Async operations return immediately; poll the operation for progress.")
+    public ResponseEntity<ApiResponse<BulkUserOperation>> bulkUserOperations(
             @Valid @RequestBody BulkUserOperationRequest request,
+            @RequestHeader(value = "X-Tenant-ID", required = false) UUID tenantId,
             @RequestHeader(value = "X-User-ID", required = false) UUID performedBy,
             HttpServletRequest httpRequest) {
-        
-        switch (request.getOperation()) {
-            case UPDATE_STATUS:
-                userService.bulkUpdateStatus(request.getUserIds(), request.getStatus(), performedBy, httpRequest);
-                break;
-            case UPDATE_DEPARTMENT:
-                userService.bulkUpdateDepartment(request.getUserIds(), request.getDepartment(), performedBy, httpRequest);
-                break;
-            case UPDATE_MANAGER:
-                userService.bulkUpdateManager(request.getUserIds(), request.getManagerId(), performedBy, httpRequest);
-                break;
-            case UPDATE_TEAM:
-                userService.bulkUpdateTeam(request.getUserIds(), request.getTeamId(), performedBy, httpRequest);
-                break;
-            case ACTIVATE:
-                userService.bulkUpdateStatus(request.getUserIds(), User.UserStatus.ACTIVE, performedBy, httpRequest);
-                break;
-            case DEACTIVATE:
-                userService.bulkUpdateStatus(request.getUserIds(), User.UserStatus.INACTIVE, performedBy, httpRequest);
-                break;
-            case SUSPEND:
-                userService.bulkUpdateStatus(request.getUserIds(), User.UserStatus.SUSPENDED, performedBy, httpRequest);
-                break;
-            default:
-                return ResponseEntity.badRequest().body(ApiResponse.error("Invalid bulk operation"));
+        try {
+            BulkUserOperation operation = bulkUserOperationService.createOperation(request, tenantId, performedBy);
+            UserAuditService.RequestInfo requestInfo = userAuditService.captureRequestInfo(httpRequest);
+
+            if (request.isAsync()) {
+                bulkUserOperationService.executeAsync(operation.getId(), request, performedBy, requestInfo);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(operation));
+            }
+
+            BulkUserOperation result = bulkUserOperationService.execute(operation.getId(), request, performedBy, requestInfo);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
-        
-        return ResponseEntity.ok(ApiResponse.success(Map.of(
-            "operation", request.getOperation(),
-            "affectedUsers", request.getUserIds().size(),
-            "completedAt", java.time.LocalDateTime.now()
-        )));
+    }
+
+    @GetMapping("/bulk-operations/{operationId}")
+    @Operation(summary = "Get Bulk Operation", description = "Get the progress and outcome of a bulk user operation")
+    public ResponseEntity<ApiResponse<BulkUserOperation>> getBulkOperation(@PathVariable UUID operationId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(bulkUserOperationService.getOperation(operationId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/tenant/{tenantId}/bulk-operations")
+    @Operation(summary = "List Bulk Operations", description = "Get the bulk user operations of a tenant, most recent first")
+    public ResponseEntity<ApiResponse<Page<BulkUserOperation>>> getTenantBulkOperations(
+            @PathVariable UUID tenantId,
+            Pageable pageable) {
+        return ResponseEntity.ok(ApiResponse.success(bulkUserOperationService.getTenantOperations(tenantId, pageable)));
+    }
+
+    @PostMapping("/profiles/bulk")
+    @Operation(summary = "Bulk Profile Update",
+               description = "Update the profiles of many users of a tenant, such as from an HR sync. " +
+                             "Custom fields are merged; rejected profiles are listed with the reason.")
+    public ResponseEntity<ApiResponse<BulkProfileUpdateResult>> bulkUpdateProfiles(
+            @Valid @RequestBody BulkProfileUpdateRequest request,
+            @RequestHeader(value = "X-User-ID", required = false) UUID performedBy,
+            HttpServletRequest httpRequest) {
+        BulkProfileUpdateResult result = profileService.bulkUpdateProfiles(request, performedBy, httpRequest);
+        return ResponseEntity.ok(ApiResponse.success(result));
     }
 
     // ==================== User Hierarchy and Relationships ====================
@@ -337,6 +380,22 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(user));
     }
 
+    @PatchMapping("/{id}/custom-fields")
+    @Operation(summary = "Merge Custom Fields",
+               description = "Set the given custom fields and keep the others; a null value removes a field")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> mergeCustomFields(
+            @PathVariable UUID id,
+            @Valid @RequestBody CustomFieldsRequest request,
+            @RequestHeader(value = "X-User-ID", required = false) UUID performedBy,
+            HttpServletRequest httpRequest) {
+        try {
+            Map<String, Object> customFields = profileService.mergeCustomFields(id, request.getCustomFields(), performedBy, httpRequest);
+            return ResponseEntity.ok(ApiResponse.success(customFields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}/custom-fields")
     @Operation(summary = "Get Custom Fields", description = "Get user custom fields")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getCustomFields(@PathVariable UUID id) {
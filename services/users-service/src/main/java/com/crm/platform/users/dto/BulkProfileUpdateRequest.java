@@ -0,0 +1,66 @@
+package com.crm.platform.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Request DTO for bulk profile updates, such as a sync from an HR system. Each profile names the
+ * fields to set, by the same names as the single profile update, and a custom field patch that
+ * is merged into the stored custom fields. A null value clears a field or removes a custom field.
+ */
+public class BulkProfileUpdateRequest {
+
+    @NotNull(message = "Tenant ID is required")
+    @JsonProperty("tenant_id")
+    private UUID tenantId;
+
+    @Valid
+    @NotEmpty(message = "Profiles are required")
+    @JsonProperty("profiles")
+    private List<ProfileUpdate> profiles;
+
+    public BulkProfileUpdateRequest() {}
+
+    // Getters and Setters
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+
+    public List<ProfileUpdate> getProfiles() { return profiles; }
+    public void setProfiles(List<ProfileUpdate> profiles) { this.profiles = profiles; }
+
+    public static class ProfileUpdate {
+
+        @NotNull(message = "User ID is required")
+        @JsonProperty("user_id")
+        private UUID userId;
+
+        @JsonProperty("fields")
+        private Map<String, Object> fields;
+
+        @JsonProperty("custom_fields")
+        private Map<String, Object> customFields;
+
+        public ProfileUpdate() {}
+
+        public ProfileUpdate(UUID userId, Map<String, Object> fields, Map<String, Object> customFields) {
+            this.userId = userId;
+            this.fields = fields;
+            this.customFields = customFields;
+        }
+
+        // Getters and Setters
+        public UUID getUserId() { return userId; }
+        public void setUserId(UUID userId) { this.userId = userId; }
+
+        public Map<String, Object> getFields() { return fields; }
+        public void setFields(Map<String, Object> fields) { this.fields = fields; }
+
+        public Map<String, Object> getCustomFields() { return customFields; }
+        public void setCustomFields(Map<String, Object> customFields) { this.customFields = customFields; }
+    }
+}
@@ -0,0 +1,81 @@
+package com.crm.platform.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk profile update. Profiles that were rejected or failed are listed with the
+ * reason; all others were applied.
+ */
+public class BulkProfileUpdateResult {
+
+    @JsonProperty("requested")
+    private int requested;
+
+    @JsonProperty("updated")
+    private int updated;
+
+    @JsonProperty("unchanged")
+    private int unchanged;
+
+    @JsonProperty("not_found")
+    private int notFound;
+
+    @JsonProperty("errors")
+    private List<ProfileError> errors = new ArrayList<>();
+
+    public BulkProfileUpdateResult() {}
+
+    public BulkProfileUpdateResult(int requested) {
+        this.requested = requested;
+    }
+
+    public void addUpdated(int count) { this.updated += count; }
+    public void addUnchanged(int count) { this.unchanged += count; }
+    public void addNotFound(int count) { this.notFound += count; }
+
+    public void addError(UUID userId, String message) {
+        errors.add(new ProfileError(userId, message));
+    }
+
+    // Getters and Setters
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+
+    public int getNotFound() { return notFound; }
+    public void setNotFound(int notFound) { this.notFound = notFound; }
+
+    public List<ProfileError> getErrors() { return errors; }
+    public void setErrors(List<ProfileError> errors) { this.errors = errors; }
+
+    public static class ProfileError {
+
+        @JsonProperty("user_id")
+        private UUID userId;
+
+        @JsonProperty("message")
+        private String message;
+
+        public ProfileError() {}
+
+        public ProfileError(UUID userId, String message) {
+            this.userId = userId;
+            this.message = message;
+        }
+
+        // Getters and Setters
+        public UUID getUserId() { return userId; }
+        public void setUserId(UUID userId) { this.userId = userId; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
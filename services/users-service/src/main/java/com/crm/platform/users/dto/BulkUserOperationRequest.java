@@ -2,19 +2,31 @@ package com.crm.platform.users.dto;
 
 import com.crm.platform.users.entity.User;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import jakarta.validation.constraints.NotEmpty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 import java.util.UUID;
 
 /**
- * Request DTO for bulk user operations
+ * Request DTO for bulk user operations. Targets are either an explicit list of user IDs or every
+ * user of a tenant matching a filter.
  */
 public class BulkUserOperationRequest {
     
-    @NotEmpty(message = "User IDs list cannot be empty")
     @JsonProperty("user_ids")
     private List<UUID> userIds;
+
+    @JsonProperty("tenant_id")
+    private UUID tenantId;
+
+    @Valid
+    @JsonProperty("filter")
+    private UserFilterRequest filter;
+
+    @JsonProperty("async")
+    private boolean async;
     
     @NotNull(message = "Operation type is required")
     @JsonProperty("operation")
@@ -34,10 +46,30 @@ public class BulkUserOperationRequest {
 
     public BulkUserOperationRequest() {}
 
+    @JsonIgnore
+    public boolean isFilterTarget() {
+        return userIds == null || userIds.isEmpty();
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Either user IDs or a tenant ID with a filter is required")
+    public boolean isTargetSpecified() {
+        return (userIds != null && !userIds.isEmpty()) || (tenantId != null && filter != null);
+    }
+
     // Getters and Setters
     public List<UUID> getUserIds() { return userIds; }
     public void setUserIds(List<UUID> userIds) { this.userIds = userIds; }
 
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+
+    public UserFilterRequest getFilter() { return filter; }
+    public void setFilter(UserFilterRequest filter) { this.filter = filter; }
+
+    public boolean isAsync() { return async; }
+    public void setAsync(boolean async) { this.async = async; }
+
     public BulkOperation getOperation() { return operation; }
     public void setOperation(BulkOperation operation) { this.operation = operation; }
 
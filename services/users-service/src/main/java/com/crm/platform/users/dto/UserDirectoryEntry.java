@@ -0,0 +1,57 @@
+package com.crm.platform.users.dto;
+
+import java.util.UUID;
+
+/**
+ * Lightweight user entry returned by directory type-ahead, carrying only what a user picker shows
+ */
+public class UserDirectoryEntry {
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String fullName;
+    private String email;
+    private String jobTitle;
+    private String department;
+    private String profileImageUrl;
+
+    // Constructors
+    public UserDirectoryEntry() {}
+
+    public UserDirectoryEntry(UUID id, String firstName, String lastName, String email,
+                              String jobTitle, String department, String profileImageUrl) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.fullName = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        this.email = email;
+        this.jobTitle = jobTitle;
+        this.department = department;
+        this.profileImageUrl = profileImageUrl;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getJobTitle() { return jobTitle; }
+    public void setJobTitle(String jobTitle) { this.jobTitle = jobTitle; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getProfileImageUrl() { return profileImageUrl; }
+    public void setProfileImageUrl(String profileImageUrl) { this.profileImageUrl = profileImageUrl; }
+}
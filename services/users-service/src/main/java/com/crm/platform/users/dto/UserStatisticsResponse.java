@@ -55,6 +55,9 @@ public class UserStatisticsResponse {
     @JsonProperty("generated_at")
     private LocalDateTime generatedAt;
 
+    @JsonProperty("snapshot_at")
+    private LocalDateTime snapshotAt;
+
     public UserStatisticsResponse() {
         this.generatedAt = LocalDateTime.now();
     }
@@ -105,6 +108,9 @@ public class UserStatisticsResponse {
     public LocalDateTime getGeneratedAt() { return generatedAt; }
     public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
 
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public void setSnapshotAt(LocalDateTime snapshotAt) { this.snapshotAt = snapshotAt; }
+
     // Nested classes for statistics
     public static class DepartmentStats {
         @JsonProperty("department")
@@ -211,4 +217,32 @@ public class UserStatisticsResponse {
         public LocalDateTime getLastActivityAt() { return lastActivityAt; }
         public void setLastActivityAt(LocalDateTime lastActivityAt) { this.lastActivityAt = lastActivityAt; }
     }
-}
\ No newline at end of file
+
+    public static class DailyStats {
+        @JsonProperty("date")
+        private java.time.LocalDate date;
+
+        @JsonProperty("new_users")
+        private long newUsers;
+
+        @JsonProperty("active_users")
+        private long activeUsers;
+
+        public DailyStats() {}
+
+        public DailyStats(java.time.LocalDate date, long newUsers, long activeUsers) {
+            this.date = date;
+            this.newUsers = newUsers;
+            this.activeUsers = activeUsers;
+        }
+
+        public java.time.LocalDate getDate() { return date; }
+        public void setDate(java.time.LocalDate date) { this.date = date; }
+
+        public long getNewUsers() { return newUsers; }
+        public void setNewUsers(long newUsers) { this.newUsers = newUsers; }
+
+        public long getActiveUsers() { return activeUsers; }
+        public void setActiveUsers(long activeUsers) { this.activeUsers = activeUsers; }
+    }
+}
@@ -0,0 +1,149 @@
+package com.crm.platform.users.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity tracking the progress and outcome of a bulk user operation
+ */
+@Entity
+@Table(name = "bulk_user_operations", indexes = {
+    @Index(name = "idx_bulk_user_operations_tenant", columnList = "tenant_id, created_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class BulkUserOperation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @NotNull
+    @Column(name = "operation", nullable = false, length = 30)
+    private String operation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private TargetType targetType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OperationStatus status = OperationStatus.PENDING;
+
+    @Column(name = "total_count", nullable = false)
+    private Integer totalCount = 0;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount = 0;
+
+    @Column(name = "updated_count", nullable = false)
+    private Integer updatedCount = 0;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public BulkUserOperation() {}
+
+    public BulkUserOperation(UUID tenantId, String operation, TargetType targetType, UUID requestedBy) {
+        this.tenantId = tenantId;
+        this.operation = operation;
+        this.targetType = targetType;
+        this.requestedBy = requestedBy;
+    }
+
+    // Business methods
+    public boolean isFinished() {
+        return status == OperationStatus.COMPLETED || status == OperationStatus.FAILED;
+    }
+
+    public int getProgressPercent() {
+        if (isFinished()) {
+            return 100;
+        }
+        if (totalCount == null || totalCount == 0) {
+            return 0;
+        }
+        return (int) Math.min(99, (processedCount * 100L) / totalCount);
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public TargetType getTargetType() { return targetType; }
+    public void setTargetType(TargetType targetType) { this.targetType = targetType; }
+
+    public OperationStatus getStatus() { return status; }
+    public void setStatus(OperationStatus status) { this.status = status; }
+
+    public Integer getTotalCount() { return totalCount; }
+    public void setTotalCount(Integer totalCount) { this.totalCount = totalCount; }
+
+    public Integer getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Integer processedCount) { this.processedCount = processedCount; }
+
+    public Integer getUpdatedCount() { return updatedCount; }
+    public void setUpdatedCount(Integer updatedCount) { this.updatedCount = updatedCount; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public UUID getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(UUID requestedBy) { this.requestedBy = requestedBy; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public enum TargetType {
+        USER_IDS,   // Explicit list of user IDs
+        FILTER      // Every user of the tenant matching a filter
+    }
+
+    public enum OperationStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
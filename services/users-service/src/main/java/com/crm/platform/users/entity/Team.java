@@ -154,6 +154,16 @@ public class Team {
     @Column(name = "performance_score")
     private java.math.BigDecimal performanceScore;
 
+    // Aggregates over this team and all descendants, maintained by TeamService with SQL updates
+    @Column(name = "subtree_member_count", insertable = false, updatable = false)
+    private Integer subtreeMemberCount = 0;
+
+    @Column(name = "subtree_active_member_count", insertable = false, updatable = false)
+    private Integer subtreeActiveMemberCount = 0;
+
+    @Column(name = "subtree_last_activity_at", insertable = false, updatable = false)
+    private LocalDateTime subtreeLastActivityAt;
+
     // Audit fields
     @Column(name = "created_by")
     private UUID createdBy;
@@ -279,6 +289,10 @@ public class Team {
     public java.math.BigDecimal getPerformanceScore() { return performanceScore; }
     public void setPerformanceScore(java.math.BigDecimal performanceScore) { this.performanceScore = performanceScore; }
 
+    public Integer getSubtreeMemberCount() { return subtreeMemberCount; }
+    public Integer getSubtreeActiveMemberCount() { return subtreeActiveMemberCount; }
+    public LocalDateTime getSubtreeLastActivityAt() { return subtreeLastActivityAt; }
+
     public UUID getCreatedBy() { return createdBy; }
     public void setCreatedBy(UUID createdBy) { this.createdBy = createdBy; }
 
@@ -0,0 +1,66 @@
+package com.crm.platform.users.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Precomputed user statistics of a tenant. Counters are maintained by database triggers on
+ * users; the last-30-days figures and breakdowns are snapshots refreshed by reconciliation.
+ * The row is never written through JPA.
+ */
+@Entity
+@Table(name = "tenant_user_stats")
+public class TenantUserStats {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "total_users", insertable = false, updatable = false)
+    private long totalUsers;
+
+    @Column(name = "active_users", insertable = false, updatable = false)
+    private long activeUsers;
+
+    @Column(name = "inactive_users", insertable = false, updatable = false)
+    private long inactiveUsers;
+
+    @Column(name = "suspended_users", insertable = false, updatable = false)
+    private long suspendedUsers;
+
+    @Column(name = "incomplete_onboarding_users", insertable = false, updatable = false)
+    private long incompleteOnboardingUsers;
+
+    @Column(name = "users_active_last_30_days", insertable = false, updatable = false)
+    private long usersActiveLast30Days;
+
+    @Column(name = "users_logged_in_last_30_days", insertable = false, updatable = false)
+    private long usersLoggedInLast30Days;
+
+    @Column(name = "breakdowns", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String breakdowns; // JSON: departments, jobTitles, officeLocations -> [{name, count}]
+
+    @Column(name = "snapshot_at", insertable = false, updatable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public TenantUserStats() {}
+
+    // Getters
+    public UUID getTenantId() { return tenantId; }
+    public long getTotalUsers() { return totalUsers; }
+    public long getActiveUsers() { return activeUsers; }
+    public long getInactiveUsers() { return inactiveUsers; }
+    public long getSuspendedUsers() { return suspendedUsers; }
+    public long getIncompleteOnboardingUsers() { return incompleteOnboardingUsers; }
+    public long getUsersActiveLast30Days() { return usersActiveLast30Days; }
+    public long getUsersLoggedInLast30Days() { return usersLoggedInLast30Days; }
+    public String getBreakdowns() { return breakdowns; }
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
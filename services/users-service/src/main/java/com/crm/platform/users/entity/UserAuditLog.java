@@ -50,6 +50,9 @@ public class UserAuditLog {
     @Column(name = "new_value", columnDefinition = "TEXT")
     private String newValue;
 
+    @Column(name = "changes", columnDefinition = "TEXT")
+    private String changes; // JSON field diff of the whole change event: field -> [old, new]
+
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
@@ -123,6 +126,9 @@ public class UserAuditLog {
     public String getNewValue() { return newValue; }
     public void setNewValue(String newValue) { this.newValue = newValue; }
 
+    public String getChanges() { return changes; }
+    public void setChanges(String changes) { this.changes = changes; }
+
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -0,0 +1,31 @@
+package com.crm.platform.users.repository;
+
+import com.crm.platform.users.entity.BulkUserOperation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Repository for bulk user operation tracking
+ */
+@Repository
+public interface BulkUserOperationRepository extends JpaRepository<BulkUserOperation, UUID> {
+
+    Page<BulkUserOperation> findByTenantIdOrderByCreatedAtDesc(UUID tenantId, Pageable pageable);
+
+    /**
+     * Advance the counters after a chunk, in the chunk's transaction
+     */
+    @Modifying
+    @Query("UPDATE BulkUserOperation b SET b.processedCount = b.processedCount + :processed, " +
+           "b.updatedCount = b.updatedCount + :updated, b.updatedAt = :now WHERE b.id = :id")
+    void recordChunk(@Param("id") UUID id, @Param("processed") int processed,
+                     @Param("updated") int updated, @Param("now") LocalDateTime now);
+}
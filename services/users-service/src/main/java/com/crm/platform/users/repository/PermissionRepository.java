@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -112,4 +113,20 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
      * Find permissions by priority
      */
     List<Permission> findByIsActiveTrueOrderByPriorityDescResourceAscActionAsc();
-}
\ No newline at end of file
+
+    /**
+     * Find the effective permissions of a user: the permissions of every active assigned role and of
+     * its ancestors, resolved through role_closure. Inheritance stops at an inactive role, as it
+     * did when the hierarchy was walked parent by parent.
+     */
+    @Query(value = "SELECT p.* FROM permissions p WHERE p.id IN (" +
+                   "SELECT rp.permission_id FROM user_roles ur " +
+                   "JOIN role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "JOIN role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "WHERE ur.user_id = :userId AND ur.is_active = true " +
+                   "AND (ur.expires_at IS NULL OR ur.expires_at > :now) " +
+                   "AND NOT EXISTS (SELECT 1 FROM role_closure chain JOIN roles cr ON cr.id = chain.ancestor_id " +
+                   "WHERE chain.descendant_id = ur.role_id AND chain.depth <= rc.depth AND cr.is_active IS NOT TRUE))",
+           nativeQuery = true)
+    List<Permission> findEffectivePermissions(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+}
@@ -4,6 +4,7 @@ import com.crm.platform.users.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -116,4 +117,61 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
     List<Role> findRolesWithExpiringAssignments(@Param("tenantId") UUID tenantId,
                                                @Param("startDate") java.time.LocalDateTime startDate,
                                                @Param("endDate") java.time.LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // ==================== Role Closure ====================
+
+    /**
+     * Insert the depth 0 closure row of a new role
+     */
+    @Modifying
+    @Query(value = "INSERT INTO role_closure (ancestor_id, descendant_id, depth) VALUES (:roleId, :roleId, 0)",
+           nativeQuery = true)
+    void insertSelfClosure(@Param("roleId") UUID roleId);
+
+    /**
+     * Link every role of a subtree to every ancestor of its new parent (parent included)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO role_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                   "FROM role_closure a CROSS JOIN role_closure d " +
+                   "WHERE a.descendant_id = :parentRoleId AND d.ancestor_id = :roleId",
+           nativeQuery = true)
+    void attachClosureSubtree(@Param("roleId") UUID roleId, @Param("parentRoleId") UUID parentRoleId);
+
+    /**
+     * Remove the links between a subtree and the ancestors outside it, keeping the subtree's own rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM role_closure " +
+                   "WHERE descendant_id IN (SELECT descendant_id FROM role_closure WHERE ancestor_id = :roleId) " +
+                   "AND ancestor_id NOT IN (SELECT descendant_id FROM role_closure WHERE ancestor_id = :roleId)",
+           nativeQuery = true)
+    void detachClosureSubtree(@Param("roleId") UUID roleId);
+
+    /**
+     * Find the IDs of a role and all of its descendants
+     */
+    @Query(value = "SELECT descendant_id FROM role_closure WHERE ancestor_id = :roleId", nativeQuery = true)
+    List<UUID> findSubtreeRoleIds(@Param("roleId") UUID roleId);
+
+    /**
+     * Check whether a role is the ancestor of another (a role is its own ancestor at depth 0)
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM role_closure WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId)",
+           nativeQuery = true)
+    boolean isAncestorOf(@Param("ancestorId") UUID ancestorId, @Param("descendantId") UUID descendantId);
+
+    /**
+     * Rewrite the hierarchy path prefix and level of a role and all of its descendants
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE roles SET hierarchy_path = :newPathPrefix || substring(hierarchy_path FROM :oldPathLength + 1), " +
+                   "hierarchy_level = hierarchy_level + :levelDelta " +
+                   "WHERE id IN (SELECT descendant_id FROM role_closure WHERE ancestor_id = :roleId)",
+           nativeQuery = true)
+    void rewriteSubtreePaths(@Param("roleId") UUID roleId,
+                             @Param("newPathPrefix") String newPathPrefix,
+                             @Param("oldPathLength") int oldPathLength,
+                             @Param("levelDelta") int levelDelta);
+}
@@ -272,4 +272,22 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
     @Query("SELECT tm FROM TeamMember tm WHERE tm.userId = :userId AND tm.status = :status AND " +
            "(tm.canManageTeam = true OR tm.teamRole IN ('MANAGER', 'LEAD'))")
     List<TeamMember> findTeamsUserCanManage(@Param("userId") UUID userId, @Param("status") TeamMember.MemberStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Find the members of a team and all of its descendant teams
+     */
+    @Query(value = "SELECT tm.* FROM team_members tm JOIN team_closure c ON c.descendant_id = tm.team_id " +
+                   "WHERE c.ancestor_id = :teamId AND tm.status = :status ORDER BY c.depth, tm.joined_at",
+           countQuery = "SELECT COUNT(*) FROM team_members tm JOIN team_closure c ON c.descendant_id = tm.team_id " +
+                        "WHERE c.ancestor_id = :teamId AND tm.status = :status",
+           nativeQuery = true)
+    Page<TeamMember> findSubtreeMembers(@Param("teamId") UUID teamId, @Param("status") String status, Pageable pageable);
+
+    /**
+     * Find the distinct users with a membership in a team or any of its descendant teams
+     */
+    @Query(value = "SELECT DISTINCT tm.user_id FROM team_members tm JOIN team_closure c ON c.descendant_id = tm.team_id " +
+                   "WHERE c.ancestor_id = :teamId AND tm.status = :status",
+           nativeQuery = true)
+    List<UUID> findSubtreeMemberUserIds(@Param("teamId") UUID teamId, @Param("status") String status);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -226,4 +227,141 @@ public interface TeamRepository extends JpaRepository<Team, UUID> {
     List<Team> findTeamsCreatedInPeriod(@Param("tenantId") UUID tenantId, @Param("status") Team.TeamStatus status,
                                        @Param("startDate") LocalDateTime startDate, 
                                        @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // ==================== Team Closure ====================
+
+    /**
+     * Insert the depth 0 closure row of a new team
+     */
+    @Modifying
+    @Query(value = "INSERT INTO team_closure (ancestor_id, descendant_id, depth) VALUES (:teamId, :teamId, 0)",
+           nativeQuery = true)
+    void insertSelfClosure(@Param("teamId") UUID teamId);
+
+    /**
+     * Link every team of a subtree to every ancestor of its new parent (parent included)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO team_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                   "FROM team_closure a CROSS JOIN team_closure d " +
+                   "WHERE a.descendant_id = :parentTeamId AND d.ancestor_id = :teamId",
+           nativeQuery = true)
+    void attachClosureSubtree(@Param("teamId") UUID teamId, @Param("parentTeamId") UUID parentTeamId);
+
+    /**
+     * Remove the links between a subtree and the ancestors outside it, keeping the subtree's own rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM team_closure " +
+                   "WHERE descendant_id IN (SELECT descendant_id FROM team_closure WHERE ancestor_id = :teamId) " +
+                   "AND ancestor_id NOT IN (SELECT descendant_id FROM team_closure WHERE ancestor_id = :teamId)",
+           nativeQuery = true)
+    void detachClosureSubtree(@Param("teamId") UUID teamId);
+
+    /**
+     * Find the IDs of the strict ancestors of a team
+     */
+    @Query(value = "SELECT ancestor_id FROM team_closure WHERE descendant_id = :teamId AND depth > 0", nativeQuery = true)
+    List<UUID> findAncestorTeamIds(@Param("teamId") UUID teamId);
+
+    /**
+     * Check whether a team is the ancestor of another (a team is its own ancestor at depth 0)
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM team_closure WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId)",
+           nativeQuery = true)
+    boolean isAncestorOf(@Param("ancestorId") UUID ancestorId, @Param("descendantId") UUID descendantId);
+
+    /**
+     * Check whether a team has a descendant in the given status at any depth
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM team_closure c JOIN teams t ON t.id = c.descendant_id " +
+                   "WHERE c.ancestor_id = :teamId AND c.depth > 0 AND t.status = :status)",
+           nativeQuery = true)
+    boolean existsDescendantWithStatus(@Param("teamId") UUID teamId, @Param("status") String status);
+
+    /**
+     * Find all descendant teams through the closure, nearest levels first
+     */
+    @Query(value = "SELECT t.* FROM teams t JOIN team_closure c ON c.descendant_id = t.id " +
+                   "WHERE c.ancestor_id = :teamId AND c.depth > 0 AND t.status = :status " +
+                   "ORDER BY c.depth, t.name",
+           nativeQuery = true)
+    List<Team> findDescendantTeamsByClosure(@Param("teamId") UUID teamId, @Param("status") String status);
+
+    /**
+     * Rewrite the hierarchy path prefix and level of a team and all of its descendants
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE teams SET hierarchy_path = :newPathPrefix || substring(hierarchy_path FROM :oldPathLength + 1), " +
+                   "hierarchy_level = hierarchy_level + :levelDelta " +
+                   "WHERE id IN (SELECT descendant_id FROM team_closure WHERE ancestor_id = :teamId)",
+           nativeQuery = true)
+    void rewriteSubtreePaths(@Param("teamId") UUID teamId,
+                             @Param("newPathPrefix") String newPathPrefix,
+                             @Param("oldPathLength") int oldPathLength,
+                             @Param("levelDelta") int levelDelta);
+
+    // ==================== Subtree Aggregates ====================
+
+    /**
+     * Apply a membership delta and an activity time to the subtree aggregates of a team and all of
+     * its ancestors. The rows are locked in ID order first, so concurrent changes in overlapping
+     * branches queue up instead of deadlocking.
+     */
+    @Modifying
+    @Query(value = "WITH ancestors AS (" +
+                   "SELECT t.id FROM teams t JOIN team_closure c ON c.ancestor_id = t.id " +
+                   "WHERE c.descendant_id = :teamId ORDER BY t.id FOR UPDATE OF t) " +
+                   "UPDATE teams SET subtree_member_count = subtree_member_count + :memberDelta, " +
+                   "subtree_active_member_count = subtree_active_member_count + :activeDelta, " +
+                   "subtree_last_activity_at = GREATEST(subtree_last_activity_at, CAST(:activityAt AS TIMESTAMP)) " +
+                   "FROM ancestors WHERE teams.id = ancestors.id",
+           nativeQuery = true)
+    void applySubtreeDelta(@Param("teamId") UUID teamId,
+                           @Param("memberDelta") int memberDelta,
+                           @Param("activeDelta") int activeDelta,
+                           @Param("activityAt") LocalDateTime activityAt);
+
+    /**
+     * Recompute the subtree last activity of the given teams; needed when a subtree leaves them,
+     * since a maximum cannot be decremented
+     */
+    @Modifying
+    @Query(value = "UPDATE teams t SET subtree_last_activity_at = (" +
+                   "SELECT MAX(d.last_activity_at) FROM team_closure c JOIN teams d ON d.id = c.descendant_id " +
+                   "WHERE c.ancestor_id = t.id) " +
+                   "WHERE t.id IN (:teamIds)",
+           nativeQuery = true)
+    void recomputeSubtreeLastActivity(@Param("teamIds") List<UUID> teamIds);
+
+    /**
+     * Recompute the subtree member counts of every team of a tenant from the membership rows,
+     * writing only the teams whose counts drifted; runs in its own transaction when called outside
+     * one. Last activity is not compared: the subtree value is written as activity happens while
+     * the teams' own last_activity_at waits for the activity tracker's next flush, so it is only
+     * ever raised here, never lowered to a value that is not written yet.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE teams t SET subtree_member_count = agg.member_count, " +
+                   "subtree_active_member_count = agg.active_member_count, " +
+                   "subtree_last_activity_at = GREATEST(t.subtree_last_activity_at, agg.last_activity_at) " +
+                   "FROM (SELECT c.ancestor_id, " +
+                   "COUNT(tm.id) FILTER (WHERE tm.status <> 'LEFT') AS member_count, " +
+                   "COUNT(tm.id) FILTER (WHERE tm.status = 'ACTIVE') AS active_member_count, " +
+                   "MAX(d.last_activity_at) AS last_activity_at " +
+                   "FROM team_closure c JOIN teams d ON d.id = c.descendant_id " +
+                   "LEFT JOIN team_members tm ON tm.team_id = c.descendant_id " +
+                   "WHERE d.tenant_id = :tenantId GROUP BY c.ancestor_id) agg " +
+                   "WHERE t.id = agg.ancestor_id AND (t.subtree_member_count <> agg.member_count " +
+                   "OR t.subtree_active_member_count <> agg.active_member_count)",
+           nativeQuery = true)
+    int reconcileSubtreeAggregates(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Find the IDs of all tenants that have teams
+     */
+    @Query("SELECT DISTINCT t.tenantId FROM Team t")
+    List<UUID> findAllTenantIds();
+}
@@ -0,0 +1,99 @@
+package com.crm.platform.users.repository;
+
+import com.crm.platform.users.entity.TenantUserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for precomputed tenant user statistics (tenant_user_stats and
+ * tenant_user_daily_stats, maintained by triggers on users)
+ */
+@Repository
+public interface TenantUserStatsRepository extends JpaRepository<TenantUserStats, UUID> {
+
+    // Active users of the tenant grouped by one column, as [{"name": ..., "count": ...}] by count descending
+    String BREAKDOWN_PREFIX = "SELECT COALESCE(json_agg(json_build_object('name', b.name, 'count', b.user_count) " +
+                              "ORDER BY b.user_count DESC), CAST('[]' AS JSON)) FROM (SELECT ";
+    String BREAKDOWN_SUFFIX = " AS name, COUNT(*) AS user_count FROM users " +
+                              "WHERE tenant_id = :tenantId AND status = 'ACTIVE' GROUP BY ";
+
+    /**
+     * New users of a tenant from a day onwards
+     */
+    @Query(value = "SELECT COALESCE(SUM(new_users), 0) FROM tenant_user_daily_stats " +
+                   "WHERE tenant_id = :tenantId AND day >= :fromDay",
+           nativeQuery = true)
+    long sumNewUsersSince(@Param("tenantId") UUID tenantId, @Param("fromDay") LocalDate fromDay);
+
+    /**
+     * Daily buckets of a tenant in a day range: day, new_users, active_users. Days without any
+     * new or active user have no row.
+     */
+    @Query(value = "SELECT day, new_users, active_users FROM tenant_user_daily_stats " +
+                   "WHERE tenant_id = :tenantId AND day BETWEEN :fromDay AND :toDay ORDER BY day",
+           nativeQuery = true)
+    List<Object[]> findDailyStats(@Param("tenantId") UUID tenantId,
+                                  @Param("fromDay") LocalDate fromDay,
+                                  @Param("toDay") LocalDate toDay);
+
+    @Query(value = "SELECT DISTINCT tenant_id FROM users UNION SELECT tenant_id FROM tenant_user_stats",
+           nativeQuery = true)
+    List<UUID> findAllTenantIds();
+
+    /**
+     * Create the statistics row of a tenant with zero counters, unless it exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tenant_user_stats (tenant_id) VALUES (:tenantId) ON CONFLICT (tenant_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfMissing(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Lock the statistics row of a tenant until the transaction ends. User writes of the tenant
+     * wait in their trigger meanwhile, and a write that already changed the row is committed
+     * before the lock is granted.
+     */
+    @Query(value = "SELECT tenant_id FROM tenant_user_stats WHERE tenant_id = :tenantId FOR UPDATE", nativeQuery = true)
+    UUID lockForUpdate(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Recompute the statistics row of a tenant from users: exact counters, the figures relative
+     * to :since and the breakdowns of active users. The caller holds the row lock of
+     * {@link #lockForUpdate}, or a concurrent user write can be counted twice or not at all.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO tenant_user_stats (tenant_id, total_users, active_users, inactive_users, " +
+                   "suspended_users, incomplete_onboarding_users, users_active_last_30_days, " +
+                   "users_logged_in_last_30_days, breakdowns, snapshot_at, updated_at) " +
+                   "SELECT :tenantId, COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE status = 'ACTIVE'), " +
+                   "COUNT(*) FILTER (WHERE status = 'INACTIVE'), " +
+                   "COUNT(*) FILTER (WHERE status = 'SUSPENDED'), " +
+                   "COUNT(*) FILTER (WHERE onboarding_completed IS FALSE), " +
+                   "COUNT(*) FILTER (WHERE last_activity_at > :since), " +
+                   "COUNT(*) FILTER (WHERE last_login_at > :since), " +
+                   "CAST(json_build_object(" +
+                   "'departments', (" + BREAKDOWN_PREFIX + "department" + BREAKDOWN_SUFFIX + "department) b), " +
+                   "'jobTitles', (" + BREAKDOWN_PREFIX + "job_title" + BREAKDOWN_SUFFIX + "job_title) b), " +
+                   "'officeLocations', (" + BREAKDOWN_PREFIX + "office_location" + BREAKDOWN_SUFFIX + "office_location) b)" +
+                   ") AS TEXT), :now, :now " +
+                   "FROM users WHERE tenant_id = :tenantId " +
+                   "ON CONFLICT (tenant_id) DO UPDATE SET " +
+                   "total_users = EXCLUDED.total_users, active_users = EXCLUDED.active_users, " +
+                   "inactive_users = EXCLUDED.inactive_users, suspended_users = EXCLUDED.suspended_users, " +
+                   "incomplete_onboarding_users = EXCLUDED.incomplete_onboarding_users, " +
+                   "users_active_last_30_days = EXCLUDED.users_active_last_30_days, " +
+                   "users_logged_in_last_30_days = EXCLUDED.users_logged_in_last_30_days, " +
+                   "breakdowns = EXCLUDED.breakdowns, snapshot_at = EXCLUDED.snapshot_at, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int reconcile(@Param("tenantId") UUID tenantId, @Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+}
@@ -14,30 +14,34 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * Repository for user audit log operations
+ * Repository for user audit log operations. user_audit_logs is range-partitioned by month on
+ * created_at, so every query carries a time predicate that lets the planner prune partitions.
  */
 @Repository
 public interface UserAuditLogRepository extends JpaRepository<UserAuditLog, UUID> {
 
     /**
-     * Find audit logs for a specific user
+     * Find audit logs for a specific user within date range
      */
-    Page<UserAuditLog> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
-
-    /**
-     * Find audit logs for a tenant
-     */
-    Page<UserAuditLog> findByTenantIdOrderByCreatedAtDesc(UUID tenantId, Pageable pageable);
+    @Query("SELECT ual FROM UserAuditLog ual WHERE ual.userId = :userId " +
+           "AND ual.createdAt BETWEEN :startDate AND :endDate ORDER BY ual.createdAt DESC")
+    Page<UserAuditLog> findByUserIdAndDateRange(@Param("userId") UUID userId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate,
+                                               Pageable pageable);
 
     /**
      * Find audit logs by action type
      */
-    List<UserAuditLog> findByUserIdAndActionOrderByCreatedAtDesc(UUID userId, String action);
+    List<UserAuditLog> findByUserIdAndActionAndCreatedAtAfterOrderByCreatedAtDesc(UUID userId, String action,
+                                                                                LocalDateTime since);
 
     /**
      * Find audit logs by action type for tenant
      */
-    Page<UserAuditLog> findByTenantIdAndActionOrderByCreatedAtDesc(UUID tenantId, String action, Pageable pageable);
+    Page<UserAuditLog> findByTenantIdAndActionAndCreatedAtAfterOrderByCreatedAtDesc(UUID tenantId, String action,
+                                                                                  LocalDateTime since,
+                                                                                  Pageable pageable);
 
     /**
      * Find audit logs within date range
@@ -61,29 +65,31 @@ public interface UserAuditLogRepository extends JpaRepository<UserAuditLog, UUID
     /**
      * Find audit logs by severity
      */
-    List<UserAuditLog> findByTenantIdAndSeverityOrderByCreatedAtDesc(UUID tenantId, UserAuditLog.AuditSeverity severity);
-
-    /**
-     * Find audit logs by field name (for tracking specific field changes)
-     */
-    List<UserAuditLog> findByUserIdAndFieldNameOrderByCreatedAtDesc(UUID userId, String fieldName);
+    List<UserAuditLog> findByTenantIdAndSeverityAndCreatedAtAfterOrderByCreatedAtDesc(UUID tenantId,
+                                                                                    UserAuditLog.AuditSeverity severity,
+                                                                                    LocalDateTime since);
 
     /**
      * Find audit logs performed by a specific user
      */
-    Page<UserAuditLog> findByPerformedByOrderByCreatedAtDesc(UUID performedBy, Pageable pageable);
+    Page<UserAuditLog> findByPerformedByAndCreatedAtAfterOrderByCreatedAtDesc(UUID performedBy, LocalDateTime since,
+                                                                            Pageable pageable);
 
     /**
      * Count audit logs by action for a user
      */
-    @Query("SELECT COUNT(ual) FROM UserAuditLog ual WHERE ual.userId = :userId AND ual.action = :action")
-    long countByUserIdAndAction(@Param("userId") UUID userId, @Param("action") String action);
+    @Query("SELECT COUNT(ual) FROM UserAuditLog ual WHERE ual.userId = :userId AND ual.action = :action " +
+           "AND ual.createdAt > :since")
+    long countByUserIdAndAction(@Param("userId") UUID userId, @Param("action") String action,
+                                @Param("since") LocalDateTime since);
 
     /**
      * Count audit logs by action for a tenant
      */
-    @Query("SELECT COUNT(ual) FROM UserAuditLog ual WHERE ual.tenantId = :tenantId AND ual.action = :action")
-    long countByTenantIdAndAction(@Param("tenantId") UUID tenantId, @Param("action") String action);
+    @Query("SELECT COUNT(ual) FROM UserAuditLog ual WHERE ual.tenantId = :tenantId AND ual.action = :action " +
+           "AND ual.createdAt > :since")
+    long countByTenantIdAndAction(@Param("tenantId") UUID tenantId, @Param("action") String action,
+                                  @Param("since") LocalDateTime since);
 
     /**
      * Find recent login activities
@@ -109,7 +115,8 @@ public interface UserAuditLogRepository extends JpaRepository<UserAuditLog, UUID
     /**
      * Find audit logs by IP address (for security analysis)
      */
-    List<UserAuditLog> findByTenantIdAndIpAddressOrderByCreatedAtDesc(UUID tenantId, String ipAddress);
+    List<UserAuditLog> findByTenantIdAndIpAddressAndCreatedAtAfterOrderByCreatedAtDesc(UUID tenantId, String ipAddress,
+                                                                                     LocalDateTime since);
 
     /**
      * Get audit statistics by action
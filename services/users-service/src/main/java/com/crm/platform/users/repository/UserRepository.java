@@ -17,6 +17,17 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    // Prefix matches on a name or the email rank ahead of matches inside a word
+    String NAME_PREFIX_RANK =
+        "CASE WHEN lower(u.first_name) LIKE :pattern || '%' OR lower(u.last_name) LIKE :pattern || '%' " +
+        "OR lower(u.email) LIKE :pattern || '%' THEN 0 " +
+        "WHEN u.name_search_text LIKE '%' || :pattern || '%' THEN 1 ELSE 2 END";
+
+    // Prefix match on first name, last name or email, served by the tenant-led prefix indexes (V11)
+    String NAME_PREFIX_MATCH =
+        "(lower(u.first_name) LIKE :pattern || '%' OR lower(u.last_name) LIKE :pattern || '%' " +
+        "OR lower(u.email) LIKE :pattern || '%')";
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByEmailAndTenantId(String email, UUID tenantId);
@@ -37,11 +48,56 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     List<User> findByTeamId(UUID teamId);
 
-    @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
-           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<User> searchUsers(@Param("tenantId") UUID tenantId, @Param("search") String search, Pageable pageable);
+    // Directory search. :term is the lower-cased search term, used for fuzzy matching and ranking;
+    // :pattern is the same term with LIKE wildcards escaped. Both columns searched here are
+    // generated lower-cased documents with tenant-led trigram GIN indexes (V11).
+
+    @Query(value = "SELECT u.* FROM users u WHERE u.tenant_id = :tenantId AND " +
+                   "(u.name_search_text LIKE '%' || :pattern || '%' OR :term <% u.name_search_text) " +
+                   "ORDER BY " + NAME_PREFIX_RANK + ", word_similarity(:term, u.name_search_text) DESC, " +
+                   "u.last_name, u.first_name, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.tenant_id = :tenantId AND " +
+                        "(u.name_search_text LIKE '%' || :pattern || '%' OR :term <% u.name_search_text)",
+           nativeQuery = true)
+    Page<User> searchUsers(@Param("tenantId") UUID tenantId, @Param("term") String term,
+                           @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Directory search for terms too short to form a trigram, with the prefix match of
+     * {@link #typeaheadUsersByPrefix} over users of any status
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE u.tenant_id = :tenantId AND " + NAME_PREFIX_MATCH + " " +
+                   "ORDER BY u.last_name, u.first_name, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.tenant_id = :tenantId AND " + NAME_PREFIX_MATCH,
+           nativeQuery = true)
+    Page<User> searchUsersByPrefix(@Param("tenantId") UUID tenantId, @Param("pattern") String pattern,
+                                   Pageable pageable);
+
+    /**
+     * Type-ahead over active users, returning only the columns a picker shows:
+     * id, first_name, last_name, email, job_title, department, profile_image_url
+     */
+    @Query(value = "SELECT u.id, u.first_name, u.last_name, u.email, u.job_title, u.department, u.profile_image_url " +
+                   "FROM users u WHERE u.tenant_id = :tenantId AND u.status = 'ACTIVE' AND " +
+                   "(u.name_search_text LIKE '%' || :pattern || '%' OR :term <% u.name_search_text) " +
+                   "ORDER BY " + NAME_PREFIX_RANK + ", word_similarity(:term, u.name_search_text) DESC, " +
+                   "u.last_name, u.first_name, u.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> typeaheadUsers(@Param("tenantId") UUID tenantId, @Param("term") String term,
+                                  @Param("pattern") String pattern, @Param("limit") int limit);
+
+    /**
+     * Type-ahead for terms too short to form a trigram: prefix match on first name, last name
+     * or email only. Same columns as {@link #typeaheadUsers}.
+     */
+    @Query(value = "SELECT u.id, u.first_name, u.last_name, u.email, u.job_title, u.department, u.profile_image_url " +
+                   "FROM users u WHERE u.tenant_id = :tenantId AND u.status = 'ACTIVE' AND " + NAME_PREFIX_MATCH + " " +
+                   "ORDER BY u.last_name, u.first_name, u.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> typeaheadUsersByPrefix(@Param("tenantId") UUID tenantId, @Param("pattern") String pattern,
+                                          @Param("limit") int limit);
 
     @Modifying
     @Query("UPDATE User u SET u.lastActivityAt = :activityTime WHERE u.id = :userId")
@@ -57,21 +113,40 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND u.onboardingCompleted = false")
     List<User> findUsersWithIncompleteOnboarding(@Param("tenantId") UUID tenantId);
 
+    /**
+     * Active users without activity since the cutoff. Activity is written by ActivityTracker, so
+     * stored values lag by at most its flush interval plus granularity; flush it first when that
+     * matters.
+     */
     @Query("SELECT u FROM User u WHERE u.lastActivityAt < :cutoffDate AND u.status = 'ACTIVE'")
     List<User> findInactiveUsers(@Param("cutoffDate") LocalDateTime cutoffDate);
 
+    // Keyset walks for lifecycle sweeps; afterId starts at the nil UUID
+
+    @Query(value = "SELECT id FROM users WHERE tenant_id = :tenantId AND id > :afterId AND status = 'ACTIVE' " +
+                   "AND last_activity_at < :cutoff ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findInactiveUserIds(@Param("tenantId") UUID tenantId, @Param("afterId") UUID afterId,
+                                   @Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM users WHERE tenant_id = :tenantId AND id > :afterId " +
+                   "AND deletion_requested = TRUE AND status <> 'DELETED' AND deletion_scheduled_at <= :now " +
+                   "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findUserIdsScheduledForDeletion(@Param("tenantId") UUID tenantId, @Param("afterId") UUID afterId,
+                                               @Param("now") LocalDateTime now, @Param("limit") int limit);
+
     // Enhanced search and filtering methods
 
-    @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
-           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.middleName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.displayName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.jobTitle) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.department) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.employeeId) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<User> searchUsersAdvanced(@Param("tenantId") UUID tenantId, @Param("search") String search, Pageable pageable);
+    @Query(value = "SELECT u.* FROM users u WHERE u.tenant_id = :tenantId AND " +
+                   "(u.search_text LIKE '%' || :pattern || '%' OR :term <% u.search_text) " +
+                   "ORDER BY " + NAME_PREFIX_RANK + ", word_similarity(:term, u.search_text) DESC, " +
+                   "u.last_name, u.first_name, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.tenant_id = :tenantId AND " +
+                        "(u.search_text LIKE '%' || :pattern || '%' OR :term <% u.search_text)",
+           nativeQuery = true)
+    Page<User> searchUsersAdvanced(@Param("tenantId") UUID tenantId, @Param("term") String term,
+                                   @Param("pattern") String pattern, Pageable pageable);
 
     @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
            "(:status IS NULL OR u.status = :status) AND " +
@@ -151,23 +226,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
                                        @Param("startDate") LocalDateTime startDate, 
                                        @Param("endDate") LocalDateTime endDate);
 
-    // Bulk operations
-
-    @Modifying
-    @Query("UPDATE User u SET u.status = :newStatus WHERE u.id IN :userIds")
-    void bulkUpdateStatus(@Param("userIds") List<UUID> userIds, @Param("newStatus") User.UserStatus newStatus);
-
-    @Modifying
-    @Query("UPDATE User u SET u.department = :department WHERE u.id IN :userIds")
-    void bulkUpdateDepartment(@Param("userIds") List<UUID> userIds, @Param("department") String department);
-
-    @Modifying
-    @Query("UPDATE User u SET u.managerId = :managerId WHERE u.id IN :userIds")
-    void bulkUpdateManager(@Param("userIds") List<UUID> userIds, @Param("managerId") UUID managerId);
-
-    @Modifying
-    @Query("UPDATE User u SET u.teamId = :teamId WHERE u.id IN :userIds")
-    void bulkUpdateTeam(@Param("userIds") List<UUID> userIds, @Param("teamId") UUID teamId);
+    // Bulk operations run as chunked set-based statements in BulkUserOperationService
 
     // GDPR and compliance queries
 
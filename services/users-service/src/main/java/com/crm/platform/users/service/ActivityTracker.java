@@ -0,0 +1,188 @@
+package com.crm.platform.users.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces last-activity timestamps of users and teams in memory and writes them in batches.
+ *
+ * Each recorded activity only keeps the latest timestamp per user or team; a background flush
+ * every app.activity.flush-interval-ms writes all pending timestamps with one UPDATE per table.
+ * Rows whose stored timestamp is already within app.activity.granularity of the pending one are
+ * left untouched, so frequent activity of the same user produces no row versions at all. Stored
+ * values therefore lag real activity by at most the flush interval plus the granularity.
+ */
+@Component
+public class ActivityTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityTracker.class);
+
+    private static final String UPDATE_USERS_SQL =
+        "UPDATE users u SET last_activity_at = v.activity_at " +
+        "FROM unnest(CAST(? AS UUID[]), CAST(? AS TIMESTAMP[])) AS v(id, activity_at) " +
+        "WHERE u.id = v.id " +
+        "AND (u.last_activity_at IS NULL OR u.last_activity_at < v.activity_at - make_interval(secs => ?))";
+
+    private static final String UPDATE_TEAMS_SQL =
+        "UPDATE teams t SET last_activity_at = v.activity_at " +
+        "FROM unnest(CAST(? AS UUID[]), CAST(? AS TIMESTAMP[])) AS v(id, activity_at) " +
+        "WHERE t.id = v.id " +
+        "AND (t.last_activity_at IS NULL OR t.last_activity_at < v.activity_at - make_interval(secs => ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, LocalDateTime> pendingUsers = new ConcurrentHashMap<>();
+    private final Map<UUID, LocalDateTime> pendingTeams = new ConcurrentHashMap<>();
+    private final double granularitySeconds;
+    private final int batchSize;
+    private final Counter writtenCounter;
+    private final Counter skippedCounter;
+
+    @Autowired
+    public ActivityTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${app.activity.granularity:PT1M}") Duration granularity,
+                           @Value("${app.activity.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.granularitySeconds = granularity.toMillis() / 1000.0;
+        this.batchSize = batchSize;
+        this.writtenCounter = Counter.builder("activity.tracker.rows").tag("result", "written").register(meterRegistry);
+        this.skippedCounter = Counter.builder("activity.tracker.rows").tag("result", "skipped").register(meterRegistry);
+        Gauge.builder("activity.tracker.pending", this, tracker -> tracker.pendingUsers.size() + tracker.pendingTeams.size())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record activity of a user for the next flush
+     */
+    public void recordUserActivity(UUID userId, LocalDateTime activityAt) {
+        record(pendingUsers, userId, activityAt);
+    }
+
+    /**
+     * Record activity of a team for the next flush
+     */
+    public void recordTeamActivity(UUID teamId, LocalDateTime activityAt) {
+        record(pendingTeams, teamId, activityAt);
+    }
+
+    /**
+     * Inside a transaction the activity is recorded on commit, so rolled back changes leave the
+     * timestamp alone.
+     */
+    private void record(Map<UUID, LocalDateTime> pending, UUID id, LocalDateTime activityAt) {
+        if (id == null || activityAt == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.merge(id, activityAt, (current, next) -> next.isAfter(current) ? next : current);
+                }
+            });
+        } else {
+            pending.merge(id, activityAt, (current, next) -> next.isAfter(current) ? next : current);
+        }
+    }
+
+    /**
+     * Write all pending timestamps. Callers that need stored values to include activity recorded
+     * on this instance so far, such as inactivity sweeps, can flush before querying.
+     */
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        flush(pendingUsers, UPDATE_USERS_SQL, "user");
+        flush(pendingTeams, UPDATE_TEAMS_SQL, "team");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flush(Map<UUID, LocalDateTime> pending, String sql, String kind) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Only entries that did not move while being drained are taken; newer ones stay for the next flush
+        List<Map.Entry<UUID, LocalDateTime>> drained = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, LocalDateTime> entry : pending.entrySet()) {
+            UUID id = entry.getKey();
+            LocalDateTime activityAt = entry.getValue();
+            if (pending.remove(id, activityAt)) {
+                drained.add(Map.entry(id, activityAt));
+            }
+        }
+
+        // Sorted so that concurrent flushes on other instances lock rows in the same order
+        drained.sort(Map.Entry.comparingByKey());
+
+        int written = 0;
+        int failed = 0;
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<Map.Entry<UUID, LocalDateTime>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                written += update(sql, batch);
+            } catch (Exception e) {
+                // Put the timestamps back unless newer activity arrived in the meantime; later batches still run
+                for (Map.Entry<UUID, LocalDateTime> entry : batch) {
+                    pending.merge(entry.getKey(), entry.getValue(), (current, next) -> next.isAfter(current) ? next : current);
+                }
+                failed += batch.size();
+                logger.error("Error flushing {} {} activity timestamps, kept for the next flush", batch.size(), kind, e);
+            }
+        }
+
+        int flushed = drained.size() - failed;
+        writtenCounter.increment(written);
+        skippedCounter.increment(flushed - written);
+        logger.debug("Flushed {} {} activity timestamps, {} within granularity", flushed, kind, flushed - written);
+    }
+
+    private int update(String sql, List<Map.Entry<UUID, LocalDateTime>> batch) {
+        UUID[] ids = new UUID[batch.size()];
+        Timestamp[] timestamps = new Timestamp[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ids[i] = batch.get(i).getKey();
+            timestamps[i] = Timestamp.valueOf(batch.get(i).getValue());
+        }
+
+        Integer updated = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Array idArray = connection.createArrayOf("uuid", ids);
+            Array timestampArray = connection.createArrayOf("timestamp", timestamps);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setArray(1, idArray);
+                ps.setArray(2, timestampArray);
+                ps.setDouble(3, granularitySeconds);
+                return ps.executeUpdate();
+            } finally {
+                idArray.free();
+                timestampArray.free();
+            }
+        });
+        return updated != null ? updated : 0;
+    }
+}
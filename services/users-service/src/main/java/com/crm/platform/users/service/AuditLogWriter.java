@@ -0,0 +1,164 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.entity.UserAuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes audit entries to user_audit_logs in JDBC batches.
+ *
+ * Entries logged during a request are queued and written by a background flush every
+ * app.audit.writer.flush-interval-ms, so audit I/O stays off the request thread. When the queue
+ * is full the entry is written on the calling thread instead of being dropped, in a transaction
+ * of its own: after commit the caller's connection is still bound but will not commit again. A
+ * batch that fails is retried row by row, so one bad entry does not lose the rest of the batch.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO user_audit_logs (id, user_id, tenant_id, action, entity_type, field_name, old_value, " +
+        "new_value, changes, description, ip_address, user_agent, session_id, performed_by, severity, " +
+        "additional_data, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate overflowTransaction;
+    private final BlockingQueue<UserAuditLog> queue;
+    private final int batchSize;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.audit.writer.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.overflowTransaction = new TransactionTemplate(transactionManager);
+        this.overflowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writtenCounter = Counter.builder("audit.writer.entries").tag("result", "written").register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.entries").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("audit.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Queue an entry for the next flush. The event time is taken now, not at write time. Inside a
+     * transaction the entry is queued on commit, so rolled back changes leave no audit trail.
+     */
+    public void enqueue(UserAuditLog auditLog) {
+        if (auditLog.getCreatedAt() == null) {
+            auditLog.setCreatedAt(LocalDateTime.now());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(auditLog);
+                }
+            });
+        } else {
+            offer(auditLog);
+        }
+    }
+
+    private void offer(UserAuditLog auditLog) {
+        if (!queue.offer(auditLog)) {
+            logger.warn("Audit queue full, writing entry for user {} synchronously", auditLog.getUserId());
+            try {
+                overflowTransaction.executeWithoutResult(status -> writeBatch(List.of(auditLog)));
+            } catch (Exception e) {
+                failedCounter.increment();
+                logger.error("Failed to write audit entry {} for user {}", auditLog.getAction(), auditLog.getUserId(), e);
+            }
+        }
+    }
+
+    /**
+     * Write entries now, as one batch in the caller's transaction
+     */
+    public void writeBatch(List<UserAuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, auditLogs, batchSize, (ps, auditLog) -> {
+            ps.setObject(1, auditLog.getId() != null ? auditLog.getId() : UUID.randomUUID());
+            ps.setObject(2, auditLog.getUserId());
+            ps.setObject(3, auditLog.getTenantId());
+            ps.setString(4, auditLog.getAction());
+            ps.setString(5, auditLog.getEntityType());
+            ps.setString(6, auditLog.getFieldName());
+            ps.setString(7, auditLog.getOldValue());
+            ps.setString(8, auditLog.getNewValue());
+            ps.setString(9, auditLog.getChanges());
+            ps.setString(10, auditLog.getDescription());
+            ps.setString(11, auditLog.getIpAddress());
+            ps.setString(12, auditLog.getUserAgent());
+            ps.setString(13, auditLog.getSessionId());
+            ps.setObject(14, auditLog.getPerformedBy());
+            ps.setString(15, auditLog.getSeverity() != null ? auditLog.getSeverity().name() : null);
+            ps.setString(16, auditLog.getAdditionalData());
+            ps.setTimestamp(17, Timestamp.valueOf(auditLog.getCreatedAt() != null ? auditLog.getCreatedAt() : now));
+        });
+        writtenCounter.increment(auditLogs.size());
+    }
+
+    /**
+     * Drain the queue in batches
+     */
+    @Scheduled(fixedDelayString = "${app.audit.writer.flush-interval-ms:200}")
+    public void flush() {
+        List<UserAuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                writeBatch(batch);
+            } catch (Exception e) {
+                logger.warn("Audit batch of {} entries failed, retrying one by one: {}", batch.size(), e.getMessage());
+                writeIndividually(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void writeIndividually(List<UserAuditLog> batch) {
+        for (UserAuditLog auditLog : batch) {
+            try {
+                writeBatch(List.of(auditLog));
+            } catch (Exception e) {
+                failedCounter.increment();
+                logger.error("Failed to write audit entry {} for user {}", auditLog.getAction(), auditLog.getUserId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.dto.BulkUserOperationRequest;
+import com.crm.platform.users.dto.BulkUserOperationRequest.BulkOperation;
+import com.crm.platform.users.dto.UserFilterRequest;
+import com.crm.platform.users.entity.BulkUserOperation;
+import com.crm.platform.users.entity.User;
+import com.crm.platform.users.entity.UserAuditLog;
+import com.crm.platform.users.repository.BulkUserOperationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based engine for bulk user operations.
+ *
+ * Targets are processed in chunks of app.bulk-operations.chunk-size users, each in its own
+ * transaction: one UPDATE ... RETURNING statement changes the chunk and reports the value before
+ * and after for every user that actually changed, the matching audit rows are written as one
+ * JDBC batch, and the progress counters of the operation advance. A failure stops the operation
+ * after the last committed chunk and marks it FAILED.
+ */
+@Service
+public class BulkUserOperationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUserOperationService.class);
+
+    private final BulkUserOperationRepository operationRepository;
+    private final UserAuditService userAuditService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.bulk-operations.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    public BulkUserOperationService(BulkUserOperationRepository operationRepository,
+                                    UserAuditService userAuditService,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager) {
+        this.operationRepository = operationRepository;
+        this.userAuditService = userAuditService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Validate a request and record the operation as PENDING under the caller's tenant. A request
+     * naming no tenant is confined to the caller's tenant, so users of other tenants in its ID
+     * list are left untouched. Without a caller tenant, the operation is recorded under the
+     * tenant its users belong to.
+     */
+    @Transactional
+    public BulkUserOperation createOperation(BulkUserOperationRequest request, UUID tenantId, UUID performedBy) {
+        if (request.getTenantId() == null) {
+            request.setTenantId(tenantId != null ? tenantId : targetTenant(request));
+        } else if (tenantId != null && !tenantId.equals(request.getTenantId())) {
+            throw new IllegalArgumentException("Bulk operations cannot target another tenant");
+        }
+        validate(request);
+        BulkUserOperation operation = new BulkUserOperation(
+            request.getTenantId(),
+            request.getOperation().name(),
+            request.isFilterTarget() ? BulkUserOperation.TargetType.FILTER : BulkUserOperation.TargetType.USER_IDS,
+            performedBy
+        );
+        return operationRepository.save(operation);
+    }
+
+    /**
+     * Run a recorded operation on the calling thread and return its final state
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUserOperation execute(UUID operationId, BulkUserOperationRequest request, UUID performedBy,
+                                     UserAuditService.RequestInfo requestInfo) {
+        try {
+            run(operationId, request, performedBy, requestInfo);
+        } catch (Exception e) {
+            logger.error("Bulk operation {} failed", operationId, e);
+            transactionTemplate.executeWithoutResult(status -> operationRepository.findById(operationId).ifPresent(op -> {
+                op.setStatus(BulkUserOperation.OperationStatus.FAILED);
+                op.setErrorMessage(e.getMessage());
+                op.setCompletedAt(LocalDateTime.now());
+                operationRepository.save(op);
+            }));
+        }
+        return getOperation(operationId);
+    }
+
+    /**
+     * Run a recorded operation in the background; progress is read through {@link #getOperation}
+     */
+    @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void executeAsync(UUID operationId, BulkUserOperationRequest request, UUID performedBy,
+                             UserAuditService.RequestInfo requestInfo) {
+        execute(operationId, request, performedBy, requestInfo);
+    }
+
+    @Transactional(readOnly = true)
+    public BulkUserOperation getOperation(UUID operationId) {
+        return operationRepository.findById(operationId)
+                .orElseThrow(() -> new IllegalArgumentException("Bulk operation not found with ID: " + operationId));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BulkUserOperation> getTenantOperations(UUID tenantId, Pageable pageable) {
+        return operationRepository.findByTenantIdOrderByCreatedAtDesc(tenantId, pageable);
+    }
+
+    // Execution
+
+    private void run(UUID operationId, BulkUserOperationRequest request, UUID performedBy,
+                     UserAuditService.RequestInfo requestInfo) {
+        TargetField field = TargetField.of(request.getOperation());
+        Object newValue = field.newValue(request);
+        FilterClause filter = request.isFilterTarget() ? FilterClause.of(request.getTenantId(), request.getFilter()) : null;
+
+        int total = filter != null ? countFilterTargets(filter) : request.getUserIds().size();
+        transactionTemplate.executeWithoutResult(status -> {
+            BulkUserOperation op = getOperation(operationId);
+            op.setStatus(BulkUserOperation.OperationStatus.RUNNING);
+            op.setTotalCount(total);
+            op.setStartedAt(LocalDateTime.now());
+            operationRepository.save(op);
+        });
+        logger.info("Bulk operation {} started: {} on {} users", operationId, request.getOperation(), total);
+
+        int updated = 0;
+        if (filter != null) {
+            // Keyset walk in id order; users that stop matching the filter once updated are not revisited
+            UUID lastId = null;
+            List<UUID> chunk;
+            while (!(chunk = nextFilterChunk(filter, lastId)).isEmpty()) {
+                updated += applyChunk(operationId, chunk, field, newValue, request, performedBy, requestInfo);
+                lastId = chunk.get(chunk.size() - 1);
+            }
+        } else {
+            List<UUID> userIds = request.getUserIds();
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                List<UUID> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                updated += applyChunk(operationId, chunk, field, newValue, request, performedBy, requestInfo);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            BulkUserOperation op = getOperation(operationId);
+            op.setStatus(BulkUserOperation.OperationStatus.COMPLETED);
+            op.setCompletedAt(LocalDateTime.now());
+            operationRepository.save(op);
+        });
+        logger.info("Bulk operation {} completed: {} of {} users changed", operationId, updated, total);
+    }
+
+    /**
+     * Update one chunk, audit the users that changed and advance the progress, in one transaction
+     */
+    private int applyChunk(UUID operationId, List<UUID> userIds, TargetField field, Object newValue,
+                           BulkUserOperationRequest request, UUID performedBy,
+                           UserAuditService.RequestInfo requestInfo) {
+        Integer changed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<UserAuditLog> auditLogs = updateReturningDiffs(userIds, field, newValue, request, performedBy, now);
+            for (UserAuditLog auditLog : auditLogs) {
+                if (requestInfo != null) {
+                    requestInfo.applyTo(auditLog);
+                }
+                auditLog.setAdditionalData("{\"bulkOperationId\":\"" + operationId + "\"}");
+            }
+            userAuditService.logBatch(auditLogs);
+            operationRepository.recordChunk(operationId, userIds.size(), auditLogs.size(), now);
+            return auditLogs.size();
+        });
+        return changed != null ? changed : 0;
+    }
+
+    /**
+     * Set the field on the chunk in one statement. Rows are locked in id order, users whose value
+     * is already the target value are left untouched, and RETURNING yields the before and after
+     * value of each changed user as an audit entry.
+     */
+    private List<UserAuditLog> updateReturningDiffs(List<UUID> userIds, TargetField field, Object newValue,
+                                                    BulkUserOperationRequest request, UUID performedBy,
+                                                    LocalDateTime now) {
+        String sql =
+            "WITH target AS (" +
+            "  SELECT id, " + field.column + " AS old_value FROM users" +
+            "  WHERE id = ANY(?) AND " + field.column + " IS DISTINCT FROM CAST(? AS " + field.sqlType + ")" +
+            (request.getTenantId() != null ? " AND tenant_id = ?" : "") +
+            (field == TargetField.MANAGER ? " AND id IS DISTINCT FROM CAST(? AS UUID)" : "") +
+            "  ORDER BY id FOR UPDATE" +
+            ") " +
+            "UPDATE users u SET " + field.column + " = CAST(? AS " + field.sqlType + "), updated_at = ?, " +
+            "updated_by = COALESCE(CAST(? AS UUID), u.updated_by) " +
+            "FROM target t WHERE u.id = t.id " +
+            "RETURNING u.id, u.tenant_id, CAST(t.old_value AS TEXT), CAST(u." + field.column + " AS TEXT)";
+
+        String description = "Bulk " + request.getOperation() + ": " + field.auditFieldName + " changed";
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            Array ids = con.createArrayOf("uuid", userIds.toArray());
+            int index = 1;
+            ps.setArray(index++, ids);
+            ps.setObject(index++, newValue);
+            if (request.getTenantId() != null) {
+                ps.setObject(index++, request.getTenantId());
+            }
+            if (field == TargetField.MANAGER) {
+                // Nobody becomes their own manager
+                ps.setObject(index++, newValue);
+            }
+            ps.setObject(index++, newValue);
+            ps.setTimestamp(index++, Timestamp.valueOf(now));
+            ps.setObject(index, performedBy);
+            return ps;
+        }, (rs, rowNum) -> {
+            UserAuditLog auditLog = new UserAuditLog(
+                rs.getObject(1, UUID.class),
+                rs.getObject(2, UUID.class),
+                field.auditAction,
+                description,
+                performedBy
+            );
+            auditLog.setChanges(userAuditService.encodeChange(field.auditFieldName, rs.getString(3), rs.getString(4)));
+            auditLog.setSeverity(field.auditSeverity);
+            auditLog.setCreatedAt(now);
+            return auditLog;
+        });
+    }
+
+    /**
+     * The tenant of the targeted users, or null when they belong to more than one
+     */
+    private UUID targetTenant(BulkUserOperationRequest request) {
+        if (request.isFilterTarget()) {
+            return null;
+        }
+        List<UUID> tenants = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT DISTINCT tenant_id FROM users WHERE id = ANY(?) LIMIT 2");
+            ps.setArray(1, con.createArrayOf("uuid", request.getUserIds().toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+        return tenants.size() == 1 ? tenants.get(0) : null;
+    }
+
+    private int countFilterTargets(FilterClause filter) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE " + filter.sql, Integer.class, filter.params.toArray());
+        return count != null ? count : 0;
+    }
+
+    private List<UUID> nextFilterChunk(FilterClause filter, UUID lastId) {
+        List<Object> params = new ArrayList<>(filter.params);
+        String keyset = "";
+        if (lastId != null) {
+            keyset = " AND id > ?";
+            params.add(lastId);
+        }
+        params.add(chunkSize);
+        return jdbcTemplate.queryForList(
+            "SELECT id FROM users WHERE " + filter.sql + keyset + " ORDER BY id LIMIT ?",
+            UUID.class, params.toArray());
+    }
+
+    private void validate(BulkUserOperationRequest request) {
+        if (request.getOperation() == BulkOperation.UPDATE_STATUS && request.getStatus() == null) {
+            throw new IllegalArgumentException("Status is required for UPDATE_STATUS");
+        }
+        if (request.isFilterTarget()) {
+            if (request.getTenantId() == null || request.getFilter() == null) {
+                throw new IllegalArgumentException("Filter-based bulk operations require a tenant ID and a filter");
+            }
+            FilterClause.of(request.getTenantId(), request.getFilter());
+        }
+    }
+
+    /**
+     * The user column each bulk operation writes, with the audit entry it produces
+     */
+    private enum TargetField {
+        STATUS("status", "VARCHAR", "status", UserAuditLog.ACTION_STATUS_CHANGE, UserAuditLog.AuditSeverity.MEDIUM),
+        DEPARTMENT("department", "VARCHAR", "department", UserAuditLog.ACTION_UPDATE, UserAuditLog.AuditSeverity.INFO),
+        MANAGER("manager_id", "UUID", "managerId", UserAuditLog.ACTION_UPDATE, UserAuditLog.AuditSeverity.INFO),
+        TEAM("team_id", "UUID", "teamId", UserAuditLog.ACTION_UPDATE, UserAuditLog.AuditSeverity.INFO);
+
+        private final String column;
+        private final String sqlType;
+        private final String auditFieldName;
+        private final String auditAction;
+        private final UserAuditLog.AuditSeverity auditSeverity;
+
+        TargetField(String column, String sqlType, String auditFieldName, String auditAction,
+                    UserAuditLog.AuditSeverity auditSeverity) {
+            this.column = column;
+            this.sqlType = sqlType;
+            this.auditFieldName = auditFieldName;
+            this.auditAction = auditAction;
+            this.auditSeverity = auditSeverity;
+        }
+
+        static TargetField of(BulkOperation operation) {
+            switch (operation) {
+                case UPDATE_DEPARTMENT: return DEPARTMENT;
+                case UPDATE_MANAGER: return MANAGER;
+                case UPDATE_TEAM: return TEAM;
+                default: return STATUS;
+            }
+        }
+
+        Object newValue(BulkUserOperationRequest request) {
+            switch (request.getOperation()) {
+                case UPDATE_STATUS: return request.getStatus().name();
+                case ACTIVATE: return User.UserStatus.ACTIVE.name();
+                case DEACTIVATE: return User.UserStatus.INACTIVE.name();
+                case SUSPEND: return User.UserStatus.SUSPENDED.name();
+                case UPDATE_DEPARTMENT: return request.getDepartment();
+                case UPDATE_MANAGER: return request.getManagerId();
+                case UPDATE_TEAM: return request.getTeamId();
+                default: throw new IllegalArgumentException("Invalid bulk operation: " + request.getOperation());
+            }
+        }
+    }
+
+    /**
+     * WHERE clause selecting the users of a tenant that match a filter, with the same semantics
+     * as the user filter search
+     */
+    private static class FilterClause {
+        private final String sql;
+        private final List<Object> params;
+
+        private FilterClause(String sql, List<Object> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+
+        static FilterClause of(UUID tenantId, UserFilterRequest filter) {
+            if (filter.getSearchQuery() != null && !filter.getSearchQuery().trim().isEmpty()) {
+                throw new IllegalArgumentException("Search queries are not supported as bulk operation targets");
+            }
+
+            StringBuilder sql = new StringBuilder("tenant_id = ?");
+            List<Object> params = new ArrayList<>();
+            params.add(tenantId);
+            int criteria = 0;
+
+            if (filter.getStatus() != null) {
+                sql.append(" AND status = ?");
+                params.add(filter.getStatus().name());
+                criteria++;
+            }
+            if (filter.getDepartment() != null) {
+                sql.append(" AND LOWER(department) = LOWER(?)");
+                params.add(filter.getDepartment());
+                criteria++;
+            }
+            if (filter.getJobTitle() != null) {
+                sql.append(" AND LOWER(job_title) LIKE '%' || LOWER(?) || '%'");
+                params.add(filter.getJobTitle());
+                criteria++;
+            }
+            if (filter.getManagerId() != null) {
+                sql.append(" AND manager_id = ?");
+                params.add(filter.getManagerId());
+                criteria++;
+            }
+            if (filter.getTeamId() != null) {
+                sql.append(" AND team_id = ?");
+                params.add(filter.getTeamId());
+                criteria++;
+            }
+            if (filter.getOfficeLocation() != null) {
+                sql.append(" AND LOWER(office_location) LIKE '%' || LOWER(?) || '%'");
+                params.add(filter.getOfficeLocation());
+                criteria++;
+            }
+            if (filter.getOnboardingCompleted() != null) {
+                sql.append(" AND onboarding_completed = ?");
+                params.add(filter.getOnboardingCompleted());
+                criteria++;
+            }
+
+            // Guard against an empty filter silently targeting the whole tenant
+            if (criteria == 0) {
+                throw new IllegalArgumentException("Bulk operation filter must have at least one criterion");
+            }
+            return new FilterClause(sql.toString(), params);
+        }
+    }
+}
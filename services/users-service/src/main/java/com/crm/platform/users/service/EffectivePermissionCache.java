@@ -0,0 +1,232 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.entity.Permission;
+import com.crm.platform.users.entity.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process cache of each user's effective permissions.
+ *
+ * Every (resource, action) pair seen is given a bit in a service-wide index, and a user's
+ * effective permissions are cached as a bitset over that index, so a permission check is a map
+ * lookup plus a bit test. Entries are dropped precisely: per user when their role assignments
+ * change, and for every user holding a role of a subtree when that subtree's permissions or
+ * position in the hierarchy change. Evictions run when the changing transaction completes and
+ * discard loads that raced with them. The TTL bounds staleness caused by changes made on other
+ * instances.
+ */
+@Component
+public class EffectivePermissionCache {
+
+    private final Cache<UUID, PermissionSet> entries;
+
+    // Users of each cached entry by directly assigned role, to find the entries a role change affects
+    private final ConcurrentMap<UUID, Set<UUID>> usersByRole = new ConcurrentHashMap<>();
+
+    // Permission index: resource -> action -> bit, and the bits of every action on each resource
+    private final ConcurrentMap<String, Map<String, Integer>> bitsByResource = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, BitSet> resourceMasks = new ConcurrentHashMap<>();
+    private int nextBit;
+
+    // Incremented by every eviction; a load only caches its result if no eviction happened meanwhile
+    private long epoch;
+
+    public EffectivePermissionCache(@Value("${app.permissions.cache.max-users:50000}") long maxUsers,
+                                    @Value("${app.permissions.cache.ttl:PT10M}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(ttl)
+            .removalListener((UUID userId, PermissionSet removed, RemovalCause cause) -> {
+                if (userId != null && removed != null) {
+                    unindex(userId, removed);
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Get the cached permissions of a user, or null when absent or past the expiry of one of
+     * the role assignments they were computed from
+     */
+    public PermissionSet get(UUID userId) {
+        PermissionSet cached = entries.getIfPresent(userId);
+        if (cached == null || cached.isExpired(LocalDateTime.now())) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Epoch to pass to {@link #put} for a load that starts now
+     */
+    public synchronized long currentEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Build the permission set of a user from their effective permissions and active role
+     * assignments, caching it unless an eviction happened since {@code loadEpoch}
+     */
+    public PermissionSet put(UUID userId, long loadEpoch, Collection<Permission> permissions,
+                             Collection<UserRole> activeUserRoles) {
+        BitSet bits = new BitSet();
+        for (Permission permission : permissions) {
+            bits.set(bitFor(permission.getResource(), permission.getAction()));
+        }
+
+        Set<UUID> roleIds = new HashSet<>();
+        LocalDateTime validUntil = null;
+        for (UserRole userRole : activeUserRoles) {
+            roleIds.add(userRole.getRoleId());
+            LocalDateTime expiresAt = userRole.getExpiresAt();
+            if (expiresAt != null && (validUntil == null || expiresAt.isBefore(validUntil))) {
+                validUntil = expiresAt;
+            }
+        }
+
+        PermissionSet loaded = new PermissionSet(bits, roleIds, validUntil);
+        synchronized (this) {
+            if (loadEpoch == epoch) {
+                entries.put(userId, loaded);
+                for (UUID roleId : roleIds) {
+                    usersByRole.computeIfAbsent(roleId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop a user's entry once the current transaction completes
+     */
+    public void evictUser(UUID userId) {
+        onCompletion(() -> entries.invalidate(userId));
+    }
+
+    /**
+     * Drop the entries of every user directly holding one of the given roles once the current
+     * transaction completes. Pass a whole subtree: users inherit from ancestors of their roles.
+     */
+    public void evictRoles(Collection<UUID> roleIds) {
+        Set<UUID> affectedRoles = Set.copyOf(roleIds);
+        onCompletion(() -> {
+            for (UUID roleId : affectedRoles) {
+                Set<UUID> users = usersByRole.remove(roleId);
+                if (users != null) {
+                    entries.invalidateAll(users);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void evictAll() {
+        onCompletion(entries::invalidateAll);
+    }
+
+    private void onCompletion(Runnable eviction) {
+        Runnable guarded = () -> {
+            synchronized (this) {
+                epoch++;
+                eviction.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Also runs on rollback, where dropping the entry is merely unnecessary
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+
+    private void unindex(UUID userId, PermissionSet removed) {
+        for (UUID roleId : removed.roleIds) {
+            usersByRole.computeIfPresent(roleId, (id, users) -> {
+                // A replacing entry may still hold the role
+                PermissionSet current = entries.getIfPresent(userId);
+                if (current == null || !current.roleIds.contains(roleId)) {
+                    users.remove(userId);
+                }
+                return users.isEmpty() ? null : users;
+            });
+        }
+    }
+
+    private int bitFor(String resource, String action) {
+        Integer bit = bitOf(resource, action);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (bitsByResource) {
+            Map<String, Integer> actions = bitsByResource.computeIfAbsent(resource, r -> new ConcurrentHashMap<>());
+            bit = actions.get(action);
+            if (bit == null) {
+                bit = nextBit++;
+                // Masks are copied on write so that readers never see one being modified
+                BitSet mask = (BitSet) resourceMasks.getOrDefault(resource, new BitSet()).clone();
+                mask.set(bit);
+                resourceMasks.put(resource, mask);
+                actions.put(action, bit);
+            }
+            return bit;
+        }
+    }
+
+    private Integer bitOf(String resource, String action) {
+        Map<String, Integer> actions = bitsByResource.get(resource);
+        return actions != null ? actions.get(action) : null;
+    }
+
+    /**
+     * Immutable effective permissions of one user
+     */
+    public class PermissionSet {
+        private final BitSet bits;
+        private final Set<UUID> roleIds;
+        private final LocalDateTime validUntil;
+
+        private PermissionSet(BitSet bits, Set<UUID> roleIds, LocalDateTime validUntil) {
+            this.bits = bits;
+            this.roleIds = roleIds;
+            this.validUntil = validUntil;
+        }
+
+        public boolean has(String resource, String action) {
+            Integer bit = bitOf(resource, action);
+            return bit != null && bits.get(bit);
+        }
+
+        public boolean hasAnyOn(String resource) {
+            BitSet mask = resourceMasks.get(resource);
+            return mask != null && mask.intersects(bits);
+        }
+
+        private boolean isExpired(LocalDateTime now) {
+            return validUntil != null && !now.isBefore(validUntil);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.crm.platform.users.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs lifecycle sweeps over all tenants with flat memory use.
+ *
+ * Each tenant is walked in user id order through a narrow keyset query, app.user.lifecycle.chunk-size
+ * ids at a time. A chunk is selected, processed and checkpointed in one transaction, so a run that
+ * stops resumes after the last committed chunk. Tenants advance in rounds of one chunk each, at
+ * most app.user.lifecycle.parallelism at a time, so a large tenant cannot hold back the others.
+ */
+@Component
+public class LifecycleSweepRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LifecycleSweepRunner.class);
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private static final String TENANTS_SQL = "SELECT DISTINCT tenant_id FROM users";
+
+    private static final String CLAIM_SQL =
+        "INSERT INTO lifecycle_sweep_checkpoints AS c (sweep_name, tenant_id, run_started_at, cutoff_at, " +
+        "processed_count, affected_count, lease_owner, lease_expires_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, 0, 0, ?, ?, ?) " +
+        "ON CONFLICT (sweep_name, tenant_id) DO UPDATE SET " +
+        "run_started_at = CASE WHEN c.completed_at IS NULL THEN c.run_started_at ELSE EXCLUDED.run_started_at END, " +
+        "cutoff_at = CASE WHEN c.completed_at IS NULL THEN c.cutoff_at ELSE EXCLUDED.cutoff_at END, " +
+        "last_id = CASE WHEN c.completed_at IS NULL THEN c.last_id END, " +
+        "processed_count = CASE WHEN c.completed_at IS NULL THEN c.processed_count ELSE 0 END, " +
+        "affected_count = CASE WHEN c.completed_at IS NULL THEN c.affected_count ELSE 0 END, " +
+        "completed_at = NULL, lease_owner = EXCLUDED.lease_owner, " +
+        "lease_expires_at = EXCLUDED.lease_expires_at, updated_at = EXCLUDED.updated_at " +
+        "WHERE c.lease_expires_at IS NULL OR c.lease_expires_at < EXCLUDED.updated_at " +
+        "RETURNING c.cutoff_at, c.last_id";
+
+    private static final String CHECKPOINT_SQL =
+        "UPDATE lifecycle_sweep_checkpoints SET last_id = ?, processed_count = processed_count + ?, " +
+        "affected_count = affected_count + ?, lease_expires_at = ?, updated_at = ? " +
+        "WHERE sweep_name = ? AND tenant_id = ? AND lease_owner = ?";
+
+    private static final String COMPLETE_SQL =
+        "UPDATE lifecycle_sweep_checkpoints SET processed_count = processed_count + ?, " +
+        "affected_count = affected_count + ?, completed_at = ?, lease_owner = NULL, lease_expires_at = NULL, " +
+        "updated_at = ? WHERE sweep_name = ? AND tenant_id = ? AND lease_owner = ?";
+
+    /**
+     * Next ids of a tenant after the given id, in id order, matching the sweep at the cutoff
+     */
+    @FunctionalInterface
+    public interface ChunkSource {
+        List<UUID> next(UUID tenantId, UUID afterId, LocalDateTime cutoff, int limit);
+    }
+
+    /**
+     * Process one chunk of ids and return how many users it changed. Runs in the transaction that
+     * selected the chunk; statements should still re-check the sweep's condition, as concurrent
+     * requests may have changed a user since.
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+        int process(UUID tenantId, List<UUID> ids, LocalDateTime cutoff);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final Duration lease;
+
+    @Autowired
+    public LifecycleSweepRunner(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.user.lifecycle.parallelism:4}") int parallelism,
+                                @Value("${app.user.lifecycle.chunk-size:500}") int chunkSize,
+                                @Value("${app.user.lifecycle.lease:PT10M}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Sweep every tenant. Tenants with an unfinished run resume it with that run's cutoff; tenants
+     * leased by another instance are skipped. Returns the number of users changed.
+     */
+    public long run(String sweepName, LocalDateTime cutoff, ChunkSource source, ChunkHandler handler) {
+        String owner = UUID.randomUUID().toString();
+        List<TenantCursor> cursors = new ArrayList<>();
+        for (UUID tenantId : jdbcTemplate.queryForList(TENANTS_SQL, UUID.class)) {
+            TenantCursor cursor = claim(sweepName, tenantId, cutoff, owner);
+            if (cursor != null) {
+                cursors.add(cursor);
+            }
+        }
+        logger.info("Lifecycle sweep {} started for {} tenants", sweepName, cursors.size());
+
+        long processed = 0;
+        long affected = 0;
+        while (!cursors.isEmpty()) {
+            List<Callable<Void>> round = new ArrayList<>(cursors.size());
+            for (TenantCursor cursor : cursors) {
+                round.add(() -> {
+                    advance(sweepName, owner, cursor, source, handler);
+                    return null;
+                });
+            }
+
+            List<Future<Void>> results;
+            try {
+                results = executor.invokeAll(round);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Lifecycle sweep {} interrupted; it resumes on the next run", sweepName);
+                break;
+            }
+
+            Iterator<TenantCursor> cursorIterator = cursors.iterator();
+            for (Future<Void> result : results) {
+                TenantCursor cursor = cursorIterator.next();
+                try {
+                    result.get();
+                    processed += cursor.lastProcessed;
+                    affected += cursor.lastAffected;
+                    if (cursor.done) {
+                        cursorIterator.remove();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return affected;
+                } catch (ExecutionException e) {
+                    // The chunk rolled back; the tenant resumes from its checkpoint on the next run
+                    logger.error("Lifecycle sweep {} failed for tenant: {}", sweepName, cursor.tenantId, e.getCause());
+                    cursorIterator.remove();
+                }
+            }
+        }
+
+        logger.info("Lifecycle sweep {} finished: {} users checked, {} changed", sweepName, processed, affected);
+        return affected;
+    }
+
+    /**
+     * Select, process and checkpoint the next chunk of a tenant in one transaction
+     */
+    private void advance(String sweepName, String owner, TenantCursor cursor, ChunkSource source, ChunkHandler handler) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            UUID afterId = cursor.lastId != null ? cursor.lastId : FIRST_ID;
+            List<UUID> ids = source.next(cursor.tenantId, afterId, cursor.cutoff, chunkSize);
+
+            cursor.lastProcessed = ids.size();
+            cursor.lastAffected = ids.isEmpty() ? 0 : handler.process(cursor.tenantId, ids, cursor.cutoff);
+
+            int updated;
+            if (ids.size() < chunkSize) {
+                updated = jdbcTemplate.update(COMPLETE_SQL, ids.size(), cursor.lastAffected,
+                                              Timestamp.valueOf(now), Timestamp.valueOf(now),
+                                              sweepName, cursor.tenantId, owner);
+            } else {
+                updated = jdbcTemplate.update(CHECKPOINT_SQL, ids.get(ids.size() - 1), ids.size(), cursor.lastAffected,
+                                              Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now),
+                                              sweepName, cursor.tenantId, owner);
+            }
+            if (updated == 0) {
+                throw new IllegalStateException("Lease on sweep " + sweepName + " for tenant " + cursor.tenantId + " was lost");
+            }
+
+            if (ids.size() < chunkSize) {
+                cursor.done = true;
+            } else {
+                cursor.lastId = ids.get(ids.size() - 1);
+            }
+        });
+    }
+
+    private TenantCursor claim(String sweepName, UUID tenantId, LocalDateTime cutoff, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TenantCursor> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            TenantCursor cursor = new TenantCursor(tenantId, rs.getTimestamp(1).toLocalDateTime());
+            cursor.lastId = rs.getObject(2, UUID.class);
+            return cursor;
+        }, sweepName, tenantId, Timestamp.valueOf(now), Timestamp.valueOf(cutoff), owner,
+           Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now));
+        if (claimed.isEmpty()) {
+            logger.debug("Lifecycle sweep {} for tenant {} is leased by another instance", sweepName, tenantId);
+            return null;
+        }
+        TenantCursor cursor = claimed.get(0);
+        if (cursor.lastId != null) {
+            logger.info("Lifecycle sweep {} resuming for tenant {} after user {}", sweepName, tenantId, cursor.lastId);
+        }
+        return cursor;
+    }
+
+    /**
+     * Position of one tenant in the current run. Only touched by one chunk task at a time.
+     */
+    private static class TenantCursor {
+        private final UUID tenantId;
+        private final LocalDateTime cutoff;
+        private volatile UUID lastId;
+        private volatile boolean done;
+        private volatile int lastProcessed;
+        private volatile int lastAffected;
+
+        private TenantCursor(UUID tenantId, LocalDateTime cutoff) {
+            this.tenantId = tenantId;
+            this.cutoff = cutoff;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.crm.platform.users.service;
 
+import com.crm.platform.users.dto.BulkProfileUpdateRequest;
+import com.crm.platform.users.dto.BulkProfileUpdateRequest.ProfileUpdate;
+import com.crm.platform.users.dto.BulkProfileUpdateResult;
 import com.crm.platform.users.entity.User;
+import com.crm.platform.users.entity.UserAuditLog;
 import com.crm.platform.users.repository.UserRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -9,18 +13,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Pattern;
 
 /**
  * Service for comprehensive profile management including avatar upload,
@@ -32,8 +41,51 @@ public class ProfileService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProfileService.class);
 
+    // Profile fields a bulk update can set, by update name, and their columns
+    private static final Map<String, String> BULK_COLUMNS = new LinkedHashMap<>();
+    static {
+        BULK_COLUMNS.put("firstName", "first_name");
+        BULK_COLUMNS.put("lastName", "last_name");
+        BULK_COLUMNS.put("middleName", "middle_name");
+        BULK_COLUMNS.put("displayName", "display_name");
+        BULK_COLUMNS.put("bio", "bio");
+        BULK_COLUMNS.put("phoneNumber", "phone_number");
+        BULK_COLUMNS.put("mobilePhone", "mobile_phone");
+        BULK_COLUMNS.put("workPhone", "work_phone");
+        BULK_COLUMNS.put("jobTitle", "job_title");
+        BULK_COLUMNS.put("department", "department");
+        BULK_COLUMNS.put("employeeId", "employee_id");
+        BULK_COLUMNS.put("costCenter", "cost_center");
+        BULK_COLUMNS.put("officeLocation", "office_location");
+        BULK_COLUMNS.put("addressLine1", "address_line1");
+        BULK_COLUMNS.put("addressLine2", "address_line2");
+        BULK_COLUMNS.put("city", "city");
+        BULK_COLUMNS.put("stateProvince", "state_province");
+        BULK_COLUMNS.put("postalCode", "postal_code");
+        BULK_COLUMNS.put("country", "country");
+        BULK_COLUMNS.put("websiteUrl", "website_url");
+        BULK_COLUMNS.put("linkedinUrl", "linkedin_url");
+        BULK_COLUMNS.put("twitterHandle", "twitter_handle");
+    }
+
+    private static final Set<String> REQUIRED_FIELDS = Set.of("firstName", "lastName");
+
+    // Stored custom fields of u merged with the JSON object patch v.custom_patch: keys with a null
+    // value are removed, all others set. The stored text is kept when the merge changes nothing.
+    private static final String CUSTOM_FIELDS_MERGE =
+        "CASE WHEN v.custom_patch IS NULL THEN u.custom_fields ELSE (" +
+        "SELECT CASE WHEN m.merged IS DISTINCT FROM m.current THEN CAST(m.merged AS TEXT) ELSE u.custom_fields END " +
+        "FROM (SELECT c.current, (c.current || (SELECT COALESCE(jsonb_object_agg(p.key, p.value), CAST('{}' AS JSONB)) " +
+        "FROM jsonb_each(c.patch) p WHERE p.value <> CAST('null' AS JSONB))) " +
+        "- ARRAY(SELECT p.key FROM jsonb_each(c.patch) p WHERE p.value = CAST('null' AS JSONB)) AS merged " +
+        "FROM (SELECT COALESCE(CAST(NULLIF(u.custom_fields, '') AS JSONB), CAST('{}' AS JSONB)) AS current, " +
+        "CAST(v.custom_patch AS JSONB) AS patch) c) m) END";
+
     private final UserRepository userRepository;
     private final UserAuditService userAuditService;
+    private final ProfileValidationPlan validationPlan;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final ObjectMapper objectMapper;
 
     // Configuration properties
@@ -46,25 +98,18 @@ public class ProfileService {
     @Value("${app.profile.avatar.allowed-types:image/jpeg,image/png,image/gif,image/webp}")
     private String allowedAvatarTypes;
 
-    @Value("${app.profile.social.validate-urls:true}")
-    private boolean validateSocialUrls;
-
-    // Validation patterns
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-        "^[+]?[1-9]\\d{1,14}$");
-    private static final Pattern URL_PATTERN = Pattern.compile(
-        "^https?://[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}(/.*)?$");
-    private static final Pattern LINKEDIN_PATTERN = Pattern.compile(
-        "^https?://(www\\.)?linkedin\\.com/in/[a-zA-Z0-9-]+/?$");
-    private static final Pattern TWITTER_PATTERN = Pattern.compile(
-        "^@?[a-zA-Z0-9_]{1,15}$");
+    @Value("${app.profile.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
     @Autowired
-    public ProfileService(UserRepository userRepository, UserAuditService userAuditService) {
+    public ProfileService(UserRepository userRepository, UserAuditService userAuditService,
+                          ProfileValidationPlan validationPlan, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.userAuditService = userAuditService;
+        this.validationPlan = validationPlan;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.objectMapper = new ObjectMapper();
     }
 
@@ -183,6 +228,9 @@ public class ProfileService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
 
+        // All validated fields are checked up front, so a bad update changes nothing
+        validationPlan.validateOrThrow(updates);
+
         User originalUser = cloneUser(user); // For audit logging
 
         // Update basic information
@@ -192,19 +240,10 @@ public class ProfileService {
         updateIfPresent(updates, "displayName", value -> user.setDisplayName((String) value));
         updateIfPresent(updates, "bio", value -> user.setBio((String) value));
 
-        // Update contact information with validation
-        updateIfPresent(updates, "phoneNumber", value -> {
-            validatePhoneNumber((String) value);
-            user.setPhoneNumber((String) value);
-        });
-        updateIfPresent(updates, "mobilePhone", value -> {
-            validatePhoneNumber((String) value);
-            user.setMobilePhone((String) value);
-        });
-        updateIfPresent(updates, "workPhone", value -> {
-            validatePhoneNumber((String) value);
-            user.setWorkPhone((String) value);
-        });
+        // Update contact information
+        updateIfPresent(updates, "phoneNumber", value -> user.setPhoneNumber((String) value));
+        updateIfPresent(updates, "mobilePhone", value -> user.setMobilePhone((String) value));
+        updateIfPresent(updates, "workPhone", value -> user.setWorkPhone((String) value));
 
         // Update professional information
         updateIfPresent(updates, "jobTitle", value -> user.setJobTitle((String) value));
@@ -221,19 +260,10 @@ public class ProfileService {
         updateIfPresent(updates, "postalCode", value -> user.setPostalCode((String) value));
         updateIfPresent(updates, "country", value -> user.setCountry((String) value));
 
-        // Update social profiles with validation
-        updateIfPresent(updates, "websiteUrl", value -> {
-            validateUrl((String) value);
-            user.setWebsiteUrl((String) value);
-        });
-        updateIfPresent(updates, "linkedinUrl", value -> {
-            validateLinkedInUrl((String) value);
-            user.setLinkedinUrl((String) value);
-        });
-        updateIfPresent(updates, "twitterHandle", value -> {
-            validateTwitterHandle((String) value);
-            user.setTwitterHandle((String) value);
-        });
+        // Update social profiles
+        updateIfPresent(updates, "websiteUrl", value -> user.setWebsiteUrl((String) value));
+        updateIfPresent(updates, "linkedinUrl", value -> user.setLinkedinUrl((String) value));
+        updateIfPresent(updates, "twitterHandle", value -> user.setTwitterHandle((String) value));
 
         // Update skills and certifications
         updateIfPresent(updates, "skills", value -> {
@@ -268,6 +298,85 @@ public class ProfileService {
         return updatedUser;
     }
 
+    // ==================== Bulk Profile Updates ====================
+
+    /**
+     * Apply many profile updates at once, such as a sync from an HR system. Each profile is
+     * validated in one pass; valid ones are grouped by the fields they set and written
+     * app.profile.bulk.chunk-size at a time. One statement per chunk sets the fields, merges the
+     * custom field patches into the stored JSON server-side and returns the values before and
+     * after for the audit trail. A failing chunk is retried profile by profile, so one bad row
+     * does not hold back the rest.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkProfileUpdateResult bulkUpdateProfiles(BulkProfileUpdateRequest request, UUID updatedBy,
+                                                      HttpServletRequest httpRequest) {
+        List<ProfileUpdate> profiles = request.getProfiles();
+        logger.info("Bulk updating {} profiles in tenant: {}", profiles.size(), request.getTenantId());
+
+        BulkProfileUpdateResult result = new BulkProfileUpdateResult(profiles.size());
+        UserAuditService.RequestInfo requestInfo = userAuditService.captureRequestInfo(httpRequest);
+
+        Map<ProfileColumns, List<ProfileUpdate>> groups = new LinkedHashMap<>();
+        Set<UUID> seenUserIds = new HashSet<>();
+        for (ProfileUpdate profile : profiles) {
+            List<String> errors = validateBulkProfile(profile);
+            if (profile.getUserId() != null && !seenUserIds.add(profile.getUserId())) {
+                errors.add("Duplicate profile for user");
+            }
+            if (!errors.isEmpty()) {
+                result.addError(profile.getUserId(), String.join("; ", errors));
+                continue;
+            }
+            groups.computeIfAbsent(ProfileColumns.of(profile), columns -> new ArrayList<>()).add(profile);
+        }
+
+        for (Map.Entry<ProfileColumns, List<ProfileUpdate>> group : groups.entrySet()) {
+            List<ProfileUpdate> rows = group.getValue();
+            for (int from = 0; from < rows.size(); from += bulkChunkSize) {
+                List<ProfileUpdate> chunk = rows.subList(from, Math.min(from + bulkChunkSize, rows.size()));
+                applyChunk(request.getTenantId(), group.getKey(), chunk, updatedBy, requestInfo, result);
+            }
+        }
+
+        logger.info("Bulk profile update in tenant {} finished: {} updated, {} unchanged, {} not found, {} rejected",
+                    request.getTenantId(), result.getUpdated(), result.getUnchanged(), result.getNotFound(),
+                    result.getErrors().size());
+        return result;
+    }
+
+    /**
+     * Merge a patch into a user's custom fields without rewriting the others. A null value
+     * removes a field. Returns the custom fields after the merge.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> mergeCustomFields(UUID userId, Map<String, Object> patch, UUID updatedBy,
+                                                 HttpServletRequest request) {
+        logger.info("Merging custom fields for user: {}", userId);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+
+        ProfileUpdate profile = new ProfileUpdate(userId, null, patch);
+        BulkProfileUpdateResult result = new BulkProfileUpdateResult(1);
+        applyChunk(user.getTenantId(), ProfileColumns.of(profile), List.of(profile), updatedBy,
+                   userAuditService.captureRequestInfo(request), result);
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalArgumentException("Invalid custom fields: " + result.getErrors().get(0).getMessage());
+        }
+
+        String customFields = userRepository.findById(userId).map(User::getCustomFields).orElse(null);
+        if (customFields == null || customFields.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(customFields, Map.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to parse custom fields for user: {}", userId, e);
+            return new HashMap<>();
+        }
+    }
+
     // ==================== Avatar Management ====================
 
     /**
@@ -507,6 +616,141 @@ public class ProfileService {
 
     // ==================== Private Helper Methods ====================
 
+    private List<String> validateBulkProfile(ProfileUpdate profile) {
+        List<String> errors = new ArrayList<>();
+        Map<String, Object> fields = profile.getFields() != null ? profile.getFields() : Map.of();
+        if (profile.getUserId() == null) {
+            errors.add("User ID is required");
+        }
+        if (fields.isEmpty() && profile.getCustomFields() == null) {
+            errors.add("No fields to update");
+        }
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (!BULK_COLUMNS.containsKey(field.getKey())) {
+                errors.add(field.getKey() + ": not a profile field");
+            } else if (field.getValue() == null && REQUIRED_FIELDS.contains(field.getKey())) {
+                errors.add(field.getKey() + ": cannot be cleared");
+            } else if (field.getValue() != null && !(field.getValue() instanceof String)) {
+                errors.add(field.getKey() + ": must be a string");
+            }
+        }
+        errors.addAll(validationPlan.validate(fields));
+        return errors;
+    }
+
+    /**
+     * Write one chunk in its own transaction; a failed chunk is retried one profile at a time
+     */
+    private void applyChunk(UUID tenantId, ProfileColumns columns, List<ProfileUpdate> chunk, UUID updatedBy,
+                            UserAuditService.RequestInfo requestInfo, BulkProfileUpdateResult result) {
+        try {
+            List<ProfileChange> changes = transactionTemplate.execute(status ->
+                writeChunk(tenantId, columns, chunk, updatedBy, requestInfo));
+            int updated = 0;
+            for (ProfileChange change : changes) {
+                if (change.updated) {
+                    updated++;
+                }
+            }
+            result.addUpdated(updated);
+            result.addUnchanged(changes.size() - updated);
+            result.addNotFound(chunk.size() - changes.size());
+        } catch (Exception e) {
+            if (chunk.size() == 1) {
+                logger.warn("Bulk profile update failed for user {}: {}", chunk.get(0).getUserId(), e.getMessage());
+                result.addError(chunk.get(0).getUserId(), e.getMessage());
+                return;
+            }
+            logger.warn("Bulk profile chunk of {} failed, retrying one by one: {}", chunk.size(), e.getMessage());
+            for (ProfileUpdate profile : chunk) {
+                applyChunk(tenantId, columns, List.of(profile), updatedBy, requestInfo, result);
+            }
+        }
+    }
+
+    /**
+     * Update a chunk with one statement and audit the users that changed. Returns one entry per
+     * user found in the tenant.
+     */
+    private List<ProfileChange> writeChunk(UUID tenantId, ProfileColumns columns, List<ProfileUpdate> chunk,
+                                           UUID updatedBy, UserAuditService.RequestInfo requestInfo) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID[] userIds = new UUID[chunk.size()];
+        String[] patches = new String[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            userIds[i] = chunk.get(i).getUserId();
+            patches[i] = writePatch(chunk.get(i).getCustomFields());
+        }
+
+        List<ProfileChange> changes = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(columns.sql());
+            int index = 1;
+            ps.setArray(index++, con.createArrayOf("uuid", userIds));
+            for (String field : columns.fields) {
+                String[] values = new String[chunk.size()];
+                for (int i = 0; i < chunk.size(); i++) {
+                    values[i] = (String) chunk.get(i).getFields().get(field);
+                }
+                ps.setArray(index++, con.createArrayOf("text", values));
+            }
+            if (columns.customFields) {
+                ps.setArray(index++, con.createArrayOf("text", patches));
+            }
+            ps.setObject(index++, tenantId);
+            ps.setTimestamp(index++, Timestamp.valueOf(now));
+            ps.setObject(index, updatedBy);
+            return ps;
+        }, (rs, rowNum) -> {
+            ProfileChange change = new ProfileChange(rs.getObject(1, UUID.class), rs.getBoolean(2));
+            int index = 3;
+            for (String field : columns.fields) {
+                addChange(change.changes, field, rs.getString(index++), rs.getString(index++));
+            }
+            if (columns.customFields) {
+                addChange(change.changes, "customFields", rs.getString(index++), rs.getString(index));
+            }
+            return change;
+        });
+
+        List<UserAuditLog> auditLogs = new ArrayList<>();
+        for (ProfileChange change : changes) {
+            if (!change.updated || change.changes.isEmpty()) {
+                continue;
+            }
+            UserAuditLog auditLog = new UserAuditLog(change.userId, tenantId, UserAuditLog.ACTION_PROFILE_UPDATE,
+                "Profile fields updated: " + String.join(", ", new TreeSet<>(change.changes.keySet())), updatedBy);
+            auditLog.setChanges(userAuditService.encodeChanges(change.changes));
+            auditLog.setSeverity(UserAuditLog.AuditSeverity.INFO);
+            auditLog.setCreatedAt(now);
+            if (requestInfo != null) {
+                requestInfo.applyTo(auditLog);
+            }
+            auditLogs.add(auditLog);
+        }
+        userAuditService.logBatch(auditLogs);
+        return changes;
+    }
+
+    private void addChange(Map<String, Object> changes, String field, String oldValue, String newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            Map<String, Object> change = new HashMap<>();
+            change.put("oldValue", oldValue);
+            change.put("newValue", newValue);
+            changes.put(field, change);
+        }
+    }
+
+    private String writePatch(Map<String, Object> customFields) {
+        if (customFields == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(customFields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid custom fields format");
+        }
+    }
+
     private void validateAvatarFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Avatar file cannot be empty");
@@ -534,31 +778,6 @@ public class ProfileService {
         }
     }
 
-    private void validatePhoneNumber(String phoneNumber) {
-        if (phoneNumber != null && !phoneNumber.isEmpty() && !PHONE_PATTERN.matcher(phoneNumber).matches()) {
-            throw new IllegalArgumentException("Invalid phone number format");
-        }
-    }
-
-    private void validateUrl(String url) {
-        if (validateSocialUrls && url != null && !url.isEmpty() && !URL_PATTERN.matcher(url).matches()) {
-            throw new IllegalArgumentException("Invalid URL format");
-        }
-    }
-
-    private void validateLinkedInUrl(String linkedinUrl) {
-        if (validateSocialUrls && linkedinUrl != null && !linkedinUrl.isEmpty() && 
-            !LINKEDIN_PATTERN.matcher(linkedinUrl).matches()) {
-            throw new IllegalArgumentException("Invalid LinkedIn URL format");
-        }
-    }
-
-    private void validateTwitterHandle(String twitterHandle) {
-        if (twitterHandle != null && !twitterHandle.isEmpty() && !TWITTER_PATTERN.matcher(twitterHandle).matches()) {
-            throw new IllegalArgumentException("Invalid Twitter handle format");
-        }
-    }
-
     private boolean canViewPrivateProfile(User user, UUID requestingUserId) {
         if (user.getId().equals(requestingUserId)) {
             return true; // User can always view their own profile
@@ -620,4 +839,94 @@ public class ProfileService {
         // Add other fields as needed for audit
         return clone;
     }
-}
\ No newline at end of file
+
+    /**
+     * Result of one profile in a chunk: whether its row changed and the diff of each field
+     */
+    private static class ProfileChange {
+        private final UUID userId;
+        private final boolean updated;
+        private final Map<String, Object> changes = new HashMap<>();
+
+        private ProfileChange(UUID userId, boolean updated) {
+            this.userId = userId;
+            this.updated = updated;
+        }
+    }
+
+    /**
+     * The fields a group of bulk profile updates sets, and the statement that writes them
+     */
+    private static class ProfileColumns {
+        private final List<String> fields;
+        private final boolean customFields;
+
+        private ProfileColumns(List<String> fields, boolean customFields) {
+            this.fields = fields;
+            this.customFields = customFields;
+        }
+
+        static ProfileColumns of(ProfileUpdate profile) {
+            List<String> fields = profile.getFields() != null
+                ? new ArrayList<>(new TreeSet<>(profile.getFields().keySet()))
+                : new ArrayList<>();
+            return new ProfileColumns(fields, profile.getCustomFields() != null);
+        }
+
+        /**
+         * Lock the chunk's rows of the tenant in id order, update the ones that differ and return
+         * every locked row with its values before and after; rows left unchanged have no after
+         */
+        String sql() {
+            StringBuilder input = new StringBuilder("WITH v AS (SELECT * FROM unnest(CAST(? AS UUID[])");
+            StringBuilder names = new StringBuilder("id");
+            StringBuilder old = new StringBuilder("SELECT u.id");
+            StringBuilder set = new StringBuilder();
+            StringBuilder differs = new StringBuilder();
+            StringBuilder returning = new StringBuilder("RETURNING u.id");
+            StringBuilder select = new StringBuilder("SELECT t.id, up.id IS NOT NULL");
+
+            for (int i = 0; i < fields.size(); i++) {
+                String column = BULK_COLUMNS.get(fields.get(i));
+                input.append(", CAST(? AS TEXT[])");
+                names.append(", f").append(i);
+                old.append(", u.").append(column).append(" AS old_").append(i);
+                set.append(column).append(" = v.f").append(i).append(", ");
+                differs.append(differs.length() > 0 ? " OR " : "")
+                       .append("u.").append(column).append(" IS DISTINCT FROM v.f").append(i);
+                returning.append(", CAST(u.").append(column).append(" AS TEXT) AS new_").append(i);
+                select.append(", CAST(t.old_").append(i).append(" AS TEXT), up.new_").append(i);
+            }
+            if (customFields) {
+                input.append(", CAST(? AS TEXT[])");
+                names.append(", custom_patch");
+                old.append(", u.custom_fields AS old_custom, ").append(CUSTOM_FIELDS_MERGE).append(" AS new_custom");
+                set.append("custom_fields = t.new_custom, ");
+                differs.append(differs.length() > 0 ? " OR " : "").append("u.custom_fields IS DISTINCT FROM t.new_custom");
+                returning.append(", u.custom_fields AS new_custom");
+                select.append(", t.old_custom, up.new_custom");
+            }
+
+            return input + ") AS v(" + names + ")), " +
+                   "target AS (" + old + " FROM users u JOIN v ON v.id = u.id WHERE u.tenant_id = ? " +
+                   "ORDER BY u.id FOR UPDATE OF u), " +
+                   "updated AS (UPDATE users u SET " + set +
+                   "updated_at = ?, updated_by = COALESCE(CAST(? AS UUID), u.updated_by) " +
+                   "FROM v JOIN target t ON t.id = v.id WHERE u.id = t.id AND (" + differs + ") " + returning + ") " +
+                   select + " FROM target t LEFT JOIN updated up ON up.id = t.id";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ProfileColumns)) return false;
+            ProfileColumns that = (ProfileColumns) o;
+            return customFields == that.customFields && fields.equals(that.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fields, customFields);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.crm.platform.users.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Validation rules for profile fields, compiled once into a lookup by field name.
+ *
+ * A set of updates is checked in a single pass over its entries: every field with a rule is
+ * matched against its precompiled pattern and all failures are reported together, so bulk
+ * imports learn about every bad field of a row at once. Fields without a rule are not checked.
+ */
+@Component
+public class ProfileValidationPlan {
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile(
+        "^[+]?[1-9]\\d{1,14}$");
+    private static final Pattern URL_PATTERN = Pattern.compile(
+        "^https?://[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}(/.*)?$");
+    private static final Pattern LINKEDIN_PATTERN = Pattern.compile(
+        "^https?://(www\\.)?linkedin\\.com/in/[a-zA-Z0-9-]+/?$");
+    private static final Pattern TWITTER_PATTERN = Pattern.compile(
+        "^@?[a-zA-Z0-9_]{1,15}$");
+
+    private final Map<String, FieldRule> rules = new HashMap<>();
+
+    @Autowired
+    public ProfileValidationPlan(@Value("${app.profile.social.validate-urls:true}") boolean validateSocialUrls) {
+        FieldRule phone = new FieldRule(PHONE_PATTERN, "Invalid phone number format");
+        rules.put("phoneNumber", phone);
+        rules.put("mobilePhone", phone);
+        rules.put("workPhone", phone);
+        rules.put("twitterHandle", new FieldRule(TWITTER_PATTERN, "Invalid Twitter handle format"));
+        if (validateSocialUrls) {
+            rules.put("websiteUrl", new FieldRule(URL_PATTERN, "Invalid URL format"));
+            rules.put("linkedinUrl", new FieldRule(LINKEDIN_PATTERN, "Invalid LinkedIn URL format"));
+        }
+    }
+
+    /**
+     * Check all fields of an update and return one message per invalid field. Null and empty
+     * values are valid; they clear a field.
+     */
+    public List<String> validate(Map<String, Object> fields) {
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            FieldRule rule = rules.get(field.getKey());
+            Object value = field.getValue();
+            if (rule == null || value == null) {
+                continue;
+            }
+            if (!(value instanceof String)) {
+                errors.add(field.getKey() + ": must be a string");
+            } else if (!((String) value).isEmpty() && !rule.pattern.matcher((String) value).matches()) {
+                errors.add(field.getKey() + ": " + rule.message);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Check all fields of an update and reject it with every failure in one message
+     */
+    public void validateOrThrow(Map<String, Object> fields) {
+        List<String> errors = validate(fields);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+    }
+
+    private static class FieldRule {
+        private final Pattern pattern;
+        private final String message;
+
+        private FieldRule(Pattern pattern, String message) {
+            this.pattern = pattern;
+            this.message = message;
+        }
+    }
+}
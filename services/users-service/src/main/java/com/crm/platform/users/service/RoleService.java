@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -32,16 +33,19 @@ public class RoleService {
     private final PermissionRepository permissionRepository;
     private final UserRoleRepository userRoleRepository;
     private final UserAuditService userAuditService;
+    private final EffectivePermissionCache effectivePermissionCache;
 
     @Autowired
     public RoleService(RoleRepository roleRepository,
                       PermissionRepository permissionRepository,
                       UserRoleRepository userRoleRepository,
-                      UserAuditService userAuditService) {
+                      UserAuditService userAuditService,
+                      EffectivePermissionCache effectivePermissionCache) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
         this.userRoleRepository = userRoleRepository;
         this.userAuditService = userAuditService;
+        this.effectivePermissionCache = effectivePermissionCache;
     }
 
     // ==================== Role CRUD Operations ====================
@@ -62,8 +66,9 @@ public class RoleService {
         role.setCreatedBy(createdBy);
 
         // Handle hierarchy
+        Role parentRole = null;
         if (parentRoleId != null) {
-            Role parentRole = roleRepository.findById(parentRoleId)
+            parentRole = roleRepository.findById(parentRoleId)
                     .orElseThrow(() -> new IllegalArgumentException("Parent role not found"));
             
             if (!parentRole.getTenantId().equals(tenantId)) {
@@ -72,23 +77,82 @@ public class RoleService {
 
             role.setParentRoleId(parentRoleId);
             role.setHierarchyLevel(parentRole.getHierarchyLevel() + 1);
-            role.setHierarchyPath(parentRole.getHierarchyPath() + role.getId() + "/");
         } else {
             role.setHierarchyLevel(0);
         }
 
-        Role savedRole = roleRepository.save(role);
+        Role savedRole = roleRepository.saveAndFlush(role);
 
         // Update hierarchy path after save (when ID is available)
-        if (parentRoleId == null) {
-            savedRole.setHierarchyPath("/" + savedRole.getId() + "/");
-            savedRole = roleRepository.save(savedRole);
+        savedRole.setHierarchyPath(childPath(parentRole, savedRole.getId()));
+        savedRole = roleRepository.save(savedRole);
+
+        // Maintain the closure: the role itself, then every ancestor through its parent
+        roleRepository.insertSelfClosure(savedRole.getId());
+        if (parentRoleId != null) {
+            roleRepository.attachClosureSubtree(savedRole.getId(), parentRoleId);
         }
 
         logger.info("Role created successfully: {} with ID: {}", name, savedRole.getId());
         return savedRole;
     }
 
+    /**
+     * Move a role, together with its descendants, under a new parent (or to the top level when
+     * newParentRoleId is null)
+     */
+    public Role moveRole(UUID roleId, UUID newParentRoleId, UUID updatedBy, HttpServletRequest request) {
+        logger.info("Moving role: {} under parent: {}", roleId, newParentRoleId);
+
+        Role role = roleRepository.findById(roleId)
+                .orElseThrow(() -> new IllegalArgumentException("Role not found with ID: " + roleId));
+
+        if (Objects.equals(role.getParentRoleId(), newParentRoleId)) {
+            return role;
+        }
+
+        Role newParent = null;
+        if (newParentRoleId != null) {
+            newParent = roleRepository.findById(newParentRoleId)
+                    .orElseThrow(() -> new IllegalArgumentException("Parent role not found"));
+
+            if (!newParent.getTenantId().equals(role.getTenantId())) {
+                throw new IllegalArgumentException("Parent role must be in the same tenant");
+            }
+            if (roleRepository.isAncestorOf(roleId, newParentRoleId)) {
+                throw new IllegalArgumentException("Cannot move a role under itself or one of its descendants");
+            }
+        }
+
+        String oldPath = role.getHierarchyPath();
+        int oldLevel = role.getHierarchyLevel() != null ? role.getHierarchyLevel() : 0;
+        int newLevel = newParent != null ? newParent.getHierarchyLevel() + 1 : 0;
+        List<UUID> subtree = roleRepository.findSubtreeRoleIds(roleId);
+
+        role.setParentRoleId(newParentRoleId);
+        role.setUpdatedBy(updatedBy);
+        roleRepository.saveAndFlush(role);
+
+        // Rewrites the moved role's own row too; it is reloaded below
+        roleRepository.rewriteSubtreePaths(roleId, childPath(newParent, roleId),
+                oldPath != null ? oldPath.length() : 0, newLevel - oldLevel);
+        roleRepository.detachClosureSubtree(roleId);
+        if (newParentRoleId != null) {
+            roleRepository.attachClosureSubtree(roleId, newParentRoleId);
+        }
+
+        // Users of any role in the subtree inherit from a different set of ancestors now
+        effectivePermissionCache.evictRoles(subtree);
+
+        logger.info("Role moved successfully: {} ({} roles in subtree)", roleId, subtree.size());
+        return roleRepository.findById(roleId)
+                .orElseThrow(() -> new IllegalArgumentException("Role not found with ID: " + roleId));
+    }
+
+    private String childPath(Role parent, UUID roleId) {
+        return (parent != null ? parent.getHierarchyPath() : "/") + roleId + "/";
+    }
+
     /**
      * Update role
      */
@@ -184,9 +248,10 @@ public class RoleService {
                 UserRole.AssignmentType.TEMPORARY : UserRole.AssignmentType.DIRECT);
 
         UserRole savedUserRole = userRoleRepository.save(userRole);
+        effectivePermissionCache.evictUser(userId);
 
         // Log role assignment
-        userAuditService.logUserUpdate(null, null, assignedBy, request);
+        userAuditService.logRoleChange(userId, tenantId, roleId, true, assignedBy, request);
 
         logger.info("Role assigned successfully: {} to user: {}", roleId, userId);
         return savedUserRole;
@@ -207,9 +272,10 @@ public class RoleService {
 
         userRole.setIsActive(false);
         userRoleRepository.save(userRole);
+        effectivePermissionCache.evictUser(userId);
 
         // Log role removal
-        userAuditService.logUserUpdate(null, null, removedBy, request);
+        userAuditService.logRoleChange(userId, userRole.getTenantId(), roleId, false, removedBy, request);
 
         logger.info("Role removed successfully: {} from user: {}", roleId, userId);
     }
@@ -230,6 +296,7 @@ public class RoleService {
 
         userRole.extend(newExpiryDate);
         UserRole updatedUserRole = userRoleRepository.save(userRole);
+        effectivePermissionCache.evictUser(userId);
 
         logger.info("Role expiration extended successfully: {} for user: {}", roleId, userId);
         return updatedUserRole;
@@ -256,6 +323,7 @@ public class RoleService {
         role.addPermission(permission);
         role.setUpdatedBy(updatedBy);
         roleRepository.save(role);
+        effectivePermissionCache.evictRoles(roleRepository.findSubtreeRoleIds(roleId));
 
         logger.info("Permission added successfully: {} to role: {}", permissionId, roleId);
     }
@@ -275,6 +343,7 @@ public class RoleService {
         role.removePermission(permission);
         role.setUpdatedBy(updatedBy);
         roleRepository.save(role);
+        effectivePermissionCache.evictRoles(roleRepository.findSubtreeRoleIds(roleId));
 
         logger.info("Permission removed successfully: {} from role: {}", permissionId, roleId);
     }
@@ -303,6 +372,7 @@ public class RoleService {
         role.setPermissions(permissions);
         role.setUpdatedBy(updatedBy);
         roleRepository.save(role);
+        effectivePermissionCache.evictRoles(roleRepository.findSubtreeRoleIds(roleId));
 
         logger.info("Permissions set successfully for role: {}", roleId);
     }
@@ -310,62 +380,49 @@ public class RoleService {
     // ==================== Effective Permissions Calculation ====================
 
     /**
-     * Calculate effective permissions for a user (including inherited permissions)
+     * Calculate effective permissions for a user (including inherited permissions), resolved in one
+     * query through the role closure
      */
     public Set<Permission> calculateEffectivePermissions(UUID userId) {
         logger.debug("Calculating effective permissions for user: {}", userId);
 
-        List<UserRole> activeUserRoles = userRoleRepository.findActiveUserRoles(userId, LocalDateTime.now());
-        Set<Permission> effectivePermissions = new HashSet<>();
-
-        for (UserRole userRole : activeUserRoles) {
-            Role role = roleRepository.findById(userRole.getRoleId()).orElse(null);
-            if (role != null && Boolean.TRUE.equals(role.getIsActive())) {
-                // Add direct permissions
-                effectivePermissions.addAll(role.getPermissions());
-                
-                // Add inherited permissions from parent roles
-                effectivePermissions.addAll(getInheritedPermissions(role));
-            }
-        }
+        Set<Permission> effectivePermissions =
+                new HashSet<>(permissionRepository.findEffectivePermissions(userId, LocalDateTime.now()));
 
         logger.debug("Calculated {} effective permissions for user: {}", effectivePermissions.size(), userId);
         return effectivePermissions;
     }
 
-    /**
-     * Get inherited permissions from role hierarchy
-     */
-    private Set<Permission> getInheritedPermissions(Role role) {
-        Set<Permission> inheritedPermissions = new HashSet<>();
-        
-        if (role.getParentRoleId() != null) {
-            Role parentRole = roleRepository.findById(role.getParentRoleId()).orElse(null);
-            if (parentRole != null && Boolean.TRUE.equals(parentRole.getIsActive())) {
-                inheritedPermissions.addAll(parentRole.getPermissions());
-                inheritedPermissions.addAll(getInheritedPermissions(parentRole)); // Recursive
-            }
-        }
-        
-        return inheritedPermissions;
-    }
-
     /**
      * Check if user has specific permission
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean userHasPermission(UUID userId, String resource, String action) {
-        Set<Permission> effectivePermissions = calculateEffectivePermissions(userId);
-        return effectivePermissions.stream()
-                .anyMatch(p -> p.matches(resource, action));
+        return getEffectivePermissionSet(userId).has(resource, action);
     }
 
     /**
      * Check if user has any permission for resource
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean userHasResourceAccess(UUID userId, String resource) {
-        Set<Permission> effectivePermissions = calculateEffectivePermissions(userId);
-        return effectivePermissions.stream()
-                .anyMatch(p -> p.getResource().equals(resource));
+        return getEffectivePermissionSet(userId).hasAnyOn(resource);
+    }
+
+    /**
+     * Cached effective permissions of a user, loaded on a miss with two queries
+     */
+    private EffectivePermissionCache.PermissionSet getEffectivePermissionSet(UUID userId) {
+        EffectivePermissionCache.PermissionSet cached = effectivePermissionCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadEpoch = effectivePermissionCache.currentEpoch();
+        LocalDateTime now = LocalDateTime.now();
+        return effectivePermissionCache.put(userId, loadEpoch,
+                permissionRepository.findEffectivePermissions(userId, now),
+                userRoleRepository.findActiveUserRoles(userId, now));
     }
 
     // ==================== Role Hierarchy Management ====================
@@ -500,6 +557,7 @@ public class RoleService {
      */
     public void processExpiredRoleAssignments() {
         logger.info("Processing expired role assignments");
+        // Cached permission sets already lapse at the earliest expiry of their assignments
         userRoleRepository.deactivateExpiredRoles(LocalDateTime.now());
         logger.info("Expired role assignments processed");
     }
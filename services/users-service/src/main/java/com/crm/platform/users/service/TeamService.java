@@ -13,7 +13,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -22,7 +24,11 @@ import java.util.stream.Collectors;
 
 /**
  * Service for team management including creation, member management, 
- * permissions, and analytics
+ * permissions, and analytics.
+ *
+ * The hierarchy is indexed by the team_closure table, and every team carries member and activity
+ * aggregates over its subtree. Both are maintained here in the transaction of the change that
+ * affects them, so subtree queries are a single indexed lookup at any depth.
  */
 @Service
 @Transactional
@@ -34,17 +40,20 @@ public class TeamService {
     private final TeamMemberRepository teamMemberRepository;
     private final RoleService roleService;
     private final UserAuditService userAuditService;
+    private final ActivityTracker activityTracker;
     private final ObjectMapper objectMapper;
 
     @Autowired
     public TeamService(TeamRepository teamRepository,
                       TeamMemberRepository teamMemberRepository,
                       RoleService roleService,
-                      UserAuditService userAuditService) {
+                      UserAuditService userAuditService,
+                      ActivityTracker activityTracker) {
         this.teamRepository = teamRepository;
         this.teamMemberRepository = teamMemberRepository;
         this.roleService = roleService;
         this.userAuditService = userAuditService;
+        this.activityTracker = activityTracker;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -70,8 +79,9 @@ public class TeamService {
         team.setCreatedBy(createdBy);
 
         // Handle hierarchy
+        Team parentTeam = null;
         if (parentTeamId != null) {
-            Team parentTeam = teamRepository.findById(parentTeamId)
+            parentTeam = teamRepository.findById(parentTeamId)
                     .orElseThrow(() -> new IllegalArgumentException("Parent team not found"));
             
             if (!parentTeam.getTenantId().equals(tenantId)) {
@@ -80,17 +90,20 @@ public class TeamService {
 
             team.setParentTeamId(parentTeamId);
             team.setHierarchyLevel(parentTeam.getHierarchyLevel() + 1);
-            team.setHierarchyPath(parentTeam.getHierarchyPath() + team.getId() + "/");
         } else {
             team.setHierarchyLevel(0);
         }
 
-        Team savedTeam = teamRepository.save(team);
+        Team savedTeam = teamRepository.saveAndFlush(team);
 
         // Update hierarchy path after save (when ID is available)
-        if (parentTeamId == null) {
-            savedTeam.setHierarchyPath("/" + savedTeam.getId() + "/");
-            savedTeam = teamRepository.save(savedTeam);
+        savedTeam.setHierarchyPath(childPath(parentTeam, savedTeam.getId()));
+        savedTeam = teamRepository.save(savedTeam);
+
+        // Maintain the closure: the team itself, then every ancestor through its parent
+        teamRepository.insertSelfClosure(savedTeam.getId());
+        if (parentTeamId != null) {
+            teamRepository.attachClosureSubtree(savedTeam.getId(), parentTeamId);
         }
 
         // Add manager as team member if specified
@@ -103,6 +116,71 @@ public class TeamService {
         return savedTeam;
     }
 
+    /**
+     * Move a team, together with its descendants, under a new parent (or to the top level when
+     * newParentTeamId is null). The subtree's aggregates move with it.
+     */
+    public Team moveTeam(UUID teamId, UUID newParentTeamId, UUID updatedBy, HttpServletRequest request) {
+        logger.info("Moving team: {} under parent: {}", teamId, newParentTeamId);
+
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+
+        if (Objects.equals(team.getParentTeamId(), newParentTeamId)) {
+            return team;
+        }
+
+        Team newParent = null;
+        if (newParentTeamId != null) {
+            newParent = teamRepository.findById(newParentTeamId)
+                    .orElseThrow(() -> new IllegalArgumentException("Parent team not found"));
+
+            if (!newParent.getTenantId().equals(team.getTenantId())) {
+                throw new IllegalArgumentException("Parent team must be in the same tenant");
+            }
+            if (teamRepository.isAncestorOf(teamId, newParentTeamId)) {
+                throw new IllegalArgumentException("Cannot move a team under itself or one of its descendants");
+            }
+        }
+
+        UUID oldParentTeamId = team.getParentTeamId();
+        String oldPath = team.getHierarchyPath();
+        int oldLevel = team.getHierarchyLevel() != null ? team.getHierarchyLevel() : 0;
+        int newLevel = newParent != null ? newParent.getHierarchyLevel() + 1 : 0;
+        int members = team.getSubtreeMemberCount() != null ? team.getSubtreeMemberCount() : 0;
+        int activeMembers = team.getSubtreeActiveMemberCount() != null ? team.getSubtreeActiveMemberCount() : 0;
+        LocalDateTime lastActivity = team.getSubtreeLastActivityAt();
+        List<UUID> oldAncestors = teamRepository.findAncestorTeamIds(teamId);
+
+        team.setParentTeamId(newParentTeamId);
+        team.setUpdatedBy(updatedBy);
+        teamRepository.saveAndFlush(team);
+
+        // Take the subtree's aggregates out of the old branch, then relink and add them to the new one
+        if (oldParentTeamId != null) {
+            teamRepository.applySubtreeDelta(oldParentTeamId, -members, -activeMembers, null);
+        }
+        // Rewrites the moved team's own row too; it is reloaded below
+        teamRepository.rewriteSubtreePaths(teamId, childPath(newParent, teamId),
+                oldPath != null ? oldPath.length() : 0, newLevel - oldLevel);
+        teamRepository.detachClosureSubtree(teamId);
+        if (newParentTeamId != null) {
+            teamRepository.attachClosureSubtree(teamId, newParentTeamId);
+            teamRepository.applySubtreeDelta(newParentTeamId, members, activeMembers, lastActivity);
+        }
+        if (!oldAncestors.isEmpty()) {
+            teamRepository.recomputeSubtreeLastActivity(oldAncestors);
+        }
+
+        logger.info("Team moved successfully: {}", teamId);
+        return teamRepository.findById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+    }
+
+    private String childPath(Team parent, UUID teamId) {
+        return (parent != null ? parent.getHierarchyPath() : "/") + teamId + "/";
+    }
+
     /**
      * Update team
      */
@@ -152,9 +230,8 @@ public class TeamService {
                     "Please remove all members first.");
         }
 
-        // Check if team has child teams
-        List<Team> childTeams = teamRepository.findByParentTeamIdAndStatus(teamId, Team.TeamStatus.ACTIVE);
-        if (!childTeams.isEmpty()) {
+        // Check if team has active teams anywhere below it
+        if (teamRepository.existsDescendantWithStatus(teamId, Team.TeamStatus.ACTIVE.name())) {
             throw new IllegalArgumentException("Cannot delete team with child teams. " +
                     "Please delete or reassign child teams first.");
         }
@@ -211,8 +288,10 @@ public class TeamService {
             teamMemberRepository.setPrimaryTeamForUser(teamId, userId);
         }
 
-        // Update team activity
-        teamRepository.updateLastActivityTime(teamId, LocalDateTime.now());
+        // Update team activity and the aggregates of the team's branch
+        LocalDateTime now = LocalDateTime.now();
+        activityTracker.recordTeamActivity(teamId, now);
+        teamRepository.applySubtreeDelta(teamId, 1, 1, now);
 
         logger.info("Member added successfully: {} to team: {}", userId, teamId);
         return savedMember;
@@ -238,8 +317,10 @@ public class TeamService {
         // Update team member count
         updateTeamMemberCounts(teamId);
 
-        // Update team activity
-        teamRepository.updateLastActivityTime(teamId, LocalDateTime.now());
+        // Update team activity and the aggregates of the team's branch
+        LocalDateTime now = LocalDateTime.now();
+        activityTracker.recordTeamActivity(teamId, now);
+        teamRepository.applySubtreeDelta(teamId, -1, -1, now);
 
         logger.info("Member removed successfully: {} from team: {}", userId, teamId);
     }
@@ -348,10 +429,46 @@ public class TeamService {
      * Get descendant teams (all levels)
      */
     public List<Team> getDescendantTeams(UUID teamId) {
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+        if (!teamRepository.existsById(teamId)) {
+            throw new IllegalArgumentException("Team not found with ID: " + teamId);
+        }
         
-        return teamRepository.findDescendantTeams(team.getHierarchyPath(), Team.TeamStatus.ACTIVE);
+        return teamRepository.findDescendantTeamsByClosure(teamId, Team.TeamStatus.ACTIVE.name());
+    }
+
+    /**
+     * Get the active members of a team and all of its descendant teams
+     */
+    @Transactional(readOnly = true)
+    public Page<TeamMember> getSubtreeMembers(UUID teamId, Pageable pageable) {
+        return teamMemberRepository.findSubtreeMembers(teamId, TeamMember.MemberStatus.ACTIVE.name(), pageable);
+    }
+
+    /**
+     * Get the distinct users with an active membership in a team or any of its descendant teams
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> getSubtreeMemberUserIds(UUID teamId) {
+        return teamMemberRepository.findSubtreeMemberUserIds(teamId, TeamMember.MemberStatus.ACTIVE.name());
+    }
+
+    /**
+     * Recompute the subtree aggregates of every tenant, correcting drift from changes made outside
+     * this service. Each tenant is reconciled in its own transaction.
+     */
+    @Scheduled(cron = "0 15 3 * * ?") // Run daily at 3:15 AM
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileSubtreeAggregates() {
+        try {
+            for (UUID tenantId : teamRepository.findAllTenantIds()) {
+                int corrected = teamRepository.reconcileSubtreeAggregates(tenantId);
+                if (corrected > 0) {
+                    logger.warn("Corrected subtree aggregates of {} teams in tenant: {}", corrected, tenantId);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error reconciling team subtree aggregates", e);
+        }
     }
 
     // ==================== Team Statistics and Analytics ====================
@@ -395,6 +512,11 @@ public class TeamService {
         stats.put("budget", team.getBudget());
         stats.put("isAtCapacity", team.isAtCapacity());
 
+        // Whole-branch metrics, maintained incrementally
+        stats.put("subtreeMemberCount", team.getSubtreeMemberCount());
+        stats.put("subtreeActiveMemberCount", team.getSubtreeActiveMemberCount());
+        stats.put("subtreeLastActivityAt", team.getSubtreeLastActivityAt());
+
         // Activity metrics
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
         List<TeamMember> recentlyActive = teamMemberRepository.findMembersWithRecentActivity(
@@ -4,45 +4,76 @@ import com.crm.platform.users.entity.User;
 import com.crm.platform.users.entity.UserAuditLog;
 import com.crm.platform.users.repository.UserAuditLogRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.lang.reflect.Field;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
 
 /**
- * Service for managing user audit trails and change tracking
+ * Service for managing user audit trails and change tracking.
+ *
+ * Each change event is one audit row; an update to several fields carries the whole field diff in
+ * the changes column. Entries are queued on {@link AuditLogWriter} and written in batches off the
+ * request thread. Readers get per-field history, expanded from the diff.
  */
 @Service
 public class UserAuditService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserAuditService.class);
 
+    private static final String AUDIT_TABLE = "user_audit_logs";
+
+    private static final TypeReference<Map<String, List<String>>> CHANGES_TYPE = new TypeReference<>() {};
+
     private final UserAuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
 
+    @Value("${app.audit.retention-days:365}")
+    private int retentionDays;
+
+    @Value("${app.audit.partitions-ahead-months:3}")
+    private int partitionsAheadMonths;
+
+    @Value("${app.audit.default-lookback-days:30}")
+    private int defaultLookbackDays;
+
+    @Value("${app.audit.cleanup-batch-size:5000}")
+    private int cleanupBatchSize;
+
     @Autowired
-    public UserAuditService(UserAuditLogRepository auditLogRepository) {
+    public UserAuditService(UserAuditLogRepository auditLogRepository, AuditLogWriter auditLogWriter,
+                            JdbcTemplate jdbcTemplate) {
         this.auditLogRepository = auditLogRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = new ObjectMapper();
     }
 
     /**
      * Log user creation
      */
-    @Async
     public void logUserCreation(User user, UUID performedBy, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             user.getId(), 
@@ -67,75 +98,82 @@ public class UserAuditService {
             logger.warn("Failed to serialize user data for audit log", e);
         }
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged user creation for user: {}", user.getId());
     }
 
     /**
-     * Log user update with field-level changes
+     * Log user update as one entry carrying the diff of every changed field
      */
-    @Async
     public void logUserUpdate(User oldUser, User newUser, UUID performedBy, HttpServletRequest request) {
-        // Compare fields and log changes
+        if (oldUser == null || newUser == null) {
+            return;
+        }
         Map<String, Object> changes = compareUsers(oldUser, newUser);
         
         if (changes.isEmpty()) {
             return; // No changes to log
         }
 
-        for (Map.Entry<String, Object> change : changes.entrySet()) {
-            String fieldName = change.getKey();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> fieldChange = (Map<String, Object>) change.getValue();
-            
-            UserAuditLog auditLog = new UserAuditLog(
-                newUser.getId(),
-                newUser.getTenantId(),
-                UserAuditLog.ACTION_UPDATE,
-                fieldName,
-                String.valueOf(fieldChange.get("oldValue")),
-                String.valueOf(fieldChange.get("newValue")),
-                performedBy
-            );
-            
-            auditLog.setDescription("User field updated: " + fieldName);
-            setRequestInfo(auditLog, request);
-            auditLog.setSeverity(UserAuditLog.AuditSeverity.INFO);
-            
-            auditLogRepository.save(auditLog);
-        }
+        UserAuditLog auditLog = new UserAuditLog(
+            newUser.getId(),
+            newUser.getTenantId(),
+            UserAuditLog.ACTION_UPDATE,
+            "User fields updated: " + String.join(", ", new TreeSet<>(changes.keySet())),
+            performedBy
+        );
+        auditLog.setChanges(encodeChanges(changes));
+        setRequestInfo(auditLog, request);
+        auditLog.setSeverity(UserAuditLog.AuditSeverity.INFO);
         
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged user update for user: {} with {} field changes", newUser.getId(), changes.size());
     }
 
+    /**
+     * Log role assignment or removal
+     */
+    public void logRoleChange(UUID userId, UUID tenantId, UUID roleId, boolean assigned,
+                              UUID performedBy, HttpServletRequest request) {
+        UserAuditLog auditLog = new UserAuditLog(
+            userId,
+            tenantId,
+            UserAuditLog.ACTION_ROLE_CHANGE,
+            "Role " + roleId + (assigned ? " assigned" : " removed"),
+            performedBy
+        );
+        auditLog.setChanges(encodeChange("role", assigned ? null : roleId, assigned ? roleId : null));
+        setRequestInfo(auditLog, request);
+        auditLog.setSeverity(UserAuditLog.AuditSeverity.MEDIUM);
+
+        auditLogWriter.enqueue(auditLog);
+        logger.debug("Logged role {} for user: {}", assigned ? "assignment" : "removal", userId);
+    }
+
     /**
      * Log user status change
      */
-    @Async
     public void logUserStatusChange(User user, User.UserStatus oldStatus, User.UserStatus newStatus, 
                                    UUID performedBy, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             user.getId(),
             user.getTenantId(),
             UserAuditLog.ACTION_STATUS_CHANGE,
-            "status",
-            oldStatus != null ? oldStatus.name() : null,
-            newStatus.name(),
+            "User status changed from " + oldStatus + " to " + newStatus,
             performedBy
         );
         
-        auditLog.setDescription("User status changed from " + oldStatus + " to " + newStatus);
+        auditLog.setChanges(encodeChange("status", oldStatus, newStatus));
         setRequestInfo(auditLog, request);
         auditLog.setSeverity(UserAuditLog.AuditSeverity.MEDIUM);
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged status change for user: {} from {} to {}", user.getId(), oldStatus, newStatus);
     }
 
     /**
      * Log user deletion
      */
-    @Async
     public void logUserDeletion(User user, UUID performedBy, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             user.getId(),
@@ -158,14 +196,13 @@ public class UserAuditService {
             logger.warn("Failed to serialize user data for deletion audit log", e);
         }
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged user deletion for user: {}", user.getId());
     }
 
     /**
      * Log user login
      */
-    @Async
     public void logUserLogin(UUID userId, UUID tenantId, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             userId,
@@ -178,14 +215,13 @@ public class UserAuditService {
         setRequestInfo(auditLog, request);
         auditLog.setSeverity(UserAuditLog.AuditSeverity.INFO);
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged user login for user: {}", userId);
     }
 
     /**
      * Log user logout
      */
-    @Async
     public void logUserLogout(UUID userId, UUID tenantId, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             userId,
@@ -198,14 +234,13 @@ public class UserAuditService {
         setRequestInfo(auditLog, request);
         auditLog.setSeverity(UserAuditLog.AuditSeverity.INFO);
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged user logout for user: {}", userId);
     }
 
     /**
      * Log GDPR consent change
      */
-    @Async
     public void logGdprConsentChange(UUID userId, UUID tenantId, boolean consentGiven, UUID performedBy, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             userId,
@@ -215,19 +250,17 @@ public class UserAuditService {
             performedBy
         );
         
-        auditLog.setFieldName("gdprConsentGiven");
-        auditLog.setNewValue(String.valueOf(consentGiven));
+        auditLog.setChanges(encodeChange("gdprConsentGiven", !consentGiven, consentGiven));
         setRequestInfo(auditLog, request);
         auditLog.setSeverity(UserAuditLog.AuditSeverity.MEDIUM);
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged GDPR consent change for user: {} to {}", userId, consentGiven);
     }
 
     /**
      * Log data export request
      */
-    @Async
     public void logDataExportRequest(UUID userId, UUID tenantId, UUID performedBy, HttpServletRequest request) {
         UserAuditLog auditLog = new UserAuditLog(
             userId,
@@ -240,22 +273,46 @@ public class UserAuditService {
         setRequestInfo(auditLog, request);
         auditLog.setSeverity(UserAuditLog.AuditSeverity.MEDIUM);
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(auditLog);
         logger.debug("Logged data export request for user: {}", userId);
     }
 
     /**
-     * Get audit logs for a user
+     * Write a set of audit entries with one JDBC batch, in the caller's transaction. Used by bulk
+     * operations, which commit their changes and the matching audit rows together.
+     */
+    public int logBatch(List<UserAuditLog> auditLogs) {
+        auditLogWriter.writeBatch(auditLogs);
+        logger.debug("Logged {} audit entries in one batch", auditLogs.size());
+        return auditLogs.size();
+    }
+
+    /**
+     * Capture the client details of a request, for audit entries written after the request has
+     * completed (the servlet request must not be read from another thread)
+     */
+    public RequestInfo captureRequestInfo(HttpServletRequest request) {
+        UserAuditLog holder = new UserAuditLog();
+        setRequestInfo(holder, request);
+        return new RequestInfo(holder.getIpAddress(), holder.getUserAgent(), holder.getSessionId());
+    }
+
+    /**
+     * Get recent audit logs for a user (last app.audit.default-lookback-days)
      */
     public Page<UserAuditLog> getUserAuditLogs(UUID userId, Pageable pageable) {
-        return auditLogRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+        LocalDateTime now = LocalDateTime.now();
+        return expandChanges(auditLogRepository.findByUserIdAndDateRange(
+            userId, now.minusDays(defaultLookbackDays), now, pageable));
     }
 
     /**
-     * Get audit logs for a tenant
+     * Get recent audit logs for a tenant (last app.audit.default-lookback-days)
      */
     public Page<UserAuditLog> getTenantAuditLogs(UUID tenantId, Pageable pageable) {
-        return auditLogRepository.findByTenantIdOrderByCreatedAtDesc(tenantId, pageable);
+        LocalDateTime now = LocalDateTime.now();
+        return expandChanges(auditLogRepository.findByTenantIdAndDateRange(
+            tenantId, now.minusDays(defaultLookbackDays), now, pageable));
     }
 
     /**
@@ -263,7 +320,7 @@ public class UserAuditService {
      */
     public Page<UserAuditLog> getAuditLogsByDateRange(UUID tenantId, LocalDateTime startDate, 
                                                      LocalDateTime endDate, Pageable pageable) {
-        return auditLogRepository.findByTenantIdAndDateRange(tenantId, startDate, endDate, pageable);
+        return expandChanges(auditLogRepository.findByTenantIdAndDateRange(tenantId, startDate, endDate, pageable));
     }
 
     /**
@@ -281,11 +338,41 @@ public class UserAuditService {
     }
 
     /**
-     * Clean up old audit logs
+     * Create upcoming monthly partitions and apply the retention policy
+     */
+    @Scheduled(cron = "0 30 2 * * ?") // Run daily at 2:30 AM
+    public void maintainAuditLogPartitions() {
+        try {
+            Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_monthly_partitions(?, ?)", Integer.class, AUDIT_TABLE, partitionsAheadMonths);
+            if (created != null && created > 0) {
+                logger.info("Created {} audit log partitions", created);
+            }
+            cleanupOldAuditLogs(LocalDateTime.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            logger.error("Error maintaining audit log partitions", e);
+        }
+    }
+
+    /**
+     * Clean up old audit logs. Whole months are dropped as partitions; only rows in the partly
+     * expired month and the default partition are deleted row by row, in batches of
+     * app.audit.cleanup-batch-size that each commit on their own.
      */
     public void cleanupOldAuditLogs(LocalDateTime cutoffDate) {
-        auditLogRepository.deleteOldAuditLogs(cutoffDate);
-        logger.info("Cleaned up audit logs older than {}", cutoffDate);
+        Integer dropped = jdbcTemplate.queryForObject(
+            "SELECT drop_monthly_partitions_before(?, ?)", Integer.class, AUDIT_TABLE, cutoffDate);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(
+                "DELETE FROM user_audit_logs WHERE created_at < ? AND (id, created_at) IN " +
+                "(SELECT id, created_at FROM user_audit_logs WHERE created_at < ? LIMIT ?)",
+                cutoffDate, cutoffDate, cleanupBatchSize);
+            deleted += batch;
+        } while (batch == cleanupBatchSize);
+        logger.info("Cleaned up audit logs older than {}: {} partitions dropped, {} rows deleted",
+                   cutoffDate, dropped, deleted);
     }
 
     // Private helper methods
@@ -312,6 +399,80 @@ public class UserAuditService {
         return request.getRemoteAddr();
     }
 
+    /**
+     * Expand change events into one entry per changed field, carrying fieldName, oldValue and
+     * newValue as entries written before change events did. Paging still counts change events;
+     * the entries of one event share its id.
+     */
+    private Page<UserAuditLog> expandChanges(Page<UserAuditLog> page) {
+        List<UserAuditLog> expanded = new ArrayList<>(page.getNumberOfElements());
+        for (UserAuditLog auditLog : page.getContent()) {
+            if (!StringUtils.hasText(auditLog.getChanges())) {
+                expanded.add(auditLog);
+                continue;
+            }
+            try {
+                Map<String, List<String>> changes = objectMapper.readValue(auditLog.getChanges(), CHANGES_TYPE);
+                for (Map.Entry<String, List<String>> change : changes.entrySet()) {
+                    expanded.add(fieldEntry(auditLog, change.getKey(), change.getValue()));
+                }
+            } catch (JsonProcessingException e) {
+                logger.warn("Unreadable changes on audit entry {}: {}", auditLog.getId(), e.getMessage());
+                expanded.add(auditLog);
+            }
+        }
+        return new PageImpl<>(expanded, page.getPageable(), page.getTotalElements());
+    }
+
+    private UserAuditLog fieldEntry(UserAuditLog event, String fieldName, List<String> values) {
+        UserAuditLog entry = new UserAuditLog(event.getUserId(), event.getTenantId(), event.getAction(), fieldName,
+                                              values.size() > 0 ? values.get(0) : null,
+                                              values.size() > 1 ? values.get(1) : null,
+                                              event.getPerformedBy());
+        entry.setId(event.getId());
+        entry.setEntityType(event.getEntityType());
+        entry.setDescription(event.getDescription());
+        entry.setIpAddress(event.getIpAddress());
+        entry.setUserAgent(event.getUserAgent());
+        entry.setSessionId(event.getSessionId());
+        entry.setSeverity(event.getSeverity());
+        entry.setAdditionalData(event.getAdditionalData());
+        entry.setCreatedAt(event.getCreatedAt());
+        return entry;
+    }
+
+    /**
+     * Diff of a single field in the changes format
+     */
+    public String encodeChange(String fieldName, Object oldValue, Object newValue) {
+        Map<String, Object> change = new HashMap<>();
+        change.put("oldValue", oldValue);
+        change.put("newValue", newValue);
+        return encodeChanges(Map.<String, Object>of(fieldName, change));
+    }
+
+    /**
+     * Encode compareUsers output as {"field": [old, new], ...}, fields in name order
+     */
+    public String encodeChanges(Map<String, Object> changes) {
+        Map<String, List<String>> diff = new TreeMap<>();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> fieldChange = (Map<String, Object>) change.getValue();
+            Object oldValue = fieldChange.get("oldValue");
+            Object newValue = fieldChange.get("newValue");
+            diff.put(change.getKey(), Arrays.asList(
+                oldValue != null ? String.valueOf(oldValue) : null,
+                newValue != null ? String.valueOf(newValue) : null));
+        }
+        try {
+            return objectMapper.writeValueAsString(diff);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize audit changes", e);
+            return null;
+        }
+    }
+
     private Map<String, Object> compareUsers(User oldUser, User newUser) {
         Map<String, Object> changes = new HashMap<>();
         
@@ -345,4 +506,29 @@ public class UserAuditService {
             changes.put(fieldName, change);
         }
     }
+
+    /**
+     * Client details of a request, detached from the servlet request
+     */
+    public static class RequestInfo {
+        private final String ipAddress;
+        private final String userAgent;
+        private final String sessionId;
+
+        public RequestInfo(String ipAddress, String userAgent, String sessionId) {
+            this.ipAddress = ipAddress;
+            this.userAgent = userAgent;
+            this.sessionId = sessionId;
+        }
+
+        public void applyTo(UserAuditLog auditLog) {
+            auditLog.setIpAddress(ipAddress);
+            auditLog.setUserAgent(userAgent);
+            auditLog.setSessionId(sessionId);
+        }
+
+        public String getIpAddress() { return ipAddress; }
+        public String getUserAgent() { return userAgent; }
+        public String getSessionId() { return sessionId; }
+    }
 }
\ No newline at end of file
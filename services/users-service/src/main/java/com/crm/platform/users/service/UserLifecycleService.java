@@ -1,6 +1,7 @@
 package com.crm.platform.users.service;
 
 import com.crm.platform.users.entity.User;
+import com.crm.platform.users.entity.UserAuditLog;
 import com.crm.platform.users.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,10 +9,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -25,8 +32,14 @@ public class UserLifecycleService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserLifecycleService.class);
 
+    private static final String INACTIVE_USERS_SWEEP = "INACTIVE_USERS";
+    private static final String SCHEDULED_DELETIONS_SWEEP = "SCHEDULED_DELETIONS";
+
     private final UserRepository userRepository;
     private final UserAuditService userAuditService;
+    private final ActivityTracker activityTracker;
+    private final LifecycleSweepRunner sweepRunner;
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
 
     @Value("${app.user.onboarding.steps:5}")
@@ -35,10 +48,18 @@ public class UserLifecycleService {
     @Value("${app.user.data-retention.days:2555}") // 7 years default
     private int dataRetentionDays;
 
+    @Value("${app.user.lifecycle.inactive-after-days:0}") // 0 disables deactivation
+    private int inactiveAfterDays;
+
     @Autowired
-    public UserLifecycleService(UserRepository userRepository, UserAuditService userAuditService) {
+    public UserLifecycleService(UserRepository userRepository, UserAuditService userAuditService,
+                                ActivityTracker activityTracker, LifecycleSweepRunner sweepRunner,
+                                JdbcTemplate jdbcTemplate) {
         this.userRepository = userRepository;
         this.userAuditService = userAuditService;
+        this.activityTracker = activityTracker;
+        this.sweepRunner = sweepRunner;
+        this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -240,7 +261,12 @@ public class UserLifecycleService {
         
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
-        
+        anonymize(user, performedBy, request);
+    }
+
+    private void anonymize(User user, UUID performedBy, HttpServletRequest request) {
+        UUID userId = user.getId();
+
         // Store original data for audit
         User originalUser = new User();
         // Copy original data for audit logging
@@ -330,33 +356,94 @@ public class UserLifecycleService {
     }
 
     /**
-     * Process users scheduled for deletion
+     * Anonymize users whose deletion grace period has passed, tenant by tenant. No copy of their
+     * data is exported first; a user who wants one has to request the export before the grace
+     * period ends.
      */
-    @Async
+    @Scheduled(cron = "0 15 1 * * ?") // Run daily at 1:15 AM
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processScheduledDeletions() {
         logger.info("Processing users scheduled for deletion");
-        
-        LocalDateTime now = LocalDateTime.now();
-        List<User> usersToDelete = userRepository.findUsersScheduledForDeletion(null, now);
-        
-        for (User user : usersToDelete) {
-            try {
-                // Prepare data transfer before anonymization
-                Map<String, Object> userData = prepareUserDataTransfer(user.getId());
-                
-                // TODO: Export user data to external system or file
-                
-                // Anonymize user data
-                anonymizeUserData(user.getId(), null, null);
-                
-                logger.info("Processed scheduled deletion for user: {}", user.getId());
-                
-            } catch (Exception e) {
-                logger.error("Error processing scheduled deletion for user: {}", user.getId(), e);
+
+        try {
+            long processed = sweepRunner.run(SCHEDULED_DELETIONS_SWEEP, LocalDateTime.now(),
+                                             userRepository::findUserIdsScheduledForDeletion,
+                                             this::anonymizeScheduledUsers);
+            logger.info("Completed processing {} scheduled deletions", processed);
+        } catch (Exception e) {
+            logger.error("Error processing scheduled deletions", e);
+        }
+    }
+
+    /**
+     * Anonymize a chunk of users due for deletion. The schedule is checked again, so users whose
+     * deletion was cancelled since the chunk was selected are left alone and not counted.
+     */
+    private int anonymizeScheduledUsers(UUID tenantId, List<UUID> userIds, LocalDateTime now) {
+        int anonymized = 0;
+        for (User user : userRepository.findAllById(userIds)) {
+            if (!Boolean.TRUE.equals(user.getDeletionRequested()) || user.getStatus() == User.UserStatus.DELETED
+                    || user.getDeletionScheduledAt() == null || user.getDeletionScheduledAt().isAfter(now)) {
+                continue;
             }
+            anonymize(user, null, null);
+            anonymized++;
         }
-        
-        logger.info("Completed processing {} scheduled deletions", usersToDelete.size());
+        return anonymized;
+    }
+
+    /**
+     * Deactivate active users without activity for app.user.lifecycle.inactive-after-days
+     */
+    @Scheduled(cron = "0 45 1 * * ?") // Run daily at 1:45 AM
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deactivateInactiveUsers() {
+        if (inactiveAfterDays <= 0) {
+            return;
+        }
+        logger.info("Deactivating users inactive for {} days", inactiveAfterDays);
+
+        try {
+            // Activity still coalesced in memory must not count as inactivity
+            activityTracker.flush();
+            long deactivated = sweepRunner.run(INACTIVE_USERS_SWEEP, LocalDateTime.now().minusDays(inactiveAfterDays),
+                                               userRepository::findInactiveUserIds, this::deactivateUsers);
+            logger.info("Deactivated {} inactive users", deactivated);
+        } catch (Exception e) {
+            logger.error("Error deactivating inactive users", e);
+        }
+    }
+
+    /**
+     * Set a chunk of users to INACTIVE in one statement and audit the ones that changed. The
+     * inactivity condition is checked again, so users active since the chunk was selected stay.
+     */
+    private int deactivateUsers(UUID tenantId, List<UUID> userIds, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+        String description = "Deactivated after " + inactiveAfterDays + " days without activity";
+        List<UserAuditLog> auditLogs = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "UPDATE users SET status = 'INACTIVE', updated_at = ? " +
+                "WHERE id = ANY(?) AND tenant_id = ? AND status = 'ACTIVE' AND last_activity_at < ? " +
+                "RETURNING id");
+            Array ids = con.createArrayOf("uuid", userIds.toArray());
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setArray(2, ids);
+            ps.setObject(3, tenantId);
+            ps.setTimestamp(4, Timestamp.valueOf(cutoff));
+            return ps;
+        }, (rs, rowNum) -> {
+            UserAuditLog auditLog = new UserAuditLog(rs.getObject(1, UUID.class), tenantId,
+                                                     UserAuditLog.ACTION_STATUS_CHANGE, description, null);
+            auditLog.setChanges(userAuditService.encodeChange("status",
+                                                              User.UserStatus.ACTIVE.name(),
+                                                              User.UserStatus.INACTIVE.name()));
+            auditLog.setSeverity(UserAuditLog.AuditSeverity.MEDIUM);
+            auditLog.setCreatedAt(now);
+            return auditLog;
+        });
+        userAuditService.logBatch(auditLogs);
+        return auditLogs.size();
     }
 
     /**
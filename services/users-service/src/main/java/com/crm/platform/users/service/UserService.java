@@ -1,9 +1,12 @@
 package com.crm.platform.users.service;
 
+import com.crm.platform.users.dto.BulkUserOperationRequest;
 import com.crm.platform.users.dto.CreateUserRequest;
 import com.crm.platform.users.dto.UpdateUserRequest;
+import com.crm.platform.users.dto.UserDirectoryEntry;
 import com.crm.platform.users.dto.UserResponse;
 import com.crm.platform.users.dto.UserStatisticsResponse;
+import com.crm.platform.users.entity.BulkUserOperation;
 import com.crm.platform.users.entity.User;
 import com.crm.platform.users.repository.UserRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -16,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -28,14 +32,27 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // Shortest term that forms a trigram; shorter terms are matched as prefixes only
+    private static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+    private static final int MAX_TYPEAHEAD_RESULTS = 50;
+
     private final UserRepository userRepository;
     private final UserAuditService userAuditService;
+    private final BulkUserOperationService bulkUserOperationService;
+    private final UserStatisticsService userStatisticsService;
+    private final ActivityTracker activityTracker;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserService(UserRepository userRepository, UserAuditService userAuditService) {
+    public UserService(UserRepository userRepository, UserAuditService userAuditService,
+                       BulkUserOperationService bulkUserOperationService,
+                       UserStatisticsService userStatisticsService,
+                       ActivityTracker activityTracker) {
         this.userRepository = userRepository;
         this.userAuditService = userAuditService;
+        this.bulkUserOperationService = bulkUserOperationService;
+        this.userStatisticsService = userStatisticsService;
+        this.activityTracker = activityTracker;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -113,8 +130,36 @@ public class UserService {
     @Transactional(readOnly = true)
     public Page<UserResponse> searchUsers(UUID tenantId, String search, Pageable pageable) {
         logger.debug("Searching users for tenant: {} with query: {}", tenantId, search);
-        return userRepository.searchUsers(tenantId, search, pageable)
-                .map(UserResponse::new);
+        String term = normalizeSearchTerm(search);
+        String pattern = escapeLikePattern(term);
+        // Terms shorter than a trigram cannot use the trigram index; match name and email prefixes instead
+        Page<User> users = term.length() < MIN_TRIGRAM_TERM_LENGTH
+                ? userRepository.searchUsersByPrefix(tenantId, pattern, relevancePage(pageable))
+                : userRepository.searchUsers(tenantId, term, pattern, relevancePage(pageable));
+        return users.map(UserResponse::new);
+    }
+
+    /**
+     * Type-ahead for user pickers: active users of the tenant whose name or email matches the term,
+     * best matches first. Results are lightweight entries, not full user responses.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDirectoryEntry> typeaheadUsers(UUID tenantId, String search, int limit) {
+        String term = normalizeSearchTerm(search);
+        if (term.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_TYPEAHEAD_RESULTS));
+        String pattern = escapeLikePattern(term);
+
+        List<Object[]> rows = term.length() < MIN_TRIGRAM_TERM_LENGTH
+                ? userRepository.typeaheadUsersByPrefix(tenantId, pattern, boundedLimit)
+                : userRepository.typeaheadUsers(tenantId, term, pattern, boundedLimit);
+
+        return rows.stream()
+                .map(row -> new UserDirectoryEntry((UUID) row[0], (String) row[1], (String) row[2], (String) row[3],
+                                                   (String) row[4], (String) row[5], (String) row[6]))
+                .collect(Collectors.toList());
     }
 
     public UserResponse updateUser(UUID userId, UpdateUserRequest request) {
@@ -157,9 +202,13 @@ public class UserService {
         return new UserResponse(updatedUser);
     }
 
+    /**
+     * Record activity of a user. The timestamp is written by the activity tracker's next flush.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateLastActivity(UUID userId) {
         logger.debug("Updating last activity for user: {}", userId);
-        userRepository.updateLastActivityTime(userId, LocalDateTime.now());
+        activityTracker.recordUserActivity(userId, LocalDateTime.now());
     }
 
     public void updateUserStatus(UUID userId, User.UserStatus status) {
@@ -198,7 +247,8 @@ public class UserService {
     @Transactional(readOnly = true)
     public Page<UserResponse> searchUsersAdvanced(UUID tenantId, String search, Pageable pageable) {
         logger.debug("Advanced search for users in tenant: {} with query: {}", tenantId, search);
-        return userRepository.searchUsersAdvanced(tenantId, search, pageable)
+        String term = normalizeSearchTerm(search);
+        return userRepository.searchUsersAdvanced(tenantId, term, escapeLikePattern(term), relevancePage(pageable))
                 .map(UserResponse::new);
     }
 
@@ -274,87 +324,70 @@ public class UserService {
 
     // User statistics and analytics
 
-    @Transactional(readOnly = true)
+    /**
+     * Dashboard statistics, read from the tenant's precomputed statistics row
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserStatisticsResponse getUserStatistics(UUID tenantId) {
-        logger.debug("Generating user statistics for tenant: {}", tenantId);
-        
-        UserStatisticsResponse stats = new UserStatisticsResponse();
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        
-        // Basic counts
-        stats.setTotalUsers(userRepository.countTotalUsersByTenant(tenantId));
-        stats.setActiveUsers(userRepository.countActiveUsersByTenant(tenantId));
-        stats.setInactiveUsers(userRepository.countByTenantIdAndStatus(tenantId, User.UserStatus.INACTIVE));
-        stats.setSuspendedUsers(userRepository.countByTenantIdAndStatus(tenantId, User.UserStatus.SUSPENDED));
-        stats.setUsersWithIncompleteOnboarding(userRepository.countUsersWithIncompleteOnboarding(tenantId));
-        
-        // Activity metrics
-        stats.setUsersActiveLast30Days(userRepository.countActiveUsersSince(tenantId, thirtyDaysAgo));
-        stats.setUsersLoggedInLast30Days(userRepository.countActiveUsersSince(tenantId, thirtyDaysAgo));
-        stats.setNewUsersLast30Days(userRepository.findUsersCreatedInPeriod(tenantId, thirtyDaysAgo, LocalDateTime.now()).size());
-        
-        // Department statistics
-        List<Object[]> deptStats = userRepository.getUserCountByDepartment(tenantId);
-        stats.setUsersByDepartment(deptStats.stream()
-                .map(row -> new UserStatisticsResponse.DepartmentStats((String) row[0], (Long) row[1]))
-                .collect(Collectors.toList()));
-        
-        // Job title statistics
-        List<Object[]> jobStats = userRepository.getUserCountByJobTitle(tenantId);
-        stats.setUsersByJobTitle(jobStats.stream()
-                .map(row -> new UserStatisticsResponse.JobTitleStats((String) row[0], (Long) row[1]))
-                .collect(Collectors.toList()));
-        
-        // Office location statistics
-        List<Object[]> locationStats = userRepository.getUserCountByOfficeLocation(tenantId);
-        stats.setUsersByOfficeLocation(locationStats.stream()
-                .map(row -> new UserStatisticsResponse.OfficeLocationStats((String) row[0], (Long) row[1]))
-                .collect(Collectors.toList()));
-        
-        // Calculate onboarding completion rate
-        long totalUsers = stats.getTotalUsers();
-        if (totalUsers > 0) {
-            stats.setOnboardingCompletionRate(
-                ((double) (totalUsers - stats.getUsersWithIncompleteOnboarding()) / totalUsers) * 100);
-        }
-        
-        return stats;
+        logger.debug("Reading user statistics for tenant: {}", tenantId);
+        return userStatisticsService.getUserStatistics(tenantId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserStatisticsResponse.DailyStats> getUserTrends(UUID tenantId, int days) {
+        return userStatisticsService.getDailyTrends(tenantId, days);
     }
 
     // Bulk operations
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void bulkUpdateStatus(List<UUID> userIds, User.UserStatus status, UUID performedBy, HttpServletRequest request) {
         logger.info("Bulk updating status for {} users to: {}", userIds.size(), status);
-        
-        // Get users before update for audit logging
-        List<User> users = userRepository.findAllById(userIds);
-        
-        userRepository.bulkUpdateStatus(userIds, status);
-        
-        // Log audit trail for each user
-        for (User user : users) {
-            userAuditService.logUserStatusChange(user, user.getStatus(), status, performedBy, request);
-        }
-        
-        logger.info("Bulk status update completed for {} users", userIds.size());
+        BulkUserOperationRequest bulkRequest = bulkRequest(userIds, BulkUserOperationRequest.BulkOperation.UPDATE_STATUS);
+        bulkRequest.setStatus(status);
+        runBulkOperation(bulkRequest, performedBy, request);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void bulkUpdateDepartment(List<UUID> userIds, String department, UUID performedBy, HttpServletRequest request) {
         logger.info("Bulk updating department for {} users to: {}", userIds.size(), department);
-        userRepository.bulkUpdateDepartment(userIds, department);
-        logger.info("Bulk department update completed for {} users", userIds.size());
+        BulkUserOperationRequest bulkRequest = bulkRequest(userIds, BulkUserOperationRequest.BulkOperation.UPDATE_DEPARTMENT);
+        bulkRequest.setDepartment(department);
+        runBulkOperation(bulkRequest, performedBy, request);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void bulkUpdateManager(List<UUID> userIds, UUID managerId, UUID performedBy, HttpServletRequest request) {
         logger.info("Bulk updating manager for {} users to: {}", userIds.size(), managerId);
-        userRepository.bulkUpdateManager(userIds, managerId);
-        logger.info("Bulk manager update completed for {} users", userIds.size());
+        BulkUserOperationRequest bulkRequest = bulkRequest(userIds, BulkUserOperationRequest.BulkOperation.UPDATE_MANAGER);
+        bulkRequest.setManagerId(managerId);
+        runBulkOperation(bulkRequest, performedBy, request);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void bulkUpdateTeam(List<UUID> userIds, UUID teamId, UUID performedBy, HttpServletRequest request) {
         logger.info("Bulk updating team for {} users to: {}", userIds.size(), teamId);
-        userRepository.bulkUpdateTeam(userIds, teamId);
-        logger.info("Bulk team update completed for {} users", userIds.size());
+        BulkUserOperationRequest bulkRequest = bulkRequest(userIds, BulkUserOperationRequest.BulkOperation.UPDATE_TEAM);
+        bulkRequest.setTeamId(teamId);
+        runBulkOperation(bulkRequest, performedBy, request);
+    }
+
+    private BulkUserOperationRequest bulkRequest(List<UUID> userIds, BulkUserOperationRequest.BulkOperation operation) {
+        BulkUserOperationRequest bulkRequest = new BulkUserOperationRequest();
+        bulkRequest.setUserIds(userIds);
+        bulkRequest.setOperation(operation);
+        return bulkRequest;
+    }
+
+    private void runBulkOperation(BulkUserOperationRequest bulkRequest, UUID performedBy, HttpServletRequest request) {
+        BulkUserOperation operation = bulkUserOperationService.createOperation(bulkRequest, null, performedBy);
+        BulkUserOperation result = bulkUserOperationService.execute(
+                operation.getId(), bulkRequest, performedBy, userAuditService.captureRequestInfo(request));
+        if (result.getStatus() == BulkUserOperation.OperationStatus.FAILED) {
+            throw new IllegalStateException("Bulk operation failed: " + result.getErrorMessage());
+        }
+        logger.info("Bulk {} completed: {} of {} users changed", bulkRequest.getOperation(),
+                   result.getUpdatedCount(), result.getTotalCount());
     }
 
     // User hierarchy and relationships
@@ -520,4 +553,24 @@ public class UserService {
             return new HashMap<>();
         }
     }
-}
\ No newline at end of file
+
+    // Directory search helpers
+
+    private static String normalizeSearchTerm(String search) {
+        return search != null ? search.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Escape LIKE wildcards so that the term matches literally (backslash is the default escape)
+     */
+    private static String escapeLikePattern(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Search results are ordered by relevance, so only the page position of the request is kept
+     */
+    private static Pageable relevancePage(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+}
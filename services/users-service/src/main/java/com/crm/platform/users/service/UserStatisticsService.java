@@ -0,0 +1,176 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.dto.UserStatisticsResponse;
+import com.crm.platform.users.entity.TenantUserStats;
+import com.crm.platform.users.repository.TenantUserStatsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Tenant user statistics served from precomputed rows.
+ *
+ * Counters are kept current by triggers on users (V14); the last-30-days figures and the
+ * department, job title and office breakdowns are snapshots that the reconciliation job
+ * refreshes every 15 minutes, correcting any counter drift at the same time. A reconciliation
+ * locks the tenant's row before it counts, so that it neither overwrites the change of a user
+ * write it cannot see yet nor lets a later trigger apply a change it already counted.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatisticsService.class);
+
+    private static final int RECENT_DAYS = 30;
+    private static final int MAX_TREND_DAYS = 366;
+
+    private final TenantUserStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserStatisticsService(TenantUserStatsRepository statsRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Dashboard statistics of a tenant. A tenant without a statistics row yet is reconciled once.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserStatisticsResponse getUserStatistics(UUID tenantId) {
+        TenantUserStats row = statsRepository.findById(tenantId).orElse(null);
+        if (row == null) {
+            reconcileTenant(tenantId);
+            row = statsRepository.findById(tenantId).orElse(null);
+        }
+
+        UserStatisticsResponse stats = new UserStatisticsResponse();
+        if (row == null) {
+            return stats;
+        }
+
+        stats.setTotalUsers(row.getTotalUsers());
+        stats.setActiveUsers(row.getActiveUsers());
+        stats.setInactiveUsers(row.getInactiveUsers());
+        stats.setSuspendedUsers(row.getSuspendedUsers());
+        stats.setUsersWithIncompleteOnboarding(row.getIncompleteOnboardingUsers());
+        stats.setUsersActiveLast30Days(row.getUsersActiveLast30Days());
+        stats.setUsersLoggedInLast30Days(row.getUsersLoggedInLast30Days());
+        stats.setNewUsersLast30Days(statsRepository.sumNewUsersSince(tenantId, LocalDate.now().minusDays(RECENT_DAYS - 1)));
+        stats.setSnapshotAt(row.getSnapshotAt());
+
+        JsonNode breakdowns = readBreakdowns(row);
+        stats.setUsersByDepartment(breakdown(breakdowns, "departments", UserStatisticsResponse.DepartmentStats::new));
+        stats.setUsersByJobTitle(breakdown(breakdowns, "jobTitles", UserStatisticsResponse.JobTitleStats::new));
+        stats.setUsersByOfficeLocation(breakdown(breakdowns, "officeLocations", UserStatisticsResponse.OfficeLocationStats::new));
+
+        if (row.getTotalUsers() > 0) {
+            stats.setOnboardingCompletionRate(
+                ((double) (row.getTotalUsers() - row.getIncompleteOnboardingUsers()) / row.getTotalUsers()) * 100);
+        }
+        return stats;
+    }
+
+    /**
+     * New and active users per day over the last days, oldest first, with a zero entry for
+     * days without any
+     */
+    public List<UserStatisticsResponse.DailyStats> getDailyTrends(UUID tenantId, int days) {
+        int boundedDays = Math.max(1, Math.min(days, MAX_TREND_DAYS));
+        LocalDate today = LocalDate.now();
+        LocalDate fromDay = today.minusDays(boundedDays - 1);
+
+        Map<LocalDate, Object[]> rows = new HashMap<>();
+        for (Object[] row : statsRepository.findDailyStats(tenantId, fromDay, today)) {
+            rows.put(toLocalDate(row[0]), row);
+        }
+
+        List<UserStatisticsResponse.DailyStats> trend = new ArrayList<>(boundedDays);
+        for (LocalDate day = fromDay; !day.isAfter(today); day = day.plusDays(1)) {
+            Object[] row = rows.get(day);
+            trend.add(row != null
+                ? new UserStatisticsResponse.DailyStats(day, ((Number) row[1]).longValue(), ((Number) row[2]).longValue())
+                : new UserStatisticsResponse.DailyStats(day, 0, 0));
+        }
+        return trend;
+    }
+
+    /**
+     * Refresh every tenant's statistics row. Each tenant is reconciled in its own transaction.
+     */
+    @Scheduled(cron = "0 */15 * * * ?") // Run every 15 minutes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileStatistics() {
+        try {
+            List<UUID> tenantIds = statsRepository.findAllTenantIds();
+            for (UUID tenantId : tenantIds) {
+                reconcileTenant(tenantId);
+            }
+            logger.debug("Reconciled user statistics of {} tenants", tenantIds.size());
+        } catch (Exception e) {
+            logger.error("Error reconciling tenant user statistics", e);
+        }
+    }
+
+    /**
+     * Recount a tenant under its row lock. Under READ COMMITTED the count, a statement after the
+     * lock, sees every user write whose trigger ran before it.
+     */
+    private void reconcileTenant(UUID tenantId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            statsRepository.insertIfMissing(tenantId);
+            statsRepository.lockForUpdate(tenantId);
+            LocalDateTime now = LocalDateTime.now();
+            statsRepository.reconcile(tenantId, now.minusDays(RECENT_DAYS), now);
+        });
+    }
+
+    private JsonNode readBreakdowns(TenantUserStats row) {
+        if (row.getBreakdowns() == null) {
+            return objectMapper.createObjectNode();
+        }
+        try {
+            return objectMapper.readTree(row.getBreakdowns());
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable statistics breakdowns for tenant: {}", row.getTenantId());
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private <T> List<T> breakdown(JsonNode breakdowns, String name, BiFunction<String, Long, T> factory) {
+        List<T> entries = new ArrayList<>();
+        for (JsonNode entry : breakdowns.path(name)) {
+            JsonNode entryName = entry.get("name");
+            entries.add(factory.apply(entryName == null || entryName.isNull() ? null : entryName.asText(),
+                                      entry.path("count").asLong()));
+        }
+        return entries;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date ? ((Date) value).toLocalDate() : (LocalDate) value;
+    }
+}
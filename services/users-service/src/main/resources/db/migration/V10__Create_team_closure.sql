@@ -0,0 +1,72 @@
+-- =====================================================
+-- USERS SERVICE - TEAM HIERARCHY CLOSURE AND SUBTREE AGGREGATES
+-- =====================================================
+-- team_closure holds one row per (ancestor, descendant) pair of the team
+-- hierarchy, including a depth 0 row from every team to itself, so that
+-- subtree queries resolve in one indexed join at any depth.
+--
+-- Each team also carries aggregates over its whole subtree. TeamService
+-- adjusts them in the same transaction as the membership change, for the
+-- team and all of its ancestors, and a nightly job reconciles drift.
+
+CREATE TABLE IF NOT EXISTS team_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+
+    CONSTRAINT pk_team_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_team_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES teams(id) ON DELETE CASCADE,
+    CONSTRAINT fk_team_closure_descendant FOREIGN KEY (descendant_id) REFERENCES teams(id) ON DELETE CASCADE,
+    CONSTRAINT chk_team_closure_depth CHECK (depth >= 0)
+);
+
+-- Ancestor lookups (aggregate maintenance) go through the descendant side
+CREATE INDEX IF NOT EXISTS idx_team_closure_descendant ON team_closure(descendant_id, depth);
+
+-- Subtree member queries join memberships on team and filter by status
+CREATE INDEX IF NOT EXISTS idx_team_members_team_status ON team_members(team_id, status);
+
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS subtree_member_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS subtree_active_member_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS subtree_last_activity_at TIMESTAMP;
+
+-- =====================================================
+-- BACKFILL
+-- =====================================================
+-- The depth guard stops the walk on a corrupt cyclic hierarchy.
+
+INSERT INTO team_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE chain (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM teams
+    UNION ALL
+    SELECT t.parent_team_id, c.descendant_id, c.depth + 1
+    FROM chain c
+    JOIN teams t ON t.id = c.ancestor_id
+    WHERE t.parent_team_id IS NOT NULL AND c.depth < 64
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM chain
+WHERE EXISTS (SELECT 1 FROM teams a WHERE a.id = chain.ancestor_id)
+GROUP BY ancestor_id, descendant_id
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
+
+UPDATE teams t SET
+    subtree_member_count = agg.member_count,
+    subtree_active_member_count = agg.active_member_count,
+    subtree_last_activity_at = agg.last_activity_at
+FROM (
+    SELECT c.ancestor_id,
+           COUNT(tm.id) FILTER (WHERE tm.status <> 'LEFT') AS member_count,
+           COUNT(tm.id) FILTER (WHERE tm.status = 'ACTIVE') AS active_member_count,
+           MAX(d.last_activity_at) AS last_activity_at
+    FROM team_closure c
+    JOIN teams d ON d.id = c.descendant_id
+    LEFT JOIN team_members tm ON tm.team_id = c.descendant_id
+    GROUP BY c.ancestor_id
+) agg
+WHERE t.id = agg.ancestor_id;
+
+COMMENT ON TABLE team_closure IS 'Transitive closure of the team hierarchy, maintained by the application';
+COMMENT ON COLUMN teams.subtree_member_count IS 'Current (not LEFT) memberships of this team and all descendants';
+COMMENT ON COLUMN teams.subtree_active_member_count IS 'ACTIVE memberships of this team and all descendants';
+COMMENT ON COLUMN teams.subtree_last_activity_at IS 'Latest last_activity_at of this team and all descendants';
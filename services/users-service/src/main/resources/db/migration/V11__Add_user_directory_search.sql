@@ -0,0 +1,52 @@
+-- =====================================================
+-- USERS SERVICE - TRIGRAM USER DIRECTORY SEARCH
+-- =====================================================
+-- Directory search matches a term anywhere in a user's name or email, and
+-- tolerates typos through trigram word similarity. Both kinds of match are
+-- served by GIN trigram indexes over lower-cased search documents kept as
+-- generated columns, led by tenant_id (btree_gin) so that a lookup never
+-- leaves the tenant.
+--
+-- Terms shorter than three characters produce no trigram and are matched
+-- as prefixes of first name, last name or email through the btree
+-- expression indexes below.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Names and email, used by the quick search and type-ahead
+ALTER TABLE users ADD COLUMN IF NOT EXISTS name_search_text TEXT
+    GENERATED ALWAYS AS (
+        lower(coalesce(first_name, '') || ' ' ||
+              coalesce(last_name, '') || ' ' ||
+              coalesce(email, ''))
+    ) STORED;
+
+-- Every searchable attribute, used by the advanced search
+ALTER TABLE users ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (
+        lower(coalesce(first_name, '') || ' ' ||
+              coalesce(middle_name, '') || ' ' ||
+              coalesce(last_name, '') || ' ' ||
+              coalesce(display_name, '') || ' ' ||
+              coalesce(email, '') || ' ' ||
+              coalesce(job_title, '') || ' ' ||
+              coalesce(department, '') || ' ' ||
+              coalesce(employee_id, ''))
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_search_trgm
+    ON users USING gin (tenant_id, name_search_text gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_search_trgm
+    ON users USING gin (tenant_id, search_text gin_trgm_ops);
+
+-- Short-term prefix lookups
+CREATE INDEX IF NOT EXISTS idx_users_tenant_first_name_prefix
+    ON users (tenant_id, lower(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_tenant_last_name_prefix
+    ON users (tenant_id, lower(last_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_tenant_email_prefix
+    ON users (tenant_id, lower(email) text_pattern_ops);
+
+COMMENT ON COLUMN users.name_search_text IS 'Lower-cased names and email for trigram directory search';
+COMMENT ON COLUMN users.search_text IS 'Lower-cased searchable attributes for trigram advanced search';
@@ -0,0 +1,36 @@
+-- =====================================================
+-- USERS SERVICE - BULK USER OPERATION TRACKING
+-- =====================================================
+-- One row per bulk user operation. The bulk engine applies the operation in
+-- chunks, each in its own transaction, and advances the counters here in the
+-- same transaction as the chunk, so the progress a client polls always
+-- matches the changes that are committed.
+
+CREATE TABLE IF NOT EXISTS bulk_user_operations (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id UUID,
+    operation VARCHAR(30) NOT NULL,
+    target_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    total_count INTEGER NOT NULL DEFAULT 0,
+    processed_count INTEGER NOT NULL DEFAULT 0,
+    updated_count INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    requested_by UUID,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_bulk_user_operations_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED')),
+    CONSTRAINT chk_bulk_user_operations_target CHECK (target_type IN ('USER_IDS', 'FILTER'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_bulk_user_operations_tenant ON bulk_user_operations(tenant_id, created_at);
+
+-- Filter-based targets are walked in id order within a tenant
+CREATE INDEX IF NOT EXISTS idx_users_tenant_id_id ON users(tenant_id, id);
+
+COMMENT ON TABLE bulk_user_operations IS 'Progress and outcome of bulk user operations';
+COMMENT ON COLUMN bulk_user_operations.processed_count IS 'Targeted users examined so far';
+COMMENT ON COLUMN bulk_user_operations.updated_count IS 'Targeted users whose value actually changed';
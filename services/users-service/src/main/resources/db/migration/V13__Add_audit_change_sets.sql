@@ -0,0 +1,14 @@
+-- =====================================================
+-- USERS SERVICE - ONE AUDIT ROW PER CHANGE EVENT
+-- =====================================================
+-- An update to several fields of a user is now recorded as a single audit
+-- row whose changes column holds the field diff as compact JSON:
+--
+--   {"firstName": ["Jon", "John"], "jobTitle": [null, "Engineer"]}
+--
+-- field_name, old_value and new_value remain for rows written before this
+-- migration; readers expand both forms into per-field history.
+
+ALTER TABLE user_audit_logs ADD COLUMN IF NOT EXISTS changes TEXT;
+
+COMMENT ON COLUMN user_audit_logs.changes IS 'Field diff of the change event as JSON: field -> [old, new]';
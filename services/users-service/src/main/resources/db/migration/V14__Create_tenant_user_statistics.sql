@@ -0,0 +1,194 @@
+-- =====================================================
+-- USERS SERVICE - PRECOMPUTED TENANT USER STATISTICS
+-- =====================================================
+-- tenant_user_stats holds one row of user counts per tenant and
+-- tenant_user_daily_stats one row per tenant and day for trends. Statement
+-- level triggers on users keep both current from every write path, bulk
+-- statements included, by applying the net change of each statement as one
+-- upsert per tenant. Statements that move no counter write nothing.
+--
+-- Figures that depend on the passage of time (users seen in the last 30
+-- days) and the per-department, job title and office breakdowns are
+-- snapshots refreshed by the reconciliation job in UserStatisticsService,
+-- which also corrects any drift in the counters.
+
+CREATE TABLE IF NOT EXISTS tenant_user_stats (
+    tenant_id UUID PRIMARY KEY,
+    total_users BIGINT NOT NULL DEFAULT 0,
+    active_users BIGINT NOT NULL DEFAULT 0,
+    inactive_users BIGINT NOT NULL DEFAULT 0,
+    suspended_users BIGINT NOT NULL DEFAULT 0,
+    incomplete_onboarding_users BIGINT NOT NULL DEFAULT 0,
+    users_active_last_30_days BIGINT NOT NULL DEFAULT 0,
+    users_logged_in_last_30_days BIGINT NOT NULL DEFAULT 0,
+    breakdowns TEXT,
+    snapshot_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tenant_user_daily_stats (
+    tenant_id UUID NOT NULL,
+    day DATE NOT NULL,
+    new_users INTEGER NOT NULL DEFAULT 0,
+    active_users INTEGER NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_tenant_user_daily_stats PRIMARY KEY (tenant_id, day)
+);
+
+-- =====================================================
+-- TRIGGERS
+-- =====================================================
+
+-- Add a net change to the counters of one tenant; a change that moves nothing writes nothing
+CREATE OR REPLACE FUNCTION add_tenant_user_stats(
+    p_tenant_id UUID,
+    p_total BIGINT,
+    p_active BIGINT,
+    p_inactive BIGINT,
+    p_suspended BIGINT,
+    p_incomplete_onboarding BIGINT
+) RETURNS VOID AS $$
+BEGIN
+    IF p_total = 0 AND p_active = 0 AND p_inactive = 0 AND p_suspended = 0 AND p_incomplete_onboarding = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO tenant_user_stats AS s (tenant_id, total_users, active_users, inactive_users,
+                                        suspended_users, incomplete_onboarding_users, updated_at)
+    VALUES (p_tenant_id, p_total, p_active, p_inactive, p_suspended, p_incomplete_onboarding, CURRENT_TIMESTAMP)
+    ON CONFLICT (tenant_id) DO UPDATE SET
+        total_users = s.total_users + EXCLUDED.total_users,
+        active_users = s.active_users + EXCLUDED.active_users,
+        inactive_users = s.inactive_users + EXCLUDED.inactive_users,
+        suspended_users = s.suspended_users + EXCLUDED.suspended_users,
+        incomplete_onboarding_users = s.incomplete_onboarding_users + EXCLUDED.incomplete_onboarding_users,
+        updated_at = EXCLUDED.updated_at;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables exist only for the events that define them (no OLD TABLE on insert, no NEW
+-- TABLE on delete), hence one branch per event. Tenants are visited in id order so that
+-- concurrent statements lock their stats rows in the same order.
+CREATE OR REPLACE FUNCTION apply_tenant_user_stats_delta() RETURNS TRIGGER AS $$
+DECLARE
+    d RECORD;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        FOR d IN
+            SELECT tenant_id,
+                   COUNT(*) AS total,
+                   COUNT(*) FILTER (WHERE status = 'ACTIVE') AS active,
+                   COUNT(*) FILTER (WHERE status = 'INACTIVE') AS inactive,
+                   COUNT(*) FILTER (WHERE status = 'SUSPENDED') AS suspended,
+                   COUNT(*) FILTER (WHERE onboarding_completed IS FALSE) AS incomplete
+            FROM new_rows GROUP BY tenant_id ORDER BY tenant_id
+        LOOP
+            PERFORM add_tenant_user_stats(d.tenant_id, d.total, d.active, d.inactive, d.suspended, d.incomplete);
+        END LOOP;
+
+        INSERT INTO tenant_user_daily_stats AS ds (tenant_id, day, new_users)
+        SELECT tenant_id, CURRENT_DATE, COUNT(*)
+        FROM new_rows
+        GROUP BY tenant_id
+        ORDER BY tenant_id
+        ON CONFLICT (tenant_id, day) DO UPDATE SET new_users = ds.new_users + EXCLUDED.new_users;
+
+    ELSIF TG_OP = 'DELETE' THEN
+        FOR d IN
+            SELECT tenant_id,
+                   COUNT(*) AS total,
+                   COUNT(*) FILTER (WHERE status = 'ACTIVE') AS active,
+                   COUNT(*) FILTER (WHERE status = 'INACTIVE') AS inactive,
+                   COUNT(*) FILTER (WHERE status = 'SUSPENDED') AS suspended,
+                   COUNT(*) FILTER (WHERE onboarding_completed IS FALSE) AS incomplete
+            FROM old_rows GROUP BY tenant_id ORDER BY tenant_id
+        LOOP
+            PERFORM add_tenant_user_stats(d.tenant_id, -d.total, -d.active, -d.inactive, -d.suspended, -d.incomplete);
+        END LOOP;
+
+    ELSE
+        -- Net change per tenant: +1 for each row after the statement, -1 for each row before it
+        FOR d IN
+            WITH changed AS (
+                SELECT tenant_id, status, onboarding_completed, 1 AS n FROM new_rows
+                UNION ALL
+                SELECT tenant_id, status, onboarding_completed, -1 AS n FROM old_rows
+            )
+            SELECT tenant_id,
+                   SUM(n) AS total,
+                   COALESCE(SUM(n) FILTER (WHERE status = 'ACTIVE'), 0) AS active,
+                   COALESCE(SUM(n) FILTER (WHERE status = 'INACTIVE'), 0) AS inactive,
+                   COALESCE(SUM(n) FILTER (WHERE status = 'SUSPENDED'), 0) AS suspended,
+                   COALESCE(SUM(n) FILTER (WHERE onboarding_completed IS FALSE), 0) AS incomplete
+            FROM changed GROUP BY tenant_id ORDER BY tenant_id
+        LOOP
+            PERFORM add_tenant_user_stats(d.tenant_id, d.total, d.active, d.inactive, d.suspended, d.incomplete);
+        END LOOP;
+
+        -- A user counts as active on a day the first time their last login or activity reaches it
+        INSERT INTO tenant_user_daily_stats AS ds (tenant_id, day, active_users)
+        SELECT n.tenant_id, GREATEST(n.last_login_at, n.last_activity_at)::DATE, COUNT(*)
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE GREATEST(n.last_login_at, n.last_activity_at) IS NOT NULL
+          AND (GREATEST(o.last_login_at, o.last_activity_at) IS NULL
+               OR GREATEST(o.last_login_at, o.last_activity_at)::DATE
+                  < GREATEST(n.last_login_at, n.last_activity_at)::DATE)
+        GROUP BY n.tenant_id, GREATEST(n.last_login_at, n.last_activity_at)::DATE
+        ORDER BY 1, 2
+        ON CONFLICT (tenant_id, day) DO UPDATE SET active_users = ds.active_users + EXCLUDED.active_users;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_users_stats_insert ON users;
+CREATE TRIGGER trg_users_stats_insert
+    AFTER INSERT ON users
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_tenant_user_stats_delta();
+
+DROP TRIGGER IF EXISTS trg_users_stats_update ON users;
+CREATE TRIGGER trg_users_stats_update
+    AFTER UPDATE ON users
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_tenant_user_stats_delta();
+
+DROP TRIGGER IF EXISTS trg_users_stats_delete ON users;
+CREATE TRIGGER trg_users_stats_delete
+    AFTER DELETE ON users
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_tenant_user_stats_delta();
+
+-- =====================================================
+-- BACKFILL
+-- =====================================================
+
+INSERT INTO tenant_user_stats (tenant_id, total_users, active_users, inactive_users, suspended_users,
+                               incomplete_onboarding_users, users_active_last_30_days,
+                               users_logged_in_last_30_days, snapshot_at)
+SELECT tenant_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE status = 'ACTIVE'),
+       COUNT(*) FILTER (WHERE status = 'INACTIVE'),
+       COUNT(*) FILTER (WHERE status = 'SUSPENDED'),
+       COUNT(*) FILTER (WHERE onboarding_completed IS FALSE),
+       COUNT(*) FILTER (WHERE last_activity_at > CURRENT_TIMESTAMP - INTERVAL '30 days'),
+       COUNT(*) FILTER (WHERE last_login_at > CURRENT_TIMESTAMP - INTERVAL '30 days'),
+       CURRENT_TIMESTAMP
+FROM users
+GROUP BY tenant_id
+ON CONFLICT (tenant_id) DO NOTHING;
+
+-- New users per day are known from created_at; daily actives only from now on
+INSERT INTO tenant_user_daily_stats (tenant_id, day, new_users)
+SELECT tenant_id, created_at::DATE, COUNT(*)
+FROM users
+WHERE created_at > CURRENT_DATE - INTERVAL '400 days'
+GROUP BY tenant_id, created_at::DATE
+ON CONFLICT (tenant_id, day) DO NOTHING;
+
+COMMENT ON TABLE tenant_user_stats IS 'User counts per tenant, maintained by triggers on users and reconciled periodically';
+COMMENT ON TABLE tenant_user_daily_stats IS 'New and active users per tenant and day';
+COMMENT ON COLUMN tenant_user_stats.breakdowns IS 'JSON snapshot of active users by department, job title and office location';
@@ -0,0 +1,33 @@
+-- =====================================================
+-- USERS SERVICE - LIFECYCLE SWEEP CHECKPOINTS
+-- =====================================================
+-- Lifecycle sweeps (inactive-user deactivation, scheduled deletions) walk
+-- each tenant's users in id order, a chunk per transaction. Every chunk
+-- advances the tenant's checkpoint in the same transaction, so a run that
+-- stops half way resumes after the last committed chunk with the cutoff it
+-- started with. The lease keeps two instances off the same tenant; a lease
+-- left by a crashed instance simply expires.
+
+CREATE TABLE IF NOT EXISTS lifecycle_sweep_checkpoints (
+    sweep_name VARCHAR(50) NOT NULL,
+    tenant_id UUID NOT NULL,
+    run_started_at TIMESTAMP NOT NULL,
+    cutoff_at TIMESTAMP NOT NULL,
+    last_id UUID,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    affected_count BIGINT NOT NULL DEFAULT 0,
+    completed_at TIMESTAMP,
+    lease_owner VARCHAR(64),
+    lease_expires_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_lifecycle_sweep_checkpoints PRIMARY KEY (sweep_name, tenant_id)
+);
+
+-- Keyset walks over the few users with a pending deletion
+CREATE INDEX IF NOT EXISTS idx_users_deletion_pending
+    ON users(tenant_id, id)
+    WHERE deletion_requested = TRUE AND status <> 'DELETED';
+
+COMMENT ON TABLE lifecycle_sweep_checkpoints IS 'Progress of lifecycle sweeps per tenant, for resuming interrupted runs';
+COMMENT ON COLUMN lifecycle_sweep_checkpoints.last_id IS 'Highest user id processed by the current run; NULL before the first chunk';
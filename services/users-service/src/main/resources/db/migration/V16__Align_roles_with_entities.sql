@@ -0,0 +1,41 @@
+-- =====================================================
+-- USERS SERVICE - ALIGN ROLES, PERMISSIONS AND USER ROLES WITH THEIR ENTITIES
+-- =====================================================
+-- Role and UserRole map columns that no earlier migration creates, and
+-- roles and permissions require names the entities never set, so a database
+-- built from these migrations alone could not create a role, a permission
+-- or an assignment. Databases that already match are left as they are.
+
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS is_system_role BOOLEAN DEFAULT FALSE;
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS created_by UUID;
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS updated_by UUID;
+
+-- Carry the existing is_system column over to the entity's name, as V4 did for permissions
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'roles' AND column_name = 'is_system') THEN
+        UPDATE roles SET is_system_role = is_system WHERE is_system IS NOT NULL;
+        ALTER TABLE roles DROP COLUMN is_system;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_roles_system ON roles(is_system_role);
+
+-- Not mapped by Role and Permission
+ALTER TABLE roles ALTER COLUMN display_name DROP NOT NULL;
+ALTER TABLE permissions ALTER COLUMN name DROP NOT NULL;
+ALTER TABLE permissions ALTER COLUMN display_name DROP NOT NULL;
+
+ALTER TABLE user_roles ADD COLUMN IF NOT EXISTS tenant_id UUID;
+ALTER TABLE user_roles ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE user_roles ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- An assignment belongs to the tenant of its role
+UPDATE user_roles ur SET tenant_id = r.tenant_id
+FROM roles r
+WHERE r.id = ur.role_id AND ur.tenant_id IS NULL;
+
+ALTER TABLE user_roles ALTER COLUMN tenant_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_roles_tenant ON user_roles(tenant_id);
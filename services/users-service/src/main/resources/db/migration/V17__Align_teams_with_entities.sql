@@ -0,0 +1,11 @@
+-- =====================================================
+-- USERS SERVICE - ALIGN TEAMS AND TEAM MEMBERS WITH THEIR ENTITIES
+-- =====================================================
+-- Team and TeamMember map columns that no earlier migration creates, so a
+-- database built from these migrations alone could not create a team or add
+-- a member. Databases that already have the columns are left as they are.
+
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS created_by UUID;
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS updated_by UUID;
+
+ALTER TABLE team_members ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
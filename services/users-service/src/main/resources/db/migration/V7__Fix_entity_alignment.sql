@@ -191,6 +191,7 @@ CREATE INDEX IF NOT EXISTS idx_user_audit_performed_by ON user_audit_logs(perfor
 ALTER TABLE users ALTER COLUMN username DROP NOT NULL;
 
 -- Add unique constraint for username per tenant if missing (handling nullable username)
+ALTER TABLE users DROP CONSTRAINT IF EXISTS uk_users_tenant_username;
 DROP INDEX IF EXISTS uk_users_tenant_username;
 CREATE UNIQUE INDEX uk_users_tenant_username ON users(tenant_id, username) WHERE username IS NOT NULL;
 
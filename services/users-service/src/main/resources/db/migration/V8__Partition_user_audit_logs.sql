@@ -0,0 +1,199 @@
+-- =====================================================
+-- USERS SERVICE - MONTHLY RANGE PARTITIONING FOR USER AUDIT LOGS
+-- =====================================================
+-- user_audit_logs is converted to a native range-partitioned table on
+-- created_at with one partition per month. Retention drops whole
+-- partitions instead of deleting rows, and queries that carry a time
+-- predicate only touch the partitions they need.
+
+-- =====================================================
+-- 1. PARTITION MANAGEMENT FUNCTIONS
+-- =====================================================
+-- The auth service installs the same functions for security_audit_log;
+-- CREATE OR REPLACE keeps both migrations independent of each other.
+
+-- Create the monthly partition of parent_table that contains month_start.
+-- Rows of that month which already landed in the default partition would
+-- make the CREATE fail, so they are moved over in the same transaction:
+-- the default partition is detached, the month created, its rows moved
+-- and the default partition attached again.
+CREATE OR REPLACE FUNCTION create_monthly_partition(
+    parent_table TEXT,
+    month_start DATE
+) RETURNS TEXT AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', month_start)::DATE;
+    partition_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := parent_table || '_p' || to_char(partition_start, 'YYYY_MM');
+    default_name TEXT := parent_table || '_default';
+    key_column TEXT;
+    has_default_rows BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(default_name) IS NOT NULL THEN
+        SELECT a.attname INTO key_column
+        FROM pg_partitioned_table pt
+        JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+        WHERE pt.partrelid = parent_table::regclass;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+                       default_name, key_column, partition_start, key_column, partition_end)
+        INTO has_default_rows;
+    END IF;
+
+    IF has_default_rows THEN
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, default_name);
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, parent_table, partition_start, partition_end
+    );
+
+    IF has_default_rows THEN
+        EXECUTE format('INSERT INTO %I SELECT * FROM %I WHERE %I >= %L AND %I < %L',
+                       partition_name, default_name, key_column, partition_start, key_column, partition_end);
+        EXECUTE format('DELETE FROM %I WHERE %I >= %L AND %I < %L',
+                       default_name, key_column, partition_start, key_column, partition_end);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', parent_table, default_name);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Make sure partitions exist from the current month through months_ahead months in the future
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(
+    parent_table TEXT,
+    months_ahead INTEGER DEFAULT 3
+) RETURNS INTEGER AS $$
+DECLARE
+    month_offset INTEGER;
+    created INTEGER := 0;
+    partition_name TEXT;
+BEGIN
+    -- Serialize concurrent callers (several replicas run the same maintenance job)
+    PERFORM pg_advisory_xact_lock(hashtext('partitions:' || parent_table));
+
+    FOR month_offset IN 0..months_ahead LOOP
+        partition_name := parent_table || '_p' ||
+            to_char(date_trunc('month', CURRENT_DATE) + make_interval(months => month_offset), 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            PERFORM create_monthly_partition(parent_table,
+                (date_trunc('month', CURRENT_DATE) + make_interval(months => month_offset))::DATE);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detach and drop every monthly partition of parent_table that lies entirely before cutoff
+CREATE OR REPLACE FUNCTION drop_monthly_partitions_before(
+    parent_table TEXT,
+    cutoff TIMESTAMP
+) RETURNS INTEGER AS $$
+DECLARE
+    partition_record RECORD;
+    partition_end DATE;
+    dropped INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('partitions:' || parent_table));
+
+    FOR partition_record IN
+        SELECT c.relname AS name
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = parent_table
+          AND c.relname ~ ('^' || parent_table || '_p[0-9]{4}_[0-9]{2}$')
+    LOOP
+        partition_end := (to_date(right(partition_record.name, 7), 'YYYY_MM') + INTERVAL '1 month')::DATE;
+        IF partition_end <= cutoff THEN
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, partition_record.name);
+            EXECUTE format('DROP TABLE %I', partition_record.name);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =====================================================
+-- 2. CONVERT user_audit_logs TO A PARTITIONED TABLE
+-- =====================================================
+
+ALTER TABLE user_audit_logs RENAME TO user_audit_logs_unpartitioned;
+ALTER TABLE user_audit_logs_unpartitioned DROP CONSTRAINT IF EXISTS user_audit_logs_pkey;
+
+DROP INDEX IF EXISTS idx_user_audit_user_id;
+DROP INDEX IF EXISTS idx_user_audit_tenant_id;
+DROP INDEX IF EXISTS idx_user_audit_action;
+DROP INDEX IF EXISTS idx_user_audit_created_at;
+DROP INDEX IF EXISTS idx_user_audit_performed_by;
+
+CREATE TABLE user_audit_logs (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    tenant_id UUID NOT NULL,
+    action VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(50) DEFAULT 'USER',
+    field_name VARCHAR(100),
+    old_value TEXT,
+    new_value TEXT,
+    description TEXT,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    session_id VARCHAR(100),
+    performed_by UUID,
+    severity VARCHAR(20) DEFAULT 'INFO',
+    additional_data TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- The partition key must be part of the primary key
+    CONSTRAINT user_audit_logs_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Indexes on the parent are created on every partition and end with
+-- created_at so that time-bounded queries range scan each pruned partition
+CREATE INDEX idx_user_audit_created_at ON user_audit_logs(created_at);
+CREATE INDEX idx_user_audit_user_time ON user_audit_logs(user_id, created_at);
+CREATE INDEX idx_user_audit_tenant_time ON user_audit_logs(tenant_id, created_at);
+CREATE INDEX idx_user_audit_tenant_action_time ON user_audit_logs(tenant_id, action, created_at);
+CREATE INDEX idx_user_audit_performed_by_time ON user_audit_logs(performed_by, created_at);
+
+-- Catch-all partition so that an insert never fails if maintenance falls behind
+CREATE TABLE user_audit_logs_default PARTITION OF user_audit_logs DEFAULT;
+
+-- Monthly partitions covering existing history plus three months ahead
+DO $$
+DECLARE
+    month_cursor DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_DATE))::DATE
+    INTO month_cursor
+    FROM user_audit_logs_unpartitioned;
+
+    WHILE month_cursor < date_trunc('month', CURRENT_DATE) LOOP
+        PERFORM create_monthly_partition('user_audit_logs', month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    PERFORM ensure_monthly_partitions('user_audit_logs', 3);
+END $$;
+
+INSERT INTO user_audit_logs (
+    id, user_id, tenant_id, action, entity_type, field_name, old_value, new_value,
+    description, ip_address, user_agent, session_id, performed_by, severity,
+    additional_data, created_at
+)
+SELECT id, user_id, tenant_id, action, entity_type, field_name, old_value, new_value,
+       description, ip_address, user_agent, session_id, performed_by, severity,
+       additional_data, created_at
+FROM user_audit_logs_unpartitioned;
+
+DROP TABLE user_audit_logs_unpartitioned;
+
+COMMENT ON TABLE user_audit_logs IS 'Audit trail for user-related changes, range-partitioned by month on created_at';
@@ -0,0 +1,44 @@
+-- =====================================================
+-- USERS SERVICE - ROLE HIERARCHY CLOSURE TABLE
+-- =====================================================
+-- role_closure holds one row per (ancestor, descendant) pair of the role
+-- hierarchy, including a depth 0 row from every role to itself. It lets
+-- effective permissions be resolved in a single join instead of walking
+-- parent_role_id one role at a time. RoleService maintains it on role
+-- creation and reparenting.
+
+CREATE TABLE IF NOT EXISTS role_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    depth INTEGER NOT NULL,
+
+    CONSTRAINT pk_role_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_role_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES roles(id) ON DELETE CASCADE,
+    CONSTRAINT fk_role_closure_descendant FOREIGN KEY (descendant_id) REFERENCES roles(id) ON DELETE CASCADE,
+    CONSTRAINT chk_role_closure_depth CHECK (depth >= 0)
+);
+
+-- Ancestor lookups (effective permissions) go through the descendant side
+CREATE INDEX IF NOT EXISTS idx_role_closure_descendant ON role_closure(descendant_id, depth);
+
+-- =====================================================
+-- BACKFILL FROM EXISTING PARENT LINKS
+-- =====================================================
+-- The depth guard stops the walk on a corrupt cyclic hierarchy.
+
+INSERT INTO role_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE chain (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM roles
+    UNION ALL
+    SELECT r.parent_role_id, c.descendant_id, c.depth + 1
+    FROM chain c
+    JOIN roles r ON r.id = c.ancestor_id
+    WHERE r.parent_role_id IS NOT NULL AND c.depth < 64
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM chain
+WHERE EXISTS (SELECT 1 FROM roles a WHERE a.id = chain.ancestor_id)
+GROUP BY ancestor_id, descendant_id
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
+
+COMMENT ON TABLE role_closure IS 'Transitive closure of the role hierarchy, maintained by the application';
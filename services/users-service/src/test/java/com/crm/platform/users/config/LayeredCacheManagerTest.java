@@ -0,0 +1,152 @@
+package com.crm.platform.users.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LayeredCacheManagerTest {
+
+    private static final List<String> CACHE_NAMES = List.of("users", "roles");
+
+    private final CachePolicyConfig policies = new CachePolicyConfig();
+
+    // Stands in for Redis: the shared tier and the channel every replica listens on
+    private final CacheManager sharedTier = new ConcurrentMapCacheManager(CACHE_NAMES.toArray(new String[0]));
+    private final List<LayeredCacheManager> subscribers = new ArrayList<>();
+    private final List<String> published = new ArrayList<>();
+
+    private LayeredCacheManager first;
+    private LayeredCacheManager second;
+
+    @BeforeEach
+    void setUp() {
+        first = replica();
+        second = replica();
+    }
+
+    @Test
+    void put_OnOneReplica_DropsLocalCopyOnOthers() {
+        first.getCache("users").put("u1", "Ada");
+        assertThat(second.getCache("users").get("u1", String.class)).isEqualTo("Ada");
+
+        first.getCache("users").put("u1", "Grace");
+
+        // Without the message the second replica would keep serving "Ada" from its local tier
+        assertThat(local(second, "users").getIfPresent("u1")).isNull();
+        assertThat(second.getCache("users").get("u1", String.class)).isEqualTo("Grace");
+    }
+
+    @Test
+    void evictAndClear_OnOneReplica_ReachOthers() {
+        first.getCache("users").put("u1", "Ada");
+        first.getCache("users").put("u2", "Grace");
+        first.getCache("roles").put("r1", "admin");
+        second.getCache("users").get("u1");
+        second.getCache("users").get("u2");
+        second.getCache("roles").get("r1");
+
+        first.getCache("users").evict("u1");
+
+        assertThat(second.getCache("users").get("u1")).isNull();
+        assertThat(local(second, "users").getIfPresent("u2")).isEqualTo("Grace");
+
+        first.getCache("roles").clear();
+
+        assertThat(local(second, "roles").asMap()).isEmpty();
+        assertThat(second.getCache("roles").get("r1")).isNull();
+        assertThat(local(second, "users").getIfPresent("u2")).isEqualTo("Grace");
+    }
+
+    @Test
+    void onMessage_OwnOrMalformedMessage_IsIgnored() {
+        first.getCache("users").put("u1", "Ada");
+        assertThat(published).hasSize(1);
+
+        // The publishing replica received its own message and kept the value it just wrote
+        assertThat(local(first, "users").getIfPresent("u1")).isEqualTo("Ada");
+
+        second.getCache("users").get("u1");
+        second.onMessage(message("garbage"), null);
+        second.onMessage(message("other-node|unknown-cache|E|u1"), null);
+        assertThat(local(second, "users").getIfPresent("u1")).isEqualTo("Ada");
+    }
+
+    @Test
+    void get_RedisDown_FallsBackToLocalTier() {
+        // given a replica whose Redis calls all fail
+        Cache failingRemote = mock(Cache.class);
+        RedisConnectionFailureException down = new RedisConnectionFailureException("Connection refused");
+        when(failingRemote.get(any())).thenThrow(down);
+        doThrow(down).when(failingRemote).put(any(), any());
+        doThrow(down).when(failingRemote).evict(any());
+        doThrow(down).when(failingRemote).clear();
+        CacheManager failingManager = mock(CacheManager.class);
+        when(failingManager.getCache(anyString())).thenReturn(failingRemote);
+        StringRedisTemplate failingTemplate = mock(StringRedisTemplate.class);
+        doThrow(down).when(failingTemplate).convertAndSend(anyString(), any());
+        LayeredCacheManager isolated = new LayeredCacheManager(CACHE_NAMES, failingManager, failingTemplate,
+                                                               policies, new SimpleMeterRegistry(), "cacheManager");
+        isolated.initializeCaches();
+        Cache users = isolated.getCache("users");
+        AtomicInteger loads = new AtomicInteger();
+
+        // when / then values load once and are served from the local tier
+        assertThat(users.get("u1", () -> "Ada-" + loads.incrementAndGet())).isEqualTo("Ada-1");
+        assertThat(users.get("u1", () -> "Ada-" + loads.incrementAndGet())).isEqualTo("Ada-1");
+        assertThat(users.get("u2")).isNull();
+
+        users.put("u2", "Grace");
+        assertThat(users.get("u2", String.class)).isEqualTo("Grace");
+
+        // and evictions still apply locally
+        users.evict("u1");
+        assertThat(users.get("u1", () -> "Ada-" + loads.incrementAndGet())).isEqualTo("Ada-2");
+        users.clear();
+        assertThat(users.get("u2")).isNull();
+    }
+
+    private LayeredCacheManager replica() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.convertAndSend(anyString(), any())).thenAnswer(invocation -> {
+            String body = invocation.getArgument(1);
+            published.add(body);
+            for (LayeredCacheManager subscriber : subscribers) {
+                subscriber.onMessage(message(body), null);
+            }
+            return (long) subscribers.size();
+        });
+        LayeredCacheManager manager = new LayeredCacheManager(CACHE_NAMES, sharedTier, redisTemplate, policies,
+                                                              new SimpleMeterRegistry(), "cacheManager");
+        manager.initializeCaches();
+        subscribers.add(manager);
+        return manager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> local(LayeredCacheManager manager, String name) {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) manager.getCache(name).getNativeCache();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(policies.getInvalidationChannel().getBytes(StandardCharsets.UTF_8),
+                                  body.getBytes(StandardCharsets.UTF_8));
+    }
+}
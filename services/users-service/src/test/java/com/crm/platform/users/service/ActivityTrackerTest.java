@@ -0,0 +1,110 @@
+package com.crm.platform.users.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityTrackerTest {
+
+    private static final UUID USER_1 = new UUID(0, 1);
+    private static final UUID USER_2 = new UUID(0, 2);
+    private static final UUID USER_3 = new UUID(0, 3);
+    private static final UUID TEAM = new UUID(0, 4);
+
+    private final List<List<UUID>> attempts = new ArrayList<>();
+    private int failingAttempt;
+    private ActivityTracker tracker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        // Every UPDATE records the ids it was given; the one numbered failingAttempt fails
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(eq("uuid"), any())).thenAnswer(invocation -> {
+            List<UUID> ids = new ArrayList<>();
+            for (Object id : (Object[]) invocation.getArgument(1)) {
+                ids.add((UUID) id);
+            }
+            attempts.add(ids);
+            return mock(Array.class);
+        });
+        when(connection.createArrayOf(eq("timestamp"), any())).thenReturn(mock(Array.class));
+        when(statement.executeUpdate()).thenAnswer(invocation -> {
+            if (attempts.size() == failingAttempt) {
+                throw new SQLException("deadlock detected");
+            }
+            return attempts.get(attempts.size() - 1).size();
+        });
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+            try {
+                return invocation.<ConnectionCallback<Integer>>getArgument(0).doInConnection(connection);
+            } catch (SQLException e) {
+                throw new DataAccessResourceFailureException("update failed", e);
+            }
+        });
+
+        tracker = new ActivityTracker(jdbcTemplate, new SimpleMeterRegistry(), Duration.ofMinutes(1), 1);
+    }
+
+    @Test
+    void flush_SecondOfThreeBatchesFails_KeepsOnlyThatBatch() {
+        // given three user batches and a team, with the second user batch failing
+        LocalDateTime now = LocalDateTime.now();
+        tracker.recordUserActivity(USER_1, now);
+        tracker.recordUserActivity(USER_2, now);
+        tracker.recordUserActivity(USER_3, now);
+        tracker.recordTeamActivity(TEAM, now);
+        failingAttempt = 2;
+
+        // when
+        tracker.flush();
+
+        // then the batches after the failed one and the teams are still written
+        assertThat(attempts).containsExactly(List.of(USER_1), List.of(USER_2), List.of(USER_3), List.of(TEAM));
+
+        // and only the failed batch is tried again
+        attempts.clear();
+        failingAttempt = 0;
+        tracker.flush();
+        assertThat(attempts).containsExactly(List.of(USER_2));
+    }
+
+    @Test
+    void flush_UsersFail_StillFlushesTeams() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        tracker.recordUserActivity(USER_1, now);
+        tracker.recordTeamActivity(TEAM, now);
+        failingAttempt = 1;
+
+        // when
+        tracker.flush();
+
+        // then
+        assertThat(attempts).containsExactly(List.of(USER_1), List.of(TEAM));
+    }
+}
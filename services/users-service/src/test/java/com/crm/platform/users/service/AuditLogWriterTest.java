@@ -0,0 +1,123 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.entity.UserAuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private TransactionStatus overflowStatus;
+    private AuditLogWriter writer;
+    private final List<List<UserAuditLog>> written = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        // flush() clears and reuses its batch list, so copy each batch as it is written
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                                      any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                written.add(new ArrayList<>(invocation.<Collection<UserAuditLog>>getArgument(1)));
+                return new int[0][];
+            });
+        transactionManager = mock(PlatformTransactionManager.class);
+        overflowStatus = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(overflowStatus);
+        writer = new AuditLogWriter(jdbcTemplate, new SimpleMeterRegistry(), transactionManager, 1, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueue_QueueFullAtCommit_WritesEntryInItsOwnTransaction() {
+        // given a request transaction logging more entries than the queue holds
+        TransactionSynchronizationManager.initSynchronization();
+        UserAuditLog queued = auditLog("USER_UPDATED");
+        UserAuditLog overflow = auditLog("ROLE_ASSIGNED");
+        writer.enqueue(queued);
+        writer.enqueue(overflow);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+
+        // when the request transaction commits
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        // then the entry that did not fit is inserted and committed in a new transaction
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        inOrder.verify(transactionManager).commit(overflowStatus);
+        assertThat(definition.getValue().getPropagationBehavior())
+            .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        assertThat(written).containsExactly(List.of(overflow));
+
+        // and the queued entry is written by the next flush
+        writer.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertThat(written).containsExactly(List.of(overflow), List.of(queued));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueue_RolledBack_WritesNothing() {
+        // given a request transaction logging an entry
+        TransactionSynchronizationManager.initSynchronization();
+        writer.enqueue(auditLog("USER_UPDATED"));
+
+        // when it rolls back
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        writer.flush();
+
+        // then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private UserAuditLog auditLog(String action) {
+        return new UserAuditLog(UUID.randomUUID(), UUID.randomUUID(), action, "test", UUID.randomUUID());
+    }
+}
@@ -0,0 +1,195 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.dto.BulkUserOperationRequest;
+import com.crm.platform.users.dto.BulkUserOperationRequest.BulkOperation;
+import com.crm.platform.users.dto.UserFilterRequest;
+import com.crm.platform.users.entity.BulkUserOperation;
+import com.crm.platform.users.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the chunked UPDATE ... RETURNING statements against Postgres with the Flyway migrations,
+ * three users per chunk.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false",
+    "app.bulk-operations.chunk-size=3"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BulkUserOperationServiceIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BulkUserOperationService bulkUserOperationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+    private UUID performedBy;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        performedBy = UUID.randomUUID();
+    }
+
+    @Test
+    void execute_UserIdsAcrossChunks_ChangesAndAuditsOnlyUsersThatDiffer() {
+        // given seven users over three chunks, one of them already inactive
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            userIds.add(insertUser(tenantId, i == 4 ? "INACTIVE" : "ACTIVE", "Sales"));
+        }
+        BulkUserOperationRequest request = userIdsRequest(userIds, BulkOperation.DEACTIVATE);
+
+        // when
+        BulkUserOperation operation = bulkUserOperationService.createOperation(request, tenantId, performedBy);
+        BulkUserOperation result = bulkUserOperationService.execute(operation.getId(), request, performedBy, null);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(BulkUserOperation.OperationStatus.COMPLETED);
+        assertThat(result.getTotalCount()).isEqualTo(7);
+        assertThat(result.getProcessedCount()).isEqualTo(7);
+        assertThat(result.getUpdatedCount()).isEqualTo(6);
+        assertThat(countUsers(tenantId, "INACTIVE")).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT changes FROM user_audit_logs WHERE tenant_id = ? AND performed_by = ?", String.class,
+            tenantId, performedBy))
+            .hasSize(6)
+            .allMatch(changes -> changes.equals("{\"status\":[\"ACTIVE\",\"INACTIVE\"]}"));
+    }
+
+    @Test
+    void createOperation_UserIdsWithoutTenant_RecordsCallerTenant() {
+        // given an ID list naming no tenant
+        BulkUserOperationRequest request = userIdsRequest(List.of(insertUser(tenantId, "ACTIVE", "Sales")),
+                                                          BulkOperation.SUSPEND);
+
+        // when
+        BulkUserOperation operation = bulkUserOperationService.createOperation(request, tenantId, performedBy);
+
+        // then
+        assertThat(operation.getTenantId()).isEqualTo(tenantId);
+        assertThat(bulkUserOperationService.getTenantOperations(tenantId, PageRequest.of(0, 10)).getContent())
+            .extracting(BulkUserOperation::getId)
+            .containsExactly(operation.getId());
+    }
+
+    @Test
+    void createOperation_NoCallerTenant_RecordsTenantOfTargetedUsers() {
+        BulkUserOperationRequest request = userIdsRequest(
+            List.of(insertUser(tenantId, "ACTIVE", "Sales"), insertUser(tenantId, "ACTIVE", "Sales")),
+            BulkOperation.SUSPEND);
+
+        BulkUserOperation operation = bulkUserOperationService.createOperation(request, null, performedBy);
+
+        assertThat(operation.getTenantId()).isEqualTo(tenantId);
+    }
+
+    @Test
+    void createOperation_OtherTenantInRequest_IsRejected() {
+        BulkUserOperationRequest request = userIdsRequest(List.of(UUID.randomUUID()), BulkOperation.SUSPEND);
+        request.setTenantId(UUID.randomUUID());
+
+        assertThatThrownBy(() -> bulkUserOperationService.createOperation(request, tenantId, performedBy))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void execute_UserIdsOfAnotherTenant_LeavesThemUnchanged() {
+        // given an ID list that also names a user of another tenant
+        UUID otherTenant = UUID.randomUUID();
+        UUID own = insertUser(tenantId, "ACTIVE", "Sales");
+        UUID foreign = insertUser(otherTenant, "ACTIVE", "Sales");
+        BulkUserOperationRequest request = userIdsRequest(List.of(own, foreign), BulkOperation.SUSPEND);
+
+        // when
+        BulkUserOperation operation = bulkUserOperationService.createOperation(request, tenantId, performedBy);
+        BulkUserOperation result = bulkUserOperationService.execute(operation.getId(), request, performedBy, null);
+
+        // then
+        assertThat(result.getUpdatedCount()).isEqualTo(1);
+        assertThat(countUsers(tenantId, "SUSPENDED")).isEqualTo(1);
+        assertThat(countUsers(otherTenant, "ACTIVE")).isEqualTo(1);
+    }
+
+    @Test
+    void execute_FilterAcrossChunks_ChangesMatchingUsersOfTenantOnly() {
+        // given eight matching users over three chunks, others in another department and tenant
+        for (int i = 0; i < 8; i++) {
+            insertUser(tenantId, "ACTIVE", "Sales");
+        }
+        insertUser(tenantId, "ACTIVE", "Support");
+        UUID otherTenant = UUID.randomUUID();
+        insertUser(otherTenant, "ACTIVE", "Sales");
+
+        UserFilterRequest filter = new UserFilterRequest();
+        filter.setDepartment("sales");
+        BulkUserOperationRequest request = new BulkUserOperationRequest();
+        request.setTenantId(tenantId);
+        request.setFilter(filter);
+        request.setOperation(BulkOperation.UPDATE_STATUS);
+        request.setStatus(User.UserStatus.SUSPENDED);
+
+        // when
+        BulkUserOperation operation = bulkUserOperationService.createOperation(request, tenantId, performedBy);
+        BulkUserOperation result = bulkUserOperationService.execute(operation.getId(), request, performedBy, null);
+
+        // then
+        assertThat(result.getStatus()).isEqualTo(BulkUserOperation.OperationStatus.COMPLETED);
+        assertThat(result.getTotalCount()).isEqualTo(8);
+        assertThat(result.getUpdatedCount()).isEqualTo(8);
+        assertThat(countUsers(tenantId, "SUSPENDED")).isEqualTo(8);
+        assertThat(countUsers(tenantId, "ACTIVE")).isEqualTo(1);
+        assertThat(countUsers(otherTenant, "ACTIVE")).isEqualTo(1);
+    }
+
+    private BulkUserOperationRequest userIdsRequest(List<UUID> userIds, BulkOperation operation) {
+        BulkUserOperationRequest request = new BulkUserOperationRequest();
+        request.setUserIds(userIds);
+        request.setOperation(operation);
+        return request;
+    }
+
+    private UUID insertUser(UUID tenant, String status, String department) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status, department) " +
+            "VALUES (?, ?, ?, 'Test', 'User', ?, ?)",
+            id, tenant, id + "@example.com", status, department);
+        return id;
+    }
+
+    private int countUsers(UUID tenant, String status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE tenant_id = ? AND status = ?",
+                                           Integer.class, tenant, status);
+    }
+}
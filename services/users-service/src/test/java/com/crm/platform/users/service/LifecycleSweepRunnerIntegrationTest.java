@@ -0,0 +1,194 @@
+package com.crm.platform.users.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs lifecycle sweeps against Postgres with the Flyway migrations, two users per chunk, to
+ * check how tenants are claimed, resumed from their checkpoint and taken over from a dead lease.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false",
+    "app.user.lifecycle.chunk-size=2"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class LifecycleSweepRunnerIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private LifecycleSweepRunner sweepRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+    private String sweepName;
+    private List<UUID> processed;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        sweepName = "test-" + UUID.randomUUID().toString().substring(0, 8);
+        processed = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    void run_UnclaimedTenant_WalksAllChunksAndCompletesCheckpoint() {
+        // given five users over three chunks
+        List<UUID> userIds = insertUsers(5);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1).withNano(0);
+
+        // when
+        sweep(cutoff);
+
+        // then every user was handed over once, in id order, and the checkpoint is released
+        assertThat(processed).containsExactlyElementsOf(sorted(userIds));
+        Map<String, Object> checkpoint = checkpoint();
+        assertThat(checkpoint.get("processed_count")).isEqualTo(5L);
+        assertThat(checkpoint.get("affected_count")).isEqualTo(5L);
+        assertThat(checkpoint.get("cutoff_at")).isEqualTo(Timestamp.valueOf(cutoff));
+        assertThat(checkpoint.get("completed_at")).isNotNull();
+        assertThat(checkpoint.get("lease_owner")).isNull();
+        assertThat(checkpoint.get("lease_expires_at")).isNull();
+    }
+
+    @Test
+    void run_UnfinishedCheckpoint_ResumesAfterLastIdWithOriginalCutoff() {
+        // given a run that committed the first two users and then stopped without a lease
+        List<UUID> userIds = sorted(insertUsers(5));
+        LocalDateTime originalCutoff = LocalDateTime.now().minusDays(3).withNano(0);
+        insertCheckpoint(originalCutoff, userIds.get(1), null, null);
+        List<LocalDateTime> cutoffs = Collections.synchronizedList(new ArrayList<>());
+
+        // when a later run starts with a newer cutoff
+        sweepRunner.run(sweepName, LocalDateTime.now(), this::nextIds, (tenant, ids, cutoff) -> {
+            if (tenant.equals(tenantId)) {
+                cutoffs.add(cutoff);
+            }
+            return record(tenant, ids);
+        });
+
+        // then it picks up at the third user and keeps the cutoff the run started with
+        assertThat(processed).containsExactlyElementsOf(userIds.subList(2, 5));
+        assertThat(cutoffs).isNotEmpty().allMatch(originalCutoff::equals);
+        assertThat(checkpoint().get("processed_count")).isEqualTo(5L);
+        assertThat(checkpoint().get("completed_at")).isNotNull();
+    }
+
+    @Test
+    void run_CompletedCheckpoint_StartsNewRunFromFirstUser() {
+        // given a run that finished earlier
+        List<UUID> userIds = insertUsers(3);
+        sweep(LocalDateTime.now().minusDays(2));
+        processed.clear();
+
+        // when
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1).withNano(0);
+        sweep(cutoff);
+
+        // then
+        assertThat(processed).containsExactlyElementsOf(sorted(userIds));
+        assertThat(checkpoint().get("processed_count")).isEqualTo(3L);
+        assertThat(checkpoint().get("cutoff_at")).isEqualTo(Timestamp.valueOf(cutoff));
+    }
+
+    @Test
+    void run_TenantLeasedByAnotherInstance_SkipsItUntilLeaseExpires() {
+        // given another instance holding a live lease half way through the tenant
+        List<UUID> userIds = sorted(insertUsers(4));
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1).withNano(0);
+        insertCheckpoint(cutoff, userIds.get(0), "other-instance", LocalDateTime.now().plusMinutes(5));
+
+        // when / then the tenant is left to it
+        sweep(cutoff);
+        assertThat(processed).isEmpty();
+        assertThat(checkpoint().get("lease_owner")).isEqualTo("other-instance");
+
+        // and once the lease has expired, the next run takes over from its checkpoint
+        jdbcTemplate.update("UPDATE lifecycle_sweep_checkpoints SET lease_expires_at = ? " +
+                            "WHERE sweep_name = ? AND tenant_id = ?",
+                            Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), sweepName, tenantId);
+        sweep(cutoff);
+        assertThat(processed).containsExactlyElementsOf(userIds.subList(1, 4));
+        assertThat(checkpoint().get("lease_owner")).isNull();
+        assertThat(checkpoint().get("completed_at")).isNotNull();
+    }
+
+    private void sweep(LocalDateTime cutoff) {
+        sweepRunner.run(sweepName, cutoff, this::nextIds, (tenant, ids, chunkCutoff) -> record(tenant, ids));
+    }
+
+    private List<UUID> nextIds(UUID tenant, UUID afterId, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE tenant_id = ? AND id > ? ORDER BY id LIMIT ?",
+                                         UUID.class, tenant, afterId, limit);
+    }
+
+    private int record(UUID tenant, List<UUID> ids) {
+        if (tenant.equals(tenantId)) {
+            processed.addAll(ids);
+        }
+        return ids.size();
+    }
+
+    private List<UUID> insertUsers(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update(
+                "INSERT INTO users (id, tenant_id, email, first_name, last_name, status) VALUES (?, ?, ?, 'Test', 'User', 'ACTIVE')",
+                id, tenantId, id + "@example.com");
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void insertCheckpoint(LocalDateTime cutoff, UUID lastId, String leaseOwner, LocalDateTime leaseExpiresAt) {
+        jdbcTemplate.update(
+            "INSERT INTO lifecycle_sweep_checkpoints (sweep_name, tenant_id, run_started_at, cutoff_at, last_id, " +
+            "processed_count, affected_count, lease_owner, lease_expires_at) VALUES (?, ?, ?, ?, ?, 2, 2, ?, ?)",
+            sweepName, tenantId, Timestamp.valueOf(cutoff), Timestamp.valueOf(cutoff), lastId, leaseOwner,
+            leaseExpiresAt != null ? Timestamp.valueOf(leaseExpiresAt) : null);
+    }
+
+    private Map<String, Object> checkpoint() {
+        return jdbcTemplate.queryForMap(
+            "SELECT cutoff_at, last_id, processed_count, affected_count, completed_at, lease_owner, lease_expires_at " +
+            "FROM lifecycle_sweep_checkpoints WHERE sweep_name = ? AND tenant_id = ?", sweepName, tenantId);
+    }
+
+    /**
+     * Users in the order the sweep walks them, which is Postgres' uuid order
+     */
+    private List<UUID> sorted(List<UUID> ids) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id = ANY(?) ORDER BY id", UUID.class,
+                                         (Object) ids.toArray(new UUID[0]));
+    }
+}
@@ -0,0 +1,218 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.dto.BulkProfileUpdateRequest;
+import com.crm.platform.users.dto.BulkProfileUpdateRequest.ProfileUpdate;
+import com.crm.platform.users.dto.BulkProfileUpdateResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs bulk profile updates and custom field merges against Postgres with the Flyway
+ * migrations, three profiles per chunk.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false",
+    "app.profile.bulk.chunk-size=3"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class ProfileServiceIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+    private UUID updatedBy;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        updatedBy = UUID.randomUUID();
+    }
+
+    @Test
+    void bulkUpdateProfiles_MixedBatch_AppliesValidProfilesAndReportsTheRest() {
+        // given four valid updates, one of which the database rejects, and five that cannot apply
+        UUID renamed = insertUser(null);
+        UUID retitled = insertUser(null);
+        UUID same = insertUser(null);
+        UUID tooLong = insertUser(null);
+        UUID badPhone = insertUser(null);
+        UUID unknownField = insertUser(null);
+        UUID clearedName = insertUser(null);
+        UUID foreign = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status) VALUES (?, ?, ?, 'Test', 'User', 'ACTIVE')",
+            foreign, UUID.randomUUID(), foreign + "@example.com");
+        UUID missing = UUID.randomUUID();
+
+        List<ProfileUpdate> profiles = new ArrayList<>();
+        profiles.add(profile(renamed, fields("firstName", "Ada", "jobTitle", "Engineer")));
+        profiles.add(profile(retitled, fields("firstName", "Grace", "jobTitle", "Admiral")));
+        profiles.add(profile(same, fields("firstName", "Test", "jobTitle", null)));
+        profiles.add(profile(tooLong, fields("firstName", "x".repeat(101), "jobTitle", "Engineer")));
+        profiles.add(profile(badPhone, fields("phoneNumber", "not a phone")));
+        profiles.add(profile(unknownField, fields("salary", "1000000")));
+        profiles.add(profile(clearedName, fields("lastName", null)));
+        profiles.add(profile(renamed, fields("jobTitle", "Duplicate")));
+        profiles.add(profile(foreign, fields("firstName", "Foreign", "jobTitle", "Spy")));
+        profiles.add(profile(missing, fields("firstName", "Nobody", "jobTitle", "Ghost")));
+
+        // when
+        BulkProfileUpdateResult result = profileService.bulkUpdateProfiles(request(profiles), updatedBy, null);
+
+        // then
+        assertThat(result.getRequested()).isEqualTo(10);
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getNotFound()).isEqualTo(2);
+        assertThat(result.getErrors())
+            .extracting(BulkProfileUpdateResult.ProfileError::getUserId)
+            .containsExactlyInAnyOrder(badPhone, unknownField, clearedName, renamed, tooLong);
+        assertThat(errorFor(result, badPhone)).contains("phoneNumber: Invalid phone number format");
+        assertThat(errorFor(result, unknownField)).contains("salary: not a profile field");
+        assertThat(errorFor(result, clearedName)).contains("lastName: cannot be cleared");
+        assertThat(errorFor(result, renamed)).contains("Duplicate profile for user");
+
+        assertThat(column(renamed, "first_name")).isEqualTo("Ada");
+        assertThat(column(renamed, "job_title")).isEqualTo("Engineer");
+        assertThat(column(retitled, "job_title")).isEqualTo("Admiral");
+        assertThat(column(tooLong, "first_name")).isEqualTo("Test");
+        assertThat(column(badPhone, "phone_number")).isNull();
+        assertThat(column(clearedName, "last_name")).isEqualTo("User");
+        assertThat(column(foreign, "first_name")).isEqualTo("Test");
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT user_id FROM user_audit_logs WHERE tenant_id = ? AND performed_by = ?", UUID.class,
+            tenantId, updatedBy))
+            .containsExactlyInAnyOrder(renamed, retitled);
+    }
+
+    @Test
+    void bulkUpdateProfiles_CustomFieldPatch_MergesAndRemovesNullKeys() throws Exception {
+        // given stored custom fields, and a patch that changes, adds and removes keys
+        UUID userId = insertUser("{\"team\":\"blue\",\"level\":3,\"badge\":\"gold\"}");
+        UUID untouched = insertUser("{\"team\":\"red\"}");
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("team", "green");
+        patch.put("shift", "night");
+        patch.put("badge", null);
+        patch.put("absent", null);
+
+        // when
+        BulkProfileUpdateResult result = profileService.bulkUpdateProfiles(
+            request(List.of(new ProfileUpdate(userId, null, patch),
+                            new ProfileUpdate(untouched, null, Map.of("team", "red")))),
+            updatedBy, null);
+
+        // then the patch is merged key by key and a patch matching the stored fields changes nothing
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(customFields(userId))
+            .containsExactlyInAnyOrderEntriesOf(Map.of("team", "green", "level", 3, "shift", "night"));
+        assertThat(column(untouched, "custom_fields")).isEqualTo("{\"team\":\"red\"}");
+    }
+
+    @Test
+    void mergeCustomFields_NullValue_RemovesKeyAndKeepsOthers() throws Exception {
+        // given
+        UUID userId = insertUser("{\"team\":\"blue\",\"badge\":\"gold\"}");
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("badge", null);
+        patch.put("level", 4);
+
+        // when
+        Map<String, Object> merged = profileService.mergeCustomFields(userId, patch, updatedBy, null);
+
+        // then
+        assertThat(merged).containsExactlyInAnyOrderEntriesOf(Map.of("team", "blue", "level", 4));
+        assertThat(customFields(userId)).isEqualTo(merged);
+    }
+
+    @Test
+    void mergeCustomFields_NoStoredFields_StartsFromEmptyObject() throws Exception {
+        UUID userId = insertUser(null);
+
+        Map<String, Object> merged = profileService.mergeCustomFields(userId, Map.of("team", "blue"), updatedBy, null);
+
+        assertThat(merged).containsExactly(Map.entry("team", "blue"));
+        assertThat(customFields(userId)).isEqualTo(merged);
+    }
+
+    private BulkProfileUpdateRequest request(List<ProfileUpdate> profiles) {
+        BulkProfileUpdateRequest request = new BulkProfileUpdateRequest();
+        request.setTenantId(tenantId);
+        request.setProfiles(profiles);
+        return request;
+    }
+
+    private ProfileUpdate profile(UUID userId, Map<String, Object> fields) {
+        return new ProfileUpdate(userId, fields, null);
+    }
+
+    private Map<String, Object> fields(Object... keysAndValues) {
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            fields.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return fields;
+    }
+
+    private String errorFor(BulkProfileUpdateResult result, UUID userId) {
+        return result.getErrors().stream()
+            .filter(error -> userId.equals(error.getUserId()))
+            .map(BulkProfileUpdateResult.ProfileError::getMessage)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private UUID insertUser(String customFields) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status, custom_fields) " +
+            "VALUES (?, ?, ?, 'Test', 'User', 'ACTIVE', ?)",
+            id, tenantId, id + "@example.com", customFields);
+        return id;
+    }
+
+    private String column(UUID userId, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM users WHERE id = ?", String.class, userId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> customFields(UUID userId) throws Exception {
+        return objectMapper.readValue(column(userId, "custom_fields"), Map.class);
+    }
+}
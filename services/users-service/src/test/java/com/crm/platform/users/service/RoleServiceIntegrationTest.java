@@ -0,0 +1,167 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.entity.Permission;
+import com.crm.platform.users.entity.Role;
+import com.crm.platform.users.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs role moves and effective permission checks against Postgres with the Flyway migrations,
+ * through the role closure and the permission cache.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class RoleServiceIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+    private String resource;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        resource = "resource-" + UUID.randomUUID();
+    }
+
+    @Test
+    void moveRole_UnderAnotherParent_RelinksSubtreeAndItsInheritedPermissions() {
+        // given manager -> lead -> member, and a separate support role; the user holds member
+        Role manager = role("manager", null);
+        Role lead = role("lead", manager.getId());
+        Role member = role("member", lead.getId());
+        Role support = role("support", null);
+        grant(manager, "approve");
+        grant(support, "refund");
+        UUID userId = userWith(member);
+        assertThat(roleService.userHasPermission(userId, resource, "approve")).isTrue();
+        assertThat(roleService.userHasPermission(userId, resource, "refund")).isFalse();
+
+        // when lead and its subtree move under support
+        Role moved = roleService.moveRole(lead.getId(), support.getId(), null, null);
+
+        // then paths, levels and closure follow the new parent
+        assertThat(moved.getParentRoleId()).isEqualTo(support.getId());
+        assertThat(moved.getHierarchyLevel()).isEqualTo(1);
+        assertThat(roleService.getRoleById(member.getId()).orElseThrow().getHierarchyPath())
+            .isEqualTo("/" + support.getId() + "/" + lead.getId() + "/" + member.getId() + "/");
+        assertThat(roleService.getRoleById(member.getId()).orElseThrow().getHierarchyLevel()).isEqualTo(2);
+        assertThat(ancestorsOf(member)).containsExactlyInAnyOrder(member.getId(), lead.getId(), support.getId());
+
+        // and the cached permissions of the member's user were dropped
+        assertThat(roleService.userHasPermission(userId, resource, "approve")).isFalse();
+        assertThat(roleService.userHasPermission(userId, resource, "refund")).isTrue();
+    }
+
+    @Test
+    void moveRole_UnderItselfOrDescendant_IsRejected() {
+        Role manager = role("manager", null);
+        Role lead = role("lead", manager.getId());
+        Role member = role("member", lead.getId());
+
+        assertThatThrownBy(() -> roleService.moveRole(manager.getId(), member.getId(), null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("descendants");
+        assertThatThrownBy(() -> roleService.moveRole(lead.getId(), lead.getId(), null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ancestorsOf(member)).containsExactlyInAnyOrder(member.getId(), lead.getId(), manager.getId());
+    }
+
+    @Test
+    void userHasPermission_AfterAncestorGainsPermission_ReadsNewPermission() {
+        // given a cached check that found no permission
+        Role manager = role("manager", null);
+        Role member = role("member", manager.getId());
+        UUID userId = userWith(member);
+        assertThat(roleService.userHasPermission(userId, resource, "export")).isFalse();
+        assertThat(roleService.userHasResourceAccess(userId, resource)).isFalse();
+
+        // when an ancestor of the user's role gains it
+        Permission export = permissionRepository.save(new Permission(resource, "export", null, "test"));
+        roleService.addPermissionToRole(manager.getId(), export.getId(), null, null);
+
+        // then the next check reads it, and loses it again once removed
+        assertThat(roleService.userHasPermission(userId, resource, "export")).isTrue();
+        assertThat(roleService.userHasResourceAccess(userId, resource)).isTrue();
+        roleService.removePermissionFromRole(manager.getId(), export.getId(), null, null);
+        assertThat(roleService.userHasPermission(userId, resource, "export")).isFalse();
+    }
+
+    @Test
+    void calculateEffectivePermissions_InactiveAncestor_StopsInheritanceThere() {
+        // given manager -> lead -> member with lead inactive
+        Role manager = role("manager", null);
+        Role lead = role("lead", manager.getId());
+        Role member = role("member", lead.getId());
+        grant(manager, "approve");
+        grant(lead, "review");
+        grant(member, "read");
+        jdbcTemplate.update("UPDATE roles SET is_active = FALSE WHERE id = ?", lead.getId());
+        UUID userId = userWith(member);
+
+        // when / then only the permissions below the inactive role are effective
+        assertThat(roleService.calculateEffectivePermissions(userId))
+            .extracting(Permission::getAction)
+            .containsExactly("read");
+        assertThat(roleService.userHasPermission(userId, resource, "approve")).isFalse();
+        assertThat(roleService.userHasPermission(userId, resource, "review")).isFalse();
+    }
+
+    private Role role(String name, UUID parentRoleId) {
+        return roleService.createRole(name, null, tenantId, Role.RoleType.CUSTOM, parentRoleId, null, null);
+    }
+
+    private void grant(Role role, String action) {
+        Permission permission = permissionRepository.save(new Permission(resource, action, null, "test"));
+        roleService.addPermissionToRole(role.getId(), permission.getId(), null, null);
+    }
+
+    private UUID userWith(Role role) {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status) VALUES (?, ?, ?, 'Test', 'User', 'ACTIVE')",
+            userId, tenantId, userId + "@example.com");
+        roleService.assignRoleToUser(userId, role.getId(), tenantId, null, null, null, null);
+        return userId;
+    }
+
+    private List<UUID> ancestorsOf(Role role) {
+        return jdbcTemplate.queryForList("SELECT ancestor_id FROM role_closure WHERE descendant_id = ?",
+                                         UUID.class, role.getId());
+    }
+}
@@ -0,0 +1,167 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.entity.Team;
+import com.crm.platform.users.entity.TeamMember;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs team moves, membership changes and the subtree aggregate reconciliation against Postgres
+ * with the Flyway migrations.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class TeamServiceIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+    }
+
+    @Test
+    void addAndRemoveTeamMember_DeepTeam_AppliesDeltaToEveryAncestor() {
+        // given sales -> emea -> uk
+        Team sales = team("sales", null);
+        Team emea = team("emea", sales.getId());
+        Team uk = team("uk", emea.getId());
+        UUID first = user();
+        UUID second = user();
+
+        // when two members join uk
+        addMember(uk, first);
+        addMember(uk, second);
+
+        // then uk and both of its ancestors count them
+        assertThat(subtreeCounts(uk, emea, sales)).containsExactly(2, 2, 2);
+        assertThat(subtreeActiveCounts(uk, emea, sales)).containsExactly(2, 2, 2);
+
+        // and a removal takes one off the whole branch
+        teamService.removeTeamMember(uk.getId(), first, null, null);
+        assertThat(subtreeCounts(uk, emea, sales)).containsExactly(1, 1, 1);
+        assertThat(subtreeActiveCounts(uk, emea, sales)).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void moveTeam_BetweenParents_MovesSubtreeAndItsAggregates() {
+        // given sales with a member and a child emea holding two, and support with one member
+        Team sales = team("sales", null);
+        Team emea = team("emea", sales.getId());
+        Team uk = team("uk", emea.getId());
+        Team support = team("support", null);
+        addMember(sales, user());
+        addMember(uk, user());
+        addMember(uk, user());
+        addMember(support, user());
+        assertThat(subtreeCounts(sales, support)).containsExactly(3, 1);
+
+        // when emea moves under support
+        Team moved = teamService.moveTeam(emea.getId(), support.getId(), null, null);
+
+        // then the branch leaves sales and joins support
+        assertThat(moved.getParentTeamId()).isEqualTo(support.getId());
+        assertThat(moved.getHierarchyLevel()).isEqualTo(1);
+        assertThat(subtreeCounts(sales, support, emea, uk)).containsExactly(1, 3, 2, 2);
+        assertThat(teamService.getTeamById(uk.getId()).orElseThrow().getHierarchyPath())
+            .isEqualTo("/" + support.getId() + "/" + emea.getId() + "/" + uk.getId() + "/");
+        assertThat(teamService.getDescendantTeams(support.getId()))
+            .extracting(Team::getId)
+            .containsExactlyInAnyOrder(emea.getId(), uk.getId());
+        assertThat(teamService.getDescendantTeams(sales.getId())).isEmpty();
+    }
+
+    @Test
+    void moveTeam_UnderOwnDescendant_IsRejected() {
+        Team sales = team("sales", null);
+        Team emea = team("emea", sales.getId());
+
+        assertThatThrownBy(() -> teamService.moveTeam(sales.getId(), emea.getId(), null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("descendants");
+    }
+
+    @Test
+    void reconcileSubtreeAggregates_DriftedCounts_CorrectsThem() {
+        // given aggregates changed behind the service's back
+        Team sales = team("sales", null);
+        Team emea = team("emea", sales.getId());
+        addMember(emea, user());
+        jdbcTemplate.update("UPDATE teams SET subtree_member_count = 7, subtree_active_member_count = 0 WHERE id = ?",
+                            sales.getId());
+        jdbcTemplate.update("UPDATE teams SET subtree_member_count = 0 WHERE id = ?", emea.getId());
+
+        // when
+        teamService.reconcileSubtreeAggregates();
+
+        // then
+        assertThat(subtreeCounts(sales, emea)).containsExactly(1, 1);
+        assertThat(subtreeActiveCounts(sales, emea)).containsExactly(1, 1);
+    }
+
+    private Team team(String name, UUID parentTeamId) {
+        return teamService.createTeam(name, null, tenantId, null, Team.TeamType.FUNCTIONAL, parentTeamId,
+                                      null, null, null, null);
+    }
+
+    private UUID user() {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status) VALUES (?, ?, ?, 'Test', 'User', 'ACTIVE')",
+            userId, tenantId, userId + "@example.com");
+        return userId;
+    }
+
+    private void addMember(Team team, UUID userId) {
+        teamService.addTeamMember(team.getId(), userId, tenantId, TeamMember.TeamRole.MEMBER, 100, false, null, null);
+    }
+
+    private List<Integer> subtreeCounts(Team... teams) {
+        return aggregate("subtree_member_count", teams);
+    }
+
+    private List<Integer> subtreeActiveCounts(Team... teams) {
+        return aggregate("subtree_active_member_count", teams);
+    }
+
+    private List<Integer> aggregate(String column, Team... teams) {
+        return Arrays.stream(teams)
+            .map(team -> jdbcTemplate.queryForObject("SELECT " + column + " FROM teams WHERE id = ?", Integer.class,
+                                                     team.getId()))
+            .toList();
+    }
+}
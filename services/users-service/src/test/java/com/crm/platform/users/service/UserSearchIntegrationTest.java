@@ -0,0 +1,118 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.dto.UserDirectoryEntry;
+import com.crm.platform.users.dto.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs directory search and type-ahead against Postgres with the Flyway migrations, for terms
+ * served by the trigram indexes and for terms too short to form a trigram.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class UserSearchIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+    private UUID ada;
+    private UUID adam;
+    private UUID brad;
+    private UUID adrian;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        ada = insertUser("Ada", "Lovelace", "ada@example.com", "ACTIVE");
+        adam = insertUser("Adam", "Smith", "asmith@example.com", "ACTIVE");
+        brad = insertUser("Brad", "Jones", "bjones@example.com", "ACTIVE");
+        adrian = insertUser("Adrian", "Zeller", "azeller@example.com", "INACTIVE");
+        insertUser("Ada", "Other", "ada@other.example.com", "ACTIVE", UUID.randomUUID());
+    }
+
+    @Test
+    void searchUsers_ShortTerm_MatchesNameAndEmailPrefixesOnly() {
+        // when
+        Page<UserResponse> page = userService.searchUsers(tenantId, " AD ", PageRequest.of(0, 2));
+
+        // then Brad, which only contains the term, is left out; inactive users are found too
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(UserResponse::getId).containsExactly(ada, adam);
+        assertThat(userService.searchUsers(tenantId, "ad", PageRequest.of(1, 2)).getContent())
+            .extracting(UserResponse::getId)
+            .containsExactly(adrian);
+    }
+
+    @Test
+    void searchUsers_ShortTermWithWildcard_MatchesLiterally() {
+        assertThat(userService.searchUsers(tenantId, "_d", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(userService.searchUsers(tenantId, "j", PageRequest.of(0, 10)).getContent())
+            .extracting(UserResponse::getId)
+            .containsExactly(brad);
+    }
+
+    @Test
+    void searchUsers_TrigramTerm_MatchesInsideWordsAndRanksPrefixesFirst() {
+        // when
+        Page<UserResponse> inside = userService.searchUsers(tenantId, "rad", PageRequest.of(0, 10));
+        Page<UserResponse> ranked = userService.searchUsers(tenantId, "ada", PageRequest.of(0, 10));
+
+        // then
+        assertThat(inside.getContent()).extracting(UserResponse::getId).containsExactly(brad);
+        assertThat(ranked.getContent()).extracting(UserResponse::getId).startsWith(ada).contains(adam);
+    }
+
+    @Test
+    void typeaheadUsers_ShortAndTrigramTerms_ReturnActiveMatchesOnly() {
+        assertThat(userService.typeaheadUsers(tenantId, "ad", 10))
+            .extracting(UserDirectoryEntry::getId)
+            .containsExactly(ada, adam);
+        assertThat(userService.typeaheadUsers(tenantId, "rad", 10))
+            .extracting(UserDirectoryEntry::getId)
+            .containsExactly(brad);
+    }
+
+    private UUID insertUser(String firstName, String lastName, String email, String status) {
+        return insertUser(firstName, lastName, email, status, tenantId);
+    }
+
+    private UUID insertUser(String firstName, String lastName, String email, String status, UUID tenant) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status) VALUES (?, ?, ?, ?, ?, ?)",
+            id, tenant, email, firstName, lastName, status);
+        return id;
+    }
+}
@@ -0,0 +1,182 @@
+package com.crm.platform.users.service;
+
+import com.crm.platform.users.dto.UserStatisticsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the V14 statistics triggers and the reconciliation against Postgres with the Flyway
+ * migrations.
+ */
+@SpringBootTest(properties = {
+    "spring.cache.type=simple",
+    "eureka.client.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class UserStatisticsServiceIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+    }
+
+    @Test
+    void triggers_InsertUpdateDelete_KeepCountersCurrent() {
+        // given three users inserted by one statement
+        jdbcTemplate.update(
+            "INSERT INTO users (tenant_id, email, first_name, last_name, status, onboarding_completed) VALUES " +
+            "(?, 'a@example.com', 'A', 'User', 'ACTIVE', TRUE), " +
+            "(?, 'b@example.com', 'B', 'User', 'ACTIVE', FALSE), " +
+            "(?, 'c@example.com', 'C', 'User', 'INACTIVE', FALSE)",
+            tenantId, tenantId, tenantId);
+        assertThat(counters()).containsEntry("total_users", 3L).containsEntry("active_users", 2L)
+            .containsEntry("inactive_users", 1L).containsEntry("incomplete_onboarding_users", 2L);
+        assertThat(newUsersToday()).isEqualTo(3);
+
+        // when one statement suspends the active users and another completes an onboarding
+        jdbcTemplate.update("UPDATE users SET status = 'SUSPENDED' WHERE tenant_id = ? AND status = 'ACTIVE'", tenantId);
+        jdbcTemplate.update("UPDATE users SET onboarding_completed = TRUE WHERE tenant_id = ? AND email = 'b@example.com'",
+                            tenantId);
+
+        // then
+        assertThat(counters()).containsEntry("total_users", 3L).containsEntry("active_users", 0L)
+            .containsEntry("suspended_users", 2L).containsEntry("incomplete_onboarding_users", 1L);
+
+        // and a delete takes its users off the counters
+        jdbcTemplate.update("DELETE FROM users WHERE tenant_id = ? AND status = 'SUSPENDED'", tenantId);
+        assertThat(counters()).containsEntry("total_users", 1L).containsEntry("suspended_users", 0L)
+            .containsEntry("inactive_users", 1L).containsEntry("incomplete_onboarding_users", 1L);
+    }
+
+    @Test
+    void triggers_ActivityOnNewDay_CountsUserActiveOnce() {
+        UUID userId = insertUser("ACTIVE");
+
+        jdbcTemplate.update("UPDATE users SET last_activity_at = CURRENT_TIMESTAMP WHERE id = ?", userId);
+        jdbcTemplate.update("UPDATE users SET last_login_at = CURRENT_TIMESTAMP WHERE id = ?", userId);
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT active_users FROM tenant_user_daily_stats WHERE tenant_id = ? AND day = ?", Integer.class,
+            tenantId, LocalDate.now())).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileStatistics_CountersDrifted_RecountsThem() {
+        // given counters that disagree with the users table
+        insertUser("ACTIVE");
+        insertUser("ACTIVE");
+        insertUser("SUSPENDED");
+        jdbcTemplate.update("UPDATE tenant_user_stats SET total_users = 10, active_users = 7, suspended_users = 0 " +
+                            "WHERE tenant_id = ?", tenantId);
+
+        // when
+        userStatisticsService.reconcileStatistics();
+
+        // then
+        assertThat(counters()).containsEntry("total_users", 3L).containsEntry("active_users", 2L)
+            .containsEntry("suspended_users", 1L);
+        UserStatisticsResponse stats = userStatisticsService.getUserStatistics(tenantId);
+        assertThat(stats.getTotalUsers()).isEqualTo(3);
+        assertThat(stats.getSnapshotAt()).isNotNull();
+        assertThat(stats.getUsersByDepartment()).hasSize(1);
+        assertThat(stats.getUsersByDepartment().get(0).getUserCount()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcileStatistics_UserWriteInFlight_NeitherLosesNorDoublesIt() throws Exception {
+        // given a user insert whose trigger has run but whose transaction is still open
+        insertUser("ACTIVE");
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (PreparedStatement insert = writer.prepareStatement(
+                    "INSERT INTO users (tenant_id, email, first_name, last_name, status, department) " +
+                    "VALUES (?, 'late@example.com', 'Late', 'User', 'ACTIVE', 'Sales')")) {
+                insert.setObject(1, tenantId);
+                insert.executeUpdate();
+            }
+
+            // when the reconciliation runs meanwhile, it waits for that transaction
+            CompletableFuture<Void> reconcile = CompletableFuture.runAsync(userStatisticsService::reconcileStatistics);
+            awaitLockWait();
+            assertThat(reconcile).isNotDone();
+            writer.commit();
+            reconcile.get(30, TimeUnit.SECONDS);
+        }
+
+        // then the committed user is counted exactly once
+        assertThat(counters()).containsEntry("total_users", 2L).containsEntry("active_users", 2L);
+    }
+
+    private UUID insertUser(String status) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, tenant_id, email, first_name, last_name, status, department) " +
+            "VALUES (?, ?, ?, 'Test', 'User', ?, 'Sales')",
+            id, tenantId, id + "@example.com", status);
+        return id;
+    }
+
+    private Map<String, Object> counters() {
+        return jdbcTemplate.queryForMap(
+            "SELECT total_users, active_users, inactive_users, suspended_users, incomplete_onboarding_users " +
+            "FROM tenant_user_stats WHERE tenant_id = ?", tenantId);
+    }
+
+    private int newUsersToday() {
+        return jdbcTemplate.queryForObject(
+            "SELECT new_users FROM tenant_user_daily_stats WHERE tenant_id = ? AND day = ?", Integer.class,
+            tenantId, LocalDate.now());
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Reconciliation never waited for the open user write");
+    }
+}
@@ -1,5 +1,6 @@
 package com.crm.platform.workflow;
 
+import com.crm.platform.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
@@ -22,6 +23,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableAsync
 @EnableScheduling
 @EnableTransactionManagement
+@EnableOutbox
 public class WorkflowServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,141 @@
+package com.crm.platform.workflow.dto;
+
+import com.crm.platform.workflow.entity.RuleExecution;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Event published for a rule execution. Flat copy of the entity, without its rule association.
+ */
+public class RuleExecutionEvent {
+
+    private UUID executionId;
+    private UUID tenantId;
+    private UUID businessRuleId;
+    private String businessRuleName;
+    private UUID entityId;
+    private String entityType;
+    private String triggerEvent;
+    private RuleExecution.ExecutionStatus status;
+    private JsonNode outputData;
+    private String errorMessage;
+    private LocalDateTime executedAt;
+    private Long durationMs;
+
+    // Constructors
+    public RuleExecutionEvent() {}
+
+    public RuleExecutionEvent(RuleExecution execution) {
+        this.executionId = execution.getId();
+        this.tenantId = execution.getTenantId();
+        this.businessRuleId = execution.getBusinessRule().getId();
+        this.businessRuleName = execution.getBusinessRule().getName();
+        this.entityId = execution.getEntityId();
+        this.entityType = execution.getEntityType();
+        this.triggerEvent = execution.getTriggerEvent();
+        this.status = execution.getStatus();
+        this.outputData = execution.getOutputData();
+        this.errorMessage = execution.getErrorMessage();
+        this.executedAt = execution.getExecutedAt();
+        this.durationMs = execution.getDurationMs();
+    }
+
+    // Getters and Setters
+    public UUID getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(UUID executionId) {
+        this.executionId = executionId;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public UUID getBusinessRuleId() {
+        return businessRuleId;
+    }
+
+    public void setBusinessRuleId(UUID businessRuleId) {
+        this.businessRuleId = businessRuleId;
+    }
+
+    public String getBusinessRuleName() {
+        return businessRuleName;
+    }
+
+    public void setBusinessRuleName(String businessRuleName) {
+        this.businessRuleName = businessRuleName;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(UUID entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getTriggerEvent() {
+        return triggerEvent;
+    }
+
+    public void setTriggerEvent(String triggerEvent) {
+        this.triggerEvent = triggerEvent;
+    }
+
+    public RuleExecution.ExecutionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RuleExecution.ExecutionStatus status) {
+        this.status = status;
+    }
+
+    public JsonNode getOutputData() {
+        return outputData;
+    }
+
+    public void setOutputData(JsonNode outputData) {
+        this.outputData = outputData;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getExecutedAt() {
+        return executedAt;
+    }
+
+    public void setExecutedAt(LocalDateTime executedAt) {
+        this.executedAt = executedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
@@ -1,6 +1,8 @@
 package com.crm.platform.workflow.service;
 
+import com.crm.platform.common.outbox.OutboxPublisher;
 import com.crm.platform.workflow.dto.BusinessRuleDto;
+import com.crm.platform.workflow.dto.RuleExecutionEvent;
 import com.crm.platform.workflow.entity.BusinessRule;
 import com.crm.platform.workflow.entity.RuleExecution;
 import com.crm.platform.workflow.exception.WorkflowNotFoundException;
@@ -16,7 +18,6 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,7 +39,7 @@ public class BusinessRuleService {
     private final BusinessRuleMapper businessRuleMapper;
     private final WorkflowValidationService workflowValidationService;
     private final BusinessRuleEngineService businessRuleEngineService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxPublisher outboxPublisher;
 
     @Autowired
     public BusinessRuleService(BusinessRuleRepository businessRuleRepository,
@@ -46,13 +47,13 @@ public class BusinessRuleService {
                              BusinessRuleMapper businessRuleMapper,
                              WorkflowValidationService workflowValidationService,
                              BusinessRuleEngineService businessRuleEngineService,
-                             KafkaTemplate<String, Object> kafkaTemplate) {
+                             OutboxPublisher outboxPublisher) {
         this.businessRuleRepository = businessRuleRepository;
         this.ruleExecutionRepository = ruleExecutionRepository;
         this.businessRuleMapper = businessRuleMapper;
         this.workflowValidationService = workflowValidationService;
         this.businessRuleEngineService = businessRuleEngineService;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxPublisher = outboxPublisher;
     }
 
     /**
@@ -194,9 +195,10 @@ public class BusinessRuleService {
                 .findByTenantIdAndEntityTypeAndIsActiveTrueOrderByPriorityDesc(tenantId, entityType);
 
         for (BusinessRule rule : rules) {
+            RuleExecution execution;
             try {
                 // Execute rule
-                RuleExecution execution = new RuleExecution(tenantId, rule, entityId, entityType);
+                execution = new RuleExecution(tenantId, rule, entityId, entityType);
                 execution.setTriggerEvent(triggerEvent);
                 execution.setInputData(entityData);
 
@@ -216,19 +218,20 @@ public class BusinessRuleService {
 
                 ruleExecutionRepository.save(execution);
 
-                // Publish rule execution event
-                publishRuleExecutionEvent(execution);
-
             } catch (Exception e) {
                 logger.error("Error executing business rule: {} for entity: {}", rule.getId(), entityId, e);
                 
-                RuleExecution execution = new RuleExecution(tenantId, rule, entityId, entityType);
-                execution.setTriggerEvent(triggerEvent);
-                execution.setInputData(entityData);
-                execution.markAsFailed(e.getMessage(), null, System.currentTimeMillis());
+                RuleExecution failed = new RuleExecution(tenantId, rule, entityId, entityType);
+                failed.setTriggerEvent(triggerEvent);
+                failed.setInputData(entityData);
+                failed.markAsFailed(e.getMessage(), null, System.currentTimeMillis());
                 
-                ruleExecutionRepository.save(execution);
+                ruleExecutionRepository.save(failed);
+                continue;
             }
+
+            // Outside the try: a publishing failure is not a failure of the rule
+            publishRuleExecutionEvent(execution);
         }
     }
 
@@ -327,14 +330,12 @@ public class BusinessRuleService {
     }
 
     /**
-     * Publish rule execution event to Kafka
+     * Publish rule execution event through the outbox, keyed by entity so the executions for one
+     * entity arrive in order
      */
     private void publishRuleExecutionEvent(RuleExecution execution) {
-        try {
-            kafkaTemplate.send("rule-execution-events", "rule.executed", execution);
-        } catch (Exception e) {
-            logger.error("Error publishing rule execution event for execution: {}", execution.getId(), e);
-        }
+        String key = execution.getEntityId() != null ? execution.getEntityId().toString() : null;
+        outboxPublisher.publish("rule-execution-events", key, new RuleExecutionEvent(execution));
     }
 
     /**
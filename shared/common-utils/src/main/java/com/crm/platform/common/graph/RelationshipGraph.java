@@ -0,0 +1,534 @@
+package com.crm.platform.common.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact in-memory graph of the relationships of one tenant, for traversals that would otherwise
+ * query the database one hop at a time.
+ *
+ * Every UUID is mapped once to a primitive int id; relationships are kept as int adjacency arrays in
+ * both directions, so they are traversed without boxing or following object references. A pair
+ * related more than once is connected once per relationship, and degree counts relationships.
+ * Each node carries a small type (for example contact or account) chosen by the caller.
+ *
+ * Memory: a relationship takes 8 bytes, an int in the adjacency array of each end. A node takes
+ * 16 bytes for its UUID, 8 to 16 for its slots in the hash table (kept between a quarter and half
+ * full), 16 for its adjacency array header and 9 for its array reference, degree and type, so
+ * 49 to 57 bytes, plus up to half as much again while the node arrays have spare capacity.
+ * Warming up a graph of a million relationships between a million nodes takes about 78 MB of heap,
+ * and about 68 MB once {@link #trimToSize()} has released the spare capacity of adjacency arrays.
+ * Removed nodes keep their id until the graph is rebuilt.
+ *
+ * Reads run concurrently; writes are exclusive.
+ */
+public class RelationshipGraph {
+
+  private static final int[] NO_EDGES = new int[0];
+  private static final int EMPTY = -1;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Indexed by node id
+  private long[] mostSignificantBits;
+  private long[] leastSignificantBits;
+  private byte[] types;
+  private int[][] adjacency;
+  private int[] degrees;
+  private int nodeCount;
+  private long relationshipCount;
+
+  // Open addressing table of node ids by UUID, kept at most half full
+  private int[] slots;
+
+  public RelationshipGraph() {
+    this(16);
+  }
+
+  public RelationshipGraph(int expectedNodes) {
+    int capacity = Math.max(16, expectedNodes);
+    mostSignificantBits = new long[capacity];
+    leastSignificantBits = new long[capacity];
+    types = new byte[capacity];
+    adjacency = new int[capacity][];
+    degrees = new int[capacity];
+    slots = new int[tableSizeFor(capacity)];
+    Arrays.fill(slots, EMPTY);
+  }
+
+  /**
+   * Add a relationship between two nodes, adding the nodes with the given types if they are new.
+   * Relationships of a node to itself are ignored.
+   */
+  public void addRelationship(UUID from, int fromType, UUID to, int toType) {
+    if (from.equals(to)) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      int a = nodeOf(from, fromType);
+      int b = nodeOf(to, toType);
+      append(a, b);
+      append(b, a);
+      relationshipCount++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove one relationship between two nodes.
+   * @return false if they were not related
+   */
+  public boolean removeRelationship(UUID from, UUID to) {
+    lock.writeLock().lock();
+    try {
+      int a = find(from);
+      int b = find(to);
+      if (a == EMPTY || b == EMPTY || !removeOne(a, b)) {
+        return false;
+      }
+      removeOne(b, a);
+      relationshipCount--;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove every relationship of a node to nodes of the given type.
+   * @return number of relationships removed
+   */
+  public int removeRelationships(UUID id, int neighbourType) {
+    lock.writeLock().lock();
+    try {
+      int node = find(id);
+      if (node == EMPTY) {
+        return 0;
+      }
+      int[] neighbours = adjacency[node];
+      int kept = 0;
+      int removed = 0;
+      for (int i = 0; i < degrees[node]; i++) {
+        int neighbour = neighbours[i];
+        if (types[neighbour] == (byte) neighbourType) {
+          removeOne(neighbour, node);
+          removed++;
+        } else {
+          neighbours[kept++] = neighbour;
+        }
+      }
+      degrees[node] = kept;
+      relationshipCount -= removed;
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove every relationship of a node.
+   */
+  public void removeNode(UUID id) {
+    lock.writeLock().lock();
+    try {
+      int node = find(id);
+      if (node == EMPTY) {
+        return;
+      }
+      for (int i = 0; i < degrees[node]; i++) {
+        removeOne(adjacency[node][i], node);
+      }
+      relationshipCount -= degrees[node];
+      degrees[node] = 0;
+      adjacency[node] = NO_EDGES;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean contains(UUID id) {
+    lock.readLock().lock();
+    try {
+      return find(id) != EMPTY;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Number of relationships of a node, 0 for unknown nodes.
+   */
+  public int degree(UUID id) {
+    lock.readLock().lock();
+    try {
+      int node = find(id);
+      return node != EMPTY ? degrees[node] : 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Nodes within maxDepth relationships of the start node, nearest first, without the start node.
+   * Stops after maxNodes nodes.
+   */
+  public List<Hop> neighbourhood(UUID start, int maxDepth, int maxNodes) {
+    lock.readLock().lock();
+    try {
+      int origin = find(start);
+      if (origin == EMPTY || maxDepth < 1 || maxNodes < 1) {
+        return Collections.emptyList();
+      }
+      List<Hop> hops = new ArrayList<>();
+      BitSet visited = new BitSet(nodeCount);
+      visited.set(origin);
+      int[] frontier = {origin};
+      for (int depth = 1; depth <= maxDepth && frontier.length > 0; depth++) {
+        int[] next = new int[16];
+        int size = 0;
+        for (int node : frontier) {
+          for (int i = 0; i < degrees[node]; i++) {
+            int neighbour = adjacency[node][i];
+            if (visited.get(neighbour)) {
+              continue;
+            }
+            visited.set(neighbour);
+            hops.add(new Hop(idOf(neighbour), types[neighbour], depth));
+            if (hops.size() >= maxNodes) {
+              return hops;
+            }
+            if (size == next.length) {
+              next = Arrays.copyOf(next, size * 2);
+            }
+            next[size++] = neighbour;
+          }
+        }
+        frontier = Arrays.copyOf(next, size);
+      }
+      return hops;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * One of the shortest chains of relationships from one node to another, both included.
+   * Searches from both ends at once, expanding the smaller side first.
+   * @return empty if they are not connected within maxDepth relationships
+   */
+  public List<UUID> shortestPath(UUID from, UUID to, int maxDepth) {
+    lock.readLock().lock();
+    try {
+      int source = find(from);
+      int target = find(to);
+      if (source == EMPTY || target == EMPTY) {
+        return Collections.emptyList();
+      }
+      if (source == target) {
+        return List.of(from);
+      }
+
+      // Node each reached node was reached from, per side; EMPTY for the start of a side
+      Search forward = new Search(source);
+      Search backward = new Search(target);
+      for (int depth = 0; depth < maxDepth; depth++) {
+        if (forward.frontierSize == 0 || backward.frontierSize == 0) {
+          break;
+        }
+        boolean expandForward = forward.frontierSize <= backward.frontierSize;
+        int meeting = expandForward ? expand(forward, backward) : expand(backward, forward);
+        if (meeting != EMPTY) {
+          List<UUID> path = new ArrayList<>();
+          for (int node = meeting; node != EMPTY; node = forward.parents.get(node)) {
+            path.add(idOf(node));
+          }
+          Collections.reverse(path);
+          for (int node = backward.parents.get(meeting); node != EMPTY; node = backward.parents.get(node)) {
+            path.add(idOf(node));
+          }
+          return path;
+        }
+      }
+      return Collections.emptyList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Release the spare capacity of adjacency arrays, typically once the graph is loaded.
+   */
+  public void trimToSize() {
+    lock.writeLock().lock();
+    try {
+      for (int node = 0; node < nodeCount; node++) {
+        if (adjacency[node].length > degrees[node]) {
+          adjacency[node] = degrees[node] == 0 ? NO_EDGES : Arrays.copyOf(adjacency[node], degrees[node]);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int nodeCount() {
+    lock.readLock().lock();
+    try {
+      return nodeCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long relationshipCount() {
+    lock.readLock().lock();
+    try {
+      return relationshipCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Approximate heap taken by the graph, from the sizes of its arrays.
+   */
+  public long estimatedBytes() {
+    lock.readLock().lock();
+    try {
+      long capacity = mostSignificantBits.length;
+      long bytes = capacity * (8 + 8 + 1 + 4 + 4) + (long) slots.length * 4;
+      for (int node = 0; node < nodeCount; node++) {
+        bytes += adjacency[node] == NO_EDGES ? 0 : 16 + ((adjacency[node].length * 4L + 7) & ~7L);
+      }
+      return bytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int expand(Search side, Search other) {
+    int[] next = new int[Math.max(16, side.frontierSize)];
+    int size = 0;
+    int meeting = EMPTY;
+    for (int f = 0; f < side.frontierSize && meeting == EMPTY; f++) {
+      int node = side.frontier[f];
+      for (int i = 0; i < degrees[node]; i++) {
+        int neighbour = adjacency[node][i];
+        if (side.parents.containsKey(neighbour)) {
+          continue;
+        }
+        side.parents.put(neighbour, node);
+        if (other.parents.containsKey(neighbour)) {
+          meeting = neighbour;
+          break;
+        }
+        if (size == next.length) {
+          next = Arrays.copyOf(next, size * 2);
+        }
+        next[size++] = neighbour;
+      }
+    }
+    side.frontier = next;
+    side.frontierSize = size;
+    return meeting;
+  }
+
+  private int nodeOf(UUID id, int type) {
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    int mask = slots.length - 1;
+    int slot = hash(msb, lsb) & mask;
+    while (slots[slot] != EMPTY) {
+      int node = slots[slot];
+      if (mostSignificantBits[node] == msb && leastSignificantBits[node] == lsb) {
+        return node;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    if (nodeCount == mostSignificantBits.length) {
+      int capacity = nodeCount + (nodeCount >> 1);
+      mostSignificantBits = Arrays.copyOf(mostSignificantBits, capacity);
+      leastSignificantBits = Arrays.copyOf(leastSignificantBits, capacity);
+      types = Arrays.copyOf(types, capacity);
+      adjacency = Arrays.copyOf(adjacency, capacity);
+      degrees = Arrays.copyOf(degrees, capacity);
+    }
+    int node = nodeCount++;
+    mostSignificantBits[node] = msb;
+    leastSignificantBits[node] = lsb;
+    types[node] = (byte) type;
+    adjacency[node] = NO_EDGES;
+    slots[slot] = node;
+    if (nodeCount * 2 > slots.length) {
+      rehash(slots.length * 2);
+    }
+    return node;
+  }
+
+  private int find(UUID id) {
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    int mask = slots.length - 1;
+    int slot = hash(msb, lsb) & mask;
+    while (slots[slot] != EMPTY) {
+      int node = slots[slot];
+      if (mostSignificantBits[node] == msb && leastSignificantBits[node] == lsb) {
+        return node;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return EMPTY;
+  }
+
+  private void rehash(int size) {
+    slots = new int[size];
+    Arrays.fill(slots, EMPTY);
+    int mask = size - 1;
+    for (int node = 0; node < nodeCount; node++) {
+      int slot = hash(mostSignificantBits[node], leastSignificantBits[node]) & mask;
+      while (slots[slot] != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = node;
+    }
+  }
+
+  private void append(int node, int neighbour) {
+    int[] neighbours = adjacency[node];
+    if (degrees[node] == neighbours.length) {
+      neighbours = Arrays.copyOf(neighbours, Math.max(4, neighbours.length + (neighbours.length >> 1)));
+      adjacency[node] = neighbours;
+    }
+    neighbours[degrees[node]++] = neighbour;
+  }
+
+  private boolean removeOne(int node, int neighbour) {
+    int[] neighbours = adjacency[node];
+    for (int i = 0; i < degrees[node]; i++) {
+      if (neighbours[i] == neighbour) {
+        neighbours[i] = neighbours[--degrees[node]];
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private UUID idOf(int node) {
+    return new UUID(mostSignificantBits[node], leastSignificantBits[node]);
+  }
+
+  private static int hash(long msb, long lsb) {
+    long h = msb ^ lsb;
+    int x = (int) (h ^ (h >>> 32)) * 0x9E3779B9;
+    return x ^ (x >>> 16);
+  }
+
+  private static int tableSizeFor(int nodes) {
+    return Integer.highestOneBit(Math.max(8, nodes) * 4 - 1);
+  }
+
+  /**
+   * One side of a bidirectional search.
+   */
+  private static final class Search {
+    private final NodeMap parents = new NodeMap();
+    private int[] frontier;
+    private int frontierSize;
+
+    private Search(int start) {
+      parents.put(start, EMPTY);
+      frontier = new int[] {start};
+      frontierSize = 1;
+    }
+  }
+
+  /**
+   * Open addressing map from node id to node id, so searches do not box every node they reach.
+   */
+  private static final class NodeMap {
+    private int[] keys = new int[32];
+    private int[] values = new int[32];
+    private int size;
+
+    private NodeMap() {
+      Arrays.fill(keys, EMPTY);
+    }
+
+    private void put(int key, int value) {
+      if ((size + 1) * 2 > keys.length) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+          if (oldKeys[i] != EMPTY) {
+            put(oldKeys[i], oldValues[i]);
+          }
+        }
+      }
+      int slot = slotOf(key);
+      if (keys[slot] == EMPTY) {
+        keys[slot] = key;
+        size++;
+      }
+      values[slot] = value;
+    }
+
+    private boolean containsKey(int key) {
+      return keys[slotOf(key)] != EMPTY;
+    }
+
+    private int get(int key) {
+      int slot = slotOf(key);
+      return keys[slot] != EMPTY ? values[slot] : EMPTY;
+    }
+
+    private int slotOf(int key) {
+      int mask = keys.length - 1;
+      int x = key * 0x9E3779B9;
+      int slot = (x ^ (x >>> 16)) & mask;
+      while (keys[slot] != EMPTY && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+  }
+
+  /**
+   * A node reached by a traversal and the number of relationships it is away from the start.
+   */
+  public static final class Hop {
+    private final UUID id;
+    private final int type;
+    private final int depth;
+
+    public Hop(UUID id, int type, int depth) {
+      this.id = id;
+      this.type = type;
+      this.depth = depth;
+    }
+
+    public UUID getId() {
+      return id;
+    }
+
+    public int getType() {
+      return type;
+    }
+
+    public int getDepth() {
+      return depth;
+    }
+  }
+}
@@ -1,9 +1,39 @@
 package com.crm.platform.common.graphql;
 
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
- * Configuration for GraphQL DataLoaders to solve N+1 query problems
- * Temporarily disabled due to missing DataLoader dependency
+ * Configuration for GraphQL DataLoaders to solve N+1 query problems.
+ * DataLoaders cache what they load, so every request gets a registry of its own
+ * and nothing loaded for one caller is served to another.
  */
+@Configuration
 public class DataLoaderConfig {
-  // Temporarily disabled - DataLoader dependency not available
-}
\ No newline at end of file
+
+  @Bean
+  public DataLoaderRegistryFactory dataLoaderRegistryFactory(ObjectProvider<DataLoaderRegistrar> registrars) {
+    return new DataLoaderRegistryFactory(registrars.orderedStream().collect(Collectors.toList()));
+  }
+
+  public static class DataLoaderRegistryFactory {
+    private final List<DataLoaderRegistrar> registrars;
+
+    public DataLoaderRegistryFactory(List<DataLoaderRegistrar> registrars) {
+      this.registrars = registrars;
+    }
+
+    public DataLoaderRegistry newRegistry(GraphQLController.GraphQLContext context) {
+      DataLoaderRegistry registry = new DataLoaderRegistry();
+      for (DataLoaderRegistrar registrar : registrars) {
+        registrar.registerDataLoaders(registry, context);
+      }
+      return registry;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.crm.platform.common.graphql;
+
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Interface for services to register the DataLoaders their resolvers batch nested fields with
+ */
+public interface DataLoaderRegistrar {
+
+    /**
+     * Register this service's DataLoaders for a single GraphQL request
+     * @param registry registry of the request being executed
+     * @param context context of the request being executed
+     */
+    void registerDataLoaders(DataLoaderRegistry registry, GraphQLController.GraphQLContext context);
+}
@@ -5,14 +5,13 @@ import graphql.execution.AsyncExecutionStrategy;
 import graphql.execution.AsyncSerialExecutionStrategy;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
-// import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
 import graphql.execution.instrumentation.tracing.TracingInstrumentation;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
-// import org.dataloader.DataLoaderRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
@@ -91,16 +90,10 @@ public class GraphQLConfig {
     return builder.build();
   }
 
-  // DataLoaderRegistry is commented out due to missing dependency
-  // @Bean
-  // public DataLoaderRegistry dataLoaderRegistry() {
-  // return new DataLoaderRegistry();
-  // }
-
   private Instrumentation createInstrumentation() {
     return new ChainedInstrumentation(Arrays.asList(
         new TracingInstrumentation(),
-        // new DataLoaderDispatcherInstrumentation(),
+        new DataLoaderDispatcherInstrumentation(),
         new GraphQLSecurityInstrumentation()));
   }
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-// import org.dataloader.DataLoaderRegistry;
+import org.dataloader.DataLoaderRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,13 +31,14 @@ import java.util.concurrent.CompletableFuture;
 public class GraphQLController {
 
   private final GraphQL graphQL;
-  // private final DataLoaderRegistry dataLoaderRegistry;
+  private final DataLoaderConfig.DataLoaderRegistryFactory dataLoaderRegistryFactory;
   private final ObjectMapper objectMapper;
 
   @Autowired
-  public GraphQLController(GraphQL graphQL, ObjectMapper objectMapper) {
+  public GraphQLController(GraphQL graphQL, DataLoaderConfig.DataLoaderRegistryFactory dataLoaderRegistryFactory,
+      ObjectMapper objectMapper) {
     this.graphQL = graphQL;
-    // this.dataLoaderRegistry = dataLoaderRegistry;
+    this.dataLoaderRegistryFactory = dataLoaderRegistryFactory;
     this.objectMapper = objectMapper;
   }
 
@@ -52,11 +53,16 @@ public class GraphQLController {
       @RequestBody GraphQLRequest request,
       HttpServletRequest httpRequest) {
 
+    GraphQLContext context = buildGraphQLContext(httpRequest);
+
+    // DataLoaders are created per request so their caches never outlive it
+    DataLoaderRegistry dataLoaderRegistry = dataLoaderRegistryFactory.newRegistry(context);
+
     // Build execution input
     ExecutionInput.Builder inputBuilder = ExecutionInput.newExecutionInput()
         .query(request.getQuery())
-        // .dataLoaderRegistry(dataLoaderRegistry)
-        .context(buildGraphQLContext(httpRequest));
+        .dataLoaderRegistry(dataLoaderRegistry)
+        .context(context);
 
     // Add variables if present
     if (request.getVariables() != null) {
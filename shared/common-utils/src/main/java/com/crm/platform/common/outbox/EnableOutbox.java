@@ -0,0 +1,21 @@
+package com.crm.platform.common.outbox;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Publish events through the transactional outbox: adds an {@link OutboxPublisher} and the
+ * {@link OutboxRelay} that sends its events to Kafka. The service's schema needs the event_outbox
+ * table (see {@link OutboxRelay} for the columns).
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(OutboxConfiguration.class)
+public @interface EnableOutbox {
+}
@@ -0,0 +1,51 @@
+package com.crm.platform.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+/**
+ * Outbox beans, imported by {@link EnableOutbox} only. Deliberately not a @Configuration, so
+ * services scanning com.crm.platform.common do not get an outbox they did not ask for.
+ *
+ * crm.outbox.enabled=false drops the relay and sends events straight to Kafka, for databases
+ * without the event_outbox table.
+ */
+public class OutboxConfiguration {
+
+  @Bean
+  @ConditionalOnProperty(name = "crm.outbox.enabled", havingValue = "true", matchIfMissing = true)
+  public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate,
+                                 KafkaProperties kafkaProperties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${crm.outbox.batch-size:500}") int batchSize,
+                                 @Value("${crm.outbox.poll-interval:PT0.5S}") Duration pollInterval,
+                                 @Value("${crm.outbox.send-timeout:PT30S}") Duration sendTimeout,
+                                 @Value("${crm.outbox.compression:lz4}") String compression,
+                                 @Value("${crm.outbox.linger:PT0.005S}") Duration linger,
+                                 @Value("${crm.outbox.max-attempts:10}") int maxAttempts,
+                                 @Value("${crm.outbox.retry-backoff:PT1S}") Duration retryBackoff,
+                                 @Value("${crm.outbox.max-retry-backoff:PT5M}") Duration maxRetryBackoff) {
+    return new OutboxRelay(jdbcTemplate, OutboxRelay.producerProperties(kafkaProperties, compression, linger),
+        meterRegistry, batchSize, pollInterval, sendTimeout, maxAttempts, retryBackoff, maxRetryBackoff);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "crm.outbox.enabled", havingValue = "true", matchIfMissing = true)
+  public OutboxPublisher outboxPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxRelay outboxRelay) {
+    return new OutboxPublisher(jdbcTemplate, objectMapper, outboxRelay);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "crm.outbox.enabled", havingValue = "false")
+  public OutboxPublisher directPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+    return new OutboxPublisher(kafkaTemplate);
+  }
+}
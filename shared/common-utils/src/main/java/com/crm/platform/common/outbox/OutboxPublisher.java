@@ -0,0 +1,159 @@
+package com.crm.platform.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes events to the outbox table in the caller's transaction, so an event is sent if and only
+ * if the change it describes commits. Sending is left to the {@link OutboxRelay}, which is woken
+ * once the transaction has committed; the caller never waits for the broker.
+ *
+ * Events are serialized to JSON here, while lazily loaded entity state can still be read.
+ *
+ * With crm.outbox.enabled=false, for databases without the event_outbox table such as the H2 test
+ * profiles, events are instead sent straight to Kafka once the transaction commits. Nothing retries
+ * them then, so an event is lost if the broker does not take it.
+ */
+public class OutboxPublisher {
+
+  private static final Logger logger = LoggerFactory.getLogger(OutboxPublisher.class);
+
+  private static final String INSERT_SQL =
+      "INSERT INTO event_outbox (topic, message_key, payload_type, payload) VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final OutboxRelay relay;
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+
+  public OutboxPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxRelay relay) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.relay = relay;
+    this.kafkaTemplate = null;
+  }
+
+  /**
+   * Without the outbox: events are sent with the given template after commit
+   */
+  public OutboxPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+    this.jdbcTemplate = null;
+    this.objectMapper = null;
+    this.relay = null;
+    this.kafkaTemplate = kafkaTemplate;
+  }
+
+  /**
+   * Queue one event. Events with the same key reach the topic in the order they were published.
+   */
+  public void publish(String topic, String key, Object event) {
+    if (kafkaTemplate != null) {
+      sendAfterCommit(List.of(new Outgoing(topic, key, event)));
+      return;
+    }
+    jdbcTemplate.update(INSERT_SQL, topic, key, event.getClass().getName(), toJson(event));
+    wakeRelayAfterCommit();
+  }
+
+  /**
+   * Queue many events with one batched statement, for bulk operations.
+   */
+  public <T> void publishAll(String topic, Collection<T> events, Function<T, String> keyOf) {
+    if (events.isEmpty()) {
+      return;
+    }
+    if (kafkaTemplate != null) {
+      List<Outgoing> records = new ArrayList<>(events.size());
+      for (T event : events) {
+        records.add(new Outgoing(topic, keyOf.apply(event), event));
+      }
+      sendAfterCommit(records);
+      return;
+    }
+    List<Object[]> rows = new ArrayList<>(events.size());
+    for (T event : events) {
+      rows.add(new Object[] {topic, keyOf.apply(event), event.getClass().getName(), toJson(event)});
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    wakeRelayAfterCommit();
+  }
+
+  private String toJson(Object event) {
+    try {
+      return objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize " + event.getClass().getName(), e);
+    }
+  }
+
+  private void sendAfterCommit(List<Outgoing> records) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      send(records);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        send(records);
+      }
+    });
+  }
+
+  private void send(List<Outgoing> records) {
+    for (Outgoing record : records) {
+      try {
+        kafkaTemplate.send(record.topic, record.key, record.event).whenComplete((result, failure) -> {
+          if (failure != null) {
+            logger.error("Failed to send event to {}", record.topic, failure);
+          }
+        });
+      } catch (Exception e) {
+        logger.error("Failed to send event to {}", record.topic, e);
+      }
+    }
+  }
+
+  // Once per transaction, however many events it publishes
+  private void wakeRelayAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      relay.wakeUp();
+      return;
+    }
+    if (TransactionSynchronizationManager.hasResource(this)) {
+      return;
+    }
+    TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(OutboxPublisher.this);
+        if (status == STATUS_COMMITTED) {
+          relay.wakeUp();
+        }
+      }
+    });
+  }
+
+  private static final class Outgoing {
+    final String topic;
+    final String key;
+    final Object event;
+
+    Outgoing(String topic, String key, Object event) {
+      this.topic = topic;
+      this.key = key;
+      this.event = event;
+    }
+  }
+}
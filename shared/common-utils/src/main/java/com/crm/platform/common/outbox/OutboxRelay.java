@@ -0,0 +1,433 @@
+package com.crm.platform.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the events written by {@link OutboxPublisher} to Kafka and deletes them once the broker
+ * has them. The outbox table has the columns id BIGSERIAL, topic, message_key, payload_type,
+ * payload, created_at, attempts, retry_at and last_error; events that keep failing are moved to
+ * event_outbox_dead_letter, which has the same columns plus dead_lettered_at.
+ *
+ * One thread per instance drains the table in id order, a batch at a time, while holding a session
+ * advisory lock, so only one instance sends at a time and a key's events leave in the order they
+ * were written. The lock is held on one connection outside any transaction: reading and deleting a
+ * batch are short autocommit statements, and nothing is open in the database while the relay waits
+ * for the broker. A batch is sent in one go through an idempotent producer with compression, which
+ * neither duplicates nor reorders a key's records on the producer's own retries.
+ *
+ * Delivery is at least once. When a record fails, the records of its key after it stay in the table
+ * as well and are sent again with it, even those the broker already took: after a failure of event
+ * 1 with event 3 of the same key delivered, consumers see 3, 1, 3. The last copy of each event
+ * arrives in order, so consumers must tolerate repeats, for example by ignoring an event id they
+ * have applied.
+ *
+ * A failed record counts an attempt and is not read again until its retry time, which backs off
+ * exponentially up to max-retry-backoff; batches read past it and past the later records of its
+ * key, so one failing key does not hold up the others. A record that has failed max-attempts times
+ * is moved to the dead-letter table and logged, and the later records of its key then go ahead
+ * without it.
+ *
+ * The thread drains batch after batch while the table is full, is woken when a transaction that
+ * published events commits, and otherwise looks again after the poll interval.
+ *
+ * Metrics: outbox.relay.lag is the age in seconds of the oldest waiting event when the draining
+ * instance last looked (0 on the others); outbox.relay.sent, outbox.relay.failed and
+ * outbox.relay.dead_lettered count records, and outbox.relay.batch times batches.
+ */
+public class OutboxRelay implements SmartLifecycle {
+
+  private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+  static final String TYPE_ID_HEADER = "__TypeId__";
+
+  private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('event_outbox'))";
+
+  private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('event_outbox'))";
+
+  private static final String LAG_SQL =
+      "SELECT CAST(EXTRACT(EPOCH FROM (clock_timestamp() - created_at)) * 1000 AS BIGINT) " +
+      "FROM event_outbox ORDER BY id LIMIT 1";
+
+  // Skips events waiting to be retried and the later events of their key
+  private static final String BATCH_SQL =
+      "SELECT o.id, o.topic, o.message_key, o.payload_type, o.payload FROM event_outbox o " +
+      "WHERE (o.retry_at IS NULL OR o.retry_at <= clock_timestamp()) " +
+      "AND NOT EXISTS (SELECT 1 FROM event_outbox b WHERE b.topic = o.topic AND b.message_key = o.message_key " +
+      "AND b.id < o.id AND b.retry_at > clock_timestamp()) " +
+      "ORDER BY o.id LIMIT ?";
+
+  private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE id = ANY(CAST(? AS BIGINT[]))";
+
+  private static final String RETRY_SQL =
+      "UPDATE event_outbox SET attempts = attempts + 1, last_error = ?, " +
+      "retry_at = clock_timestamp() + LEAST(? * power(2, attempts), ?) * INTERVAL '1 millisecond' " +
+      "WHERE id = ?";
+
+  private static final String DEAD_LETTER_SQL =
+      "WITH dead AS (DELETE FROM event_outbox WHERE id = ANY(CAST(? AS BIGINT[])) AND attempts >= ? " +
+      "RETURNING id, topic, message_key, payload_type, payload, created_at, attempts, last_error) " +
+      "INSERT INTO event_outbox_dead_letter " +
+      "(id, topic, message_key, payload_type, payload, created_at, attempts, last_error) " +
+      "SELECT id, topic, message_key, payload_type, payload, created_at, attempts, last_error FROM dead " +
+      "RETURNING id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final boolean typeHeaders;
+  private final int batchSize;
+  private final Duration pollInterval;
+  private final Duration sendTimeout;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Duration maxRetryBackoff;
+
+  private final AtomicLong lagMillis = new AtomicLong();
+  private final Counter sentCounter;
+  private final Counter failedCounter;
+  private final Counter deadLetteredCounter;
+  private final Timer batchTimer;
+
+  private final Object signal = new Object();
+  private boolean wakeUpPending;
+  private volatile boolean running;
+  private Thread thread;
+
+  public OutboxRelay(JdbcTemplate jdbcTemplate, Map<String, Object> producerProperties, MeterRegistry meterRegistry,
+                     int batchSize, Duration pollInterval, Duration sendTimeout,
+                     int maxAttempts, Duration retryBackoff, Duration maxRetryBackoff) {
+    this(jdbcTemplate, new KafkaTemplate<>(producerFactory(producerProperties)), typeHeaders(producerProperties),
+        meterRegistry, batchSize, pollInterval, sendTimeout, maxAttempts, retryBackoff, maxRetryBackoff);
+  }
+
+  OutboxRelay(JdbcTemplate jdbcTemplate, KafkaTemplate<String, byte[]> kafkaTemplate, boolean typeHeaders,
+              MeterRegistry meterRegistry, int batchSize, Duration pollInterval, Duration sendTimeout,
+              int maxAttempts, Duration retryBackoff, Duration maxRetryBackoff) {
+    this.typeHeaders = typeHeaders;
+    this.jdbcTemplate = jdbcTemplate;
+    this.kafkaTemplate = kafkaTemplate;
+    this.batchSize = batchSize;
+    this.pollInterval = pollInterval;
+    this.sendTimeout = sendTimeout;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+    this.maxRetryBackoff = maxRetryBackoff;
+
+    Gauge.builder("outbox.relay.lag", lagMillis, lag -> lag.get() / 1000.0)
+        .description("Age of the oldest event waiting in the outbox")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    this.sentCounter = Counter.builder("outbox.relay.sent")
+        .description("Outbox events sent to Kafka")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("outbox.relay.failed")
+        .description("Outbox events Kafka did not take, left to be sent again")
+        .register(meterRegistry);
+    this.deadLetteredCounter = Counter.builder("outbox.relay.dead_lettered")
+        .description("Outbox events moved to the dead-letter table after max-attempts failures")
+        .register(meterRegistry);
+    this.batchTimer = Timer.builder("outbox.relay.batch")
+        .description("Time to send and delete a batch of outbox events")
+        .register(meterRegistry);
+  }
+
+  // Consumers expect the records the JsonSerializer wrote, with or without its type header
+  private static boolean typeHeaders(Map<String, Object> producerProperties) {
+    return !"false".equals(String.valueOf(producerProperties.get(JsonSerializer.ADD_TYPE_INFO_HEADERS)));
+  }
+
+  private static DefaultKafkaProducerFactory<String, byte[]> producerFactory(Map<String, Object> producerProperties) {
+    Map<String, Object> properties = new HashMap<>(producerProperties);
+    properties.remove(JsonSerializer.ADD_TYPE_INFO_HEADERS);
+    return new DefaultKafkaProducerFactory<>(properties);
+  }
+
+  /**
+   * The service's producer settings, with those the relay depends on: raw JSON values, an
+   * idempotent producer acknowledged by all replicas, and compressed batches.
+   */
+  public static Map<String, Object> producerProperties(KafkaProperties kafkaProperties, String compression,
+                                                       Duration linger) {
+    Map<String, Object> properties = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+    properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+    properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    properties.put(ProducerConfig.ACKS_CONFIG, "all");
+    properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+    properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+    properties.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+    return properties;
+  }
+
+  /**
+   * Drain without waiting for the poll interval; called when events have been committed.
+   */
+  public void wakeUp() {
+    synchronized (signal) {
+      wakeUpPending = true;
+      signal.notifyAll();
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    thread = new Thread(this::run, "outbox-relay");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (thread == null) {
+      return;
+    }
+    wakeUp();
+    try {
+      // A batch in flight is finished rather than sent again by the next instance
+      thread.join(sendTimeout.plusSeconds(5).toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (kafkaTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory<?, ?> producerFactory) {
+      producerFactory.destroy();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void run() {
+    while (running) {
+      int drained = 0;
+      try {
+        drained = drainBatch();
+      } catch (Exception e) {
+        logger.error("Error relaying outbox events", e);
+      }
+      if (drained < batchSize) {
+        awaitWork();
+      }
+    }
+  }
+
+  private void awaitWork() {
+    synchronized (signal) {
+      if (!wakeUpPending && running) {
+        try {
+          signal.wait(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      wakeUpPending = false;
+    }
+  }
+
+  // Events read; fewer than the batch size when the table is drained, 0 when none could be sent
+  int drainBatch() {
+    Integer drained = jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+      if (!queryBoolean(con, LOCK_SQL)) {
+        lagMillis.set(0);
+        return 0;
+      }
+      try {
+        return drainBatch(con);
+      } finally {
+        queryBoolean(con, UNLOCK_SQL);
+      }
+    });
+    return drained != null ? drained : 0;
+  }
+
+  private int drainBatch(Connection con) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(LAG_SQL); ResultSet rs = ps.executeQuery()) {
+      lagMillis.set(rs.next() ? Math.max(0, rs.getLong(1)) : 0);
+    }
+    List<Message> batch = new ArrayList<>(batchSize);
+    try (PreparedStatement ps = con.prepareStatement(BATCH_SQL)) {
+      ps.setInt(1, batchSize);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          batch.add(new Message(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)));
+        }
+      }
+    }
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    Timer.Sample sample = Timer.start();
+    List<String> errors = send(batch);
+    List<Boolean> delivered = new ArrayList<>(batch.size());
+    List<Long> failed = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i++) {
+      delivered.add(errors.get(i) == null);
+      if (errors.get(i) != null) {
+        failed.add(batch.get(i).id);
+      }
+    }
+    List<Long> sent = deliveredInOrder(batch, delivered);
+    if (!sent.isEmpty()) {
+      try (PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
+        ps.setArray(1, con.createArrayOf("bigint", sent.toArray()));
+        ps.executeUpdate();
+      }
+    }
+    if (!failed.isEmpty()) {
+      retryLater(con, batch, errors);
+      deadLetter(con, failed);
+    }
+    sample.stop(batchTimer);
+
+    sentCounter.increment(sent.size());
+    failedCounter.increment(failed.size());
+    return sent.isEmpty() ? 0 : batch.size();
+  }
+
+  private void retryLater(Connection con, List<Message> batch, List<String> errors) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(RETRY_SQL)) {
+      for (int i = 0; i < batch.size(); i++) {
+        if (errors.get(i) != null) {
+          ps.setString(1, errors.get(i));
+          ps.setLong(2, retryBackoff.toMillis());
+          ps.setLong(3, maxRetryBackoff.toMillis());
+          ps.setLong(4, batch.get(i).id);
+          ps.addBatch();
+        }
+      }
+      ps.executeBatch();
+    }
+  }
+
+  private void deadLetter(Connection con, List<Long> failed) throws SQLException {
+    List<Long> dead = new ArrayList<>();
+    try (PreparedStatement ps = con.prepareStatement(DEAD_LETTER_SQL)) {
+      ps.setArray(1, con.createArrayOf("bigint", failed.toArray()));
+      ps.setInt(2, maxAttempts);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          dead.add(rs.getLong(1));
+        }
+      }
+    }
+    if (!dead.isEmpty()) {
+      deadLetteredCounter.increment(dead.size());
+      logger.error("Outbox events {} failed {} times and were moved to event_outbox_dead_letter; " +
+          "later events of their keys are sent without them", dead, maxAttempts);
+    }
+  }
+
+  private static boolean queryBoolean(Connection con, String sql) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+      return rs.next() && rs.getBoolean(1);
+    }
+  }
+
+  // Per event, null once the broker has it, otherwise why it was not sent
+  private List<String> send(List<Message> batch) {
+    List<CompletableFuture<SendResult<String, byte[]>>> results = new ArrayList<>(batch.size());
+    for (Message message : batch) {
+      ProducerRecord<String, byte[]> record = new ProducerRecord<>(message.topic, message.key,
+          message.payload.getBytes(StandardCharsets.UTF_8));
+      if (typeHeaders) {
+        record.headers().add(TYPE_ID_HEADER, message.payloadType.getBytes(StandardCharsets.UTF_8));
+      }
+      try {
+        results.add(kafkaTemplate.send(record));
+      } catch (Exception e) {
+        results.add(CompletableFuture.failedFuture(e));
+      }
+    }
+    kafkaTemplate.flush();
+
+    List<String> errors = new ArrayList<>(batch.size());
+    long deadline = System.nanoTime() + sendTimeout.toNanos();
+    for (int i = 0; i < batch.size(); i++) {
+      try {
+        results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        errors.add(null);
+      } catch (ExecutionException | TimeoutException e) {
+        logger.warn("Outbox event {} to {} not sent, will retry", batch.get(i).id, batch.get(i).topic, e);
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        errors.add(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        errors.add("Interrupted");
+      }
+    }
+    return errors;
+  }
+
+  /**
+   * Ids of the events that can leave the outbox: those delivered, except any written after an
+   * event of the same topic and key that was not. Events without a key have no order to keep.
+   */
+  static List<Long> deliveredInOrder(List<Message> batch, List<Boolean> delivered) {
+    Set<String> blocked = new HashSet<>();
+    List<Long> ids = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      Message message = batch.get(i);
+      String stream = message.key != null ? message.topic + '\u0000' + message.key : null;
+      if (delivered.get(i) && (stream == null || !blocked.contains(stream))) {
+        ids.add(message.id);
+      } else if (stream != null) {
+        blocked.add(stream);
+      }
+    }
+    return ids;
+  }
+
+  static final class Message {
+    final long id;
+    final String topic;
+    final String key;
+    final String payloadType;
+    final String payload;
+
+    Message(long id, String topic, String key, String payloadType, String payload) {
+      this.id = id;
+      this.topic = topic;
+      this.key = key;
+      this.payloadType = payloadType;
+      this.payload = payload;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.crm.platform.common.graph;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+class RelationshipGraphTest {
+
+  private static final int CONTACT = 0;
+  private static final int ACCOUNT = 1;
+
+  private final UUID a = UUID.randomUUID();
+  private final UUID b = UUID.randomUUID();
+  private final UUID c = UUID.randomUUID();
+  private final UUID d = UUID.randomUUID();
+  private final UUID account = UUID.randomUUID();
+
+  @Test
+  void testNeighbourhoodIsBoundedByDepth() {
+    RelationshipGraph graph = chain();
+
+    List<RelationshipGraph.Hop> hops = graph.neighbourhood(a, 2, 100);
+
+    assertEquals(List.of(b, c), hops.stream().map(RelationshipGraph.Hop::getId).collect(Collectors.toList()));
+    assertEquals(1, hops.get(0).getDepth());
+    assertEquals(2, hops.get(1).getDepth());
+    assertTrue(graph.neighbourhood(UUID.randomUUID(), 2, 100).isEmpty());
+  }
+
+  @Test
+  void testShortestPathSearchesFromBothEnds() {
+    RelationshipGraph graph = chain();
+    graph.addRelationship(a, CONTACT, d, CONTACT);
+
+    assertEquals(List.of(a, d), graph.shortestPath(a, d, 3));
+    assertEquals(List.of(c, b, a), graph.shortestPath(c, a, 3));
+    assertEquals(List.of(b), graph.shortestPath(b, b, 3));
+    assertTrue(graph.shortestPath(a, c, 1).isEmpty());
+  }
+
+  @Test
+  void testDegreeCountsEveryRelationship() {
+    RelationshipGraph graph = chain();
+    graph.addRelationship(a, CONTACT, b, CONTACT);
+    graph.addRelationship(a, CONTACT, a, CONTACT);
+
+    assertEquals(2, graph.degree(a));
+    assertEquals(3, graph.degree(b));
+
+    assertTrue(graph.removeRelationship(b, a));
+    assertEquals(1, graph.degree(a));
+    assertEquals(List.of(a, b), graph.shortestPath(a, b, 1));
+    assertEquals(3, graph.relationshipCount());
+  }
+
+  @Test
+  void testRemovingNodesAndTypedRelationships() {
+    RelationshipGraph graph = chain();
+    graph.addRelationship(b, CONTACT, account, ACCOUNT);
+    graph.addRelationship(d, CONTACT, account, ACCOUNT);
+
+    graph.removeNode(c);
+    assertEquals(0, graph.degree(c));
+    assertEquals(2, graph.degree(b));
+    assertEquals(List.of(a, b, account, d), graph.shortestPath(a, d, 5));
+
+    assertEquals(1, graph.removeRelationships(b, ACCOUNT));
+    assertEquals(1, graph.degree(account));
+    assertTrue(graph.shortestPath(a, d, 5).isEmpty());
+    assertEquals(2, graph.relationshipCount());
+  }
+
+  @Test
+  void testGrowsPastInitialCapacity() {
+    RelationshipGraph graph = new RelationshipGraph();
+    UUID hub = UUID.randomUUID();
+    for (int i = 0; i < 1000; i++) {
+      graph.addRelationship(hub, ACCOUNT, UUID.randomUUID(), CONTACT);
+    }
+    graph.trimToSize();
+
+    assertEquals(1001, graph.nodeCount());
+    assertEquals(1000, graph.degree(hub));
+    assertEquals(10, graph.neighbourhood(hub, 1, 10).size());
+    assertTrue(graph.estimatedBytes() > 1000 * 8);
+  }
+
+  // a - b - c - d
+  private RelationshipGraph chain() {
+    RelationshipGraph graph = new RelationshipGraph();
+    graph.addRelationship(a, CONTACT, b, CONTACT);
+    graph.addRelationship(b, CONTACT, c, CONTACT);
+    graph.addRelationship(c, CONTACT, d, CONTACT);
+    return graph;
+  }
+}
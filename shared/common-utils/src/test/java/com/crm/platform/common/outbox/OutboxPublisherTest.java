@@ -0,0 +1,89 @@
+package com.crm.platform.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+class OutboxPublisherTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private OutboxRelay relay;
+  private OutboxPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    relay = mock(OutboxRelay.class);
+    publisher = new OutboxPublisher(jdbcTemplate, new ObjectMapper(), relay);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.unbindResourceIfPossible(publisher);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void testPublishWritesInTheTransactionAndWakesTheRelayAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    publisher.publish("deal-events", "deal-1", Map.of("eventType", "DEAL_CREATED"));
+    publisher.publish("deal-events", "deal-1", Map.of("eventType", "DEAL_UPDATED"));
+
+    // Written right away, on the caller's thread and so in its transaction, but not sent yet
+    verify(jdbcTemplate).update(anyString(), eq("deal-events"), eq("deal-1"), anyString(),
+        eq("{\"eventType\":\"DEAL_CREATED\"}"));
+    verify(jdbcTemplate).update(anyString(), eq("deal-events"), eq("deal-1"), anyString(),
+        eq("{\"eventType\":\"DEAL_UPDATED\"}"));
+    verify(relay, never()).wakeUp();
+
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    // Once for the transaction, however many events it published
+    verify(relay, times(1)).wakeUp();
+    assertFalse(TransactionSynchronizationManager.hasResource(publisher));
+  }
+
+  @Test
+  void testRolledBackTransactionDoesNotWakeTheRelay() {
+    TransactionSynchronizationManager.initSynchronization();
+
+    publisher.publishAll("contact-events", List.of("a", "b"), event -> event);
+
+    verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+    verify(relay, never()).wakeUp();
+  }
+
+  @Test
+  void testPublishOutsideATransactionWakesTheRelayAtOnce() {
+    publisher.publish("pipeline-events", "pipeline-1", Map.of("eventType", "PIPELINE_CREATED"));
+
+    verify(relay).wakeUp();
+  }
+
+  @Test
+  void testPublishAllOfNothingWritesNothing() {
+    publisher.publishAll("contact-events", List.<String>of(), event -> event);
+
+    verifyNoInteractions(jdbcTemplate, relay);
+  }
+
+  private void complete(int status) {
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    assertEquals(1, synchronizations.size());
+    synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+  }
+}
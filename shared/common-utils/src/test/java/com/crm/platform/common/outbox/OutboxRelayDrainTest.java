@@ -0,0 +1,137 @@
+package com.crm.platform.common.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drains a real event_outbox table into a stubbed Kafka template that rejects "poison" payloads.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxRelayDrainTest {
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private JdbcTemplate jdbcTemplate;
+  private SimpleMeterRegistry meterRegistry;
+  private final List<String> sentKeys = new ArrayList<>();
+
+  @SuppressWarnings("unchecked")
+  private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+        postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+    jdbcTemplate.execute("DROP TABLE IF EXISTS event_outbox, event_outbox_dead_letter");
+    jdbcTemplate.execute("CREATE TABLE event_outbox (id BIGSERIAL PRIMARY KEY, topic VARCHAR(255) NOT NULL, " +
+        "message_key VARCHAR(255), payload_type VARCHAR(255) NOT NULL, payload TEXT NOT NULL, " +
+        "created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp(), " +
+        "attempts INTEGER NOT NULL DEFAULT 0, retry_at TIMESTAMP WITH TIME ZONE, last_error TEXT)");
+    jdbcTemplate.execute("CREATE TABLE event_outbox_dead_letter (id BIGINT PRIMARY KEY, topic VARCHAR(255) NOT NULL, " +
+        "message_key VARCHAR(255), payload_type VARCHAR(255) NOT NULL, payload TEXT NOT NULL, " +
+        "created_at TIMESTAMP WITH TIME ZONE NOT NULL, attempts INTEGER NOT NULL, last_error TEXT, " +
+        "dead_lettered_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp())");
+
+    meterRegistry = new SimpleMeterRegistry();
+    sentKeys.clear();
+    when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+      ProducerRecord<String, byte[]> record = invocation.getArgument(0);
+      if ("poison".equals(new String(record.value(), StandardCharsets.UTF_8))) {
+        return CompletableFuture.failedFuture(new IllegalStateException("rejected"));
+      }
+      sentKeys.add(record.key() + ":" + new String(record.value(), StandardCharsets.UTF_8));
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  @Test
+  void testFailedEventHoldsBackItsKeyOnly() {
+    insert("a", "poison");
+    insert("b", "1");
+    insert("a", "2");
+    insert("b", "3");
+    OutboxRelay relay = relay(10, 10, Duration.ofMinutes(1));
+
+    relay.drainBatch();
+
+    // Event a:2 reached the broker, but stays behind the failed a:poison
+    assertEquals(List.of("b:1", "a:2", "b:3"), sentKeys);
+    assertEquals(List.of("a"), jdbcTemplate.queryForList(
+        "SELECT DISTINCT message_key FROM event_outbox", String.class));
+    assertEquals(1, jdbcTemplate.queryForObject(
+        "SELECT attempts FROM event_outbox WHERE payload = 'poison'", Integer.class));
+    assertEquals("IllegalStateException: rejected", jdbcTemplate.queryForObject(
+        "SELECT last_error FROM event_outbox WHERE payload = 'poison'", String.class));
+
+    // Until its retry time, neither the failed event nor the rest of its key is read again
+    sentKeys.clear();
+    assertEquals(0, relay.drainBatch());
+    assertTrue(sentKeys.isEmpty());
+  }
+
+  @Test
+  void testBatchReadsPastABlockedKey() {
+    insert("a", "poison");
+    insert("a", "1");
+    insert("a", "2");
+    insert("b", "3");
+    OutboxRelay relay = relay(2, 10, Duration.ofMinutes(1));
+
+    relay.drainBatch();
+    sentKeys.clear();
+    relay.drainBatch();
+
+    assertEquals(List.of("b:3"), sentKeys);
+    assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_outbox", Integer.class));
+  }
+
+  @Test
+  void testEventIsDeadLetteredAfterMaxAttempts() {
+    insert("a", "poison");
+    insert("a", "1");
+    OutboxRelay relay = relay(10, 2, Duration.ZERO);
+
+    relay.drainBatch();
+    relay.drainBatch();
+
+    assertEquals(List.of("poison"), jdbcTemplate.queryForList(
+        "SELECT payload FROM event_outbox_dead_letter WHERE attempts = 2", String.class));
+    assertEquals(1.0, meterRegistry.counter("outbox.relay.dead_lettered").count());
+
+    // The key's later event goes ahead without it
+    sentKeys.clear();
+    relay.drainBatch();
+    assertEquals(List.of("a:1"), sentKeys);
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_outbox", Integer.class));
+  }
+
+  private OutboxRelay relay(int batchSize, int maxAttempts, Duration retryBackoff) {
+    return new OutboxRelay(jdbcTemplate, kafkaTemplate, false, meterRegistry, batchSize, Duration.ofSeconds(1),
+        Duration.ofSeconds(5), maxAttempts, retryBackoff, Duration.ofMinutes(5));
+  }
+
+  private void insert(String key, String payload) {
+    jdbcTemplate.update("INSERT INTO event_outbox (topic, message_key, payload_type, payload) VALUES (?, ?, ?, ?)",
+        "contact-events", key, "com.crm.platform.Event", payload);
+  }
+}
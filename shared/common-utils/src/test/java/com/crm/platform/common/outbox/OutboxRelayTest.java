@@ -0,0 +1,44 @@
+package com.crm.platform.common.outbox;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class OutboxRelayTest {
+
+  @Test
+  void testDeliveredBatchLeavesTheOutbox() {
+    List<OutboxRelay.Message> batch = List.of(
+        message(1, "deal-events", "a"), message(2, "deal-events", "b"), message(3, "deal-events", "a"));
+
+    assertEquals(List.of(1L, 2L, 3L), OutboxRelay.deliveredInOrder(batch, List.of(true, true, true)));
+  }
+
+  @Test
+  void testEventsAfterAFailureOfTheirKeyStay() {
+    List<OutboxRelay.Message> batch = List.of(
+        message(1, "deal-events", "a"),
+        message(2, "deal-events", "b"),
+        message(3, "deal-events", "a"),
+        message(4, "deal-events", "b"),
+        message(5, "contact-events", "a"));
+
+    List<Long> sent = OutboxRelay.deliveredInOrder(batch, List.of(false, true, true, true, true));
+
+    // Event 3 was delivered, but leaving it would let it overtake event 1 when that is sent again
+    assertEquals(List.of(2L, 4L, 5L), sent);
+  }
+
+  @Test
+  void testEventsWithoutKeyAreIndependent() {
+    List<OutboxRelay.Message> batch = List.of(
+        message(1, "rule-execution-events", null), message(2, "rule-execution-events", null));
+
+    assertEquals(List.of(2L), OutboxRelay.deliveredInOrder(batch, List.of(false, true)));
+  }
+
+  private OutboxRelay.Message message(long id, String topic, String key) {
+    return new OutboxRelay.Message(id, topic, key, "com.crm.platform.Event", "{}");
+  }
+}
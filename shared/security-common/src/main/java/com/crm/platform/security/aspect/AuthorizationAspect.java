@@ -17,16 +17,29 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
- * Aspect for handling authorization annotations
+ * Aspect for handling authorization annotations.
+ *
+ * The annotations of each intercepted method are resolved once and compiled into an immutable
+ * {@link AuthorizationPlan}; subsequent calls cost one map lookup plus a bitwise set check.
  */
 @Aspect
 @Component
 public class AuthorizationAspect {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(AuthorizationAspect.class);
-    
+
+    private final ConcurrentMap<Method, AuthorizationPlan<Permission>> permissionPlans = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, AuthorizationPlan<Role>> rolePlans = new ConcurrentHashMap<>();
+
     @Before("@annotation(com.crm.platform.security.annotation.RequirePermission) || " +
             "@within(com.crm.platform.security.annotation.RequirePermission)")
     public void checkPermissions(JoinPoint joinPoint) {
@@ -34,54 +47,18 @@ public class AuthorizationAspect {
         if (context == null) {
             throw new AuthenticationRequiredException("Authentication required");
         }
-        
-        RequirePermission annotation = getPermissionAnnotation(joinPoint);
-        if (annotation == null) {
-            return;
-        }
-        
-        // Check if user has all required permissions
-        if (annotation.value().length > 0) {
-            for (Permission permission : annotation.value()) {
-                if (!context.hasPermission(permission)) {
-                    String message = annotation.message().isEmpty() 
-                        ? "Access denied: missing permission " + permission.getCode()
-                        : annotation.message();
-                    
-                    logger.warn("Access denied for user {} (tenant {}): missing permission {}",
-                               context.getUserId(), context.getTenantId(), permission.getCode());
-                    
-                    throw new AccessDeniedException(message);
-                }
-            }
-        }
-        
-        // Check if user has any of the alternative permissions
-        if (annotation.anyOf().length > 0) {
-            boolean hasAnyPermission = false;
-            for (Permission permission : annotation.anyOf()) {
-                if (context.hasPermission(permission)) {
-                    hasAnyPermission = true;
-                    break;
-                }
-            }
-            
-            if (!hasAnyPermission) {
-                String message = annotation.message().isEmpty()
-                    ? "Access denied: missing required permissions"
-                    : annotation.message();
-                
-                logger.warn("Access denied for user {} (tenant {}): missing any of required permissions",
-                           context.getUserId(), context.getTenantId());
-                
-                throw new AccessDeniedException(message);
-            }
+
+        AuthorizationPlan<Permission> plan = permissionPlans.computeIfAbsent(
+            getMethod(joinPoint), AuthorizationAspect::compilePermissionPlan);
+
+        if (!plan.isSatisfiedBy(context.getPermissions())) {
+            deny(plan, context.getPermissions(), context);
         }
-        
+
         logger.debug("Permission check passed for user {} (tenant {})",
                     context.getUserId(), context.getTenantId());
     }
-    
+
     @Before("@annotation(com.crm.platform.security.annotation.RequireRole) || " +
             "@within(com.crm.platform.security.annotation.RequireRole)")
     public void checkRoles(JoinPoint joinPoint) {
@@ -89,79 +66,129 @@ public class AuthorizationAspect {
         if (context == null) {
             throw new AuthenticationRequiredException("Authentication required");
         }
-        
-        RequireRole annotation = getRoleAnnotation(joinPoint);
-        if (annotation == null) {
-            return;
-        }
-        
-        // Check if user has all required roles
-        if (annotation.value().length > 0) {
-            for (Role role : annotation.value()) {
-                if (!context.hasRole(role)) {
-                    String message = annotation.message().isEmpty()
-                        ? "Access denied: missing role " + role.getCode()
-                        : annotation.message();
-                    
-                    logger.warn("Access denied for user {} (tenant {}): missing role {}",
-                               context.getUserId(), context.getTenantId(), role.getCode());
-                    
-                    throw new AccessDeniedException(message);
-                }
-            }
-        }
-        
-        // Check if user has any of the alternative roles
-        if (annotation.anyOf().length > 0) {
-            boolean hasAnyRole = false;
-            for (Role role : annotation.anyOf()) {
-                if (context.hasRole(role)) {
-                    hasAnyRole = true;
-                    break;
-                }
-            }
-            
-            if (!hasAnyRole) {
-                String message = annotation.message().isEmpty()
-                    ? "Access denied: missing required roles"
-                    : annotation.message();
-                
-                logger.warn("Access denied for user {} (tenant {}): missing any of required roles",
-                           context.getUserId(), context.getTenantId());
-                
-                throw new AccessDeniedException(message);
-            }
+
+        AuthorizationPlan<Role> plan = rolePlans.computeIfAbsent(
+            getMethod(joinPoint), AuthorizationAspect::compileRolePlan);
+
+        if (!plan.isSatisfiedBy(context.getRoles())) {
+            deny(plan, context.getRoles(), context);
         }
-        
+
         logger.debug("Role check passed for user {} (tenant {})",
                     context.getUserId(), context.getTenantId());
     }
-    
-    private RequirePermission getPermissionAnnotation(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        
-        // Check method-level annotation first
+
+    private <T extends Enum<T>> void deny(AuthorizationPlan<T> plan, Set<T> granted, SecurityContext context) {
+        T missing = plan.firstMissing(granted);
+        if (missing != null) {
+            logger.warn("Access denied for user {} (tenant {}): missing {} {}",
+                       context.getUserId(), context.getTenantId(), plan.kind, plan.code(missing));
+            throw new AccessDeniedException(plan.missingMessage(missing));
+        }
+
+        logger.warn("Access denied for user {} (tenant {}): missing any of required {}s",
+                   context.getUserId(), context.getTenantId(), plan.kind);
+        throw new AccessDeniedException(plan.anyOfMessage);
+    }
+
+    private static Method getMethod(JoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
+
+    static AuthorizationPlan<Permission> compilePermissionPlan(Method method) {
+        // Check method-level annotation first, then class-level annotation
         RequirePermission annotation = method.getAnnotation(RequirePermission.class);
-        if (annotation != null) {
-            return annotation;
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(RequirePermission.class);
+        }
+        if (annotation == null) {
+            return AuthorizationPlan.none(Permission.class, "permission");
         }
-        
-        // Check class-level annotation
-        return method.getDeclaringClass().getAnnotation(RequirePermission.class);
+        return new AuthorizationPlan<>(Permission.class, "permission", Permission::getCode,
+                                       annotation.value(), annotation.anyOf(), annotation.message());
     }
-    
-    private RequireRole getRoleAnnotation(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        
-        // Check method-level annotation first
+
+    static AuthorizationPlan<Role> compileRolePlan(Method method) {
+        // Check method-level annotation first, then class-level annotation
         RequireRole annotation = method.getAnnotation(RequireRole.class);
-        if (annotation != null) {
-            return annotation;
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(RequireRole.class);
+        }
+        if (annotation == null) {
+            return AuthorizationPlan.none(Role.class, "role");
+        }
+        return new AuthorizationPlan<>(Role.class, "role", Role::getCode,
+                                       annotation.value(), annotation.anyOf(), annotation.message());
+    }
+
+    /**
+     * Immutable, precompiled authorization requirements of a single method
+     */
+    static final class AuthorizationPlan<T extends Enum<T>> {
+
+        private final String kind;
+        private final EnumSet<T> required;
+        private final EnumSet<T> anyOf;
+        // Declaration order of the required values and their denial messages, used only on denial
+        private final T[] requiredInOrder;
+        private final String[] missingMessages;
+        private final String[] codes;
+        private final String anyOfMessage;
+
+        private AuthorizationPlan(Class<T> type, String kind, Function<T, String> codeOf,
+                                  T[] required, T[] anyOf, String message) {
+            this.kind = kind;
+            this.required = toEnumSet(type, required);
+            this.anyOf = toEnumSet(type, anyOf);
+            this.requiredInOrder = required.clone();
+            this.missingMessages = new String[type.getEnumConstants().length];
+            this.codes = new String[type.getEnumConstants().length];
+            for (T value : type.getEnumConstants()) {
+                codes[value.ordinal()] = codeOf.apply(value);
+            }
+            for (T value : required) {
+                missingMessages[value.ordinal()] = message.isEmpty()
+                    ? "Access denied: missing " + kind + " " + codes[value.ordinal()]
+                    : message;
+            }
+            this.anyOfMessage = message.isEmpty()
+                ? "Access denied: missing required " + kind + "s"
+                : message;
+        }
+
+        static <T extends Enum<T>> AuthorizationPlan<T> none(Class<T> type, String kind) {
+            T[] empty = Arrays.copyOf(type.getEnumConstants(), 0);
+            return new AuthorizationPlan<>(type, kind, Enum::name, empty, empty, "");
+        }
+
+        /**
+         * EnumSet.containsAll between two EnumSets is a bitwise comparison, and contains() is a bit test
+         */
+        boolean isSatisfiedBy(Set<T> granted) {
+            return granted.containsAll(required) && (anyOf.isEmpty() || !Collections.disjoint(anyOf, granted));
+        }
+
+        T firstMissing(Set<T> granted) {
+            for (T value : requiredInOrder) {
+                if (!granted.contains(value)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        String missingMessage(T value) {
+            return missingMessages[value.ordinal()];
+        }
+
+        String code(T value) {
+            return codes[value.ordinal()];
+        }
+
+        private static <T extends Enum<T>> EnumSet<T> toEnumSet(Class<T> type, T[] values) {
+            EnumSet<T> set = EnumSet.noneOf(type);
+            Collections.addAll(set, values);
+            return set;
         }
-        
-        // Check class-level annotation
-        return method.getDeclaringClass().getAnnotation(RequireRole.class);
     }
-}
\ No newline at end of file
+}
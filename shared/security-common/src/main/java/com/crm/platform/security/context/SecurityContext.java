@@ -3,6 +3,9 @@ package com.crm.platform.security.context;
 import com.crm.platform.security.rbac.Permission;
 import com.crm.platform.security.rbac.Role;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.UUID;
 
@@ -32,8 +35,8 @@ public class SecurityContext {
         this.tenantId = tenantId;
         this.username = username;
         this.email = email;
-        this.roles = roles;
-        this.permissions = permissions;
+        this.roles = toEnumSet(roles, Role.class);
+        this.permissions = toEnumSet(permissions, Permission.class);
         this.sessionId = sessionId;
         this.deviceId = deviceId;
         this.ipAddress = ipAddress;
@@ -125,6 +128,23 @@ public class SecurityContext {
         return true;
     }
     
+    /**
+     * Roles and permissions are held as EnumSets so that set checks are bitwise operations. The
+     * copy skips nulls, which EnumSet rejects, and is read-only so callers cannot change the
+     * context through the getters.
+     */
+    private static <E extends Enum<E>> Set<E> toEnumSet(Collection<E> values, Class<E> type) {
+        EnumSet<E> set = EnumSet.noneOf(type);
+        if (values != null) {
+            for (E value : values) {
+                if (value != null) {
+                    set.add(value);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(set);
+    }
+    
     public boolean isTokenExpired() {
         return System.currentTimeMillis() > tokenExpiresAt;
     }
@@ -0,0 +1,139 @@
+package com.crm.platform.security.aspect;
+
+import com.crm.platform.security.annotation.RequirePermission;
+import com.crm.platform.security.annotation.RequireRole;
+import com.crm.platform.security.context.SecurityContext;
+import com.crm.platform.security.context.SecurityContextHolder;
+import com.crm.platform.security.exception.AccessDeniedException;
+import com.crm.platform.security.exception.AuthenticationRequiredException;
+import com.crm.platform.security.rbac.Permission;
+import com.crm.platform.security.rbac.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationAspectTest {
+
+    private final Contacts target = new Contacts();
+    private final Contacts contacts = proxy(target);
+    private final Reports reports = proxy(new Reports());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRequiredPermissionsGrantedAllowsCall() {
+        authenticate(Set.of(Role.SALES_REP), Set.of(Permission.CONTACT_READ, Permission.CONTACT_CREATE));
+
+        assertEquals("read", contacts.read());
+        assertEquals("create", contacts.create());
+        assertEquals(1, target.calls);
+    }
+
+    @Test
+    void testMissingPermissionDeniesWithItsCode() {
+        authenticate(Set.of(Role.SALES_REP), Set.of(Permission.CONTACT_READ));
+
+        AccessDeniedException denied = assertThrows(AccessDeniedException.class, contacts::create);
+
+        assertEquals("Access denied: missing permission contact:create", denied.getMessage());
+        assertEquals(0, target.calls);
+    }
+
+    @Test
+    void testAnyOfPermissionsNeedsOneOfThem() {
+        authenticate(Set.of(Role.SALES_REP), Set.of(Permission.DEAL_READ));
+        assertEquals("export", contacts.export());
+
+        authenticate(Set.of(Role.SALES_REP), Set.of(Permission.CONTACT_CREATE));
+        AccessDeniedException denied = assertThrows(AccessDeniedException.class, contacts::export);
+        assertEquals("Exports need contact or deal access", denied.getMessage());
+    }
+
+    @Test
+    void testClassLevelPermissionAppliesToUnannotatedMethods() {
+        authenticate(Set.of(Role.SALES_REP), Set.of());
+
+        assertThrows(AccessDeniedException.class, contacts::read);
+    }
+
+    @Test
+    void testRoleCheckAllowsAndDenies() {
+        authenticate(Set.of(Role.SALES_MANAGER), Set.of());
+        assertEquals("team", reports.team());
+
+        authenticate(Set.of(Role.SALES_REP), Set.of());
+        AccessDeniedException denied = assertThrows(AccessDeniedException.class, reports::team);
+        assertEquals("Access denied: missing required roles", denied.getMessage());
+        assertThrows(AccessDeniedException.class, reports::tenant);
+    }
+
+    @Test
+    void testNullRolesAndPermissionsDenyInsteadOfFailing() {
+        authenticate(null, null);
+
+        assertThrows(AccessDeniedException.class, contacts::read);
+        assertThrows(AccessDeniedException.class, reports::team);
+    }
+
+    @Test
+    void testMissingContextRequiresAuthentication() {
+        assertThrows(AuthenticationRequiredException.class, contacts::read);
+        assertThrows(AuthenticationRequiredException.class, reports::team);
+        assertEquals(0, target.calls);
+    }
+
+    private static void authenticate(Set<Role> roles, Set<Permission> permissions) {
+        long now = System.currentTimeMillis();
+        SecurityContextHolder.setContext(new SecurityContext(UUID.randomUUID(), UUID.randomUUID(), "user",
+            "user@example.com", roles, permissions, null, null, null, null, now, now + 60_000));
+    }
+
+    private static <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new AuthorizationAspect());
+        return factory.getProxy();
+    }
+
+    @RequirePermission(Permission.CONTACT_READ)
+    public static class Contacts {
+
+        int calls;
+
+        public String read() {
+            return "read";
+        }
+
+        @RequirePermission({Permission.CONTACT_READ, Permission.CONTACT_CREATE})
+        public String create() {
+            calls++;
+            return "create";
+        }
+
+        @RequirePermission(anyOf = {Permission.CONTACT_READ, Permission.DEAL_READ},
+                           message = "Exports need contact or deal access")
+        public String export() {
+            return "export";
+        }
+    }
+
+    public static class Reports {
+
+        @RequireRole(anyOf = {Role.SALES_MANAGER, Role.TENANT_ADMIN})
+        public String team() {
+            return "team";
+        }
+
+        @RequireRole(Role.TENANT_ADMIN)
+        public String tenant() {
+            return "tenant";
+        }
+    }
+}